@@ -0,0 +1,295 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.spatial;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The {@link DistanceKernel} for Java 17 and above, written with the
+ * incubating Vector API so that each loop computes a full register of
+ * distances at a time, using the preferred vector shape of the host (256
+ * bits with AVX2, 512 bits with AVX-512).
+ *
+ * <p>Labels and indices are tracked in vectors with as many lanes as the
+ * distances: int vectors of the same shape for floats, and doubles for
+ * doubles, which hold any index exactly and avoid casting masks between
+ * shapes in the inner loops. Ranges that do not fill a whole vector are
+ * finished by the {@link ScalarDistanceKernel}.</p>
+ *
+ * <p>This class is only found in the versioned section of the
+ * multi-release jar, and is loaded reflectively by
+ * {@link DistanceKernels}.</p>
+ */
+final class VectorDistanceKernel implements DistanceKernel {
+
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> FLOAT_LABELS = VectorSpecies.of(int.class, FLOATS.vectorShape());
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> DOUBLE_LABELS = VectorSpecies.of(int.class, VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+
+    VectorDistanceKernel() {
+        // Without at least two doubles to a vector, the Vector API is not
+        // intrinsified, and is far slower than plain loops
+        if (DOUBLES.length() < 2) {
+            throw new UnsupportedOperationException("No vector support on this host");
+        }
+    }
+
+    @Override
+    public void squaredDistances(final float x, final float y, final float z, final float[] xs, final float[] ys, final float[] zs, final int from, final int to,
+            final float[] out, final int offset) {
+        final FloatVector vx = FloatVector.broadcast(FLOATS, x);
+        final FloatVector vy = FloatVector.broadcast(FLOATS, y);
+        final FloatVector vz = FloatVector.broadcast(FLOATS, z);
+        final int lanes = FLOATS.length();
+        final int bound = from + FLOATS.loopBound(to - from);
+        int i = from;
+        int j = offset;
+        for (; i < bound; i += lanes, j += lanes) {
+            final FloatVector dx = FloatVector.fromArray(FLOATS, xs, i).sub(vx);
+            final FloatVector dy = FloatVector.fromArray(FLOATS, ys, i).sub(vy);
+            final FloatVector dz = FloatVector.fromArray(FLOATS, zs, i).sub(vz);
+            dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz)).intoArray(out, j);
+        }
+        ScalarDistanceKernel.INSTANCE.squaredDistances(x, y, z, xs, ys, zs, i, to, out, j);
+    }
+
+    @Override
+    public int nearest(final float x, final float y, final float z, final float[] xs, final float[] ys, final float[] zs, final int from, final int to) {
+        final FloatVector vx = FloatVector.broadcast(FLOATS, x);
+        final FloatVector vy = FloatVector.broadcast(FLOATS, y);
+        final FloatVector vz = FloatVector.broadcast(FLOATS, z);
+        final int lanes = FLOATS.length();
+        final int bound = from + FLOATS.loopBound(to - from);
+        final IntVector step = IntVector.broadcast(FLOAT_LABELS, lanes);
+        FloatVector best = FloatVector.broadcast(FLOATS, Float.POSITIVE_INFINITY);
+        IntVector bestIndices = IntVector.broadcast(FLOAT_LABELS, -1);
+        IntVector indices = IntVector.zero(FLOAT_LABELS).addIndex(1).add(from);
+        int i = from;
+        for (; i < bound; i += lanes) {
+            final FloatVector dx = FloatVector.fromArray(FLOATS, xs, i).sub(vx);
+            final FloatVector dy = FloatVector.fromArray(FLOATS, ys, i).sub(vy);
+            final FloatVector dz = FloatVector.fromArray(FLOATS, zs, i).sub(vz);
+            final FloatVector d = dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz));
+            final VectorMask<Float> closer = d.lt(best);
+            best = best.blend(d, closer);
+            bestIndices = bestIndices.blend(indices, closer.cast(FLOAT_LABELS));
+            indices = indices.add(step);
+        }
+
+        // Each lane holds the first of its own nearest, so the first overall
+        // is the lowest index among the lanes holding the minimum
+        float nearest = best.reduceLanes(VectorOperators.MIN);
+        int index = -1;
+        if (nearest < Float.POSITIVE_INFINITY) {
+            index = bestIndices.reduceLanes(VectorOperators.MIN, best.eq(nearest).cast(FLOAT_LABELS));
+        }
+        for (; i < to; i++) {
+            final float dx = xs[i] - x;
+            final float dy = ys[i] - y;
+            final float dz = zs[i] - z;
+            final float d = dx * dx + dy * dy + dz * dz;
+            if (d < nearest) {
+                nearest = d;
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    @Override
+    public void assign(final float[] xs, final float[] ys, final float[] zs, final int from, final int to,
+            final float[] cxs, final float[] cys, final float[] czs, final int k, final int[] labels, final float[] distances) {
+        final int lanes = FLOATS.length();
+        final int bound = from + FLOATS.loopBound(to - from);
+        final FloatVector infinity = FloatVector.broadcast(FLOATS, Float.POSITIVE_INFINITY);
+        final IntVector none = IntVector.broadcast(FLOAT_LABELS, -1);
+        int i = from;
+        for (; i < bound; i += lanes) {
+            final FloatVector x = FloatVector.fromArray(FLOATS, xs, i);
+            final FloatVector y = FloatVector.fromArray(FLOATS, ys, i);
+            final FloatVector z = FloatVector.fromArray(FLOATS, zs, i);
+            FloatVector best = infinity;
+            IntVector bestLabels = none;
+            for (int c = 0; c < k; c++) {
+                final FloatVector dx = x.sub(cxs[c]);
+                final FloatVector dy = y.sub(cys[c]);
+                final FloatVector dz = z.sub(czs[c]);
+                final FloatVector d = dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz));
+                final VectorMask<Float> closer = d.lt(best);
+                best = best.blend(d, closer);
+                bestLabels = bestLabels.blend(c, closer.cast(FLOAT_LABELS));
+            }
+            bestLabels.intoArray(labels, i);
+            if (distances != null) {
+                best.intoArray(distances, i);
+            }
+        }
+        ScalarDistanceKernel.INSTANCE.assign(xs, ys, zs, i, to, cxs, cys, czs, k, labels, distances);
+    }
+
+    @Override
+    public void withinRadius(final float x, final float y, final float z, final float radiusSq, final float[] xs, final float[] ys, final float[] zs,
+            final int from, final int to, final IndexList result) {
+        final FloatVector vx = FloatVector.broadcast(FLOATS, x);
+        final FloatVector vy = FloatVector.broadcast(FLOATS, y);
+        final FloatVector vz = FloatVector.broadcast(FLOATS, z);
+        final int lanes = FLOATS.length();
+        final int bound = from + FLOATS.loopBound(to - from);
+        int i = from;
+        for (; i < bound; i += lanes) {
+            final FloatVector dx = FloatVector.fromArray(FLOATS, xs, i).sub(vx);
+            final FloatVector dy = FloatVector.fromArray(FLOATS, ys, i).sub(vy);
+            final FloatVector dz = FloatVector.fromArray(FLOATS, zs, i).sub(vz);
+            final FloatVector d = dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz));
+            for (long inside = d.compare(VectorOperators.LE, radiusSq).toLong(); inside != 0; inside &= inside - 1) {
+                result.add(i + Long.numberOfTrailingZeros(inside));
+            }
+        }
+        ScalarDistanceKernel.INSTANCE.withinRadius(x, y, z, radiusSq, xs, ys, zs, i, to, result);
+    }
+
+    @Override
+    public void squaredDistances(final double x, final double y, final double z, final double[] xs, final double[] ys, final double[] zs, final int from, final int to,
+            final double[] out, final int offset) {
+        final DoubleVector vx = DoubleVector.broadcast(DOUBLES, x);
+        final DoubleVector vy = DoubleVector.broadcast(DOUBLES, y);
+        final DoubleVector vz = DoubleVector.broadcast(DOUBLES, z);
+        final int lanes = DOUBLES.length();
+        final int bound = from + DOUBLES.loopBound(to - from);
+        int i = from;
+        int j = offset;
+        for (; i < bound; i += lanes, j += lanes) {
+            final DoubleVector dx = DoubleVector.fromArray(DOUBLES, xs, i).sub(vx);
+            final DoubleVector dy = DoubleVector.fromArray(DOUBLES, ys, i).sub(vy);
+            final DoubleVector dz = DoubleVector.fromArray(DOUBLES, zs, i).sub(vz);
+            dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz)).intoArray(out, j);
+        }
+        ScalarDistanceKernel.INSTANCE.squaredDistances(x, y, z, xs, ys, zs, i, to, out, j);
+    }
+
+    @Override
+    public int nearest(final double x, final double y, final double z, final double[] xs, final double[] ys, final double[] zs, final int from, final int to) {
+        final DoubleVector vx = DoubleVector.broadcast(DOUBLES, x);
+        final DoubleVector vy = DoubleVector.broadcast(DOUBLES, y);
+        final DoubleVector vz = DoubleVector.broadcast(DOUBLES, z);
+        final int lanes = DOUBLES.length();
+        final int bound = from + DOUBLES.loopBound(to - from);
+        final DoubleVector step = DoubleVector.broadcast(DOUBLES, lanes);
+        DoubleVector best = DoubleVector.broadcast(DOUBLES, Double.POSITIVE_INFINITY);
+        DoubleVector bestIndices = DoubleVector.broadcast(DOUBLES, -1);
+        DoubleVector indices = DoubleVector.zero(DOUBLES).addIndex(1).add(from);
+        int i = from;
+        for (; i < bound; i += lanes) {
+            final DoubleVector dx = DoubleVector.fromArray(DOUBLES, xs, i).sub(vx);
+            final DoubleVector dy = DoubleVector.fromArray(DOUBLES, ys, i).sub(vy);
+            final DoubleVector dz = DoubleVector.fromArray(DOUBLES, zs, i).sub(vz);
+            final DoubleVector d = dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz));
+            final VectorMask<Double> closer = d.lt(best);
+            best = best.blend(d, closer);
+            bestIndices = bestIndices.blend(indices, closer);
+            indices = indices.add(step);
+        }
+
+        // Each lane holds the first of its own nearest, so the first overall
+        // is the lowest index among the lanes holding the minimum
+        double nearest = best.reduceLanes(VectorOperators.MIN);
+        int index = -1;
+        if (nearest < Double.POSITIVE_INFINITY) {
+            index = (int) bestIndices.reduceLanes(VectorOperators.MIN, best.eq(nearest));
+        }
+        for (; i < to; i++) {
+            final double dx = xs[i] - x;
+            final double dy = ys[i] - y;
+            final double dz = zs[i] - z;
+            final double d = dx * dx + dy * dy + dz * dz;
+            if (d < nearest) {
+                nearest = d;
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    @Override
+    public void assign(final double[] xs, final double[] ys, final double[] zs, final int from, final int to,
+            final double[] cxs, final double[] cys, final double[] czs, final int k, final int[] labels, final double[] distances) {
+        final int lanes = DOUBLES.length();
+        final int bound = from + DOUBLES.loopBound(to - from);
+        final DoubleVector infinity = DoubleVector.broadcast(DOUBLES, Double.POSITIVE_INFINITY);
+        final DoubleVector none = DoubleVector.broadcast(DOUBLES, -1);
+        int i = from;
+        for (; i < bound; i += lanes) {
+            final DoubleVector x = DoubleVector.fromArray(DOUBLES, xs, i);
+            final DoubleVector y = DoubleVector.fromArray(DOUBLES, ys, i);
+            final DoubleVector z = DoubleVector.fromArray(DOUBLES, zs, i);
+            DoubleVector best = infinity;
+            DoubleVector bestLabels = none;
+            for (int c = 0; c < k; c++) {
+                final DoubleVector dx = x.sub(cxs[c]);
+                final DoubleVector dy = y.sub(cys[c]);
+                final DoubleVector dz = z.sub(czs[c]);
+                final DoubleVector d = dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz));
+                final VectorMask<Double> closer = d.lt(best);
+                best = best.blend(d, closer);
+                bestLabels = bestLabels.blend(c, closer);
+            }
+            bestLabels.convertShape(VectorOperators.D2I, DOUBLE_LABELS, 0).reinterpretAsInts().intoArray(labels, i);
+            if (distances != null) {
+                best.intoArray(distances, i);
+            }
+        }
+        ScalarDistanceKernel.INSTANCE.assign(xs, ys, zs, i, to, cxs, cys, czs, k, labels, distances);
+    }
+
+    @Override
+    public void withinRadius(final double x, final double y, final double z, final double radiusSq, final double[] xs, final double[] ys, final double[] zs,
+            final int from, final int to, final IndexList result) {
+        final DoubleVector vx = DoubleVector.broadcast(DOUBLES, x);
+        final DoubleVector vy = DoubleVector.broadcast(DOUBLES, y);
+        final DoubleVector vz = DoubleVector.broadcast(DOUBLES, z);
+        final int lanes = DOUBLES.length();
+        final int bound = from + DOUBLES.loopBound(to - from);
+        int i = from;
+        for (; i < bound; i += lanes) {
+            final DoubleVector dx = DoubleVector.fromArray(DOUBLES, xs, i).sub(vx);
+            final DoubleVector dy = DoubleVector.fromArray(DOUBLES, ys, i).sub(vy);
+            final DoubleVector dz = DoubleVector.fromArray(DOUBLES, zs, i).sub(vz);
+            final DoubleVector d = dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz));
+            for (long inside = d.compare(VectorOperators.LE, radiusSq).toLong(); inside != 0; inside &= inside - 1) {
+                result.add(i + Long.numberOfTrailingZeros(inside));
+            }
+        }
+        ScalarDistanceKernel.INSTANCE.withinRadius(x, y, z, radiusSq, xs, ys, zs, i, to, result);
+    }
+
+}
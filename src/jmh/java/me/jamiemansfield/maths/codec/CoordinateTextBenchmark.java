@@ -0,0 +1,129 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.codec;
+
+import me.jamiemansfield.maths.coord.Coordinate3dBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link CoordinateTextReader} and {@link CoordinateTextWriter}
+ * with splitting and formatting strings, over surveyed points given to
+ * the millimetre.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoordinateTextBenchmark {
+
+    private static final int COORDINATES = 1 << 16;
+
+    private Coordinate3dBuffer coordinates;
+    private byte[] text;
+
+    @Setup
+    public void setup() throws IOException {
+        final Random random = new Random(0);
+        this.coordinates = new Coordinate3dBuffer(COORDINATES);
+        for (int i = 0; i < COORDINATES; i++) {
+            this.coordinates.add(
+                    Math.round(random.nextDouble() * 1e8) / 1e3,
+                    Math.round(random.nextDouble() * 1e8) / 1e3,
+                    Math.round(random.nextGaussian() * 1e5) / 1e3
+            );
+        }
+        this.text = this.textWrite();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COORDINATES)
+    public Coordinate3dBuffer textRead() throws IOException {
+        final Coordinate3dBuffer buffer = new Coordinate3dBuffer(COORDINATES);
+        try (final CoordinateTextReader reader = new CoordinateTextReader(new ByteArrayInputStream(this.text), 3)) {
+            reader.readAll(buffer);
+        }
+        return buffer;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COORDINATES)
+    public Coordinate3dBuffer stringRead() throws IOException {
+        final Coordinate3dBuffer buffer = new Coordinate3dBuffer(COORDINATES);
+        try (final BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(this.text),
+                StandardCharsets.US_ASCII))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final String[] parts = line.split(",");
+                buffer.add(Double.parseDouble(parts[0]), Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+            }
+        }
+        return buffer;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COORDINATES)
+    public byte[] textWrite() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(COORDINATES * 32);
+        try (final CoordinateTextWriter writer = new CoordinateTextWriter(out)) {
+            writer.writeAll(this.coordinates);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COORDINATES)
+    public byte[] stringWrite() {
+        final StringBuilder builder = new StringBuilder(COORDINATES * 32);
+        for (int i = 0; i < COORDINATES; i++) {
+            builder.append(this.coordinates.getX(i)).append(',')
+                    .append(this.coordinates.getY(i)).append(',')
+                    .append(this.coordinates.getZ(i)).append('\n');
+        }
+        return builder.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+}
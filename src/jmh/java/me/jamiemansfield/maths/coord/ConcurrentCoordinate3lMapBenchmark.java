@@ -0,0 +1,214 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.coord;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stresses {@link ConcurrentCoordinate3lMap}, a {@link ConcurrentHashMap}
+ * keyed by {@link Coordinate3l} and a {@link Coordinate3lMap} behind a
+ * single lock, with a fixed batch of reads and atomic updates shared out
+ * between 1 to 64 threads.
+ *
+ * <p>The score is the time per operation across the whole batch, so
+ * perfect scaling divides it by the number of threads, up to the number
+ * of available processors.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentCoordinate3lMapBenchmark {
+
+    private static final int OPERATIONS = 1 << 18;
+    private static final int COORDINATES = 1 << 16;
+
+    @Param({ "1", "2", "4", "8", "16", "32", "64" })
+    private int threads;
+
+    @Param({ "striped", "concurrentHashMap", "locked" })
+    private String map;
+
+    private long[] coordinates;
+    private ExecutorService executor;
+    private Worker[] workers;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Random random = new Random(0);
+        this.coordinates = new long[OPERATIONS * 3];
+        for (int i = 0; i < this.coordinates.length; i += 3) {
+            // clustered around the origin, as simulated entities are
+            this.coordinates[i] = (long) (random.nextGaussian() * 32);
+            this.coordinates[i + 1] = random.nextInt(16);
+            this.coordinates[i + 2] = (long) (random.nextGaussian() * 32);
+        }
+        this.executor = Executors.newFixedThreadPool(this.threads);
+        this.workers = new Worker[this.threads];
+        final Counter counter = this.createCounter();
+        for (int i = 0; i < this.threads; i++) {
+            this.workers[i] = new Worker(counter, this.coordinates, OPERATIONS * i / this.threads, OPERATIONS * (i + 1) / this.threads);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public long readAndUpdate() throws Exception {
+        final Future<?>[] futures = new Future<?>[this.threads];
+        for (int i = 0; i < this.threads; i++) {
+            futures[i] = this.executor.submit(this.workers[i]);
+        }
+        long total = 0;
+        for (final Future<?> future : futures) {
+            total += (Long) future.get();
+        }
+        return total;
+    }
+
+    private Counter createCounter() {
+        switch (this.map) {
+            case "striped": {
+                final ConcurrentCoordinate3lMap<Long> map = new ConcurrentCoordinate3lMap<>(COORDINATES);
+                return new Counter() {
+                    @Override
+                    public long get(final long x, final long y, final long z) {
+                        return map.getOrDefault(x, y, z, 0L);
+                    }
+
+                    @Override
+                    public void increment(final long x, final long y, final long z) {
+                        map.merge(x, y, z, 1L, Long::sum);
+                    }
+                };
+            }
+            case "concurrentHashMap": {
+                final Map<Coordinate3l, Long> map = new ConcurrentHashMap<>(COORDINATES);
+                return new Counter() {
+                    @Override
+                    public long get(final long x, final long y, final long z) {
+                        return map.getOrDefault(new Coordinate3l(x, y, z), 0L);
+                    }
+
+                    @Override
+                    public void increment(final long x, final long y, final long z) {
+                        map.merge(new Coordinate3l(x, y, z), 1L, Long::sum);
+                    }
+                };
+            }
+            case "locked": {
+                final Coordinate3lMap<Long> map = new Coordinate3lMap<>(COORDINATES);
+                return new Counter() {
+                    @Override
+                    public synchronized long get(final long x, final long y, final long z) {
+                        return map.getOrDefault(x, y, z, 0L);
+                    }
+
+                    @Override
+                    public synchronized void increment(final long x, final long y, final long z) {
+                        final Long count = map.get(x, y, z);
+                        map.put(x, y, z, count == null ? 1L : count + 1);
+                    }
+                };
+            }
+            default:
+                throw new IllegalArgumentException(this.map);
+        }
+    }
+
+    private interface Counter {
+
+        long get(long x, long y, long z);
+
+        void increment(long x, long y, long z);
+
+    }
+
+    /**
+     * Performs a share of the batch: three reads to each update.
+     */
+    private static final class Worker implements Callable<Long> {
+
+        private final Counter counter;
+        private final long[] coordinates;
+        private final int from;
+        private final int to;
+
+        Worker(final Counter counter, final long[] coordinates, final int from, final int to) {
+            this.counter = counter;
+            this.coordinates = coordinates;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Long call() {
+            long total = 0;
+            for (int i = this.from; i < this.to; i++) {
+                final int index = i * 3;
+                final long x = this.coordinates[index];
+                final long y = this.coordinates[index + 1];
+                final long z = this.coordinates[index + 2];
+                if ((i & 3) == 0) {
+                    this.counter.increment(x, y, z);
+                } else {
+                    total += this.counter.get(x, y, z);
+                }
+            }
+            return total;
+        }
+
+    }
+
+}
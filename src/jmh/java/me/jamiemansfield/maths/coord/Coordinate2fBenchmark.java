@@ -0,0 +1,160 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.coord;
+
+import com.flowpowered.math.vector.Vector2f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Baseline benchmarks of {@link Coordinate2f}, and of {@link MutableCoordinate2f}.
+ *
+ * <p>The {@code tick} benchmarks move every one of a set of positions,
+ * as a per-tick entity update would. Run with {@code -prof gc} to compare
+ * their allocation rates.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Coordinate2fBenchmark {
+
+    private static final int KEYS = 4096;
+
+    private Coordinate2f coord;
+    private Coordinate2f equal;
+    private Vector2f vector;
+    private Coordinate2f[] keys;
+    private Map<Coordinate2f, Integer> map;
+    private MutableCoordinate2f mutable;
+    private Coordinate2f[] positions;
+    private MutableCoordinate2f[] mutables;
+
+    @Setup
+    public void setup() {
+        this.coord = new Coordinate2f(1.5f, 2.25f);
+        this.equal = new Coordinate2f(1.5f, 2.25f);
+        this.vector = new Vector2f(0.5f, 2.25f);
+        this.keys = new Coordinate2f[KEYS];
+        this.map = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            this.keys[i] = new Coordinate2f((i % 32) * 0.5f, ((i / 32) % 32) * 0.5f);
+            this.map.put(this.keys[i], i);
+        }
+        this.mutable = MutableCoordinate2f.from(this.coord);
+        this.positions = this.keys.clone();
+        this.mutables = new MutableCoordinate2f[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            this.mutables[i] = MutableCoordinate2f.from(this.keys[i]);
+        }
+    }
+
+    @Benchmark
+    public Coordinate2f move() {
+        return this.coord.move(this.vector);
+    }
+
+    @Benchmark
+    public boolean equality() {
+        return this.coord.equals(this.equal);
+    }
+
+    @Benchmark
+    public int hashing() {
+        return this.coord.hashCode();
+    }
+
+    @Benchmark
+    public String stringify() {
+        return this.coord.toString();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public Map<Coordinate2f, Integer> hashMapInsert() {
+        final Map<Coordinate2f, Integer> map = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            map.put(this.keys[i], i);
+        }
+        return map;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public void hashMapLookup(final Blackhole blackhole) {
+        for (final Coordinate2f key : this.keys) {
+            blackhole.consume(this.map.get(key));
+        }
+    }
+
+    @Benchmark
+    public MutableCoordinate2f moveMutable() {
+        return this.mutable.move(this.vector);
+    }
+
+    @Benchmark
+    public float moveScratch() {
+        final MutableCoordinate2f scratch = MutableCoordinate2f.acquire();
+        final float x = scratch.set(this.coord).move(this.vector).getX();
+        scratch.release();
+        return x;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public Coordinate2f[] tick() {
+        for (int i = 0; i < KEYS; i++) {
+            this.positions[i] = this.positions[i].move(this.vector);
+        }
+        return this.positions;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public MutableCoordinate2f[] tickMutable() {
+        for (final MutableCoordinate2f position : this.mutables) {
+            position.move(this.vector);
+        }
+        return this.mutables;
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.coord;
+
+import com.flowpowered.math.vector.Vector2i;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Baseline benchmarks of {@link Coordinate2i}, and of {@link MutableCoordinate2i}.
+ *
+ * <p>The {@code tick} benchmarks move every one of a set of positions,
+ * as a per-tick entity update would. Run with {@code -prof gc} to compare
+ * their allocation rates.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Coordinate2iBenchmark {
+
+    private static final int KEYS = 4096;
+
+    private Coordinate2i coord;
+    private Coordinate2i equal;
+    private Vector2i vector;
+    private Coordinate2i[] keys;
+    private Map<Coordinate2i, Integer> map;
+    private MutableCoordinate2i mutable;
+    private Coordinate2i[] positions;
+    private MutableCoordinate2i[] mutables;
+
+    @Setup
+    public void setup() {
+        this.coord = new Coordinate2i(1, 2);
+        this.equal = new Coordinate2i(1, 2);
+        this.vector = new Vector2i(3, 2);
+        this.keys = new Coordinate2i[KEYS];
+        this.map = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            this.keys[i] = new Coordinate2i((i % 32), ((i / 32) % 32));
+            this.map.put(this.keys[i], i);
+        }
+        this.mutable = MutableCoordinate2i.from(this.coord);
+        this.positions = this.keys.clone();
+        this.mutables = new MutableCoordinate2i[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            this.mutables[i] = MutableCoordinate2i.from(this.keys[i]);
+        }
+    }
+
+    @Benchmark
+    public Coordinate2i move() {
+        return this.coord.move(this.vector);
+    }
+
+    @Benchmark
+    public boolean equality() {
+        return this.coord.equals(this.equal);
+    }
+
+    @Benchmark
+    public int hashing() {
+        return this.coord.hashCode();
+    }
+
+    @Benchmark
+    public String stringify() {
+        return this.coord.toString();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public Map<Coordinate2i, Integer> hashMapInsert() {
+        final Map<Coordinate2i, Integer> map = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            map.put(this.keys[i], i);
+        }
+        return map;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public void hashMapLookup(final Blackhole blackhole) {
+        for (final Coordinate2i key : this.keys) {
+            blackhole.consume(this.map.get(key));
+        }
+    }
+
+    @Benchmark
+    public MutableCoordinate2i moveMutable() {
+        return this.mutable.move(this.vector);
+    }
+
+    @Benchmark
+    public int moveScratch() {
+        final MutableCoordinate2i scratch = MutableCoordinate2i.acquire();
+        final int x = scratch.set(this.coord).move(this.vector).getX();
+        scratch.release();
+        return x;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public Coordinate2i[] tick() {
+        for (int i = 0; i < KEYS; i++) {
+            this.positions[i] = this.positions[i].move(this.vector);
+        }
+        return this.positions;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public MutableCoordinate2i[] tickMutable() {
+        for (final MutableCoordinate2i position : this.mutables) {
+            position.move(this.vector);
+        }
+        return this.mutables;
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.coord;
+
+import com.flowpowered.math.vector.Vector2l;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Baseline benchmarks of {@link Coordinate2l}, and of {@link MutableCoordinate2l}.
+ *
+ * <p>The {@code tick} benchmarks move every one of a set of positions,
+ * as a per-tick entity update would. Run with {@code -prof gc} to compare
+ * their allocation rates.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Coordinate2lBenchmark {
+
+    private static final int KEYS = 4096;
+
+    private Coordinate2l coord;
+    private Coordinate2l equal;
+    private Vector2l vector;
+    private Coordinate2l[] keys;
+    private Map<Coordinate2l, Integer> map;
+    private MutableCoordinate2l mutable;
+    private Coordinate2l[] positions;
+    private MutableCoordinate2l[] mutables;
+
+    @Setup
+    public void setup() {
+        this.coord = new Coordinate2l(1L, 2L);
+        this.equal = new Coordinate2l(1L, 2L);
+        this.vector = new Vector2l(3L, 2L);
+        this.keys = new Coordinate2l[KEYS];
+        this.map = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            this.keys[i] = new Coordinate2l((long) (i % 32), (long) ((i / 32) % 32));
+            this.map.put(this.keys[i], i);
+        }
+        this.mutable = MutableCoordinate2l.from(this.coord);
+        this.positions = this.keys.clone();
+        this.mutables = new MutableCoordinate2l[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            this.mutables[i] = MutableCoordinate2l.from(this.keys[i]);
+        }
+    }
+
+    @Benchmark
+    public Coordinate2l move() {
+        return this.coord.move(this.vector);
+    }
+
+    @Benchmark
+    public boolean equality() {
+        return this.coord.equals(this.equal);
+    }
+
+    @Benchmark
+    public int hashing() {
+        return this.coord.hashCode();
+    }
+
+    @Benchmark
+    public String stringify() {
+        return this.coord.toString();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public Map<Coordinate2l, Integer> hashMapInsert() {
+        final Map<Coordinate2l, Integer> map = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            map.put(this.keys[i], i);
+        }
+        return map;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public void hashMapLookup(final Blackhole blackhole) {
+        for (final Coordinate2l key : this.keys) {
+            blackhole.consume(this.map.get(key));
+        }
+    }
+
+    @Benchmark
+    public MutableCoordinate2l moveMutable() {
+        return this.mutable.move(this.vector);
+    }
+
+    @Benchmark
+    public long moveScratch() {
+        final MutableCoordinate2l scratch = MutableCoordinate2l.acquire();
+        final long x = scratch.set(this.coord).move(this.vector).getX();
+        scratch.release();
+        return x;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public Coordinate2l[] tick() {
+        for (int i = 0; i < KEYS; i++) {
+            this.positions[i] = this.positions[i].move(this.vector);
+        }
+        return this.positions;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public MutableCoordinate2l[] tickMutable() {
+        for (final MutableCoordinate2l position : this.mutables) {
+            position.move(this.vector);
+        }
+        return this.mutables;
+    }
+
+}
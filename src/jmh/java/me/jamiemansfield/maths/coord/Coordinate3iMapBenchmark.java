@@ -0,0 +1,138 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.coord;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link Coordinate3iMap} with a {@link HashMap} keyed by
+ * {@link Coordinate3i}, over a dense grid of keys - the case in which
+ * {@link Coordinate3i#hashCode()} collides most.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Coordinate3iMapBenchmark {
+
+    private static final int SIDE = 64;
+    private static final int KEYS = SIDE * SIDE * SIDE;
+
+    private int[] xs;
+    private int[] ys;
+    private int[] zs;
+    private Coordinate3i[] keys;
+    private Map<Coordinate3i, Integer> hashMap;
+    private Coordinate3iMap<Integer> coordinateMap;
+
+    @Setup
+    public void setup() {
+        this.xs = new int[KEYS];
+        this.ys = new int[KEYS];
+        this.zs = new int[KEYS];
+        this.keys = new Coordinate3i[KEYS];
+        this.hashMap = new HashMap<>();
+        this.coordinateMap = new Coordinate3iMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            this.xs[i] = i % SIDE;
+            this.ys[i] = (i / SIDE) % SIDE;
+            this.zs[i] = i / (SIDE * SIDE);
+            this.keys[i] = new Coordinate3i(this.xs[i], this.ys[i], this.zs[i]);
+            this.hashMap.put(this.keys[i], i);
+            this.coordinateMap.put(this.xs[i], this.ys[i], this.zs[i], i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public Map<Coordinate3i, Integer> hashMapInsert() {
+        final Map<Coordinate3i, Integer> map = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            map.put(new Coordinate3i(this.xs[i], this.ys[i], this.zs[i]), i);
+        }
+        return map;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public Coordinate3iMap<Integer> coordinateMapInsert() {
+        final Coordinate3iMap<Integer> map = new Coordinate3iMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            map.put(this.xs[i], this.ys[i], this.zs[i], i);
+        }
+        return map;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public void hashMapLookup(final Blackhole blackhole) {
+        for (int i = 0; i < KEYS; i++) {
+            blackhole.consume(this.hashMap.get(new Coordinate3i(this.xs[i], this.ys[i], this.zs[i])));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public void coordinateMapLookup(final Blackhole blackhole) {
+        for (int i = 0; i < KEYS; i++) {
+            blackhole.consume(this.coordinateMap.get(this.xs[i], this.ys[i], this.zs[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public void objectsHash(final Blackhole blackhole) {
+        for (final Coordinate3i key : this.keys) {
+            blackhole.consume(key.hashCode());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public void coordinateHash(final Blackhole blackhole) {
+        for (int i = 0; i < KEYS; i++) {
+            blackhole.consume(CoordinateHash.hash(this.xs[i], this.ys[i], this.zs[i]));
+        }
+    }
+
+}
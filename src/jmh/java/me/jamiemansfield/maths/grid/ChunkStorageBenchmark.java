@@ -0,0 +1,164 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.grid;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link ChunkStorage}s of a {@link VoxelGrid}, over
+ * layered terrain of a handful of materials.
+ *
+ * <p>The approximate memory occupied by each grid, before and after
+ * {@link VoxelGrid#compact() compaction}, is reported by the secondary
+ * results of {@link #footprint(Footprint)}.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChunkStorageBenchmark {
+
+    private static final int SIZE = 128;
+    private static final int HEIGHT = 64;
+    private static final int VOXELS = SIZE * HEIGHT * SIZE;
+    private static final int LOOKUPS = 1 << 16;
+
+    private static final int STONE = 1;
+    private static final int DIRT = 2;
+    private static final int GRASS = 3;
+    private static final int ORE = 4;
+    private static final int WATER = 5;
+
+    @Param({ "DENSE", "PALETTE" })
+    private ChunkStorage storage;
+
+    private int[] materials;
+    private int[] lookups;
+    private VoxelGrid grid;
+    private VoxelGrid compacted;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0);
+        this.materials = new int[VOXELS];
+        for (int x = 0; x < SIZE; x++) {
+            for (int z = 0; z < SIZE; z++) {
+                final int ground = 32 + (int) (8 * Math.sin(x / 11.0) * Math.cos(z / 13.0));
+                for (int y = 0; y < HEIGHT; y++) {
+                    final int material;
+                    if (y < ground - 4) {
+                        material = random.nextInt(64) == 0 ? ORE : STONE;
+                    } else if (y < ground) {
+                        material = DIRT;
+                    } else if (y == ground) {
+                        material = GRASS;
+                    } else {
+                        material = y < 30 ? WATER : 0;
+                    }
+                    this.materials[(x * HEIGHT + y) * SIZE + z] = material;
+                }
+            }
+        }
+        this.lookups = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            this.lookups[i] = random.nextInt(VOXELS);
+        }
+        this.grid = this.populate();
+        this.compacted = this.populate();
+        this.compacted.compact();
+    }
+
+    // the counters of each iteration are summed, so there is only one
+    @Benchmark
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public long footprint(final Footprint footprint) {
+        footprint.bytesPerVoxel = (double) this.grid.storageBytes() / VOXELS;
+        footprint.compactedBytesPerVoxel = (double) this.compacted.storageBytes() / VOXELS;
+        return this.grid.storageBytes();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VOXELS)
+    public VoxelGrid populate() {
+        final VoxelGrid grid = new VoxelGrid(this.storage);
+        for (int x = 0, i = 0; x < SIZE; x++) {
+            for (int y = 0; y < HEIGHT; y++) {
+                for (int z = 0; z < SIZE; z++, i++) {
+                    grid.set(x, y, z, this.materials[i]);
+                }
+            }
+        }
+        return grid;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void randomRead(final Blackhole blackhole) {
+        for (final int voxel : this.lookups) {
+            blackhole.consume(this.grid.get(voxel / (HEIGHT * SIZE), (voxel / SIZE) % HEIGHT, voxel % SIZE));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void randomReadCompacted(final Blackhole blackhole) {
+        for (final int voxel : this.lookups) {
+            blackhole.consume(this.compacted.get(voxel / (HEIGHT * SIZE), (voxel / SIZE) % HEIGHT, voxel % SIZE));
+        }
+    }
+
+    /**
+     * The approximate memory occupied by each voxel of the grids.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+
+        public double bytesPerVoxel;
+        public double compactedBytesPerVoxel;
+
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.grid;
+
+import me.jamiemansfield.maths.coord.Coordinate3i;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link VoxelGrid} with a {@link HashMap} keyed by
+ * {@link Coordinate3i}, over clustered voxels.
+ *
+ * <p>Run with the GC profiler: the {@code gc.alloc.rate.norm} of the
+ * populate benchmarks, divided by the number of voxels, approximates the
+ * memory cost of each voxel.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VoxelGridBenchmark {
+
+    private static final int VOXELS = 1 << 16;
+
+    private int[] xs;
+    private int[] ys;
+    private int[] zs;
+    private VoxelGrid grid;
+    private Map<Coordinate3i, Integer> map;
+
+    @Setup
+    public void setup() {
+        // a handful of dense blobs, scattered through a large space
+        final Random random = new Random(0);
+        this.xs = new int[VOXELS];
+        this.ys = new int[VOXELS];
+        this.zs = new int[VOXELS];
+        for (int i = 0; i < VOXELS; i++) {
+            final int blob = i >> 12;
+            this.xs[i] = blob * 1000 + random.nextInt(24);
+            this.ys[i] = random.nextInt(24);
+            this.zs[i] = blob * -700 + random.nextInt(24);
+        }
+        this.grid = this.voxelGridPopulate();
+        this.map = this.hashMapPopulate();
+    }
+
+    @Benchmark
+    public VoxelGrid voxelGridPopulate() {
+        final VoxelGrid grid = new VoxelGrid();
+        for (int i = 0; i < VOXELS; i++) {
+            grid.set(this.xs[i], this.ys[i], this.zs[i], i + 1);
+        }
+        return grid;
+    }
+
+    @Benchmark
+    public Map<Coordinate3i, Integer> hashMapPopulate() {
+        final Map<Coordinate3i, Integer> map = new HashMap<>();
+        for (int i = 0; i < VOXELS; i++) {
+            map.put(new Coordinate3i(this.xs[i], this.ys[i], this.zs[i]), i + 1);
+        }
+        return map;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VOXELS)
+    public void voxelGridLookup(final Blackhole blackhole) {
+        for (int i = 0; i < VOXELS; i++) {
+            blackhole.consume(this.grid.get(this.xs[i], this.ys[i], this.zs[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VOXELS)
+    public void hashMapLookup(final Blackhole blackhole) {
+        for (int i = 0; i < VOXELS; i++) {
+            blackhole.consume(this.map.get(new Coordinate3i(this.xs[i], this.ys[i], this.zs[i])));
+        }
+    }
+
+}
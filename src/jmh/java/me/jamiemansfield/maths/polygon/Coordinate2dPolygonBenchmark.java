@@ -0,0 +1,92 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.polygon;
+
+import me.jamiemansfield.maths.coord.Coordinate2dBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the hull of a million normally distributed points, and
+ * testing a million points against a polygon of ten thousand vertices.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Coordinate2dPolygonBenchmark {
+
+    private static final int POINTS = 1 << 20;
+    private static final int VERTICES = 10000;
+
+    private Coordinate2dBuffer points;
+    private Coordinate2dBuffer uniform;
+    private Coordinate2dPolygon polygon;
+    private boolean[] inside;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0);
+        this.points = new Coordinate2dBuffer(POINTS);
+        this.uniform = new Coordinate2dBuffer(POINTS);
+        for (int i = 0; i < POINTS; i++) {
+            this.points.add(random.nextGaussian(), random.nextGaussian());
+            this.uniform.add(random.nextDouble() * 3 - 1.5, random.nextDouble() * 3 - 1.5);
+        }
+        final Coordinate2dBuffer vertices = new Coordinate2dBuffer(VERTICES);
+        for (int i = 0; i < VERTICES; i++) {
+            final double angle = 2 * Math.PI * i / VERTICES;
+            final double radius = 1 + 0.05 * random.nextDouble();
+            vertices.add(radius * Math.cos(angle), radius * Math.sin(angle));
+        }
+        this.polygon = Coordinate2dPolygon.of(vertices);
+        this.inside = new boolean[POINTS];
+    }
+
+    @Benchmark
+    public Coordinate2dBuffer hull() {
+        return Coordinate2dHull.compute(this.points);
+    }
+
+    @Benchmark
+    public int classify() {
+        return this.polygon.classify(this.uniform, this.inside);
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.spatial;
+
+import me.jamiemansfield.maths.coord.Coordinate2dBuffer;
+import me.jamiemansfield.maths.coord.Coordinate3dBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures DBSCAN and k-means over a million points, drawn from sixteen
+ * Gaussian blobs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClusteringBenchmark {
+
+    private static final int POINTS = 1 << 20;
+    private static final int CLUSTERS = 16;
+
+    private Coordinate2dBuffer points2d;
+    private Coordinate3dBuffer points3d;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0);
+        this.points2d = new Coordinate2dBuffer(POINTS);
+        this.points3d = new Coordinate3dBuffer(POINTS);
+        for (int i = 0; i < POINTS; i++) {
+            final int cluster = random.nextInt(CLUSTERS);
+            final double x = (cluster & 3) * 8 + random.nextGaussian();
+            final double y = (cluster >> 2) * 8 + random.nextGaussian();
+            this.points2d.add(x, y);
+            this.points3d.add(x, y, random.nextGaussian());
+        }
+    }
+
+    @Benchmark
+    public int[] dbscan2d() {
+        return Coordinate2dDbscan.cluster(this.points2d, 0.05, 8);
+    }
+
+    @Benchmark
+    public int[] dbscan3d() {
+        return Coordinate3dDbscan.cluster(this.points3d, 0.25, 8);
+    }
+
+    @Benchmark
+    public Coordinate2dKMeans kMeans2d() {
+        return Coordinate2dKMeans.fit(this.points2d, CLUSTERS, 20, 0);
+    }
+
+    @Benchmark
+    public Coordinate3dKMeans kMeans3d() {
+        return Coordinate3dKMeans.fit(this.points3d, CLUSTERS, 20, 0);
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.spatial;
+
+import me.jamiemansfield.maths.coord.Coordinate3fBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a tick of moving entities through a {@link Coordinate3fHashGrid}
+ * and finding every close pair, with rebuilding a
+ * {@link Coordinate3fKdTree} each tick and querying it per entity.
+ *
+ * <p>Run with the GC profiler: the hash grid should allocate nothing
+ * per tick.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Coordinate3fHashGridBenchmark {
+
+    private static final int ENTITIES = 1 << 14;
+    private static final float EXTENT = 128;
+    private static final float DISTANCE = 2;
+
+    private float[] xs;
+    private float[] ys;
+    private float[] zs;
+    private float[] velocities;
+    private int[] ids;
+    private Coordinate3fHashGrid grid;
+    private Coordinate3fBuffer buffer;
+    private IndexList result;
+    private long pairs;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0);
+        this.xs = new float[ENTITIES];
+        this.ys = new float[ENTITIES];
+        this.zs = new float[ENTITIES];
+        this.velocities = new float[ENTITIES];
+        this.ids = new int[ENTITIES];
+        this.grid = new Coordinate3fHashGrid(DISTANCE, ENTITIES);
+        this.buffer = new Coordinate3fBuffer(ENTITIES);
+        this.result = new IndexList();
+        for (int i = 0; i < ENTITIES; i++) {
+            this.xs[i] = random.nextFloat() * EXTENT;
+            this.ys[i] = random.nextFloat() * EXTENT;
+            this.zs[i] = random.nextFloat() * EXTENT;
+            this.velocities[i] = random.nextFloat() - 0.5f;
+            this.ids[i] = this.grid.add(this.xs[i], this.ys[i], this.zs[i]);
+        }
+    }
+
+    @Benchmark
+    public long hashGridTick() {
+        this.step();
+        for (int i = 0; i < ENTITIES; i++) {
+            this.grid.move(this.ids[i], this.xs[i], this.ys[i], this.zs[i]);
+        }
+        this.pairs = 0;
+        this.grid.forEachPairWithin(DISTANCE, (a, b) -> this.pairs++);
+        return this.pairs;
+    }
+
+    @Benchmark
+    public long kdTreeTick() {
+        this.step();
+        this.buffer.clear();
+        for (int i = 0; i < ENTITIES; i++) {
+            this.buffer.add(this.xs[i], this.ys[i], this.zs[i]);
+        }
+        final Coordinate3fKdTree tree = Coordinate3fKdTree.build(this.buffer);
+        long pairs = 0;
+        for (int i = 0; i < ENTITIES; i++) {
+            tree.withinRadius(this.xs[i], this.ys[i], this.zs[i], DISTANCE, this.result);
+            pairs += this.result.size() - 1;
+        }
+        return pairs / 2;
+    }
+
+    private void step() {
+        for (int i = 0; i < ENTITIES; i++) {
+            this.xs[i] = (this.xs[i] + this.velocities[i] + EXTENT) % EXTENT;
+        }
+    }
+
+}
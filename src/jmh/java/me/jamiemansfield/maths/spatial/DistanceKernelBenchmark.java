@@ -0,0 +1,150 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.spatial;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scalar and Vector API {@link DistanceKernel}s, over a
+ * million random points.
+ *
+ * <p>The vector kernel needs Java 17 or above, with the
+ * {@code jdk.incubator.vector} module added, which the {@code jmh} task
+ * does where it can. Where it is unavailable, the {@code vector} trials
+ * fail in setup.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistanceKernelBenchmark {
+
+    private static final int POINTS = 1 << 20;
+    private static final int CENTRES = 16;
+
+    @Param({ "scalar", "vector" })
+    private String kernel;
+
+    private DistanceKernel distances;
+    private float[] xs;
+    private float[] ys;
+    private float[] zs;
+    private double[] dxs;
+    private double[] dys;
+    private double[] dzs;
+    private float[] out;
+    private double[] dout;
+    private int[] labels;
+    private IndexList result;
+
+    @Setup
+    public void setup() {
+        this.distances = this.kernel.equals("scalar") ? ScalarDistanceKernel.INSTANCE : DistanceKernels.vector();
+        if (this.distances == null) {
+            throw new IllegalStateException("The Vector API kernel is unavailable on this runtime");
+        }
+        final Random random = new Random(0);
+        this.xs = new float[POINTS];
+        this.ys = new float[POINTS];
+        this.zs = new float[POINTS];
+        this.dxs = new double[POINTS];
+        this.dys = new double[POINTS];
+        this.dzs = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            this.dxs[i] = this.xs[i] = random.nextFloat();
+            this.dys[i] = this.ys[i] = random.nextFloat();
+            this.dzs[i] = this.zs[i] = random.nextFloat();
+        }
+        this.out = new float[POINTS];
+        this.dout = new double[POINTS];
+        this.labels = new int[POINTS];
+        this.result = new IndexList(POINTS);
+    }
+
+    @Benchmark
+    public float[] squaredDistances3f() {
+        this.distances.squaredDistances(0.5f, 0.5f, 0.5f, this.xs, this.ys, this.zs, 0, POINTS, this.out, 0);
+        return this.out;
+    }
+
+    @Benchmark
+    public double[] squaredDistances3d() {
+        this.distances.squaredDistances(0.5, 0.5, 0.5, this.dxs, this.dys, this.dzs, 0, POINTS, this.dout, 0);
+        return this.dout;
+    }
+
+    @Benchmark
+    public int nearest3f() {
+        return this.distances.nearest(0.5f, 0.5f, 0.5f, this.xs, this.ys, this.zs, 0, POINTS);
+    }
+
+    @Benchmark
+    public int nearest3d() {
+        return this.distances.nearest(0.5, 0.5, 0.5, this.dxs, this.dys, this.dzs, 0, POINTS);
+    }
+
+    @Benchmark
+    public int[] assign3f() {
+        this.distances.assign(this.xs, this.ys, this.zs, 0, POINTS, this.xs, this.ys, this.zs, CENTRES, this.labels, this.out);
+        return this.labels;
+    }
+
+    @Benchmark
+    public int[] assign3d() {
+        this.distances.assign(this.dxs, this.dys, this.dzs, 0, POINTS, this.dxs, this.dys, this.dzs, CENTRES, this.labels, this.dout);
+        return this.labels;
+    }
+
+    @Benchmark
+    public int withinRadius3f() {
+        this.result.clear();
+        this.distances.withinRadius(0.5f, 0.5f, 0.5f, 0.01f, this.xs, this.ys, this.zs, 0, POINTS, this.result);
+        return this.result.size();
+    }
+
+    @Benchmark
+    public int withinRadius3d() {
+        this.result.clear();
+        this.distances.withinRadius(0.5, 0.5, 0.5, 0.01, this.dxs, this.dys, this.dzs, 0, POINTS, this.result);
+        return this.result.size();
+    }
+
+}
@@ -0,0 +1,533 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.bounds;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.base.MoreObjects;
+import me.jamiemansfield.maths.coord.Coordinate2f;
+import me.jamiemansfield.maths.coord.Coordinate2fBuffer;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+/**
+ * An axis-aligned bounding rectangle of float positions, within a
+ * 2-dimensional environment.
+ *
+ * <p>Both bounds are inclusive, so the rectangle is closed, and a
+ * rectangle of no extent contains a single point.</p>
+ */
+public final class Bounds2f {
+
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    /**
+     * Creates the smallest rectangle containing both of the given coordinates.
+     *
+     * @param a The first coordinate
+     * @param b The second coordinate
+     * @return The rectangle
+     */
+    public static Bounds2f of(final Coordinate2f a, final Coordinate2f b) {
+        return new Bounds2f(Math.min(a.getX(), b.getX()), Math.min(a.getY(), b.getY()),
+                Math.max(a.getX(), b.getX()), Math.max(a.getY(), b.getY()));
+    }
+
+    /**
+     * Computes the smallest rectangle containing every coordinate of the
+     * given buffer, splitting large buffers across the common
+     * {@link ForkJoinPool}.
+     *
+     * @param buffer The buffer
+     * @return The rectangle, or {@code null} if the buffer is empty
+     */
+    public static Bounds2f bounding(final Coordinate2fBuffer buffer) {
+        return bounding(buffer, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the smallest rectangle containing every coordinate of the
+     * given buffer, splitting large buffers across the given pool.
+     *
+     * @param buffer The buffer
+     * @param pool The pool to compute within
+     * @return The rectangle, or {@code null} if the buffer is empty
+     */
+    public static Bounds2f bounding(final Coordinate2fBuffer buffer, final ForkJoinPool pool) {
+        return bounding(buffer.getXArray(), buffer.getYArray(), 0, buffer.size(), pool);
+    }
+
+    /**
+     * Computes the smallest rectangle containing the coordinates in the
+     * given range of the given arrays, splitting large ranges across
+     * the common {@link ForkJoinPool}.
+     *
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param from The index of the first coordinate, inclusive
+     * @param to The index of the last coordinate, exclusive
+     * @return The rectangle, or {@code null} if the range is empty
+     */
+    public static Bounds2f bounding(final float[] xs, final float[] ys, final int from, final int to) {
+        return bounding(xs, ys, from, to, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the smallest rectangle containing the coordinates in the
+     * given range of the given arrays, splitting large ranges across
+     * the given pool.
+     *
+     * <p>Each array is scanned once, by a simple loop that the JIT can
+     * vectorise.</p>
+     *
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param from The index of the first coordinate, inclusive
+     * @param to The index of the last coordinate, exclusive
+     * @param pool The pool to compute within
+     * @return The rectangle, or {@code null} if the range is empty
+     */
+    public static Bounds2f bounding(final float[] xs, final float[] ys, final int from, final int to, final ForkJoinPool pool) {
+        checkPositionIndexes(from, to, xs.length);
+        checkArgument(ys.length >= to, "arrays are shorter than the range");
+        if (from == to) {
+            return null;
+        }
+        if (to - from < PARALLEL_THRESHOLD) {
+            return compute(xs, ys, from, to);
+        }
+        return pool.invoke(new BoundsTask(xs, ys, from, to));
+    }
+
+    /**
+     * Computes the smallest rectangle containing every coordinate of the
+     * given stream, which may be parallel.
+     *
+     * @param stream The stream
+     * @return The rectangle, or {@code null} if the stream is empty
+     */
+    public static Bounds2f bounding(final Stream<? extends Coordinate2f> stream) {
+        final Builder builder = stream.collect(Builder::new, Builder::include, Builder::include);
+        return builder.isEmpty() ? null : builder.build();
+    }
+
+    private static Bounds2f compute(final float[] xs, final float[] ys, final int from, final int to) {
+        float minX = xs[from];
+        float maxX = minX;
+        for (int i = from + 1; i < to; i++) {
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+        }
+        float minY = ys[from];
+        float maxY = minY;
+        for (int i = from + 1; i < to; i++) {
+            minY = Math.min(minY, ys[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        return new Bounds2f(minX, minY, maxX, maxY);
+    }
+
+    private final float minX;
+    private final float minY;
+    private final float maxX;
+    private final float maxY;
+
+    /**
+     * Creates a rectangle with the given bounds.
+     *
+     * @param minX The minimum x position
+     * @param minY The minimum y position
+     * @param maxX The maximum x position
+     * @param maxY The maximum y position
+     */
+    public Bounds2f(final float minX, final float minY, final float maxX, final float maxY) {
+        checkArgument(minX <= maxX, "minX cannot exceed maxX");
+        checkArgument(minY <= maxY, "minY cannot exceed maxY");
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+    }
+
+    /**
+     * Gets the minimum x position of the rectangle.
+     *
+     * @return The minimum x pos
+     */
+    public float getMinX() {
+        return this.minX;
+    }
+
+    /**
+     * Gets the minimum y position of the rectangle.
+     *
+     * @return The minimum y pos
+     */
+    public float getMinY() {
+        return this.minY;
+    }
+
+    /**
+     * Gets the maximum x position of the rectangle.
+     *
+     * @return The maximum x pos
+     */
+    public float getMaxX() {
+        return this.maxX;
+    }
+
+    /**
+     * Gets the maximum y position of the rectangle.
+     *
+     * @return The maximum y pos
+     */
+    public float getMaxY() {
+        return this.maxY;
+    }
+
+    /**
+     * Gets the minimum corner of the rectangle.
+     *
+     * @return The minimum corner
+     */
+    public Coordinate2f getMin() {
+        return new Coordinate2f(this.minX, this.minY);
+    }
+
+    /**
+     * Gets the maximum corner of the rectangle.
+     *
+     * @return The maximum corner
+     */
+    public Coordinate2f getMax() {
+        return new Coordinate2f(this.maxX, this.maxY);
+    }
+
+    /**
+     * Gets the size of the rectangle - its extent along the x axis.
+     *
+     * @return The size along the x axis
+     */
+    public float getSizeX() {
+        return this.maxX - this.minX;
+    }
+
+    /**
+     * Gets the size of the rectangle - its extent along the y axis.
+     *
+     * @return The size along the y axis
+     */
+    public float getSizeY() {
+        return this.maxY - this.minY;
+    }
+
+    /**
+     * Gets the area of the rectangle.
+     *
+     * @return The area
+     */
+    public double getArea() {
+        return (double) this.getSizeX() * (double) this.getSizeY();
+    }
+
+    /**
+     * Gets the centre of the rectangle.
+     *
+     * @return The centre
+     */
+    public Coordinate2f getCenter() {
+        return new Coordinate2f(this.minX + (this.maxX - this.minX) / 2, this.minY + (this.maxY - this.minY) / 2);
+    }
+
+    /**
+     * Establishes whether the rectangle contains the given position.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @return {@code true} if the position is within the rectangle
+     */
+    public boolean contains(final float x, final float y) {
+        return x >= this.minX && x <= this.maxX &&
+                y >= this.minY && y <= this.maxY;
+    }
+
+    /**
+     * Establishes whether the rectangle contains the given coordinate.
+     *
+     * @param coord The coordinate
+     * @return {@code true} if the coordinate is within the rectangle
+     */
+    public boolean contains(final Coordinate2f coord) {
+        return this.contains(coord.getX(), coord.getY());
+    }
+
+    /**
+     * Establishes whether the rectangle wholly contains the given rectangle.
+     *
+     * @param other The other rectangle
+     * @return {@code true} if the other rectangle is within this rectangle
+     */
+    public boolean contains(final Bounds2f other) {
+        return other.minX >= this.minX && other.maxX <= this.maxX &&
+                other.minY >= this.minY && other.maxY <= this.maxY;
+    }
+
+    /**
+     * Establishes whether the rectangle shares any position with the
+     * given rectangle.
+     *
+     * @param other The other rectangle
+     * @return {@code true} if the rectangles intersect
+     */
+    public boolean intersects(final Bounds2f other) {
+        return other.minX <= this.maxX && other.maxX >= this.minX &&
+                other.minY <= this.maxY && other.maxY >= this.minY;
+    }
+
+    /**
+     * Gets the rectangle of the positions shared with the given rectangle.
+     *
+     * @param other The other rectangle
+     * @return The intersection, or {@code null} if the rectangles do not
+     *         intersect
+     */
+    public Bounds2f intersection(final Bounds2f other) {
+        if (!this.intersects(other)) {
+            return null;
+        }
+        return new Bounds2f(Math.max(this.minX, other.minX), Math.max(this.minY, other.minY),
+                Math.min(this.maxX, other.maxX), Math.min(this.maxY, other.maxY));
+    }
+
+    /**
+     * Gets the smallest rectangle containing both this and the given
+     * rectangle.
+     *
+     * @param other The other rectangle
+     * @return The union
+     */
+    public Bounds2f union(final Bounds2f other) {
+        if (this.contains(other)) {
+            return this;
+        }
+        return new Bounds2f(Math.min(this.minX, other.minX), Math.min(this.minY, other.minY),
+                Math.max(this.maxX, other.maxX), Math.max(this.maxY, other.maxY));
+    }
+
+    /**
+     * Gets the smallest rectangle containing both this rectangle and the
+     * given position.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @return The rectangle
+     */
+    public Bounds2f include(final float x, final float y) {
+        if (this.contains(x, y)) {
+            return this;
+        }
+        return new Bounds2f(Math.min(this.minX, x), Math.min(this.minY, y),
+                Math.max(this.maxX, x), Math.max(this.maxY, y));
+    }
+
+    /**
+     * Grows the rectangle by the given amount on every side. A negative
+     * amount shrinks it.
+     *
+     * @param amount The amount to grow by
+     * @return The expanded rectangle
+     * @throws IllegalArgumentException If the rectangle would shrink past
+     *         nothing
+     */
+    public Bounds2f expand(final float amount) {
+        return this.expand(amount, amount);
+    }
+
+    /**
+     * Grows the rectangle by the given amounts on either side of each
+     * axis. A negative amount shrinks it.
+     *
+     * @param x The amount to grow by along the x axis
+     * @param y The amount to grow by along the y axis
+     * @return The expanded rectangle
+     * @throws IllegalArgumentException If the rectangle would shrink past
+     *         nothing
+     */
+    public Bounds2f expand(final float x, final float y) {
+        return new Bounds2f(this.minX - x, this.minY - y,
+                this.maxX + x, this.maxY + y);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("minX", this.minX)
+                .add("minY", this.minY)
+                .add("maxX", this.maxX)
+                .add("maxY", this.maxY)
+                .toString();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Bounds2f)) {
+            return false;
+        }
+        final Bounds2f that = (Bounds2f) obj;
+
+        return this.minX == that.minX &&
+                this.minY == that.minY &&
+                this.maxX == that.maxX &&
+                this.maxY == that.maxY;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.minX, this.minY, this.maxX, this.maxY);
+    }
+
+    /**
+     * A mutable accumulator of the smallest rectangle containing every
+     * position given to it.
+     *
+     * <p>A builder is not thread-safe, but builders filled on separate
+     * threads can be combined.</p>
+     */
+    public static final class Builder {
+
+        private float minX = Float.POSITIVE_INFINITY;
+        private float minY = Float.POSITIVE_INFINITY;
+        private float maxX = Float.NEGATIVE_INFINITY;
+        private float maxY = Float.NEGATIVE_INFINITY;
+        private boolean empty = true;
+
+        /**
+         * Establishes whether no position has been given to the builder.
+         *
+         * @return {@code true} if the builder is empty
+         */
+        public boolean isEmpty() {
+            return this.empty;
+        }
+
+        /**
+         * Grows the rectangle to contain the given position.
+         *
+         * @param x The x position
+         * @param y The y position
+         * @return This builder, for chaining
+         */
+        public Builder include(final float x, final float y) {
+            this.minX = Math.min(this.minX, x);
+            this.maxX = Math.max(this.maxX, x);
+            this.minY = Math.min(this.minY, y);
+            this.maxY = Math.max(this.maxY, y);
+            this.empty = false;
+            return this;
+        }
+
+        /**
+         * Grows the rectangle to contain the given coordinate.
+         *
+         * @param coord The coordinate
+         * @return This builder, for chaining
+         */
+        public Builder include(final Coordinate2f coord) {
+            return this.include(coord.getX(), coord.getY());
+        }
+
+        /**
+         * Grows the rectangle to contain every position given to the given
+         * builder.
+         *
+         * @param other The other builder
+         * @return This builder, for chaining
+         */
+        public Builder include(final Builder other) {
+            if (other.empty) {
+                return this;
+            }
+            this.minX = Math.min(this.minX, other.minX);
+            this.maxX = Math.max(this.maxX, other.maxX);
+            this.minY = Math.min(this.minY, other.minY);
+            this.maxY = Math.max(this.maxY, other.maxY);
+            this.empty = false;
+            return this;
+        }
+
+        /**
+         * Creates the rectangle containing every position given to the
+         * builder.
+         *
+         * @return The rectangle
+         * @throws IllegalStateException If the builder is empty
+         */
+        public Bounds2f build() {
+            checkState(!this.empty, "no position has been included");
+            return new Bounds2f(this.minX, this.minY, this.maxX, this.maxY);
+        }
+
+    }
+
+    private static final class BoundsTask extends RecursiveTask<Bounds2f> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final float[] xs;
+        private final float[] ys;
+        private final int from;
+        private final int to;
+
+        BoundsTask(final float[] xs, final float[] ys, final int from, final int to) {
+            this.xs = xs;
+            this.ys = ys;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Bounds2f compute() {
+            if (this.to - this.from < PARALLEL_THRESHOLD) {
+                return Bounds2f.compute(this.xs, this.ys, this.from, this.to);
+            }
+            final int mid = (this.from + this.to) >>> 1;
+            final BoundsTask low = new BoundsTask(this.xs, this.ys, this.from, mid);
+            low.fork();
+            final Bounds2f high = new BoundsTask(this.xs, this.ys, mid, this.to).compute();
+            return low.join().union(high);
+        }
+
+    }
+
+}
@@ -0,0 +1,618 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.bounds;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.base.MoreObjects;
+import me.jamiemansfield.maths.coord.Coordinate2l;
+import me.jamiemansfield.maths.function.LongBiConsumer;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An axis-aligned bounding rectangle of long positions, within a
+ * 2-dimensional environment.
+ *
+ * <p>Both bounds are inclusive, so the rectangle contains every cell
+ * from its minimum to its maximum position, and is never empty.</p>
+ */
+public final class Bounds2l {
+
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    /**
+     * Creates the smallest rectangle containing both of the given coordinates.
+     *
+     * @param a The first coordinate
+     * @param b The second coordinate
+     * @return The rectangle
+     */
+    public static Bounds2l of(final Coordinate2l a, final Coordinate2l b) {
+        return new Bounds2l(Math.min(a.getX(), b.getX()), Math.min(a.getY(), b.getY()),
+                Math.max(a.getX(), b.getX()), Math.max(a.getY(), b.getY()));
+    }
+
+    /**
+     * Computes the smallest rectangle containing the coordinates in the
+     * given range of the given arrays, splitting large ranges across
+     * the common {@link ForkJoinPool}.
+     *
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param from The index of the first coordinate, inclusive
+     * @param to The index of the last coordinate, exclusive
+     * @return The rectangle, or {@code null} if the range is empty
+     */
+    public static Bounds2l bounding(final long[] xs, final long[] ys, final int from, final int to) {
+        return bounding(xs, ys, from, to, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the smallest rectangle containing the coordinates in the
+     * given range of the given arrays, splitting large ranges across
+     * the given pool.
+     *
+     * <p>Each array is scanned once, by a simple loop that the JIT can
+     * vectorise.</p>
+     *
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param from The index of the first coordinate, inclusive
+     * @param to The index of the last coordinate, exclusive
+     * @param pool The pool to compute within
+     * @return The rectangle, or {@code null} if the range is empty
+     */
+    public static Bounds2l bounding(final long[] xs, final long[] ys, final int from, final int to, final ForkJoinPool pool) {
+        checkPositionIndexes(from, to, xs.length);
+        checkArgument(ys.length >= to, "arrays are shorter than the range");
+        if (from == to) {
+            return null;
+        }
+        if (to - from < PARALLEL_THRESHOLD) {
+            return compute(xs, ys, from, to);
+        }
+        return pool.invoke(new BoundsTask(xs, ys, from, to));
+    }
+
+    /**
+     * Computes the smallest rectangle containing every coordinate of the
+     * given stream, which may be parallel.
+     *
+     * @param stream The stream
+     * @return The rectangle, or {@code null} if the stream is empty
+     */
+    public static Bounds2l bounding(final Stream<? extends Coordinate2l> stream) {
+        final Builder builder = stream.collect(Builder::new, Builder::include, Builder::include);
+        return builder.isEmpty() ? null : builder.build();
+    }
+
+    private static Bounds2l compute(final long[] xs, final long[] ys, final int from, final int to) {
+        long minX = xs[from];
+        long maxX = minX;
+        for (int i = from + 1; i < to; i++) {
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+        }
+        long minY = ys[from];
+        long maxY = minY;
+        for (int i = from + 1; i < to; i++) {
+            minY = Math.min(minY, ys[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        return new Bounds2l(minX, minY, maxX, maxY);
+    }
+
+    private final long minX;
+    private final long minY;
+    private final long maxX;
+    private final long maxY;
+
+    /**
+     * Creates a rectangle with the given bounds.
+     *
+     * @param minX The minimum x position
+     * @param minY The minimum y position
+     * @param maxX The maximum x position
+     * @param maxY The maximum y position
+     */
+    public Bounds2l(final long minX, final long minY, final long maxX, final long maxY) {
+        checkArgument(minX <= maxX, "minX cannot exceed maxX");
+        checkArgument(minY <= maxY, "minY cannot exceed maxY");
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+    }
+
+    /**
+     * Gets the minimum x position of the rectangle.
+     *
+     * @return The minimum x pos
+     */
+    public long getMinX() {
+        return this.minX;
+    }
+
+    /**
+     * Gets the minimum y position of the rectangle.
+     *
+     * @return The minimum y pos
+     */
+    public long getMinY() {
+        return this.minY;
+    }
+
+    /**
+     * Gets the maximum x position of the rectangle.
+     *
+     * @return The maximum x pos
+     */
+    public long getMaxX() {
+        return this.maxX;
+    }
+
+    /**
+     * Gets the maximum y position of the rectangle.
+     *
+     * @return The maximum y pos
+     */
+    public long getMaxY() {
+        return this.maxY;
+    }
+
+    /**
+     * Gets the minimum corner of the rectangle.
+     *
+     * @return The minimum corner
+     */
+    public Coordinate2l getMin() {
+        return new Coordinate2l(this.minX, this.minY);
+    }
+
+    /**
+     * Gets the maximum corner of the rectangle.
+     *
+     * @return The maximum corner
+     */
+    public Coordinate2l getMax() {
+        return new Coordinate2l(this.maxX, this.maxY);
+    }
+
+    /**
+     * Gets the size of the rectangle - the number of cells it spans along the x axis, which
+     * overflows for a rectangle spanning every long.
+     *
+     * @return The size along the x axis
+     */
+    public long getSizeX() {
+        return this.maxX - this.minX + 1;
+    }
+
+    /**
+     * Gets the size of the rectangle - the number of cells it spans along the y axis, which
+     * overflows for a rectangle spanning every long.
+     *
+     * @return The size along the y axis
+     */
+    public long getSizeY() {
+        return this.maxY - this.minY + 1;
+    }
+
+    /**
+     * Establishes whether the rectangle contains the given position.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @return {@code true} if the position is within the rectangle
+     */
+    public boolean contains(final long x, final long y) {
+        return x >= this.minX && x <= this.maxX &&
+                y >= this.minY && y <= this.maxY;
+    }
+
+    /**
+     * Establishes whether the rectangle contains the given coordinate.
+     *
+     * @param coord The coordinate
+     * @return {@code true} if the coordinate is within the rectangle
+     */
+    public boolean contains(final Coordinate2l coord) {
+        return this.contains(coord.getX(), coord.getY());
+    }
+
+    /**
+     * Establishes whether the rectangle wholly contains the given rectangle.
+     *
+     * @param other The other rectangle
+     * @return {@code true} if the other rectangle is within this rectangle
+     */
+    public boolean contains(final Bounds2l other) {
+        return other.minX >= this.minX && other.maxX <= this.maxX &&
+                other.minY >= this.minY && other.maxY <= this.maxY;
+    }
+
+    /**
+     * Establishes whether the rectangle shares any position with the
+     * given rectangle.
+     *
+     * @param other The other rectangle
+     * @return {@code true} if the rectangles intersect
+     */
+    public boolean intersects(final Bounds2l other) {
+        return other.minX <= this.maxX && other.maxX >= this.minX &&
+                other.minY <= this.maxY && other.maxY >= this.minY;
+    }
+
+    /**
+     * Gets the rectangle of the positions shared with the given rectangle.
+     *
+     * @param other The other rectangle
+     * @return The intersection, or {@code null} if the rectangles do not
+     *         intersect
+     */
+    public Bounds2l intersection(final Bounds2l other) {
+        if (!this.intersects(other)) {
+            return null;
+        }
+        return new Bounds2l(Math.max(this.minX, other.minX), Math.max(this.minY, other.minY),
+                Math.min(this.maxX, other.maxX), Math.min(this.maxY, other.maxY));
+    }
+
+    /**
+     * Gets the smallest rectangle containing both this and the given
+     * rectangle.
+     *
+     * @param other The other rectangle
+     * @return The union
+     */
+    public Bounds2l union(final Bounds2l other) {
+        if (this.contains(other)) {
+            return this;
+        }
+        return new Bounds2l(Math.min(this.minX, other.minX), Math.min(this.minY, other.minY),
+                Math.max(this.maxX, other.maxX), Math.max(this.maxY, other.maxY));
+    }
+
+    /**
+     * Gets the smallest rectangle containing both this rectangle and the
+     * given position.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @return The rectangle
+     */
+    public Bounds2l include(final long x, final long y) {
+        if (this.contains(x, y)) {
+            return this;
+        }
+        return new Bounds2l(Math.min(this.minX, x), Math.min(this.minY, y),
+                Math.max(this.maxX, x), Math.max(this.maxY, y));
+    }
+
+    /**
+     * Grows the rectangle by the given amount on every side. A negative
+     * amount shrinks it.
+     *
+     * @param amount The amount to grow by
+     * @return The expanded rectangle
+     * @throws IllegalArgumentException If the rectangle would shrink past
+     *         nothing
+     * @throws ArithmeticException If a bound would overflow
+     */
+    public Bounds2l expand(final long amount) {
+        return this.expand(amount, amount);
+    }
+
+    /**
+     * Grows the rectangle by the given amounts on either side of each
+     * axis. A negative amount shrinks it.
+     *
+     * @param x The amount to grow by along the x axis
+     * @param y The amount to grow by along the y axis
+     * @return The expanded rectangle
+     * @throws IllegalArgumentException If the rectangle would shrink past
+     *         nothing
+     * @throws ArithmeticException If a bound would overflow
+     */
+    public Bounds2l expand(final long x, final long y) {
+        return new Bounds2l(Math.subtractExact(this.minX, x), Math.subtractExact(this.minY, y),
+                Math.addExact(this.maxX, x), Math.addExact(this.maxY, y));
+    }
+
+    /**
+     * Visits every cell of the rectangle, along the x axis first, then the
+     * y axis.
+     *
+     * <p>No object is created for each cell.</p>
+     *
+     * @param consumer The consumer of the cells
+     */
+    public void forEach(final LongBiConsumer consumer) {
+        final long minX = this.minX;
+        final long maxX = this.maxX;
+        final long minY = this.minY;
+        final long maxY = this.maxY;
+        long y = minY;
+        do {
+            long x = minX;
+            do {
+                consumer.accept(x, y);
+            } while (x++ != maxX);
+        } while (y++ != maxY);
+    }
+
+    /**
+     * Visits every cell of the rectangle, in the given order.
+     *
+     * <p>No object is created for each cell.</p>
+     *
+     * @param order The order to visit the cells in
+     * @param consumer The consumer of the cells
+     * @throws IllegalStateException If the order is not
+     *         {@link RegionOrder#SLAB}, and the rectangle has too many cells
+     *         to number with a long
+     */
+    public void forEach(final RegionOrder order, final LongBiConsumer consumer) {
+        if (order == RegionOrder.SLAB) {
+            this.forEach(consumer);
+            return;
+        }
+        final RegionIndex index = this.index(order);
+        index.forEach(0, index.getLength(), (x, y, z) -> consumer.accept(this.minX + x, this.minY + y));
+    }
+
+    /**
+     * Creates a {@link Spliterator} over every cell of the rectangle, in
+     * {@link RegionOrder#SLAB} order.
+     *
+     * @return The spliterator
+     * @throws IllegalStateException If the rectangle has too many cells to
+     *         number with a long
+     */
+    public Spliterator<Coordinate2l> spliterator() {
+        return this.spliterator(RegionOrder.SLAB);
+    }
+
+    /**
+     * Creates a {@link Spliterator} over every cell of the rectangle, in
+     * the given order.
+     *
+     * <p>The spliterator, and every spliterator split from it, knows
+     * exactly how many cells it covers. Splits fall on the boundaries of
+     * chunks, or of blocks of the Morton curve, where possible - so a
+     * parallel stream hands each thread a compact part of the
+     * rectangle.</p>
+     *
+     * @param order The order of the cells
+     * @return The spliterator
+     * @throws IllegalStateException If the rectangle has too many cells to
+     *         number with a long
+     */
+    public Spliterator<Coordinate2l> spliterator(final RegionOrder order) {
+        final RegionIndex index = this.index(order);
+        return new CellSpliterator(index, 0, index.getLength());
+    }
+
+    /**
+     * Creates a sequential stream of every cell of the rectangle, in
+     * {@link RegionOrder#SLAB} order.
+     *
+     * @return The stream
+     * @throws IllegalStateException If the rectangle has too many cells to
+     *         number with a long
+     */
+    public Stream<Coordinate2l> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    /**
+     * Creates a sequential stream of every cell of the rectangle, in the
+     * given order.
+     *
+     * @param order The order of the cells
+     * @return The stream
+     * @throws IllegalStateException If the rectangle has too many cells to
+     *         number with a long
+     */
+    public Stream<Coordinate2l> stream(final RegionOrder order) {
+        return StreamSupport.stream(this.spliterator(order), false);
+    }
+
+    private RegionIndex index(final RegionOrder order) {
+        return new RegionIndex(order, 2, this.getSizeX(), this.getSizeY(), 1);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("minX", this.minX)
+                .add("minY", this.minY)
+                .add("maxX", this.maxX)
+                .add("maxY", this.maxY)
+                .toString();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Bounds2l)) {
+            return false;
+        }
+        final Bounds2l that = (Bounds2l) obj;
+
+        return this.minX == that.minX &&
+                this.minY == that.minY &&
+                this.maxX == that.maxX &&
+                this.maxY == that.maxY;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.minX, this.minY, this.maxX, this.maxY);
+    }
+
+    /**
+     * A mutable accumulator of the smallest rectangle containing every
+     * position given to it.
+     *
+     * <p>A builder is not thread-safe, but builders filled on separate
+     * threads can be combined.</p>
+     */
+    public static final class Builder {
+
+        private long minX = Long.MAX_VALUE;
+        private long minY = Long.MAX_VALUE;
+        private long maxX = Long.MIN_VALUE;
+        private long maxY = Long.MIN_VALUE;
+        private boolean empty = true;
+
+        /**
+         * Establishes whether no position has been given to the builder.
+         *
+         * @return {@code true} if the builder is empty
+         */
+        public boolean isEmpty() {
+            return this.empty;
+        }
+
+        /**
+         * Grows the rectangle to contain the given position.
+         *
+         * @param x The x position
+         * @param y The y position
+         * @return This builder, for chaining
+         */
+        public Builder include(final long x, final long y) {
+            this.minX = Math.min(this.minX, x);
+            this.maxX = Math.max(this.maxX, x);
+            this.minY = Math.min(this.minY, y);
+            this.maxY = Math.max(this.maxY, y);
+            this.empty = false;
+            return this;
+        }
+
+        /**
+         * Grows the rectangle to contain the given coordinate.
+         *
+         * @param coord The coordinate
+         * @return This builder, for chaining
+         */
+        public Builder include(final Coordinate2l coord) {
+            return this.include(coord.getX(), coord.getY());
+        }
+
+        /**
+         * Grows the rectangle to contain every position given to the given
+         * builder.
+         *
+         * @param other The other builder
+         * @return This builder, for chaining
+         */
+        public Builder include(final Builder other) {
+            if (other.empty) {
+                return this;
+            }
+            this.minX = Math.min(this.minX, other.minX);
+            this.maxX = Math.max(this.maxX, other.maxX);
+            this.minY = Math.min(this.minY, other.minY);
+            this.maxY = Math.max(this.maxY, other.maxY);
+            this.empty = false;
+            return this;
+        }
+
+        /**
+         * Creates the rectangle containing every position given to the
+         * builder.
+         *
+         * @return The rectangle
+         * @throws IllegalStateException If the builder is empty
+         */
+        public Bounds2l build() {
+            checkState(!this.empty, "no position has been included");
+            return new Bounds2l(this.minX, this.minY, this.maxX, this.maxY);
+        }
+
+    }
+
+    private final class CellSpliterator extends RegionSpliterator<Coordinate2l> {
+
+        CellSpliterator(final RegionIndex index, final long from, final long to) {
+            super(index, from, to);
+        }
+
+        @Override
+        Coordinate2l create(final long x, final long y, final long z) {
+            return new Coordinate2l(Bounds2l.this.minX + x, Bounds2l.this.minY + y);
+        }
+
+        @Override
+        RegionSpliterator<Coordinate2l> split(final long from, final long to) {
+            return new CellSpliterator(this.index, from, to);
+        }
+
+    }
+
+    private static final class BoundsTask extends RecursiveTask<Bounds2l> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long[] xs;
+        private final long[] ys;
+        private final int from;
+        private final int to;
+
+        BoundsTask(final long[] xs, final long[] ys, final int from, final int to) {
+            this.xs = xs;
+            this.ys = ys;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Bounds2l compute() {
+            if (this.to - this.from < PARALLEL_THRESHOLD) {
+                return Bounds2l.compute(this.xs, this.ys, this.from, this.to);
+            }
+            final int mid = (this.from + this.to) >>> 1;
+            final BoundsTask low = new BoundsTask(this.xs, this.ys, this.from, mid);
+            low.fork();
+            final Bounds2l high = new BoundsTask(this.xs, this.ys, mid, this.to).compute();
+            return low.join().union(high);
+        }
+
+    }
+
+}
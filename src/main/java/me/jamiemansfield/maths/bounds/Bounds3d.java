@@ -0,0 +1,594 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.bounds;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.base.MoreObjects;
+import me.jamiemansfield.maths.coord.Coordinate3d;
+import me.jamiemansfield.maths.coord.Coordinate3dBuffer;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+/**
+ * An axis-aligned bounding box of double positions, within a
+ * 3-dimensional environment.
+ *
+ * <p>Both bounds are inclusive, so the box is closed, and a
+ * box of no extent contains a single point.</p>
+ */
+public final class Bounds3d {
+
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    /**
+     * Creates the smallest box containing both of the given coordinates.
+     *
+     * @param a The first coordinate
+     * @param b The second coordinate
+     * @return The box
+     */
+    public static Bounds3d of(final Coordinate3d a, final Coordinate3d b) {
+        return new Bounds3d(Math.min(a.getX(), b.getX()), Math.min(a.getY(), b.getY()), Math.min(a.getZ(), b.getZ()),
+                Math.max(a.getX(), b.getX()), Math.max(a.getY(), b.getY()), Math.max(a.getZ(), b.getZ()));
+    }
+
+    /**
+     * Computes the smallest box containing every coordinate of the
+     * given buffer, splitting large buffers across the common
+     * {@link ForkJoinPool}.
+     *
+     * @param buffer The buffer
+     * @return The box, or {@code null} if the buffer is empty
+     */
+    public static Bounds3d bounding(final Coordinate3dBuffer buffer) {
+        return bounding(buffer, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the smallest box containing every coordinate of the
+     * given buffer, splitting large buffers across the given pool.
+     *
+     * @param buffer The buffer
+     * @param pool The pool to compute within
+     * @return The box, or {@code null} if the buffer is empty
+     */
+    public static Bounds3d bounding(final Coordinate3dBuffer buffer, final ForkJoinPool pool) {
+        return bounding(buffer.getXArray(), buffer.getYArray(), buffer.getZArray(), 0, buffer.size(), pool);
+    }
+
+    /**
+     * Computes the smallest box containing the coordinates in the
+     * given range of the given arrays, splitting large ranges across
+     * the common {@link ForkJoinPool}.
+     *
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param zs The z positions
+     * @param from The index of the first coordinate, inclusive
+     * @param to The index of the last coordinate, exclusive
+     * @return The box, or {@code null} if the range is empty
+     */
+    public static Bounds3d bounding(final double[] xs, final double[] ys, final double[] zs, final int from, final int to) {
+        return bounding(xs, ys, zs, from, to, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the smallest box containing the coordinates in the
+     * given range of the given arrays, splitting large ranges across
+     * the given pool.
+     *
+     * <p>Each array is scanned once, by a simple loop that the JIT can
+     * vectorise.</p>
+     *
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param zs The z positions
+     * @param from The index of the first coordinate, inclusive
+     * @param to The index of the last coordinate, exclusive
+     * @param pool The pool to compute within
+     * @return The box, or {@code null} if the range is empty
+     */
+    public static Bounds3d bounding(final double[] xs, final double[] ys, final double[] zs, final int from, final int to, final ForkJoinPool pool) {
+        checkPositionIndexes(from, to, xs.length);
+        checkArgument(ys.length >= to && zs.length >= to, "arrays are shorter than the range");
+        if (from == to) {
+            return null;
+        }
+        if (to - from < PARALLEL_THRESHOLD) {
+            return compute(xs, ys, zs, from, to);
+        }
+        return pool.invoke(new BoundsTask(xs, ys, zs, from, to));
+    }
+
+    /**
+     * Computes the smallest box containing every coordinate of the
+     * given stream, which may be parallel.
+     *
+     * @param stream The stream
+     * @return The box, or {@code null} if the stream is empty
+     */
+    public static Bounds3d bounding(final Stream<? extends Coordinate3d> stream) {
+        final Builder builder = stream.collect(Builder::new, Builder::include, Builder::include);
+        return builder.isEmpty() ? null : builder.build();
+    }
+
+    private static Bounds3d compute(final double[] xs, final double[] ys, final double[] zs, final int from, final int to) {
+        double minX = xs[from];
+        double maxX = minX;
+        for (int i = from + 1; i < to; i++) {
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+        }
+        double minY = ys[from];
+        double maxY = minY;
+        for (int i = from + 1; i < to; i++) {
+            minY = Math.min(minY, ys[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        double minZ = zs[from];
+        double maxZ = minZ;
+        for (int i = from + 1; i < to; i++) {
+            minZ = Math.min(minZ, zs[i]);
+            maxZ = Math.max(maxZ, zs[i]);
+        }
+        return new Bounds3d(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    private final double minX;
+    private final double minY;
+    private final double minZ;
+    private final double maxX;
+    private final double maxY;
+    private final double maxZ;
+
+    /**
+     * Creates a box with the given bounds.
+     *
+     * @param minX The minimum x position
+     * @param minY The minimum y position
+     * @param minZ The minimum z position
+     * @param maxX The maximum x position
+     * @param maxY The maximum y position
+     * @param maxZ The maximum z position
+     */
+    public Bounds3d(final double minX, final double minY, final double minZ, final double maxX, final double maxY, final double maxZ) {
+        checkArgument(minX <= maxX, "minX cannot exceed maxX");
+        checkArgument(minY <= maxY, "minY cannot exceed maxY");
+        checkArgument(minZ <= maxZ, "minZ cannot exceed maxZ");
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * Gets the minimum x position of the box.
+     *
+     * @return The minimum x pos
+     */
+    public double getMinX() {
+        return this.minX;
+    }
+
+    /**
+     * Gets the minimum y position of the box.
+     *
+     * @return The minimum y pos
+     */
+    public double getMinY() {
+        return this.minY;
+    }
+
+    /**
+     * Gets the minimum z position of the box.
+     *
+     * @return The minimum z pos
+     */
+    public double getMinZ() {
+        return this.minZ;
+    }
+
+    /**
+     * Gets the maximum x position of the box.
+     *
+     * @return The maximum x pos
+     */
+    public double getMaxX() {
+        return this.maxX;
+    }
+
+    /**
+     * Gets the maximum y position of the box.
+     *
+     * @return The maximum y pos
+     */
+    public double getMaxY() {
+        return this.maxY;
+    }
+
+    /**
+     * Gets the maximum z position of the box.
+     *
+     * @return The maximum z pos
+     */
+    public double getMaxZ() {
+        return this.maxZ;
+    }
+
+    /**
+     * Gets the minimum corner of the box.
+     *
+     * @return The minimum corner
+     */
+    public Coordinate3d getMin() {
+        return new Coordinate3d(this.minX, this.minY, this.minZ);
+    }
+
+    /**
+     * Gets the maximum corner of the box.
+     *
+     * @return The maximum corner
+     */
+    public Coordinate3d getMax() {
+        return new Coordinate3d(this.maxX, this.maxY, this.maxZ);
+    }
+
+    /**
+     * Gets the size of the box - its extent along the x axis.
+     *
+     * @return The size along the x axis
+     */
+    public double getSizeX() {
+        return this.maxX - this.minX;
+    }
+
+    /**
+     * Gets the size of the box - its extent along the y axis.
+     *
+     * @return The size along the y axis
+     */
+    public double getSizeY() {
+        return this.maxY - this.minY;
+    }
+
+    /**
+     * Gets the size of the box - its extent along the z axis.
+     *
+     * @return The size along the z axis
+     */
+    public double getSizeZ() {
+        return this.maxZ - this.minZ;
+    }
+
+    /**
+     * Gets the volume of the box.
+     *
+     * @return The volume
+     */
+    public double getVolume() {
+        return this.getSizeX() * this.getSizeY() * this.getSizeZ();
+    }
+
+    /**
+     * Gets the centre of the box.
+     *
+     * @return The centre
+     */
+    public Coordinate3d getCenter() {
+        return new Coordinate3d(this.minX + (this.maxX - this.minX) / 2, this.minY + (this.maxY - this.minY) / 2, this.minZ + (this.maxZ - this.minZ) / 2);
+    }
+
+    /**
+     * Establishes whether the box contains the given position.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @return {@code true} if the position is within the box
+     */
+    public boolean contains(final double x, final double y, final double z) {
+        return x >= this.minX && x <= this.maxX &&
+                y >= this.minY && y <= this.maxY &&
+                z >= this.minZ && z <= this.maxZ;
+    }
+
+    /**
+     * Establishes whether the box contains the given coordinate.
+     *
+     * @param coord The coordinate
+     * @return {@code true} if the coordinate is within the box
+     */
+    public boolean contains(final Coordinate3d coord) {
+        return this.contains(coord.getX(), coord.getY(), coord.getZ());
+    }
+
+    /**
+     * Establishes whether the box wholly contains the given box.
+     *
+     * @param other The other box
+     * @return {@code true} if the other box is within this box
+     */
+    public boolean contains(final Bounds3d other) {
+        return other.minX >= this.minX && other.maxX <= this.maxX &&
+                other.minY >= this.minY && other.maxY <= this.maxY &&
+                other.minZ >= this.minZ && other.maxZ <= this.maxZ;
+    }
+
+    /**
+     * Establishes whether the box shares any position with the
+     * given box.
+     *
+     * @param other The other box
+     * @return {@code true} if the boxes intersect
+     */
+    public boolean intersects(final Bounds3d other) {
+        return other.minX <= this.maxX && other.maxX >= this.minX &&
+                other.minY <= this.maxY && other.maxY >= this.minY &&
+                other.minZ <= this.maxZ && other.maxZ >= this.minZ;
+    }
+
+    /**
+     * Gets the box of the positions shared with the given box.
+     *
+     * @param other The other box
+     * @return The intersection, or {@code null} if the boxes do not
+     *         intersect
+     */
+    public Bounds3d intersection(final Bounds3d other) {
+        if (!this.intersects(other)) {
+            return null;
+        }
+        return new Bounds3d(Math.max(this.minX, other.minX), Math.max(this.minY, other.minY), Math.max(this.minZ, other.minZ),
+                Math.min(this.maxX, other.maxX), Math.min(this.maxY, other.maxY), Math.min(this.maxZ, other.maxZ));
+    }
+
+    /**
+     * Gets the smallest box containing both this and the given
+     * box.
+     *
+     * @param other The other box
+     * @return The union
+     */
+    public Bounds3d union(final Bounds3d other) {
+        if (this.contains(other)) {
+            return this;
+        }
+        return new Bounds3d(Math.min(this.minX, other.minX), Math.min(this.minY, other.minY), Math.min(this.minZ, other.minZ),
+                Math.max(this.maxX, other.maxX), Math.max(this.maxY, other.maxY), Math.max(this.maxZ, other.maxZ));
+    }
+
+    /**
+     * Gets the smallest box containing both this box and the
+     * given position.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @return The box
+     */
+    public Bounds3d include(final double x, final double y, final double z) {
+        if (this.contains(x, y, z)) {
+            return this;
+        }
+        return new Bounds3d(Math.min(this.minX, x), Math.min(this.minY, y), Math.min(this.minZ, z),
+                Math.max(this.maxX, x), Math.max(this.maxY, y), Math.max(this.maxZ, z));
+    }
+
+    /**
+     * Grows the box by the given amount on every side. A negative
+     * amount shrinks it.
+     *
+     * @param amount The amount to grow by
+     * @return The expanded box
+     * @throws IllegalArgumentException If the box would shrink past
+     *         nothing
+     */
+    public Bounds3d expand(final double amount) {
+        return this.expand(amount, amount, amount);
+    }
+
+    /**
+     * Grows the box by the given amounts on either side of each
+     * axis. A negative amount shrinks it.
+     *
+     * @param x The amount to grow by along the x axis
+     * @param y The amount to grow by along the y axis
+     * @param z The amount to grow by along the z axis
+     * @return The expanded box
+     * @throws IllegalArgumentException If the box would shrink past
+     *         nothing
+     */
+    public Bounds3d expand(final double x, final double y, final double z) {
+        return new Bounds3d(this.minX - x, this.minY - y, this.minZ - z,
+                this.maxX + x, this.maxY + y, this.maxZ + z);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("minX", this.minX)
+                .add("minY", this.minY)
+                .add("minZ", this.minZ)
+                .add("maxX", this.maxX)
+                .add("maxY", this.maxY)
+                .add("maxZ", this.maxZ)
+                .toString();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Bounds3d)) {
+            return false;
+        }
+        final Bounds3d that = (Bounds3d) obj;
+
+        return this.minX == that.minX &&
+                this.minY == that.minY &&
+                this.minZ == that.minZ &&
+                this.maxX == that.maxX &&
+                this.maxY == that.maxY &&
+                this.maxZ == that.maxZ;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.minX, this.minY, this.minZ, this.maxX, this.maxY, this.maxZ);
+    }
+
+    /**
+     * A mutable accumulator of the smallest box containing every
+     * position given to it.
+     *
+     * <p>A builder is not thread-safe, but builders filled on separate
+     * threads can be combined.</p>
+     */
+    public static final class Builder {
+
+        private double minX = Double.POSITIVE_INFINITY;
+        private double minY = Double.POSITIVE_INFINITY;
+        private double minZ = Double.POSITIVE_INFINITY;
+        private double maxX = Double.NEGATIVE_INFINITY;
+        private double maxY = Double.NEGATIVE_INFINITY;
+        private double maxZ = Double.NEGATIVE_INFINITY;
+        private boolean empty = true;
+
+        /**
+         * Establishes whether no position has been given to the builder.
+         *
+         * @return {@code true} if the builder is empty
+         */
+        public boolean isEmpty() {
+            return this.empty;
+        }
+
+        /**
+         * Grows the box to contain the given position.
+         *
+         * @param x The x position
+         * @param y The y position
+         * @param z The z position
+         * @return This builder, for chaining
+         */
+        public Builder include(final double x, final double y, final double z) {
+            this.minX = Math.min(this.minX, x);
+            this.maxX = Math.max(this.maxX, x);
+            this.minY = Math.min(this.minY, y);
+            this.maxY = Math.max(this.maxY, y);
+            this.minZ = Math.min(this.minZ, z);
+            this.maxZ = Math.max(this.maxZ, z);
+            this.empty = false;
+            return this;
+        }
+
+        /**
+         * Grows the box to contain the given coordinate.
+         *
+         * @param coord The coordinate
+         * @return This builder, for chaining
+         */
+        public Builder include(final Coordinate3d coord) {
+            return this.include(coord.getX(), coord.getY(), coord.getZ());
+        }
+
+        /**
+         * Grows the box to contain every position given to the given
+         * builder.
+         *
+         * @param other The other builder
+         * @return This builder, for chaining
+         */
+        public Builder include(final Builder other) {
+            if (other.empty) {
+                return this;
+            }
+            this.minX = Math.min(this.minX, other.minX);
+            this.maxX = Math.max(this.maxX, other.maxX);
+            this.minY = Math.min(this.minY, other.minY);
+            this.maxY = Math.max(this.maxY, other.maxY);
+            this.minZ = Math.min(this.minZ, other.minZ);
+            this.maxZ = Math.max(this.maxZ, other.maxZ);
+            this.empty = false;
+            return this;
+        }
+
+        /**
+         * Creates the box containing every position given to the
+         * builder.
+         *
+         * @return The box
+         * @throws IllegalStateException If the builder is empty
+         */
+        public Bounds3d build() {
+            checkState(!this.empty, "no position has been included");
+            return new Bounds3d(this.minX, this.minY, this.minZ, this.maxX, this.maxY, this.maxZ);
+        }
+
+    }
+
+    private static final class BoundsTask extends RecursiveTask<Bounds3d> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[] xs;
+        private final double[] ys;
+        private final double[] zs;
+        private final int from;
+        private final int to;
+
+        BoundsTask(final double[] xs, final double[] ys, final double[] zs, final int from, final int to) {
+            this.xs = xs;
+            this.ys = ys;
+            this.zs = zs;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Bounds3d compute() {
+            if (this.to - this.from < PARALLEL_THRESHOLD) {
+                return Bounds3d.compute(this.xs, this.ys, this.zs, this.from, this.to);
+            }
+            final int mid = (this.from + this.to) >>> 1;
+            final BoundsTask low = new BoundsTask(this.xs, this.ys, this.zs, this.from, mid);
+            low.fork();
+            final Bounds3d high = new BoundsTask(this.xs, this.ys, this.zs, mid, this.to).compute();
+            return low.join().union(high);
+        }
+
+    }
+
+}
@@ -0,0 +1,707 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.bounds;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.base.MoreObjects;
+import me.jamiemansfield.maths.coord.Coordinate3i;
+import me.jamiemansfield.maths.coord.Coordinate3iBuffer;
+import me.jamiemansfield.maths.function.IntTriConsumer;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An axis-aligned bounding box of int positions, within a
+ * 3-dimensional environment.
+ *
+ * <p>Both bounds are inclusive, so the box contains every cell
+ * from its minimum to its maximum position, and is never empty.</p>
+ */
+public final class Bounds3i {
+
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    /**
+     * Creates the smallest box containing both of the given coordinates.
+     *
+     * @param a The first coordinate
+     * @param b The second coordinate
+     * @return The box
+     */
+    public static Bounds3i of(final Coordinate3i a, final Coordinate3i b) {
+        return new Bounds3i(Math.min(a.getX(), b.getX()), Math.min(a.getY(), b.getY()), Math.min(a.getZ(), b.getZ()),
+                Math.max(a.getX(), b.getX()), Math.max(a.getY(), b.getY()), Math.max(a.getZ(), b.getZ()));
+    }
+
+    /**
+     * Computes the smallest box containing every coordinate of the
+     * given buffer, splitting large buffers across the common
+     * {@link ForkJoinPool}.
+     *
+     * @param buffer The buffer
+     * @return The box, or {@code null} if the buffer is empty
+     */
+    public static Bounds3i bounding(final Coordinate3iBuffer buffer) {
+        return bounding(buffer, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the smallest box containing every coordinate of the
+     * given buffer, splitting large buffers across the given pool.
+     *
+     * @param buffer The buffer
+     * @param pool The pool to compute within
+     * @return The box, or {@code null} if the buffer is empty
+     */
+    public static Bounds3i bounding(final Coordinate3iBuffer buffer, final ForkJoinPool pool) {
+        return bounding(buffer.getXArray(), buffer.getYArray(), buffer.getZArray(), 0, buffer.size(), pool);
+    }
+
+    /**
+     * Computes the smallest box containing the coordinates in the
+     * given range of the given arrays, splitting large ranges across
+     * the common {@link ForkJoinPool}.
+     *
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param zs The z positions
+     * @param from The index of the first coordinate, inclusive
+     * @param to The index of the last coordinate, exclusive
+     * @return The box, or {@code null} if the range is empty
+     */
+    public static Bounds3i bounding(final int[] xs, final int[] ys, final int[] zs, final int from, final int to) {
+        return bounding(xs, ys, zs, from, to, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the smallest box containing the coordinates in the
+     * given range of the given arrays, splitting large ranges across
+     * the given pool.
+     *
+     * <p>Each array is scanned once, by a simple loop that the JIT can
+     * vectorise.</p>
+     *
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param zs The z positions
+     * @param from The index of the first coordinate, inclusive
+     * @param to The index of the last coordinate, exclusive
+     * @param pool The pool to compute within
+     * @return The box, or {@code null} if the range is empty
+     */
+    public static Bounds3i bounding(final int[] xs, final int[] ys, final int[] zs, final int from, final int to, final ForkJoinPool pool) {
+        checkPositionIndexes(from, to, xs.length);
+        checkArgument(ys.length >= to && zs.length >= to, "arrays are shorter than the range");
+        if (from == to) {
+            return null;
+        }
+        if (to - from < PARALLEL_THRESHOLD) {
+            return compute(xs, ys, zs, from, to);
+        }
+        return pool.invoke(new BoundsTask(xs, ys, zs, from, to));
+    }
+
+    /**
+     * Computes the smallest box containing every coordinate of the
+     * given stream, which may be parallel.
+     *
+     * @param stream The stream
+     * @return The box, or {@code null} if the stream is empty
+     */
+    public static Bounds3i bounding(final Stream<? extends Coordinate3i> stream) {
+        final Builder builder = stream.collect(Builder::new, Builder::include, Builder::include);
+        return builder.isEmpty() ? null : builder.build();
+    }
+
+    private static Bounds3i compute(final int[] xs, final int[] ys, final int[] zs, final int from, final int to) {
+        int minX = xs[from];
+        int maxX = minX;
+        for (int i = from + 1; i < to; i++) {
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+        }
+        int minY = ys[from];
+        int maxY = minY;
+        for (int i = from + 1; i < to; i++) {
+            minY = Math.min(minY, ys[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        int minZ = zs[from];
+        int maxZ = minZ;
+        for (int i = from + 1; i < to; i++) {
+            minZ = Math.min(minZ, zs[i]);
+            maxZ = Math.max(maxZ, zs[i]);
+        }
+        return new Bounds3i(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int maxX;
+    private final int maxY;
+    private final int maxZ;
+
+    /**
+     * Creates a box with the given bounds.
+     *
+     * @param minX The minimum x position
+     * @param minY The minimum y position
+     * @param minZ The minimum z position
+     * @param maxX The maximum x position
+     * @param maxY The maximum y position
+     * @param maxZ The maximum z position
+     */
+    public Bounds3i(final int minX, final int minY, final int minZ, final int maxX, final int maxY, final int maxZ) {
+        checkArgument(minX <= maxX, "minX cannot exceed maxX");
+        checkArgument(minY <= maxY, "minY cannot exceed maxY");
+        checkArgument(minZ <= maxZ, "minZ cannot exceed maxZ");
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * Gets the minimum x position of the box.
+     *
+     * @return The minimum x pos
+     */
+    public int getMinX() {
+        return this.minX;
+    }
+
+    /**
+     * Gets the minimum y position of the box.
+     *
+     * @return The minimum y pos
+     */
+    public int getMinY() {
+        return this.minY;
+    }
+
+    /**
+     * Gets the minimum z position of the box.
+     *
+     * @return The minimum z pos
+     */
+    public int getMinZ() {
+        return this.minZ;
+    }
+
+    /**
+     * Gets the maximum x position of the box.
+     *
+     * @return The maximum x pos
+     */
+    public int getMaxX() {
+        return this.maxX;
+    }
+
+    /**
+     * Gets the maximum y position of the box.
+     *
+     * @return The maximum y pos
+     */
+    public int getMaxY() {
+        return this.maxY;
+    }
+
+    /**
+     * Gets the maximum z position of the box.
+     *
+     * @return The maximum z pos
+     */
+    public int getMaxZ() {
+        return this.maxZ;
+    }
+
+    /**
+     * Gets the minimum corner of the box.
+     *
+     * @return The minimum corner
+     */
+    public Coordinate3i getMin() {
+        return new Coordinate3i(this.minX, this.minY, this.minZ);
+    }
+
+    /**
+     * Gets the maximum corner of the box.
+     *
+     * @return The maximum corner
+     */
+    public Coordinate3i getMax() {
+        return new Coordinate3i(this.maxX, this.maxY, this.maxZ);
+    }
+
+    /**
+     * Gets the size of the box - the number of cells it spans along the x axis.
+     *
+     * @return The size along the x axis
+     */
+    public long getSizeX() {
+        return (long) this.maxX - this.minX + 1;
+    }
+
+    /**
+     * Gets the size of the box - the number of cells it spans along the y axis.
+     *
+     * @return The size along the y axis
+     */
+    public long getSizeY() {
+        return (long) this.maxY - this.minY + 1;
+    }
+
+    /**
+     * Gets the size of the box - the number of cells it spans along the z axis.
+     *
+     * @return The size along the z axis
+     */
+    public long getSizeZ() {
+        return (long) this.maxZ - this.minZ + 1;
+    }
+
+    /**
+     * Establishes whether the box contains the given position.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @return {@code true} if the position is within the box
+     */
+    public boolean contains(final int x, final int y, final int z) {
+        return x >= this.minX && x <= this.maxX &&
+                y >= this.minY && y <= this.maxY &&
+                z >= this.minZ && z <= this.maxZ;
+    }
+
+    /**
+     * Establishes whether the box contains the given coordinate.
+     *
+     * @param coord The coordinate
+     * @return {@code true} if the coordinate is within the box
+     */
+    public boolean contains(final Coordinate3i coord) {
+        return this.contains(coord.getX(), coord.getY(), coord.getZ());
+    }
+
+    /**
+     * Establishes whether the box wholly contains the given box.
+     *
+     * @param other The other box
+     * @return {@code true} if the other box is within this box
+     */
+    public boolean contains(final Bounds3i other) {
+        return other.minX >= this.minX && other.maxX <= this.maxX &&
+                other.minY >= this.minY && other.maxY <= this.maxY &&
+                other.minZ >= this.minZ && other.maxZ <= this.maxZ;
+    }
+
+    /**
+     * Establishes whether the box shares any position with the
+     * given box.
+     *
+     * @param other The other box
+     * @return {@code true} if the boxes intersect
+     */
+    public boolean intersects(final Bounds3i other) {
+        return other.minX <= this.maxX && other.maxX >= this.minX &&
+                other.minY <= this.maxY && other.maxY >= this.minY &&
+                other.minZ <= this.maxZ && other.maxZ >= this.minZ;
+    }
+
+    /**
+     * Gets the box of the positions shared with the given box.
+     *
+     * @param other The other box
+     * @return The intersection, or {@code null} if the boxes do not
+     *         intersect
+     */
+    public Bounds3i intersection(final Bounds3i other) {
+        if (!this.intersects(other)) {
+            return null;
+        }
+        return new Bounds3i(Math.max(this.minX, other.minX), Math.max(this.minY, other.minY), Math.max(this.minZ, other.minZ),
+                Math.min(this.maxX, other.maxX), Math.min(this.maxY, other.maxY), Math.min(this.maxZ, other.maxZ));
+    }
+
+    /**
+     * Gets the smallest box containing both this and the given
+     * box.
+     *
+     * @param other The other box
+     * @return The union
+     */
+    public Bounds3i union(final Bounds3i other) {
+        if (this.contains(other)) {
+            return this;
+        }
+        return new Bounds3i(Math.min(this.minX, other.minX), Math.min(this.minY, other.minY), Math.min(this.minZ, other.minZ),
+                Math.max(this.maxX, other.maxX), Math.max(this.maxY, other.maxY), Math.max(this.maxZ, other.maxZ));
+    }
+
+    /**
+     * Gets the smallest box containing both this box and the
+     * given position.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @return The box
+     */
+    public Bounds3i include(final int x, final int y, final int z) {
+        if (this.contains(x, y, z)) {
+            return this;
+        }
+        return new Bounds3i(Math.min(this.minX, x), Math.min(this.minY, y), Math.min(this.minZ, z),
+                Math.max(this.maxX, x), Math.max(this.maxY, y), Math.max(this.maxZ, z));
+    }
+
+    /**
+     * Grows the box by the given amount on every side. A negative
+     * amount shrinks it.
+     *
+     * @param amount The amount to grow by
+     * @return The expanded box
+     * @throws IllegalArgumentException If the box would shrink past
+     *         nothing
+     * @throws ArithmeticException If a bound would overflow
+     */
+    public Bounds3i expand(final int amount) {
+        return this.expand(amount, amount, amount);
+    }
+
+    /**
+     * Grows the box by the given amounts on either side of each
+     * axis. A negative amount shrinks it.
+     *
+     * @param x The amount to grow by along the x axis
+     * @param y The amount to grow by along the y axis
+     * @param z The amount to grow by along the z axis
+     * @return The expanded box
+     * @throws IllegalArgumentException If the box would shrink past
+     *         nothing
+     * @throws ArithmeticException If a bound would overflow
+     */
+    public Bounds3i expand(final int x, final int y, final int z) {
+        return new Bounds3i(Math.subtractExact(this.minX, x), Math.subtractExact(this.minY, y), Math.subtractExact(this.minZ, z),
+                Math.addExact(this.maxX, x), Math.addExact(this.maxY, y), Math.addExact(this.maxZ, z));
+    }
+
+    /**
+     * Visits every cell of the box, along the x axis first, then the
+     * y axis, then the z axis.
+     *
+     * <p>No object is created for each cell.</p>
+     *
+     * @param consumer The consumer of the cells
+     */
+    public void forEach(final IntTriConsumer consumer) {
+        final int minX = this.minX;
+        final int maxX = this.maxX;
+        final int minY = this.minY;
+        final int maxY = this.maxY;
+        final int minZ = this.minZ;
+        final int maxZ = this.maxZ;
+        int z = minZ;
+        do {
+            int y = minY;
+            do {
+                int x = minX;
+                do {
+                    consumer.accept(x, y, z);
+                } while (x++ != maxX);
+            } while (y++ != maxY);
+        } while (z++ != maxZ);
+    }
+
+    /**
+     * Visits every cell of the box, in the given order.
+     *
+     * <p>No object is created for each cell.</p>
+     *
+     * @param order The order to visit the cells in
+     * @param consumer The consumer of the cells
+     * @throws IllegalStateException If the order is not
+     *         {@link RegionOrder#SLAB}, and the box has too many cells
+     *         to number with a long
+     */
+    public void forEach(final RegionOrder order, final IntTriConsumer consumer) {
+        if (order == RegionOrder.SLAB) {
+            this.forEach(consumer);
+            return;
+        }
+        final RegionIndex index = this.index(order);
+        index.forEach(0, index.getLength(), (x, y, z) -> consumer.accept((int) (this.minX + x), (int) (this.minY + y), (int) (this.minZ + z)));
+    }
+
+    /**
+     * Creates a {@link Spliterator} over every cell of the box, in
+     * {@link RegionOrder#SLAB} order.
+     *
+     * @return The spliterator
+     * @throws IllegalStateException If the box has too many cells to
+     *         number with a long
+     */
+    public Spliterator<Coordinate3i> spliterator() {
+        return this.spliterator(RegionOrder.SLAB);
+    }
+
+    /**
+     * Creates a {@link Spliterator} over every cell of the box, in
+     * the given order.
+     *
+     * <p>The spliterator, and every spliterator split from it, knows
+     * exactly how many cells it covers. Splits fall on the boundaries of
+     * chunks, or of blocks of the Morton curve, where possible - so a
+     * parallel stream hands each thread a compact part of the
+     * box.</p>
+     *
+     * @param order The order of the cells
+     * @return The spliterator
+     * @throws IllegalStateException If the box has too many cells to
+     *         number with a long
+     */
+    public Spliterator<Coordinate3i> spliterator(final RegionOrder order) {
+        final RegionIndex index = this.index(order);
+        return new CellSpliterator(index, 0, index.getLength());
+    }
+
+    /**
+     * Creates a sequential stream of every cell of the box, in
+     * {@link RegionOrder#SLAB} order.
+     *
+     * @return The stream
+     * @throws IllegalStateException If the box has too many cells to
+     *         number with a long
+     */
+    public Stream<Coordinate3i> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    /**
+     * Creates a sequential stream of every cell of the box, in the
+     * given order.
+     *
+     * @param order The order of the cells
+     * @return The stream
+     * @throws IllegalStateException If the box has too many cells to
+     *         number with a long
+     */
+    public Stream<Coordinate3i> stream(final RegionOrder order) {
+        return StreamSupport.stream(this.spliterator(order), false);
+    }
+
+    private RegionIndex index(final RegionOrder order) {
+        return new RegionIndex(order, 3, this.getSizeX(), this.getSizeY(), this.getSizeZ());
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("minX", this.minX)
+                .add("minY", this.minY)
+                .add("minZ", this.minZ)
+                .add("maxX", this.maxX)
+                .add("maxY", this.maxY)
+                .add("maxZ", this.maxZ)
+                .toString();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Bounds3i)) {
+            return false;
+        }
+        final Bounds3i that = (Bounds3i) obj;
+
+        return this.minX == that.minX &&
+                this.minY == that.minY &&
+                this.minZ == that.minZ &&
+                this.maxX == that.maxX &&
+                this.maxY == that.maxY &&
+                this.maxZ == that.maxZ;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.minX, this.minY, this.minZ, this.maxX, this.maxY, this.maxZ);
+    }
+
+    /**
+     * A mutable accumulator of the smallest box containing every
+     * position given to it.
+     *
+     * <p>A builder is not thread-safe, but builders filled on separate
+     * threads can be combined.</p>
+     */
+    public static final class Builder {
+
+        private int minX = Integer.MAX_VALUE;
+        private int minY = Integer.MAX_VALUE;
+        private int minZ = Integer.MAX_VALUE;
+        private int maxX = Integer.MIN_VALUE;
+        private int maxY = Integer.MIN_VALUE;
+        private int maxZ = Integer.MIN_VALUE;
+        private boolean empty = true;
+
+        /**
+         * Establishes whether no position has been given to the builder.
+         *
+         * @return {@code true} if the builder is empty
+         */
+        public boolean isEmpty() {
+            return this.empty;
+        }
+
+        /**
+         * Grows the box to contain the given position.
+         *
+         * @param x The x position
+         * @param y The y position
+         * @param z The z position
+         * @return This builder, for chaining
+         */
+        public Builder include(final int x, final int y, final int z) {
+            this.minX = Math.min(this.minX, x);
+            this.maxX = Math.max(this.maxX, x);
+            this.minY = Math.min(this.minY, y);
+            this.maxY = Math.max(this.maxY, y);
+            this.minZ = Math.min(this.minZ, z);
+            this.maxZ = Math.max(this.maxZ, z);
+            this.empty = false;
+            return this;
+        }
+
+        /**
+         * Grows the box to contain the given coordinate.
+         *
+         * @param coord The coordinate
+         * @return This builder, for chaining
+         */
+        public Builder include(final Coordinate3i coord) {
+            return this.include(coord.getX(), coord.getY(), coord.getZ());
+        }
+
+        /**
+         * Grows the box to contain every position given to the given
+         * builder.
+         *
+         * @param other The other builder
+         * @return This builder, for chaining
+         */
+        public Builder include(final Builder other) {
+            if (other.empty) {
+                return this;
+            }
+            this.minX = Math.min(this.minX, other.minX);
+            this.maxX = Math.max(this.maxX, other.maxX);
+            this.minY = Math.min(this.minY, other.minY);
+            this.maxY = Math.max(this.maxY, other.maxY);
+            this.minZ = Math.min(this.minZ, other.minZ);
+            this.maxZ = Math.max(this.maxZ, other.maxZ);
+            this.empty = false;
+            return this;
+        }
+
+        /**
+         * Creates the box containing every position given to the
+         * builder.
+         *
+         * @return The box
+         * @throws IllegalStateException If the builder is empty
+         */
+        public Bounds3i build() {
+            checkState(!this.empty, "no position has been included");
+            return new Bounds3i(this.minX, this.minY, this.minZ, this.maxX, this.maxY, this.maxZ);
+        }
+
+    }
+
+    private final class CellSpliterator extends RegionSpliterator<Coordinate3i> {
+
+        CellSpliterator(final RegionIndex index, final long from, final long to) {
+            super(index, from, to);
+        }
+
+        @Override
+        Coordinate3i create(final long x, final long y, final long z) {
+            return new Coordinate3i((int) (Bounds3i.this.minX + x), (int) (Bounds3i.this.minY + y), (int) (Bounds3i.this.minZ + z));
+        }
+
+        @Override
+        RegionSpliterator<Coordinate3i> split(final long from, final long to) {
+            return new CellSpliterator(this.index, from, to);
+        }
+
+    }
+
+    private static final class BoundsTask extends RecursiveTask<Bounds3i> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] xs;
+        private final int[] ys;
+        private final int[] zs;
+        private final int from;
+        private final int to;
+
+        BoundsTask(final int[] xs, final int[] ys, final int[] zs, final int from, final int to) {
+            this.xs = xs;
+            this.ys = ys;
+            this.zs = zs;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Bounds3i compute() {
+            if (this.to - this.from < PARALLEL_THRESHOLD) {
+                return Bounds3i.compute(this.xs, this.ys, this.zs, this.from, this.to);
+            }
+            final int mid = (this.from + this.to) >>> 1;
+            final BoundsTask low = new BoundsTask(this.xs, this.ys, this.zs, this.from, mid);
+            low.fork();
+            final Bounds3i high = new BoundsTask(this.xs, this.ys, this.zs, mid, this.to).compute();
+            return low.join().union(high);
+        }
+
+    }
+
+}
@@ -0,0 +1,455 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.bounds;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import me.jamiemansfield.maths.function.LongTriConsumer;
+
+/**
+ * A numbering of the cells of a region, in a {@link RegionOrder}.
+ *
+ * <p>Cells are identified by their offsets from the minimum of the
+ * region. Each order numbers the cells of a padded region - the region
+ * rounded up to whole chunks, or to a power-of-two cube - so ordinals
+ * may fall outside the region, and are skipped. As the number of cells
+ * before any ordinal can be computed directly, ranges of ordinals can
+ * be split and sized exactly.</p>
+ */
+final class RegionIndex {
+
+    // the offsets of the cells of an aligned Morton block with 8 cells
+    // along each axis, in order
+    private static final int BLOCK_BITS = 3;
+    private static final int[][] BLOCK_2 = block(2);
+    private static final int[][] BLOCK_3 = block(3);
+
+    private final RegionOrder order;
+    private final int dimensions;
+    private final long sizeX;
+    private final long sizeY;
+    private final long sizeZ;
+    private final long volume;
+    private final long length;
+
+    // chunk order: the size of a chunk, and the number along each axis
+    private final long chunkX;
+    private final long chunkY;
+    private final long chunkZ;
+    private final long chunkVolume;
+    private final long chunksX;
+    private final long chunksY;
+
+    // morton order: the number of bits of each axis
+    private final int bits;
+
+    /**
+     * Creates an index of the region of the given size.
+     *
+     * @param order The order of the cells
+     * @param dimensions The number of dimensions of the region
+     * @param sizeX The number of cells along the x axis
+     * @param sizeY The number of cells along the y axis
+     * @param sizeZ The number of cells along the z axis, or {@code 1}
+     * @throws IllegalStateException If the region has too many cells to
+     *         number with a long
+     */
+    RegionIndex(final RegionOrder order, final int dimensions, final long sizeX, final long sizeY, final long sizeZ) {
+        checkState(sizeX > 0 && sizeY > 0 && sizeZ > 0, "region is too large to index");
+        this.order = order;
+        this.dimensions = dimensions;
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.volume = product(sizeX, sizeY, sizeZ);
+
+        if (order == RegionOrder.CHUNK) {
+            this.chunkX = Math.min(RegionOrder.CHUNK_SIZE, sizeX);
+            this.chunkY = Math.min(RegionOrder.CHUNK_SIZE, sizeY);
+            this.chunkZ = dimensions == 3 ? Math.min(RegionOrder.CHUNK_SIZE, sizeZ) : 1;
+            this.chunkVolume = this.chunkX * this.chunkY * this.chunkZ;
+            this.chunksX = chunks(sizeX, this.chunkX);
+            this.chunksY = chunks(sizeY, this.chunkY);
+            final long chunksZ = chunks(sizeZ, this.chunkZ);
+            this.length = product(product(this.chunksX, this.chunksY, chunksZ), this.chunkVolume, 1);
+        } else {
+            this.chunkX = this.chunkY = this.chunkZ = this.chunkVolume = 1;
+            this.chunksX = this.chunksY = 1;
+            if (order == RegionOrder.MORTON) {
+                final long max = Math.max(sizeX, Math.max(sizeY, sizeZ));
+                this.bits = 64 - Long.numberOfLeadingZeros(max - 1);
+                checkState(this.bits * dimensions <= 62, "region is too large to index in Morton order");
+                this.length = 1L << (this.bits * dimensions);
+                return;
+            }
+            this.length = this.volume;
+        }
+        this.bits = 0;
+    }
+
+    /**
+     * Gets the number of cells in the region.
+     *
+     * @return The volume
+     */
+    long getVolume() {
+        return this.volume;
+    }
+
+    /**
+     * Gets the number of ordinals, including those of the padding.
+     *
+     * @return The length
+     */
+    long getLength() {
+        return this.length;
+    }
+
+    /**
+     * Gets the x offset of the cell with the given ordinal.
+     *
+     * @param ordinal The ordinal
+     * @return The x offset
+     */
+    long x(final long ordinal) {
+        switch (this.order) {
+            case SLAB:
+                return ordinal % this.sizeX;
+            case CHUNK:
+                return (ordinal / this.chunkVolume % this.chunksX) * this.chunkX
+                        + ordinal % this.chunkVolume % this.chunkX;
+            default:
+                return compact(ordinal, this.dimensions);
+        }
+    }
+
+    /**
+     * Gets the y offset of the cell with the given ordinal.
+     *
+     * @param ordinal The ordinal
+     * @return The y offset
+     */
+    long y(final long ordinal) {
+        switch (this.order) {
+            case SLAB:
+                return ordinal / this.sizeX % this.sizeY;
+            case CHUNK:
+                return (ordinal / this.chunkVolume / this.chunksX % this.chunksY) * this.chunkY
+                        + ordinal % this.chunkVolume / this.chunkX % this.chunkY;
+            default:
+                return compact(ordinal >>> 1, this.dimensions);
+        }
+    }
+
+    /**
+     * Gets the z offset of the cell with the given ordinal.
+     *
+     * @param ordinal The ordinal
+     * @return The z offset
+     */
+    long z(final long ordinal) {
+        switch (this.order) {
+            case SLAB:
+                return ordinal / this.sizeX / this.sizeY;
+            case CHUNK:
+                return (ordinal / this.chunkVolume / this.chunksX / this.chunksY) * this.chunkZ
+                        + ordinal % this.chunkVolume / this.chunkX / this.chunkY;
+            default:
+                return this.dimensions == 3 ? compact(ordinal >>> 2, 3) : 0;
+        }
+    }
+
+    /**
+     * Gets the first ordinal, no less than that given, of a cell within
+     * the region.
+     *
+     * @param ordinal The ordinal
+     * @return The next ordinal, or the length if there is none
+     */
+    long next(final long ordinal) {
+        long candidate = ordinal;
+        switch (this.order) {
+            case SLAB:
+                return Math.min(ordinal, this.length);
+            case CHUNK:
+                while (candidate < this.length) {
+                    final long chunk = candidate / this.chunkVolume;
+                    final long local = candidate % this.chunkVolume;
+                    final long start = chunk * this.chunkVolume;
+                    final long lx = local % this.chunkX;
+                    final long ly = local / this.chunkX % this.chunkY;
+                    final long lz = local / this.chunkX / this.chunkY;
+                    if (lz >= this.widthZ(chunk)) {
+                        candidate = start + this.chunkVolume;
+                    } else if (ly >= this.widthY(chunk)) {
+                        candidate = start + (lz + 1) * this.chunkY * this.chunkX;
+                    } else if (lx >= this.widthX(chunk)) {
+                        candidate = start + (lz * this.chunkY + ly + 1) * this.chunkX;
+                    } else {
+                        return candidate;
+                    }
+                }
+                return this.length;
+            default:
+                // a cell outside the region is the first of an aligned
+                // block that lies wholly outside of it
+                while (candidate < this.length && !this.contains(candidate)) {
+                    candidate += Long.lowestOneBit(candidate);
+                }
+                return Math.min(candidate, this.length);
+        }
+    }
+
+    /**
+     * Gets the number of consecutive ordinals, from that given, of
+     * cells within the region along the x axis.
+     *
+     * @param ordinal The ordinal of a cell within the region
+     * @return The length of the run
+     */
+    long run(final long ordinal) {
+        switch (this.order) {
+            case SLAB:
+                return this.sizeX - ordinal % this.sizeX;
+            case CHUNK:
+                return this.widthX(ordinal / this.chunkVolume) - ordinal % this.chunkVolume % this.chunkX;
+            default:
+                return 1;
+        }
+    }
+
+    /**
+     * Gets the number of cells within the region with an ordinal less
+     * than that given.
+     *
+     * @param ordinal The ordinal
+     * @return The rank
+     */
+    long rank(final long ordinal) {
+        if (ordinal >= this.length) {
+            return this.volume;
+        }
+        switch (this.order) {
+            case SLAB:
+                return ordinal;
+            case CHUNK: {
+                final long chunk = ordinal / this.chunkVolume;
+                final long kx = chunk % this.chunksX;
+                final long ky = chunk / this.chunksX % this.chunksY;
+                final long kz = chunk / this.chunksX / this.chunksY;
+                final long wx = this.widthX(chunk);
+                final long wy = this.widthY(chunk);
+                final long wz = this.widthZ(chunk);
+
+                // the cells of the chunks before, then of the chunk itself
+                long rank = Math.min(kz * this.chunkZ, this.sizeZ) * this.sizeY * this.sizeX
+                        + wz * (Math.min(ky * this.chunkY, this.sizeY) * this.sizeX + wy * Math.min(kx * this.chunkX, this.sizeX));
+                final long local = ordinal % this.chunkVolume;
+                final long lx = local % this.chunkX;
+                final long ly = local / this.chunkX % this.chunkY;
+                final long lz = local / this.chunkX / this.chunkY;
+                rank += Math.min(lz, wz) * wy * wx;
+                if (lz < wz) {
+                    rank += Math.min(ly, wy) * wx;
+                    if (ly < wy) {
+                        rank += Math.min(lx, wx);
+                    }
+                }
+                return rank;
+            }
+            default: {
+                // sum the cells within each aligned block before the ordinal
+                long rank = 0;
+                for (int level = this.bits * this.dimensions - 1; level >= 0; level--) {
+                    if ((ordinal >>> level & 1) == 0) {
+                        continue;
+                    }
+                    final long start = (ordinal >>> (level + 1)) << (level + 1);
+                    rank += this.overlap(compact(start, this.dimensions), this.sizeX, this.extent(level, 0))
+                            * this.overlap(compact(start >>> 1, this.dimensions), this.sizeY, this.extent(level, 1))
+                            * (this.dimensions == 3 ? this.overlap(compact(start >>> 2, 3), this.sizeZ, this.extent(level, 2)) : 1);
+                }
+                return rank;
+            }
+        }
+    }
+
+    /**
+     * Gets an ordinal between those given at which to split their
+     * range, preferring the boundaries of chunks and aligned blocks.
+     *
+     * @param from The first ordinal, inclusive
+     * @param to The last ordinal, exclusive
+     * @return The ordinal to split at
+     */
+    long split(final long from, final long to) {
+        final long mid = (from + to) >>> 1;
+        switch (this.order) {
+            case CHUNK: {
+                final long aligned = mid / this.chunkVolume * this.chunkVolume;
+                if (aligned > from) {
+                    return aligned;
+                }
+                return aligned + this.chunkVolume < to ? aligned + this.chunkVolume : mid;
+            }
+            case MORTON: {
+                // clear every bit below the highest in which the ends differ
+                final long last = to - 1;
+                final long highest = Long.highestOneBit(from ^ last);
+                return last & -highest;
+            }
+            default:
+                return mid;
+        }
+    }
+
+    /**
+     * Visits the cells within the region with ordinals in the given
+     * range, in order.
+     *
+     * @param from The first ordinal, inclusive
+     * @param to The last ordinal, exclusive
+     * @param consumer The consumer of the cells' offsets
+     */
+    void forEach(final long from, final long to, final LongTriConsumer consumer) {
+        if (this.order == RegionOrder.MORTON) {
+            this.forEachMorton(from, to, consumer);
+            return;
+        }
+        long ordinal = this.next(from);
+        while (ordinal < to) {
+            final long x = this.x(ordinal);
+            final long y = this.y(ordinal);
+            final long z = this.z(ordinal);
+            final long run = Math.min(this.run(ordinal), to - ordinal);
+            for (long i = 0; i < run; i++) {
+                consumer.accept(x + i, y, z);
+            }
+            ordinal = this.next(ordinal + run);
+        }
+    }
+
+    private void forEachMorton(final long from, final long to, final LongTriConsumer consumer) {
+        final int[][] block = this.dimensions == 3 ? BLOCK_3 : BLOCK_2;
+        final int[] xs = block[0];
+        final int[] ys = block[1];
+        final int[] zs = block[2];
+        final long length = xs.length;
+        final long edge = 1L << BLOCK_BITS;
+        long ordinal = this.next(from);
+        while (ordinal < to) {
+            final long x = this.x(ordinal);
+            final long y = this.y(ordinal);
+            final long z = this.z(ordinal);
+
+            // visit whole blocks within the region from a table, rather
+            // than decoding each cell
+            if ((ordinal & (length - 1)) == 0 && ordinal + length <= to
+                    && x + edge <= this.sizeX && y + edge <= this.sizeY && (this.dimensions == 2 || z + edge <= this.sizeZ)) {
+                for (int i = 0; i < xs.length; i++) {
+                    consumer.accept(x + xs[i], y + ys[i], z + zs[i]);
+                }
+                ordinal = this.next(ordinal + length);
+                continue;
+            }
+            consumer.accept(x, y, z);
+            ordinal = this.next(ordinal + 1);
+        }
+    }
+
+    private boolean contains(final long ordinal) {
+        return this.x(ordinal) < this.sizeX && this.y(ordinal) < this.sizeY && this.z(ordinal) < this.sizeZ;
+    }
+
+    private long widthX(final long chunk) {
+        return Math.min(this.chunkX, this.sizeX - (chunk % this.chunksX) * this.chunkX);
+    }
+
+    private long widthY(final long chunk) {
+        return Math.min(this.chunkY, this.sizeY - (chunk / this.chunksX % this.chunksY) * this.chunkY);
+    }
+
+    private long widthZ(final long chunk) {
+        return Math.min(this.chunkZ, this.sizeZ - (chunk / this.chunksX / this.chunksY) * this.chunkZ);
+    }
+
+    /**
+     * Gets the number of cells along the given axis of an aligned
+     * Morton block of the given level.
+     */
+    private long extent(final int level, final int axis) {
+        return level > axis ? 1L << ((level - axis + this.dimensions - 1) / this.dimensions) : 1;
+    }
+
+    private long overlap(final long start, final long size, final long extent) {
+        return Math.max(0, Math.min(start + extent, size) - start);
+    }
+
+    private static int[][] block(final int dimensions) {
+        final int length = 1 << (BLOCK_BITS * dimensions);
+        final int[][] block = new int[3][length];
+        for (int i = 0; i < length; i++) {
+            block[0][i] = (int) compact(i, dimensions);
+            block[1][i] = (int) compact(i >>> 1, dimensions);
+            block[2][i] = dimensions == 3 ? (int) compact(i >>> 2, 3) : 0;
+        }
+        return block;
+    }
+
+    private static long chunks(final long size, final long chunk) {
+        return (size + chunk - 1) / chunk;
+    }
+
+    private static long product(final long a, final long b, final long c) {
+        try {
+            return Math.multiplyExact(Math.multiplyExact(a, b), c);
+        } catch (final ArithmeticException ex) {
+            throw new IllegalStateException("region is too large to index", ex);
+        }
+    }
+
+    /**
+     * Gathers every {@code dimensions}th bit of the given value, from the
+     * lowest, into the low bits of the result.
+     */
+    private static long compact(final long value, final int dimensions) {
+        if (dimensions == 3) {
+            long x = value & 0x1249249249249249L;
+            x = (x | (x >>> 2)) & 0x10C30C30C30C30C3L;
+            x = (x | (x >>> 4)) & 0x100F00F00F00F00FL;
+            x = (x | (x >>> 8)) & 0x001F0000FF0000FFL;
+            x = (x | (x >>> 16)) & 0x001F00000000FFFFL;
+            return (x | (x >>> 32)) & 0x00000000001FFFFFL;
+        }
+        long x = value & 0x5555555555555555L;
+        x = (x | (x >>> 1)) & 0x3333333333333333L;
+        x = (x | (x >>> 2)) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | (x >>> 4)) & 0x00FF00FF00FF00FFL;
+        x = (x | (x >>> 8)) & 0x0000FFFF0000FFFFL;
+        return (x | (x >>> 16)) & 0x00000000FFFFFFFFL;
+    }
+
+}
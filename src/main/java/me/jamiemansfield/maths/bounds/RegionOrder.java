@@ -0,0 +1,60 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.bounds;
+
+/**
+ * The orders in which the cells of an integral region may be visited.
+ */
+public enum RegionOrder {
+
+    /**
+     * Along the x axis first, then the y axis, then the z axis - so
+     * each row, and then each slab, is completed before the next.
+     */
+    SLAB,
+
+    /**
+     * Chunk by chunk, where chunks are of {@value #CHUNK_SIZE} cells
+     * along each axis, aligned to the minimum of the region. The chunks
+     * are visited in slab order, and the cells of each chunk in slab
+     * order.
+     */
+    CHUNK,
+
+    /**
+     * Along the Morton (Z-order) curve of the cells' offsets from the
+     * minimum of the region - which keeps cells visited close together
+     * in time close together in space, at every scale.
+     */
+    MORTON,
+    ;
+
+    /**
+     * The number of cells along each axis of a chunk.
+     */
+    public static final int CHUNK_SIZE = 16;
+
+}
@@ -0,0 +1,116 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.bounds;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Spliterator} over the cells of a region, within a range of
+ * the ordinals of a {@link RegionIndex}.
+ *
+ * <p>As the index can count the cells within any range, the
+ * spliterator is exactly sized, as are those split from it - so
+ * parallel streams divide the region evenly.</p>
+ *
+ * @param <T> The type of coordinate
+ */
+abstract class RegionSpliterator<T> implements Spliterator<T> {
+
+    final RegionIndex index;
+    private long from;
+    private final long to;
+
+    RegionSpliterator(final RegionIndex index, final long from, final long to) {
+        this.index = index;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Creates the coordinate of the cell at the given offsets from the
+     * minimum of the region.
+     *
+     * @param x The x offset
+     * @param y The y offset
+     * @param z The z offset
+     * @return The coordinate
+     */
+    abstract T create(long x, long y, long z);
+
+    /**
+     * Creates a spliterator over the given range of ordinals.
+     *
+     * @param from The first ordinal, inclusive
+     * @param to The last ordinal, exclusive
+     * @return The spliterator
+     */
+    abstract RegionSpliterator<T> split(long from, long to);
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super T> action) {
+        final long ordinal = this.index.next(this.from);
+        if (ordinal >= this.to) {
+            this.from = this.to;
+            return false;
+        }
+        this.from = ordinal + 1;
+        action.accept(this.create(this.index.x(ordinal), this.index.y(ordinal), this.index.z(ordinal)));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(final Consumer<? super T> action) {
+        final long from = this.from;
+        this.from = this.to;
+        this.index.forEach(from, this.to, (x, y, z) -> action.accept(this.create(x, y, z)));
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        final long from = this.index.next(this.from);
+        if (this.to - from < 2) {
+            return null;
+        }
+        final long mid = this.index.split(from, this.to);
+        if (this.index.rank(mid) == this.index.rank(from) || this.index.rank(mid) == this.index.rank(this.to)) {
+            return null;
+        }
+        this.from = mid;
+        return this.split(from, mid);
+    }
+
+    @Override
+    public long estimateSize() {
+        return this.index.rank(this.to) - this.index.rank(this.from);
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | DISTINCT | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.codec;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads a stream of coordinate records written by a {@link BlockWriter},
+ * holding a single block in memory at a time.
+ */
+final class BlockReader implements Closeable {
+
+    private final ByteSource source;
+    private final byte[] block = new byte[BlockWriter.MAX_BLOCK_LENGTH];
+    private final byte[] single = new byte[1];
+    private int position;
+    private int limit;
+    private long pending;
+    private int pendingBits;
+    private long remaining;
+    private boolean ended;
+
+    /**
+     * Creates a reader, and reads the header of the stream.
+     *
+     * @param source The source of the stream
+     * @param type The expected type of record
+     * @throws IOException If the header could not be read, or is not
+     *                     that of a stream of the expected type
+     */
+    BlockReader(final ByteSource source, final int type) throws IOException {
+        this.source = source;
+        this.source.readFully(this.block, 0, 5);
+        final int magic = (this.block[0] & 0xFF) << 24 | (this.block[1] & 0xFF) << 16 | (this.block[2] & 0xFF) << 8 | (this.block[3] & 0xFF);
+        if (magic != BlockWriter.MAGIC) {
+            throw new IOException("not a coordinate stream");
+        }
+        if (this.block[4] != type) {
+            throw new IOException("stream holds records of type " + this.block[4] + ", not " + type);
+        }
+    }
+
+    /**
+     * Begins the next record, reading the next block if needed.
+     *
+     * @return {@code true} if there was another record, or {@code false}
+     *         if the stream has ended
+     * @throws IOException If the block could not be read
+     */
+    boolean nextRecord() throws IOException {
+        if (this.remaining == 0) {
+            if (this.ended) {
+                return false;
+            }
+            final long records = this.readHeaderVarint();
+            if (records == 0) {
+                this.ended = true;
+                return false;
+            }
+            final long length = this.readHeaderVarint();
+            if (length <= 0 || length > BlockWriter.MAX_BLOCK_LENGTH) {
+                throw new IOException("corrupt block length " + length);
+            }
+            this.source.readFully(this.block, 0, (int) length);
+            this.position = 0;
+            this.limit = (int) length;
+            this.pending = 0;
+            this.pendingBits = 0;
+            this.remaining = records;
+        }
+        this.remaining--;
+        return true;
+    }
+
+    /**
+     * Reads the given number of bits, most significant first.
+     *
+     * @param bits The number of bits, from 1 to 64
+     * @return The bits, in the low bits of the value
+     * @throws IOException If the block holds too few bits
+     */
+    long readBits(final int bits) throws IOException {
+        if (bits > 32) {
+            final long high = this.readBits(bits - 32);
+            return (high << 32) | this.readBits(32);
+        }
+        while (this.pendingBits < bits) {
+            if (this.position == this.limit) {
+                throw new IOException("corrupt block: record overruns payload");
+            }
+            this.pending = (this.pending << 8) | (this.block[this.position++] & 0xFF);
+            this.pendingBits += 8;
+        }
+        this.pendingBits -= bits;
+        return (this.pending >>> this.pendingBits) & (-1L >>> (64 - bits));
+    }
+
+    /**
+     * Reads an unsigned varint.
+     *
+     * @return The value
+     * @throws IOException If the block holds too few bits, or the varint
+     *                     is too long
+     */
+    long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final long b = this.readBits(8);
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("corrupt varint");
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.source.close();
+    }
+
+    private long readHeaderVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            this.source.readFully(this.single, 0, 1);
+            value |= (this.single[0] & 0x7FL) << shift;
+            if ((this.single[0] & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("corrupt varint");
+    }
+
+}
@@ -0,0 +1,193 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.codec;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+/**
+ * Writes a stream of coordinate records as a sequence of blocks, each
+ * packed at the level of bits.
+ *
+ * <p>A stream consists of a 5 byte header - holding a magic number and
+ * the type of record - followed by blocks. Each block is headed by two
+ * unsigned varints, the number of records it holds and the length of
+ * its payload in bytes; an empty block ends the stream. Records never
+ * span blocks, and each payload is padded to a whole byte.</p>
+ *
+ * <p>As no block exceeds {@link #MAX_BLOCK_LENGTH} bytes, neither the
+ * writer nor a {@link BlockReader} ever holds more than one block in
+ * memory, however long the stream.</p>
+ */
+final class BlockWriter implements Closeable, Flushable {
+
+    static final int MAGIC = 0x4D435253; // MCRS
+    static final int BLOCK_LENGTH = 1 << 16;
+    // room for the largest record to complete past the block length
+    static final int MAX_BLOCK_LENGTH = BLOCK_LENGTH + 64;
+
+    private final ByteSink sink;
+    private final byte[] block = new byte[MAX_BLOCK_LENGTH];
+    private final byte[] header = new byte[20];
+    private int position;
+    private long pending;
+    private int pendingBits;
+    private int records;
+    private boolean closed;
+
+    /**
+     * Creates a writer, and writes the header of the stream.
+     *
+     * @param sink The destination of the stream
+     * @param type The type of record
+     * @throws IOException If the header could not be written
+     */
+    BlockWriter(final ByteSink sink, final int type) throws IOException {
+        this.sink = sink;
+        this.header[0] = (byte) (MAGIC >>> 24);
+        this.header[1] = (byte) (MAGIC >>> 16);
+        this.header[2] = (byte) (MAGIC >>> 8);
+        this.header[3] = (byte) MAGIC;
+        this.header[4] = (byte) type;
+        this.sink.write(this.header, 0, 5);
+    }
+
+    /**
+     * Writes the low bits of the given value, most significant first.
+     *
+     * @param value The value
+     * @param bits The number of bits, from 1 to 64
+     */
+    void writeBits(final long value, final int bits) {
+        if (bits > 32) {
+            this.writeBits(value >>> 32, bits - 32);
+            this.writeBits(value, 32);
+            return;
+        }
+        this.pending = (this.pending << bits) | (value & (-1L >>> (64 - bits)));
+        this.pendingBits += bits;
+        while (this.pendingBits >= 8) {
+            this.pendingBits -= 8;
+            this.block[this.position++] = (byte) (this.pending >>> this.pendingBits);
+        }
+    }
+
+    /**
+     * Writes the given value as an unsigned varint - 7 bits to a byte,
+     * least significant first.
+     *
+     * @param value The value
+     */
+    void writeVarint(final long value) {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            this.writeBits((remaining & 0x7F) | 0x80, 8);
+            remaining >>>= 7;
+        }
+        this.writeBits(remaining, 8);
+    }
+
+    /**
+     * Completes a record, writing out the block if it is full.
+     *
+     * @throws IOException If the block could not be written
+     */
+    void endRecord() throws IOException {
+        this.records++;
+        if (this.position >= BLOCK_LENGTH) {
+            this.writeBlock();
+        }
+    }
+
+    /**
+     * Writes out every complete record, and flushes the sink.
+     *
+     * @throws IOException If the records could not be written
+     */
+    @Override
+    public void flush() throws IOException {
+        this.writeBlock();
+        this.sink.flush();
+    }
+
+    /**
+     * Writes out every complete record and the end of the stream, then
+     * closes the sink.
+     *
+     * @throws IOException If the stream could not be completed
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            this.writeBlock();
+            this.header[0] = 0;
+            this.sink.write(this.header, 0, 1);
+            this.sink.flush();
+        } finally {
+            this.sink.close();
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        if (this.records == 0) {
+            return;
+        }
+        if (this.pendingBits > 0) {
+            this.block[this.position++] = (byte) (this.pending << (8 - this.pendingBits));
+            this.pendingBits = 0;
+        }
+        int length = putVarint(this.header, 0, this.records);
+        length = putVarint(this.header, length, this.position);
+        this.sink.write(this.header, 0, length);
+        this.sink.write(this.block, 0, this.position);
+        this.position = 0;
+        this.pending = 0;
+        this.records = 0;
+    }
+
+    void checkOpen() throws IOException {
+        if (this.closed) {
+            throw new IOException("stream closed");
+        }
+    }
+
+    private static int putVarint(final byte[] bytes, final int offset, final long value) {
+        int position = offset;
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            bytes[position++] = (byte) ((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        bytes[position++] = (byte) remaining;
+        return position;
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.codec;
+
+import java.io.Closeable;
+import java.io.DataOutput;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A destination for the bytes written by an encoder.
+ */
+interface ByteSink extends Closeable, Flushable {
+
+    /**
+     * Creates a sink writing to the given output. The output is flushed
+     * and closed with the sink, where it supports either.
+     *
+     * @param out The output
+     * @return The sink
+     */
+    static ByteSink of(final DataOutput out) {
+        return new ByteSink() {
+            @Override
+            public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+                out.write(bytes, offset, length);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                if (out instanceof Flushable) {
+                    ((Flushable) out).flush();
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (out instanceof Closeable) {
+                    ((Closeable) out).close();
+                }
+            }
+        };
+    }
+
+    /**
+     * Creates a sink writing to the given stream. The stream is flushed
+     * and closed with the sink.
+     *
+     * @param out The stream
+     * @return The sink
+     */
+    static ByteSink of(final OutputStream out) {
+        return new ByteSink() {
+            @Override
+            public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+                out.write(bytes, offset, length);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                out.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                out.close();
+            }
+        };
+    }
+
+    /**
+     * Creates a sink writing to the given buffer, from its position.
+     *
+     * @param buffer The buffer
+     * @return The sink
+     */
+    static ByteSink of(final ByteBuffer buffer) {
+        return new ByteSink() {
+            @Override
+            public void write(final byte[] bytes, final int offset, final int length) {
+                buffer.put(bytes, offset, length);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    /**
+     * Creates a sink writing to the given channel. The channel is closed
+     * with the sink.
+     *
+     * @param channel The channel
+     * @return The sink
+     */
+    static ByteSink of(final WritableByteChannel channel) {
+        return new ByteSink() {
+            @Override
+            public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+                final ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        };
+    }
+
+    /**
+     * Writes the given range of bytes.
+     *
+     * @param bytes The bytes
+     * @param offset The index of the first byte
+     * @param length The number of bytes
+     * @throws IOException If the bytes could not be written
+     */
+    void write(byte[] bytes, int offset, int length) throws IOException;
+
+}
@@ -0,0 +1,124 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.codec;
+
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * A source of the bytes read by a decoder.
+ */
+interface ByteSource extends Closeable {
+
+    /**
+     * Creates a source reading from the given input. The input is closed
+     * with the source, where it supports it.
+     *
+     * @param in The input
+     * @return The source
+     */
+    static ByteSource of(final DataInput in) {
+        return new ByteSource() {
+            @Override
+            public void readFully(final byte[] bytes, final int offset, final int length) throws IOException {
+                in.readFully(bytes, offset, length);
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (in instanceof Closeable) {
+                    ((Closeable) in).close();
+                }
+            }
+        };
+    }
+
+    /**
+     * Creates a source reading from the given buffer, from its position.
+     *
+     * @param buffer The buffer
+     * @return The source
+     */
+    static ByteSource of(final ByteBuffer buffer) {
+        return new ByteSource() {
+            @Override
+            public void readFully(final byte[] bytes, final int offset, final int length) throws IOException {
+                try {
+                    buffer.get(bytes, offset, length);
+                } catch (final BufferUnderflowException ex) {
+                    throw new EOFException();
+                }
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    /**
+     * Creates a source reading from the given channel. The channel is
+     * closed with the source.
+     *
+     * @param channel The channel
+     * @return The source
+     */
+    static ByteSource of(final ReadableByteChannel channel) {
+        return new ByteSource() {
+            @Override
+            public void readFully(final byte[] bytes, final int offset, final int length) throws IOException {
+                final ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer) < 0) {
+                        throw new EOFException();
+                    }
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        };
+    }
+
+    /**
+     * Reads exactly the given number of bytes.
+     *
+     * @param bytes The array to read into
+     * @param offset The index to read the first byte into
+     * @param length The number of bytes
+     * @throws EOFException If the source ends first
+     * @throws IOException If the bytes could not be read
+     */
+    void readFully(byte[] bytes, int offset, int length) throws IOException;
+
+}
@@ -0,0 +1,217 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.codec;
+
+import com.google.common.base.MoreObjects;
+import me.jamiemansfield.maths.coord.Coordinate3f;
+import me.jamiemansfield.maths.coord.Coordinate3fBuffer;
+
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * An incremental decoder of a stream of {@link Coordinate3f}s written by a
+ * {@link Coordinate3fEncoder}.
+ *
+ * <p>The decoder is a cursor over the stream, exposing the current
+ * coordinate as primitives, so decoding creates no objects:</p>
+ *
+ * <pre>
+ * while (decoder.next()) {
+ *     // decoder.getX(), decoder.getY(), decoder.getZ()
+ * }
+ * </pre>
+ *
+ * <p>A single block of the stream is held at a time, so the decoder
+ * uses constant memory however long the stream. A decoder is not
+ * thread-safe.</p>
+ */
+public final class Coordinate3fDecoder implements Closeable {
+
+    private final BlockReader reader;
+    private final int[] previous = new int[3];
+    private final int[] leading = new int[3];
+    private final int[] trailing = new int[3];
+    private long count;
+
+    /**
+     * Creates a decoder reading from the given input, and reads the
+     * header of the stream.
+     *
+     * <p>The input is closed with the decoder, where it supports it.</p>
+     *
+     * @param in The input
+     * @throws IOException If the header could not be read, or is not
+     *                     that of a stream of {@link Coordinate3f}s
+     */
+    public Coordinate3fDecoder(final DataInput in) throws IOException {
+        this(ByteSource.of(in));
+    }
+
+    /**
+     * Creates a decoder reading from the given buffer from its position,
+     * and reads the header of the stream.
+     *
+     * @param buffer The buffer
+     * @throws IOException If the header could not be read, or is not
+     *                     that of a stream of {@link Coordinate3f}s
+     */
+    public Coordinate3fDecoder(final ByteBuffer buffer) throws IOException {
+        this(ByteSource.of(buffer));
+    }
+
+    /**
+     * Creates a decoder reading from the given channel, and reads the
+     * header of the stream.
+     *
+     * <p>The channel is closed with the decoder.</p>
+     *
+     * @param channel The channel
+     * @throws IOException If the header could not be read, or is not
+     *                     that of a stream of {@link Coordinate3f}s
+     */
+    public Coordinate3fDecoder(final ReadableByteChannel channel) throws IOException {
+        this(ByteSource.of(channel));
+    }
+
+    private Coordinate3fDecoder(final ByteSource source) throws IOException {
+        this.reader = new BlockReader(source, Coordinate3fEncoder.TYPE);
+    }
+
+    /**
+     * Advances to the next coordinate of the stream.
+     *
+     * @return {@code true} if there was another coordinate, or
+     *         {@code false} if the stream has ended
+     * @throws java.io.EOFException If the input ends before the stream
+     * @throws IOException If the coordinate could not be read
+     */
+    public boolean next() throws IOException {
+        if (!this.reader.nextRecord()) {
+            return false;
+        }
+        this.read(0);
+        this.read(1);
+        this.read(2);
+        this.count++;
+        return true;
+    }
+
+    /**
+     * Gets the x position of the current coordinate.
+     *
+     * @return The x pos
+     */
+    public float getX() {
+        return Float.intBitsToFloat(this.previous[0]);
+    }
+
+    /**
+     * Gets the y position of the current coordinate.
+     *
+     * @return The y pos
+     */
+    public float getY() {
+        return Float.intBitsToFloat(this.previous[1]);
+    }
+
+    /**
+     * Gets the z position of the current coordinate.
+     *
+     * @return The z pos
+     */
+    public float getZ() {
+        return Float.intBitsToFloat(this.previous[2]);
+    }
+
+    /**
+     * Gets the current coordinate, as a new {@link Coordinate3f}.
+     *
+     * @return The coordinate
+     */
+    public Coordinate3f getCoordinate() {
+        return new Coordinate3f(this.getX(), this.getY(), this.getZ());
+    }
+
+    /**
+     * Gets the number of coordinates read.
+     *
+     * @return The count
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Reads every remaining coordinate of the stream into the given
+     * buffer.
+     *
+     * @param buffer The buffer to append to
+     * @return The number of coordinates read
+     * @throws IOException If the coordinates could not be read
+     */
+    public int readAll(final Coordinate3fBuffer buffer) throws IOException {
+        int read = 0;
+        while (this.next()) {
+            buffer.add(this.getX(), this.getY(), this.getZ());
+            read++;
+        }
+        return read;
+    }
+
+    /**
+     * Closes the input.
+     *
+     * @throws IOException If the input could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.reader.close();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("count", this.count)
+                .toString();
+    }
+
+    private void read(final int axis) throws IOException {
+        if (this.reader.readBits(1) == 0) {
+            return;
+        }
+        if (this.reader.readBits(1) == 1) {
+            this.leading[axis] = (int) this.reader.readBits(5);
+            this.trailing[axis] = 32 - this.leading[axis] - ((int) this.reader.readBits(5) + 1);
+        }
+        final int meaningful = 32 - this.leading[axis] - this.trailing[axis];
+        this.previous[axis] ^= (int) this.reader.readBits(meaningful) << this.trailing[axis];
+    }
+
+}
@@ -0,0 +1,216 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.codec;
+
+import com.google.common.base.MoreObjects;
+import me.jamiemansfield.maths.coord.Coordinate3f;
+import me.jamiemansfield.maths.coord.Coordinate3fBuffer;
+
+import java.io.Closeable;
+import java.io.DataOutput;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * An incremental encoder of a stream of {@link Coordinate3f}s, that encodes them
+ * compactly by XOR-ing each component with the
+ * same component of the coordinate before, as in Facebook's Gorilla -
+ * so a repeated component costs one bit, and a component differing
+ * from the last only in its low bits costs little more than those
+ * bits.
+ *
+ * <p>Coordinates are buffered a block at a time before being written
+ * out, so the encoder uses constant memory however long the stream.
+ * The stream is only complete once the encoder is closed; it can then
+ * be read by a {@link Coordinate3fDecoder}.</p>
+ *
+ * <p>An encoder is not thread-safe.</p>
+ */
+public final class Coordinate3fEncoder implements Closeable, Flushable {
+
+    static final int TYPE = 2;
+
+    private final BlockWriter writer;
+
+    // the bits of the last coordinate, and the window of the last
+    // meaningful bits written, for each axis
+    private final int[] previous = new int[3];
+    private final int[] leading = {-1, -1, -1};
+    private final int[] trailing = new int[3];
+    private long count;
+
+    /**
+     * Creates an encoder writing to the given output, and writes the
+     * header of the stream.
+     *
+     * <p>The output is flushed and closed with the encoder, where it
+     * supports either.</p>
+     *
+     * @param out The output
+     * @throws IOException If the header could not be written
+     */
+    public Coordinate3fEncoder(final DataOutput out) throws IOException {
+        this(ByteSink.of(out));
+    }
+
+    /**
+     * Creates an encoder writing to the given buffer from its position,
+     * and writes the header of the stream.
+     *
+     * @param buffer The buffer
+     * @throws IOException If the header could not be written
+     * @throws java.nio.BufferOverflowException If the buffer fills
+     */
+    public Coordinate3fEncoder(final ByteBuffer buffer) throws IOException {
+        this(ByteSink.of(buffer));
+    }
+
+    /**
+     * Creates an encoder writing to the given channel, and writes the
+     * header of the stream.
+     *
+     * <p>The channel is closed with the encoder.</p>
+     *
+     * @param channel The channel
+     * @throws IOException If the header could not be written
+     */
+    public Coordinate3fEncoder(final WritableByteChannel channel) throws IOException {
+        this(ByteSink.of(channel));
+    }
+
+    private Coordinate3fEncoder(final ByteSink sink) throws IOException {
+        this.writer = new BlockWriter(sink, TYPE);
+    }
+
+    /**
+     * Gets the number of coordinates written.
+     *
+     * @return The count
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Writes the given coordinate to the stream.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @throws IOException If the coordinate could not be written
+     */
+    public void write(final float x, final float y, final float z) throws IOException {
+        this.writer.checkOpen();
+        this.write(0, Float.floatToRawIntBits(x));
+        this.write(1, Float.floatToRawIntBits(y));
+        this.write(2, Float.floatToRawIntBits(z));
+        this.writer.endRecord();
+        this.count++;
+    }
+
+    /**
+     * Writes the given coordinate to the stream.
+     *
+     * @param coord The coordinate
+     * @throws IOException If the coordinate could not be written
+     */
+    public void write(final Coordinate3f coord) throws IOException {
+        this.write(coord.getX(), coord.getY(), coord.getZ());
+    }
+
+    /**
+     * Writes every coordinate of the given buffer to the stream, in
+     * order.
+     *
+     * @param buffer The buffer
+     * @throws IOException If the coordinates could not be written
+     */
+    public void writeAll(final Coordinate3fBuffer buffer) throws IOException {
+        final float[] xs = buffer.getXArray();
+        final float[] ys = buffer.getYArray();
+        final float[] zs = buffer.getZArray();
+        for (int i = 0; i < buffer.size(); i++) {
+            this.write(xs[i], ys[i], zs[i]);
+        }
+    }
+
+    /**
+     * Writes out every coordinate buffered so far, and flushes the
+     * output. The stream may be continued afterwards.
+     *
+     * @throws IOException If the coordinates could not be written
+     */
+    @Override
+    public void flush() throws IOException {
+        this.writer.checkOpen();
+        this.writer.flush();
+    }
+
+    /**
+     * Writes out every coordinate buffered so far and the end of the
+     * stream, then closes the output.
+     *
+     * @throws IOException If the stream could not be completed
+     */
+    @Override
+    public void close() throws IOException {
+        this.writer.close();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("count", this.count)
+                .toString();
+    }
+
+    private void write(final int axis, final int bits) {
+        final int xor = bits ^ this.previous[axis];
+        this.previous[axis] = bits;
+        if (xor == 0) {
+            this.writer.writeBits(0, 1);
+            return;
+        }
+        final int leading = Integer.numberOfLeadingZeros(xor);
+        final int trailing = Integer.numberOfTrailingZeros(xor);
+        if (this.leading[axis] != -1 && leading >= this.leading[axis] && trailing >= this.trailing[axis]) {
+            // the meaningful bits fit within the last window
+            this.writer.writeBits(0b10, 2);
+            this.writer.writeBits(xor >>> this.trailing[axis], 32 - this.leading[axis] - this.trailing[axis]);
+            return;
+        }
+        final int meaningful = 32 - leading - trailing;
+        this.writer.writeBits(0b11, 2);
+        this.writer.writeBits(leading, 5);
+        this.writer.writeBits(meaningful - 1, 5);
+        this.writer.writeBits(xor >>> trailing, meaningful);
+        this.leading[axis] = leading;
+        this.trailing[axis] = trailing;
+    }
+
+}
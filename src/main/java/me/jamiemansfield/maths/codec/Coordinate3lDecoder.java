@@ -0,0 +1,191 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.codec;
+
+import com.google.common.base.MoreObjects;
+import me.jamiemansfield.maths.coord.Coordinate3l;
+
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * An incremental decoder of a stream of {@link Coordinate3l}s written by a
+ * {@link Coordinate3lEncoder}.
+ *
+ * <p>The decoder is a cursor over the stream, exposing the current
+ * coordinate as primitives, so decoding creates no objects:</p>
+ *
+ * <pre>
+ * while (decoder.next()) {
+ *     // decoder.getX(), decoder.getY(), decoder.getZ()
+ * }
+ * </pre>
+ *
+ * <p>A single block of the stream is held at a time, so the decoder
+ * uses constant memory however long the stream. A decoder is not
+ * thread-safe.</p>
+ */
+public final class Coordinate3lDecoder implements Closeable {
+
+    private final BlockReader reader;
+    private long x;
+    private long y;
+    private long z;
+    private long count;
+
+    /**
+     * Creates a decoder reading from the given input, and reads the
+     * header of the stream.
+     *
+     * <p>The input is closed with the decoder, where it supports it.</p>
+     *
+     * @param in The input
+     * @throws IOException If the header could not be read, or is not
+     *                     that of a stream of {@link Coordinate3l}s
+     */
+    public Coordinate3lDecoder(final DataInput in) throws IOException {
+        this(ByteSource.of(in));
+    }
+
+    /**
+     * Creates a decoder reading from the given buffer from its position,
+     * and reads the header of the stream.
+     *
+     * @param buffer The buffer
+     * @throws IOException If the header could not be read, or is not
+     *                     that of a stream of {@link Coordinate3l}s
+     */
+    public Coordinate3lDecoder(final ByteBuffer buffer) throws IOException {
+        this(ByteSource.of(buffer));
+    }
+
+    /**
+     * Creates a decoder reading from the given channel, and reads the
+     * header of the stream.
+     *
+     * <p>The channel is closed with the decoder.</p>
+     *
+     * @param channel The channel
+     * @throws IOException If the header could not be read, or is not
+     *                     that of a stream of {@link Coordinate3l}s
+     */
+    public Coordinate3lDecoder(final ReadableByteChannel channel) throws IOException {
+        this(ByteSource.of(channel));
+    }
+
+    private Coordinate3lDecoder(final ByteSource source) throws IOException {
+        this.reader = new BlockReader(source, Coordinate3lEncoder.TYPE);
+    }
+
+    /**
+     * Advances to the next coordinate of the stream.
+     *
+     * @return {@code true} if there was another coordinate, or
+     *         {@code false} if the stream has ended
+     * @throws java.io.EOFException If the input ends before the stream
+     * @throws IOException If the coordinate could not be read
+     */
+    public boolean next() throws IOException {
+        if (!this.reader.nextRecord()) {
+            return false;
+        }
+        this.x += unZigZag(this.reader.readVarint());
+        this.y += unZigZag(this.reader.readVarint());
+        this.z += unZigZag(this.reader.readVarint());
+        this.count++;
+        return true;
+    }
+
+    /**
+     * Gets the x position of the current coordinate.
+     *
+     * @return The x pos
+     */
+    public long getX() {
+        return this.x;
+    }
+
+    /**
+     * Gets the y position of the current coordinate.
+     *
+     * @return The y pos
+     */
+    public long getY() {
+        return this.y;
+    }
+
+    /**
+     * Gets the z position of the current coordinate.
+     *
+     * @return The z pos
+     */
+    public long getZ() {
+        return this.z;
+    }
+
+    /**
+     * Gets the current coordinate, as a new {@link Coordinate3l}.
+     *
+     * @return The coordinate
+     */
+    public Coordinate3l getCoordinate() {
+        return new Coordinate3l(this.getX(), this.getY(), this.getZ());
+    }
+
+    /**
+     * Gets the number of coordinates read.
+     *
+     * @return The count
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Closes the input.
+     *
+     * @throws IOException If the input could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.reader.close();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("count", this.count)
+                .toString();
+    }
+
+    private static long unZigZag(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+}
@@ -0,0 +1,178 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.codec;
+
+import com.google.common.base.MoreObjects;
+import me.jamiemansfield.maths.coord.Coordinate3l;
+
+import java.io.Closeable;
+import java.io.DataOutput;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * An incremental encoder of a stream of {@link Coordinate3l}s, that encodes them
+ * compactly as the differences between each
+ * coordinate and the one before, each zig-zag encoded as a varint - so
+ * a track of nearby positions costs a byte or two per component, rather
+ * than 8.
+ *
+ * <p>Coordinates are buffered a block at a time before being written
+ * out, so the encoder uses constant memory however long the stream.
+ * The stream is only complete once the encoder is closed; it can then
+ * be read by a {@link Coordinate3lDecoder}.</p>
+ *
+ * <p>An encoder is not thread-safe.</p>
+ */
+public final class Coordinate3lEncoder implements Closeable, Flushable {
+
+    static final int TYPE = 4;
+
+    private final BlockWriter writer;
+    private long x;
+    private long y;
+    private long z;
+    private long count;
+
+    /**
+     * Creates an encoder writing to the given output, and writes the
+     * header of the stream.
+     *
+     * <p>The output is flushed and closed with the encoder, where it
+     * supports either.</p>
+     *
+     * @param out The output
+     * @throws IOException If the header could not be written
+     */
+    public Coordinate3lEncoder(final DataOutput out) throws IOException {
+        this(ByteSink.of(out));
+    }
+
+    /**
+     * Creates an encoder writing to the given buffer from its position,
+     * and writes the header of the stream.
+     *
+     * @param buffer The buffer
+     * @throws IOException If the header could not be written
+     * @throws java.nio.BufferOverflowException If the buffer fills
+     */
+    public Coordinate3lEncoder(final ByteBuffer buffer) throws IOException {
+        this(ByteSink.of(buffer));
+    }
+
+    /**
+     * Creates an encoder writing to the given channel, and writes the
+     * header of the stream.
+     *
+     * <p>The channel is closed with the encoder.</p>
+     *
+     * @param channel The channel
+     * @throws IOException If the header could not be written
+     */
+    public Coordinate3lEncoder(final WritableByteChannel channel) throws IOException {
+        this(ByteSink.of(channel));
+    }
+
+    private Coordinate3lEncoder(final ByteSink sink) throws IOException {
+        this.writer = new BlockWriter(sink, TYPE);
+    }
+
+    /**
+     * Gets the number of coordinates written.
+     *
+     * @return The count
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Writes the given coordinate to the stream.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @throws IOException If the coordinate could not be written
+     */
+    public void write(final long x, final long y, final long z) throws IOException {
+        this.writer.checkOpen();
+        this.writer.writeVarint(zigZag(x - this.x));
+        this.writer.writeVarint(zigZag(y - this.y));
+        this.writer.writeVarint(zigZag(z - this.z));
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.writer.endRecord();
+        this.count++;
+    }
+
+    /**
+     * Writes the given coordinate to the stream.
+     *
+     * @param coord The coordinate
+     * @throws IOException If the coordinate could not be written
+     */
+    public void write(final Coordinate3l coord) throws IOException {
+        this.write(coord.getX(), coord.getY(), coord.getZ());
+    }
+
+    /**
+     * Writes out every coordinate buffered so far, and flushes the
+     * output. The stream may be continued afterwards.
+     *
+     * @throws IOException If the coordinates could not be written
+     */
+    @Override
+    public void flush() throws IOException {
+        this.writer.checkOpen();
+        this.writer.flush();
+    }
+
+    /**
+     * Writes out every coordinate buffered so far and the end of the
+     * stream, then closes the output.
+     *
+     * @throws IOException If the stream could not be completed
+     */
+    @Override
+    public void close() throws IOException {
+        this.writer.close();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("count", this.count)
+                .toString();
+    }
+
+    private static long zigZag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+}
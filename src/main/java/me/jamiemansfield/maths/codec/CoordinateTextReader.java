@@ -0,0 +1,644 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.codec;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.base.MoreObjects;
+import me.jamiemansfield.maths.coord.Coordinate2d;
+import me.jamiemansfield.maths.coord.Coordinate2dBuffer;
+import me.jamiemansfield.maths.coord.Coordinate2f;
+import me.jamiemansfield.maths.coord.Coordinate2fBuffer;
+import me.jamiemansfield.maths.coord.Coordinate2i;
+import me.jamiemansfield.maths.coord.Coordinate2iBuffer;
+import me.jamiemansfield.maths.coord.Coordinate2l;
+import me.jamiemansfield.maths.coord.Coordinate3d;
+import me.jamiemansfield.maths.coord.Coordinate3dBuffer;
+import me.jamiemansfield.maths.coord.Coordinate3f;
+import me.jamiemansfield.maths.coord.Coordinate3fBuffer;
+import me.jamiemansfield.maths.coord.Coordinate3i;
+import me.jamiemansfield.maths.coord.Coordinate3iBuffer;
+import me.jamiemansfield.maths.coord.Coordinate3l;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A streaming reader of coordinates from text, one to a line, such as
+ * CSV or whitespace-separated files.
+ *
+ * <p>The components of each line may be separated by any run of commas,
+ * semicolons, spaces and tabs. Blank lines, and lines beginning with
+ * {@code #}, are skipped. The reader is a cursor over the lines, and
+ * parses each component directly from its bytes only when it is asked
+ * for - as whichever primitive type is wanted:</p>
+ *
+ * <pre>
+ * while (reader.next()) {
+ *     // reader.getDouble(0), reader.getDouble(1), reader.getDouble(2)
+ * }
+ * </pre>
+ *
+ * <p>Large files can be read by several threads at once, by
+ * {@link #split(Path, int, int) splitting} them into byte ranges, each
+ * read by its own reader. A reader is not thread-safe.</p>
+ */
+public final class CoordinateTextReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Opens a reader over the whole of the given file.
+     *
+     * @param path The path of the file
+     * @param dimensions The number of components of each coordinate
+     * @return The reader
+     * @throws IOException If the file could not be opened
+     */
+    public static CoordinateTextReader open(final Path path, final int dimensions) throws IOException {
+        return new CoordinateTextReader(FileChannel.open(path, StandardOpenOption.READ), dimensions);
+    }
+
+    /**
+     * Opens readers over consecutive ranges of the given file, of near
+     * equal size, that together read every line once - so the file can be
+     * read by as many threads as readers.
+     *
+     * <p>Each reader reads the lines that begin within its range, reading
+     * past the end of the range to complete the last of them.</p>
+     *
+     * @param path The path of the file
+     * @param dimensions The number of components of each coordinate
+     * @param parts The number of readers
+     * @return The readers, in the order of their ranges
+     * @throws IOException If the file could not be opened
+     */
+    public static List<CoordinateTextReader> split(final Path path, final int dimensions, final int parts) throws IOException {
+        checkArgument(parts > 0, "parts must be positive");
+        final List<CoordinateTextReader> readers = new ArrayList<>(parts);
+        try {
+            final long size;
+            try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                size = channel.size();
+            }
+            for (int i = 0; i < parts; i++) {
+                final long start = size * i / parts;
+                final long end = size * (i + 1) / parts;
+                final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+                final CoordinateTextReader reader = new CoordinateTextReader(channel, dimensions, Math.max(start - 1, 0), end);
+                readers.add(reader);
+                if (start > 0) {
+                    // the range begins after the end of the line in progress
+                    channel.position(start - 1);
+                    reader.skipLine();
+                }
+            }
+            return readers;
+        } catch (final IOException | RuntimeException ex) {
+            for (final CoordinateTextReader reader : readers) {
+                reader.close();
+            }
+            throw ex;
+        }
+    }
+
+    private final ReadableByteChannel channel;
+    private final int dimensions;
+    private final long end;
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private long base;
+    private int position;
+    private int limit;
+    private boolean eof;
+
+    // the current line, and the bounds of each of its components
+    private long line;
+    private final int[] starts;
+    private final int[] ends;
+    private boolean current;
+
+    /**
+     * Creates a reader of the given stream.
+     *
+     * <p>The stream is closed with the reader.</p>
+     *
+     * @param in The stream
+     * @param dimensions The number of components of each coordinate
+     */
+    public CoordinateTextReader(final InputStream in, final int dimensions) {
+        this(Channels.newChannel(in), dimensions);
+    }
+
+    /**
+     * Creates a reader of the given channel, from its position.
+     *
+     * <p>The channel is closed with the reader.</p>
+     *
+     * @param channel The channel
+     * @param dimensions The number of components of each coordinate
+     */
+    public CoordinateTextReader(final ReadableByteChannel channel, final int dimensions) {
+        this(channel, dimensions, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a reader of the given buffer, from its position to its
+     * limit.
+     *
+     * @param buffer The buffer
+     * @param dimensions The number of components of each coordinate
+     */
+    public CoordinateTextReader(final ByteBuffer buffer, final int dimensions) {
+        this(new ReadableByteChannel() {
+            @Override
+            public int read(final ByteBuffer dst) {
+                if (!buffer.hasRemaining()) {
+                    return -1;
+                }
+                final int count = Math.min(dst.remaining(), buffer.remaining());
+                final ByteBuffer slice = buffer.duplicate();
+                slice.limit(slice.position() + count);
+                dst.put(slice);
+                buffer.position(buffer.position() + count);
+                return count;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        }, dimensions);
+    }
+
+    private CoordinateTextReader(final ReadableByteChannel channel, final int dimensions, final long base, final long end) {
+        checkArgument(dimensions == 2 || dimensions == 3, "dimensions must be 2 or 3");
+        this.channel = channel;
+        this.dimensions = dimensions;
+        this.base = base;
+        this.end = end;
+        this.starts = new int[dimensions];
+        this.ends = new int[dimensions];
+    }
+
+    /**
+     * Gets the number of components of each coordinate.
+     *
+     * @return The number of dimensions
+     */
+    public int getDimensions() {
+        return this.dimensions;
+    }
+
+    /**
+     * Advances to the next coordinate.
+     *
+     * @return {@code true} if there was another coordinate, or
+     *         {@code false} if the input has ended
+     * @throws IOException If the input could not be read, or a line does
+     *                     not hold the expected number of components
+     */
+    public boolean next() throws IOException {
+        this.current = false;
+        while (true) {
+            if (this.base + this.position >= this.end) {
+                return false;
+            }
+            final int lineEnd = this.findLineEnd();
+            if (lineEnd < 0) {
+                return false;
+            }
+            final int lineStart = this.position;
+            this.line = this.base + lineStart;
+            this.position = Math.min(lineEnd + 1, this.limit);
+
+            int count = 0;
+            int i = lineStart;
+            while (true) {
+                while (i < lineEnd && isSeparator(this.buffer[i])) {
+                    i++;
+                }
+                if (i == lineEnd || (count == 0 && this.buffer[i] == '#')) {
+                    break;
+                }
+                final int start = i;
+                while (i < lineEnd && !isSeparator(this.buffer[i])) {
+                    i++;
+                }
+                if (count == this.dimensions) {
+                    throw this.malformed("more than " + this.dimensions + " components");
+                }
+                this.starts[count] = start;
+                this.ends[count] = i;
+                count++;
+            }
+            if (count == 0) {
+                continue;
+            }
+            if (count != this.dimensions) {
+                throw this.malformed(count + " components, not " + this.dimensions);
+            }
+            this.current = true;
+            return true;
+        }
+    }
+
+    /**
+     * Skips the rest of the current line, or the next line if the
+     * current one has been read - such as a header row.
+     *
+     * @return {@code true} if there was a line to skip
+     * @throws IOException If the input could not be read
+     */
+    public boolean skipLine() throws IOException {
+        this.current = false;
+        final int lineEnd = this.findLineEnd();
+        if (lineEnd < 0) {
+            return false;
+        }
+        this.position = Math.min(lineEnd + 1, this.limit);
+        return true;
+    }
+
+    /**
+     * Gets the offset, in bytes from the start of the input, of the line
+     * of the current coordinate.
+     *
+     * @return The offset
+     */
+    public long getOffset() {
+        return this.line;
+    }
+
+    /**
+     * Parses the given component of the current coordinate as an int.
+     *
+     * @param axis The index of the component
+     * @return The value
+     * @throws NumberFormatException If the component is not an int
+     */
+    public int getInt(final int axis) {
+        final long value = this.getLong(axis);
+        if (value != (int) value) {
+            throw this.invalid(axis, new NumberFormatException("value out of range"));
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses the given component of the current coordinate as a long.
+     *
+     * @param axis The index of the component
+     * @return The value
+     * @throws NumberFormatException If the component is not a long
+     */
+    public long getLong(final int axis) {
+        this.checkComponent(axis);
+        try {
+            return TextNumbers.parseLong(this.buffer, this.starts[axis], this.ends[axis]);
+        } catch (final NumberFormatException ex) {
+            throw this.invalid(axis, ex);
+        }
+    }
+
+    /**
+     * Parses the given component of the current coordinate as a float.
+     *
+     * @param axis The index of the component
+     * @return The value
+     * @throws NumberFormatException If the component is not a number
+     */
+    public float getFloat(final int axis) {
+        this.checkComponent(axis);
+        try {
+            return TextNumbers.parseFloat(this.buffer, this.starts[axis], this.ends[axis]);
+        } catch (final NumberFormatException ex) {
+            throw this.invalid(axis, ex);
+        }
+    }
+
+    /**
+     * Parses the given component of the current coordinate as a double.
+     *
+     * @param axis The index of the component
+     * @return The value
+     * @throws NumberFormatException If the component is not a number
+     */
+    public double getDouble(final int axis) {
+        this.checkComponent(axis);
+        try {
+            return TextNumbers.parseDouble(this.buffer, this.starts[axis], this.ends[axis]);
+        } catch (final NumberFormatException ex) {
+            throw this.invalid(axis, ex);
+        }
+    }
+
+    /**
+     * Parses the current coordinate as a {@link Coordinate2i}.
+     *
+     * @return The coordinate
+     */
+    public Coordinate2i getCoordinate2i() {
+        checkState(this.dimensions == 2, "not reading 2-dimensional coordinates");
+        return new Coordinate2i(this.getInt(0), this.getInt(1));
+    }
+
+    /**
+     * Parses the current coordinate as a {@link Coordinate2l}.
+     *
+     * @return The coordinate
+     */
+    public Coordinate2l getCoordinate2l() {
+        checkState(this.dimensions == 2, "not reading 2-dimensional coordinates");
+        return new Coordinate2l(this.getLong(0), this.getLong(1));
+    }
+
+    /**
+     * Parses the current coordinate as a {@link Coordinate2f}.
+     *
+     * @return The coordinate
+     */
+    public Coordinate2f getCoordinate2f() {
+        checkState(this.dimensions == 2, "not reading 2-dimensional coordinates");
+        return new Coordinate2f(this.getFloat(0), this.getFloat(1));
+    }
+
+    /**
+     * Parses the current coordinate as a {@link Coordinate2d}.
+     *
+     * @return The coordinate
+     */
+    public Coordinate2d getCoordinate2d() {
+        checkState(this.dimensions == 2, "not reading 2-dimensional coordinates");
+        return new Coordinate2d(this.getDouble(0), this.getDouble(1));
+    }
+
+    /**
+     * Parses the current coordinate as a {@link Coordinate3i}.
+     *
+     * @return The coordinate
+     */
+    public Coordinate3i getCoordinate3i() {
+        checkState(this.dimensions == 3, "not reading 3-dimensional coordinates");
+        return new Coordinate3i(this.getInt(0), this.getInt(1), this.getInt(2));
+    }
+
+    /**
+     * Parses the current coordinate as a {@link Coordinate3l}.
+     *
+     * @return The coordinate
+     */
+    public Coordinate3l getCoordinate3l() {
+        checkState(this.dimensions == 3, "not reading 3-dimensional coordinates");
+        return new Coordinate3l(this.getLong(0), this.getLong(1), this.getLong(2));
+    }
+
+    /**
+     * Parses the current coordinate as a {@link Coordinate3f}.
+     *
+     * @return The coordinate
+     */
+    public Coordinate3f getCoordinate3f() {
+        checkState(this.dimensions == 3, "not reading 3-dimensional coordinates");
+        return new Coordinate3f(this.getFloat(0), this.getFloat(1), this.getFloat(2));
+    }
+
+    /**
+     * Parses the current coordinate as a {@link Coordinate3d}.
+     *
+     * @return The coordinate
+     */
+    public Coordinate3d getCoordinate3d() {
+        checkState(this.dimensions == 3, "not reading 3-dimensional coordinates");
+        return new Coordinate3d(this.getDouble(0), this.getDouble(1), this.getDouble(2));
+    }
+
+    /**
+     * Reads every remaining coordinate into the given buffer.
+     *
+     * @param buffer The buffer to append to
+     * @return The number of coordinates read
+     * @throws IOException If the input could not be read
+     */
+    public int readAll(final Coordinate2iBuffer buffer) throws IOException {
+        checkState(this.dimensions == 2, "not reading 2-dimensional coordinates");
+        int count = 0;
+        while (this.next()) {
+            buffer.add(this.getInt(0), this.getInt(1));
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Reads every remaining coordinate into the given buffer.
+     *
+     * @param buffer The buffer to append to
+     * @return The number of coordinates read
+     * @throws IOException If the input could not be read
+     */
+    public int readAll(final Coordinate2fBuffer buffer) throws IOException {
+        checkState(this.dimensions == 2, "not reading 2-dimensional coordinates");
+        int count = 0;
+        while (this.next()) {
+            buffer.add(this.getFloat(0), this.getFloat(1));
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Reads every remaining coordinate into the given buffer.
+     *
+     * @param buffer The buffer to append to
+     * @return The number of coordinates read
+     * @throws IOException If the input could not be read
+     */
+    public int readAll(final Coordinate2dBuffer buffer) throws IOException {
+        checkState(this.dimensions == 2, "not reading 2-dimensional coordinates");
+        int count = 0;
+        while (this.next()) {
+            buffer.add(this.getDouble(0), this.getDouble(1));
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Reads every remaining coordinate into the given buffer.
+     *
+     * @param buffer The buffer to append to
+     * @return The number of coordinates read
+     * @throws IOException If the input could not be read
+     */
+    public int readAll(final Coordinate3iBuffer buffer) throws IOException {
+        checkState(this.dimensions == 3, "not reading 3-dimensional coordinates");
+        int count = 0;
+        while (this.next()) {
+            buffer.add(this.getInt(0), this.getInt(1), this.getInt(2));
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Reads every remaining coordinate into the given buffer.
+     *
+     * @param buffer The buffer to append to
+     * @return The number of coordinates read
+     * @throws IOException If the input could not be read
+     */
+    public int readAll(final Coordinate3fBuffer buffer) throws IOException {
+        checkState(this.dimensions == 3, "not reading 3-dimensional coordinates");
+        int count = 0;
+        while (this.next()) {
+            buffer.add(this.getFloat(0), this.getFloat(1), this.getFloat(2));
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Reads every remaining coordinate into the given buffer.
+     *
+     * @param buffer The buffer to append to
+     * @return The number of coordinates read
+     * @throws IOException If the input could not be read
+     */
+    public int readAll(final Coordinate3dBuffer buffer) throws IOException {
+        checkState(this.dimensions == 3, "not reading 3-dimensional coordinates");
+        int count = 0;
+        while (this.next()) {
+            buffer.add(this.getDouble(0), this.getDouble(1), this.getDouble(2));
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Closes the input.
+     *
+     * @throws IOException If the input could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("dimensions", this.dimensions)
+                .add("offset", this.base + this.position)
+                .toString();
+    }
+
+    /**
+     * Finds the end of the line at the position, reading more of the
+     * input as needed.
+     *
+     * @return The index of the line's newline, or of the end of the
+     *         input - or {@code -1} if there is no more input
+     */
+    private int findLineEnd() throws IOException {
+        int i = this.position;
+        while (true) {
+            while (i < this.limit) {
+                if (this.buffer[i] == '\n') {
+                    return i;
+                }
+                i++;
+            }
+            if (this.eof) {
+                return this.position < this.limit ? this.limit : -1;
+            }
+            i -= this.position;
+            this.fill();
+        }
+    }
+
+    private void fill() throws IOException {
+        // keep the line in progress, at the start of the buffer
+        final int kept = this.limit - this.position;
+        if (this.position > 0) {
+            System.arraycopy(this.buffer, this.position, this.buffer, 0, kept);
+            this.base += this.position;
+            this.position = 0;
+            this.limit = kept;
+        } else if (kept == this.buffer.length) {
+            this.buffer = Arrays.copyOf(this.buffer, this.buffer.length << 1);
+        }
+        final int read = this.channel.read(ByteBuffer.wrap(this.buffer, this.limit, this.buffer.length - this.limit));
+        if (read < 0) {
+            this.eof = true;
+        } else {
+            this.limit += read;
+        }
+    }
+
+    private void checkComponent(final int axis) {
+        checkState(this.current, "no current coordinate");
+        checkElementIndex(axis, this.dimensions);
+    }
+
+    private IOException malformed(final String problem) {
+        return new IOException("line at offset " + this.line + " has " + problem);
+    }
+
+    private NumberFormatException invalid(final int axis, final NumberFormatException cause) {
+        final NumberFormatException ex = new NumberFormatException("component " + axis + " of line at offset " + this.line
+                + " is not a number: " + cause.getMessage());
+        ex.initCause(cause);
+        return ex;
+    }
+
+    /**
+     * Establishes whether the given character separates components, so
+     * may also be written between them by a {@link CoordinateTextWriter}.
+     *
+     * @param c The character
+     * @return {@code true} if the character is a separator
+     */
+    static boolean isSeparator(final int c) {
+        return c == ',' || c == ' ' || c == '\t' || c == ';' || c == '\r';
+    }
+
+}
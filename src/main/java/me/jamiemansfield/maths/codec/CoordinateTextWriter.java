@@ -0,0 +1,547 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.codec;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.base.MoreObjects;
+import me.jamiemansfield.maths.coord.Coordinate2d;
+import me.jamiemansfield.maths.coord.Coordinate2dBuffer;
+import me.jamiemansfield.maths.coord.Coordinate2f;
+import me.jamiemansfield.maths.coord.Coordinate2fBuffer;
+import me.jamiemansfield.maths.coord.Coordinate2i;
+import me.jamiemansfield.maths.coord.Coordinate2iBuffer;
+import me.jamiemansfield.maths.coord.Coordinate2l;
+import me.jamiemansfield.maths.coord.Coordinate3d;
+import me.jamiemansfield.maths.coord.Coordinate3dBuffer;
+import me.jamiemansfield.maths.coord.Coordinate3f;
+import me.jamiemansfield.maths.coord.Coordinate3fBuffer;
+import me.jamiemansfield.maths.coord.Coordinate3i;
+import me.jamiemansfield.maths.coord.Coordinate3iBuffer;
+import me.jamiemansfield.maths.coord.Coordinate3l;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A streaming writer of coordinates as text, one to a line, with their
+ * components separated by a single character - a comma by default.
+ *
+ * <p>Numbers are formatted directly into an internal buffer, without
+ * creating strings. Floating-point components are written with the
+ * fewest decimal places that read back to exactly the same value, so the
+ * output of the writer can always be read back losslessly with a
+ * {@link CoordinateTextReader}.</p>
+ *
+ * <p>The writer must be {@link #close() closed}, or at least
+ * {@link #flush() flushed}, for all of the lines to be written. A writer
+ * is not thread-safe.</p>
+ */
+public final class CoordinateTextWriter implements Closeable, Flushable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_LINE_LENGTH = 3 * (TextNumbers.MAX_LENGTH + 1);
+
+    private final ByteSink sink;
+    private final byte separator;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private long lines;
+    private boolean closed;
+
+    /**
+     * Creates a writer to the given stream, separating components with
+     * commas.
+     *
+     * <p>The stream is closed with the writer.</p>
+     *
+     * @param out The stream
+     */
+    public CoordinateTextWriter(final OutputStream out) {
+        this(out, ',');
+    }
+
+    /**
+     * Creates a writer to the given stream, separating components with the
+     * given character.
+     *
+     * <p>The stream is closed with the writer.</p>
+     *
+     * @param out The stream
+     * @param separator The separator, which a {@link CoordinateTextReader}
+     *                  splits on: a comma, semicolon, space, tab or
+     *                  carriage return
+     * @throws IllegalArgumentException If the separator is not one of those
+     */
+    public CoordinateTextWriter(final OutputStream out, final char separator) {
+        this(ByteSink.of(out), separator);
+    }
+
+    /**
+     * Creates a writer to the given channel, separating components with
+     * commas.
+     *
+     * <p>The channel is closed with the writer.</p>
+     *
+     * @param channel The channel
+     */
+    public CoordinateTextWriter(final WritableByteChannel channel) {
+        this(channel, ',');
+    }
+
+    /**
+     * Creates a writer to the given channel, separating components with the
+     * given character.
+     *
+     * <p>The channel is closed with the writer.</p>
+     *
+     * @param channel The channel
+     * @param separator The separator, which a {@link CoordinateTextReader}
+     *                  splits on: a comma, semicolon, space, tab or
+     *                  carriage return
+     * @throws IllegalArgumentException If the separator is not one of those
+     */
+    public CoordinateTextWriter(final WritableByteChannel channel, final char separator) {
+        this(ByteSink.of(channel), separator);
+    }
+
+    /**
+     * Creates a writer to the given buffer, separating components with
+     * commas.
+     *
+     * @param buffer The buffer
+     */
+    public CoordinateTextWriter(final ByteBuffer buffer) {
+        this(buffer, ',');
+    }
+
+    /**
+     * Creates a writer to the given buffer, separating components with the
+     * given character.
+     *
+     * @param buffer The buffer
+     * @param separator The separator, which a {@link CoordinateTextReader}
+     *                  splits on: a comma, semicolon, space, tab or
+     *                  carriage return
+     * @throws IllegalArgumentException If the separator is not one of those
+     */
+    public CoordinateTextWriter(final ByteBuffer buffer, final char separator) {
+        this(ByteSink.of(buffer), separator);
+    }
+
+    private CoordinateTextWriter(final ByteSink sink, final char separator) {
+        checkArgument(CoordinateTextReader.isSeparator(separator), "invalid separator: %s", separator);
+        this.sink = sink;
+        this.separator = (byte) separator;
+    }
+
+    /**
+     * Gets the number of lines written.
+     *
+     * @return The number of lines
+     */
+    public long getCount() {
+        return this.lines;
+    }
+
+    /**
+     * Writes a line of the given components.
+     *
+     * @param x The x component
+     * @param y The y component
+     * @throws IOException If the buffer could not be written out
+     */
+    public void write(final int x, final int y) throws IOException {
+        this.begin();
+        int i = this.position;
+        i = TextNumbers.putLong(x, this.buffer, i);
+        this.buffer[i++] = this.separator;
+        i = TextNumbers.putLong(y, this.buffer, i);
+        this.end(i);
+    }
+
+    /**
+     * Writes a line of the given components.
+     *
+     * @param x The x component
+     * @param y The y component
+     * @throws IOException If the buffer could not be written out
+     */
+    public void write(final long x, final long y) throws IOException {
+        this.begin();
+        int i = this.position;
+        i = TextNumbers.putLong(x, this.buffer, i);
+        this.buffer[i++] = this.separator;
+        i = TextNumbers.putLong(y, this.buffer, i);
+        this.end(i);
+    }
+
+    /**
+     * Writes a line of the given components.
+     *
+     * @param x The x component
+     * @param y The y component
+     * @throws IOException If the buffer could not be written out
+     */
+    public void write(final float x, final float y) throws IOException {
+        this.begin();
+        int i = this.position;
+        i = TextNumbers.putFloat(x, this.buffer, i);
+        this.buffer[i++] = this.separator;
+        i = TextNumbers.putFloat(y, this.buffer, i);
+        this.end(i);
+    }
+
+    /**
+     * Writes a line of the given components.
+     *
+     * @param x The x component
+     * @param y The y component
+     * @throws IOException If the buffer could not be written out
+     */
+    public void write(final double x, final double y) throws IOException {
+        this.begin();
+        int i = this.position;
+        i = TextNumbers.putDouble(x, this.buffer, i);
+        this.buffer[i++] = this.separator;
+        i = TextNumbers.putDouble(y, this.buffer, i);
+        this.end(i);
+    }
+
+    /**
+     * Writes a line of the given components.
+     *
+     * @param x The x component
+     * @param y The y component
+     * @param z The z component
+     * @throws IOException If the buffer could not be written out
+     */
+    public void write(final int x, final int y, final int z) throws IOException {
+        this.begin();
+        int i = this.position;
+        i = TextNumbers.putLong(x, this.buffer, i);
+        this.buffer[i++] = this.separator;
+        i = TextNumbers.putLong(y, this.buffer, i);
+        this.buffer[i++] = this.separator;
+        i = TextNumbers.putLong(z, this.buffer, i);
+        this.end(i);
+    }
+
+    /**
+     * Writes a line of the given components.
+     *
+     * @param x The x component
+     * @param y The y component
+     * @param z The z component
+     * @throws IOException If the buffer could not be written out
+     */
+    public void write(final long x, final long y, final long z) throws IOException {
+        this.begin();
+        int i = this.position;
+        i = TextNumbers.putLong(x, this.buffer, i);
+        this.buffer[i++] = this.separator;
+        i = TextNumbers.putLong(y, this.buffer, i);
+        this.buffer[i++] = this.separator;
+        i = TextNumbers.putLong(z, this.buffer, i);
+        this.end(i);
+    }
+
+    /**
+     * Writes a line of the given components.
+     *
+     * @param x The x component
+     * @param y The y component
+     * @param z The z component
+     * @throws IOException If the buffer could not be written out
+     */
+    public void write(final float x, final float y, final float z) throws IOException {
+        this.begin();
+        int i = this.position;
+        i = TextNumbers.putFloat(x, this.buffer, i);
+        this.buffer[i++] = this.separator;
+        i = TextNumbers.putFloat(y, this.buffer, i);
+        this.buffer[i++] = this.separator;
+        i = TextNumbers.putFloat(z, this.buffer, i);
+        this.end(i);
+    }
+
+    /**
+     * Writes a line of the given components.
+     *
+     * @param x The x component
+     * @param y The y component
+     * @param z The z component
+     * @throws IOException If the buffer could not be written out
+     */
+    public void write(final double x, final double y, final double z) throws IOException {
+        this.begin();
+        int i = this.position;
+        i = TextNumbers.putDouble(x, this.buffer, i);
+        this.buffer[i++] = this.separator;
+        i = TextNumbers.putDouble(y, this.buffer, i);
+        this.buffer[i++] = this.separator;
+        i = TextNumbers.putDouble(z, this.buffer, i);
+        this.end(i);
+    }
+
+    /**
+     * Writes a line of the given coordinate.
+     *
+     * @param coord The coordinate
+     * @throws IOException If the buffer could not be written out
+     */
+    public void write(final Coordinate2i coord) throws IOException {
+        this.write(coord.getX(), coord.getY());
+    }
+
+    /**
+     * Writes a line of the given coordinate.
+     *
+     * @param coord The coordinate
+     * @throws IOException If the buffer could not be written out
+     */
+    public void write(final Coordinate2l coord) throws IOException {
+        this.write(coord.getX(), coord.getY());
+    }
+
+    /**
+     * Writes a line of the given coordinate.
+     *
+     * @param coord The coordinate
+     * @throws IOException If the buffer could not be written out
+     */
+    public void write(final Coordinate2f coord) throws IOException {
+        this.write(coord.getX(), coord.getY());
+    }
+
+    /**
+     * Writes a line of the given coordinate.
+     *
+     * @param coord The coordinate
+     * @throws IOException If the buffer could not be written out
+     */
+    public void write(final Coordinate2d coord) throws IOException {
+        this.write(coord.getX(), coord.getY());
+    }
+
+    /**
+     * Writes a line of the given coordinate.
+     *
+     * @param coord The coordinate
+     * @throws IOException If the buffer could not be written out
+     */
+    public void write(final Coordinate3i coord) throws IOException {
+        this.write(coord.getX(), coord.getY(), coord.getZ());
+    }
+
+    /**
+     * Writes a line of the given coordinate.
+     *
+     * @param coord The coordinate
+     * @throws IOException If the buffer could not be written out
+     */
+    public void write(final Coordinate3l coord) throws IOException {
+        this.write(coord.getX(), coord.getY(), coord.getZ());
+    }
+
+    /**
+     * Writes a line of the given coordinate.
+     *
+     * @param coord The coordinate
+     * @throws IOException If the buffer could not be written out
+     */
+    public void write(final Coordinate3f coord) throws IOException {
+        this.write(coord.getX(), coord.getY(), coord.getZ());
+    }
+
+    /**
+     * Writes a line of the given coordinate.
+     *
+     * @param coord The coordinate
+     * @throws IOException If the buffer could not be written out
+     */
+    public void write(final Coordinate3d coord) throws IOException {
+        this.write(coord.getX(), coord.getY(), coord.getZ());
+    }
+
+    /**
+     * Writes a line for each coordinate of the given buffer, in order.
+     *
+     * @param buffer The buffer
+     * @throws IOException If the lines could not be written out
+     */
+    public void writeAll(final Coordinate2iBuffer buffer) throws IOException {
+        final int size = buffer.size();
+        final int[] xs = buffer.getXArray();
+        final int[] ys = buffer.getYArray();
+        for (int i = 0; i < size; i++) {
+            this.write(xs[i], ys[i]);
+        }
+    }
+
+    /**
+     * Writes a line for each coordinate of the given buffer, in order.
+     *
+     * @param buffer The buffer
+     * @throws IOException If the lines could not be written out
+     */
+    public void writeAll(final Coordinate2fBuffer buffer) throws IOException {
+        final int size = buffer.size();
+        final float[] xs = buffer.getXArray();
+        final float[] ys = buffer.getYArray();
+        for (int i = 0; i < size; i++) {
+            this.write(xs[i], ys[i]);
+        }
+    }
+
+    /**
+     * Writes a line for each coordinate of the given buffer, in order.
+     *
+     * @param buffer The buffer
+     * @throws IOException If the lines could not be written out
+     */
+    public void writeAll(final Coordinate2dBuffer buffer) throws IOException {
+        final int size = buffer.size();
+        final double[] xs = buffer.getXArray();
+        final double[] ys = buffer.getYArray();
+        for (int i = 0; i < size; i++) {
+            this.write(xs[i], ys[i]);
+        }
+    }
+
+    /**
+     * Writes a line for each coordinate of the given buffer, in order.
+     *
+     * @param buffer The buffer
+     * @throws IOException If the lines could not be written out
+     */
+    public void writeAll(final Coordinate3iBuffer buffer) throws IOException {
+        final int size = buffer.size();
+        final int[] xs = buffer.getXArray();
+        final int[] ys = buffer.getYArray();
+        final int[] zs = buffer.getZArray();
+        for (int i = 0; i < size; i++) {
+            this.write(xs[i], ys[i], zs[i]);
+        }
+    }
+
+    /**
+     * Writes a line for each coordinate of the given buffer, in order.
+     *
+     * @param buffer The buffer
+     * @throws IOException If the lines could not be written out
+     */
+    public void writeAll(final Coordinate3fBuffer buffer) throws IOException {
+        final int size = buffer.size();
+        final float[] xs = buffer.getXArray();
+        final float[] ys = buffer.getYArray();
+        final float[] zs = buffer.getZArray();
+        for (int i = 0; i < size; i++) {
+            this.write(xs[i], ys[i], zs[i]);
+        }
+    }
+
+    /**
+     * Writes a line for each coordinate of the given buffer, in order.
+     *
+     * @param buffer The buffer
+     * @throws IOException If the lines could not be written out
+     */
+    public void writeAll(final Coordinate3dBuffer buffer) throws IOException {
+        final int size = buffer.size();
+        final double[] xs = buffer.getXArray();
+        final double[] ys = buffer.getYArray();
+        final double[] zs = buffer.getZArray();
+        for (int i = 0; i < size; i++) {
+            this.write(xs[i], ys[i], zs[i]);
+        }
+    }
+
+    /**
+     * Writes out every buffered line, and flushes the output.
+     *
+     * @throws IOException If the lines could not be written
+     */
+    @Override
+    public void flush() throws IOException {
+        checkState(!this.closed, "writer is closed");
+        this.drain();
+        this.sink.flush();
+    }
+
+    /**
+     * Writes out every buffered line, then closes the output.
+     *
+     * @throws IOException If the lines could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            this.drain();
+            this.sink.flush();
+        } finally {
+            this.sink.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("lines", this.lines)
+                .add("buffered", this.position)
+                .toString();
+    }
+
+    private void begin() throws IOException {
+        checkState(!this.closed, "writer is closed");
+        if (this.position > BUFFER_SIZE - MAX_LINE_LENGTH) {
+            this.drain();
+        }
+    }
+
+    private void end(final int position) {
+        this.buffer[position] = '\n';
+        this.position = position + 1;
+        this.lines++;
+    }
+
+    private void drain() throws IOException {
+        if (this.position > 0) {
+            this.sink.write(this.buffer, 0, this.position);
+            this.position = 0;
+        }
+    }
+
+}
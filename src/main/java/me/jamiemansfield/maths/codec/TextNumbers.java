@@ -0,0 +1,345 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.codec;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses and formats decimal numbers directly between primitives and
+ * ASCII bytes, without creating strings on the common paths.
+ *
+ * <p>Decimals with at most 15 significant digits and a small exponent -
+ * which covers most measured data - are parsed exactly with a single
+ * multiplication or division, as both operands are exactly
+ * representable (Clinger's fast path). Formatting looks for the fewest
+ * decimal places that survive the same fast path, so the output always
+ * parses back to the same value. Anything else falls back to the JDK,
+ * through a string.</p>
+ */
+final class TextNumbers {
+
+    /**
+     * The most bytes {@link #putDouble} or {@link #putLong} may write.
+     */
+    static final int MAX_LENGTH = 26;
+
+    private static final double[] POWERS = new double[23];
+    private static final float[] FLOAT_POWERS = new float[11];
+    private static final long DOUBLE_EXACT = 1L << 53;
+    private static final long FLOAT_EXACT = 1L << 24;
+    private static final long NOT_FAST = Long.MIN_VALUE;
+
+    static {
+        double power = 1;
+        for (int i = 0; i < POWERS.length; i++) {
+            POWERS[i] = power;
+            power *= 10;
+        }
+        for (int i = 0; i < FLOAT_POWERS.length; i++) {
+            FLOAT_POWERS[i] = (float) POWERS[i];
+        }
+    }
+
+    private TextNumbers() {
+    }
+
+    /**
+     * Parses a decimal integer.
+     *
+     * @param bytes The bytes
+     * @param from The index of the first byte, inclusive
+     * @param to The index of the last byte, exclusive
+     * @return The value
+     * @throws NumberFormatException If the bytes are not an integer, or
+     *         it does not fit in a long
+     */
+    static long parseLong(final byte[] bytes, final int from, final int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (bytes[i] == '-' || bytes[i] == '+')) {
+            negative = bytes[i++] == '-';
+        }
+        if (i == to) {
+            throw invalid(bytes, from, to);
+        }
+        // accumulate negatively, so Long.MIN_VALUE can be parsed
+        long result = 0;
+        while (i < to) {
+            final int digit = bytes[i++] - '0';
+            if (digit < 0 || digit > 9 || result < Long.MIN_VALUE / 10) {
+                throw invalid(bytes, from, to);
+            }
+            result *= 10;
+            if (result < Long.MIN_VALUE + digit) {
+                throw invalid(bytes, from, to);
+            }
+            result -= digit;
+        }
+        if (!negative) {
+            if (result == Long.MIN_VALUE) {
+                throw invalid(bytes, from, to);
+            }
+            return -result;
+        }
+        return result;
+    }
+
+    /**
+     * Parses a decimal floating-point number, in any form accepted by
+     * {@link Double#parseDouble(String)}.
+     *
+     * @param bytes The bytes
+     * @param from The index of the first byte, inclusive
+     * @param to The index of the last byte, exclusive
+     * @return The value
+     * @throws NumberFormatException If the bytes are not a number
+     */
+    static double parseDouble(final byte[] bytes, final int from, final int to) {
+        final long decimal = parseDecimal(bytes, from, to, DOUBLE_EXACT, POWERS.length - 1);
+        if (decimal != NOT_FAST) {
+            final long mantissa = decimal >> 8;
+            final int exponent = (byte) decimal;
+            final double value = exponent < 0 ? mantissa / POWERS[-exponent] : mantissa * POWERS[exponent];
+            return isNegative(bytes, from) ? -value : value;
+        }
+        return Double.parseDouble(string(bytes, from, to));
+    }
+
+    /**
+     * Parses a decimal floating-point number, in any form accepted by
+     * {@link Float#parseFloat(String)}.
+     *
+     * @param bytes The bytes
+     * @param from The index of the first byte, inclusive
+     * @param to The index of the last byte, exclusive
+     * @return The value
+     * @throws NumberFormatException If the bytes are not a number
+     */
+    static float parseFloat(final byte[] bytes, final int from, final int to) {
+        final long decimal = parseDecimal(bytes, from, to, FLOAT_EXACT, FLOAT_POWERS.length - 1);
+        if (decimal != NOT_FAST) {
+            final long mantissa = decimal >> 8;
+            final int exponent = (byte) decimal;
+            final float value = exponent < 0 ? mantissa / FLOAT_POWERS[-exponent] : mantissa * FLOAT_POWERS[exponent];
+            return isNegative(bytes, from) ? -value : value;
+        }
+        return Float.parseFloat(string(bytes, from, to));
+    }
+
+    /**
+     * Writes the given value in decimal.
+     *
+     * @param value The value
+     * @param bytes The array to write into
+     * @param offset The index to write the first byte to
+     * @return The index after the last byte written
+     */
+    static int putLong(final long value, final byte[] bytes, final int offset) {
+        int start = offset;
+        if (value < 0) {
+            bytes[start++] = '-';
+        }
+        // write the digits negatively, so Long.MIN_VALUE can be written
+        long remaining = value < 0 ? value : -value;
+        final int length = digits(remaining);
+        int i = start + length;
+        do {
+            bytes[--i] = (byte) ('0' - remaining % 10);
+            remaining /= 10;
+        } while (remaining != 0);
+        return start + length;
+    }
+
+    /**
+     * Writes the given value in decimal, such that it parses back to
+     * exactly the same value.
+     *
+     * @param value The value
+     * @param bytes The array to write into
+     * @param offset The index to write the first byte to
+     * @return The index after the last byte written
+     */
+    static int putDouble(final double value, final byte[] bytes, final int offset) {
+        final double magnitude = Math.abs(value);
+        if (magnitude < Double.POSITIVE_INFINITY) {
+            for (int places = 0; places < POWERS.length; places++) {
+                final double scaled = magnitude * POWERS[places];
+                if (scaled >= DOUBLE_EXACT) {
+                    break;
+                }
+                final double mantissa = Math.rint(scaled);
+                if (mantissa / POWERS[places] == magnitude) {
+                    return putDecimal(value < 0 || 1 / value < 0, (long) mantissa, places, bytes, offset);
+                }
+            }
+        }
+        return putString(Double.toString(value), bytes, offset);
+    }
+
+    /**
+     * Writes the given value in decimal, such that it parses back to
+     * exactly the same value.
+     *
+     * @param value The value
+     * @param bytes The array to write into
+     * @param offset The index to write the first byte to
+     * @return The index after the last byte written
+     */
+    static int putFloat(final float value, final byte[] bytes, final int offset) {
+        final float magnitude = Math.abs(value);
+        if (magnitude < Float.POSITIVE_INFINITY) {
+            for (int places = 0; places < FLOAT_POWERS.length; places++) {
+                final float scaled = magnitude * FLOAT_POWERS[places];
+                if (scaled >= FLOAT_EXACT) {
+                    break;
+                }
+                final float mantissa = (float) Math.rint(scaled);
+                if (mantissa / FLOAT_POWERS[places] == magnitude) {
+                    return putDecimal(value < 0 || 1 / value < 0, (long) mantissa, places, bytes, offset);
+                }
+            }
+        }
+        return putString(Float.toString(value), bytes, offset);
+    }
+
+    /**
+     * Parses a decimal on the fast path, if it can be.
+     *
+     * @return The signed mantissa in the high 56 bits, and the decimal
+     *         exponent in the low 8 - or {@link #NOT_FAST}
+     */
+    private static long parseDecimal(final byte[] bytes, final int from, final int to, final long exact, final int maxExponent) {
+        int i = from;
+        if (i < to && (bytes[i] == '-' || bytes[i] == '+')) {
+            i++;
+        }
+        long mantissa = 0;
+        int exponent = 0;
+        boolean digits = false;
+        while (i < to && bytes[i] >= '0' && bytes[i] <= '9') {
+            mantissa = mantissa * 10 + (bytes[i++] - '0');
+            digits = true;
+            if (mantissa >= exact) {
+                return NOT_FAST;
+            }
+        }
+        if (i < to && bytes[i] == '.') {
+            i++;
+            while (i < to && bytes[i] >= '0' && bytes[i] <= '9') {
+                mantissa = mantissa * 10 + (bytes[i++] - '0');
+                exponent--;
+                digits = true;
+                if (mantissa >= exact) {
+                    return NOT_FAST;
+                }
+            }
+        }
+        if (!digits) {
+            return NOT_FAST;
+        }
+        if (i < to && (bytes[i] == 'e' || bytes[i] == 'E')) {
+            i++;
+            boolean negative = false;
+            if (i < to && (bytes[i] == '-' || bytes[i] == '+')) {
+                negative = bytes[i++] == '-';
+            }
+            if (i == to) {
+                return NOT_FAST;
+            }
+            int value = 0;
+            while (i < to && bytes[i] >= '0' && bytes[i] <= '9') {
+                value = value * 10 + (bytes[i++] - '0');
+                if (value > 1000) {
+                    return NOT_FAST;
+                }
+            }
+            exponent += negative ? -value : value;
+        }
+        if (i != to || exponent < -maxExponent || exponent > maxExponent) {
+            return NOT_FAST;
+        }
+        return (mantissa << 8) | (exponent & 0xFF);
+    }
+
+    private static boolean isNegative(final byte[] bytes, final int from) {
+        return bytes[from] == '-';
+    }
+
+    private static int putDecimal(final boolean negative, final long mantissa, final int places, final byte[] bytes, final int offset) {
+        int position = offset;
+        if (negative) {
+            bytes[position++] = '-';
+        }
+        if (places == 0) {
+            position = putLong(mantissa, bytes, position);
+            bytes[position++] = '.';
+            bytes[position++] = '0';
+            return position;
+        }
+        final int length = digits(-mantissa);
+        if (length <= places) {
+            // a fraction, padded with zeros after the point
+            bytes[position++] = '0';
+            bytes[position++] = '.';
+            for (int i = length; i < places; i++) {
+                bytes[position++] = '0';
+            }
+            return putLong(mantissa, bytes, position);
+        }
+        final int end = putLong(mantissa, bytes, position);
+        final int point = end - places;
+        System.arraycopy(bytes, point, bytes, point + 1, places);
+        bytes[point] = '.';
+        return end + 1;
+    }
+
+    private static int putString(final String value, final byte[] bytes, final int offset) {
+        for (int i = 0; i < value.length(); i++) {
+            bytes[offset + i] = (byte) value.charAt(i);
+        }
+        return offset + value.length();
+    }
+
+    /**
+     * Gets the number of decimal digits of the given non-positive value.
+     */
+    private static int digits(final long value) {
+        int digits = 1;
+        for (long remaining = value; remaining <= -10; remaining /= 10) {
+            digits++;
+        }
+        return digits;
+    }
+
+    private static String string(final byte[] bytes, final int from, final int to) {
+        return new String(bytes, from, to - from, StandardCharsets.US_ASCII);
+    }
+
+    private static NumberFormatException invalid(final byte[] bytes, final int from, final int to) {
+        return new NumberFormatException("For input string: \"" + string(bytes, from, to) + "\"");
+    }
+
+}
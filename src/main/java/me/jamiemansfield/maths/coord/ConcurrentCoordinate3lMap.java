@@ -0,0 +1,732 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.coord;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import me.jamiemansfield.maths.function.LongTriConsumer;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiFunction;
+
+/**
+ * A thread-safe hash map from {@link Coordinate3l}s to values, that
+ * stores the components of its keys inline, rather than as key
+ * objects.
+ *
+ * <p>The map is striped across a power of two number of segments, each
+ * an open-addressing table like {@link Coordinate3lMap} guarded by its
+ * own {@link StampedLock}. The high bits of a key's
+ * {@link CoordinateHash hash} select its segment, so threads updating
+ * different coordinates rarely contend. Reads are optimistic, and only
+ * take the read lock if they race with a write to the same segment.</p>
+ *
+ * <p>The {@code compute} and {@code merge} operations are atomic: the
+ * given function is applied while the segment is locked, so it should
+ * be short, and must not access the map itself.</p>
+ *
+ * <p>Null values are not permitted. Iteration is weakly consistent,
+ * locking one segment at a time.</p>
+ *
+ * @param <V> The type of the values
+ */
+public final class ConcurrentCoordinate3lMap<V> {
+
+    private static final int DEFAULT_EXPECTED_SIZE = 16;
+    private static final int MAXIMUM_SEGMENTS = 1 << 16;
+    private static final int MAXIMUM_CAPACITY = 1 << 28;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final Segment[] segments;
+    private final int segmentShift;
+
+    /**
+     * Creates an empty map, striped for the number of available
+     * processors.
+     */
+    public ConcurrentCoordinate3lMap() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Creates an empty map, that can hold the given number of entries
+     * without resizing, striped for the number of available processors.
+     *
+     * @param expectedSize The expected number of entries
+     */
+    public ConcurrentCoordinate3lMap(final int expectedSize) {
+        this(expectedSize, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * Creates an empty map, that can hold the given number of entries
+     * without resizing, and is striped for the given number of
+     * concurrently updating threads.
+     *
+     * @param expectedSize The expected number of entries
+     * @param concurrencyLevel The expected number of updating threads
+     */
+    public ConcurrentCoordinate3lMap(final int expectedSize, final int concurrencyLevel) {
+        checkArgument(expectedSize >= 0, "expectedSize cannot be negative");
+        checkArgument(concurrencyLevel > 0, "concurrencyLevel must be positive");
+        // clamped before rounding up, which overflows above 2^30
+        final int level = Math.min(concurrencyLevel, MAXIMUM_SEGMENTS);
+        final int count = Integer.highestOneBit(level - 1) << 1;
+        this.segments = new Segment[Math.max(count, 1)];
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(this.segments.length);
+        final int capacity = capacityFor((expectedSize + this.segments.length - 1) / this.segments.length);
+        for (int i = 0; i < this.segments.length; i++) {
+            this.segments[i] = new Segment(capacity);
+        }
+    }
+
+    /**
+     * Gets the number of segments the map is striped across.
+     *
+     * @return The number of segments
+     */
+    int getSegmentCount() {
+        return this.segments.length;
+    }
+
+    /**
+     * Gets the number of entries in the map.
+     *
+     * <p>While the map is being updated, this is only an estimate.</p>
+     *
+     * @return The size
+     */
+    public int size() {
+        long size = 0;
+        for (final Segment segment : this.segments) {
+            size += segment.size;
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Establishes whether the map contains no entries.
+     *
+     * @return {@code true} if the map is empty
+     */
+    public boolean isEmpty() {
+        for (final Segment segment : this.segments) {
+            if (segment.size != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the value mapped to the given coordinate.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @return The value, or {@code null} if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public V get(final long x, final long y, final long z) {
+        final int hash = CoordinateHash.hash(x, y, z);
+        final Segment segment = this.segmentFor(hash);
+        final StampedLock lock = segment.lock;
+        final long optimistic = lock.tryOptimisticRead();
+        if (optimistic != 0) {
+            final Object value = segment.table.get(hash, x, y, z);
+            if (lock.validate(optimistic)) {
+                return (V) value;
+            }
+        }
+        final long stamp = lock.readLock();
+        try {
+            return (V) segment.table.get(hash, x, y, z);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Gets the value mapped to the given coordinate.
+     *
+     * @param coord The coordinate
+     * @return The value, or {@code null} if there is none
+     */
+    public V get(final Coordinate3l coord) {
+        return this.get(coord.getX(), coord.getY(), coord.getZ());
+    }
+
+    /**
+     * Gets the value mapped to the given coordinate, or the given
+     * default value if there is none.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @param defaultValue The default value
+     * @return The value
+     */
+    public V getOrDefault(final long x, final long y, final long z, final V defaultValue) {
+        final V value = this.get(x, y, z);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * Establishes whether the map has a value for the given coordinate.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @return {@code true} if a value is present
+     */
+    public boolean containsKey(final long x, final long y, final long z) {
+        return this.get(x, y, z) != null;
+    }
+
+    /**
+     * Establishes whether the map has a value for the given coordinate.
+     *
+     * @param coord The coordinate
+     * @return {@code true} if a value is present
+     */
+    public boolean containsKey(final Coordinate3l coord) {
+        return this.containsKey(coord.getX(), coord.getY(), coord.getZ());
+    }
+
+    /**
+     * Maps the given coordinate to the given value.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @param value The value
+     * @return The previous value, or {@code null} if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V put(final long x, final long y, final long z, final V value) {
+        checkNotNull(value, "value");
+        final int hash = CoordinateHash.hash(x, y, z);
+        final Segment segment = this.segmentFor(hash);
+        final long stamp = segment.lock.writeLock();
+        try {
+            return (V) segment.put(hash, x, y, z, value, false);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Maps the given coordinate to the given value.
+     *
+     * @param coord The coordinate
+     * @param value The value
+     * @return The previous value, or {@code null} if there was none
+     */
+    public V put(final Coordinate3l coord, final V value) {
+        return this.put(coord.getX(), coord.getY(), coord.getZ(), value);
+    }
+
+    /**
+     * Maps the given coordinate to the given value, if it has no value.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @param value The value
+     * @return The existing value, or {@code null} if there was none and
+     *         the given value was mapped
+     */
+    @SuppressWarnings("unchecked")
+    public V putIfAbsent(final long x, final long y, final long z, final V value) {
+        checkNotNull(value, "value");
+        final int hash = CoordinateHash.hash(x, y, z);
+        final Segment segment = this.segmentFor(hash);
+        final long stamp = segment.lock.writeLock();
+        try {
+            return (V) segment.put(hash, x, y, z, value, true);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the value mapped to the given coordinate.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @return The removed value, or {@code null} if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(final long x, final long y, final long z) {
+        final int hash = CoordinateHash.hash(x, y, z);
+        final Segment segment = this.segmentFor(hash);
+        final long stamp = segment.lock.writeLock();
+        try {
+            final int slot = segment.table.find(hash, x, y, z);
+            return slot < 0 ? null : (V) segment.remove(slot);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the value mapped to the given coordinate.
+     *
+     * @param coord The coordinate
+     * @return The removed value, or {@code null} if there was none
+     */
+    public V remove(final Coordinate3l coord) {
+        return this.remove(coord.getX(), coord.getY(), coord.getZ());
+    }
+
+    /**
+     * Atomically computes a new value for the given coordinate, from its
+     * current value, if any. If the function returns {@code null}, the
+     * coordinate's value is removed.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @param function The function, given the coordinate and its value
+     *                 or {@code null}
+     * @return The new value, or {@code null} if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public V compute(final long x, final long y, final long z, final EntryFunction<? super V, ? extends V> function) {
+        checkNotNull(function, "function");
+        final int hash = CoordinateHash.hash(x, y, z);
+        final Segment segment = this.segmentFor(hash);
+        final long stamp = segment.lock.writeLock();
+        try {
+            final int slot = segment.table.find(hash, x, y, z);
+            final V previous = slot < 0 ? null : (V) segment.table.values[slot];
+            return (V) segment.replace(hash, x, y, z, slot, function.apply(x, y, z, previous));
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Atomically computes a new value for the given coordinate, from its
+     * current value, if any.
+     *
+     * @param coord The coordinate
+     * @param function The function, given the coordinate and its value
+     *                 or {@code null}
+     * @return The new value, or {@code null} if there is none
+     * @see #compute(long, long, long, EntryFunction)
+     */
+    public V compute(final Coordinate3l coord, final EntryFunction<? super V, ? extends V> function) {
+        return this.compute(coord.getX(), coord.getY(), coord.getZ(), function);
+    }
+
+    /**
+     * Gets the value mapped to the given coordinate, atomically mapping
+     * it to a computed value if it has none. If the function returns
+     * {@code null}, nothing is mapped.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @param function The function, given the coordinate
+     * @return The existing or computed value, or {@code null} if there is
+     *         none
+     */
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(final long x, final long y, final long z, final KeyFunction<? extends V> function) {
+        checkNotNull(function, "function");
+        final V existing = this.get(x, y, z);
+        if (existing != null) {
+            return existing;
+        }
+        final int hash = CoordinateHash.hash(x, y, z);
+        final Segment segment = this.segmentFor(hash);
+        final long stamp = segment.lock.writeLock();
+        try {
+            final int slot = segment.table.find(hash, x, y, z);
+            if (slot >= 0) {
+                return (V) segment.table.values[slot];
+            }
+            return (V) segment.replace(hash, x, y, z, slot, function.apply(x, y, z));
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Gets the value mapped to the given coordinate, atomically mapping
+     * it to a computed value if it has none.
+     *
+     * @param coord The coordinate
+     * @param function The function, given the coordinate
+     * @return The existing or computed value, or {@code null} if there is
+     *         none
+     * @see #computeIfAbsent(long, long, long, KeyFunction)
+     */
+    public V computeIfAbsent(final Coordinate3l coord, final KeyFunction<? extends V> function) {
+        return this.computeIfAbsent(coord.getX(), coord.getY(), coord.getZ(), function);
+    }
+
+    /**
+     * Atomically computes a new value for the given coordinate, if it has
+     * a value. If the function returns {@code null}, the coordinate's
+     * value is removed.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @param function The function, given the coordinate and its value
+     * @return The new value, or {@code null} if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public V computeIfPresent(final long x, final long y, final long z, final EntryFunction<? super V, ? extends V> function) {
+        checkNotNull(function, "function");
+        final int hash = CoordinateHash.hash(x, y, z);
+        final Segment segment = this.segmentFor(hash);
+        final long stamp = segment.lock.writeLock();
+        try {
+            final int slot = segment.table.find(hash, x, y, z);
+            if (slot < 0) {
+                return null;
+            }
+            return (V) segment.replace(hash, x, y, z, slot, function.apply(x, y, z, (V) segment.table.values[slot]));
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Atomically maps the given coordinate to the given value if it has
+     * none, or else to the result of combining its value with the given
+     * value. If the function returns {@code null}, the coordinate's value
+     * is removed.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @param value The value
+     * @param function The function, given the current and given values
+     * @return The new value, or {@code null} if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public V merge(final long x, final long y, final long z, final V value,
+            final BiFunction<? super V, ? super V, ? extends V> function) {
+        checkNotNull(value, "value");
+        checkNotNull(function, "function");
+        final int hash = CoordinateHash.hash(x, y, z);
+        final Segment segment = this.segmentFor(hash);
+        final long stamp = segment.lock.writeLock();
+        try {
+            final int slot = segment.table.find(hash, x, y, z);
+            if (slot < 0) {
+                return (V) segment.replace(hash, x, y, z, slot, value);
+            }
+            return (V) segment.replace(hash, x, y, z, slot, function.apply((V) segment.table.values[slot], value));
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Atomically maps the given coordinate to the given value if it has
+     * none, or else to the result of combining its value with the given
+     * value.
+     *
+     * @param coord The coordinate
+     * @param value The value
+     * @param function The function, given the current and given values
+     * @return The new value, or {@code null} if there is none
+     * @see #merge(long, long, long, Object, BiFunction)
+     */
+    public V merge(final Coordinate3l coord, final V value, final BiFunction<? super V, ? super V, ? extends V> function) {
+        return this.merge(coord.getX(), coord.getY(), coord.getZ(), value, function);
+    }
+
+    /**
+     * Removes all of the entries from the map, retaining its capacity.
+     */
+    public void clear() {
+        for (final Segment segment : this.segments) {
+            final long stamp = segment.lock.writeLock();
+            try {
+                Arrays.fill(segment.table.values, null);
+                segment.size = 0;
+            } finally {
+                segment.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Performs the given action for each entry in the map.
+     *
+     * <p>Each segment is read locked while its entries are visited, so
+     * the action must not update the map.</p>
+     *
+     * @param consumer The action
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(final Coordinate3lMap.EntryConsumer<? super V> consumer) {
+        for (final Segment segment : this.segments) {
+            final long stamp = segment.lock.readLock();
+            try {
+                final Table table = segment.table;
+                for (int i = 0; i < table.values.length; i++) {
+                    final Object value = table.values[i];
+                    if (value != null) {
+                        consumer.accept(table.keys[i * 3], table.keys[i * 3 + 1], table.keys[i * 3 + 2], (V) value);
+                    }
+                }
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    /**
+     * Performs the given action for each key in the map.
+     *
+     * <p>Each segment is read locked while its keys are visited, so the
+     * action must not update the map.</p>
+     *
+     * @param consumer The action
+     */
+    public void forEachKey(final LongTriConsumer consumer) {
+        this.forEach((x, y, z, value) -> consumer.accept(x, y, z));
+    }
+
+    private Segment segmentFor(final int hash) {
+        // the table uses the low bits of the hash, so the segment uses the high
+        return this.segments[this.segmentShift == 32 ? 0 : hash >>> this.segmentShift];
+    }
+
+    private static int capacityFor(final int expectedSize) {
+        final long needed = Math.max(2L, (long) Math.ceil(expectedSize / LOAD_FACTOR) + 1);
+        if (needed > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException("expectedSize is too large: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    /**
+     * A stripe of the map, and its lock.
+     */
+    private static final class Segment {
+
+        final StampedLock lock = new StampedLock();
+        volatile Table table;
+        volatile int size;
+
+        Segment(final int capacity) {
+            this.table = new Table(capacity);
+        }
+
+        Object put(final int hash, final long x, final long y, final long z, final Object value, final boolean onlyIfAbsent) {
+            final Table table = this.table;
+            final int slot = table.find(hash, x, y, z);
+            if (slot >= 0) {
+                final Object previous = table.values[slot];
+                if (!onlyIfAbsent) {
+                    table.values[slot] = value;
+                }
+                return previous;
+            }
+            this.insert(hash, x, y, z, value);
+            return null;
+        }
+
+        /**
+         * Replaces the value at the given slot - or, if the slot is
+         * negative, inserts the coordinate - with the given value,
+         * removing the entry if the value is {@code null}.
+         */
+        Object replace(final int hash, final long x, final long y, final long z, final int slot, final Object value) {
+            if (value == null) {
+                if (slot >= 0) {
+                    this.remove(slot);
+                }
+            } else if (slot >= 0) {
+                this.table.values[slot] = value;
+            } else {
+                this.insert(hash, x, y, z, value);
+            }
+            return value;
+        }
+
+        void insert(final int hash, final long x, final long y, final long z, final Object value) {
+            Table table = this.table;
+            if (this.size >= table.threshold) {
+                table = this.table = table.rehash();
+            }
+            int slot = hash & table.mask;
+            while (table.values[slot] != null) {
+                slot = (slot + 1) & table.mask;
+            }
+            final int index = slot * 3;
+            table.keys[index] = x;
+            table.keys[index + 1] = y;
+            table.keys[index + 2] = z;
+            table.values[slot] = value;
+            this.size++;
+        }
+
+        Object remove(final int removed) {
+            final Table table = this.table;
+            final Object previous = table.values[removed];
+            int pos = removed;
+            int last;
+            while (true) {
+                pos = ((last = pos) + 1) & table.mask;
+                while (true) {
+                    if (table.values[pos] == null) {
+                        table.values[last] = null;
+                        this.size--;
+                        return previous;
+                    }
+                    final int slot = table.hashAt(pos * 3) & table.mask;
+                    if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) {
+                        break;
+                    }
+                    pos = (pos + 1) & table.mask;
+                }
+                table.keys[last * 3] = table.keys[pos * 3];
+                table.keys[last * 3 + 1] = table.keys[pos * 3 + 1];
+                table.keys[last * 3 + 2] = table.keys[pos * 3 + 2];
+                table.values[last] = table.values[pos];
+            }
+        }
+
+    }
+
+    /**
+     * The open-addressing table of a segment, replaced as a whole when
+     * it grows so that optimistic readers always see consistent arrays.
+     */
+    private static final class Table {
+
+        final long[] keys;
+        final Object[] values;
+        final int mask;
+        final int threshold;
+
+        Table(final int capacity) {
+            this.keys = new long[capacity * 3];
+            this.values = new Object[capacity];
+            this.mask = capacity - 1;
+            this.threshold = (int) (capacity * LOAD_FACTOR);
+        }
+
+        int find(final int hash, final long x, final long y, final long z) {
+            int slot = hash & this.mask;
+            // bounded, as optimistic readers may observe a table mid-update
+            for (int probes = 0; probes <= this.mask && this.values[slot] != null; probes++) {
+                final int index = slot * 3;
+                if (this.keys[index] == x &&
+                        this.keys[index + 1] == y &&
+                        this.keys[index + 2] == z) {
+                    return slot;
+                }
+                slot = (slot + 1) & this.mask;
+            }
+            return -1;
+        }
+
+        Object get(final int hash, final long x, final long y, final long z) {
+            final int slot = this.find(hash, x, y, z);
+            return slot < 0 ? null : this.values[slot];
+        }
+
+        int hashAt(final int index) {
+            return CoordinateHash.hash(this.keys[index], this.keys[index + 1], this.keys[index + 2]);
+        }
+
+        Table rehash() {
+            if (this.values.length << 1 > MAXIMUM_CAPACITY) {
+                throw new IllegalStateException("Segment cannot grow beyond " + MAXIMUM_CAPACITY + " slots");
+            }
+            final Table table = new Table(this.values.length << 1);
+            for (int i = 0; i < this.values.length; i++) {
+                if (this.values[i] == null) {
+                    continue;
+                }
+                int slot = this.hashAt(i * 3) & table.mask;
+                while (table.values[slot] != null) {
+                    slot = (slot + 1) & table.mask;
+                }
+                System.arraycopy(this.keys, i * 3, table.keys, slot * 3, 3);
+                table.values[slot] = this.values[i];
+            }
+            return table;
+        }
+
+    }
+
+    /**
+     * Represents a function of an entry of the map.
+     *
+     * @param <V> The type of the values
+     * @param <R> The type of the result
+     */
+    @FunctionalInterface
+    public interface EntryFunction<V, R> {
+
+        /**
+         * Applies this function to the given entry.
+         *
+         * @param x The x position
+         * @param y The y position
+         * @param z The z position
+         * @param value The value, or {@code null} if there is none
+         * @return The result
+         */
+        R apply(long x, long y, long z, V value);
+
+    }
+
+    /**
+     * Represents a function of a key of the map.
+     *
+     * @param <R> The type of the result
+     */
+    @FunctionalInterface
+    public interface KeyFunction<R> {
+
+        /**
+         * Applies this function to the given coordinate.
+         *
+         * @param x The x position
+         * @param y The y position
+         * @param z The z position
+         * @return The result
+         */
+        R apply(long x, long y, long z);
+
+    }
+
+}
@@ -0,0 +1,353 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.coord;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
+import com.flowpowered.math.imaginary.Complexd;
+import com.flowpowered.math.matrix.Matrix2d;
+import com.flowpowered.math.matrix.Matrix3d;
+import com.google.common.base.MoreObjects;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A transform of {@link Coordinate2d}s, built once from a flow-math matrix or
+ * complex number, and applied in bulk to buffers and arrays.
+ *
+ * <p>Bulk applications read the components of each coordinate straight
+ * from their arrays, and never create a vector or coordinate object per
+ * element. Ranges of at least {@value #PARALLEL_THRESHOLD} coordinates
+ * are split across a {@link ForkJoinPool}.</p>
+ *
+ * <p>Transforms are immutable, and so may be shared between threads.</p>
+ */
+public final class Coordinate2dTransform {
+
+    /**
+     * The number of coordinates below which bulk applications are not
+     * split across the pool.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    /**
+     * Creates a transform of the given {@link Matrix3d}, treating each
+     * coordinate as a point in homogeneous coordinates.
+     *
+     * <p>Where the bottom row of the matrix is not that of an affine
+     * transform, results are divided through by the w component.</p>
+     *
+     * @param matrix The matrix
+     * @return The transform
+     */
+    public static Coordinate2dTransform of(final Matrix3d matrix) {
+        final double[] m = new double[9];
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 3; col++) {
+                m[row * 3 + col] = matrix.get(row, col);
+            }
+        }
+        return new Coordinate2dTransform(m);
+    }
+
+    /**
+     * Creates a linear transform of the given {@link Matrix2d}.
+     *
+     * @param matrix The matrix
+     * @return The transform
+     */
+    public static Coordinate2dTransform of(final Matrix2d matrix) {
+        final double[] m = new double[9];
+        for (int row = 0; row < 2; row++) {
+            for (int col = 0; col < 2; col++) {
+                m[row * 3 + col] = matrix.get(row, col);
+            }
+        }
+        m[8] = 1;
+        return new Coordinate2dTransform(m);
+    }
+
+    /**
+     * Creates a rotation by the given {@link Complexd}, which is
+     * normalised.
+     *
+     * @param rotation The rotation
+     * @return The transform
+     */
+    public static Coordinate2dTransform of(final Complexd rotation) {
+        return of(Matrix2d.createRotation(rotation));
+    }
+
+    private final double m00, m01, m02;
+    private final double m10, m11, m12;
+    private final double m20, m21, m22;
+    private final boolean affine;
+
+    private Coordinate2dTransform(final double[] m) {
+        this.m00 = m[0];
+        this.m01 = m[1];
+        this.m02 = m[2];
+        this.m10 = m[3];
+        this.m11 = m[4];
+        this.m12 = m[5];
+        this.m20 = m[6];
+        this.m21 = m[7];
+        this.m22 = m[8];
+        this.affine = this.m20 == 0 && this.m21 == 0 && this.m22 == 1;
+    }
+
+    /**
+     * Establishes whether the transform is affine, such that results need
+     * not be divided through by a w component.
+     *
+     * @return {@code true} if the transform is affine
+     */
+    public boolean isAffine() {
+        return this.affine;
+    }
+
+    /**
+     * Applies the transform to the given coordinate.
+     *
+     * @param coord The coordinate
+     * @return The transformed coordinate
+     */
+    public Coordinate2d apply(final Coordinate2d coord) {
+        final double x = coord.getX();
+        final double y = coord.getY();
+        if (this.affine) {
+            return new Coordinate2d(this.m00 * x + this.m01 * y + this.m02, this.m10 * x + this.m11 * y + this.m12);
+        }
+        final double inv = 1 / (this.m20 * x + this.m21 * y + this.m22);
+        return new Coordinate2d((this.m00 * x + this.m01 * y + this.m02) * inv, (this.m10 * x + this.m11 * y + this.m12) * inv);
+    }
+
+    /**
+     * Applies the transform to every coordinate of the given buffer, in
+     * place, splitting large buffers across the common
+     * {@link ForkJoinPool}.
+     *
+     * @param buffer The buffer
+     * @return The buffer
+     */
+    public Coordinate2dBuffer apply(final Coordinate2dBuffer buffer) {
+        return this.apply(buffer, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Applies the transform to every coordinate of the given buffer, in
+     * place, splitting large buffers across the given pool.
+     *
+     * @param buffer The buffer
+     * @param pool The pool to compute within
+     * @return The buffer
+     */
+    public Coordinate2dBuffer apply(final Coordinate2dBuffer buffer, final ForkJoinPool pool) {
+        this.apply(buffer.getXArray(), buffer.getYArray(), 0, buffer.size(), pool);
+        return buffer;
+    }
+
+    /**
+     * Applies the transform to every coordinate of the given source
+     * buffer, replacing the contents of the destination buffer with the
+     * results, splitting large buffers across the common
+     * {@link ForkJoinPool}.
+     *
+     * @param source The source buffer
+     * @param destination The destination buffer, which may be the source
+     * @return The destination buffer
+     */
+    public Coordinate2dBuffer apply(final Coordinate2dBuffer source, final Coordinate2dBuffer destination) {
+        return this.apply(source, destination, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Applies the transform to every coordinate of the given source
+     * buffer, replacing the contents of the destination buffer with the
+     * results, splitting large buffers across the given pool.
+     *
+     * @param source The source buffer
+     * @param destination The destination buffer, which may be the source
+     * @param pool The pool to compute within
+     * @return The destination buffer
+     */
+    public Coordinate2dBuffer apply(final Coordinate2dBuffer source, final Coordinate2dBuffer destination, final ForkJoinPool pool) {
+        final int size = source.size();
+        destination.setSize(size);
+        this.apply(source.getXArray(), source.getYArray(), 0, size,
+                destination.getXArray(), destination.getYArray(), 0, pool);
+        return destination;
+    }
+
+    /**
+     * Applies the transform to the coordinates in the given range of the
+     * given arrays, in place, splitting large ranges across the common
+     * {@link ForkJoinPool}.
+     *
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param from The index of the first coordinate, inclusive
+     * @param to The index of the last coordinate, exclusive
+     */
+    public void apply(final double[] xs, final double[] ys, final int from, final int to) {
+        this.apply(xs, ys, from, to, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Applies the transform to the coordinates in the given range of the
+     * given arrays, in place, splitting large ranges across the given
+     * pool.
+     *
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param from The index of the first coordinate, inclusive
+     * @param to The index of the last coordinate, exclusive
+     * @param pool The pool to compute within
+     */
+    public void apply(final double[] xs, final double[] ys, final int from, final int to, final ForkJoinPool pool) {
+        this.apply(xs, ys, from, to, xs, ys, from, pool);
+    }
+
+    /**
+     * Applies the transform to the coordinates in the given range of the
+     * given source arrays, writing the results to the destination arrays,
+     * splitting large ranges across the common {@link ForkJoinPool}.
+     *
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param from The index of the first coordinate, inclusive
+     * @param to The index of the last coordinate, exclusive
+     * @param dxs The destination x positions
+     * @param dys The destination y positions
+     * @param offset The index of the first destination coordinate
+     */
+    public void apply(final double[] xs, final double[] ys, final int from, final int to,
+            final double[] dxs, final double[] dys, final int offset) {
+        this.apply(xs, ys, from, to, dxs, dys, offset, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Applies the transform to the coordinates in the given range of the
+     * given source arrays, writing the results to the destination arrays,
+     * splitting large ranges across the given pool.
+     *
+     * <p>The destination arrays may be the source arrays, but must not
+     * otherwise overlap them.</p>
+     *
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param from The index of the first coordinate, inclusive
+     * @param to The index of the last coordinate, exclusive
+     * @param dxs The destination x positions
+     * @param dys The destination y positions
+     * @param offset The index of the first destination coordinate
+     * @param pool The pool to compute within
+     */
+    public void apply(final double[] xs, final double[] ys, final int from, final int to,
+            final double[] dxs, final double[] dys, final int offset, final ForkJoinPool pool) {
+        checkPositionIndexes(from, to, xs.length);
+        checkArgument(ys.length >= to, "source arrays are shorter than the range");
+        checkArgument(offset >= 0 && dxs.length - offset >= to - from && dys.length - offset >= to - from, "destination arrays are shorter than the range");
+        if (to - from < PARALLEL_THRESHOLD) {
+            this.compute(xs, ys, from, to, dxs, dys, offset);
+        } else {
+            pool.invoke(new TransformTask(xs, ys, from, to, dxs, dys, offset));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("row0", "[" + this.m00 + ", " + this.m01 + ", " + this.m02 + "]")
+                .add("row1", "[" + this.m10 + ", " + this.m11 + ", " + this.m12 + "]")
+                .add("row2", "[" + this.m20 + ", " + this.m21 + ", " + this.m22 + "]")
+                .toString();
+    }
+
+    private void compute(final double[] xs, final double[] ys, final int from, final int to,
+            final double[] dxs, final double[] dys, final int offset) {
+        final double m00 = this.m00, m01 = this.m01, m02 = this.m02;
+        final double m10 = this.m10, m11 = this.m11, m12 = this.m12;
+        final double m20 = this.m20, m21 = this.m21, m22 = this.m22;
+        if (this.affine) {
+            for (int i = from, j = offset; i < to; i++, j++) {
+                final double x = xs[i];
+                final double y = ys[i];
+                dxs[j] = m00 * x + m01 * y + m02;
+                dys[j] = m10 * x + m11 * y + m12;
+            }
+        } else {
+            for (int i = from, j = offset; i < to; i++, j++) {
+                final double x = xs[i];
+                final double y = ys[i];
+                final double inv = 1 / (m20 * x + m21 * y + m22);
+                dxs[j] = (m00 * x + m01 * y + m02) * inv;
+                dys[j] = (m10 * x + m11 * y + m12) * inv;
+            }
+        }
+    }
+
+    private final class TransformTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[] xs;
+        private final double[] ys;
+        private final int from;
+        private final int to;
+        private final double[] dxs;
+        private final double[] dys;
+        private final int offset;
+
+        TransformTask(final double[] xs, final double[] ys, final int from, final int to,
+                final double[] dxs, final double[] dys, final int offset) {
+            this.xs = xs;
+            this.ys = ys;
+            this.from = from;
+            this.to = to;
+            this.dxs = dxs;
+            this.dys = dys;
+            this.offset = offset;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from < PARALLEL_THRESHOLD) {
+                Coordinate2dTransform.this.compute(this.xs, this.ys, this.from, this.to, this.dxs, this.dys, this.offset);
+                return;
+            }
+            final int mid = (this.from + this.to) >>> 1;
+            invokeAll(
+                    new TransformTask(this.xs, this.ys, this.from, mid, this.dxs, this.dys, this.offset),
+                    new TransformTask(this.xs, this.ys, mid, this.to, this.dxs, this.dys, this.offset + (mid - this.from))
+            );
+        }
+
+    }
+
+}
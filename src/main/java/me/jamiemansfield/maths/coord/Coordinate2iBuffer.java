@@ -0,0 +1,381 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.coord;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+import com.flowpowered.math.vector.Vector2i;
+import com.google.common.base.MoreObjects;
+
+import java.util.Arrays;
+
+/**
+ * A growable buffer of {@link Coordinate2i}s, that holds each component in
+ * its own primitive array.
+ *
+ * <p>Bulk operations are written as simple loops over a single array
+ * each, so that they can be vectorised by the JIT, and never create a
+ * coordinate object per element. Single elements can be read through
+ * a reusable {@link View}.</p>
+ *
+ * <p>This buffer is not thread-safe.</p>
+ */
+public final class Coordinate2iBuffer {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAXIMUM_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private int[] xs;
+    private int[] ys;
+    private int size;
+
+    /**
+     * Creates an empty buffer.
+     */
+    public Coordinate2iBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty buffer, with the given initial capacity.
+     *
+     * @param initialCapacity The initial capacity
+     */
+    public Coordinate2iBuffer(final int initialCapacity) {
+        checkArgument(initialCapacity >= 0, "initialCapacity cannot be negative");
+        this.xs = new int[initialCapacity];
+        this.ys = new int[initialCapacity];
+    }
+
+    /**
+     * Gets the number of coordinates in the buffer.
+     *
+     * @return The size
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Establishes whether the buffer contains no coordinates.
+     *
+     * @return {@code true} if the buffer is empty
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Removes all of the coordinates from the buffer, retaining its
+     * capacity.
+     */
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Ensures the buffer can hold at least the given number of
+     * coordinates without growing.
+     *
+     * @param capacity The required capacity
+     * @throws IllegalArgumentException If the capacity is more than the
+     *         largest array the buffer can allocate
+     */
+    public void ensureCapacity(final int capacity) {
+        if (capacity > this.xs.length) {
+            checkArgument(capacity <= MAXIMUM_CAPACITY, "capacity cannot be more than %s: %s", MAXIMUM_CAPACITY, capacity);
+            final int newCapacity = (int) Math.min(MAXIMUM_CAPACITY, Math.max(capacity, this.xs.length + (this.xs.length >> 1) + 1L));
+            this.xs = Arrays.copyOf(this.xs, newCapacity);
+            this.ys = Arrays.copyOf(this.ys, newCapacity);
+        }
+    }
+
+    /**
+     * Appends the given coordinate to the buffer.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @return The index of the coordinate
+     */
+    public int add(final int x, final int y) {
+        this.ensureCapacity(this.size + 1);
+        final int index = this.size++;
+        this.xs[index] = x;
+        this.ys[index] = y;
+        return index;
+    }
+
+    /**
+     * Appends the given coordinate to the buffer.
+     *
+     * @param coord The coordinate
+     * @return The index of the coordinate
+     */
+    public int add(final Coordinate2i coord) {
+        return this.add(coord.getX(), coord.getY());
+    }
+
+    /**
+     * Replaces the coordinate at the given index.
+     *
+     * @param index The index
+     * @param x The x position
+     * @param y The y position
+     */
+    public void set(final int index, final int x, final int y) {
+        checkElementIndex(index, this.size);
+        this.xs[index] = x;
+        this.ys[index] = y;
+    }
+
+    /**
+     * Gets the coordinate at the given index, as a new {@link Coordinate2i}.
+     *
+     * @param index The index
+     * @return The coordinate
+     */
+    public Coordinate2i get(final int index) {
+        checkElementIndex(index, this.size);
+        return new Coordinate2i(this.xs[index], this.ys[index]);
+    }
+
+    /**
+     * Gets the x position of the coordinate at the given index.
+     *
+     * @param index The index
+     * @return The x pos
+     */
+    public int getX(final int index) {
+        checkElementIndex(index, this.size);
+        return this.xs[index];
+    }
+
+    /**
+     * Gets the y position of the coordinate at the given index.
+     *
+     * @param index The index
+     * @return The y pos
+     */
+    public int getY(final int index) {
+        checkElementIndex(index, this.size);
+        return this.ys[index];
+    }
+
+    /**
+     * Gets the array backing the x positions of this buffer. Only the
+     * first {@link #size()} elements are meaningful, and the array is
+     * replaced whenever the buffer grows.
+     *
+     * @return The x positions
+     */
+    public int[] getXArray() {
+        return this.xs;
+    }
+
+    /**
+     * Gets the array backing the y positions of this buffer. Only the
+     * first {@link #size()} elements are meaningful, and the array is
+     * replaced whenever the buffer grows.
+     *
+     * @return The y positions
+     */
+    public int[] getYArray() {
+        return this.ys;
+    }
+
+    /**
+     * Translates every coordinate in the buffer by the given amounts.
+     *
+     * @param dx The x offset
+     * @param dy The y offset
+     * @return This buffer
+     */
+    public Coordinate2iBuffer translate(final int dx, final int dy) {
+        final int n = this.size;
+        final int[] xs = this.xs;
+        for (int i = 0; i < n; i++) {
+            xs[i] += dx;
+        }
+        final int[] ys = this.ys;
+        for (int i = 0; i < n; i++) {
+            ys[i] += dy;
+        }
+        return this;
+    }
+
+    /**
+     * Translates every coordinate in the buffer by the given {@link Vector2i}.
+     *
+     * @param vector2i The given vector
+     * @return This buffer
+     */
+    public Coordinate2iBuffer translate(final Vector2i vector2i) {
+        return this.translate(vector2i.getX(), vector2i.getY());
+    }
+
+    /**
+     * Scales every coordinate in the buffer by the given factors.
+     *
+     * @param sx The x factor
+     * @param sy The y factor
+     * @return This buffer
+     */
+    public Coordinate2iBuffer scale(final int sx, final int sy) {
+        final int n = this.size;
+        final int[] xs = this.xs;
+        for (int i = 0; i < n; i++) {
+            xs[i] *= sx;
+        }
+        final int[] ys = this.ys;
+        for (int i = 0; i < n; i++) {
+            ys[i] *= sy;
+        }
+        return this;
+    }
+
+    /**
+     * Scales every coordinate in the buffer by the given factor.
+     *
+     * @param factor The factor
+     * @return This buffer
+     */
+    public Coordinate2iBuffer scale(final int factor) {
+        return this.scale(factor, factor);
+    }
+
+    /**
+     * Scales every coordinate in the buffer by the given {@link Vector2i}.
+     *
+     * @param vector2i The given vector
+     * @return This buffer
+     */
+    public Coordinate2iBuffer scale(final Vector2i vector2i) {
+        return this.scale(vector2i.getX(), vector2i.getY());
+    }
+
+    /**
+     * Creates a new view of this buffer, positioned at the first
+     * coordinate.
+     *
+     * @return The view
+     */
+    public View view() {
+        return new View();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("size", this.size)
+                .toString();
+    }
+
+    /**
+     * A reusable, movable view of a single coordinate within the
+     * buffer.
+     *
+     * <p>A single view may be moved over every coordinate in the buffer
+     * with {@link #at(int)}, without creating any objects.</p>
+     */
+    public final class View {
+
+        private int index;
+
+        private View() {
+        }
+
+        /**
+         * Moves the view to the coordinate at the given index.
+         *
+         * @param index The index
+         * @return This view
+         */
+        public View at(final int index) {
+            checkElementIndex(index, Coordinate2iBuffer.this.size);
+            this.index = index;
+            return this;
+        }
+
+        /**
+         * Gets the index of the coordinate the view is positioned at.
+         *
+         * @return The index
+         */
+        public int getIndex() {
+            return this.index;
+        }
+
+        /**
+         * Gets the x position of the current coordinate.
+         *
+         * @return The x pos
+         */
+        public int getX() {
+            return Coordinate2iBuffer.this.xs[this.index];
+        }
+
+        /**
+         * Gets the y position of the current coordinate.
+         *
+         * @return The y pos
+         */
+        public int getY() {
+            return Coordinate2iBuffer.this.ys[this.index];
+        }
+
+        /**
+         * Replaces the current coordinate.
+         *
+         * @param x The x position
+         * @param y The y position
+         */
+        public void set(final int x, final int y) {
+            Coordinate2iBuffer.this.xs[this.index] = x;
+            Coordinate2iBuffer.this.ys[this.index] = y;
+        }
+
+        /**
+         * Copies the current coordinate into a new {@link Coordinate2i}.
+         *
+         * @return The coordinate
+         */
+        public Coordinate2i toCoordinate() {
+            return new Coordinate2i(this.getX(), this.getY());
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("index", this.index)
+                    .add("x", this.getX())
+                    .add("y", this.getY())
+                    .toString();
+        }
+
+    }
+
+}
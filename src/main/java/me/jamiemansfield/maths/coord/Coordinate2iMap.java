@@ -0,0 +1,355 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.coord;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import me.jamiemansfield.maths.function.IntBiConsumer;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash map from {@link Coordinate2i}s to values, that
+ * stores the components of its keys inline, rather than as key
+ * objects.
+ *
+ * <p>Keys are hashed with {@link CoordinateHash}, and collisions are
+ * resolved with linear probing. Removal uses backward-shift deletion,
+ * so no tombstones accumulate.</p>
+ *
+ * <p>Null values are not permitted. This map is not thread-safe.</p>
+ *
+ * @param <V> The type of the values
+ */
+public final class Coordinate2iMap<V> {
+
+    private static final int DEFAULT_EXPECTED_SIZE = 16;
+    private static final int MAXIMUM_CAPACITY = 1 << 28;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int threshold;
+    private int size;
+
+    /**
+     * Creates an empty map.
+     */
+    public Coordinate2iMap() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Creates an empty map, that can hold the given number of
+     * entries without resizing.
+     *
+     * @param expectedSize The expected number of entries
+     */
+    public Coordinate2iMap(final int expectedSize) {
+        checkArgument(expectedSize >= 0, "expectedSize cannot be negative");
+        this.allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Gets the number of entries in the map.
+     *
+     * @return The size
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Establishes whether the map contains no entries.
+     *
+     * @return {@code true} if the map is empty
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Gets the value mapped to the given coordinate.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @return The value, or {@code null} if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public V get(final int x, final int y) {
+        final int slot = this.find(x, y);
+        return slot < 0 ? null : (V) this.values[slot];
+    }
+
+    /**
+     * Gets the value mapped to the given coordinate.
+     *
+     * @param coord The coordinate
+     * @return The value, or {@code null} if there is none
+     */
+    public V get(final Coordinate2i coord) {
+        return this.get(coord.getX(), coord.getY());
+    }
+
+    /**
+     * Gets the value mapped to the given coordinate, or the given
+     * default value if there is none.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param defaultValue The default value
+     * @return The value
+     */
+    public V getOrDefault(final int x, final int y, final V defaultValue) {
+        final V value = this.get(x, y);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * Establishes whether the map has a value for the given coordinate.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @return {@code true} if a value is present
+     */
+    public boolean containsKey(final int x, final int y) {
+        return this.find(x, y) >= 0;
+    }
+
+    /**
+     * Establishes whether the map has a value for the given coordinate.
+     *
+     * @param coord The coordinate
+     * @return {@code true} if a value is present
+     */
+    public boolean containsKey(final Coordinate2i coord) {
+        return this.containsKey(coord.getX(), coord.getY());
+    }
+
+    /**
+     * Maps the given coordinate to the given value.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param value The value
+     * @return The previous value, or {@code null} if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V put(final int x, final int y, final V value) {
+        checkNotNull(value, "value");
+        int slot = CoordinateHash.hash(x, y) & this.mask;
+        while (this.values[slot] != null) {
+            final int index = slot * 2;
+            if (this.keys[index] == x &&
+                    this.keys[index + 1] == y) {
+                final V previous = (V) this.values[slot];
+                this.values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        final int index = slot * 2;
+        this.keys[index] = x;
+        this.keys[index + 1] = y;
+        this.values[slot] = value;
+        if (++this.size > this.threshold) {
+            this.rehash(this.values.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * Maps the given coordinate to the given value.
+     *
+     * @param coord The coordinate
+     * @param value The value
+     * @return The previous value, or {@code null} if there was none
+     */
+    public V put(final Coordinate2i coord, final V value) {
+        return this.put(coord.getX(), coord.getY(), value);
+    }
+
+    /**
+     * Removes the value mapped to the given coordinate.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @return The removed value, or {@code null} if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(final int x, final int y) {
+        final int slot = this.find(x, y);
+        if (slot < 0) {
+            return null;
+        }
+        final V previous = (V) this.values[slot];
+        this.shiftKeys(slot);
+        this.size--;
+        return previous;
+    }
+
+    /**
+     * Removes the value mapped to the given coordinate.
+     *
+     * @param coord The coordinate
+     * @return The removed value, or {@code null} if there was none
+     */
+    public V remove(final Coordinate2i coord) {
+        return this.remove(coord.getX(), coord.getY());
+    }
+
+    /**
+     * Removes all of the entries from the map, retaining its capacity.
+     */
+    public void clear() {
+        Arrays.fill(this.values, null);
+        this.size = 0;
+    }
+
+    /**
+     * Performs the given action for each entry in the map.
+     *
+     * @param consumer The action
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(final EntryConsumer<? super V> consumer) {
+        for (int i = 0; i < this.values.length; i++) {
+            final Object value = this.values[i];
+            if (value != null) {
+                consumer.accept(this.keys[i * 2], this.keys[i * 2 + 1], (V) value);
+            }
+        }
+    }
+
+    /**
+     * Performs the given action for each key in the map.
+     *
+     * @param consumer The action
+     */
+    public void forEachKey(final IntBiConsumer consumer) {
+        for (int i = 0; i < this.values.length; i++) {
+            if (this.values[i] != null) {
+                consumer.accept(this.keys[i * 2], this.keys[i * 2 + 1]);
+            }
+        }
+    }
+
+    private int find(final int x, final int y) {
+        int slot = CoordinateHash.hash(x, y) & this.mask;
+        while (this.values[slot] != null) {
+            final int index = slot * 2;
+            if (this.keys[index] == x &&
+                    this.keys[index + 1] == y) {
+                return slot;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return -1;
+    }
+
+    private void shiftKeys(final int removed) {
+        int pos = removed;
+        int last;
+        while (true) {
+            pos = ((last = pos) + 1) & this.mask;
+            while (true) {
+                if (this.values[pos] == null) {
+                    this.values[last] = null;
+                    return;
+                }
+                final int slot = this.hashAt(this.keys, pos * 2) & this.mask;
+                if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) {
+                    break;
+                }
+                pos = (pos + 1) & this.mask;
+            }
+            this.keys[last * 2] = this.keys[pos * 2];
+            this.keys[last * 2 + 1] = this.keys[pos * 2 + 1];
+            this.values[last] = this.values[pos];
+        }
+    }
+
+    private int hashAt(final int[] keys, final int index) {
+        return CoordinateHash.hash(keys[index], keys[index + 1]);
+    }
+
+    private void rehash(final int capacity) {
+        if (capacity > MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("Map cannot grow beyond " + MAXIMUM_CAPACITY + " slots");
+        }
+        final int[] oldKeys = this.keys;
+        final Object[] oldValues = this.values;
+        this.allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] == null) {
+                continue;
+            }
+            int slot = this.hashAt(oldKeys, i * 2) & this.mask;
+            while (this.values[slot] != null) {
+                slot = (slot + 1) & this.mask;
+            }
+            System.arraycopy(oldKeys, i * 2, this.keys, slot * 2, 2);
+            this.values[slot] = oldValues[i];
+        }
+    }
+
+    private void allocate(final int capacity) {
+        this.keys = new int[capacity * 2];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        this.threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int capacityFor(final int expectedSize) {
+        final long needed = Math.max(2L, (long) Math.ceil(expectedSize / LOAD_FACTOR) + 1);
+        if (needed > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException("expectedSize is too large: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    /**
+     * Represents an operation that accepts an entry of the map.
+     *
+     * @param <V> The type of the values
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+
+        /**
+         * Performs this operation on the given entry.
+         *
+         * @param x The x position
+         * @param y The y position
+         * @param value The value
+         */
+        void accept(int x, int y, V value);
+
+    }
+
+}
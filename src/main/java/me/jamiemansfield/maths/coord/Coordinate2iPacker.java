@@ -0,0 +1,137 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.coord;
+
+import com.flowpowered.math.vector.Vector2i;
+
+/**
+ * Packs {@link Coordinate2i}s into a single long, with the x position
+ * in the upper 32 bits and the y position in the lower 32 bits.
+ *
+ * <p>Every possible coordinate can be packed, so packing is lossless
+ * and the packed form may be used as a key in place of the coordinate
+ * itself.</p>
+ */
+public final class Coordinate2iPacker {
+
+    private static final long LOWER_MASK = 0xFFFFFFFFL;
+
+    /**
+     * Packs the given coordinate.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @return The packed coordinate
+     */
+    public static long pack(final int x, final int y) {
+        return ((long) x << 32) | (y & LOWER_MASK);
+    }
+
+    /**
+     * Packs the given coordinate.
+     *
+     * @param coord The coordinate
+     * @return The packed coordinate
+     */
+    public static long pack(final Coordinate2i coord) {
+        return pack(coord.getX(), coord.getY());
+    }
+
+    /**
+     * Unpacks the given packed coordinate.
+     *
+     * @param packed The packed coordinate
+     * @return The coordinate
+     */
+    public static Coordinate2i unpack(final long packed) {
+        return new Coordinate2i(getX(packed), getY(packed));
+    }
+
+    /**
+     * Gets the x position of the given packed coordinate.
+     *
+     * @param packed The packed coordinate
+     * @return The x pos
+     */
+    public static int getX(final long packed) {
+        return (int) (packed >> 32);
+    }
+
+    /**
+     * Gets the y position of the given packed coordinate.
+     *
+     * @param packed The packed coordinate
+     * @return The y pos
+     */
+    public static int getY(final long packed) {
+        return (int) packed;
+    }
+
+    /**
+     * Offsets the given packed coordinate by the given amounts.
+     *
+     * @param packed The packed coordinate
+     * @param dx The x offset
+     * @param dy The y offset
+     * @return The packed coordinate
+     */
+    public static long offset(final long packed, final int dx, final int dy) {
+        return pack(getX(packed) + dx, getY(packed) + dy);
+    }
+
+    /**
+     * Moves the given packed coordinate by the given {@link Vector2i}.
+     *
+     * @param packed The packed coordinate
+     * @param vector2i The given vector
+     * @return The packed coordinate
+     */
+    public static long move(final long packed, final Vector2i vector2i) {
+        return offset(packed, vector2i.getX(), vector2i.getY());
+    }
+
+    /**
+     * Writes the four edge-adjacent neighbours of the given packed
+     * coordinate into the given array, in the order -x, +x, -y, +y.
+     *
+     * @param packed The packed coordinate
+     * @param dest The destination, of at least 4 elements
+     * @return The destination
+     */
+    public static long[] neighbours(final long packed, final long[] dest) {
+        final int x = getX(packed);
+        final int y = getY(packed);
+        dest[0] = pack(x - 1, y);
+        dest[1] = pack(x + 1, y);
+        dest[2] = pack(x, y - 1);
+        dest[3] = pack(x, y + 1);
+        return dest;
+    }
+
+    private Coordinate2iPacker() {
+    }
+
+}
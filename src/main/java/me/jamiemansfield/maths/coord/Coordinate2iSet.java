@@ -0,0 +1,271 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.coord;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import me.jamiemansfield.maths.function.IntBiConsumer;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash set of {@link Coordinate2i}s, that stores the
+ * components of its members inline, rather than as objects.
+ *
+ * <p>Members are hashed with {@link CoordinateHash}, and collisions
+ * are resolved with linear probing. Removal uses backward-shift
+ * deletion, so no tombstones accumulate.</p>
+ *
+ * <p>This set is not thread-safe.</p>
+ */
+public final class Coordinate2iSet {
+
+    private static final int DEFAULT_EXPECTED_SIZE = 16;
+    private static final int MAXIMUM_CAPACITY = 1 << 28;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private int[] keys;
+    private boolean[] used;
+    private int mask;
+    private int threshold;
+    private int size;
+
+    /**
+     * Creates an empty set.
+     */
+    public Coordinate2iSet() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Creates an empty set, that can hold the given number of
+     * members without resizing.
+     *
+     * @param expectedSize The expected number of members
+     */
+    public Coordinate2iSet(final int expectedSize) {
+        checkArgument(expectedSize >= 0, "expectedSize cannot be negative");
+        this.allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Gets the number of members in the set.
+     *
+     * @return The size
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Establishes whether the set contains no members.
+     *
+     * @return {@code true} if the set is empty
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Establishes whether the set contains the given coordinate.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @return {@code true} if the coordinate is present
+     */
+    public boolean contains(final int x, final int y) {
+        return this.find(x, y) >= 0;
+    }
+
+    /**
+     * Establishes whether the set contains the given coordinate.
+     *
+     * @param coord The coordinate
+     * @return {@code true} if the coordinate is present
+     */
+    public boolean contains(final Coordinate2i coord) {
+        return this.contains(coord.getX(), coord.getY());
+    }
+
+    /**
+     * Adds the given coordinate to the set.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @return {@code true} if the coordinate was not already present
+     */
+    public boolean add(final int x, final int y) {
+        int slot = CoordinateHash.hash(x, y) & this.mask;
+        while (this.used[slot]) {
+            final int index = slot * 2;
+            if (this.keys[index] == x &&
+                    this.keys[index + 1] == y) {
+                return false;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        final int index = slot * 2;
+        this.keys[index] = x;
+        this.keys[index + 1] = y;
+        this.used[slot] = true;
+        if (++this.size > this.threshold) {
+            this.rehash(this.used.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * Adds the given coordinate to the set.
+     *
+     * @param coord The coordinate
+     * @return {@code true} if the coordinate was not already present
+     */
+    public boolean add(final Coordinate2i coord) {
+        return this.add(coord.getX(), coord.getY());
+    }
+
+    /**
+     * Removes the given coordinate from the set.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @return {@code true} if the coordinate was present
+     */
+    public boolean remove(final int x, final int y) {
+        final int slot = this.find(x, y);
+        if (slot < 0) {
+            return false;
+        }
+        this.shiftKeys(slot);
+        this.size--;
+        return true;
+    }
+
+    /**
+     * Removes the given coordinate from the set.
+     *
+     * @param coord The coordinate
+     * @return {@code true} if the coordinate was present
+     */
+    public boolean remove(final Coordinate2i coord) {
+        return this.remove(coord.getX(), coord.getY());
+    }
+
+    /**
+     * Removes all of the members from the set, retaining its capacity.
+     */
+    public void clear() {
+        Arrays.fill(this.used, false);
+        this.size = 0;
+    }
+
+    /**
+     * Performs the given action for each member of the set.
+     *
+     * @param consumer The action
+     */
+    public void forEach(final IntBiConsumer consumer) {
+        for (int i = 0; i < this.used.length; i++) {
+            if (this.used[i]) {
+                consumer.accept(this.keys[i * 2], this.keys[i * 2 + 1]);
+            }
+        }
+    }
+
+    private int find(final int x, final int y) {
+        int slot = CoordinateHash.hash(x, y) & this.mask;
+        while (this.used[slot]) {
+            final int index = slot * 2;
+            if (this.keys[index] == x &&
+                    this.keys[index + 1] == y) {
+                return slot;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return -1;
+    }
+
+    private void shiftKeys(final int removed) {
+        int pos = removed;
+        int last;
+        while (true) {
+            pos = ((last = pos) + 1) & this.mask;
+            while (true) {
+                if (!this.used[pos]) {
+                    this.used[last] = false;
+                    return;
+                }
+                final int slot = this.hashAt(this.keys, pos * 2) & this.mask;
+                if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) {
+                    break;
+                }
+                pos = (pos + 1) & this.mask;
+            }
+            this.keys[last * 2] = this.keys[pos * 2];
+            this.keys[last * 2 + 1] = this.keys[pos * 2 + 1];
+        }
+    }
+
+    private int hashAt(final int[] keys, final int index) {
+        return CoordinateHash.hash(keys[index], keys[index + 1]);
+    }
+
+    private void rehash(final int capacity) {
+        if (capacity > MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("Set cannot grow beyond " + MAXIMUM_CAPACITY + " slots");
+        }
+        final int[] oldKeys = this.keys;
+        final boolean[] oldUsed = this.used;
+        this.allocate(capacity);
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (!oldUsed[i]) {
+                continue;
+            }
+            int slot = this.hashAt(oldKeys, i * 2) & this.mask;
+            while (this.used[slot]) {
+                slot = (slot + 1) & this.mask;
+            }
+            System.arraycopy(oldKeys, i * 2, this.keys, slot * 2, 2);
+            this.used[slot] = true;
+        }
+    }
+
+    private void allocate(final int capacity) {
+        this.keys = new int[capacity * 2];
+        this.used = new boolean[capacity];
+        this.mask = capacity - 1;
+        this.threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int capacityFor(final int expectedSize) {
+        final long needed = Math.max(2L, (long) Math.ceil(expectedSize / LOAD_FACTOR) + 1);
+        if (needed > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException("expectedSize is too large: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+}
@@ -0,0 +1,378 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.coord;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
+import com.flowpowered.math.imaginary.Quaterniond;
+import com.flowpowered.math.matrix.Matrix3d;
+import com.flowpowered.math.matrix.Matrix4d;
+import com.google.common.base.MoreObjects;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A transform of {@link Coordinate3d}s, built once from a flow-math matrix or
+ * quaternion, and applied in bulk to buffers and arrays.
+ *
+ * <p>Bulk applications read the components of each coordinate straight
+ * from their arrays, and never create a vector or coordinate object per
+ * element. Ranges of at least {@value #PARALLEL_THRESHOLD} coordinates
+ * are split across a {@link ForkJoinPool}.</p>
+ *
+ * <p>Transforms are immutable, and so may be shared between threads.</p>
+ */
+public final class Coordinate3dTransform {
+
+    /**
+     * The number of coordinates below which bulk applications are not
+     * split across the pool.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    /**
+     * Creates a transform of the given {@link Matrix4d}, treating each
+     * coordinate as a point in homogeneous coordinates.
+     *
+     * <p>Where the bottom row of the matrix is not that of an affine
+     * transform, results are divided through by the w component.</p>
+     *
+     * @param matrix The matrix
+     * @return The transform
+     */
+    public static Coordinate3dTransform of(final Matrix4d matrix) {
+        final double[] m = new double[16];
+        for (int row = 0; row < 4; row++) {
+            for (int col = 0; col < 4; col++) {
+                m[row * 4 + col] = matrix.get(row, col);
+            }
+        }
+        return new Coordinate3dTransform(m);
+    }
+
+    /**
+     * Creates a linear transform of the given {@link Matrix3d}.
+     *
+     * @param matrix The matrix
+     * @return The transform
+     */
+    public static Coordinate3dTransform of(final Matrix3d matrix) {
+        final double[] m = new double[16];
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 3; col++) {
+                m[row * 4 + col] = matrix.get(row, col);
+            }
+        }
+        m[15] = 1;
+        return new Coordinate3dTransform(m);
+    }
+
+    /**
+     * Creates a rotation by the given {@link Quaterniond}, which is
+     * normalised.
+     *
+     * @param rotation The rotation
+     * @return The transform
+     */
+    public static Coordinate3dTransform of(final Quaterniond rotation) {
+        return of(Matrix3d.createRotation(rotation));
+    }
+
+    private final double m00, m01, m02, m03;
+    private final double m10, m11, m12, m13;
+    private final double m20, m21, m22, m23;
+    private final double m30, m31, m32, m33;
+    private final boolean affine;
+
+    private Coordinate3dTransform(final double[] m) {
+        this.m00 = m[0];
+        this.m01 = m[1];
+        this.m02 = m[2];
+        this.m03 = m[3];
+        this.m10 = m[4];
+        this.m11 = m[5];
+        this.m12 = m[6];
+        this.m13 = m[7];
+        this.m20 = m[8];
+        this.m21 = m[9];
+        this.m22 = m[10];
+        this.m23 = m[11];
+        this.m30 = m[12];
+        this.m31 = m[13];
+        this.m32 = m[14];
+        this.m33 = m[15];
+        this.affine = this.m30 == 0 && this.m31 == 0 && this.m32 == 0 && this.m33 == 1;
+    }
+
+    /**
+     * Establishes whether the transform is affine, such that results need
+     * not be divided through by a w component.
+     *
+     * @return {@code true} if the transform is affine
+     */
+    public boolean isAffine() {
+        return this.affine;
+    }
+
+    /**
+     * Applies the transform to the given coordinate.
+     *
+     * @param coord The coordinate
+     * @return The transformed coordinate
+     */
+    public Coordinate3d apply(final Coordinate3d coord) {
+        final double x = coord.getX();
+        final double y = coord.getY();
+        final double z = coord.getZ();
+        if (this.affine) {
+            return new Coordinate3d(this.m00 * x + this.m01 * y + this.m02 * z + this.m03, this.m10 * x + this.m11 * y + this.m12 * z + this.m13, this.m20 * x + this.m21 * y + this.m22 * z + this.m23);
+        }
+        final double inv = 1 / (this.m30 * x + this.m31 * y + this.m32 * z + this.m33);
+        return new Coordinate3d((this.m00 * x + this.m01 * y + this.m02 * z + this.m03) * inv, (this.m10 * x + this.m11 * y + this.m12 * z + this.m13) * inv, (this.m20 * x + this.m21 * y + this.m22 * z + this.m23) * inv);
+    }
+
+    /**
+     * Applies the transform to every coordinate of the given buffer, in
+     * place, splitting large buffers across the common
+     * {@link ForkJoinPool}.
+     *
+     * @param buffer The buffer
+     * @return The buffer
+     */
+    public Coordinate3dBuffer apply(final Coordinate3dBuffer buffer) {
+        return this.apply(buffer, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Applies the transform to every coordinate of the given buffer, in
+     * place, splitting large buffers across the given pool.
+     *
+     * @param buffer The buffer
+     * @param pool The pool to compute within
+     * @return The buffer
+     */
+    public Coordinate3dBuffer apply(final Coordinate3dBuffer buffer, final ForkJoinPool pool) {
+        this.apply(buffer.getXArray(), buffer.getYArray(), buffer.getZArray(), 0, buffer.size(), pool);
+        return buffer;
+    }
+
+    /**
+     * Applies the transform to every coordinate of the given source
+     * buffer, replacing the contents of the destination buffer with the
+     * results, splitting large buffers across the common
+     * {@link ForkJoinPool}.
+     *
+     * @param source The source buffer
+     * @param destination The destination buffer, which may be the source
+     * @return The destination buffer
+     */
+    public Coordinate3dBuffer apply(final Coordinate3dBuffer source, final Coordinate3dBuffer destination) {
+        return this.apply(source, destination, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Applies the transform to every coordinate of the given source
+     * buffer, replacing the contents of the destination buffer with the
+     * results, splitting large buffers across the given pool.
+     *
+     * @param source The source buffer
+     * @param destination The destination buffer, which may be the source
+     * @param pool The pool to compute within
+     * @return The destination buffer
+     */
+    public Coordinate3dBuffer apply(final Coordinate3dBuffer source, final Coordinate3dBuffer destination, final ForkJoinPool pool) {
+        final int size = source.size();
+        destination.setSize(size);
+        this.apply(source.getXArray(), source.getYArray(), source.getZArray(), 0, size,
+                destination.getXArray(), destination.getYArray(), destination.getZArray(), 0, pool);
+        return destination;
+    }
+
+    /**
+     * Applies the transform to the coordinates in the given range of the
+     * given arrays, in place, splitting large ranges across the common
+     * {@link ForkJoinPool}.
+     *
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param zs The z positions
+     * @param from The index of the first coordinate, inclusive
+     * @param to The index of the last coordinate, exclusive
+     */
+    public void apply(final double[] xs, final double[] ys, final double[] zs, final int from, final int to) {
+        this.apply(xs, ys, zs, from, to, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Applies the transform to the coordinates in the given range of the
+     * given arrays, in place, splitting large ranges across the given
+     * pool.
+     *
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param zs The z positions
+     * @param from The index of the first coordinate, inclusive
+     * @param to The index of the last coordinate, exclusive
+     * @param pool The pool to compute within
+     */
+    public void apply(final double[] xs, final double[] ys, final double[] zs, final int from, final int to, final ForkJoinPool pool) {
+        this.apply(xs, ys, zs, from, to, xs, ys, zs, from, pool);
+    }
+
+    /**
+     * Applies the transform to the coordinates in the given range of the
+     * given source arrays, writing the results to the destination arrays,
+     * splitting large ranges across the common {@link ForkJoinPool}.
+     *
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param zs The z positions
+     * @param from The index of the first coordinate, inclusive
+     * @param to The index of the last coordinate, exclusive
+     * @param dxs The destination x positions
+     * @param dys The destination y positions
+     * @param dzs The destination z positions
+     * @param offset The index of the first destination coordinate
+     */
+    public void apply(final double[] xs, final double[] ys, final double[] zs, final int from, final int to,
+            final double[] dxs, final double[] dys, final double[] dzs, final int offset) {
+        this.apply(xs, ys, zs, from, to, dxs, dys, dzs, offset, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Applies the transform to the coordinates in the given range of the
+     * given source arrays, writing the results to the destination arrays,
+     * splitting large ranges across the given pool.
+     *
+     * <p>The destination arrays may be the source arrays, but must not
+     * otherwise overlap them.</p>
+     *
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param zs The z positions
+     * @param from The index of the first coordinate, inclusive
+     * @param to The index of the last coordinate, exclusive
+     * @param dxs The destination x positions
+     * @param dys The destination y positions
+     * @param dzs The destination z positions
+     * @param offset The index of the first destination coordinate
+     * @param pool The pool to compute within
+     */
+    public void apply(final double[] xs, final double[] ys, final double[] zs, final int from, final int to,
+            final double[] dxs, final double[] dys, final double[] dzs, final int offset, final ForkJoinPool pool) {
+        checkPositionIndexes(from, to, xs.length);
+        checkArgument(ys.length >= to && zs.length >= to, "source arrays are shorter than the range");
+        checkArgument(offset >= 0 && dxs.length - offset >= to - from && dys.length - offset >= to - from && dzs.length - offset >= to - from, "destination arrays are shorter than the range");
+        if (to - from < PARALLEL_THRESHOLD) {
+            this.compute(xs, ys, zs, from, to, dxs, dys, dzs, offset);
+        } else {
+            pool.invoke(new TransformTask(xs, ys, zs, from, to, dxs, dys, dzs, offset));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("row0", "[" + this.m00 + ", " + this.m01 + ", " + this.m02 + ", " + this.m03 + "]")
+                .add("row1", "[" + this.m10 + ", " + this.m11 + ", " + this.m12 + ", " + this.m13 + "]")
+                .add("row2", "[" + this.m20 + ", " + this.m21 + ", " + this.m22 + ", " + this.m23 + "]")
+                .add("row3", "[" + this.m30 + ", " + this.m31 + ", " + this.m32 + ", " + this.m33 + "]")
+                .toString();
+    }
+
+    private void compute(final double[] xs, final double[] ys, final double[] zs, final int from, final int to,
+            final double[] dxs, final double[] dys, final double[] dzs, final int offset) {
+        final double m00 = this.m00, m01 = this.m01, m02 = this.m02, m03 = this.m03;
+        final double m10 = this.m10, m11 = this.m11, m12 = this.m12, m13 = this.m13;
+        final double m20 = this.m20, m21 = this.m21, m22 = this.m22, m23 = this.m23;
+        final double m30 = this.m30, m31 = this.m31, m32 = this.m32, m33 = this.m33;
+        if (this.affine) {
+            for (int i = from, j = offset; i < to; i++, j++) {
+                final double x = xs[i];
+                final double y = ys[i];
+                final double z = zs[i];
+                dxs[j] = m00 * x + m01 * y + m02 * z + m03;
+                dys[j] = m10 * x + m11 * y + m12 * z + m13;
+                dzs[j] = m20 * x + m21 * y + m22 * z + m23;
+            }
+        } else {
+            for (int i = from, j = offset; i < to; i++, j++) {
+                final double x = xs[i];
+                final double y = ys[i];
+                final double z = zs[i];
+                final double inv = 1 / (m30 * x + m31 * y + m32 * z + m33);
+                dxs[j] = (m00 * x + m01 * y + m02 * z + m03) * inv;
+                dys[j] = (m10 * x + m11 * y + m12 * z + m13) * inv;
+                dzs[j] = (m20 * x + m21 * y + m22 * z + m23) * inv;
+            }
+        }
+    }
+
+    private final class TransformTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[] xs;
+        private final double[] ys;
+        private final double[] zs;
+        private final int from;
+        private final int to;
+        private final double[] dxs;
+        private final double[] dys;
+        private final double[] dzs;
+        private final int offset;
+
+        TransformTask(final double[] xs, final double[] ys, final double[] zs, final int from, final int to,
+                final double[] dxs, final double[] dys, final double[] dzs, final int offset) {
+            this.xs = xs;
+            this.ys = ys;
+            this.zs = zs;
+            this.from = from;
+            this.to = to;
+            this.dxs = dxs;
+            this.dys = dys;
+            this.dzs = dzs;
+            this.offset = offset;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from < PARALLEL_THRESHOLD) {
+                Coordinate3dTransform.this.compute(this.xs, this.ys, this.zs, this.from, this.to, this.dxs, this.dys, this.dzs, this.offset);
+                return;
+            }
+            final int mid = (this.from + this.to) >>> 1;
+            invokeAll(
+                    new TransformTask(this.xs, this.ys, this.zs, this.from, mid, this.dxs, this.dys, this.dzs, this.offset),
+                    new TransformTask(this.xs, this.ys, this.zs, mid, this.to, this.dxs, this.dys, this.dzs, this.offset + (mid - this.from))
+            );
+        }
+
+    }
+
+}
@@ -0,0 +1,288 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.coord;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.google.common.base.MoreObjects;
+
+/**
+ * Packs {@link Coordinate3i}s into a single long, using a configurable
+ * number of bits for each component.
+ *
+ * <p>The x position occupies the most significant bits, followed by
+ * the y position, and then the z position. Each component is stored
+ * in two's complement, so a component of {@code n} bits may hold
+ * values in the range {@code [-2^(n-1), 2^(n-1))}.</p>
+ *
+ * <p>Packing does not check the range of the components, and values
+ * that do not fit wrap around - use {@link #fits(int, int, int)} where
+ * the input is not trusted.</p>
+ */
+public final class Coordinate3iPacker {
+
+    /**
+     * A packer using 26 bits for x and z, and 12 bits for y - the
+     * layout commonly used for block positions.
+     */
+    public static final Coordinate3iPacker BLOCK_POS = new Coordinate3iPacker(26, 12, 26);
+
+    /**
+     * A packer using 21 bits for each of the components.
+     */
+    public static final Coordinate3iPacker UNIFORM = new Coordinate3iPacker(21, 21, 21);
+
+    private final int xBits;
+    private final int yBits;
+    private final int zBits;
+    private final int xShift;
+    private final int yShift;
+    private final long xMask;
+    private final long yMask;
+    private final long zMask;
+
+    /**
+     * Creates a packer with the given number of bits for each component.
+     *
+     * @param xBits The number of bits for the x position
+     * @param yBits The number of bits for the y position
+     * @param zBits The number of bits for the z position
+     */
+    public Coordinate3iPacker(final int xBits, final int yBits, final int zBits) {
+        checkArgument(xBits > 0 && xBits <= 32, "xBits must be within [1, 32]");
+        checkArgument(yBits > 0 && yBits <= 32, "yBits must be within [1, 32]");
+        checkArgument(zBits > 0 && zBits <= 32, "zBits must be within [1, 32]");
+        checkArgument(xBits + yBits + zBits <= 64, "Components cannot use more than 64 bits combined");
+        this.xBits = xBits;
+        this.yBits = yBits;
+        this.zBits = zBits;
+        this.yShift = zBits;
+        this.xShift = yBits + zBits;
+        this.xMask = (1L << xBits) - 1;
+        this.yMask = (1L << yBits) - 1;
+        this.zMask = (1L << zBits) - 1;
+    }
+
+    /**
+     * Gets the number of bits used for the x position.
+     *
+     * @return The number of bits
+     */
+    public int getXBits() {
+        return this.xBits;
+    }
+
+    /**
+     * Gets the number of bits used for the y position.
+     *
+     * @return The number of bits
+     */
+    public int getYBits() {
+        return this.yBits;
+    }
+
+    /**
+     * Gets the number of bits used for the z position.
+     *
+     * @return The number of bits
+     */
+    public int getZBits() {
+        return this.zBits;
+    }
+
+    /**
+     * Establishes whether the given coordinate can be packed without
+     * any of its components wrapping around.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @return {@code true} if the coordinate fits
+     */
+    public boolean fits(final int x, final int y, final int z) {
+        return fits(x, this.xBits) && fits(y, this.yBits) && fits(z, this.zBits);
+    }
+
+    /**
+     * Packs the given coordinate.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @return The packed coordinate
+     */
+    public long pack(final int x, final int y, final int z) {
+        return ((x & this.xMask) << this.xShift) | ((y & this.yMask) << this.yShift) | (z & this.zMask);
+    }
+
+    /**
+     * Packs the given coordinate.
+     *
+     * @param coord The coordinate
+     * @return The packed coordinate
+     * @throws IllegalArgumentException If the coordinate does not fit
+     */
+    public long pack(final Coordinate3i coord) {
+        checkArgument(this.fits(coord.getX(), coord.getY(), coord.getZ()), "%s does not fit within %s", coord, this);
+        return this.pack(coord.getX(), coord.getY(), coord.getZ());
+    }
+
+    /**
+     * Unpacks the given packed coordinate.
+     *
+     * @param packed The packed coordinate
+     * @return The coordinate
+     */
+    public Coordinate3i unpack(final long packed) {
+        return new Coordinate3i(this.getX(packed), this.getY(packed), this.getZ(packed));
+    }
+
+    /**
+     * Gets the x position of the given packed coordinate.
+     *
+     * @param packed The packed coordinate
+     * @return The x pos
+     */
+    public int getX(final long packed) {
+        return (int) (packed << (64 - this.xShift - this.xBits) >> (64 - this.xBits));
+    }
+
+    /**
+     * Gets the y position of the given packed coordinate.
+     *
+     * @param packed The packed coordinate
+     * @return The y pos
+     */
+    public int getY(final long packed) {
+        return (int) (packed << (64 - this.yShift - this.yBits) >> (64 - this.yBits));
+    }
+
+    /**
+     * Gets the z position of the given packed coordinate.
+     *
+     * @param packed The packed coordinate
+     * @return The z pos
+     */
+    public int getZ(final long packed) {
+        return (int) (packed << (64 - this.zBits) >> (64 - this.zBits));
+    }
+
+    /**
+     * Offsets the given packed coordinate by the given amounts.
+     *
+     * @param packed The packed coordinate
+     * @param dx The x offset
+     * @param dy The y offset
+     * @param dz The z offset
+     * @return The packed coordinate
+     */
+    public long offset(final long packed, final int dx, final int dy, final int dz) {
+        return this.pack(this.getX(packed) + dx, this.getY(packed) + dy, this.getZ(packed) + dz);
+    }
+
+    /**
+     * Moves the given packed coordinate by the given {@link Vector3i}.
+     *
+     * @param packed The packed coordinate
+     * @param vector3i The given vector
+     * @return The packed coordinate
+     */
+    public long move(final long packed, final Vector3i vector3i) {
+        return this.offset(packed, vector3i.getX(), vector3i.getY(), vector3i.getZ());
+    }
+
+    /**
+     * Writes the six face-adjacent neighbours of the given packed
+     * coordinate into the given array, in the order -x, +x, -y, +y,
+     * -z, +z.
+     *
+     * @param packed The packed coordinate
+     * @param dest The destination, of at least 6 elements
+     * @return The destination
+     */
+    public long[] neighbours(final long packed, final long[] dest) {
+        final int x = this.getX(packed);
+        final int y = this.getY(packed);
+        final int z = this.getZ(packed);
+        dest[0] = this.pack(x - 1, y, z);
+        dest[1] = this.pack(x + 1, y, z);
+        dest[2] = this.pack(x, y - 1, z);
+        dest[3] = this.pack(x, y + 1, z);
+        dest[4] = this.pack(x, y, z - 1);
+        dest[5] = this.pack(x, y, z + 1);
+        return dest;
+    }
+
+    /**
+     * Packs every coordinate of the given arrays into the destination.
+     *
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param zs The z positions
+     * @param dest The destination
+     * @param count The number of coordinates to pack
+     */
+    public void packAll(final int[] xs, final int[] ys, final int[] zs, final long[] dest, final int count) {
+        for (int i = 0; i < count; i++) {
+            dest[i] = this.pack(xs[i], ys[i], zs[i]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("xBits", this.xBits)
+                .add("yBits", this.yBits)
+                .add("zBits", this.zBits)
+                .toString();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Coordinate3iPacker)) {
+            return false;
+        }
+        final Coordinate3iPacker that = (Coordinate3iPacker) obj;
+
+        return this.xBits == that.xBits &&
+                this.yBits == that.yBits &&
+                this.zBits == that.zBits;
+    }
+
+    @Override
+    public int hashCode() {
+        return (this.xBits * 31 + this.yBits) * 31 + this.zBits;
+    }
+
+    private static boolean fits(final int value, final int bits) {
+        return bits == 32 || (value >= -(1 << (bits - 1)) && value < (1 << (bits - 1)));
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.coord;
+
+/**
+ * Hash functions for integer coordinates, that avoid the boxing
+ * and poor dispersion of {@link java.util.Objects#hash(Object...)}.
+ *
+ * <p>Every component is multiplied by a distinct odd constant, and
+ * the result is passed through the MurmurHash3 64-bit finaliser, so
+ * that neighbouring coordinates on dense grids are spread over the
+ * full range of the hash.</p>
+ */
+public final class CoordinateHash {
+
+    private static final long C1 = 0x9E3779B97F4A7C15L;
+    private static final long C2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long C3 = 0x165667B19E3779F9L;
+
+    /**
+     * Applies the MurmurHash3 64-bit finaliser to the given value.
+     *
+     * @param value The value to mix
+     * @return The mixed value
+     */
+    public static long mix(final long value) {
+        long mixed = value;
+        mixed ^= mixed >>> 33;
+        mixed *= 0xFF51AFD7ED558CCDL;
+        mixed ^= mixed >>> 33;
+        mixed *= 0xC4CEB9FE1A85EC53L;
+        mixed ^= mixed >>> 33;
+        return mixed;
+    }
+
+    /**
+     * Hashes a 2-dimensional integer coordinate.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @return The hash
+     */
+    public static int hash(final int x, final int y) {
+        return fold(mix(x * C1 ^ y * C2));
+    }
+
+    /**
+     * Hashes a 3-dimensional integer coordinate.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @return The hash
+     */
+    public static int hash(final int x, final int y, final int z) {
+        return fold(mix(x * C1 ^ y * C2 ^ z * C3));
+    }
+
+    /**
+     * Hashes a 2-dimensional long coordinate.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @return The hash
+     */
+    public static int hash(final long x, final long y) {
+        return fold(mix(mix(x * C1) ^ y * C2));
+    }
+
+    /**
+     * Hashes a 3-dimensional long coordinate.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @return The hash
+     */
+    public static int hash(final long x, final long y, final long z) {
+        return fold(mix(mix(mix(x * C1) ^ y * C2) ^ z * C3));
+    }
+
+    /**
+     * Hashes a coordinate that has already been packed into a single
+     * long.
+     *
+     * @param packed The packed coordinate
+     * @return The hash
+     */
+    public static int hash(final long packed) {
+        return fold(mix(packed * C1));
+    }
+
+    private static int fold(final long hash) {
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private CoordinateHash() {
+    }
+
+}
@@ -0,0 +1,267 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.coord;
+
+import com.flowpowered.math.vector.Vector2f;
+import com.google.common.base.MoreObjects;
+
+/**
+ * A mutable counterpart to {@link Coordinate2f}, for hot loops where
+ * creating a new coordinate on every move is too costly.
+ *
+ * <p>Every mutator modifies the coordinate in place and returns it, so
+ * calls may be chained. Short-lived coordinates may be borrowed from a
+ * per-thread pool with {@link #acquire()}, and given back with
+ * {@link #release()}.</p>
+ *
+ * <p>As its position may change, a mutable coordinate has identity
+ * equality, and should not be used as a key; use
+ * {@link #toImmutable()} instead.</p>
+ */
+public final class MutableCoordinate2f {
+
+    private static final ThreadLocal<ScratchPool<MutableCoordinate2f>> SCRATCH =
+            ThreadLocal.withInitial(() -> new ScratchPool<>(MutableCoordinate2f::new));
+
+    /**
+     * Creates a mutable coordinate with the position of the given
+     * {@link Coordinate2f}.
+     *
+     * @param coord The coordinate
+     * @return The mutable coordinate
+     */
+    public static MutableCoordinate2f from(final Coordinate2f coord) {
+        return new MutableCoordinate2f(coord.getX(), coord.getY());
+    }
+
+    /**
+     * Borrows a coordinate from the current thread's pool, positioned at
+     * the origin.
+     *
+     * <p>The coordinate must be given back, by {@link #release()}, on the
+     * same thread, and coordinates must be given back in the reverse
+     * order they were borrowed. Once the pool is warm, borrowing creates
+     * no objects.</p>
+     *
+     * @return The coordinate
+     */
+    public static MutableCoordinate2f acquire() {
+        return SCRATCH.get().acquire().set(0, 0);
+    }
+
+    private float x;
+    private float y;
+
+    /**
+     * Creates a mutable coordinate at the origin.
+     */
+    public MutableCoordinate2f() {
+    }
+
+    /**
+     * Creates a mutable 2-dimensional coordinate.
+     *
+     * @param x The x position
+     * @param y The y position
+     */
+    public MutableCoordinate2f(final float x, final float y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Gets the x position of the coordinate.
+     *
+     * @return The x pos
+     */
+    public float getX() {
+        return this.x;
+    }
+
+    /**
+     * Gets the y position of the coordinate.
+     *
+     * @return The y pos
+     */
+    public float getY() {
+        return this.y;
+    }
+
+    /**
+     * Sets the position of the coordinate.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @return This coordinate
+     */
+    public MutableCoordinate2f set(final float x, final float y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+
+    /**
+     * Sets the position of the coordinate to that of the given
+     * {@link Coordinate2f}.
+     *
+     * @param coord The coordinate
+     * @return This coordinate
+     */
+    public MutableCoordinate2f set(final Coordinate2f coord) {
+        return this.set(coord.getX(), coord.getY());
+    }
+
+    /**
+     * Sets the position of the coordinate to that of the given mutable
+     * coordinate.
+     *
+     * @param coord The coordinate
+     * @return This coordinate
+     */
+    public MutableCoordinate2f set(final MutableCoordinate2f coord) {
+        return this.set(coord.x, coord.y);
+    }
+
+    /**
+     * Moves the coordinate by the given amounts.
+     *
+     * @param dx The x offset
+     * @param dy The y offset
+     * @return This coordinate
+     */
+    public MutableCoordinate2f move(final float dx, final float dy) {
+        this.x += dx;
+        this.y += dy;
+        return this;
+    }
+
+    /**
+     * Moves the coordinate by the given {@link Vector2f}.
+     *
+     * @param vector2f The given vector
+     * @return This coordinate
+     */
+    public MutableCoordinate2f move(final Vector2f vector2f) {
+        return this.move(vector2f.getX(), vector2f.getY());
+    }
+
+    /**
+     * Moves the coordinate by the given {@link Vector2f}, scaled by the
+     * given factor.
+     *
+     * @param vector2f The given vector
+     * @param factor The factor
+     * @return This coordinate
+     */
+    public MutableCoordinate2f move(final Vector2f vector2f, final float factor) {
+        return this.move(vector2f.getX() * factor, vector2f.getY() * factor);
+    }
+
+    /**
+     * Moves the coordinate by the offset of the given coordinate from
+     * the origin.
+     *
+     * @param coord The coordinate
+     * @return This coordinate
+     */
+    public MutableCoordinate2f move(final MutableCoordinate2f coord) {
+        return this.move(coord.x, coord.y);
+    }
+
+    /**
+     * Scales the coordinate by the given factors.
+     *
+     * @param sx The x factor
+     * @param sy The y factor
+     * @return This coordinate
+     */
+    public MutableCoordinate2f scale(final float sx, final float sy) {
+        this.x *= sx;
+        this.y *= sy;
+        return this;
+    }
+
+    /**
+     * Scales the coordinate by the given factor.
+     *
+     * @param factor The factor
+     * @return This coordinate
+     */
+    public MutableCoordinate2f scale(final float factor) {
+        return this.scale(factor, factor);
+    }
+
+    /**
+     * Scales the coordinate by the given {@link Vector2f}.
+     *
+     * @param vector2f The given vector
+     * @return This coordinate
+     */
+    public MutableCoordinate2f scale(final Vector2f vector2f) {
+        return this.scale(vector2f.getX(), vector2f.getY());
+    }
+
+    /**
+     * Negates the coordinate, reflecting it through the origin.
+     *
+     * @return This coordinate
+     */
+    public MutableCoordinate2f negate() {
+        return this.set(-this.x, -this.y);
+    }
+
+    /**
+     * Copies the position of the coordinate into a new
+     * {@link Coordinate2f}.
+     *
+     * @return The coordinate
+     */
+    public Coordinate2f toImmutable() {
+        return new Coordinate2f(this.x, this.y);
+    }
+
+    /**
+     * Gives the coordinate back to the current thread's pool, having been
+     * borrowed by {@link #acquire()}.
+     *
+     * <p>The coordinate must not be used once given back.</p>
+     *
+     * @throws IllegalStateException If the coordinate is not the one most
+     *         recently borrowed, on this thread
+     */
+    public void release() {
+        SCRATCH.get().release(this);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("x", this.x)
+                .add("y", this.y)
+                .toString();
+    }
+
+}
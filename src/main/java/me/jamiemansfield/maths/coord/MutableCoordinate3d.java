@@ -0,0 +1,286 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.coord;
+
+import com.flowpowered.math.vector.Vector3d;
+import com.google.common.base.MoreObjects;
+
+/**
+ * A mutable counterpart to {@link Coordinate3d}, for hot loops where
+ * creating a new coordinate on every move is too costly.
+ *
+ * <p>Every mutator modifies the coordinate in place and returns it, so
+ * calls may be chained. Short-lived coordinates may be borrowed from a
+ * per-thread pool with {@link #acquire()}, and given back with
+ * {@link #release()}.</p>
+ *
+ * <p>As its position may change, a mutable coordinate has identity
+ * equality, and should not be used as a key; use
+ * {@link #toImmutable()} instead.</p>
+ */
+public final class MutableCoordinate3d {
+
+    private static final ThreadLocal<ScratchPool<MutableCoordinate3d>> SCRATCH =
+            ThreadLocal.withInitial(() -> new ScratchPool<>(MutableCoordinate3d::new));
+
+    /**
+     * Creates a mutable coordinate with the position of the given
+     * {@link Coordinate3d}.
+     *
+     * @param coord The coordinate
+     * @return The mutable coordinate
+     */
+    public static MutableCoordinate3d from(final Coordinate3d coord) {
+        return new MutableCoordinate3d(coord.getX(), coord.getY(), coord.getZ());
+    }
+
+    /**
+     * Borrows a coordinate from the current thread's pool, positioned at
+     * the origin.
+     *
+     * <p>The coordinate must be given back, by {@link #release()}, on the
+     * same thread, and coordinates must be given back in the reverse
+     * order they were borrowed. Once the pool is warm, borrowing creates
+     * no objects.</p>
+     *
+     * @return The coordinate
+     */
+    public static MutableCoordinate3d acquire() {
+        return SCRATCH.get().acquire().set(0, 0, 0);
+    }
+
+    private double x;
+    private double y;
+    private double z;
+
+    /**
+     * Creates a mutable coordinate at the origin.
+     */
+    public MutableCoordinate3d() {
+    }
+
+    /**
+     * Creates a mutable 3-dimensional coordinate.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     */
+    public MutableCoordinate3d(final double x, final double y, final double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Gets the x position of the coordinate.
+     *
+     * @return The x pos
+     */
+    public double getX() {
+        return this.x;
+    }
+
+    /**
+     * Gets the y position of the coordinate.
+     *
+     * @return The y pos
+     */
+    public double getY() {
+        return this.y;
+    }
+
+    /**
+     * Gets the z position of the coordinate.
+     *
+     * @return The z pos
+     */
+    public double getZ() {
+        return this.z;
+    }
+
+    /**
+     * Sets the position of the coordinate.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @return This coordinate
+     */
+    public MutableCoordinate3d set(final double x, final double y, final double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    /**
+     * Sets the position of the coordinate to that of the given
+     * {@link Coordinate3d}.
+     *
+     * @param coord The coordinate
+     * @return This coordinate
+     */
+    public MutableCoordinate3d set(final Coordinate3d coord) {
+        return this.set(coord.getX(), coord.getY(), coord.getZ());
+    }
+
+    /**
+     * Sets the position of the coordinate to that of the given mutable
+     * coordinate.
+     *
+     * @param coord The coordinate
+     * @return This coordinate
+     */
+    public MutableCoordinate3d set(final MutableCoordinate3d coord) {
+        return this.set(coord.x, coord.y, coord.z);
+    }
+
+    /**
+     * Moves the coordinate by the given amounts.
+     *
+     * @param dx The x offset
+     * @param dy The y offset
+     * @param dz The z offset
+     * @return This coordinate
+     */
+    public MutableCoordinate3d move(final double dx, final double dy, final double dz) {
+        this.x += dx;
+        this.y += dy;
+        this.z += dz;
+        return this;
+    }
+
+    /**
+     * Moves the coordinate by the given {@link Vector3d}.
+     *
+     * @param vector3d The given vector
+     * @return This coordinate
+     */
+    public MutableCoordinate3d move(final Vector3d vector3d) {
+        return this.move(vector3d.getX(), vector3d.getY(), vector3d.getZ());
+    }
+
+    /**
+     * Moves the coordinate by the given {@link Vector3d}, scaled by the
+     * given factor.
+     *
+     * @param vector3d The given vector
+     * @param factor The factor
+     * @return This coordinate
+     */
+    public MutableCoordinate3d move(final Vector3d vector3d, final double factor) {
+        return this.move(vector3d.getX() * factor, vector3d.getY() * factor, vector3d.getZ() * factor);
+    }
+
+    /**
+     * Moves the coordinate by the offset of the given coordinate from
+     * the origin.
+     *
+     * @param coord The coordinate
+     * @return This coordinate
+     */
+    public MutableCoordinate3d move(final MutableCoordinate3d coord) {
+        return this.move(coord.x, coord.y, coord.z);
+    }
+
+    /**
+     * Scales the coordinate by the given factors.
+     *
+     * @param sx The x factor
+     * @param sy The y factor
+     * @param sz The z factor
+     * @return This coordinate
+     */
+    public MutableCoordinate3d scale(final double sx, final double sy, final double sz) {
+        this.x *= sx;
+        this.y *= sy;
+        this.z *= sz;
+        return this;
+    }
+
+    /**
+     * Scales the coordinate by the given factor.
+     *
+     * @param factor The factor
+     * @return This coordinate
+     */
+    public MutableCoordinate3d scale(final double factor) {
+        return this.scale(factor, factor, factor);
+    }
+
+    /**
+     * Scales the coordinate by the given {@link Vector3d}.
+     *
+     * @param vector3d The given vector
+     * @return This coordinate
+     */
+    public MutableCoordinate3d scale(final Vector3d vector3d) {
+        return this.scale(vector3d.getX(), vector3d.getY(), vector3d.getZ());
+    }
+
+    /**
+     * Negates the coordinate, reflecting it through the origin.
+     *
+     * @return This coordinate
+     */
+    public MutableCoordinate3d negate() {
+        return this.set(-this.x, -this.y, -this.z);
+    }
+
+    /**
+     * Copies the position of the coordinate into a new
+     * {@link Coordinate3d}.
+     *
+     * @return The coordinate
+     */
+    public Coordinate3d toImmutable() {
+        return new Coordinate3d(this.x, this.y, this.z);
+    }
+
+    /**
+     * Gives the coordinate back to the current thread's pool, having been
+     * borrowed by {@link #acquire()}.
+     *
+     * <p>The coordinate must not be used once given back.</p>
+     *
+     * @throws IllegalStateException If the coordinate is not the one most
+     *         recently borrowed, on this thread
+     */
+    public void release() {
+        SCRATCH.get().release(this);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("x", this.x)
+                .add("y", this.y)
+                .add("z", this.z)
+                .toString();
+    }
+
+}
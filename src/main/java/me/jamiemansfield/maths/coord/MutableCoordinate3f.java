@@ -0,0 +1,286 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.coord;
+
+import com.flowpowered.math.vector.Vector3f;
+import com.google.common.base.MoreObjects;
+
+/**
+ * A mutable counterpart to {@link Coordinate3f}, for hot loops where
+ * creating a new coordinate on every move is too costly.
+ *
+ * <p>Every mutator modifies the coordinate in place and returns it, so
+ * calls may be chained. Short-lived coordinates may be borrowed from a
+ * per-thread pool with {@link #acquire()}, and given back with
+ * {@link #release()}.</p>
+ *
+ * <p>As its position may change, a mutable coordinate has identity
+ * equality, and should not be used as a key; use
+ * {@link #toImmutable()} instead.</p>
+ */
+public final class MutableCoordinate3f {
+
+    private static final ThreadLocal<ScratchPool<MutableCoordinate3f>> SCRATCH =
+            ThreadLocal.withInitial(() -> new ScratchPool<>(MutableCoordinate3f::new));
+
+    /**
+     * Creates a mutable coordinate with the position of the given
+     * {@link Coordinate3f}.
+     *
+     * @param coord The coordinate
+     * @return The mutable coordinate
+     */
+    public static MutableCoordinate3f from(final Coordinate3f coord) {
+        return new MutableCoordinate3f(coord.getX(), coord.getY(), coord.getZ());
+    }
+
+    /**
+     * Borrows a coordinate from the current thread's pool, positioned at
+     * the origin.
+     *
+     * <p>The coordinate must be given back, by {@link #release()}, on the
+     * same thread, and coordinates must be given back in the reverse
+     * order they were borrowed. Once the pool is warm, borrowing creates
+     * no objects.</p>
+     *
+     * @return The coordinate
+     */
+    public static MutableCoordinate3f acquire() {
+        return SCRATCH.get().acquire().set(0, 0, 0);
+    }
+
+    private float x;
+    private float y;
+    private float z;
+
+    /**
+     * Creates a mutable coordinate at the origin.
+     */
+    public MutableCoordinate3f() {
+    }
+
+    /**
+     * Creates a mutable 3-dimensional coordinate.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     */
+    public MutableCoordinate3f(final float x, final float y, final float z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Gets the x position of the coordinate.
+     *
+     * @return The x pos
+     */
+    public float getX() {
+        return this.x;
+    }
+
+    /**
+     * Gets the y position of the coordinate.
+     *
+     * @return The y pos
+     */
+    public float getY() {
+        return this.y;
+    }
+
+    /**
+     * Gets the z position of the coordinate.
+     *
+     * @return The z pos
+     */
+    public float getZ() {
+        return this.z;
+    }
+
+    /**
+     * Sets the position of the coordinate.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @return This coordinate
+     */
+    public MutableCoordinate3f set(final float x, final float y, final float z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    /**
+     * Sets the position of the coordinate to that of the given
+     * {@link Coordinate3f}.
+     *
+     * @param coord The coordinate
+     * @return This coordinate
+     */
+    public MutableCoordinate3f set(final Coordinate3f coord) {
+        return this.set(coord.getX(), coord.getY(), coord.getZ());
+    }
+
+    /**
+     * Sets the position of the coordinate to that of the given mutable
+     * coordinate.
+     *
+     * @param coord The coordinate
+     * @return This coordinate
+     */
+    public MutableCoordinate3f set(final MutableCoordinate3f coord) {
+        return this.set(coord.x, coord.y, coord.z);
+    }
+
+    /**
+     * Moves the coordinate by the given amounts.
+     *
+     * @param dx The x offset
+     * @param dy The y offset
+     * @param dz The z offset
+     * @return This coordinate
+     */
+    public MutableCoordinate3f move(final float dx, final float dy, final float dz) {
+        this.x += dx;
+        this.y += dy;
+        this.z += dz;
+        return this;
+    }
+
+    /**
+     * Moves the coordinate by the given {@link Vector3f}.
+     *
+     * @param vector3f The given vector
+     * @return This coordinate
+     */
+    public MutableCoordinate3f move(final Vector3f vector3f) {
+        return this.move(vector3f.getX(), vector3f.getY(), vector3f.getZ());
+    }
+
+    /**
+     * Moves the coordinate by the given {@link Vector3f}, scaled by the
+     * given factor.
+     *
+     * @param vector3f The given vector
+     * @param factor The factor
+     * @return This coordinate
+     */
+    public MutableCoordinate3f move(final Vector3f vector3f, final float factor) {
+        return this.move(vector3f.getX() * factor, vector3f.getY() * factor, vector3f.getZ() * factor);
+    }
+
+    /**
+     * Moves the coordinate by the offset of the given coordinate from
+     * the origin.
+     *
+     * @param coord The coordinate
+     * @return This coordinate
+     */
+    public MutableCoordinate3f move(final MutableCoordinate3f coord) {
+        return this.move(coord.x, coord.y, coord.z);
+    }
+
+    /**
+     * Scales the coordinate by the given factors.
+     *
+     * @param sx The x factor
+     * @param sy The y factor
+     * @param sz The z factor
+     * @return This coordinate
+     */
+    public MutableCoordinate3f scale(final float sx, final float sy, final float sz) {
+        this.x *= sx;
+        this.y *= sy;
+        this.z *= sz;
+        return this;
+    }
+
+    /**
+     * Scales the coordinate by the given factor.
+     *
+     * @param factor The factor
+     * @return This coordinate
+     */
+    public MutableCoordinate3f scale(final float factor) {
+        return this.scale(factor, factor, factor);
+    }
+
+    /**
+     * Scales the coordinate by the given {@link Vector3f}.
+     *
+     * @param vector3f The given vector
+     * @return This coordinate
+     */
+    public MutableCoordinate3f scale(final Vector3f vector3f) {
+        return this.scale(vector3f.getX(), vector3f.getY(), vector3f.getZ());
+    }
+
+    /**
+     * Negates the coordinate, reflecting it through the origin.
+     *
+     * @return This coordinate
+     */
+    public MutableCoordinate3f negate() {
+        return this.set(-this.x, -this.y, -this.z);
+    }
+
+    /**
+     * Copies the position of the coordinate into a new
+     * {@link Coordinate3f}.
+     *
+     * @return The coordinate
+     */
+    public Coordinate3f toImmutable() {
+        return new Coordinate3f(this.x, this.y, this.z);
+    }
+
+    /**
+     * Gives the coordinate back to the current thread's pool, having been
+     * borrowed by {@link #acquire()}.
+     *
+     * <p>The coordinate must not be used once given back.</p>
+     *
+     * @throws IllegalStateException If the coordinate is not the one most
+     *         recently borrowed, on this thread
+     */
+    public void release() {
+        SCRATCH.get().release(this);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("x", this.x)
+                .add("y", this.y)
+                .add("z", this.z)
+                .toString();
+    }
+
+}
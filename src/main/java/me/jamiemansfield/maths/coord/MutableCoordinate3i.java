@@ -0,0 +1,286 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.coord;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.google.common.base.MoreObjects;
+
+/**
+ * A mutable counterpart to {@link Coordinate3i}, for hot loops where
+ * creating a new coordinate on every move is too costly.
+ *
+ * <p>Every mutator modifies the coordinate in place and returns it, so
+ * calls may be chained. Short-lived coordinates may be borrowed from a
+ * per-thread pool with {@link #acquire()}, and given back with
+ * {@link #release()}.</p>
+ *
+ * <p>As its position may change, a mutable coordinate has identity
+ * equality, and should not be used as a key; use
+ * {@link #toImmutable()} instead.</p>
+ */
+public final class MutableCoordinate3i {
+
+    private static final ThreadLocal<ScratchPool<MutableCoordinate3i>> SCRATCH =
+            ThreadLocal.withInitial(() -> new ScratchPool<>(MutableCoordinate3i::new));
+
+    /**
+     * Creates a mutable coordinate with the position of the given
+     * {@link Coordinate3i}.
+     *
+     * @param coord The coordinate
+     * @return The mutable coordinate
+     */
+    public static MutableCoordinate3i from(final Coordinate3i coord) {
+        return new MutableCoordinate3i(coord.getX(), coord.getY(), coord.getZ());
+    }
+
+    /**
+     * Borrows a coordinate from the current thread's pool, positioned at
+     * the origin.
+     *
+     * <p>The coordinate must be given back, by {@link #release()}, on the
+     * same thread, and coordinates must be given back in the reverse
+     * order they were borrowed. Once the pool is warm, borrowing creates
+     * no objects.</p>
+     *
+     * @return The coordinate
+     */
+    public static MutableCoordinate3i acquire() {
+        return SCRATCH.get().acquire().set(0, 0, 0);
+    }
+
+    private int x;
+    private int y;
+    private int z;
+
+    /**
+     * Creates a mutable coordinate at the origin.
+     */
+    public MutableCoordinate3i() {
+    }
+
+    /**
+     * Creates a mutable 3-dimensional coordinate.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     */
+    public MutableCoordinate3i(final int x, final int y, final int z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Gets the x position of the coordinate.
+     *
+     * @return The x pos
+     */
+    public int getX() {
+        return this.x;
+    }
+
+    /**
+     * Gets the y position of the coordinate.
+     *
+     * @return The y pos
+     */
+    public int getY() {
+        return this.y;
+    }
+
+    /**
+     * Gets the z position of the coordinate.
+     *
+     * @return The z pos
+     */
+    public int getZ() {
+        return this.z;
+    }
+
+    /**
+     * Sets the position of the coordinate.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @return This coordinate
+     */
+    public MutableCoordinate3i set(final int x, final int y, final int z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    /**
+     * Sets the position of the coordinate to that of the given
+     * {@link Coordinate3i}.
+     *
+     * @param coord The coordinate
+     * @return This coordinate
+     */
+    public MutableCoordinate3i set(final Coordinate3i coord) {
+        return this.set(coord.getX(), coord.getY(), coord.getZ());
+    }
+
+    /**
+     * Sets the position of the coordinate to that of the given mutable
+     * coordinate.
+     *
+     * @param coord The coordinate
+     * @return This coordinate
+     */
+    public MutableCoordinate3i set(final MutableCoordinate3i coord) {
+        return this.set(coord.x, coord.y, coord.z);
+    }
+
+    /**
+     * Moves the coordinate by the given amounts.
+     *
+     * @param dx The x offset
+     * @param dy The y offset
+     * @param dz The z offset
+     * @return This coordinate
+     */
+    public MutableCoordinate3i move(final int dx, final int dy, final int dz) {
+        this.x += dx;
+        this.y += dy;
+        this.z += dz;
+        return this;
+    }
+
+    /**
+     * Moves the coordinate by the given {@link Vector3i}.
+     *
+     * @param vector3i The given vector
+     * @return This coordinate
+     */
+    public MutableCoordinate3i move(final Vector3i vector3i) {
+        return this.move(vector3i.getX(), vector3i.getY(), vector3i.getZ());
+    }
+
+    /**
+     * Moves the coordinate by the given {@link Vector3i}, scaled by the
+     * given factor.
+     *
+     * @param vector3i The given vector
+     * @param factor The factor
+     * @return This coordinate
+     */
+    public MutableCoordinate3i move(final Vector3i vector3i, final int factor) {
+        return this.move(vector3i.getX() * factor, vector3i.getY() * factor, vector3i.getZ() * factor);
+    }
+
+    /**
+     * Moves the coordinate by the offset of the given coordinate from
+     * the origin.
+     *
+     * @param coord The coordinate
+     * @return This coordinate
+     */
+    public MutableCoordinate3i move(final MutableCoordinate3i coord) {
+        return this.move(coord.x, coord.y, coord.z);
+    }
+
+    /**
+     * Scales the coordinate by the given factors.
+     *
+     * @param sx The x factor
+     * @param sy The y factor
+     * @param sz The z factor
+     * @return This coordinate
+     */
+    public MutableCoordinate3i scale(final int sx, final int sy, final int sz) {
+        this.x *= sx;
+        this.y *= sy;
+        this.z *= sz;
+        return this;
+    }
+
+    /**
+     * Scales the coordinate by the given factor.
+     *
+     * @param factor The factor
+     * @return This coordinate
+     */
+    public MutableCoordinate3i scale(final int factor) {
+        return this.scale(factor, factor, factor);
+    }
+
+    /**
+     * Scales the coordinate by the given {@link Vector3i}.
+     *
+     * @param vector3i The given vector
+     * @return This coordinate
+     */
+    public MutableCoordinate3i scale(final Vector3i vector3i) {
+        return this.scale(vector3i.getX(), vector3i.getY(), vector3i.getZ());
+    }
+
+    /**
+     * Negates the coordinate, reflecting it through the origin.
+     *
+     * @return This coordinate
+     */
+    public MutableCoordinate3i negate() {
+        return this.set(-this.x, -this.y, -this.z);
+    }
+
+    /**
+     * Copies the position of the coordinate into a new
+     * {@link Coordinate3i}.
+     *
+     * @return The coordinate
+     */
+    public Coordinate3i toImmutable() {
+        return new Coordinate3i(this.x, this.y, this.z);
+    }
+
+    /**
+     * Gives the coordinate back to the current thread's pool, having been
+     * borrowed by {@link #acquire()}.
+     *
+     * <p>The coordinate must not be used once given back.</p>
+     *
+     * @throws IllegalStateException If the coordinate is not the one most
+     *         recently borrowed, on this thread
+     */
+    public void release() {
+        SCRATCH.get().release(this);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("x", this.x)
+                .add("y", this.y)
+                .add("z", this.z)
+                .toString();
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.coord;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * A per-thread stack of scratch objects, backing the {@code acquire} and
+ * {@code release} methods of the mutable coordinates.
+ *
+ * <p>Objects are created as the stack first grows, and are reused
+ * thereafter, so a loop that acquires and releases in a balanced fashion
+ * allocates nothing once warm.</p>
+ *
+ * @param <T> The type of the scratch objects
+ */
+final class ScratchPool<T> {
+
+    private final Supplier<T> factory;
+    private Object[] items = new Object[8];
+    private int size;
+
+    ScratchPool(final Supplier<T> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Takes an object from the top of the stack, creating one where the
+     * stack has never been this deep before.
+     *
+     * @return The object
+     */
+    @SuppressWarnings("unchecked")
+    T acquire() {
+        if (this.size == this.items.length) {
+            this.items = Arrays.copyOf(this.items, this.size * 2);
+        }
+        if (this.items[this.size] == null) {
+            this.items[this.size] = this.factory.get();
+        }
+        return (T) this.items[this.size++];
+    }
+
+    /**
+     * Returns the given object to the stack, which must be the object
+     * most recently acquired and not yet released.
+     *
+     * @param item The object
+     */
+    void release(final T item) {
+        checkState(this.size > 0 && this.items[this.size - 1] == item,
+                "scratch coordinates must be released in the reverse order they were acquired");
+        this.size--;
+    }
+
+}
@@ -0,0 +1,336 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.curve;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import me.jamiemansfield.maths.coord.Coordinate2i;
+import me.jamiemansfield.maths.coord.Coordinate2iBuffer;
+
+/**
+ * Space-filling curves over 2-dimensional integer coordinates, which
+ * map each coordinate to a 64-bit key such that coordinates close in
+ * space tend to be close along the curve.
+ *
+ * <p>The full range of both components is supported. Components are
+ * offset by {@code 2^31} before encoding, so keys are ordered as
+ * unsigned 64-bit values.</p>
+ */
+public enum Curve2i {
+
+    /**
+     * The Morton, or Z-order, curve - which simply interleaves the bits
+     * of the components, with x in the least significant position.
+     */
+    MORTON {
+        @Override
+        public long encode(final int x, final int y) {
+            return spread(x ^ SIGN) | (spread(y ^ SIGN) << 1);
+        }
+
+        @Override
+        public int decodeX(final long key) {
+            return compact(key) ^ SIGN;
+        }
+
+        @Override
+        public int decodeY(final long key) {
+            return compact(key >>> 1) ^ SIGN;
+        }
+    },
+
+    /**
+     * The Hilbert curve, which has better locality than the Morton curve
+     * as consecutive keys are always adjacent coordinates - at the cost
+     * of a more expensive transform.
+     *
+     * <p>This uses Skilling's transposition algorithm.</p>
+     */
+    HILBERT {
+        @Override
+        public long encode(final int x, final int y) {
+            int a = x ^ SIGN;
+            int b = y ^ SIGN;
+            for (int q = SIGN; q != 1; q >>>= 1) {
+                final int p = q - 1;
+                if ((a & q) != 0) {
+                    a ^= p;
+                }
+                if ((b & q) != 0) {
+                    a ^= p;
+                } else {
+                    final int t = (a ^ b) & p;
+                    a ^= t;
+                    b ^= t;
+                }
+            }
+            b ^= a;
+            int t = 0;
+            for (int q = SIGN; q != 1; q >>>= 1) {
+                if ((b & q) != 0) {
+                    t ^= q - 1;
+                }
+            }
+            a ^= t;
+            b ^= t;
+            return spread(b) | (spread(a) << 1);
+        }
+
+        @Override
+        public int decodeX(final long key) {
+            return this.decode(key, true);
+        }
+
+        @Override
+        public int decodeY(final long key) {
+            return this.decode(key, false);
+        }
+
+        private int decode(final long key, final boolean x) {
+            int a = compact(key >>> 1);
+            int b = compact(key);
+            int t = b >>> 1;
+            b ^= a;
+            a ^= t;
+            for (int q = 2; q != 0; q <<= 1) {
+                final int p = q - 1;
+                if ((b & q) != 0) {
+                    a ^= p;
+                } else {
+                    t = (a ^ b) & p;
+                    a ^= t;
+                    b ^= t;
+                }
+                if ((a & q) != 0) {
+                    a ^= p;
+                }
+            }
+            return (x ? a : b) ^ SIGN;
+        }
+    };
+
+    private static final int SIGN = 0x80000000;
+    private static final int BITS = 32;
+
+    /**
+     * Encodes the given coordinate.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @return The key
+     */
+    public abstract long encode(int x, int y);
+
+    /**
+     * Gets the x position of the coordinate with the given key.
+     *
+     * @param key The key
+     * @return The x pos
+     */
+    public abstract int decodeX(long key);
+
+    /**
+     * Gets the y position of the coordinate with the given key.
+     *
+     * @param key The key
+     * @return The y pos
+     */
+    public abstract int decodeY(long key);
+
+    /**
+     * Encodes the given coordinate.
+     *
+     * @param coord The coordinate
+     * @return The key
+     */
+    public long encode(final Coordinate2i coord) {
+        return this.encode(coord.getX(), coord.getY());
+    }
+
+    /**
+     * Decodes the coordinate with the given key.
+     *
+     * @param key The key
+     * @return The coordinate
+     */
+    public Coordinate2i decode(final long key) {
+        return new Coordinate2i(this.decodeX(key), this.decodeY(key));
+    }
+
+    /**
+     * Reorders the coordinates in the given buffer along the curve,
+     * using a radix sort of their keys.
+     *
+     * @param buffer The buffer
+     */
+    public void sort(final Coordinate2iBuffer buffer) {
+        final int n = buffer.size();
+        final int[] xs = buffer.getXArray();
+        final int[] ys = buffer.getYArray();
+        final long[] keys = new long[n];
+        final int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = this.encode(xs[i], ys[i]);
+            order[i] = i;
+        }
+        RadixSort.sort(keys, order, n);
+        final int[] sortedXs = new int[n];
+        final int[] sortedYs = new int[n];
+        for (int i = 0; i < n; i++) {
+            sortedXs[i] = xs[order[i]];
+            sortedYs[i] = ys[order[i]];
+        }
+        System.arraycopy(sortedXs, 0, xs, 0, n);
+        System.arraycopy(sortedYs, 0, ys, 0, n);
+    }
+
+    /**
+     * Reorders the given coordinates along the curve, using a radix sort
+     * of their keys.
+     *
+     * @param coords The coordinates
+     */
+    public void sort(final Coordinate2i[] coords) {
+        final int n = coords.length;
+        final long[] keys = new long[n];
+        final int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = this.encode(coords[i]);
+            order[i] = i;
+        }
+        RadixSort.sort(keys, order, n);
+        final Coordinate2i[] sorted = new Coordinate2i[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = coords[order[i]];
+        }
+        System.arraycopy(sorted, 0, coords, 0, n);
+    }
+
+    /**
+     * Decomposes the given box, inclusive of its bounds, into ranges of
+     * keys along the curve, replacing the previous contents of the given
+     * ranges.
+     *
+     * <p>The box is subdivided into aligned cells, each of which covers a
+     * single range of keys, until either every cell lies within the box
+     * or producing further ranges would exceed the given limit. In the
+     * latter case, the ranges cover a superset of the box, and results
+     * must be filtered against the box.</p>
+     *
+     * @param minX The minimum x position
+     * @param minY The minimum y position
+     * @param maxX The maximum x position
+     * @param maxY The maximum y position
+     * @param maxRanges The maximum number of ranges to produce
+     * @param ranges The ranges to write into
+     */
+    public void decompose(final int minX, final int minY, final int maxX, final int maxY, final int maxRanges,
+            final KeyRanges ranges) {
+        checkArgument(minX <= maxX && minY <= maxY, "Minimum cannot be greater than maximum");
+        checkArgument(maxRanges > 0, "maxRanges must be positive");
+        ranges.clear();
+        final long uMinX = unsigned(minX);
+        final long uMinY = unsigned(minY);
+        final long uMaxX = unsigned(maxX);
+        final long uMaxY = unsigned(maxY);
+
+        // the partially covered cells of the current level
+        long[] cellXs = { 0 };
+        long[] cellYs = { 0 };
+        int cells = 1;
+        for (int level = BITS; ; level--) {
+            final long size = 1L << level;
+            int partial = 0;
+            for (int i = 0; i < cells; i++) {
+                final long x = cellXs[i];
+                final long y = cellYs[i];
+                if (x > uMaxX || y > uMaxY || x + size - 1 < uMinX || y + size - 1 < uMinY) {
+                    continue;
+                }
+                if (level == 0 || (x >= uMinX && y >= uMinY && x + size - 1 <= uMaxX && y + size - 1 <= uMaxY)) {
+                    this.addCell(x, y, level, ranges);
+                    continue;
+                }
+                cellXs[partial] = x;
+                cellYs[partial] = y;
+                partial++;
+            }
+            if (partial == 0) {
+                break;
+            }
+            if (ranges.size() + partial * 4L > maxRanges) {
+                for (int i = 0; i < partial; i++) {
+                    this.addCell(cellXs[i], cellYs[i], level, ranges);
+                }
+                break;
+            }
+            final long half = size >>> 1;
+            final long[] nextXs = new long[partial * 4];
+            final long[] nextYs = new long[partial * 4];
+            for (int i = 0; i < partial; i++) {
+                for (int child = 0; child < 4; child++) {
+                    nextXs[i * 4 + child] = cellXs[i] + ((child & 1) == 0 ? 0 : half);
+                    nextYs[i * 4 + child] = cellYs[i] + ((child & 2) == 0 ? 0 : half);
+                }
+            }
+            cellXs = nextXs;
+            cellYs = nextYs;
+            cells = partial * 4;
+        }
+        ranges.normalise();
+    }
+
+    private void addCell(final long x, final long y, final int level, final KeyRanges ranges) {
+        final long key = this.encode((int) x ^ SIGN, (int) y ^ SIGN);
+        final long mask = level * 2 >= Long.SIZE ? -1L : (1L << (level * 2)) - 1;
+        ranges.add(key & ~mask, key | mask);
+    }
+
+    private static long unsigned(final int value) {
+        return (value ^ SIGN) & 0xFFFFFFFFL;
+    }
+
+    private static long spread(final int value) {
+        long x = value & 0xFFFFFFFFL;
+        x = (x | (x << 16)) & 0x0000FFFF0000FFFFL;
+        x = (x | (x << 8)) & 0x00FF00FF00FF00FFL;
+        x = (x | (x << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | (x << 2)) & 0x3333333333333333L;
+        x = (x | (x << 1)) & 0x5555555555555555L;
+        return x;
+    }
+
+    private static int compact(final long value) {
+        long x = value & 0x5555555555555555L;
+        x = (x | (x >>> 1)) & 0x3333333333333333L;
+        x = (x | (x >>> 2)) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | (x >>> 4)) & 0x00FF00FF00FF00FFL;
+        x = (x | (x >>> 8)) & 0x0000FFFF0000FFFFL;
+        x = (x | (x >>> 16)) & 0x00000000FFFFFFFFL;
+        return (int) x;
+    }
+
+}
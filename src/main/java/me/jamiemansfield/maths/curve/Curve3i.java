@@ -0,0 +1,410 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.curve;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import me.jamiemansfield.maths.coord.Coordinate3i;
+import me.jamiemansfield.maths.coord.Coordinate3iBuffer;
+
+/**
+ * Space-filling curves over 3-dimensional integer coordinates, which
+ * map each coordinate to a 63-bit key such that coordinates close in
+ * space tend to be close along the curve.
+ *
+ * <p>Each component is limited to 21 bits, so must be within
+ * {@code [-2^20, 2^20)} - components outside of this range wrap
+ * around. Components are offset by {@code 2^20} before encoding, so
+ * keys are non-negative and ordered as the curve is.</p>
+ */
+public enum Curve3i {
+
+    /**
+     * The Morton, or Z-order, curve - which simply interleaves the bits
+     * of the components, with x in the least significant position.
+     */
+    MORTON {
+        @Override
+        public long encode(final int x, final int y, final int z) {
+            return spread(offset(x)) | (spread(offset(y)) << 1) | (spread(offset(z)) << 2);
+        }
+
+        @Override
+        public int decodeX(final long key) {
+            return restore(compact(key));
+        }
+
+        @Override
+        public int decodeY(final long key) {
+            return restore(compact(key >>> 1));
+        }
+
+        @Override
+        public int decodeZ(final long key) {
+            return restore(compact(key >>> 2));
+        }
+    },
+
+    /**
+     * The Hilbert curve, which has better locality than the Morton curve
+     * as consecutive keys are always adjacent coordinates - at the cost
+     * of a more expensive transform.
+     *
+     * <p>This uses Skilling's transposition algorithm.</p>
+     */
+    HILBERT {
+        @Override
+        public long encode(final int x, final int y, final int z) {
+            int a = offset(x);
+            int b = offset(y);
+            int c = offset(z);
+            for (int q = 1 << (BITS - 1); q > 1; q >>>= 1) {
+                final int p = q - 1;
+                if ((a & q) != 0) {
+                    a ^= p;
+                }
+                if ((b & q) != 0) {
+                    a ^= p;
+                } else {
+                    final int t = (a ^ b) & p;
+                    a ^= t;
+                    b ^= t;
+                }
+                if ((c & q) != 0) {
+                    a ^= p;
+                } else {
+                    final int t = (a ^ c) & p;
+                    a ^= t;
+                    c ^= t;
+                }
+            }
+            b ^= a;
+            c ^= b;
+            int t = 0;
+            for (int q = 1 << (BITS - 1); q > 1; q >>>= 1) {
+                if ((c & q) != 0) {
+                    t ^= q - 1;
+                }
+            }
+            a ^= t;
+            b ^= t;
+            c ^= t;
+            return spread(c) | (spread(b) << 1) | (spread(a) << 2);
+        }
+
+        @Override
+        public int decodeX(final long key) {
+            return this.decode(key, 0);
+        }
+
+        @Override
+        public int decodeY(final long key) {
+            return this.decode(key, 1);
+        }
+
+        @Override
+        public int decodeZ(final long key) {
+            return this.decode(key, 2);
+        }
+
+        private int decode(final long key, final int axis) {
+            int a = compact(key >>> 2);
+            int b = compact(key >>> 1);
+            int c = compact(key);
+            int t = c >>> 1;
+            c ^= b;
+            b ^= a;
+            a ^= t;
+            for (int q = 2; q != 1 << BITS; q <<= 1) {
+                final int p = q - 1;
+                if ((c & q) != 0) {
+                    a ^= p;
+                } else {
+                    t = (a ^ c) & p;
+                    a ^= t;
+                    c ^= t;
+                }
+                if ((b & q) != 0) {
+                    a ^= p;
+                } else {
+                    t = (a ^ b) & p;
+                    a ^= t;
+                    b ^= t;
+                }
+                if ((a & q) != 0) {
+                    a ^= p;
+                }
+            }
+            return restore(axis == 0 ? a : axis == 1 ? b : c);
+        }
+    };
+
+    /**
+     * The number of bits used for each component.
+     */
+    public static final int BITS = 21;
+
+    /**
+     * The minimum value of a component.
+     */
+    public static final int MIN_VALUE = -(1 << (BITS - 1));
+
+    /**
+     * The maximum value of a component.
+     */
+    public static final int MAX_VALUE = (1 << (BITS - 1)) - 1;
+
+    private static final int MASK = (1 << BITS) - 1;
+
+    /**
+     * Encodes the given coordinate.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @return The key
+     */
+    public abstract long encode(int x, int y, int z);
+
+    /**
+     * Gets the x position of the coordinate with the given key.
+     *
+     * @param key The key
+     * @return The x pos
+     */
+    public abstract int decodeX(long key);
+
+    /**
+     * Gets the y position of the coordinate with the given key.
+     *
+     * @param key The key
+     * @return The y pos
+     */
+    public abstract int decodeY(long key);
+
+    /**
+     * Gets the z position of the coordinate with the given key.
+     *
+     * @param key The key
+     * @return The z pos
+     */
+    public abstract int decodeZ(long key);
+
+    /**
+     * Encodes the given coordinate.
+     *
+     * @param coord The coordinate
+     * @return The key
+     */
+    public long encode(final Coordinate3i coord) {
+        return this.encode(coord.getX(), coord.getY(), coord.getZ());
+    }
+
+    /**
+     * Decodes the coordinate with the given key.
+     *
+     * @param key The key
+     * @return The coordinate
+     */
+    public Coordinate3i decode(final long key) {
+        return new Coordinate3i(this.decodeX(key), this.decodeY(key), this.decodeZ(key));
+    }
+
+    /**
+     * Reorders the coordinates in the given buffer along the curve,
+     * using a radix sort of their keys.
+     *
+     * @param buffer The buffer
+     */
+    public void sort(final Coordinate3iBuffer buffer) {
+        final int n = buffer.size();
+        final int[] xs = buffer.getXArray();
+        final int[] ys = buffer.getYArray();
+        final int[] zs = buffer.getZArray();
+        final long[] keys = new long[n];
+        final int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = this.encode(xs[i], ys[i], zs[i]);
+            order[i] = i;
+        }
+        RadixSort.sort(keys, order, n);
+        final int[] sortedXs = new int[n];
+        final int[] sortedYs = new int[n];
+        final int[] sortedZs = new int[n];
+        for (int i = 0; i < n; i++) {
+            sortedXs[i] = xs[order[i]];
+            sortedYs[i] = ys[order[i]];
+            sortedZs[i] = zs[order[i]];
+        }
+        System.arraycopy(sortedXs, 0, xs, 0, n);
+        System.arraycopy(sortedYs, 0, ys, 0, n);
+        System.arraycopy(sortedZs, 0, zs, 0, n);
+    }
+
+    /**
+     * Reorders the given coordinates along the curve, using a radix sort
+     * of their keys.
+     *
+     * @param coords The coordinates
+     */
+    public void sort(final Coordinate3i[] coords) {
+        final int n = coords.length;
+        final long[] keys = new long[n];
+        final int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = this.encode(coords[i]);
+            order[i] = i;
+        }
+        RadixSort.sort(keys, order, n);
+        final Coordinate3i[] sorted = new Coordinate3i[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = coords[order[i]];
+        }
+        System.arraycopy(sorted, 0, coords, 0, n);
+    }
+
+    /**
+     * Decomposes the given box, inclusive of its bounds, into ranges of
+     * keys along the curve, replacing the previous contents of the given
+     * ranges.
+     *
+     * <p>The box is subdivided into aligned cells, each of which covers a
+     * single range of keys, until either every cell lies within the box
+     * or producing further ranges would exceed the given limit. In the
+     * latter case, the ranges cover a superset of the box, and results
+     * must be filtered against the box.</p>
+     *
+     * @param minX The minimum x position
+     * @param minY The minimum y position
+     * @param minZ The minimum z position
+     * @param maxX The maximum x position
+     * @param maxY The maximum y position
+     * @param maxZ The maximum z position
+     * @param maxRanges The maximum number of ranges to produce
+     * @param ranges The ranges to write into
+     */
+    public void decompose(final int minX, final int minY, final int minZ, final int maxX, final int maxY, final int maxZ,
+            final int maxRanges, final KeyRanges ranges) {
+        checkArgument(minX <= maxX && minY <= maxY && minZ <= maxZ, "Minimum cannot be greater than maximum");
+        checkArgument(minX >= MIN_VALUE && minY >= MIN_VALUE && minZ >= MIN_VALUE &&
+                maxX <= MAX_VALUE && maxY <= MAX_VALUE && maxZ <= MAX_VALUE, "Box must be within the range of the curve");
+        checkArgument(maxRanges > 0, "maxRanges must be positive");
+        ranges.clear();
+        final int uMinX = offset(minX);
+        final int uMinY = offset(minY);
+        final int uMinZ = offset(minZ);
+        final int uMaxX = offset(maxX);
+        final int uMaxY = offset(maxY);
+        final int uMaxZ = offset(maxZ);
+
+        // the partially covered cells of the current level
+        int[] cellXs = { 0 };
+        int[] cellYs = { 0 };
+        int[] cellZs = { 0 };
+        int cells = 1;
+        for (int level = BITS; ; level--) {
+            final int size = 1 << level;
+            int partial = 0;
+            for (int i = 0; i < cells; i++) {
+                final int x = cellXs[i];
+                final int y = cellYs[i];
+                final int z = cellZs[i];
+                if (x > uMaxX || y > uMaxY || z > uMaxZ || x + size - 1 < uMinX || y + size - 1 < uMinY || z + size - 1 < uMinZ) {
+                    continue;
+                }
+                if (level == 0 || (x >= uMinX && y >= uMinY && z >= uMinZ &&
+                        x + size - 1 <= uMaxX && y + size - 1 <= uMaxY && z + size - 1 <= uMaxZ)) {
+                    this.addCell(x, y, z, level, ranges);
+                    continue;
+                }
+                cellXs[partial] = x;
+                cellYs[partial] = y;
+                cellZs[partial] = z;
+                partial++;
+            }
+            if (partial == 0) {
+                break;
+            }
+            if (ranges.size() + partial * 8L > maxRanges) {
+                for (int i = 0; i < partial; i++) {
+                    this.addCell(cellXs[i], cellYs[i], cellZs[i], level, ranges);
+                }
+                break;
+            }
+            final int half = size >>> 1;
+            final int[] nextXs = new int[partial * 8];
+            final int[] nextYs = new int[partial * 8];
+            final int[] nextZs = new int[partial * 8];
+            for (int i = 0; i < partial; i++) {
+                for (int child = 0; child < 8; child++) {
+                    nextXs[i * 8 + child] = cellXs[i] + ((child & 1) == 0 ? 0 : half);
+                    nextYs[i * 8 + child] = cellYs[i] + ((child & 2) == 0 ? 0 : half);
+                    nextZs[i * 8 + child] = cellZs[i] + ((child & 4) == 0 ? 0 : half);
+                }
+            }
+            cellXs = nextXs;
+            cellYs = nextYs;
+            cellZs = nextZs;
+            cells = partial * 8;
+        }
+        ranges.normalise();
+    }
+
+    private void addCell(final int x, final int y, final int z, final int level, final KeyRanges ranges) {
+        final long key = this.encode(restore(x), restore(y), restore(z));
+        final long mask = (1L << (level * 3)) - 1;
+        ranges.add(key & ~mask, key | mask);
+    }
+
+    private static int offset(final int value) {
+        return (value - MIN_VALUE) & MASK;
+    }
+
+    private static int restore(final int value) {
+        return value + MIN_VALUE;
+    }
+
+    private static long spread(final int value) {
+        long x = value & MASK;
+        x = (x | (x << 32)) & 0x001F00000000FFFFL;
+        x = (x | (x << 16)) & 0x001F0000FF0000FFL;
+        x = (x | (x << 8)) & 0x100F00F00F00F00FL;
+        x = (x | (x << 4)) & 0x10C30C30C30C30C3L;
+        x = (x | (x << 2)) & 0x1249249249249249L;
+        return x;
+    }
+
+    private static int compact(final long value) {
+        long x = value & 0x1249249249249249L;
+        x = (x | (x >>> 2)) & 0x10C30C30C30C30C3L;
+        x = (x | (x >>> 4)) & 0x100F00F00F00F00FL;
+        x = (x | (x >>> 8)) & 0x001F0000FF0000FFL;
+        x = (x | (x >>> 16)) & 0x001F00000000FFFFL;
+        x = (x | (x >>> 32)) & MASK;
+        return (int) x;
+    }
+
+}
@@ -0,0 +1,168 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.curve;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+import com.google.common.base.MoreObjects;
+
+import java.util.Arrays;
+
+/**
+ * A reusable list of inclusive ranges of curve keys, as produced by
+ * decomposing a box into the intervals of a space-filling curve that
+ * cover it.
+ *
+ * <p>Keys are compared as unsigned 64-bit values. The ranges are kept
+ * in ascending order, and never overlap or abut.</p>
+ */
+public final class KeyRanges {
+
+    private long[] starts = new long[16];
+    private long[] ends = new long[16];
+    private int size;
+
+    /**
+     * Gets the number of ranges.
+     *
+     * @return The size
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Gets the first key of the given range.
+     *
+     * @param i The range
+     * @return The first key, inclusive
+     */
+    public long getStart(final int i) {
+        checkElementIndex(i, this.size);
+        return this.starts[i];
+    }
+
+    /**
+     * Gets the last key of the given range.
+     *
+     * @param i The range
+     * @return The last key, inclusive
+     */
+    public long getEnd(final int i) {
+        checkElementIndex(i, this.size);
+        return this.ends[i];
+    }
+
+    /**
+     * Establishes whether the given key falls within any of the ranges.
+     *
+     * @param key The key
+     * @return {@code true} if the key is covered
+     */
+    public boolean contains(final long key) {
+        int lo = 0;
+        int hi = this.size - 1;
+        while (lo <= hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (Long.compareUnsigned(this.ends[mid], key) < 0) {
+                lo = mid + 1;
+            } else if (Long.compareUnsigned(this.starts[mid], key) > 0) {
+                hi = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes all of the ranges, retaining their capacity.
+     */
+    public void clear() {
+        this.size = 0;
+    }
+
+    void add(final long start, final long end) {
+        if (this.size == this.starts.length) {
+            this.starts = Arrays.copyOf(this.starts, this.size << 1);
+            this.ends = Arrays.copyOf(this.ends, this.size << 1);
+        }
+        this.starts[this.size] = start;
+        this.ends[this.size] = end;
+        this.size++;
+    }
+
+    /**
+     * Sorts the ranges by their first key, and merges those that abut.
+     */
+    void normalise() {
+        if (this.size < 2) {
+            return;
+        }
+        final int[] order = new int[this.size];
+        for (int i = 0; i < this.size; i++) {
+            order[i] = i;
+        }
+        final long[] sortedStarts = Arrays.copyOf(this.starts, this.size);
+        RadixSort.sort(sortedStarts, order, this.size);
+        final long[] sortedEnds = new long[this.starts.length];
+        for (int i = 0; i < this.size; i++) {
+            sortedEnds[i] = this.ends[order[i]];
+        }
+        System.arraycopy(sortedStarts, 0, this.starts, 0, this.size);
+        this.ends = sortedEnds;
+
+        int merged = 0;
+        for (int i = 1; i < this.size; i++) {
+            final long end = this.ends[merged];
+            if (end == -1L || Long.compareUnsigned(this.starts[i], end + 1) <= 0) {
+                if (Long.compareUnsigned(this.ends[i], end) > 0) {
+                    this.ends[merged] = this.ends[i];
+                }
+            } else {
+                merged++;
+                this.starts[merged] = this.starts[i];
+                this.ends[merged] = this.ends[i];
+            }
+        }
+        this.size = merged + 1;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < this.size; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(Long.toUnsignedString(this.starts[i])).append("..").append(Long.toUnsignedString(this.ends[i]));
+        }
+        return MoreObjects.toStringHelper(this)
+                .add("ranges", builder.append(']'))
+                .toString();
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.curve;
+
+import java.util.Arrays;
+
+/**
+ * A least-significant-digit radix sort of unsigned 64-bit keys, that
+ * carries an int value alongside each key.
+ */
+final class RadixSort {
+
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int PASSES = Long.SIZE / RADIX_BITS;
+
+    /**
+     * Sorts the first {@code count} keys into unsigned ascending order,
+     * permuting the values identically. The sort is stable.
+     *
+     * @param keys The keys
+     * @param values The values
+     * @param count The number of keys to sort
+     */
+    static void sort(final long[] keys, final int[] values, final int count) {
+        long[] sortedKeys = keys;
+        int[] sortedValues = values;
+        long[] keyScratch = new long[count];
+        int[] valueScratch = new int[count];
+        final int[] counts = new int[RADIX];
+        for (int pass = 0; pass < PASSES; pass++) {
+            final int shift = pass * RADIX_BITS;
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < count; i++) {
+                counts[(int) (sortedKeys[i] >>> shift) & (RADIX - 1)]++;
+            }
+            // a digit shared by every key leaves the order unchanged
+            if (count == 0 || counts[(int) (sortedKeys[0] >>> shift) & (RADIX - 1)] == count) {
+                continue;
+            }
+            int offset = 0;
+            for (int i = 0; i < RADIX; i++) {
+                final int c = counts[i];
+                counts[i] = offset;
+                offset += c;
+            }
+            for (int i = 0; i < count; i++) {
+                final int digit = (int) (sortedKeys[i] >>> shift) & (RADIX - 1);
+                final int to = counts[digit]++;
+                keyScratch[to] = sortedKeys[i];
+                valueScratch[to] = sortedValues[i];
+            }
+            final long[] swapKeys = sortedKeys;
+            sortedKeys = keyScratch;
+            keyScratch = swapKeys;
+            final int[] swapValues = sortedValues;
+            sortedValues = valueScratch;
+            valueScratch = swapValues;
+        }
+        if (sortedKeys != keys) {
+            System.arraycopy(sortedKeys, 0, keyScratch, 0, count);
+            System.arraycopy(sortedValues, 0, valueScratch, 0, count);
+        }
+    }
+
+    private RadixSort() {
+    }
+
+}
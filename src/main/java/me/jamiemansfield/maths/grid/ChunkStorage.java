@@ -0,0 +1,69 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.grid;
+
+/**
+ * The ways in which a {@link VoxelGrid} may store the values of its
+ * chunks.
+ */
+public enum ChunkStorage {
+
+    /**
+     * An int for every voxel, which is the fastest to access.
+     */
+    DENSE {
+        @Override
+        VoxelChunk create(final int volume) {
+            return new DenseChunk(volume);
+        }
+    },
+
+    /**
+     * A palette of the distinct values of each chunk, with every voxel
+     * holding a 1, 2, 4 or 8 bit index into the palette - or none at
+     * all, if the chunk is uniform. The palette grows as values are
+     * added, and chunks of more than 256 distinct values fall back to
+     * dense storage.
+     *
+     * <p>This suits grids of few distinct values, such as materials,
+     * costing as little as an eighth of a byte per voxel.</p>
+     */
+    PALETTE {
+        @Override
+        VoxelChunk create(final int volume) {
+            return new PaletteChunk(volume, 0);
+        }
+    };
+
+    /**
+     * Creates an empty chunk, of this storage.
+     *
+     * @param volume The number of voxels in the chunk
+     * @return The chunk
+     */
+    abstract VoxelChunk create(int volume);
+
+}
@@ -0,0 +1,504 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.grid;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.MoreObjects;
+import me.jamiemansfield.maths.bounds.Bounds3i;
+import me.jamiemansfield.maths.coord.Coordinate3i;
+import me.jamiemansfield.maths.function.IntTriConsumer;
+
+import java.util.Arrays;
+
+/**
+ * A set of {@link Coordinate3i}s within a fixed region, held as one bit
+ * for each coordinate of the region - such as an occupancy mask.
+ *
+ * <p>The region is divided into rows along the x axis, each a whole
+ * number of 64-bit words, so set algebra, morphology and flood fills
+ * work on 64 coordinates at a time. A dense set costs an eighth of a
+ * byte for each coordinate of its region, whatever its size.</p>
+ *
+ * <p>The binary operations require both sets to have the same region.
+ * Neighbourhoods are 6-connected, and coordinates outside of the region
+ * are treated as absent. This set is not thread-safe.</p>
+ */
+public final class Coordinate3iBitSet {
+
+    private static final int MAXIMUM_WORDS = Integer.MAX_VALUE - 8;
+
+    private final Bounds3i bounds;
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int sizeY;
+    private final int sizeZ;
+    private final int rowWords;
+    private final long lastMask;
+    private final long[] words;
+
+    /**
+     * Creates an empty set, that may hold any coordinate within the given
+     * region.
+     *
+     * @param bounds The region
+     */
+    public Coordinate3iBitSet(final Bounds3i bounds) {
+        checkNotNull(bounds, "bounds");
+        final long rowWords = (bounds.getSizeX() + 63) >>> 6;
+        // each size is checked by division first, as the sizes of bounds
+        // spanning every int multiply past the range of a long
+        checkArgument(bounds.getSizeY() <= MAXIMUM_WORDS / bounds.getSizeZ(), "bounds are too large: %s", bounds);
+        final long rows = bounds.getSizeY() * bounds.getSizeZ();
+        checkArgument(rowWords <= MAXIMUM_WORDS / rows, "bounds are too large: %s", bounds);
+        this.bounds = bounds;
+        this.minX = bounds.getMinX();
+        this.minY = bounds.getMinY();
+        this.minZ = bounds.getMinZ();
+        this.sizeY = (int) bounds.getSizeY();
+        this.sizeZ = (int) bounds.getSizeZ();
+        this.rowWords = (int) rowWords;
+        this.lastMask = -1L >>> -bounds.getSizeX();
+        this.words = new long[(int) (rowWords * rows)];
+    }
+
+    private Coordinate3iBitSet(final Coordinate3iBitSet other) {
+        this.bounds = other.bounds;
+        this.minX = other.minX;
+        this.minY = other.minY;
+        this.minZ = other.minZ;
+        this.sizeY = other.sizeY;
+        this.sizeZ = other.sizeZ;
+        this.rowWords = other.rowWords;
+        this.lastMask = other.lastMask;
+        this.words = other.words.clone();
+    }
+
+    /**
+     * Gets the region that the set may hold coordinates within.
+     *
+     * @return The bounds
+     */
+    public Bounds3i getBounds() {
+        return this.bounds;
+    }
+
+    /**
+     * Gets the number of coordinates in the set.
+     *
+     * @return The cardinality
+     */
+    public long cardinality() {
+        long count = 0;
+        for (final long word : this.words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Establishes whether the set contains no coordinates.
+     *
+     * @return {@code true} if the set is empty
+     */
+    public boolean isEmpty() {
+        for (final long word : this.words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Establishes whether the set contains the given coordinate.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @return {@code true} if the coordinate is present
+     */
+    public boolean contains(final int x, final int y, final int z) {
+        if (!this.bounds.contains(x, y, z)) {
+            return false;
+        }
+        final long bit = this.bit(x, y, z);
+        return (this.words[(int) (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Establishes whether the set contains the given coordinate.
+     *
+     * @param coord The coordinate
+     * @return {@code true} if the coordinate is present
+     */
+    public boolean contains(final Coordinate3i coord) {
+        return this.contains(coord.getX(), coord.getY(), coord.getZ());
+    }
+
+    /**
+     * Adds the given coordinate to the set.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @return {@code true} if the coordinate was not already present
+     * @throws IllegalArgumentException If the coordinate is outside of
+     *                                  the set's region
+     */
+    public boolean add(final int x, final int y, final int z) {
+        checkArgument(this.bounds.contains(x, y, z), "(%s, %s, %s) is outside of %s", x, y, z, this.bounds);
+        final long bit = this.bit(x, y, z);
+        final int index = (int) (bit >>> 6);
+        final long previous = this.words[index];
+        this.words[index] = previous | (1L << bit);
+        return this.words[index] != previous;
+    }
+
+    /**
+     * Adds the given coordinate to the set.
+     *
+     * @param coord The coordinate
+     * @return {@code true} if the coordinate was not already present
+     * @throws IllegalArgumentException If the coordinate is outside of
+     *                                  the set's region
+     */
+    public boolean add(final Coordinate3i coord) {
+        return this.add(coord.getX(), coord.getY(), coord.getZ());
+    }
+
+    /**
+     * Removes the given coordinate from the set.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @return {@code true} if the coordinate was present
+     */
+    public boolean remove(final int x, final int y, final int z) {
+        if (!this.bounds.contains(x, y, z)) {
+            return false;
+        }
+        final long bit = this.bit(x, y, z);
+        final int index = (int) (bit >>> 6);
+        final long previous = this.words[index];
+        this.words[index] = previous & ~(1L << bit);
+        return this.words[index] != previous;
+    }
+
+    /**
+     * Removes the given coordinate from the set.
+     *
+     * @param coord The coordinate
+     * @return {@code true} if the coordinate was present
+     */
+    public boolean remove(final Coordinate3i coord) {
+        return this.remove(coord.getX(), coord.getY(), coord.getZ());
+    }
+
+    /**
+     * Removes all of the coordinates from the set.
+     */
+    public void clear() {
+        Arrays.fill(this.words, 0);
+    }
+
+    /**
+     * Adds every coordinate of the set's region that is not in the set,
+     * and removes every coordinate that is.
+     *
+     * @return This set
+     */
+    public Coordinate3iBitSet complement() {
+        for (int i = 0; i < this.words.length; i++) {
+            this.words[i] = ~this.words[i];
+        }
+        this.trim(this.words);
+        return this;
+    }
+
+    /**
+     * Adds every coordinate of the given set to this set.
+     *
+     * @param other The other set
+     * @return This set
+     */
+    public Coordinate3iBitSet union(final Coordinate3iBitSet other) {
+        this.checkCompatible(other);
+        for (int i = 0; i < this.words.length; i++) {
+            this.words[i] |= other.words[i];
+        }
+        return this;
+    }
+
+    /**
+     * Removes every coordinate that is not in the given set from this
+     * set.
+     *
+     * @param other The other set
+     * @return This set
+     */
+    public Coordinate3iBitSet intersection(final Coordinate3iBitSet other) {
+        this.checkCompatible(other);
+        for (int i = 0; i < this.words.length; i++) {
+            this.words[i] &= other.words[i];
+        }
+        return this;
+    }
+
+    /**
+     * Removes every coordinate of the given set from this set.
+     *
+     * @param other The other set
+     * @return This set
+     */
+    public Coordinate3iBitSet difference(final Coordinate3iBitSet other) {
+        this.checkCompatible(other);
+        for (int i = 0; i < this.words.length; i++) {
+            this.words[i] &= ~other.words[i];
+        }
+        return this;
+    }
+
+    /**
+     * Adds every coordinate of the region that neighbours a coordinate
+     * of the set.
+     *
+     * @return This set
+     */
+    public Coordinate3iBitSet dilate() {
+        final long[] source = this.words.clone();
+        this.morph(source, false);
+        return this;
+    }
+
+    /**
+     * Removes every coordinate of the set that has a neighbour that is not
+     * in the set, including those on the edge of the region.
+     *
+     * @return This set
+     */
+    public Coordinate3iBitSet erode() {
+        final long[] source = this.words.clone();
+        this.morph(source, true);
+        return this;
+    }
+
+    /**
+     * Gets the coordinates of the set that are connected to the given
+     * coordinate, through neighbouring coordinates of the set.
+     *
+     * <p>To fill a space of absent coordinates instead, flood fill the
+     * {@link #complement() complement} of the set.</p>
+     *
+     * @param x The x position of the seed
+     * @param y The y position of the seed
+     * @param z The z position of the seed
+     * @return A new set of the connected coordinates, which is empty if
+     *         the seed is not in the set
+     */
+    public Coordinate3iBitSet floodFill(final int x, final int y, final int z) {
+        final Coordinate3iBitSet filled = new Coordinate3iBitSet(this.bounds);
+        if (!this.contains(x, y, z)) {
+            return filled;
+        }
+        filled.add(x, y, z);
+
+        // a work list of rows with newly filled coordinates
+        final int rows = this.sizeY * this.sizeZ;
+        final int[] queue = new int[rows];
+        final boolean[] queued = new boolean[rows];
+        int head = 0;
+        int count = 1;
+        final int start = (y - this.minY) + (z - this.minZ) * this.sizeY;
+        queue[0] = start;
+        queued[start] = true;
+        final long[] fill = filled.words;
+        while (count > 0) {
+            final int row = queue[head];
+            head = head + 1 == rows ? 0 : head + 1;
+            count--;
+            queued[row] = false;
+            this.fillRow(fill, row * this.rowWords);
+
+            final int ry = row % this.sizeY;
+            final int rz = row / this.sizeY;
+            for (int n = 0; n < 4; n++) {
+                final int neighbour;
+                if (n == 0) {
+                    neighbour = ry > 0 ? row - 1 : -1;
+                } else if (n == 1) {
+                    neighbour = ry + 1 < this.sizeY ? row + 1 : -1;
+                } else if (n == 2) {
+                    neighbour = rz > 0 ? row - this.sizeY : -1;
+                } else {
+                    neighbour = rz + 1 < this.sizeZ ? row + this.sizeY : -1;
+                }
+                if (neighbour < 0) {
+                    continue;
+                }
+                boolean grown = false;
+                final int from = row * this.rowWords;
+                final int to = neighbour * this.rowWords;
+                for (int i = 0; i < this.rowWords; i++) {
+                    final long seeds = fill[from + i] & this.words[to + i] & ~fill[to + i];
+                    if (seeds != 0) {
+                        fill[to + i] |= seeds;
+                        grown = true;
+                    }
+                }
+                if (grown && !queued[neighbour]) {
+                    queued[neighbour] = true;
+                    queue[(head + count) % rows] = neighbour;
+                    count++;
+                }
+            }
+        }
+        return filled;
+    }
+
+    /**
+     * Creates a copy of the set.
+     *
+     * @return The copy
+     */
+    public Coordinate3iBitSet copy() {
+        return new Coordinate3iBitSet(this);
+    }
+
+    /**
+     * Performs the given action for each coordinate in the set, in order
+     * of z, then y, then x.
+     *
+     * @param consumer The action
+     */
+    public void forEach(final IntTriConsumer consumer) {
+        for (int row = 0, index = 0; row < this.sizeY * this.sizeZ; row++) {
+            final int y = this.minY + row % this.sizeY;
+            final int z = this.minZ + row / this.sizeY;
+            for (int i = 0; i < this.rowWords; i++, index++) {
+                long word = this.words[index];
+                while (word != 0) {
+                    consumer.accept(this.minX + (i << 6) + Long.numberOfTrailingZeros(word), y, z);
+                    word &= word - 1;
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("bounds", this.bounds)
+                .add("cardinality", this.cardinality())
+                .toString();
+    }
+
+    private long bit(final int x, final int y, final int z) {
+        final long row = (long) (y - this.minY) + (long) (z - this.minZ) * this.sizeY;
+        return (row * this.rowWords << 6) + ((long) x - this.minX);
+    }
+
+    private void checkCompatible(final Coordinate3iBitSet other) {
+        checkArgument(this.bounds.equals(other.bounds), "%s does not match %s", other.bounds, this.bounds);
+    }
+
+    /**
+     * Clears the bits beyond the end of each row.
+     */
+    private void trim(final long[] words) {
+        for (int i = this.rowWords - 1; i < words.length; i += this.rowWords) {
+            words[i] &= this.lastMask;
+        }
+    }
+
+    /**
+     * Combines each coordinate of the source with its neighbours, by
+     * union to dilate or by intersection to erode, into this set.
+     */
+    private void morph(final long[] source, final boolean erode) {
+        final int rowWords = this.rowWords;
+        final int plane = this.sizeY * rowWords;
+        for (int row = 0, index = 0; row < this.sizeY * this.sizeZ; row++) {
+            final boolean down = row % this.sizeY > 0;
+            final boolean up = row % this.sizeY + 1 < this.sizeY;
+            final boolean back = row >= this.sizeY;
+            final boolean front = row + this.sizeY < this.sizeY * this.sizeZ;
+            for (int i = 0; i < rowWords; i++, index++) {
+                final long word = source[index];
+                // the row shifted by one along x, carrying between words
+                final long left = (word << 1) | (i > 0 ? source[index - 1] >>> 63 : 0);
+                final long right = (word >>> 1) | (i + 1 < rowWords ? source[index + 1] << 63 : 0);
+                final long below = down ? source[index - rowWords] : 0;
+                final long above = up ? source[index + rowWords] : 0;
+                final long behind = back ? source[index - plane] : 0;
+                final long ahead = front ? source[index + plane] : 0;
+                if (erode) {
+                    this.words[index] = word & left & right & below & above & behind & ahead;
+                } else {
+                    this.words[index] = word | left | right | below | above | behind | ahead;
+                }
+            }
+        }
+        this.trim(this.words);
+    }
+
+    /**
+     * Spreads the filled coordinates of a row along x, through the
+     * coordinates of the set, a word at a time.
+     */
+    private void fillRow(final long[] fill, final int from) {
+        final int to = from + this.rowWords;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = from; i < to; i++) {
+                final long mask = this.words[i];
+                final long seeds = fill[i];
+                // adding the seeds carries them up through each run of the mask
+                final long upwards = ((mask + seeds) ^ mask) & mask;
+                // and reversed, carries them down
+                final long reversedMask = Long.reverse(mask);
+                final long downwards = Long.reverse(((reversedMask + Long.reverse(seeds)) ^ reversedMask) & reversedMask);
+                long filled = seeds | upwards | downwards;
+                // continue runs across the boundaries between words
+                if (i > from && (fill[i - 1] >>> 63) != 0) {
+                    filled |= mask & 1L;
+                }
+                if (i + 1 < to && (fill[i + 1] & 1L) != 0) {
+                    filled |= mask & Long.MIN_VALUE;
+                }
+                if (filled != seeds) {
+                    fill[i] = filled;
+                    changed = true;
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.grid;
+
+import java.util.Arrays;
+
+/**
+ * A chunk holding an int for every voxel.
+ */
+final class DenseChunk extends VoxelChunk {
+
+    final int[] values;
+
+    DenseChunk(final int volume) {
+        this.values = new int[volume];
+    }
+
+    @Override
+    int volume() {
+        return this.values.length;
+    }
+
+    @Override
+    int get(final int index) {
+        return this.values[index];
+    }
+
+    @Override
+    VoxelChunk set(final int index, final int value, final ChunkStorage storage) {
+        this.values[index] = value;
+        return this;
+    }
+
+    @Override
+    VoxelChunk fill(final int value, final ChunkStorage storage) {
+        if (storage != ChunkStorage.DENSE) {
+            return super.fill(value, storage);
+        }
+        Arrays.fill(this.values, value);
+        return this;
+    }
+
+    @Override
+    long bytes() {
+        return OBJECT_BYTES * 2 + 4L * this.values.length;
+    }
+
+}
@@ -0,0 +1,178 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.grid;
+
+import com.google.common.base.MoreObjects;
+import me.jamiemansfield.maths.coord.Coordinate2i;
+import me.jamiemansfield.maths.function.IntBiPredicate;
+
+/**
+ * A reusable cursor over the cells of a 2-dimensional Bresenham line,
+ * between two integer coordinates inclusive.
+ *
+ * <p>The cursor exposes the current cell as primitives, so
+ * rasterisation creates no objects.</p>
+ *
+ * <p>A cursor is not thread-safe, but may be reused for any number of
+ * lines.</p>
+ */
+public final class Line2i {
+
+    /**
+     * Visits the cells of the line between the given coordinates, in
+     * order, until the given predicate matches one of them.
+     *
+     * @param from The start of the line
+     * @param to The end of the line
+     * @param hit The predicate, which ends the line when it matches
+     * @return The first cell matched, or {@code null} if there was none
+     */
+    public static Coordinate2i firstHit(final Coordinate2i from, final Coordinate2i to, final IntBiPredicate hit) {
+        final Line2i line = new Line2i();
+        line.reset(from, to);
+        return line.advanceUntil(hit) ? new Coordinate2i(line.x, line.y) : null;
+    }
+
+    private int x;
+    private int y;
+    private int endX;
+    private int endY;
+    private int stepX;
+    private int stepY;
+    private long dx;
+    private long dy;
+    private long error;
+    private boolean started;
+    private boolean finished = true;
+
+    /**
+     * Positions the cursor before the first cell of the line between
+     * the given coordinates.
+     *
+     * @param from The start of the line
+     * @param to The end of the line
+     */
+    public void reset(final Coordinate2i from, final Coordinate2i to) {
+        this.reset(from.getX(), from.getY(), to.getX(), to.getY());
+    }
+
+    /**
+     * Positions the cursor before the first cell of the line between
+     * the given coordinates.
+     *
+     * @param x0 The x position of the start
+     * @param y0 The y position of the start
+     * @param x1 The x position of the end
+     * @param y1 The y position of the end
+     */
+    public void reset(final int x0, final int y0, final int x1, final int y1) {
+        this.x = x0;
+        this.y = y0;
+        this.endX = x1;
+        this.endY = y1;
+        this.dx = Math.abs((long) x1 - x0);
+        this.dy = -Math.abs((long) y1 - y0);
+        this.stepX = x0 < x1 ? 1 : -1;
+        this.stepY = y0 < y1 ? 1 : -1;
+        this.error = this.dx + this.dy;
+        this.started = false;
+        this.finished = false;
+    }
+
+    /**
+     * Moves the cursor to the next cell of the line.
+     *
+     * @return {@code true} if the cursor moved, or {@code false} if the
+     *         last cell has already been visited
+     */
+    public boolean next() {
+        if (this.finished) {
+            return false;
+        }
+        if (!this.started) {
+            this.started = true;
+            return true;
+        }
+        if (this.x == this.endX && this.y == this.endY) {
+            this.finished = true;
+            return false;
+        }
+        final long error2 = 2 * this.error;
+        if (error2 >= this.dy) {
+            this.error += this.dy;
+            this.x += this.stepX;
+        }
+        if (error2 <= this.dx) {
+            this.error += this.dx;
+            this.y += this.stepY;
+        }
+        return true;
+    }
+
+    /**
+     * Moves the cursor through the remaining cells, stopping at the
+     * first that matches the given predicate.
+     *
+     * @param hit The predicate
+     * @return {@code true} if a cell matched, in which case the cursor
+     *         is positioned at it
+     */
+    public boolean advanceUntil(final IntBiPredicate hit) {
+        while (this.next()) {
+            if (hit.test(this.x, this.y)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the x position of the current cell.
+     *
+     * @return The x pos
+     */
+    public int getX() {
+        return this.x;
+    }
+
+    /**
+     * Gets the y position of the current cell.
+     *
+     * @return The y pos
+     */
+    public int getY() {
+        return this.y;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("x", this.x)
+                .add("y", this.y)
+                .toString();
+    }
+
+}
@@ -0,0 +1,239 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.grid;
+
+import com.google.common.base.MoreObjects;
+import me.jamiemansfield.maths.coord.Coordinate3i;
+import me.jamiemansfield.maths.function.IntTriPredicate;
+
+/**
+ * A reusable cursor over the cells of a 3-dimensional Bresenham line,
+ * between two integer coordinates inclusive.
+ *
+ * <p>The line steps once along its dominant axis per cell, so it
+ * visits {@code max(|dx|, |dy|, |dz|) + 1} cells. The cursor exposes
+ * the current cell as primitives, so rasterisation creates no
+ * objects.</p>
+ *
+ * <p>A cursor is not thread-safe, but may be reused for any number of
+ * lines.</p>
+ */
+public final class Line3i {
+
+    /**
+     * Visits the cells of the line between the given coordinates, in
+     * order, until the given predicate matches one of them.
+     *
+     * @param from The start of the line
+     * @param to The end of the line
+     * @param hit The predicate, which ends the line when it matches
+     * @return The first cell matched, or {@code null} if there was none
+     */
+    public static Coordinate3i firstHit(final Coordinate3i from, final Coordinate3i to, final IntTriPredicate hit) {
+        final Line3i line = new Line3i();
+        line.reset(from, to);
+        return line.advanceUntil(hit) ? new Coordinate3i(line.x, line.y, line.z) : null;
+    }
+
+    private int x;
+    private int y;
+    private int z;
+    private int stepX;
+    private int stepY;
+    private int stepZ;
+    private long dx;
+    private long dy;
+    private long dz;
+    private long error1;
+    private long error2;
+    private int axis;
+    private long remaining;
+    private boolean started = true;
+
+    /**
+     * Positions the cursor before the first cell of the line between
+     * the given coordinates.
+     *
+     * @param from The start of the line
+     * @param to The end of the line
+     */
+    public void reset(final Coordinate3i from, final Coordinate3i to) {
+        this.reset(from.getX(), from.getY(), from.getZ(), to.getX(), to.getY(), to.getZ());
+    }
+
+    /**
+     * Positions the cursor before the first cell of the line between
+     * the given coordinates.
+     *
+     * @param x0 The x position of the start
+     * @param y0 The y position of the start
+     * @param z0 The z position of the start
+     * @param x1 The x position of the end
+     * @param y1 The y position of the end
+     * @param z1 The z position of the end
+     */
+    public void reset(final int x0, final int y0, final int z0, final int x1, final int y1, final int z1) {
+        this.x = x0;
+        this.y = y0;
+        this.z = z0;
+        this.dx = Math.abs((long) x1 - x0);
+        this.dy = Math.abs((long) y1 - y0);
+        this.dz = Math.abs((long) z1 - z0);
+        this.stepX = x1 > x0 ? 1 : x1 < x0 ? -1 : 0;
+        this.stepY = y1 > y0 ? 1 : y1 < y0 ? -1 : 0;
+        this.stepZ = z1 > z0 ? 1 : z1 < z0 ? -1 : 0;
+        if (this.dx >= this.dy && this.dx >= this.dz) {
+            this.axis = 0;
+            this.remaining = this.dx;
+            this.error1 = 2 * this.dy - this.dx;
+            this.error2 = 2 * this.dz - this.dx;
+        } else if (this.dy >= this.dz) {
+            this.axis = 1;
+            this.remaining = this.dy;
+            this.error1 = 2 * this.dx - this.dy;
+            this.error2 = 2 * this.dz - this.dy;
+        } else {
+            this.axis = 2;
+            this.remaining = this.dz;
+            this.error1 = 2 * this.dy - this.dz;
+            this.error2 = 2 * this.dx - this.dz;
+        }
+        this.started = false;
+    }
+
+    /**
+     * Moves the cursor to the next cell of the line.
+     *
+     * @return {@code true} if the cursor moved, or {@code false} if the
+     *         last cell has already been visited
+     */
+    public boolean next() {
+        if (!this.started) {
+            this.started = true;
+            return true;
+        }
+        if (this.remaining <= 0) {
+            return false;
+        }
+        this.remaining--;
+        switch (this.axis) {
+            case 0:
+                this.x += this.stepX;
+                if (this.error1 >= 0) {
+                    this.y += this.stepY;
+                    this.error1 -= 2 * this.dx;
+                }
+                if (this.error2 >= 0) {
+                    this.z += this.stepZ;
+                    this.error2 -= 2 * this.dx;
+                }
+                this.error1 += 2 * this.dy;
+                this.error2 += 2 * this.dz;
+                break;
+            case 1:
+                this.y += this.stepY;
+                if (this.error1 >= 0) {
+                    this.x += this.stepX;
+                    this.error1 -= 2 * this.dy;
+                }
+                if (this.error2 >= 0) {
+                    this.z += this.stepZ;
+                    this.error2 -= 2 * this.dy;
+                }
+                this.error1 += 2 * this.dx;
+                this.error2 += 2 * this.dz;
+                break;
+            default:
+                this.z += this.stepZ;
+                if (this.error1 >= 0) {
+                    this.y += this.stepY;
+                    this.error1 -= 2 * this.dz;
+                }
+                if (this.error2 >= 0) {
+                    this.x += this.stepX;
+                    this.error2 -= 2 * this.dz;
+                }
+                this.error1 += 2 * this.dy;
+                this.error2 += 2 * this.dx;
+                break;
+        }
+        return true;
+    }
+
+    /**
+     * Moves the cursor through the remaining cells, stopping at the
+     * first that matches the given predicate.
+     *
+     * @param hit The predicate
+     * @return {@code true} if a cell matched, in which case the cursor
+     *         is positioned at it
+     */
+    public boolean advanceUntil(final IntTriPredicate hit) {
+        while (this.next()) {
+            if (hit.test(this.x, this.y, this.z)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the x position of the current cell.
+     *
+     * @return The x pos
+     */
+    public int getX() {
+        return this.x;
+    }
+
+    /**
+     * Gets the y position of the current cell.
+     *
+     * @return The y pos
+     */
+    public int getY() {
+        return this.y;
+    }
+
+    /**
+     * Gets the z position of the current cell.
+     *
+     * @return The z pos
+     */
+    public int getZ() {
+        return this.z;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("x", this.x)
+                .add("y", this.y)
+                .add("z", this.z)
+                .toString();
+    }
+
+}
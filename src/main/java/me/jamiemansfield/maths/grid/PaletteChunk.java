@@ -0,0 +1,233 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.grid;
+
+/**
+ * A chunk holding a palette of its distinct values, and a packed index
+ * into the palette for every voxel.
+ *
+ * <p>Indices are 0, 1, 2, 4 or 8 bits wide, so that they never span
+ * words and can be found with shifts alone. When the palette is full,
+ * unused entries are dropped and the indices are repacked, at a width
+ * with room to spare.</p>
+ */
+final class PaletteChunk extends VoxelChunk {
+
+    private static final int MAX_BITS = 8;
+
+    private final int volume;
+    private int[] palette;
+    private int paletteSize;
+    private int bits;
+    private int log2Bits;
+    private long[] data;
+
+    // the most recently written value, as writes are usually repetitive
+    private int lastValue;
+    private int lastId;
+
+    /**
+     * Creates a chunk of the given uniform value.
+     *
+     * @param volume The number of voxels in the chunk
+     * @param value The value
+     */
+    PaletteChunk(final int volume, final int value) {
+        this.volume = volume;
+        this.palette = new int[] { value };
+        this.paletteSize = 1;
+        this.lastValue = value;
+    }
+
+    @Override
+    int volume() {
+        return this.volume;
+    }
+
+    @Override
+    int get(final int index) {
+        if (this.bits == 0) {
+            return this.palette[0];
+        }
+        final int shift = 6 - this.log2Bits;
+        final long word = this.data[index >>> shift];
+        final int offset = (index & ((1 << shift) - 1)) << this.log2Bits;
+        return this.palette[(int) (word >>> offset) & ((1 << this.bits) - 1)];
+    }
+
+    @Override
+    VoxelChunk set(final int index, final int value, final ChunkStorage storage) {
+        // A dense grid's chunk is only palette-encoded once compacted, so
+        // is expanded back on its first write
+        if (storage != ChunkStorage.PALETTE || !this.setId(index, value)) {
+            final DenseChunk dense = this.toDense();
+            dense.values[index] = value;
+            return dense;
+        }
+        return this;
+    }
+
+    /**
+     * Sets the value of the given voxel, if the palette has room for it.
+     *
+     * @param index The index of the voxel
+     * @param value The value
+     * @return {@code true} if the value was set, or {@code false} if the
+     *         chunk has too many distinct values
+     */
+    boolean setId(final int index, final int value) {
+        int id = this.lastValue == value ? this.lastId : this.indexOf(value);
+        if (id < 0) {
+            if (this.paletteSize == this.palette.length && !this.repack()) {
+                return false;
+            }
+            id = this.paletteSize++;
+            this.palette[id] = value;
+        }
+        this.lastValue = value;
+        this.lastId = id;
+        if (this.bits != 0) {
+            this.write(this.data, this.log2Bits, index, id);
+        }
+        return true;
+    }
+
+    /**
+     * Expands the chunk to an int for every voxel.
+     *
+     * @return The expanded chunk
+     */
+    DenseChunk toDense() {
+        final DenseChunk dense = new DenseChunk(this.volume);
+        for (int i = 0; i < this.volume; i++) {
+            dense.values[i] = this.get(i);
+        }
+        dense.count = this.count;
+        return dense;
+    }
+
+    @Override
+    VoxelChunk fill(final int value, final ChunkStorage storage) {
+        if (storage != ChunkStorage.PALETTE) {
+            return super.fill(value, storage);
+        }
+        this.palette = new int[] { value };
+        this.paletteSize = 1;
+        this.bits = 0;
+        this.log2Bits = 0;
+        this.data = null;
+        this.lastValue = value;
+        this.lastId = 0;
+        return this;
+    }
+
+    @Override
+    long bytes() {
+        return OBJECT_BYTES * 3 + 4L * this.palette.length + (this.data == null ? 0 : 8L * this.data.length);
+    }
+
+    private int indexOf(final int value) {
+        for (int i = 0; i < this.paletteSize; i++) {
+            if (this.palette[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Drops unused entries from the full palette, and repacks the indices
+     * with room for a quarter as many entries again.
+     *
+     * @return {@code false} if the entries would need more than
+     *         {@link #MAX_BITS} bits, or no longer save space
+     */
+    private boolean repack() {
+        final int[] usage = new int[this.paletteSize];
+        if (this.bits == 0) {
+            usage[0] = this.volume;
+        } else {
+            for (int i = 0; i < this.volume; i++) {
+                usage[this.readId(i)]++;
+            }
+        }
+        int used = 0;
+        final int[] remap = new int[this.paletteSize];
+        for (int id = 0; id < this.paletteSize; id++) {
+            remap[id] = usage[id] > 0 ? used++ : -1;
+        }
+        final int bits = bitsFor(used + 1 + used / 4);
+        final long words = ((long) this.volume * bits + 63) >>> 6;
+        if (bits < 0 || 4L * (1 << bits) + 8 * words >= 4L * this.volume) {
+            // no smaller than an int for every voxel
+            return false;
+        }
+
+        final int[] palette = new int[1 << bits];
+        for (int id = 0; id < this.paletteSize; id++) {
+            if (remap[id] >= 0) {
+                palette[remap[id]] = this.palette[id];
+            }
+        }
+        final int log2Bits = Integer.numberOfTrailingZeros(bits);
+        final long[] data = new long[(int) words];
+        for (int i = 0; i < this.volume; i++) {
+            this.write(data, log2Bits, i, remap[this.bits == 0 ? 0 : this.readId(i)]);
+        }
+        this.palette = palette;
+        this.paletteSize = used;
+        this.bits = bits;
+        this.log2Bits = log2Bits;
+        this.data = data;
+        this.lastValue = palette[0];
+        this.lastId = 0;
+        return true;
+    }
+
+    private int readId(final int index) {
+        final int shift = 6 - this.log2Bits;
+        final int offset = (index & ((1 << shift) - 1)) << this.log2Bits;
+        return (int) (this.data[index >>> shift] >>> offset) & ((1 << this.bits) - 1);
+    }
+
+    private void write(final long[] data, final int log2Bits, final int index, final int id) {
+        final int shift = 6 - log2Bits;
+        final int offset = (index & ((1 << shift) - 1)) << log2Bits;
+        final long mask = ((1L << (1 << log2Bits)) - 1) << offset;
+        final int word = index >>> shift;
+        data[word] = (data[word] & ~mask) | ((long) id << offset);
+    }
+
+    private static int bitsFor(final int entries) {
+        for (int bits = 1; bits <= MAX_BITS; bits <<= 1) {
+            if (entries <= 1 << bits) {
+                return bits;
+            }
+        }
+        return -1;
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.grid;
+
+/**
+ * A read-optimised chunk holding runs of equal values, in index order,
+ * found by binary search.
+ *
+ * <p>Writing to the chunk first expands it to the storage of the
+ * grid.</p>
+ */
+final class RunLengthChunk extends VoxelChunk {
+
+    /**
+     * Gets the approximate number of bytes a chunk of the given number of
+     * runs would occupy.
+     *
+     * @param runs The number of runs
+     * @return The size, in bytes
+     */
+    static long bytes(final int runs) {
+        return OBJECT_BYTES * 3 + 8L * runs;
+    }
+
+    /**
+     * Encodes the given chunk as runs.
+     *
+     * @param chunk The chunk
+     * @param runs The number of runs in the chunk
+     * @return The encoded chunk
+     */
+    static RunLengthChunk of(final VoxelChunk chunk, final int runs) {
+        final int volume = chunk.volume();
+        final int[] ends = new int[runs];
+        final int[] values = new int[runs];
+        int run = 0;
+        values[0] = chunk.get(0);
+        for (int i = 1; i < volume; i++) {
+            final int value = chunk.get(i);
+            if (value != values[run]) {
+                ends[run++] = i;
+                values[run] = value;
+            }
+        }
+        ends[run] = volume;
+        return new RunLengthChunk(ends, values);
+    }
+
+    // the exclusive end index of each run, and its value
+    private final int[] ends;
+    private final int[] values;
+
+    private RunLengthChunk(final int[] ends, final int[] values) {
+        this.ends = ends;
+        this.values = values;
+    }
+
+    @Override
+    int volume() {
+        return this.ends[this.ends.length - 1];
+    }
+
+    @Override
+    int get(final int index) {
+        int low = 0;
+        int high = this.ends.length - 1;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (this.ends[mid] <= index) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return this.values[low];
+    }
+
+    @Override
+    VoxelChunk set(final int index, final int value, final ChunkStorage storage) {
+        VoxelChunk chunk = storage.create(this.volume());
+        for (int run = 0, start = 0; run < this.ends.length; start = this.ends[run++]) {
+            final int runValue = this.values[run];
+            if (runValue != 0) {
+                for (int i = start; i < this.ends[run]; i++) {
+                    chunk = chunk.set(i, runValue, storage);
+                }
+            }
+        }
+        chunk.count = this.count;
+        return chunk.set(index, value, storage);
+    }
+
+    @Override
+    long bytes() {
+        return bytes(this.ends.length);
+    }
+
+    @Override
+    VoxelChunk compact() {
+        return this;
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.grid;
+
+/**
+ * The values of a chunk of a {@link VoxelGrid}, indexed from {@code 0}
+ * to its volume.
+ *
+ * <p>Writes may change the representation of a chunk, so return the
+ * chunk that should replace it.</p>
+ */
+abstract class VoxelChunk {
+
+    // a rough size for the header of an object or an array, in bytes
+    static final int OBJECT_BYTES = 16;
+
+    /**
+     * The number of non-zero voxels, maintained by the grid.
+     */
+    int count;
+
+    /**
+     * Gets the number of voxels in the chunk.
+     *
+     * @return The volume
+     */
+    abstract int volume();
+
+    /**
+     * Gets the value of the given voxel.
+     *
+     * @param index The index of the voxel
+     * @return The value
+     */
+    abstract int get(int index);
+
+    /**
+     * Sets the value of the given voxel.
+     *
+     * @param index The index of the voxel
+     * @param value The value
+     * @param storage The storage of the grid, for chunks that cannot be
+     *                written in place
+     * @return The chunk holding the new value, which may be a new chunk
+     */
+    abstract VoxelChunk set(int index, int value, ChunkStorage storage);
+
+    /**
+     * Sets every voxel of the chunk to the given value.
+     *
+     * @param value The value
+     * @param storage The storage of the grid
+     * @return The chunk holding the new values, which may be a new chunk
+     */
+    VoxelChunk fill(final int value, final ChunkStorage storage) {
+        final PaletteChunk chunk = new PaletteChunk(this.volume(), value);
+        if (storage == ChunkStorage.DENSE) {
+            return chunk.toDense();
+        }
+        return chunk;
+    }
+
+    /**
+     * Gets the approximate number of bytes the chunk occupies.
+     *
+     * @return The size, in bytes
+     */
+    abstract long bytes();
+
+    /**
+     * Re-encodes the chunk in the smallest of the palette and run-length
+     * representations, if either is smaller than this one.
+     *
+     * @return The smallest chunk
+     */
+    VoxelChunk compact() {
+        final int volume = this.volume();
+        int runs = 1;
+        int previous = this.get(0);
+        final PaletteChunk palette = new PaletteChunk(volume, previous);
+        for (int i = 1; i < volume; i++) {
+            final int value = this.get(i);
+            if (value != previous) {
+                runs++;
+                previous = value;
+            }
+        }
+        final long runBytes = RunLengthChunk.bytes(runs);
+        boolean paletted = runBytes > OBJECT_BYTES * 3 + volume / 8;
+        if (paletted) {
+            // only worth building the palette when runs may not win
+            for (int i = 0; i < volume && paletted; i++) {
+                paletted = palette.setId(i, this.get(i));
+            }
+        }
+        VoxelChunk best = this;
+        if (runBytes < best.bytes()) {
+            best = RunLengthChunk.of(this, runs);
+        }
+        if (paletted && palette.bytes() < best.bytes()) {
+            best = palette;
+        }
+        best.count = this.count;
+        return best;
+    }
+
+}
@@ -0,0 +1,445 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.grid;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.MoreObjects;
+import me.jamiemansfield.maths.coord.Coordinate3i;
+import me.jamiemansfield.maths.coord.Coordinate3iMap;
+import me.jamiemansfield.maths.function.IntTriConsumer;
+
+/**
+ * A sparse, unbounded 3-dimensional grid of int values, that divides
+ * space into cubic chunks, each holding the values of its voxels.
+ *
+ * <p>A value of {@code 0} is treated as absent: chunks are allocated
+ * when a non-zero value is first set within them, and released once
+ * every value within them has been returned to zero. With
+ * {@link ChunkStorage#DENSE dense} storage, spatially clustered data
+ * costs little more than 4 bytes per voxel; with
+ * {@link ChunkStorage#PALETTE palette} storage, grids of few distinct
+ * values cost a fraction of that. {@link #compact()} can further
+ * re-encode chunks of long uniform runs as runs.</p>
+ *
+ * <p>This grid is not thread-safe.</p>
+ */
+public final class VoxelGrid {
+
+    private static final int DEFAULT_CHUNK_BITS = 4;
+
+    private final int chunkBits;
+    private final int chunkSize;
+    private final int chunkMask;
+    private final int chunkVolume;
+    private final ChunkStorage storage;
+    private final Coordinate3iMap<VoxelChunk> chunks = new Coordinate3iMap<>();
+    private long size;
+
+    // the most recently accessed chunk, as access is usually clustered
+    private int cachedX;
+    private int cachedY;
+    private int cachedZ;
+    private VoxelChunk cached;
+
+    /**
+     * Creates an empty grid, with dense chunks of 16x16x16 voxels.
+     */
+    public VoxelGrid() {
+        this(DEFAULT_CHUNK_BITS);
+    }
+
+    /**
+     * Creates an empty grid, with chunks of 16x16x16 voxels in the given
+     * storage.
+     *
+     * @param storage The storage of the chunks
+     */
+    public VoxelGrid(final ChunkStorage storage) {
+        this(DEFAULT_CHUNK_BITS, storage);
+    }
+
+    /**
+     * Creates an empty grid, with dense chunks of {@code 2^chunkBits}
+     * voxels along each axis.
+     *
+     * @param chunkBits The log2 of the chunk size
+     */
+    public VoxelGrid(final int chunkBits) {
+        this(chunkBits, ChunkStorage.DENSE);
+    }
+
+    /**
+     * Creates an empty grid, with chunks of {@code 2^chunkBits} voxels
+     * along each axis in the given storage.
+     *
+     * @param chunkBits The log2 of the chunk size
+     * @param storage The storage of the chunks
+     */
+    public VoxelGrid(final int chunkBits, final ChunkStorage storage) {
+        checkNotNull(storage, "storage");
+        checkArgument(chunkBits > 0 && chunkBits <= 8, "chunkBits must be within [1, 8]");
+        this.chunkBits = chunkBits;
+        this.chunkSize = 1 << chunkBits;
+        this.chunkMask = this.chunkSize - 1;
+        this.chunkVolume = 1 << (chunkBits * 3);
+        this.storage = storage;
+    }
+
+    /**
+     * Gets the storage of the grid's chunks.
+     *
+     * @return The storage
+     */
+    public ChunkStorage getStorage() {
+        return this.storage;
+    }
+
+    /**
+     * Gets the number of voxels along each axis of a chunk.
+     *
+     * @return The chunk size
+     */
+    public int getChunkSize() {
+        return this.chunkSize;
+    }
+
+    /**
+     * Gets the number of non-zero voxels in the grid.
+     *
+     * @return The size
+     */
+    public long size() {
+        return this.size;
+    }
+
+    /**
+     * Gets the number of allocated chunks in the grid.
+     *
+     * @return The number of chunks
+     */
+    public int chunkCount() {
+        return this.chunks.size();
+    }
+
+    /**
+     * Gets the value of the given voxel.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @return The value, or {@code 0} if none has been set
+     */
+    public int get(final int x, final int y, final int z) {
+        final VoxelChunk chunk = this.chunk(x >> this.chunkBits, y >> this.chunkBits, z >> this.chunkBits);
+        return chunk == null ? 0 : chunk.get(this.index(x, y, z));
+    }
+
+    /**
+     * Gets the value of the given voxel.
+     *
+     * @param coord The coordinate of the voxel
+     * @return The value, or {@code 0} if none has been set
+     */
+    public int get(final Coordinate3i coord) {
+        return this.get(coord.getX(), coord.getY(), coord.getZ());
+    }
+
+    /**
+     * Sets the value of the given voxel.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @param value The value, where {@code 0} removes the voxel
+     * @return The previous value
+     */
+    public int set(final int x, final int y, final int z, final int value) {
+        final int cx = x >> this.chunkBits;
+        final int cy = y >> this.chunkBits;
+        final int cz = z >> this.chunkBits;
+        VoxelChunk chunk = this.chunk(cx, cy, cz);
+        if (chunk == null) {
+            if (value == 0) {
+                return 0;
+            }
+            chunk = this.createChunk(cx, cy, cz);
+        }
+        final int index = this.index(x, y, z);
+        final int previous = chunk.get(index);
+        if (previous == value) {
+            return previous;
+        }
+        final VoxelChunk updated = chunk.set(index, value, this.storage);
+        if (updated != chunk) {
+            chunk = this.replaceChunk(cx, cy, cz, updated);
+        }
+        if (previous == 0 && value != 0) {
+            chunk.count++;
+            this.size++;
+        } else if (previous != 0 && value == 0) {
+            this.size--;
+            if (--chunk.count == 0) {
+                this.releaseChunk(cx, cy, cz);
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * Sets the value of the given voxel.
+     *
+     * @param coord The coordinate of the voxel
+     * @param value The value, where {@code 0} removes the voxel
+     * @return The previous value
+     */
+    public int set(final Coordinate3i coord, final int value) {
+        return this.set(coord.getX(), coord.getY(), coord.getZ(), value);
+    }
+
+    /**
+     * Sets every voxel of the given chunk to the given value.
+     *
+     * @param cx The x position of the chunk
+     * @param cy The y position of the chunk
+     * @param cz The z position of the chunk
+     * @param value The value, where {@code 0} releases the chunk
+     */
+    public void fillChunk(final int cx, final int cy, final int cz, final int value) {
+        VoxelChunk chunk = this.chunk(cx, cy, cz);
+        if (value == 0) {
+            if (chunk != null) {
+                this.size -= chunk.count;
+                this.releaseChunk(cx, cy, cz);
+            }
+            return;
+        }
+        if (chunk == null) {
+            chunk = this.createChunk(cx, cy, cz);
+        }
+        final int count = chunk.count;
+        final VoxelChunk filled = chunk.fill(value, this.storage);
+        if (filled != chunk) {
+            chunk = this.replaceChunk(cx, cy, cz, filled);
+        }
+        this.size += this.chunkVolume - count;
+        chunk.count = this.chunkVolume;
+    }
+
+    /**
+     * Sets every voxel within the given box, inclusive of its bounds,
+     * to the given value. Chunks wholly within the box are filled in
+     * bulk.
+     *
+     * @param minX The minimum x position
+     * @param minY The minimum y position
+     * @param minZ The minimum z position
+     * @param maxX The maximum x position
+     * @param maxY The maximum y position
+     * @param maxZ The maximum z position
+     * @param value The value, where {@code 0} removes the voxels
+     */
+    public void fill(final int minX, final int minY, final int minZ, final int maxX, final int maxY, final int maxZ,
+            final int value) {
+        checkArgument(minX <= maxX && minY <= maxY && minZ <= maxZ, "Minimum cannot be greater than maximum");
+        // the box may end at Integer.MAX_VALUE, so each loop stops on
+        // reaching its end, as Bounds3i#forEach does
+        final int maxCx = maxX >> this.chunkBits;
+        final int maxCy = maxY >> this.chunkBits;
+        final int maxCz = maxZ >> this.chunkBits;
+        int cz = minZ >> this.chunkBits;
+        do {
+            final int z0 = Math.max(minZ, cz << this.chunkBits);
+            final int z1 = Math.min(maxZ, (cz << this.chunkBits) + this.chunkMask);
+            int cy = minY >> this.chunkBits;
+            do {
+                final int y0 = Math.max(minY, cy << this.chunkBits);
+                final int y1 = Math.min(maxY, (cy << this.chunkBits) + this.chunkMask);
+                int cx = minX >> this.chunkBits;
+                do {
+                    final int x0 = Math.max(minX, cx << this.chunkBits);
+                    final int x1 = Math.min(maxX, (cx << this.chunkBits) + this.chunkMask);
+                    if (x1 - x0 == this.chunkMask && y1 - y0 == this.chunkMask && z1 - z0 == this.chunkMask) {
+                        this.fillChunk(cx, cy, cz, value);
+                        continue;
+                    }
+                    int z = z0;
+                    do {
+                        int y = y0;
+                        do {
+                            int x = x0;
+                            do {
+                                this.set(x, y, z, value);
+                            } while (x++ != x1);
+                        } while (y++ != y1);
+                    } while (z++ != z1);
+                } while (cx++ != maxCx);
+            } while (cy++ != maxCy);
+        } while (cz++ != maxCz);
+    }
+
+    /**
+     * Performs the given action for the position of each allocated
+     * chunk.
+     *
+     * @param consumer The action, accepting the chunk position
+     */
+    public void forEachChunk(final IntTriConsumer consumer) {
+        this.chunks.forEachKey(consumer);
+    }
+
+    /**
+     * Performs the given action for each non-zero voxel in the grid,
+     * visiting one chunk at a time.
+     *
+     * @param consumer The action
+     */
+    public void forEachVoxel(final VoxelConsumer consumer) {
+        this.chunks.forEach((cx, cy, cz, chunk) -> {
+            final int baseX = cx << this.chunkBits;
+            final int baseY = cy << this.chunkBits;
+            final int baseZ = cz << this.chunkBits;
+            int index = 0;
+            for (int y = 0; y < this.chunkSize; y++) {
+                for (int z = 0; z < this.chunkSize; z++) {
+                    for (int x = 0; x < this.chunkSize; x++, index++) {
+                        final int value = chunk.get(index);
+                        if (value != 0) {
+                            consumer.accept(baseX + x, baseY + y, baseZ + z, value);
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Re-encodes every chunk in its smallest representation - including
+     * as runs of equal values, which suit chunks of large uniform regions
+     * that are read far more than written. Chunks are expanded back to
+     * the grid's storage when next written, so a compacted chunk of a
+     * {@link ChunkStorage#DENSE} grid returns to an int for every voxel.
+     */
+    public void compact() {
+        this.chunks.forEach((cx, cy, cz, chunk) -> {
+            final VoxelChunk compacted = chunk.compact();
+            if (compacted != chunk) {
+                this.chunks.put(cx, cy, cz, compacted);
+            }
+        });
+        this.cached = null;
+    }
+
+    /**
+     * Removes every voxel from the grid.
+     */
+    public void clear() {
+        this.chunks.clear();
+        this.cached = null;
+        this.size = 0;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("size", this.size)
+                .add("chunks", this.chunks.size())
+                .add("chunkSize", this.chunkSize)
+                .add("storage", this.storage)
+                .toString();
+    }
+
+    private int index(final int x, final int y, final int z) {
+        return ((((y & this.chunkMask) << this.chunkBits) | (z & this.chunkMask)) << this.chunkBits) | (x & this.chunkMask);
+    }
+
+    /**
+     * Gets the approximate number of bytes occupied by the grid's chunks.
+     *
+     * @return The size, in bytes
+     */
+    long storageBytes() {
+        final long[] bytes = { 0 };
+        this.chunks.forEach((cx, cy, cz, chunk) -> bytes[0] += chunk.bytes());
+        return bytes[0];
+    }
+
+    private VoxelChunk chunk(final int cx, final int cy, final int cz) {
+        if (this.cached != null && this.cachedX == cx && this.cachedY == cy && this.cachedZ == cz) {
+            return this.cached;
+        }
+        final VoxelChunk chunk = this.chunks.get(cx, cy, cz);
+        if (chunk != null) {
+            this.cache(cx, cy, cz, chunk);
+        }
+        return chunk;
+    }
+
+    private VoxelChunk createChunk(final int cx, final int cy, final int cz) {
+        final VoxelChunk chunk = this.storage.create(this.chunkVolume);
+        this.chunks.put(cx, cy, cz, chunk);
+        this.cache(cx, cy, cz, chunk);
+        return chunk;
+    }
+
+    private VoxelChunk replaceChunk(final int cx, final int cy, final int cz, final VoxelChunk chunk) {
+        this.chunks.put(cx, cy, cz, chunk);
+        this.cache(cx, cy, cz, chunk);
+        return chunk;
+    }
+
+    private void releaseChunk(final int cx, final int cy, final int cz) {
+        this.chunks.remove(cx, cy, cz);
+        this.cached = null;
+    }
+
+    private void cache(final int cx, final int cy, final int cz, final VoxelChunk chunk) {
+        this.cachedX = cx;
+        this.cachedY = cy;
+        this.cachedZ = cz;
+        this.cached = chunk;
+    }
+
+    /**
+     * Represents an operation that accepts a voxel and its value.
+     */
+    @FunctionalInterface
+    public interface VoxelConsumer {
+
+        /**
+         * Performs this operation on the given voxel.
+         *
+         * @param x The x position
+         * @param y The y position
+         * @param z The z position
+         * @param value The value
+         */
+        void accept(int x, int y, int z, int value);
+
+    }
+
+}
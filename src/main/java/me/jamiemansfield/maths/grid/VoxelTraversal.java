@@ -0,0 +1,240 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.grid;
+
+import com.google.common.base.MoreObjects;
+import me.jamiemansfield.maths.coord.Coordinate3d;
+import me.jamiemansfield.maths.coord.Coordinate3i;
+import me.jamiemansfield.maths.function.IntTriPredicate;
+
+/**
+ * A reusable cursor over the unit voxels that a line segment passes
+ * through, in order from its start to its end - using the algorithm
+ * of Amanatides and Woo.
+ *
+ * <p>The voxel containing a point {@code (x, y, z)} is that at
+ * {@code (floor(x), floor(y), floor(z))}. The cursor exposes the
+ * current voxel as primitives, so traversal creates no objects:</p>
+ *
+ * <pre>
+ * traversal.reset(from, to);
+ * while (traversal.next()) {
+ *     // traversal.getX(), traversal.getY(), traversal.getZ()
+ * }
+ * </pre>
+ *
+ * <p>A cursor is not thread-safe, but may be reused for any number of
+ * traversals.</p>
+ */
+public final class VoxelTraversal {
+
+    /**
+     * Visits the voxels between the given points, in order, until the
+     * given predicate matches one of them.
+     *
+     * @param from The start of the segment
+     * @param to The end of the segment
+     * @param hit The predicate, which ends the traversal when it matches
+     * @return The first voxel matched, or {@code null} if there was none
+     */
+    public static Coordinate3i firstHit(final Coordinate3d from, final Coordinate3d to, final IntTriPredicate hit) {
+        final VoxelTraversal traversal = new VoxelTraversal();
+        traversal.reset(from, to);
+        return traversal.advanceUntil(hit) ? new Coordinate3i(traversal.x, traversal.y, traversal.z) : null;
+    }
+
+    private int x;
+    private int y;
+    private int z;
+    private int stepX;
+    private int stepY;
+    private int stepZ;
+    private int endX;
+    private int endY;
+    private int endZ;
+    private double tMaxX;
+    private double tMaxY;
+    private double tMaxZ;
+    private double tDeltaX;
+    private double tDeltaY;
+    private double tDeltaZ;
+    private double t;
+    private boolean started;
+    private boolean finished = true;
+
+    /**
+     * Positions the cursor before the first voxel of the segment between
+     * the given points.
+     *
+     * @param from The start of the segment
+     * @param to The end of the segment
+     */
+    public void reset(final Coordinate3d from, final Coordinate3d to) {
+        this.reset(from.getX(), from.getY(), from.getZ(), to.getX(), to.getY(), to.getZ());
+    }
+
+    /**
+     * Positions the cursor before the first voxel of the segment between
+     * the given points.
+     *
+     * @param x0 The x position of the start
+     * @param y0 The y position of the start
+     * @param z0 The z position of the start
+     * @param x1 The x position of the end
+     * @param y1 The y position of the end
+     * @param z1 The z position of the end
+     */
+    public void reset(final double x0, final double y0, final double z0, final double x1, final double y1, final double z1) {
+        this.x = (int) Math.floor(x0);
+        this.y = (int) Math.floor(y0);
+        this.z = (int) Math.floor(z0);
+        this.endX = (int) Math.floor(x1);
+        this.endY = (int) Math.floor(y1);
+        this.endZ = (int) Math.floor(z1);
+
+        final double dx = x1 - x0;
+        final double dy = y1 - y0;
+        final double dz = z1 - z0;
+        this.stepX = this.endX > this.x ? 1 : this.endX < this.x ? -1 : 0;
+        this.stepY = this.endY > this.y ? 1 : this.endY < this.y ? -1 : 0;
+        this.stepZ = this.endZ > this.z ? 1 : this.endZ < this.z ? -1 : 0;
+        this.tDeltaX = this.stepX == 0 ? Double.POSITIVE_INFINITY : 1 / Math.abs(dx);
+        this.tDeltaY = this.stepY == 0 ? Double.POSITIVE_INFINITY : 1 / Math.abs(dy);
+        this.tDeltaZ = this.stepZ == 0 ? Double.POSITIVE_INFINITY : 1 / Math.abs(dz);
+        this.tMaxX = this.stepX > 0 ? (this.x + 1 - x0) / dx : this.stepX < 0 ? (x0 - this.x) / -dx : Double.POSITIVE_INFINITY;
+        this.tMaxY = this.stepY > 0 ? (this.y + 1 - y0) / dy : this.stepY < 0 ? (y0 - this.y) / -dy : Double.POSITIVE_INFINITY;
+        this.tMaxZ = this.stepZ > 0 ? (this.z + 1 - z0) / dz : this.stepZ < 0 ? (z0 - this.z) / -dz : Double.POSITIVE_INFINITY;
+        this.t = 0;
+        this.started = false;
+        this.finished = false;
+    }
+
+    /**
+     * Moves the cursor to the next voxel of the segment.
+     *
+     * @return {@code true} if the cursor moved, or {@code false} if the
+     *         last voxel has already been visited
+     */
+    public boolean next() {
+        if (this.finished) {
+            return false;
+        }
+        if (!this.started) {
+            this.started = true;
+            return true;
+        }
+        if (this.x == this.endX && this.y == this.endY && this.z == this.endZ) {
+            this.finished = true;
+            return false;
+        }
+
+        // only step along axes that have not reached the end voxel, so
+        // rounding error cannot carry the traversal past it
+        final double tx = this.x == this.endX ? Double.POSITIVE_INFINITY : this.tMaxX;
+        final double ty = this.y == this.endY ? Double.POSITIVE_INFINITY : this.tMaxY;
+        final double tz = this.z == this.endZ ? Double.POSITIVE_INFINITY : this.tMaxZ;
+        if (tx <= ty && tx <= tz) {
+            this.x += this.stepX;
+            this.t = this.tMaxX;
+            this.tMaxX += this.tDeltaX;
+        } else if (ty <= tz) {
+            this.y += this.stepY;
+            this.t = this.tMaxY;
+            this.tMaxY += this.tDeltaY;
+        } else {
+            this.z += this.stepZ;
+            this.t = this.tMaxZ;
+            this.tMaxZ += this.tDeltaZ;
+        }
+        return true;
+    }
+
+    /**
+     * Moves the cursor through the remaining voxels, stopping at the
+     * first that matches the given predicate.
+     *
+     * @param hit The predicate
+     * @return {@code true} if a voxel matched, in which case the cursor
+     *         is positioned at it
+     */
+    public boolean advanceUntil(final IntTriPredicate hit) {
+        while (this.next()) {
+            if (hit.test(this.x, this.y, this.z)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the x position of the current voxel.
+     *
+     * @return The x pos
+     */
+    public int getX() {
+        return this.x;
+    }
+
+    /**
+     * Gets the y position of the current voxel.
+     *
+     * @return The y pos
+     */
+    public int getY() {
+        return this.y;
+    }
+
+    /**
+     * Gets the z position of the current voxel.
+     *
+     * @return The z pos
+     */
+    public int getZ() {
+        return this.z;
+    }
+
+    /**
+     * Gets the parameter along the segment at which it enters the
+     * current voxel, from {@code 0} at the start to {@code 1} at the
+     * end.
+     *
+     * @return The entry parameter
+     */
+    public double getT() {
+        return this.t;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("x", this.x)
+                .add("y", this.y)
+                .add("z", this.z)
+                .add("t", this.t)
+                .toString();
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.path;
+
+import java.util.Arrays;
+
+/**
+ * The moves permitted between cells of a grid.
+ *
+ * <p>Diagonal moves are only permitted where every cell they pass
+ * between is also passable - so a path never cuts a corner.</p>
+ */
+public enum Connectivity {
+
+    /**
+     * Moves along the x and y axes of a 2-dimensional grid.
+     */
+    FOUR(2, 1),
+
+    /**
+     * Moves along the x and y axes, and their diagonals, of a
+     * 2-dimensional grid.
+     */
+    EIGHT(2, 2),
+
+    /**
+     * Moves along the x, y and z axes of a 3-dimensional grid.
+     */
+    SIX(3, 1),
+
+    /**
+     * Moves to any of the 26 cells surrounding a cell of a
+     * 3-dimensional grid.
+     */
+    TWENTY_SIX(3, 3),
+    ;
+
+    private static final double SQRT_2 = Math.sqrt(2);
+    private static final double SQRT_3 = Math.sqrt(3);
+
+    private final int dimensions;
+    final int[] dxs;
+    final int[] dys;
+    final int[] dzs;
+    final double[] lengths;
+    // the single-axis steps each move passes between, as offset triples
+    final int[][] corners;
+
+    Connectivity(final int dimensions, final int maxAxes) {
+        this.dimensions = dimensions;
+        final int range = dimensions == 3 ? 1 : 0;
+        int count = 0;
+        final int[] dxs = new int[26];
+        final int[] dys = new int[26];
+        final int[] dzs = new int[26];
+        for (int dz = -range; dz <= range; dz++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    final int axes = Math.abs(dx) + Math.abs(dy) + Math.abs(dz);
+                    if (axes == 0 || axes > maxAxes) {
+                        continue;
+                    }
+                    dxs[count] = dx;
+                    dys[count] = dy;
+                    dzs[count] = dz;
+                    count++;
+                }
+            }
+        }
+        this.dxs = Arrays.copyOf(dxs, count);
+        this.dys = Arrays.copyOf(dys, count);
+        this.dzs = Arrays.copyOf(dzs, count);
+        this.lengths = new double[count];
+        this.corners = new int[count][];
+        for (int i = 0; i < count; i++) {
+            final int axes = Math.abs(this.dxs[i]) + Math.abs(this.dys[i]) + Math.abs(this.dzs[i]);
+            this.lengths[i] = Math.sqrt(axes);
+
+            // every non-empty, proper subset of the move's components
+            final int moveMask = (this.dxs[i] != 0 ? 1 : 0) | (this.dys[i] != 0 ? 2 : 0) | (this.dzs[i] != 0 ? 4 : 0);
+            final int[] corners = new int[((1 << axes) - 2) * 3];
+            int c = 0;
+            for (int mask = 1; mask < moveMask; mask++) {
+                if ((mask & ~moveMask) != 0) {
+                    continue;
+                }
+                corners[c++] = (mask & 1) == 0 ? 0 : this.dxs[i];
+                corners[c++] = (mask & 2) == 0 ? 0 : this.dys[i];
+                corners[c++] = (mask & 4) == 0 ? 0 : this.dzs[i];
+            }
+            this.corners[i] = corners;
+        }
+    }
+
+    /**
+     * Gets the number of dimensions of the grid.
+     *
+     * @return The number of dimensions
+     */
+    public int getDimensions() {
+        return this.dimensions;
+    }
+
+    /**
+     * Gets the number of moves from each cell.
+     *
+     * @return The number of moves
+     */
+    public int getMoves() {
+        return this.dxs.length;
+    }
+
+    /**
+     * Estimates the cost of the cheapest path between two cells, where
+     * each move costs its Euclidean length. The estimate never exceeds
+     * the true cost, so is an admissible heuristic.
+     *
+     * @param dx The distance along the x axis
+     * @param dy The distance along the y axis
+     * @param dz The distance along the z axis
+     * @return The estimate
+     */
+    double estimate(final int dx, final int dy, final int dz) {
+        final int x = Math.abs(dx);
+        final int y = Math.abs(dy);
+        final int z = Math.abs(dz);
+        switch (this) {
+            case FOUR:
+            case SIX:
+                return (double) x + y + z;
+            case EIGHT:
+                return Math.max(x, y) + (SQRT_2 - 1) * Math.min(x, y);
+            default:
+                final int max = Math.max(x, Math.max(y, z));
+                final int min = Math.min(x, Math.min(y, z));
+                final int mid = x + y + z - max - min;
+                return max + (SQRT_2 - 1) * mid + (SQRT_3 - SQRT_2) * min;
+        }
+    }
+
+}
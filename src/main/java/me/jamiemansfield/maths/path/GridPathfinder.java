@@ -0,0 +1,326 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.path;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.MoreObjects;
+import me.jamiemansfield.maths.coord.Coordinate2i;
+import me.jamiemansfield.maths.coord.Coordinate2iPacker;
+import me.jamiemansfield.maths.coord.Coordinate3i;
+import me.jamiemansfield.maths.coord.Coordinate3iPacker;
+import me.jamiemansfield.maths.function.IntBiPredicate;
+import me.jamiemansfield.maths.function.IntTriPredicate;
+
+import java.util.List;
+
+/**
+ * Finds the cheapest path between two cells of a grid using A*.
+ *
+ * <p>Cells are discovered lazily through the given predicate, so the
+ * grid may be unbounded. Discovered cells are keyed by their packed
+ * coordinates - on 2-dimensional grids with {@link Coordinate2iPacker},
+ * and on 3-dimensional grids with a {@link Coordinate3iPacker}, outside
+ * of which range the search will not go.</p>
+ *
+ * <p>A pathfinder is thread-safe. Unless given a {@link SearchContext}
+ * of its own, each search uses one kept for the calling thread, so
+ * repeated searches allocate nothing beyond growth of the context.</p>
+ */
+public final class GridPathfinder {
+
+    /**
+     * The default number of cells a search may expand before it gives
+     * up.
+     */
+    public static final int DEFAULT_MAX_EXPANSIONS = 1_000_000;
+
+    private final Connectivity connectivity;
+    private final IntTriPredicate passable;
+    private final StepCost cost;
+    private final Coordinate3iPacker packer;
+    private final int maxExpansions;
+    private final ThreadLocal<SearchContext> contexts = ThreadLocal.withInitial(SearchContext::new);
+
+    /**
+     * Creates a pathfinder for a grid where each move costs its
+     * Euclidean length.
+     *
+     * @param connectivity The moves permitted between cells
+     * @param passable The predicate of cells that may be entered
+     */
+    public GridPathfinder(final Connectivity connectivity, final IntTriPredicate passable) {
+        this(connectivity, passable, null, Coordinate3iPacker.UNIFORM, DEFAULT_MAX_EXPANSIONS);
+    }
+
+    /**
+     * Creates a pathfinder for a grid with the given costs.
+     *
+     * @param connectivity The moves permitted between cells
+     * @param passable The predicate of cells that may be entered
+     * @param cost The cost of each move, or {@code null} for its
+     *             Euclidean length
+     */
+    public GridPathfinder(final Connectivity connectivity, final IntTriPredicate passable, final StepCost cost) {
+        this(connectivity, passable, cost, Coordinate3iPacker.UNIFORM, DEFAULT_MAX_EXPANSIONS);
+    }
+
+    /**
+     * Creates a pathfinder for a grid with the given costs.
+     *
+     * @param connectivity The moves permitted between cells
+     * @param passable The predicate of cells that may be entered
+     * @param cost The cost of each move, or {@code null} for its
+     *             Euclidean length
+     * @param packer The packer used to key cells of 3-dimensional grids
+     * @param maxExpansions The number of cells a search may expand
+     */
+    public GridPathfinder(final Connectivity connectivity, final IntTriPredicate passable, final StepCost cost,
+            final Coordinate3iPacker packer, final int maxExpansions) {
+        checkArgument(maxExpansions > 0, "maxExpansions must be positive");
+        this.connectivity = checkNotNull(connectivity, "connectivity");
+        this.passable = checkNotNull(passable, "passable");
+        this.cost = cost;
+        this.packer = checkNotNull(packer, "packer");
+        this.maxExpansions = maxExpansions;
+    }
+
+    /**
+     * Creates a pathfinder for a 2-dimensional grid where each move
+     * costs its Euclidean length.
+     *
+     * @param connectivity The moves permitted between cells
+     * @param passable The predicate of cells that may be entered
+     */
+    public GridPathfinder(final Connectivity connectivity, final IntBiPredicate passable) {
+        this(connectivity, passable, null, DEFAULT_MAX_EXPANSIONS);
+    }
+
+    /**
+     * Creates a pathfinder for a 2-dimensional grid with the given
+     * costs.
+     *
+     * @param connectivity The moves permitted between cells
+     * @param passable The predicate of cells that may be entered
+     * @param cost The cost of each move, or {@code null} for its
+     *             Euclidean length
+     * @param maxExpansions The number of cells a search may expand
+     */
+    public GridPathfinder(final Connectivity connectivity, final IntBiPredicate passable, final StepCost cost,
+            final int maxExpansions) {
+        this(checkTwoDimensional(connectivity), adapt(passable), cost, Coordinate3iPacker.UNIFORM, maxExpansions);
+    }
+
+    /**
+     * Gets the moves permitted between cells.
+     *
+     * @return The connectivity
+     */
+    public Connectivity getConnectivity() {
+        return this.connectivity;
+    }
+
+    /**
+     * Finds the cheapest path between the given cells.
+     *
+     * @param start The cell to start from
+     * @param goal The cell to reach
+     * @return The cells of the path, or {@code null} if there is none
+     */
+    public List<Coordinate3i> findPath(final Coordinate3i start, final Coordinate3i goal) {
+        final Path path = new Path();
+        if (!this.findPath(start.getX(), start.getY(), start.getZ(), goal.getX(), goal.getY(), goal.getZ(), path)) {
+            return null;
+        }
+        return path.toCoordinates3i();
+    }
+
+    /**
+     * Finds the cheapest path between the given cells of a
+     * 2-dimensional grid.
+     *
+     * @param start The cell to start from
+     * @param goal The cell to reach
+     * @return The cells of the path, or {@code null} if there is none
+     */
+    public List<Coordinate2i> findPath(final Coordinate2i start, final Coordinate2i goal) {
+        final Path path = new Path();
+        if (!this.findPath(start.getX(), start.getY(), goal.getX(), goal.getY(), path)) {
+            return null;
+        }
+        return path.toCoordinates2i();
+    }
+
+    /**
+     * Finds the cheapest path between the given cells of a
+     * 2-dimensional grid.
+     *
+     * @param startX The x position of the cell to start from
+     * @param startY The y position of the cell to start from
+     * @param goalX The x position of the cell to reach
+     * @param goalY The y position of the cell to reach
+     * @param path The holder to write the path into
+     * @return {@code true} if a path was found
+     */
+    public boolean findPath(final int startX, final int startY, final int goalX, final int goalY, final Path path) {
+        return this.findPath(startX, startY, 0, goalX, goalY, 0, path, this.contexts.get());
+    }
+
+    /**
+     * Finds the cheapest path between the given cells.
+     *
+     * @param startX The x position of the cell to start from
+     * @param startY The y position of the cell to start from
+     * @param startZ The z position of the cell to start from
+     * @param goalX The x position of the cell to reach
+     * @param goalY The y position of the cell to reach
+     * @param goalZ The z position of the cell to reach
+     * @param path The holder to write the path into
+     * @return {@code true} if a path was found
+     */
+    public boolean findPath(final int startX, final int startY, final int startZ,
+            final int goalX, final int goalY, final int goalZ, final Path path) {
+        return this.findPath(startX, startY, startZ, goalX, goalY, goalZ, path, this.contexts.get());
+    }
+
+    /**
+     * Finds the cheapest path between the given cells, using the given
+     * context for the working state of the search.
+     *
+     * <p>The path is cleared if none is found - either because the goal
+     * is unreachable, or because the search expanded its maximum number
+     * of cells without reaching it.</p>
+     *
+     * @param startX The x position of the cell to start from
+     * @param startY The y position of the cell to start from
+     * @param startZ The z position of the cell to start from
+     * @param goalX The x position of the cell to reach
+     * @param goalY The y position of the cell to reach
+     * @param goalZ The z position of the cell to reach
+     * @param path The holder to write the path into
+     * @param context The context of the search
+     * @return {@code true} if a path was found
+     */
+    public boolean findPath(final int startX, final int startY, final int startZ,
+            final int goalX, final int goalY, final int goalZ, final Path path, final SearchContext context) {
+        path.clear();
+        final boolean flat = this.connectivity.getDimensions() == 2;
+        if (flat ? startZ != goalZ : !this.packer.fits(startX, startY, startZ) || !this.packer.fits(goalX, goalY, goalZ)) {
+            return false;
+        }
+        if (!this.passable.test(startX, startY, startZ) || !this.passable.test(goalX, goalY, goalZ)) {
+            return false;
+        }
+
+        final Connectivity connectivity = this.connectivity;
+        final int[] dxs = connectivity.dxs;
+        final int[] dys = connectivity.dys;
+        final int[] dzs = connectivity.dzs;
+        context.reset();
+        final int start = context.node(this.key(flat, startX, startY, startZ), startX, startY, startZ);
+        context.costs[start] = 0;
+        context.open(start, connectivity.estimate(goalX - startX, goalY - startY, goalZ - startZ));
+
+        int expansions = 0;
+        while (!context.isOpenEmpty()) {
+            final int current = context.close();
+            final int x = context.xs[current];
+            final int y = context.ys[current];
+            final int z = context.zs[current];
+            if (x == goalX && y == goalY && z == goalZ) {
+                context.reconstruct(current, path);
+                return true;
+            }
+            if (++expansions > this.maxExpansions) {
+                return false;
+            }
+
+            final double g = context.costs[current];
+            for (int move = 0; move < dxs.length; move++) {
+                final int nx = x + dxs[move];
+                final int ny = y + dys[move];
+                final int nz = z + dzs[move];
+                if (!flat && !this.packer.fits(nx, ny, nz)) {
+                    continue;
+                }
+                if (!this.passable.test(nx, ny, nz) || !this.canCut(move, x, y, z)) {
+                    continue;
+                }
+                final double step = this.cost == null ?
+                        connectivity.lengths[move] :
+                        this.cost.cost(x, y, z, nx, ny, nz);
+                if (step == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                final int neighbour = context.node(this.key(flat, nx, ny, nz), nx, ny, nz);
+                if (context.isClosed(neighbour)) {
+                    continue;
+                }
+                final double tentative = g + step;
+                if (tentative < context.costs[neighbour]) {
+                    context.costs[neighbour] = tentative;
+                    context.parents[neighbour] = current;
+                    context.open(neighbour, tentative + connectivity.estimate(goalX - nx, goalY - ny, goalZ - nz));
+                }
+            }
+        }
+        return false;
+    }
+
+    private long key(final boolean flat, final int x, final int y, final int z) {
+        return flat ? Coordinate2iPacker.pack(x, y) : this.packer.pack(x, y, z);
+    }
+
+    private boolean canCut(final int move, final int x, final int y, final int z) {
+        final int[] corners = this.connectivity.corners[move];
+        for (int i = 0; i < corners.length; i += 3) {
+            if (!this.passable.test(x + corners[i], y + corners[i + 1], z + corners[i + 2])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("connectivity", this.connectivity)
+                .add("maxExpansions", this.maxExpansions)
+                .toString();
+    }
+
+    private static Connectivity checkTwoDimensional(final Connectivity connectivity) {
+        checkArgument(connectivity.getDimensions() == 2, "connectivity must be 2-dimensional");
+        return connectivity;
+    }
+
+    private static IntTriPredicate adapt(final IntBiPredicate passable) {
+        checkNotNull(passable, "passable");
+        return (x, y, z) -> passable.test(x, y);
+    }
+
+}
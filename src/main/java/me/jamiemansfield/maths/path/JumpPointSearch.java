@@ -0,0 +1,330 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.path;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.MoreObjects;
+import me.jamiemansfield.maths.coord.Coordinate2i;
+import me.jamiemansfield.maths.coord.Coordinate2iPacker;
+import me.jamiemansfield.maths.function.IntBiPredicate;
+
+import java.util.List;
+
+/**
+ * Finds the shortest path between two cells of a uniform-cost,
+ * 8-connected 2-dimensional grid using jump point search.
+ *
+ * <p>Jump point search finds the same paths as A* with
+ * {@link Connectivity#EIGHT}, but skips over the runs of open cells
+ * between the points where a path may turn - so expands far fewer
+ * cells on open grids. As with {@link GridPathfinder}, diagonal moves
+ * never cut corners, and the path returned contains every cell passed
+ * through.</p>
+ *
+ * <p>As a jump continues until it meets an obstacle, the grid must be
+ * bounded - its predicate must reject every cell outside some finite
+ * region.</p>
+ *
+ * <p>A search is thread-safe. Unless given a {@link SearchContext} of
+ * its own, each search uses one kept for the calling thread.</p>
+ */
+public final class JumpPointSearch {
+
+    private static final double SQRT_2 = Math.sqrt(2);
+
+    private final IntBiPredicate passable;
+    private final int maxExpansions;
+    private final ThreadLocal<SearchContext> contexts = ThreadLocal.withInitial(SearchContext::new);
+
+    /**
+     * Creates a search over the given grid.
+     *
+     * @param passable The predicate of cells that may be entered
+     */
+    public JumpPointSearch(final IntBiPredicate passable) {
+        this(passable, GridPathfinder.DEFAULT_MAX_EXPANSIONS);
+    }
+
+    /**
+     * Creates a search over the given grid.
+     *
+     * @param passable The predicate of cells that may be entered
+     * @param maxExpansions The number of jump points a search may expand
+     */
+    public JumpPointSearch(final IntBiPredicate passable, final int maxExpansions) {
+        checkArgument(maxExpansions > 0, "maxExpansions must be positive");
+        this.passable = checkNotNull(passable, "passable");
+        this.maxExpansions = maxExpansions;
+    }
+
+    /**
+     * Finds the shortest path between the given cells.
+     *
+     * @param start The cell to start from
+     * @param goal The cell to reach
+     * @return The cells of the path, or {@code null} if there is none
+     */
+    public List<Coordinate2i> findPath(final Coordinate2i start, final Coordinate2i goal) {
+        final Path path = new Path();
+        if (!this.findPath(start.getX(), start.getY(), goal.getX(), goal.getY(), path)) {
+            return null;
+        }
+        return path.toCoordinates2i();
+    }
+
+    /**
+     * Finds the shortest path between the given cells.
+     *
+     * @param startX The x position of the cell to start from
+     * @param startY The y position of the cell to start from
+     * @param goalX The x position of the cell to reach
+     * @param goalY The y position of the cell to reach
+     * @param path The holder to write the path into
+     * @return {@code true} if a path was found
+     */
+    public boolean findPath(final int startX, final int startY, final int goalX, final int goalY, final Path path) {
+        return this.findPath(startX, startY, goalX, goalY, path, this.contexts.get());
+    }
+
+    /**
+     * Finds the shortest path between the given cells, using the given
+     * context for the working state of the search.
+     *
+     * @param startX The x position of the cell to start from
+     * @param startY The y position of the cell to start from
+     * @param goalX The x position of the cell to reach
+     * @param goalY The y position of the cell to reach
+     * @param path The holder to write the path into
+     * @param context The context of the search
+     * @return {@code true} if a path was found
+     */
+    public boolean findPath(final int startX, final int startY, final int goalX, final int goalY,
+            final Path path, final SearchContext context) {
+        path.clear();
+        if (!this.passable.test(startX, startY) || !this.passable.test(goalX, goalY)) {
+            return false;
+        }
+
+        context.reset();
+        final int start = context.node(Coordinate2iPacker.pack(startX, startY), startX, startY, 0);
+        context.costs[start] = 0;
+        context.open(start, octile(goalX - startX, goalY - startY));
+
+        int expansions = 0;
+        while (!context.isOpenEmpty()) {
+            final int current = context.close();
+            final int x = context.xs[current];
+            final int y = context.ys[current];
+            if (x == goalX && y == goalY) {
+                this.reconstruct(context, current, path);
+                return true;
+            }
+            if (++expansions > this.maxExpansions) {
+                return false;
+            }
+
+            final int parent = context.parents[current];
+            if (parent == -1) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    for (int dx = -1; dx <= 1; dx++) {
+                        if ((dx != 0 || dy != 0) && (dx == 0 || dy == 0 || this.open(x + dx, y) && this.open(x, y + dy))) {
+                            this.visit(context, current, x, y, dx, dy, goalX, goalY);
+                        }
+                    }
+                }
+                continue;
+            }
+
+            // prune the neighbours that are reached more cheaply without this cell
+            final int dx = Integer.signum(x - context.xs[parent]);
+            final int dy = Integer.signum(y - context.ys[parent]);
+            if (dx != 0 && dy != 0) {
+                final boolean alongX = this.open(x + dx, y);
+                final boolean alongY = this.open(x, y + dy);
+                if (alongY) {
+                    this.visit(context, current, x, y, 0, dy, goalX, goalY);
+                }
+                if (alongX) {
+                    this.visit(context, current, x, y, dx, 0, goalX, goalY);
+                }
+                if (alongX && alongY) {
+                    this.visit(context, current, x, y, dx, dy, goalX, goalY);
+                }
+            } else if (dx != 0) {
+                // a side is forced where the cell behind it is blocked, as in jumpStraight
+                final boolean ahead = this.open(x + dx, y);
+                final boolean up = this.open(x, y + 1) && !this.open(x - dx, y + 1);
+                final boolean down = this.open(x, y - 1) && !this.open(x - dx, y - 1);
+                if (ahead) {
+                    this.visit(context, current, x, y, dx, 0, goalX, goalY);
+                    if (up) {
+                        this.visit(context, current, x, y, dx, 1, goalX, goalY);
+                    }
+                    if (down) {
+                        this.visit(context, current, x, y, dx, -1, goalX, goalY);
+                    }
+                }
+                if (up) {
+                    this.visit(context, current, x, y, 0, 1, goalX, goalY);
+                }
+                if (down) {
+                    this.visit(context, current, x, y, 0, -1, goalX, goalY);
+                }
+            } else {
+                final boolean ahead = this.open(x, y + dy);
+                final boolean right = this.open(x + 1, y) && !this.open(x + 1, y - dy);
+                final boolean left = this.open(x - 1, y) && !this.open(x - 1, y - dy);
+                if (ahead) {
+                    this.visit(context, current, x, y, 0, dy, goalX, goalY);
+                    if (right) {
+                        this.visit(context, current, x, y, 1, dy, goalX, goalY);
+                    }
+                    if (left) {
+                        this.visit(context, current, x, y, -1, dy, goalX, goalY);
+                    }
+                }
+                if (right) {
+                    this.visit(context, current, x, y, 1, 0, goalX, goalY);
+                }
+                if (left) {
+                    this.visit(context, current, x, y, -1, 0, goalX, goalY);
+                }
+            }
+        }
+        return false;
+    }
+
+    private void visit(final SearchContext context, final int current, final int x, final int y,
+            final int dx, final int dy, final int goalX, final int goalY) {
+        if (!this.jump(context, x + dx, y + dy, dx, dy, goalX, goalY)) {
+            return;
+        }
+        final int jx = context.jumpX;
+        final int jy = context.jumpY;
+        final int jumpPoint = context.node(Coordinate2iPacker.pack(jx, jy), jx, jy, 0);
+        if (context.isClosed(jumpPoint)) {
+            return;
+        }
+        final double tentative = context.costs[current] + octile(jx - x, jy - y);
+        if (tentative < context.costs[jumpPoint]) {
+            context.costs[jumpPoint] = tentative;
+            context.parents[jumpPoint] = current;
+            context.open(jumpPoint, tentative + octile(goalX - jx, goalY - jy));
+        }
+    }
+
+    /**
+     * Jumps from the given cell in the given direction, until reaching
+     * either the goal, a cell from which the path may need to turn, or
+     * an obstacle.
+     *
+     * @return {@code true} if a jump point was found, and written into
+     *         the context
+     */
+    private boolean jump(final SearchContext context, final int fromX, final int fromY, final int dx, final int dy,
+            final int goalX, final int goalY) {
+        int x = fromX;
+        int y = fromY;
+        if (dx == 0 || dy == 0) {
+            return this.jumpStraight(context, x, y, dx, dy, goalX, goalY);
+        }
+        while (this.open(x, y)) {
+            if ((x == goalX && y == goalY)
+                    || this.jumpStraight(context, x + dx, y, dx, 0, goalX, goalY)
+                    || this.jumpStraight(context, x, y + dy, 0, dy, goalX, goalY)) {
+                context.jumpX = x;
+                context.jumpY = y;
+                return true;
+            }
+            if (!this.open(x + dx, y) || !this.open(x, y + dy)) {
+                return false;
+            }
+            x += dx;
+            y += dy;
+        }
+        return false;
+    }
+
+    private boolean jumpStraight(final SearchContext context, final int fromX, final int fromY, final int dx, final int dy,
+            final int goalX, final int goalY) {
+        int x = fromX;
+        int y = fromY;
+        while (this.open(x, y)) {
+            if ((x == goalX && y == goalY) || (dx != 0 ?
+                    this.open(x, y - 1) && !this.open(x - dx, y - 1) || this.open(x, y + 1) && !this.open(x - dx, y + 1) :
+                    this.open(x - 1, y) && !this.open(x - 1, y - dy) || this.open(x + 1, y) && !this.open(x + 1, y - dy))) {
+                context.jumpX = x;
+                context.jumpY = y;
+                return true;
+            }
+            x += dx;
+            y += dy;
+        }
+        return false;
+    }
+
+    private boolean open(final int x, final int y) {
+        return this.passable.test(x, y);
+    }
+
+    private void reconstruct(final SearchContext context, final int goal, final Path path) {
+        path.clear();
+        int node = goal;
+        path.add(context.xs[node], context.ys[node], 0);
+        for (int parent = context.parents[node]; parent != -1; node = parent, parent = context.parents[node]) {
+            // fill in the cells between jump points, which lie on a straight or diagonal line
+            final int px = context.xs[parent];
+            final int py = context.ys[parent];
+            final int dx = Integer.signum(px - context.xs[node]);
+            final int dy = Integer.signum(py - context.ys[node]);
+            int x = context.xs[node];
+            int y = context.ys[node];
+            while (x != px || y != py) {
+                x += dx;
+                y += dy;
+                path.add(x, y, 0);
+            }
+        }
+        path.reverse();
+        path.setCost(context.costs[goal]);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("maxExpansions", this.maxExpansions)
+                .toString();
+    }
+
+    private static double octile(final int dx, final int dy) {
+        final int x = Math.abs(dx);
+        final int y = Math.abs(dy);
+        return Math.max(x, y) + (SQRT_2 - 1) * Math.min(x, y);
+    }
+
+}
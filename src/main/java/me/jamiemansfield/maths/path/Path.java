@@ -0,0 +1,186 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.path;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+import com.google.common.base.MoreObjects;
+import me.jamiemansfield.maths.coord.Coordinate2i;
+import me.jamiemansfield.maths.coord.Coordinate3i;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A reusable holder for a path through a grid, from its start cell to
+ * its goal cell inclusive.
+ *
+ * <p>The cells of the path are held as primitives, and the holder
+ * retains its capacity between searches.</p>
+ */
+public final class Path {
+
+    private int[] xs = new int[16];
+    private int[] ys = new int[16];
+    private int[] zs = new int[16];
+    private int size;
+    private double cost;
+
+    /**
+     * Gets the number of cells in the path.
+     *
+     * @return The size
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Establishes whether the path contains no cells.
+     *
+     * @return {@code true} if the path is empty
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Gets the total cost of the moves along the path.
+     *
+     * @return The cost
+     */
+    public double getCost() {
+        return this.cost;
+    }
+
+    /**
+     * Gets the x position of the given cell of the path.
+     *
+     * @param index The index of the cell
+     * @return The x pos
+     */
+    public int getX(final int index) {
+        checkElementIndex(index, this.size);
+        return this.xs[index];
+    }
+
+    /**
+     * Gets the y position of the given cell of the path.
+     *
+     * @param index The index of the cell
+     * @return The y pos
+     */
+    public int getY(final int index) {
+        checkElementIndex(index, this.size);
+        return this.ys[index];
+    }
+
+    /**
+     * Gets the z position of the given cell of the path.
+     *
+     * @param index The index of the cell
+     * @return The z pos
+     */
+    public int getZ(final int index) {
+        checkElementIndex(index, this.size);
+        return this.zs[index];
+    }
+
+    /**
+     * Copies the cells of the path into new {@link Coordinate3i}s.
+     *
+     * @return The cells
+     */
+    public List<Coordinate3i> toCoordinates3i() {
+        final List<Coordinate3i> coords = new ArrayList<>(this.size);
+        for (int i = 0; i < this.size; i++) {
+            coords.add(new Coordinate3i(this.xs[i], this.ys[i], this.zs[i]));
+        }
+        return coords;
+    }
+
+    /**
+     * Copies the cells of the path into new {@link Coordinate2i}s,
+     * ignoring their z positions.
+     *
+     * @return The cells
+     */
+    public List<Coordinate2i> toCoordinates2i() {
+        final List<Coordinate2i> coords = new ArrayList<>(this.size);
+        for (int i = 0; i < this.size; i++) {
+            coords.add(new Coordinate2i(this.xs[i], this.ys[i]));
+        }
+        return coords;
+    }
+
+    /**
+     * Removes every cell from the path.
+     */
+    public void clear() {
+        this.size = 0;
+        this.cost = 0;
+    }
+
+    void add(final int x, final int y, final int z) {
+        if (this.size == this.xs.length) {
+            this.xs = Arrays.copyOf(this.xs, this.size << 1);
+            this.ys = Arrays.copyOf(this.ys, this.size << 1);
+            this.zs = Arrays.copyOf(this.zs, this.size << 1);
+        }
+        this.xs[this.size] = x;
+        this.ys[this.size] = y;
+        this.zs[this.size] = z;
+        this.size++;
+    }
+
+    void reverse() {
+        for (int i = 0, j = this.size - 1; i < j; i++, j--) {
+            swap(this.xs, i, j);
+            swap(this.ys, i, j);
+            swap(this.zs, i, j);
+        }
+    }
+
+    void setCost(final double cost) {
+        this.cost = cost;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("size", this.size)
+                .add("cost", this.cost)
+                .toString();
+    }
+
+    private static void swap(final int[] array, final int i, final int j) {
+        final int value = array[i];
+        array[i] = array[j];
+        array[j] = value;
+    }
+
+}
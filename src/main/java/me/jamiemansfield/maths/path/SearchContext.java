@@ -0,0 +1,262 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.path;
+
+import me.jamiemansfield.maths.coord.CoordinateHash;
+
+import java.util.Arrays;
+
+/**
+ * The working state of a path search - the nodes it has discovered,
+ * keyed by their packed coordinates, and its open set, held as a
+ * binary heap of node indices.
+ *
+ * <p>Every array is retained between searches, and the node table is
+ * invalidated by advancing a generation stamp rather than by clearing
+ * it, so a context reused for many searches stops allocating once it
+ * has grown to the largest. A context must only be used by one thread
+ * at a time - pathfinders keep one per thread unless given their
+ * own.</p>
+ */
+public final class SearchContext {
+
+    private static final int NOT_QUEUED = -1;
+    private static final int CLOSED = -2;
+
+    // node table, open-addressed by packed coordinate
+    private long[] tableKeys = new long[64];
+    private int[] tableNodes = new int[64];
+    private int[] tableStamps = new int[64];
+    private int tableMask = 63;
+    private int stamp = 1;
+
+    // nodes
+    int[] xs = new int[32];
+    int[] ys = new int[32];
+    int[] zs = new int[32];
+    double[] costs = new double[32];
+    int[] parents = new int[32];
+    private long[] keys = new long[32];
+    private double[] priorities = new double[32];
+    private int[] heapIndices = new int[32];
+    private int nodes;
+
+    // open set
+    private int[] heap = new int[32];
+    private int heapSize;
+
+    // the cell found by the last jump of a jump point search
+    int jumpX;
+    int jumpY;
+
+    /**
+     * Prepares the context for a new search.
+     */
+    void reset() {
+        if (++this.stamp == 0) {
+            Arrays.fill(this.tableStamps, 0);
+            this.stamp = 1;
+        }
+        this.nodes = 0;
+        this.heapSize = 0;
+    }
+
+    /**
+     * Gets the number of nodes discovered by the current search.
+     *
+     * @return The number of nodes
+     */
+    public int getNodeCount() {
+        return this.nodes;
+    }
+
+    /**
+     * Gets the node for the given cell, creating it if it has not yet
+     * been discovered.
+     *
+     * @param key The packed coordinate of the cell
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @return The index of the node
+     */
+    int node(final long key, final int x, final int y, final int z) {
+        int slot = CoordinateHash.hash(key) & this.tableMask;
+        while (this.tableStamps[slot] == this.stamp) {
+            if (this.tableKeys[slot] == key) {
+                return this.tableNodes[slot];
+            }
+            slot = (slot + 1) & this.tableMask;
+        }
+        if (this.nodes == this.xs.length) {
+            this.growNodes();
+        }
+        final int node = this.nodes++;
+        this.xs[node] = x;
+        this.ys[node] = y;
+        this.zs[node] = z;
+        this.keys[node] = key;
+        this.costs[node] = Double.POSITIVE_INFINITY;
+        this.parents[node] = -1;
+        this.heapIndices[node] = NOT_QUEUED;
+        this.tableKeys[slot] = key;
+        this.tableNodes[slot] = node;
+        this.tableStamps[slot] = this.stamp;
+        if (this.nodes > (this.tableMask + 1) >> 1) {
+            this.growTable();
+        }
+        return node;
+    }
+
+    boolean isClosed(final int node) {
+        return this.heapIndices[node] == CLOSED;
+    }
+
+    boolean isOpenEmpty() {
+        return this.heapSize == 0;
+    }
+
+    /**
+     * Adds the given node to the open set, or updates its priority if
+     * it is already open.
+     *
+     * @param node The node
+     * @param priority The priority, where lower is sooner
+     */
+    void open(final int node, final double priority) {
+        this.priorities[node] = priority;
+        int index = this.heapIndices[node];
+        if (index == NOT_QUEUED) {
+            if (this.heapSize == this.heap.length) {
+                this.heap = Arrays.copyOf(this.heap, this.heapSize << 1);
+            }
+            index = this.heapSize++;
+        }
+        this.siftUp(node, index);
+    }
+
+    /**
+     * Removes the node of lowest priority from the open set, and marks
+     * it as closed.
+     *
+     * @return The node
+     */
+    int close() {
+        final int node = this.heap[0];
+        final int last = this.heap[--this.heapSize];
+        if (this.heapSize > 0) {
+            this.siftDown(last, 0);
+        }
+        this.heapIndices[node] = CLOSED;
+        return node;
+    }
+
+    private void siftUp(final int node, final int start) {
+        int index = start;
+        final double priority = this.priorities[node];
+        while (index > 0) {
+            final int parent = (index - 1) >>> 1;
+            final int parentNode = this.heap[parent];
+            if (this.priorities[parentNode] <= priority) {
+                break;
+            }
+            this.heap[index] = parentNode;
+            this.heapIndices[parentNode] = index;
+            index = parent;
+        }
+        this.heap[index] = node;
+        this.heapIndices[node] = index;
+    }
+
+    private void siftDown(final int node, final int start) {
+        int index = start;
+        final double priority = this.priorities[node];
+        while (true) {
+            int child = (index << 1) + 1;
+            if (child >= this.heapSize) {
+                break;
+            }
+            if (child + 1 < this.heapSize && this.priorities[this.heap[child + 1]] < this.priorities[this.heap[child]]) {
+                child++;
+            }
+            final int childNode = this.heap[child];
+            if (this.priorities[childNode] >= priority) {
+                break;
+            }
+            this.heap[index] = childNode;
+            this.heapIndices[childNode] = index;
+            index = child;
+        }
+        this.heap[index] = node;
+        this.heapIndices[node] = index;
+    }
+
+    private void growNodes() {
+        final int capacity = this.xs.length << 1;
+        this.xs = Arrays.copyOf(this.xs, capacity);
+        this.ys = Arrays.copyOf(this.ys, capacity);
+        this.zs = Arrays.copyOf(this.zs, capacity);
+        this.costs = Arrays.copyOf(this.costs, capacity);
+        this.parents = Arrays.copyOf(this.parents, capacity);
+        this.keys = Arrays.copyOf(this.keys, capacity);
+        this.priorities = Arrays.copyOf(this.priorities, capacity);
+        this.heapIndices = Arrays.copyOf(this.heapIndices, capacity);
+    }
+
+    private void growTable() {
+        final int capacity = (this.tableMask + 1) << 1;
+        this.tableKeys = new long[capacity];
+        this.tableNodes = new int[capacity];
+        this.tableStamps = new int[capacity];
+        this.tableMask = capacity - 1;
+        this.stamp = 1;
+        for (int node = 0; node < this.nodes; node++) {
+            int slot = CoordinateHash.hash(this.keys[node]) & this.tableMask;
+            while (this.tableStamps[slot] == this.stamp) {
+                slot = (slot + 1) & this.tableMask;
+            }
+            this.tableKeys[slot] = this.keys[node];
+            this.tableNodes[slot] = node;
+            this.tableStamps[slot] = this.stamp;
+        }
+    }
+
+    /**
+     * Writes the path ending at the given node into the given holder.
+     *
+     * @param goal The final node of the path
+     * @param path The holder
+     */
+    void reconstruct(final int goal, final Path path) {
+        path.clear();
+        for (int node = goal; node != -1; node = this.parents[node]) {
+            path.add(this.xs[node], this.ys[node], this.zs[node]);
+        }
+        path.reverse();
+        path.setCost(this.costs[goal]);
+    }
+
+}
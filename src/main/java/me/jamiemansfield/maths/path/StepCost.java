@@ -0,0 +1,51 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.path;
+
+/**
+ * Represents the cost of a single move between adjacent cells.
+ */
+@FunctionalInterface
+public interface StepCost {
+
+    /**
+     * Gets the cost of moving between the given cells.
+     *
+     * <p>For the cheapest path to be found, the cost should be no less
+     * than the Euclidean distance between the cells. A cost of
+     * {@link Double#POSITIVE_INFINITY} forbids the move.</p>
+     *
+     * @param fromX The x position of the cell moved from
+     * @param fromY The y position of the cell moved from
+     * @param fromZ The z position of the cell moved from
+     * @param toX The x position of the cell moved to
+     * @param toY The y position of the cell moved to
+     * @param toZ The z position of the cell moved to
+     * @return The cost
+     */
+    double cost(int fromX, int fromY, int fromZ, int toX, int toY, int toZ);
+
+}
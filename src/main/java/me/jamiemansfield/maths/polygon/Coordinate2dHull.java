@@ -0,0 +1,268 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.polygon;
+
+import me.jamiemansfield.maths.coord.Coordinate2d;
+import me.jamiemansfield.maths.coord.Coordinate2dBuffer;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes the convex hulls of sets of {@link Coordinate2d}s.
+ *
+ * <p>Hulls are found with Andrew's monotone chain algorithm, divided and
+ * conquered across a {@link ForkJoinPool}: each range of fewer than
+ * {@value #PARALLEL_THRESHOLD} points has its hull computed on its own,
+ * and the hulls of adjacent ranges are merged by running the monotone
+ * chain over their vertices alone. Before sorting a range, the points
+ * strictly inside the quadrilateral of its extreme points are discarded,
+ * which removes most of the points of large, evenly spread sets.</p>
+ */
+public final class Coordinate2dHull {
+
+    /**
+     * The number of points below which the hull is not split across the
+     * pool.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    /**
+     * Computes the convex hull of the coordinates in the given buffer,
+     * using the common pool.
+     *
+     * @param points The coordinates
+     * @return The vertices of the hull
+     * @see #compute(Coordinate2dBuffer, ForkJoinPool)
+     */
+    public static Coordinate2dBuffer compute(final Coordinate2dBuffer points) {
+        return compute(points, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the convex hull of the coordinates in the given buffer.
+     *
+     * <p>The vertices are in counter-clockwise order, starting from the
+     * one with the lowest x position (and lowest y position among ties).
+     * Duplicate points and points along the edges of the hull are not
+     * included, so where every point is collinear only the two ends are
+     * returned.</p>
+     *
+     * @param points The coordinates
+     * @param pool The pool to compute within
+     * @return The vertices of the hull
+     */
+    public static Coordinate2dBuffer compute(final Coordinate2dBuffer points, final ForkJoinPool pool) {
+        final HullTask task = new HullTask(points.getXArray(), points.getYArray(), 0, points.size());
+        final Hull hull = points.size() < PARALLEL_THRESHOLD ? task.compute() : pool.invoke(task);
+        final Coordinate2dBuffer vertices = new Coordinate2dBuffer(hull.size);
+        for (int i = 0; i < hull.size; i++) {
+            vertices.add(hull.xs[i], hull.ys[i]);
+        }
+        return vertices;
+    }
+
+    private static double cross(final double ox, final double oy, final double ax, final double ay, final double bx, final double by) {
+        return (ax - ox) * (by - oy) - (ay - oy) * (bx - ox);
+    }
+
+    private Coordinate2dHull() {
+    }
+
+    /**
+     * The hull of a range of points, with its vertices in counter-clockwise
+     * order: the lower chain, in ascending order, followed by the upper
+     * chain without its ends, in descending order.
+     */
+    private static final class Hull {
+
+        /**
+         * Computes the hull of the given distinct points, which are sorted
+         * by x, then y.
+         *
+         * @param xs The x positions
+         * @param ys The y positions
+         * @param n The number of points
+         * @return The hull
+         */
+        static Hull of(final double[] xs, final double[] ys, final int n) {
+            final double[] hxs = new double[Math.max(2 * n, 1)];
+            final double[] hys = new double[hxs.length];
+            int k = 0;
+            for (int i = 0; i < n; i++) {
+                while (k >= 2 && cross(hxs[k - 2], hys[k - 2], hxs[k - 1], hys[k - 1], xs[i], ys[i]) <= 0) {
+                    k--;
+                }
+                hxs[k] = xs[i];
+                hys[k++] = ys[i];
+            }
+            final int lower = k;
+            for (int i = n - 2, t = k + 1; i >= 0; i--) {
+                while (k >= t && cross(hxs[k - 2], hys[k - 2], hxs[k - 1], hys[k - 1], xs[i], ys[i]) <= 0) {
+                    k--;
+                }
+                hxs[k] = xs[i];
+                hys[k++] = ys[i];
+            }
+            // The upper chain ends back at the first point
+            if (n > 1) {
+                k--;
+            }
+            return new Hull(hxs, hys, k, lower);
+        }
+
+        /**
+         * Computes the hull of the vertices of both of the given hulls.
+         *
+         * @param a The first hull
+         * @param b The second hull
+         * @return The hull
+         */
+        static Hull merge(final Hull a, final Hull b) {
+            final int n = a.size + b.size;
+            final double[] xs = new double[n];
+            final double[] ys = new double[n];
+            a.sorted(xs, ys, 0);
+            b.sorted(xs, ys, a.size);
+            return of(xs, ys, PointSort.sortDistinct(xs, ys, n));
+        }
+
+        final double[] xs;
+        final double[] ys;
+        final int size;
+        private final int lower;
+
+        private Hull(final double[] xs, final double[] ys, final int size, final int lower) {
+            this.xs = xs;
+            this.ys = ys;
+            this.size = size;
+            this.lower = Math.min(lower, size);
+        }
+
+        /**
+         * Writes the vertices, sorted by x then y, into the given arrays,
+         * by merging the lower chain with the reversed upper chain.
+         *
+         * @param xs The x positions
+         * @param ys The y positions
+         * @param offset The index to write the first vertex to
+         */
+        void sorted(final double[] xs, final double[] ys, final int offset) {
+            int l = 0;
+            int u = this.size - 1;
+            for (int i = offset, end = offset + this.size; i < end; i++) {
+                if (u < this.lower || l < this.lower && PointSort.precedes(this.xs[l], this.ys[l], this.xs[u], this.ys[u])) {
+                    xs[i] = this.xs[l];
+                    ys[i] = this.ys[l++];
+                } else {
+                    xs[i] = this.xs[u];
+                    ys[i] = this.ys[u--];
+                }
+            }
+        }
+
+    }
+
+    private static final class HullTask extends RecursiveTask<Hull> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[] xs;
+        private final double[] ys;
+        private final int from;
+        private final int to;
+
+        HullTask(final double[] xs, final double[] ys, final int from, final int to) {
+            this.xs = xs;
+            this.ys = ys;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Hull compute() {
+            if (this.to - this.from >= PARALLEL_THRESHOLD) {
+                final int mid = (this.from + this.to) >>> 1;
+                final HullTask right = new HullTask(this.xs, this.ys, mid, this.to);
+                right.fork();
+                final Hull left = new HullTask(this.xs, this.ys, this.from, mid).compute();
+                return Hull.merge(left, right.join());
+            }
+            final double[] xs = this.xs;
+            final double[] ys = this.ys;
+            final int n = this.to - this.from;
+            if (n == 0) {
+                return Hull.of(xs, ys, 0);
+            }
+
+            // Find the extreme points of the range
+            int left = this.from;
+            int right = this.from;
+            int bottom = this.from;
+            int top = this.from;
+            for (int i = this.from + 1; i < this.to; i++) {
+                if (PointSort.precedes(xs[i], ys[i], xs[left], ys[left])) {
+                    left = i;
+                }
+                if (PointSort.precedes(xs[right], ys[right], xs[i], ys[i])) {
+                    right = i;
+                }
+                if (ys[i] < ys[bottom]) {
+                    bottom = i;
+                }
+                if (ys[i] > ys[top]) {
+                    top = i;
+                }
+            }
+
+            // Keep only the points not strictly inside their quadrilateral,
+            // which is counter-clockwise
+            final double lx = xs[left], ly = ys[left];
+            final double bx = xs[bottom], by = ys[bottom];
+            final double rx = xs[right], ry = ys[right];
+            final double tx = xs[top], ty = ys[top];
+            double[] kxs = new double[n];
+            double[] kys = new double[n];
+            int count = 0;
+            for (int i = this.from; i < this.to; i++) {
+                final double x = xs[i];
+                final double y = ys[i];
+                if (cross(lx, ly, bx, by, x, y) > 0 && cross(bx, by, rx, ry, x, y) > 0
+                        && cross(rx, ry, tx, ty, x, y) > 0 && cross(tx, ty, lx, ly, x, y) > 0) {
+                    continue;
+                }
+                kxs[count] = x;
+                kys[count++] = y;
+            }
+            kxs = Arrays.copyOf(kxs, count);
+            kys = Arrays.copyOf(kys, count);
+            return Hull.of(kxs, kys, PointSort.sortDistinct(kxs, kys, count));
+        }
+
+    }
+
+}
@@ -0,0 +1,280 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.polygon;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.MoreObjects;
+import me.jamiemansfield.maths.coord.Coordinate2d;
+import me.jamiemansfield.maths.coord.Coordinate2dBuffer;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * An immutable polygon of {@link Coordinate2d}s, prepared for testing
+ * large batches of points against it.
+ *
+ * <p>Containment follows the even-odd rule, so self-intersecting
+ * polygons are supported. Points on the boundary are classified by a
+ * half-open rule: consistently, but either way, such that of two
+ * polygons sharing an edge at most one contains any given point.</p>
+ *
+ * <p>Each edge is reduced to its y extent, the x position at its lower
+ * end and its slope, and those edges are bucketed into horizontal bands
+ * of the polygon's bounding box. A test only visits the edges of the
+ * band it falls into, so that complex polygons cost little more per
+ * test than simple ones. There are as many bands as there are edges,
+ * unless the edges are tall enough that copying each into every band
+ * it overlaps would hold more than about four entries per edge - in
+ * which case there are fewer, wider bands, which hold much the same
+ * edges anyway. Batches of at least
+ * {@value #PARALLEL_THRESHOLD} points are split across a
+ * {@link ForkJoinPool}.</p>
+ */
+public final class Coordinate2dPolygon {
+
+    /**
+     * The number of points below which batch tests are not split across
+     * the pool.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    private static final int MAX_BANDS = 1 << 16;
+
+    /**
+     * Creates a polygon of the given vertices, in either winding order.
+     * The polygon is closed by an edge from the last vertex back to the
+     * first.
+     *
+     * @param vertices The vertices
+     * @return The polygon
+     */
+    public static Coordinate2dPolygon of(final Coordinate2dBuffer vertices) {
+        return new Coordinate2dPolygon(vertices.getXArray(), vertices.getYArray(), vertices.size());
+    }
+
+    private final int vertexCount;
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+    private final double bandScale;
+    private final int[] bandStarts;
+    private final double[] edgeMinYs;
+    private final double[] edgeMaxYs;
+    private final double[] edgeXs;
+    private final double[] edgeSlopes;
+
+    private Coordinate2dPolygon(final double[] xs, final double[] ys, final int n) {
+        this.vertexCount = n;
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        int edges = 0;
+        double height = 0;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+            if (ys[i] != ys[i == 0 ? n - 1 : i - 1]) {
+                edges++;
+                height += Math.abs(ys[i] - ys[i == 0 ? n - 1 : i - 1]);
+            }
+        }
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+
+        // Each edge overlaps no more than its share of the height times
+        // the number of bands, plus 2, so capping the bands at twice the
+        // edges over the edges' total share holds 4 entries per edge
+        final double spans = maxY > minY ? height / (maxY - minY) : 0;
+        final int bands = (int) Math.max(1, Math.min(Math.min(edges, MAX_BANDS), spans > 0 ? 2.0 * edges / spans : 1));
+        this.bandScale = maxY > minY ? bands / (maxY - minY) : 0;
+        this.bandStarts = new int[bands + 1];
+
+        // Count the edges overlapping each band, ignoring horizontal
+        // edges, which are never crossed
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            if (ys[i] != ys[j]) {
+                for (int band = this.band(Math.min(ys[i], ys[j])), last = this.band(Math.max(ys[i], ys[j])); band <= last; band++) {
+                    this.bandStarts[band + 1]++;
+                }
+            }
+        }
+        long total = 0;
+        for (int band = 0; band < bands; band++) {
+            total += this.bandStarts[band + 1];
+            checkArgument(total <= Integer.MAX_VALUE, "the polygon has too many edges to index");
+            this.bandStarts[band + 1] = (int) total;
+        }
+
+        // Then copy each edge into every band it overlaps
+        this.edgeMinYs = new double[(int) total];
+        this.edgeMaxYs = new double[(int) total];
+        this.edgeXs = new double[(int) total];
+        this.edgeSlopes = new double[(int) total];
+        final int[] next = this.bandStarts.clone();
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            if (ys[i] != ys[j]) {
+                final int low = ys[i] < ys[j] ? i : j;
+                final int high = low == i ? j : i;
+                final double slope = (xs[high] - xs[low]) / (ys[high] - ys[low]);
+                for (int band = this.band(ys[low]), last = this.band(ys[high]); band <= last; band++) {
+                    final int edge = next[band]++;
+                    this.edgeMinYs[edge] = ys[low];
+                    this.edgeMaxYs[edge] = ys[high];
+                    this.edgeXs[edge] = xs[low];
+                    this.edgeSlopes[edge] = slope;
+                }
+            }
+        }
+    }
+
+    private int band(final double y) {
+        return Math.min((int) ((y - this.minY) * this.bandScale), this.bandStarts.length - 2);
+    }
+
+    /**
+     * Gets the number of vertices of the polygon.
+     *
+     * @return The number of vertices
+     */
+    public int getVertexCount() {
+        return this.vertexCount;
+    }
+
+    /**
+     * Establishes whether the polygon contains the given position.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @return {@code true} if the position is inside the polygon
+     */
+    public boolean contains(final double x, final double y) {
+        if (!(x >= this.minX && x <= this.maxX && y >= this.minY && y < this.maxY)) {
+            return false;
+        }
+        final int band = this.band(y);
+        boolean inside = false;
+        for (int edge = this.bandStarts[band], end = this.bandStarts[band + 1]; edge < end; edge++) {
+            final double minY = this.edgeMinYs[edge];
+            if (y >= minY && y < this.edgeMaxYs[edge] && x < this.edgeXs[edge] + (y - minY) * this.edgeSlopes[edge]) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Establishes whether the polygon contains the given coordinate.
+     *
+     * @param coord The coordinate
+     * @return {@code true} if the coordinate is inside the polygon
+     */
+    public boolean contains(final Coordinate2d coord) {
+        return this.contains(coord.getX(), coord.getY());
+    }
+
+    /**
+     * Tests every coordinate of the given buffer against the polygon,
+     * using the common pool.
+     *
+     * @param points The coordinates
+     * @param inside The array to write whether each coordinate is inside
+     *               the polygon into, at the index of the coordinate
+     * @return The number of coordinates inside the polygon
+     */
+    public int classify(final Coordinate2dBuffer points, final boolean[] inside) {
+        return this.classify(points, inside, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Tests every coordinate of the given buffer against the polygon.
+     *
+     * @param points The coordinates
+     * @param inside The array to write whether each coordinate is inside
+     *               the polygon into, at the index of the coordinate
+     * @param pool The pool to compute within
+     * @return The number of coordinates inside the polygon
+     */
+    public int classify(final Coordinate2dBuffer points, final boolean[] inside, final ForkJoinPool pool) {
+        checkArgument(inside.length >= points.size(), "inside is shorter than the buffer");
+        final ClassifyTask task = new ClassifyTask(points.getXArray(), points.getYArray(), inside, 0, points.size());
+        return points.size() < PARALLEL_THRESHOLD ? task.compute() : pool.invoke(task);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("vertices", this.vertexCount)
+                .add("bands", this.bandStarts.length - 1)
+                .toString();
+    }
+
+    private final class ClassifyTask extends RecursiveTask<Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[] xs;
+        private final double[] ys;
+        private final boolean[] inside;
+        private final int from;
+        private final int to;
+
+        ClassifyTask(final double[] xs, final double[] ys, final boolean[] inside, final int from, final int to) {
+            this.xs = xs;
+            this.ys = ys;
+            this.inside = inside;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (this.to - this.from >= PARALLEL_THRESHOLD) {
+                final int mid = (this.from + this.to) >>> 1;
+                final ClassifyTask right = new ClassifyTask(this.xs, this.ys, this.inside, mid, this.to);
+                right.fork();
+                final int left = new ClassifyTask(this.xs, this.ys, this.inside, this.from, mid).compute();
+                return left + right.join();
+            }
+            int count = 0;
+            for (int i = this.from; i < this.to; i++) {
+                final boolean inside = Coordinate2dPolygon.this.contains(this.xs[i], this.ys[i]);
+                this.inside[i] = inside;
+                if (inside) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+    }
+
+}
@@ -0,0 +1,199 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.polygon;
+
+/**
+ * Lexicographic sorting of points held as separate x and y arrays, as
+ * needed by the monotone chain hull algorithm.
+ */
+final class PointSort {
+
+    private static final int INSERTION_THRESHOLD = 24;
+
+    /**
+     * Sorts the first {@code n} points of the given arrays by x, then y,
+     * and removes any duplicates.
+     *
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param n The number of points
+     * @return The number of distinct points, now at the start of the arrays
+     */
+    static int sortDistinct(final double[] xs, final double[] ys, final int n) {
+        if (n > INSERTION_THRESHOLD) {
+            mergeSort(xs.clone(), ys.clone(), xs, ys, 0, n);
+        } else {
+            insertionSort(xs, ys, 0, n);
+        }
+        int size = Math.min(n, 1);
+        for (int i = 1; i < n; i++) {
+            if (xs[i] != xs[size - 1] || ys[i] != ys[size - 1]) {
+                xs[size] = xs[i];
+                ys[size] = ys[i];
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Establishes whether the first point precedes the second, ordering
+     * by x, then y.
+     *
+     * @param ax The x position of the first point
+     * @param ay The y position of the first point
+     * @param bx The x position of the second point
+     * @param by The y position of the second point
+     * @return {@code true} if the first point precedes the second
+     */
+    static boolean precedes(final double ax, final double ay, final double bx, final double by) {
+        return ax < bx || ax == bx && ay < by;
+    }
+
+    // Sorts the range of the destination arrays, using the source arrays,
+    // which hold the same points, as scratch space
+    private static void mergeSort(final double[] sxs, final double[] sys, final double[] dxs, final double[] dys, final int from, final int to) {
+        if (to - from <= INSERTION_THRESHOLD) {
+            insertionSort(dxs, dys, from, to);
+            return;
+        }
+        final int mid = (from + to) >>> 1;
+        mergeSort(dxs, dys, sxs, sys, from, mid);
+        mergeSort(dxs, dys, sxs, sys, mid, to);
+        if (!precedes(sxs[mid], sys[mid], sxs[mid - 1], sys[mid - 1])) {
+            System.arraycopy(sxs, from, dxs, from, to - from);
+            System.arraycopy(sys, from, dys, from, to - from);
+            return;
+        }
+        for (int i = from, l = from, r = mid; i < to; i++) {
+            if (r >= to || l < mid && !precedes(sxs[r], sys[r], sxs[l], sys[l])) {
+                dxs[i] = sxs[l];
+                dys[i] = sys[l++];
+            } else {
+                dxs[i] = sxs[r];
+                dys[i] = sys[r++];
+            }
+        }
+    }
+
+    private static void insertionSort(final double[] xs, final double[] ys, final int from, final int to) {
+        for (int i = from + 1; i < to; i++) {
+            final double x = xs[i];
+            final double y = ys[i];
+            int j = i - 1;
+            for (; j >= from && precedes(x, y, xs[j], ys[j]); j--) {
+                xs[j + 1] = xs[j];
+                ys[j + 1] = ys[j];
+            }
+            xs[j + 1] = x;
+            ys[j + 1] = y;
+        }
+    }
+
+    /**
+     * Sorts the first {@code n} points of the given arrays by x, then y,
+     * and removes any duplicates.
+     *
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param n The number of points
+     * @return The number of distinct points, now at the start of the arrays
+     */
+    static int sortDistinct(final float[] xs, final float[] ys, final int n) {
+        if (n > INSERTION_THRESHOLD) {
+            mergeSort(xs.clone(), ys.clone(), xs, ys, 0, n);
+        } else {
+            insertionSort(xs, ys, 0, n);
+        }
+        int size = Math.min(n, 1);
+        for (int i = 1; i < n; i++) {
+            if (xs[i] != xs[size - 1] || ys[i] != ys[size - 1]) {
+                xs[size] = xs[i];
+                ys[size] = ys[i];
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Establishes whether the first point precedes the second, ordering
+     * by x, then y.
+     *
+     * @param ax The x position of the first point
+     * @param ay The y position of the first point
+     * @param bx The x position of the second point
+     * @param by The y position of the second point
+     * @return {@code true} if the first point precedes the second
+     */
+    static boolean precedes(final float ax, final float ay, final float bx, final float by) {
+        return ax < bx || ax == bx && ay < by;
+    }
+
+    // Sorts the range of the destination arrays, using the source arrays,
+    // which hold the same points, as scratch space
+    private static void mergeSort(final float[] sxs, final float[] sys, final float[] dxs, final float[] dys, final int from, final int to) {
+        if (to - from <= INSERTION_THRESHOLD) {
+            insertionSort(dxs, dys, from, to);
+            return;
+        }
+        final int mid = (from + to) >>> 1;
+        mergeSort(dxs, dys, sxs, sys, from, mid);
+        mergeSort(dxs, dys, sxs, sys, mid, to);
+        if (!precedes(sxs[mid], sys[mid], sxs[mid - 1], sys[mid - 1])) {
+            System.arraycopy(sxs, from, dxs, from, to - from);
+            System.arraycopy(sys, from, dys, from, to - from);
+            return;
+        }
+        for (int i = from, l = from, r = mid; i < to; i++) {
+            if (r >= to || l < mid && !precedes(sxs[r], sys[r], sxs[l], sys[l])) {
+                dxs[i] = sxs[l];
+                dys[i] = sys[l++];
+            } else {
+                dxs[i] = sxs[r];
+                dys[i] = sys[r++];
+            }
+        }
+    }
+
+    private static void insertionSort(final float[] xs, final float[] ys, final int from, final int to) {
+        for (int i = from + 1; i < to; i++) {
+            final float x = xs[i];
+            final float y = ys[i];
+            int j = i - 1;
+            for (; j >= from && precedes(x, y, xs[j], ys[j]); j--) {
+                xs[j + 1] = xs[j];
+                ys[j + 1] = ys[j];
+            }
+            xs[j + 1] = x;
+            ys[j + 1] = y;
+        }
+    }
+
+    private PointSort() {
+    }
+
+}
@@ -0,0 +1,210 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.spatial;
+
+import me.jamiemansfield.maths.coord.CoordinateHash;
+
+import java.util.Arrays;
+
+/**
+ * A static index of points by the integer grid cell each falls in, used
+ * by the clustering algorithms.
+ *
+ * <p>Cells are numbered in the order their first point is given, and
+ * the points of each cell are held contiguously, in ascending order.
+ * Cells are found through an open-addressed table of their exact
+ * coordinates, so distinct cells never share an entry.</p>
+ */
+final class CellIndex {
+
+    static final int ABSENT = -1;
+
+    // x, y, z and cell of each slot, side by side
+    private final int[] table;
+    private final int mask;
+    private final int[] starts;
+    private final int[] points;
+    private final int[] cellXs;
+    private final int[] cellYs;
+    private final int[] cellZs;
+
+    /**
+     * Indexes the given points by their cells.
+     *
+     * @param xs The x position of the cell of each point
+     * @param ys The y position of the cell of each point
+     * @param zs The z position of the cell of each point, or {@code null}
+     *           for a 2-dimensional grid
+     * @param n The number of points
+     */
+    CellIndex(final int[] xs, final int[] ys, final int[] zs, final int n) {
+        int capacity = 16;
+        while (capacity * 3 < n * 4 && capacity < 1 << 30) {
+            capacity <<= 1;
+        }
+        this.table = new int[capacity * 4];
+        for (int slot = 3; slot < this.table.length; slot += 4) {
+            this.table[slot] = ABSENT;
+        }
+        this.mask = capacity - 1;
+
+        // Number the cells, remembering the coordinates of each
+        final int[] cellOf = new int[n];
+        final int[] cellXs = new int[n];
+        final int[] cellYs = new int[n];
+        final int[] cellZs = new int[n];
+        int cells = 0;
+        for (int i = 0; i < n; i++) {
+            final int x = xs[i];
+            final int y = ys[i];
+            final int z = zs == null ? 0 : zs[i];
+            int slot = (CoordinateHash.hash(x, y, z) & this.mask) << 2;
+            while (this.table[slot + 3] != ABSENT
+                    && (this.table[slot] != x || this.table[slot + 1] != y || this.table[slot + 2] != z)) {
+                slot = (slot + 4) & (this.mask << 2);
+            }
+            if (this.table[slot + 3] == ABSENT) {
+                this.table[slot] = x;
+                this.table[slot + 1] = y;
+                this.table[slot + 2] = z;
+                this.table[slot + 3] = cells;
+                cellXs[cells] = x;
+                cellYs[cells] = y;
+                cellZs[cells] = z;
+                cells++;
+            }
+            cellOf[i] = this.table[slot + 3];
+        }
+        this.cellXs = Arrays.copyOf(cellXs, cells);
+        this.cellYs = Arrays.copyOf(cellYs, cells);
+        this.cellZs = Arrays.copyOf(cellZs, cells);
+
+        // Then group the points by cell, with a counting sort
+        this.starts = new int[cells + 1];
+        for (int i = 0; i < n; i++) {
+            this.starts[cellOf[i] + 1]++;
+        }
+        for (int cell = 0; cell < cells; cell++) {
+            this.starts[cell + 1] += this.starts[cell];
+        }
+        this.points = new int[n];
+        final int[] next = Arrays.copyOf(this.starts, cells);
+        for (int i = 0; i < n; i++) {
+            this.points[next[cellOf[i]]++] = i;
+        }
+    }
+
+    /**
+     * Gets the number of occupied cells.
+     *
+     * @return The number of cells
+     */
+    int cellCount() {
+        return this.cellXs.length;
+    }
+
+    /**
+     * Finds the given cell.
+     *
+     * @param x The x position of the cell
+     * @param y The y position of the cell
+     * @param z The z position of the cell
+     * @return The number of the cell, or {@link #ABSENT} if no point is
+     *         within it
+     */
+    int find(final int x, final int y, final int z) {
+        int slot = (CoordinateHash.hash(x, y, z) & this.mask) << 2;
+        while (this.table[slot + 3] != ABSENT) {
+            if (this.table[slot] == x && this.table[slot + 1] == y && this.table[slot + 2] == z) {
+                return this.table[slot + 3];
+            }
+            slot = (slot + 4) & (this.mask << 2);
+        }
+        return ABSENT;
+    }
+
+    /**
+     * Gets the position, within {@link #points()}, of the first point of
+     * the given cell.
+     *
+     * @param cell The cell
+     * @return The start, inclusive
+     */
+    int start(final int cell) {
+        return this.starts[cell];
+    }
+
+    /**
+     * Gets the position, within {@link #points()}, after the last point
+     * of the given cell.
+     *
+     * @param cell The cell
+     * @return The end, exclusive
+     */
+    int end(final int cell) {
+        return this.starts[cell + 1];
+    }
+
+    /**
+     * Gets the indices of the points, grouped by cell.
+     *
+     * @return The points
+     */
+    int[] points() {
+        return this.points;
+    }
+
+    /**
+     * Gets the x position of the given cell.
+     *
+     * @param cell The cell
+     * @return The x position
+     */
+    int cellX(final int cell) {
+        return this.cellXs[cell];
+    }
+
+    /**
+     * Gets the y position of the given cell.
+     *
+     * @param cell The cell
+     * @return The y position
+     */
+    int cellY(final int cell) {
+        return this.cellYs[cell];
+    }
+
+    /**
+     * Gets the z position of the given cell.
+     *
+     * @param cell The cell
+     * @return The z position
+     */
+    int cellZ(final int cell) {
+        return this.cellZs[cell];
+    }
+
+}
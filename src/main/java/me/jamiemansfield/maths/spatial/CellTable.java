@@ -0,0 +1,162 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.spatial;
+
+import me.jamiemansfield.maths.coord.CoordinateHash;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressed table from the packed coordinates of occupied grid
+ * cells to the first entity in each, used by the hash grids.
+ *
+ * <p>Emptied cells are removed with backward-shift deletion, so the
+ * table never fills with tombstones as entities move, and it never
+ * shrinks - so steady-state use allocates nothing.</p>
+ */
+final class CellTable {
+
+    static final int ABSENT = -1;
+
+    private long[] keys;
+    private int[] heads;
+    private int mask;
+    private int size;
+
+    CellTable(final int expectedCells) {
+        int capacity = 16;
+        while (capacity * 3 < expectedCells * 4 && capacity < 1 << 30) {
+            capacity <<= 1;
+        }
+        this.keys = new long[capacity];
+        this.heads = new int[capacity];
+        Arrays.fill(this.heads, ABSENT);
+        this.mask = capacity - 1;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    int capacity() {
+        return this.heads.length;
+    }
+
+    long keyAt(final int slot) {
+        return this.keys[slot];
+    }
+
+    int headAt(final int slot) {
+        return this.heads[slot];
+    }
+
+    int head(final long key) {
+        int slot = CoordinateHash.hash(key) & this.mask;
+        while (this.heads[slot] != ABSENT) {
+            if (this.keys[slot] == key) {
+                return this.heads[slot];
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return ABSENT;
+    }
+
+    /**
+     * Sets the first entity of the given cell, removing the cell if it
+     * is {@link #ABSENT}.
+     *
+     * @param key The packed coordinate of the cell
+     * @param head The first entity
+     */
+    void setHead(final long key, final int head) {
+        int slot = CoordinateHash.hash(key) & this.mask;
+        while (this.heads[slot] != ABSENT) {
+            if (this.keys[slot] == key) {
+                if (head == ABSENT) {
+                    this.delete(slot);
+                } else {
+                    this.heads[slot] = head;
+                }
+                return;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        if (head == ABSENT) {
+            return;
+        }
+        this.keys[slot] = key;
+        this.heads[slot] = head;
+        if (++this.size * 4 > this.heads.length * 3) {
+            this.resize();
+        }
+    }
+
+    void clear() {
+        Arrays.fill(this.heads, ABSENT);
+        this.size = 0;
+    }
+
+    private void delete(final int slot) {
+        this.size--;
+        int gap = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & this.mask;
+            if (this.heads[next] == ABSENT) {
+                break;
+            }
+            final int ideal = CoordinateHash.hash(this.keys[next]) & this.mask;
+            // shift back the entry if its ideal slot is not between the gap and it
+            if (((next - ideal) & this.mask) >= ((next - gap) & this.mask)) {
+                this.keys[gap] = this.keys[next];
+                this.heads[gap] = this.heads[next];
+                gap = next;
+            }
+        }
+        this.heads[gap] = ABSENT;
+    }
+
+    private void resize() {
+        final long[] oldKeys = this.keys;
+        final int[] oldHeads = this.heads;
+        final int capacity = oldHeads.length << 1;
+        this.keys = new long[capacity];
+        this.heads = new int[capacity];
+        Arrays.fill(this.heads, ABSENT);
+        this.mask = capacity - 1;
+        for (int i = 0; i < oldHeads.length; i++) {
+            if (oldHeads[i] != ABSENT) {
+                int slot = CoordinateHash.hash(oldKeys[i]) & this.mask;
+                while (this.heads[slot] != ABSENT) {
+                    slot = (slot + 1) & this.mask;
+                }
+                this.keys[slot] = oldKeys[i];
+                this.heads[slot] = oldHeads[i];
+            }
+        }
+    }
+
+}
@@ -0,0 +1,510 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.spatial;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.MoreObjects;
+import me.jamiemansfield.maths.coord.Coordinate2f;
+import me.jamiemansfield.maths.coord.Coordinate2iPacker;
+import me.jamiemansfield.maths.function.IntBiConsumer;
+
+import java.util.Arrays;
+
+/**
+ * A uniform spatial hash grid of moving {@link Coordinate2f}s, for broad-phase
+ * neighbour and collision queries.
+ *
+ * <p>Entities are identified by the int returned when they are added,
+ * and each occupied cell of the grid holds an intrusive linked list of
+ * its entities - so adding, moving and removing an entity are constant
+ * time, and moving one within its cell only updates its position. Every
+ * structure is primitive and retained when entities leave, so a grid
+ * whose population is steady allocates nothing from tick to tick.</p>
+ *
+ * <p>Queries are fastest when their distance is no more than the cell
+ * size. This grid is not thread-safe, and must not be modified by the
+ * consumers of its queries.</p>
+ */
+public final class Coordinate2fHashGrid {
+
+    private static final int NONE = -1;
+
+    private final float cellSize;
+    private final float inverseCellSize;
+    private final CellTable cells;
+
+    private float[] xs;
+    private float[] ys;
+    private long[] keys;
+    private int[] next;
+    private int[] previous;
+    private boolean[] live;
+    private int count;
+    private int size;
+    private int free = NONE;
+
+    // the half neighbourhood of cell offsets, cached for the last range
+    private int[] offsets = new int[0];
+    private int offsetsLength;
+    private int offsetsRange = -1;
+
+    /**
+     * Creates an empty grid with the given cell size.
+     *
+     * @param cellSize The size of each cell along every axis
+     */
+    public Coordinate2fHashGrid(final float cellSize) {
+        this(cellSize, 16);
+    }
+
+    /**
+     * Creates an empty grid with the given cell size, with room for the
+     * given number of entities.
+     *
+     * @param cellSize The size of each cell along every axis
+     * @param expectedSize The expected number of entities
+     */
+    public Coordinate2fHashGrid(final float cellSize, final int expectedSize) {
+        checkArgument(cellSize > 0 && cellSize < Float.POSITIVE_INFINITY, "cellSize must be positive and finite");
+        checkArgument(expectedSize >= 0, "expectedSize cannot be negative");
+        this.cellSize = cellSize;
+        this.inverseCellSize = 1 / cellSize;
+        this.cells = new CellTable(expectedSize);
+        final int capacity = Math.max(expectedSize, 1);
+        this.xs = new float[capacity];
+        this.ys = new float[capacity];
+        this.keys = new long[capacity];
+        this.next = new int[capacity];
+        this.previous = new int[capacity];
+        this.live = new boolean[capacity];
+    }
+
+    /**
+     * Gets the size of each cell along every axis.
+     *
+     * @return The cell size
+     */
+    public float getCellSize() {
+        return this.cellSize;
+    }
+
+    /**
+     * Gets the number of entities in the grid.
+     *
+     * @return The size
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Establishes whether the grid contains no entities.
+     *
+     * @return {@code true} if the grid is empty
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Gets the number of cells occupied by at least one entity.
+     *
+     * @return The number of cells
+     */
+    public int cellCount() {
+        return this.cells.size();
+    }
+
+    /**
+     * Adds an entity at the given position.
+     *
+     * <p>The ids of removed entities are reused.</p>
+     *
+     * @param x The x position
+     * @param y The y position
+     * @return The id of the entity
+     */
+    public int add(final float x, final float y) {
+        final int id;
+        if (this.free != NONE) {
+            id = this.free;
+            this.free = this.next[id];
+        } else {
+            if (this.count == this.live.length) {
+                this.grow();
+            }
+            id = this.count++;
+        }
+        this.xs[id] = x;
+        this.ys[id] = y;
+        this.live[id] = true;
+        this.size++;
+        this.link(id, Coordinate2iPacker.pack(this.cell(x), this.cell(y)));
+        return id;
+    }
+
+    /**
+     * Adds an entity at the given coordinate.
+     *
+     * @param coord The coordinate
+     * @return The id of the entity
+     */
+    public int add(final Coordinate2f coord) {
+        return this.add(coord.getX(), coord.getY());
+    }
+
+    /**
+     * Moves the given entity to the given position.
+     *
+     * @param id The id of the entity
+     * @param x The x position
+     * @param y The y position
+     */
+    public void move(final int id, final float x, final float y) {
+        checkArgument(this.contains(id), "unknown entity %s", id);
+        this.xs[id] = x;
+        this.ys[id] = y;
+        final long key = Coordinate2iPacker.pack(this.cell(x), this.cell(y));
+        if (key != this.keys[id]) {
+            this.unlink(id);
+            this.link(id, key);
+        }
+    }
+
+    /**
+     * Removes the given entity from the grid.
+     *
+     * @param id The id of the entity
+     * @return {@code true} if the entity was in the grid
+     */
+    public boolean remove(final int id) {
+        if (!this.contains(id)) {
+            return false;
+        }
+        this.unlink(id);
+        this.live[id] = false;
+        this.next[id] = this.free;
+        this.free = id;
+        this.size--;
+        return true;
+    }
+
+    /**
+     * Establishes whether the given entity is in the grid.
+     *
+     * @param id The id of the entity
+     * @return {@code true} if the entity is in the grid
+     */
+    public boolean contains(final int id) {
+        return id >= 0 && id < this.count && this.live[id];
+    }
+
+    /**
+     * Gets the x position of the given entity.
+     *
+     * @param id The id of the entity
+     * @return The x pos
+     */
+    public float getX(final int id) {
+        checkArgument(this.contains(id), "unknown entity %s", id);
+        return this.xs[id];
+    }
+
+    /**
+     * Gets the y position of the given entity.
+     *
+     * @param id The id of the entity
+     * @return The y pos
+     */
+    public float getY(final int id) {
+        checkArgument(this.contains(id), "unknown entity %s", id);
+        return this.ys[id];
+    }
+
+    /**
+     * Collects every entity in the cell containing the given position,
+     * and in the 8 cells around it. Each is a candidate for being
+     * within one cell size of the position.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param result The list to collect the entities into, which is
+     *               cleared first
+     */
+    public void neighbours(final float x, final float y, final IndexList result) {
+        result.clear();
+        final int cx = this.cell(x);
+        final int cy = this.cell(y);
+        for (int dy = -1; dy <= 1; dy++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                this.collect(Coordinate2iPacker.pack(cx + dx, cy + dy), result);
+            }
+        }
+    }
+
+    /**
+     * Collects every entity within the given distance of the given
+     * position.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param radius The distance
+     * @param result The list to collect the entities into, which is
+     *               cleared first
+     */
+    public void withinRadius(final float x, final float y, final double radius, final IndexList result) {
+        checkArgument(radius >= 0, "radius cannot be negative");
+        result.clear();
+        final float r = (float) radius;
+        final int minX = this.cell(x - r);
+        final int maxX = this.cell(x + r);
+        final int minY = this.cell(y - r);
+        final int maxY = this.cell(y + r);
+        final double radiusSq = radius * radius;
+
+        // scan the occupied cells instead, when there are fewer of them
+        if (((double) maxX - minX + 1) * ((double) maxY - minY + 1) > this.cells.size()) {
+            for (int slot = 0; slot < this.cells.capacity(); slot++) {
+                final int head = this.cells.headAt(slot);
+                if (head != CellTable.ABSENT) {
+                    this.collect(head, x, y, radiusSq, result);
+                }
+            }
+            return;
+        }
+        // the cells may end at Integer.MAX_VALUE, so stop on reaching the end
+        int cy = minY;
+        do {
+            int cx = minX;
+            do {
+                final int head = this.cells.head(Coordinate2iPacker.pack(cx, cy));
+                if (head != CellTable.ABSENT) {
+                    this.collect(head, x, y, radiusSq, result);
+                }
+            } while (cx++ != maxX);
+        } while (cy++ != maxY);
+    }
+
+    /**
+     * Visits every pair of entities within the given distance of each
+     * other, once each.
+     *
+     * <p>Each occupied cell is paired with the half of the cells around
+     * it that follow it, so no pair is visited twice. With a distance no
+     * more than the cell size, that is 4 cells. Where that half
+     * neighbourhood holds more cells than are occupied, the occupied
+     * cells are paired with each other instead.</p>
+     *
+     * @param distance The distance
+     * @param consumer The consumer of the ids of each pair
+     */
+    public void forEachPairWithin(final double distance, final IntBiConsumer consumer) {
+        checkArgument(distance >= 0, "distance cannot be negative");
+        final double distanceSq = distance * distance;
+        final double range = Math.ceil(distance * this.inverseCellSize);
+        final double side = 2 * range + 1;
+        if ((side * side - 1) / 2 > this.cells.size()) {
+            this.forEachPairOfCells(range, distanceSq, consumer);
+            return;
+        }
+        final int[] offsets = this.offsets((int) range);
+        final int offsetsLength = this.offsetsLength;
+        for (int slot = 0; slot < this.cells.capacity(); slot++) {
+            final int head = this.cells.headAt(slot);
+            if (head == CellTable.ABSENT) {
+                continue;
+            }
+            this.pairs(head, distanceSq, consumer);
+
+            // pairs with the following cells
+            final long key = this.cells.keyAt(slot);
+            final int cx = Coordinate2iPacker.getX(key);
+            final int cy = Coordinate2iPacker.getY(key);
+            for (int o = 0; o < offsetsLength; o += 2) {
+                final int other = this.cells.head(Coordinate2iPacker.pack(cx + offsets[o], cy + offsets[o + 1]));
+                if (other != CellTable.ABSENT) {
+                    this.pairs(head, other, distanceSq, consumer);
+                }
+            }
+        }
+    }
+
+    private void forEachPairOfCells(final double range, final double distanceSq, final IntBiConsumer consumer) {
+        final int capacity = this.cells.capacity();
+        for (int slot = 0; slot < capacity; slot++) {
+            final int head = this.cells.headAt(slot);
+            if (head == CellTable.ABSENT) {
+                continue;
+            }
+            this.pairs(head, distanceSq, consumer);
+            final long key = this.cells.keyAt(slot);
+            for (int otherSlot = slot + 1; otherSlot < capacity; otherSlot++) {
+                final int other = this.cells.headAt(otherSlot);
+                if (other == CellTable.ABSENT) {
+                    continue;
+                }
+                final long otherKey = this.cells.keyAt(otherSlot);
+                if (Math.abs((long) Coordinate2iPacker.getX(key) - Coordinate2iPacker.getX(otherKey)) <= range
+                        && Math.abs((long) Coordinate2iPacker.getY(key) - Coordinate2iPacker.getY(otherKey)) <= range) {
+                    this.pairs(head, other, distanceSq, consumer);
+                }
+            }
+        }
+    }
+
+    private void pairs(final int head, final double distanceSq, final IntBiConsumer consumer) {
+        for (int i = head; i != NONE; i = this.next[i]) {
+            for (int j = this.next[i]; j != NONE; j = this.next[j]) {
+                if (this.distanceSq(i, j) <= distanceSq) {
+                    consumer.accept(i, j);
+                }
+            }
+        }
+    }
+
+    private void pairs(final int head, final int other, final double distanceSq, final IntBiConsumer consumer) {
+        for (int i = head; i != NONE; i = this.next[i]) {
+            for (int j = other; j != NONE; j = this.next[j]) {
+                if (this.distanceSq(i, j) <= distanceSq) {
+                    consumer.accept(i, j);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes every entity from the grid, retaining its storage.
+     */
+    public void clear() {
+        this.cells.clear();
+        Arrays.fill(this.live, 0, this.count, false);
+        this.count = 0;
+        this.size = 0;
+        this.free = NONE;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("cellSize", this.cellSize)
+                .add("size", this.size)
+                .add("cells", this.cells.size())
+                .toString();
+    }
+
+    private int cell(final float position) {
+        return (int) Math.floor(position * this.inverseCellSize);
+    }
+
+    private void link(final int id, final long key) {
+        final int head = this.cells.head(key);
+        this.keys[id] = key;
+        this.previous[id] = NONE;
+        this.next[id] = head;
+        if (head != CellTable.ABSENT) {
+            this.previous[head] = id;
+        }
+        this.cells.setHead(key, id);
+    }
+
+    private void unlink(final int id) {
+        final int previous = this.previous[id];
+        final int next = this.next[id];
+        if (previous != NONE) {
+            this.next[previous] = next;
+        } else {
+            this.cells.setHead(this.keys[id], next);
+        }
+        if (next != NONE) {
+            this.previous[next] = previous;
+        }
+    }
+
+    private void collect(final long key, final IndexList result) {
+        for (int i = this.cells.head(key); i != NONE; i = this.next[i]) {
+            result.add(i);
+        }
+    }
+
+    private void collect(final int head, final float x, final float y, final double radiusSq, final IndexList result) {
+        for (int i = head; i != NONE; i = this.next[i]) {
+            final double dx = this.xs[i] - x;
+            final double dy = this.ys[i] - y;
+            if (dx * dx + dy * dy <= radiusSq) {
+                result.add(i);
+            }
+        }
+    }
+
+    private double distanceSq(final int i, final int j) {
+        final double dx = this.xs[i] - this.xs[j];
+        final double dy = this.ys[i] - this.ys[j];
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Gets the half neighbourhood of offsets for the given range, of
+     * {@link #offsetsLength} ints, which is only asked of ranges whose
+     * half neighbourhood is no larger than the number of occupied cells.
+     *
+     * @param range The range, in cells
+     * @return The offsets
+     */
+    private int[] offsets(final int range) {
+        if (range != this.offsetsRange) {
+            final long side = 2L * range + 1;
+            final int length = Math.toIntExact((side * side - 1) / 2 * 2);
+            if (this.offsets.length < length) {
+                this.offsets = new int[length];
+            }
+            final int[] offsets = this.offsets;
+            int o = 0;
+            for (int dy = -range; dy <= range; dy++) {
+                for (int dx = -range; dx <= range; dx++) {
+                    if (dy > 0 || dy == 0 && dx > 0) {
+                        offsets[o++] = dx;
+                        offsets[o++] = dy;
+                    }
+                }
+            }
+            this.offsetsLength = length;
+            this.offsetsRange = range;
+        }
+        return this.offsets;
+    }
+
+    private void grow() {
+        final int capacity = this.live.length + (this.live.length >> 1) + 1;
+        this.xs = Arrays.copyOf(this.xs, capacity);
+        this.ys = Arrays.copyOf(this.ys, capacity);
+        this.keys = Arrays.copyOf(this.keys, capacity);
+        this.next = Arrays.copyOf(this.next, capacity);
+        this.previous = Arrays.copyOf(this.previous, capacity);
+        this.live = Arrays.copyOf(this.live, capacity);
+    }
+
+}
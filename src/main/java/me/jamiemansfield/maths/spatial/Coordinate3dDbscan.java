@@ -0,0 +1,406 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.spatial;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import me.jamiemansfield.maths.coord.Coordinate3d;
+import me.jamiemansfield.maths.coord.Coordinate3dBuffer;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Density-based clustering (DBSCAN) of {@link Coordinate3d}s.
+ *
+ * <p>A point is a core point where at least {@code minPoints} points,
+ * itself included, are within {@code eps} of it. Core points within
+ * {@code eps} of each other share a cluster, and every other point joins
+ * the cluster of the nearest core point within {@code eps}, or is
+ * {@link #NOISE}.</p>
+ *
+ * <p>Neighbours are found through a grid of cells with a diagonal of
+ * {@code eps}, so every point of a cell is within {@code eps} of every
+ * other: a cell of at least {@code minPoints} points is all core points
+ * without a single distance being computed, and all of its core points
+ * share a cluster. Clusters are then formed by joining the cells of core
+ * points, rather than point by point. Finding core points and assigning
+ * the other points are split across a {@link ForkJoinPool}.</p>
+ */
+public final class Coordinate3dDbscan {
+
+    /**
+     * The label of points that belong to no cluster.
+     */
+    public static final int NOISE = -1;
+
+    private static final int PARALLEL_THRESHOLD = 1 << 12;
+
+    /**
+     * Clusters the coordinates in the given buffer, using the common
+     * pool.
+     *
+     * @param points The coordinates
+     * @param eps The distance within which points are neighbours
+     * @param minPoints The number of neighbours that make a core point
+     * @return The cluster of each coordinate, at its index
+     * @see #cluster(Coordinate3dBuffer, double, int, ForkJoinPool)
+     */
+    public static int[] cluster(final Coordinate3dBuffer points, final double eps, final int minPoints) {
+        return cluster(points, eps, minPoints, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Clusters the coordinates in the given buffer.
+     *
+     * <p>Clusters are numbered from zero, in the order of the first core
+     * point of each within the buffer, and points that belong to no
+     * cluster are labelled {@link #NOISE}.</p>
+     *
+     * @param points The coordinates
+     * @param eps The distance within which points are neighbours
+     * @param minPoints The number of neighbours that make a core point
+     * @param pool The pool to compute within
+     * @return The cluster of each coordinate, at its index
+     */
+    public static int[] cluster(final Coordinate3dBuffer points, final double eps, final int minPoints, final ForkJoinPool pool) {
+        checkArgument(eps > 0, "eps must be positive");
+        checkArgument(minPoints > 0, "minPoints must be positive");
+        final int[] labels = new int[points.size()];
+        if (labels.length > 0) {
+            new Coordinate3dDbscan(points.getXArray(), points.getYArray(), points.getZArray(), labels.length, eps, minPoints).cluster(labels, pool);
+        }
+        return labels;
+    }
+
+    private final double epsSq;
+    private final int minPoints;
+    private final CellIndex index;
+    private final int[] offsets;
+    private final int[] forwardOffsets;
+    // the points, and which are core points, in the order of the index
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+    private final boolean[] core;
+    private final boolean[] coreCells;
+    private final int[] clusters;
+    private final int[] labels;
+
+    private Coordinate3dDbscan(final double[] xs, final double[] ys, final double[] zs, final int n, final double eps, final int minPoints) {
+        this.epsSq = eps * eps;
+        this.minPoints = minPoints;
+
+        // Shrink the cells a touch, so that rounding never puts two points
+        // further than eps apart within one
+        final double side = eps / Math.sqrt(3) * (1 - 1e-9);
+        double minX = xs[0];
+        double minY = ys[0];
+        double minZ = zs[0];
+        double maxX = minX;
+        double maxY = minY;
+        double maxZ = minZ;
+        for (int i = 1; i < n; i++) {
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            minZ = Math.min(minZ, zs[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+            maxZ = Math.max(maxZ, zs[i]);
+        }
+        checkArgument((maxX - minX) / side < Integer.MAX_VALUE && (maxY - minY) / side < Integer.MAX_VALUE
+                && (maxZ - minZ) / side < Integer.MAX_VALUE, "eps is too small for the extent of the points");
+        final int[] cxs = new int[n];
+        final int[] cys = new int[n];
+        final int[] czs = new int[n];
+        for (int i = 0; i < n; i++) {
+            cxs[i] = (int) ((xs[i] - minX) / side);
+            cys[i] = (int) ((ys[i] - minY) / side);
+            czs[i] = (int) ((zs[i] - minZ) / side);
+        }
+        this.index = new CellIndex(cxs, cys, czs, n);
+
+        final int[] points = this.index.points();
+        this.xs = new double[n];
+        this.ys = new double[n];
+        this.zs = new double[n];
+        for (int p = 0; p < n; p++) {
+            this.xs[p] = xs[points[p]];
+            this.ys[p] = ys[points[p]];
+            this.zs[p] = zs[points[p]];
+        }
+        this.core = new boolean[n];
+        this.coreCells = new boolean[this.index.cellCount()];
+        this.clusters = new int[this.index.cellCount()];
+        this.labels = new int[n];
+
+        // Two cells can only hold points within eps of each other where
+        // the gaps between them along each axis, in cells, have squares
+        // summing to no more than 3. They are held nearest first, so that
+        // counting neighbours can stop sooner, and those after the cell
+        // are held again, so that each pair of cells is joined once.
+        final int[] offsets = new int[3 * 124];
+        final int[] forwardOffsets = new int[3 * 62];
+        int count = 0;
+        int forwardCount = 0;
+        for (int distanceSq = 1; distanceSq <= 12; distanceSq++) {
+            for (int dx = -2; dx <= 2; dx++) {
+                for (int dy = -2; dy <= 2; dy++) {
+                    for (int dz = -2; dz <= 2; dz++) {
+                        if (dx * dx + dy * dy + dz * dz == distanceSq && gap(dx) + gap(dy) + gap(dz) <= 3) {
+                            offsets[count++] = dx;
+                            offsets[count++] = dy;
+                            offsets[count++] = dz;
+                            if (dx > 0 || dx == 0 && (dy > 0 || dy == 0 && dz > 0)) {
+                                forwardOffsets[forwardCount++] = dx;
+                                forwardOffsets[forwardCount++] = dy;
+                                forwardOffsets[forwardCount++] = dz;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        this.offsets = Arrays.copyOf(offsets, count);
+        this.forwardOffsets = Arrays.copyOf(forwardOffsets, forwardCount);
+    }
+
+    private static int gap(final int offset) {
+        final int gap = Math.max(Math.abs(offset) - 1, 0);
+        return gap * gap;
+    }
+
+    private void cluster(final int[] labels, final ForkJoinPool pool) {
+        final int cells = this.index.cellCount();
+        this.run(new CellTask(false, 0, cells), pool);
+
+        // Join the cells of core points within eps of each other
+        final int[] parents = new int[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            parents[cell] = cell;
+        }
+        final int[] neighbours = new int[this.offsets.length / 3];
+        for (int cell = 0; cell < cells; cell++) {
+            if (!this.coreCells[cell]) {
+                continue;
+            }
+            for (int i = 0, count = this.neighbours(cell, this.forwardOffsets, neighbours); i < count; i++) {
+                final int other = neighbours[i];
+                if (this.coreCells[other]) {
+                    final int a = root(parents, cell);
+                    final int b = root(parents, other);
+                    if (a != b && this.coreLinked(cell, other)) {
+                        parents[Math.max(a, b)] = Math.min(a, b);
+                    }
+                }
+            }
+        }
+
+        // Number the clusters in the order of their first core point
+        final int[] points = this.index.points();
+        final int[] positions = new int[points.length];
+        final int[] cellOf = new int[points.length];
+        for (int cell = 0; cell < cells; cell++) {
+            for (int p = this.index.start(cell); p < this.index.end(cell); p++) {
+                positions[points[p]] = p;
+                cellOf[p] = cell;
+            }
+        }
+        final int[] numbers = new int[cells];
+        Arrays.fill(numbers, NOISE);
+        int clusters = 0;
+        for (int i = 0; i < labels.length; i++) {
+            final int p = positions[i];
+            if (this.core[p]) {
+                final int root = root(parents, cellOf[p]);
+                if (numbers[root] == NOISE) {
+                    numbers[root] = clusters++;
+                }
+            }
+        }
+        for (int cell = 0; cell < cells; cell++) {
+            this.clusters[cell] = this.coreCells[cell] ? numbers[root(parents, cell)] : NOISE;
+        }
+
+        this.run(new CellTask(true, 0, cells), pool);
+        for (int p = 0; p < points.length; p++) {
+            labels[points[p]] = this.labels[p];
+        }
+    }
+
+    private void run(final CellTask task, final ForkJoinPool pool) {
+        if (this.xs.length < PARALLEL_THRESHOLD) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    private static int root(final int[] parents, final int cell) {
+        int root = cell;
+        while (parents[root] != root) {
+            parents[root] = parents[parents[root]];
+            root = parents[root];
+        }
+        return root;
+    }
+
+    private int neighbours(final int cell, final int[] offsets, final int[] neighbours) {
+        final int x = this.index.cellX(cell);
+        final int y = this.index.cellY(cell);
+        final int z = this.index.cellZ(cell);
+        int count = 0;
+        for (int i = 0; i < offsets.length; i += 3) {
+            final int neighbour = this.index.find(x + offsets[i], y + offsets[i + 1], z + offsets[i + 2]);
+            if (neighbour != CellIndex.ABSENT) {
+                neighbours[count++] = neighbour;
+            }
+        }
+        return count;
+    }
+
+    private boolean within(final int p, final int q) {
+        final double dx = this.xs[p] - this.xs[q];
+        final double dy = this.ys[p] - this.ys[q];
+        final double dz = this.zs[p] - this.zs[q];
+        return dx * dx + dy * dy + dz * dz <= this.epsSq;
+    }
+
+    private boolean coreLinked(final int a, final int b) {
+        for (int p = this.index.start(a); p < this.index.end(a); p++) {
+            if (this.core[p]) {
+                for (int q = this.index.start(b); q < this.index.end(b); q++) {
+                    if (this.core[q] && this.within(p, q)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private void findCore(final int cell, final int[] neighbours) {
+        final int start = this.index.start(cell);
+        final int end = this.index.end(cell);
+        if (end - start >= this.minPoints) {
+            Arrays.fill(this.core, start, end, true);
+            this.coreCells[cell] = true;
+            return;
+        }
+        final int count = this.neighbours(cell, this.offsets, neighbours);
+        boolean any = false;
+        for (int p = start; p < end; p++) {
+            int found = end - start;
+            for (int i = 0; i < count && found < this.minPoints; i++) {
+                for (int q = this.index.start(neighbours[i]), last = this.index.end(neighbours[i]); q < last && found < this.minPoints; q++) {
+                    if (this.within(p, q)) {
+                        found++;
+                    }
+                }
+            }
+            this.core[p] = found >= this.minPoints;
+            any |= this.core[p];
+        }
+        this.coreCells[cell] = any;
+    }
+
+    private void label(final int cell, final int[] neighbours) {
+        final int start = this.index.start(cell);
+        final int end = this.index.end(cell);
+        int p = start;
+        while (p < end && this.core[p]) {
+            this.labels[p++] = this.clusters[cell];
+        }
+        if (p == end) {
+            return;
+        }
+        final int count = this.neighbours(cell, this.offsets, neighbours);
+        for (; p < end; p++) {
+            if (this.core[p]) {
+                this.labels[p] = this.clusters[cell];
+                continue;
+            }
+            // Otherwise join the cluster of the nearest core point
+            int label = NOISE;
+            double nearest = Double.POSITIVE_INFINITY;
+            for (int i = -1; i < count; i++) {
+                final int other = i < 0 ? cell : neighbours[i];
+                if (!this.coreCells[other]) {
+                    continue;
+                }
+                for (int q = this.index.start(other), last = this.index.end(other); q < last; q++) {
+                    if (this.core[q]) {
+                        final double dx = this.xs[p] - this.xs[q];
+                        final double dy = this.ys[p] - this.ys[q];
+                        final double dz = this.zs[p] - this.zs[q];
+                        final double distanceSq = dx * dx + dy * dy + dz * dz;
+                        if (distanceSq <= this.epsSq && distanceSq < nearest) {
+                            nearest = distanceSq;
+                            label = this.clusters[other];
+                        }
+                    }
+                }
+            }
+            this.labels[p] = label;
+        }
+    }
+
+    private final class CellTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final boolean label;
+        private final int from;
+        private final int to;
+
+        CellTask(final boolean label, final int from, final int to) {
+            this.label = label;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            final CellIndex index = Coordinate3dDbscan.this.index;
+            if (this.to - this.from > 1 && index.start(this.to) - index.start(this.from) >= PARALLEL_THRESHOLD) {
+                final int mid = (this.from + this.to) >>> 1;
+                invokeAll(new CellTask(this.label, this.from, mid), new CellTask(this.label, mid, this.to));
+                return;
+            }
+            final int[] neighbours = new int[Coordinate3dDbscan.this.offsets.length / 3];
+            for (int cell = this.from; cell < this.to; cell++) {
+                if (this.label) {
+                    Coordinate3dDbscan.this.label(cell, neighbours);
+                } else {
+                    Coordinate3dDbscan.this.findCore(cell, neighbours);
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,333 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.spatial;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.MoreObjects;
+import me.jamiemansfield.maths.coord.Coordinate3d;
+import me.jamiemansfield.maths.coord.Coordinate3dBuffer;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A k-means clustering of {@link Coordinate3d}s.
+ *
+ * <p>Centroids are seeded by k-means++, then refined by Lloyd's
+ * algorithm until no point changes cluster, or the iterations run out.
+ * Each iteration assigns the points to their nearest centroids and sums
+ * the points of each cluster in the same pass, split across a
+ * {@link ForkJoinPool}, and the partial sums are reduced as the pass
+ * joins. Assignment uses the same kernels as
+ * {@link Coordinate3dDistances}, so is vectorised where the Vector API
+ * is available.</p>
+ */
+public final class Coordinate3dKMeans {
+
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * Clusters the coordinates in the given buffer, using the common
+     * pool.
+     *
+     * @param points The coordinates
+     * @param k The number of clusters
+     * @param maxIterations The greatest number of iterations to refine
+     *                      the centroids by
+     * @param seed The seed used to choose the initial centroids
+     * @return The clustering
+     * @see #fit(Coordinate3dBuffer, int, int, long, ForkJoinPool)
+     */
+    public static Coordinate3dKMeans fit(final Coordinate3dBuffer points, final int k, final int maxIterations, final long seed) {
+        return fit(points, k, maxIterations, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Clusters the coordinates in the given buffer.
+     *
+     * <p>The clustering is deterministic for a given seed, whatever the
+     * pool, as the points are split and their sums reduced in the same
+     * order regardless of its parallelism.</p>
+     *
+     * @param points The coordinates
+     * @param k The number of clusters
+     * @param maxIterations The greatest number of iterations to refine
+     *                      the centroids by
+     * @param seed The seed used to choose the initial centroids
+     * @param pool The pool to compute within
+     * @return The clustering
+     */
+    public static Coordinate3dKMeans fit(final Coordinate3dBuffer points, final int k, final int maxIterations, final long seed,
+            final ForkJoinPool pool) {
+        checkArgument(k > 0, "k must be positive");
+        checkArgument(k <= points.size(), "k is greater than the number of points");
+        checkArgument(maxIterations >= 0, "maxIterations must not be negative");
+        final int n = points.size();
+        final double[] xs = points.getXArray();
+        final double[] ys = points.getYArray();
+        final double[] zs = points.getZArray();
+        final Coordinate3dBuffer centroids = seed(xs, ys, zs, n, k, new Random(seed));
+        final double[] cxs = centroids.getXArray();
+        final double[] cys = centroids.getYArray();
+        final double[] czs = centroids.getZArray();
+
+        final int[] labels = new int[n];
+        final int[] next = new int[n];
+        final double[] distances = new double[n];
+        Step step = new StepTask(points, centroids, labels, next, distances, 0, n).run(pool);
+        int iterations = 0;
+        boolean converged = false;
+        while (iterations < maxIterations) {
+            // An empty cluster keeps its centroid
+            for (int c = 0; c < k; c++) {
+                if (step.counts[c] > 0) {
+                    cxs[c] = step.sums[c * 3] / step.counts[c];
+                    cys[c] = step.sums[c * 3 + 1] / step.counts[c];
+                    czs[c] = step.sums[c * 3 + 2] / step.counts[c];
+                }
+            }
+            iterations++;
+            step = new StepTask(points, centroids, labels, next, distances, 0, n).run(pool);
+            if (step.changed == 0) {
+                converged = true;
+                break;
+            }
+        }
+        return new Coordinate3dKMeans(labels, centroids, iterations, converged, step.inertia);
+    }
+
+    private static Coordinate3dBuffer seed(final double[] xs, final double[] ys, final double[] zs, final int n, final int k,
+            final Random random) {
+        final Coordinate3dBuffer centroids = new Coordinate3dBuffer(k);
+        final double[] nearest = new double[n];
+        final double[] distances = new double[n];
+        int chosen = random.nextInt(n);
+        centroids.add(xs[chosen], ys[chosen], zs[chosen]);
+        DistanceKernels.SELECTED.squaredDistances(xs[chosen], ys[chosen], zs[chosen], xs, ys, zs, 0, n, nearest, 0);
+        while (centroids.size() < k) {
+            // Choose each further centroid with a probability proportional
+            // to its squared distance from those already chosen
+            double total = 0;
+            for (int i = 0; i < n; i++) {
+                total += nearest[i];
+            }
+            if (total > 0) {
+                final double target = random.nextDouble() * total;
+                double sum = 0;
+                chosen = n - 1;
+                for (int i = 0; i < n; i++) {
+                    sum += nearest[i];
+                    if (sum > target) {
+                        chosen = i;
+                        break;
+                    }
+                }
+                while (nearest[chosen] == 0) {
+                    chosen--;
+                }
+            } else {
+                chosen = random.nextInt(n);
+            }
+            centroids.add(xs[chosen], ys[chosen], zs[chosen]);
+            DistanceKernels.SELECTED.squaredDistances(xs[chosen], ys[chosen], zs[chosen], xs, ys, zs, 0, n, distances, 0);
+            for (int i = 0; i < n; i++) {
+                nearest[i] = Math.min(nearest[i], distances[i]);
+            }
+        }
+        return centroids;
+    }
+
+    private final int[] labels;
+    private final Coordinate3dBuffer centroids;
+    private final int iterations;
+    private final boolean converged;
+    private final double inertia;
+
+    private Coordinate3dKMeans(final int[] labels, final Coordinate3dBuffer centroids, final int iterations, final boolean converged,
+            final double inertia) {
+        this.labels = labels;
+        this.centroids = centroids;
+        this.iterations = iterations;
+        this.converged = converged;
+        this.inertia = inertia;
+    }
+
+    /**
+     * Gets the cluster of each coordinate, at its index.
+     *
+     * <p>The array is that of the clustering itself, and not a copy.</p>
+     *
+     * @return The labels
+     */
+    public int[] getLabels() {
+        return this.labels;
+    }
+
+    /**
+     * Gets the centroid of each cluster, at its label.
+     *
+     * <p>The buffer is that of the clustering itself, and not a
+     * copy.</p>
+     *
+     * @return The centroids
+     */
+    public Coordinate3dBuffer getCentroids() {
+        return this.centroids;
+    }
+
+    /**
+     * Gets the number of iterations the centroids were refined by.
+     *
+     * @return The number of iterations
+     */
+    public int getIterations() {
+        return this.iterations;
+    }
+
+    /**
+     * Establishes whether the clustering converged, with no point
+     * changing cluster in the final iteration.
+     *
+     * @return {@code true} if the clustering converged,
+     *         {@code false} otherwise
+     */
+    public boolean hasConverged() {
+        return this.converged;
+    }
+
+    /**
+     * Gets the sum of the squared distances of the coordinates from the
+     * centroids of their clusters.
+     *
+     * @return The inertia
+     */
+    public double getInertia() {
+        return this.inertia;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("k", this.centroids.size())
+                .add("iterations", this.iterations)
+                .add("converged", this.converged)
+                .add("inertia", this.inertia)
+                .toString();
+    }
+
+    /**
+     * The result of assigning some of the points to their nearest
+     * centroids.
+     */
+    private static final class Step {
+
+        private final double[] sums;
+        private final long[] counts;
+        private int changed;
+        private double inertia;
+
+        Step(final int k) {
+            this.sums = new double[k * 3];
+            this.counts = new long[k];
+        }
+
+        Step merge(final Step other) {
+            for (int i = 0; i < this.sums.length; i++) {
+                this.sums[i] += other.sums[i];
+            }
+            for (int i = 0; i < this.counts.length; i++) {
+                this.counts[i] += other.counts[i];
+            }
+            this.changed += other.changed;
+            this.inertia += other.inertia;
+            return this;
+        }
+
+    }
+
+    private static final class StepTask extends RecursiveTask<Step> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Coordinate3dBuffer points;
+        private final Coordinate3dBuffer centroids;
+        private final int[] labels;
+        private final int[] next;
+        private final double[] distances;
+        private final int from;
+        private final int to;
+
+        StepTask(final Coordinate3dBuffer points, final Coordinate3dBuffer centroids, final int[] labels, final int[] next,
+                final double[] distances, final int from, final int to) {
+            this.points = points;
+            this.centroids = centroids;
+            this.labels = labels;
+            this.next = next;
+            this.distances = distances;
+            this.from = from;
+            this.to = to;
+        }
+
+        Step run(final ForkJoinPool pool) {
+            return (long) (this.to - this.from) * this.centroids.size() < PARALLEL_THRESHOLD ? this.compute() : pool.invoke(this);
+        }
+
+        @Override
+        protected Step compute() {
+            final int k = this.centroids.size();
+            if (this.to - this.from > 1 && (long) (this.to - this.from) * k >= PARALLEL_THRESHOLD) {
+                final int mid = (this.from + this.to) >>> 1;
+                final StepTask right = new StepTask(this.points, this.centroids, this.labels, this.next, this.distances, mid, this.to);
+                right.fork();
+                final Step left = new StepTask(this.points, this.centroids, this.labels, this.next, this.distances, this.from, mid).compute();
+                return left.merge(right.join());
+            }
+            final double[] xs = this.points.getXArray();
+            final double[] ys = this.points.getYArray();
+            final double[] zs = this.points.getZArray();
+            DistanceKernels.SELECTED.assign(xs, ys, zs, this.from, this.to,
+                    this.centroids.getXArray(), this.centroids.getYArray(), this.centroids.getZArray(), k, this.next, this.distances);
+            final Step step = new Step(k);
+            for (int i = this.from; i < this.to; i++) {
+                final int label = this.next[i];
+                if (label != this.labels[i]) {
+                    step.changed++;
+                    this.labels[i] = label;
+                }
+                step.sums[label * 3] += xs[i];
+                step.sums[label * 3 + 1] += ys[i];
+                step.sums[label * 3 + 2] += zs[i];
+                step.counts[label]++;
+                step.inertia += this.distances[i];
+            }
+            return step;
+        }
+
+    }
+
+}
@@ -0,0 +1,584 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.spatial;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.MoreObjects;
+import me.jamiemansfield.maths.coord.Coordinate3d;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A point octree of {@link Coordinate3d}s, within fixed bounds.
+ *
+ * <p>A leaf is split into 8 octants once it holds more than the
+ * leaf capacity, unless it is already at the maximum depth, and a
+ * branch is collapsed back into a leaf when removals leave it with no
+ * more than the leaf capacity.</p>
+ *
+ * <p>Where the points are known up front, {@link #bulkLoad} builds
+ * the tree top-down by partitioning the points in place, which avoids
+ * the repeated descents and splits of individual inserts.</p>
+ *
+ * <p>This tree is not thread-safe.</p>
+ */
+public final class Coordinate3dOctree {
+
+    private static final int DEFAULT_LEAF_CAPACITY = 16;
+    private static final int DEFAULT_MAX_DEPTH = 16;
+
+    /**
+     * Builds a tree containing the given points.
+     *
+     * @param minX The minimum x position
+     * @param minY The minimum y position
+     * @param minZ The minimum z position
+     * @param maxX The maximum x position
+     * @param maxY The maximum y position
+     * @param maxZ The maximum z position
+     * @param leafCapacity The number of points a leaf holds before splitting
+     * @param maxDepth The maximum depth of the tree
+     * @param points The points
+     * @return The tree
+     */
+    public static Coordinate3dOctree bulkLoad(final double minX, final double minY, final double minZ, final double maxX, final double maxY, final double maxZ, final int leafCapacity, final int maxDepth,
+            final Collection<? extends Coordinate3d> points) {
+        final Coordinate3dOctree tree = new Coordinate3dOctree(minX, minY, minZ, maxX, maxY, maxZ, leafCapacity, maxDepth);
+        final Coordinate3d[] array = points.toArray(new Coordinate3d[0]);
+        for (final Coordinate3d p : array) {
+            tree.checkInBounds(p);
+        }
+        tree.build(tree.root, array, new Coordinate3d[array.length], new byte[array.length], 0, array.length);
+        return tree;
+    }
+
+    private final int leafCapacity;
+    private final int maxDepth;
+    private final Node root;
+
+    /**
+     * Creates an empty tree with the given bounds.
+     *
+     * @param minX The minimum x position
+     * @param minY The minimum y position
+     * @param minZ The minimum z position
+     * @param maxX The maximum x position
+     * @param maxY The maximum y position
+     * @param maxZ The maximum z position
+     */
+    public Coordinate3dOctree(final double minX, final double minY, final double minZ, final double maxX, final double maxY, final double maxZ) {
+        this(minX, minY, minZ, maxX, maxY, maxZ, DEFAULT_LEAF_CAPACITY, DEFAULT_MAX_DEPTH);
+    }
+
+    /**
+     * Creates an empty tree with the given bounds and configuration.
+     *
+     * @param minX The minimum x position
+     * @param minY The minimum y position
+     * @param minZ The minimum z position
+     * @param maxX The maximum x position
+     * @param maxY The maximum y position
+     * @param maxZ The maximum z position
+     * @param leafCapacity The number of points a leaf holds before splitting
+     * @param maxDepth The maximum depth of the tree
+     */
+    public Coordinate3dOctree(final double minX, final double minY, final double minZ, final double maxX, final double maxY, final double maxZ, final int leafCapacity, final int maxDepth) {
+        checkArgument(minX <= maxX, "minX cannot be greater than maxX");
+        checkArgument(minY <= maxY, "minY cannot be greater than maxY");
+        checkArgument(minZ <= maxZ, "minZ cannot be greater than maxZ");
+        checkArgument(leafCapacity > 0, "leafCapacity must be positive");
+        checkArgument(maxDepth >= 0, "maxDepth cannot be negative");
+        this.leafCapacity = leafCapacity;
+        this.maxDepth = maxDepth;
+        this.root = new Node(0, minX, minY, minZ, maxX, maxY, maxZ);
+        this.root.points = new Coordinate3d[leafCapacity];
+    }
+
+    /**
+     * Gets the number of points in the tree.
+     *
+     * @return The size
+     */
+    public int size() {
+        return this.root.count;
+    }
+
+    /**
+     * Establishes whether the tree contains no points.
+     *
+     * @return {@code true} if the tree is empty
+     */
+    public boolean isEmpty() {
+        return this.root.count == 0;
+    }
+
+    /**
+     * Removes all of the points from the tree.
+     */
+    public void clear() {
+        this.root.children = null;
+        this.root.points = new Coordinate3d[this.leafCapacity];
+        this.root.count = 0;
+    }
+
+    /**
+     * Inserts the given point into the tree.
+     *
+     * @param p The point
+     * @throws IllegalArgumentException If the point is outside of the
+     *                                  bounds of the tree
+     */
+    public void insert(final Coordinate3d p) {
+        this.checkInBounds(p);
+        Node node = this.root;
+        while (node.children != null) {
+            node.count++;
+            node = node.children[octant(node, p)];
+        }
+        if (node.count == node.points.length) {
+            node.points = Arrays.copyOf(node.points, node.points.length << 1);
+        }
+        node.points[node.count++] = p;
+        if (node.count > this.leafCapacity && node.depth < this.maxDepth) {
+            this.split(node);
+        }
+    }
+
+    /**
+     * Removes a point equal to the given point from the tree.
+     *
+     * @param p The point
+     * @return {@code true} if a point was removed
+     */
+    public boolean remove(final Coordinate3d p) {
+        return contains(this.root, p) && this.remove(this.root, p);
+    }
+
+    /**
+     * Establishes whether the tree contains a point equal to the given
+     * point.
+     *
+     * @param p The point
+     * @return {@code true} if the point is present
+     */
+    public boolean contains(final Coordinate3d p) {
+        if (!contains(this.root, p)) {
+            return false;
+        }
+        Node node = this.root;
+        while (node.children != null) {
+            node = node.children[octant(node, p)];
+        }
+        for (int i = 0; i < node.count; i++) {
+            if (p.equals(node.points[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Performs the given action for every point within the given box,
+     * inclusive of its bounds.
+     *
+     * @param minX The minimum x position
+     * @param minY The minimum y position
+     * @param minZ The minimum z position
+     * @param maxX The maximum x position
+     * @param maxY The maximum y position
+     * @param maxZ The maximum z position
+     * @param consumer The action
+     */
+    public void queryBox(final double minX, final double minY, final double minZ, final double maxX, final double maxY, final double maxZ, final Consumer<? super Coordinate3d> consumer) {
+        this.queryBox(this.root, minX, minY, minZ, maxX, maxY, maxZ, consumer);
+    }
+
+    /**
+     * Performs the given action for every point within the given
+     * distance of the given position.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @param radius The radius
+     * @param consumer The action
+     */
+    public void queryRadius(final double x, final double y, final double z, final double radius, final Consumer<? super Coordinate3d> consumer) {
+        checkArgument(radius >= 0, "radius cannot be negative");
+        this.queryRadius(this.root, x, y, z, radius * radius, consumer);
+    }
+
+    /**
+     * Gets up to the given number of points nearest to the given
+     * position, in order of increasing distance.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @param k The maximum number of points
+     * @return The nearest points
+     */
+    public List<Coordinate3d> nearest(final double x, final double y, final double z, final int k) {
+        checkArgument(k >= 0, "k cannot be negative");
+        if (k == 0 || this.root.count == 0) {
+            return Collections.emptyList();
+        }
+        final Neighbours neighbours = new Neighbours(Math.min(k, this.root.count));
+        this.nearest(this.root, x, y, z, neighbours);
+        return neighbours.toSortedList();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("size", this.root.count)
+                .add("leafCapacity", this.leafCapacity)
+                .add("maxDepth", this.maxDepth)
+                .toString();
+    }
+
+    private void checkInBounds(final Coordinate3d p) {
+        checkArgument(contains(this.root, p), "%s is outside of the bounds of the tree", p);
+    }
+
+    private void build(final Node node, final Coordinate3d[] points, final Coordinate3d[] scratch, final byte[] octants, final int from,
+            final int to) {
+        final int count = to - from;
+        node.count = count;
+        if (count <= this.leafCapacity || node.depth >= this.maxDepth) {
+            node.points = new Coordinate3d[Math.max(count, this.leafCapacity)];
+            System.arraycopy(points, from, node.points, 0, count);
+            return;
+        }
+        node.points = null;
+        node.children = createChildren(node);
+
+        // counting sort the range by octant
+        final int[] starts = new int[9];
+        for (int i = from; i < to; i++) {
+            octants[i] = (byte) octant(node, points[i]);
+            starts[octants[i] + 1]++;
+        }
+        for (int i = 1; i <= 8; i++) {
+            starts[i] += starts[i - 1];
+        }
+        final int[] cursors = Arrays.copyOf(starts, 8);
+        for (int i = from; i < to; i++) {
+            scratch[from + cursors[octants[i]]++] = points[i];
+        }
+        System.arraycopy(scratch, from, points, from, count);
+
+        for (int i = 0; i < 8; i++) {
+            this.build(node.children[i], points, scratch, octants, from + starts[i], from + starts[i + 1]);
+        }
+    }
+
+    private void split(final Node node) {
+        node.children = createChildren(node);
+        for (final Node child : node.children) {
+            // a child may receive every point of its parent
+            child.points = new Coordinate3d[node.count];
+        }
+        for (int i = 0; i < node.count; i++) {
+            final Coordinate3d p = node.points[i];
+            final Node child = node.children[octant(node, p)];
+            child.points[child.count++] = p;
+        }
+        node.points = null;
+        for (final Node child : node.children) {
+            if (child.count > this.leafCapacity && child.depth < this.maxDepth) {
+                this.split(child);
+            }
+        }
+    }
+
+    private static Node[] createChildren(final Node node) {
+        final Node[] children = new Node[8];
+        for (int i = 0; i < 8; i++) {
+            children[i] = new Node(node.depth + 1,
+                    (i & 1) == 0 ? node.minX : node.midX,
+                    (i & 2) == 0 ? node.minY : node.midY,
+                    (i & 4) == 0 ? node.minZ : node.midZ,
+                    (i & 1) == 0 ? node.midX : node.maxX,
+                    (i & 2) == 0 ? node.midY : node.maxY,
+                    (i & 4) == 0 ? node.midZ : node.maxZ);
+        }
+        return children;
+    }
+
+    private boolean remove(final Node node, final Coordinate3d p) {
+        if (node.children == null) {
+            for (int i = 0; i < node.count; i++) {
+                if (p.equals(node.points[i])) {
+                    node.points[i] = node.points[--node.count];
+                    node.points[node.count] = null;
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (!this.remove(node.children[octant(node, p)], p)) {
+            return false;
+        }
+        if (--node.count <= this.leafCapacity) {
+            final Coordinate3d[] points = new Coordinate3d[this.leafCapacity];
+            final int[] index = { 0 };
+            this.forEach(node, q -> points[index[0]++] = q);
+            node.children = null;
+            node.points = points;
+        }
+        return true;
+    }
+
+    private void forEach(final Node node, final Consumer<? super Coordinate3d> consumer) {
+        if (node.children == null) {
+            for (int i = 0; i < node.count; i++) {
+                consumer.accept(node.points[i]);
+            }
+            return;
+        }
+        for (final Node child : node.children) {
+            if (child.count > 0) {
+                this.forEach(child, consumer);
+            }
+        }
+    }
+
+    private void queryBox(final Node node, final double minX, final double minY, final double minZ, final double maxX, final double maxY, final double maxZ, final Consumer<? super Coordinate3d> consumer) {
+        if (node.count == 0 ||
+                node.maxX < minX || node.minX > maxX ||
+                node.maxY < minY || node.minY > maxY ||
+                node.maxZ < minZ || node.minZ > maxZ) {
+            return;
+        }
+        if (node.minX >= minX && node.maxX <= maxX &&
+                node.minY >= minY && node.maxY <= maxY &&
+                node.minZ >= minZ && node.maxZ <= maxZ) {
+            this.forEach(node, consumer);
+            return;
+        }
+        if (node.children == null) {
+            for (int i = 0; i < node.count; i++) {
+                final Coordinate3d p = node.points[i];
+                if (p.getX() >= minX && p.getX() <= maxX &&
+                        p.getY() >= minY && p.getY() <= maxY &&
+                        p.getZ() >= minZ && p.getZ() <= maxZ) {
+                    consumer.accept(p);
+                }
+            }
+            return;
+        }
+        for (final Node child : node.children) {
+            this.queryBox(child, minX, minY, minZ, maxX, maxY, maxZ, consumer);
+        }
+    }
+
+    private void queryRadius(final Node node, final double x, final double y, final double z, final double radiusSq, final Consumer<? super Coordinate3d> consumer) {
+        if (node.count == 0 || distanceSq(node, x, y, z) > radiusSq) {
+            return;
+        }
+        if (node.children == null) {
+            for (int i = 0; i < node.count; i++) {
+                final Coordinate3d p = node.points[i];
+                if (distanceSq(p, x, y, z) <= radiusSq) {
+                    consumer.accept(p);
+                }
+            }
+            return;
+        }
+        for (final Node child : node.children) {
+            this.queryRadius(child, x, y, z, radiusSq, consumer);
+        }
+    }
+
+    private void nearest(final Node node, final double x, final double y, final double z, final Neighbours neighbours) {
+        if (node.children == null) {
+            for (int i = 0; i < node.count; i++) {
+                neighbours.offer(node.points[i], distanceSq(node.points[i], x, y, z));
+            }
+            return;
+        }
+
+        // visit the children closest to the position first, so that
+        // more distant children are more likely to be pruned
+        final Node[] order = node.children.clone();
+        final double[] distances = new double[8];
+        for (int i = 0; i < 8; i++) {
+            distances[i] = distanceSq(order[i], x, y, z);
+        }
+        for (int i = 1; i < 8; i++) {
+            final Node child = order[i];
+            final double distance = distances[i];
+            int j = i - 1;
+            for (; j >= 0 && distances[j] > distance; j--) {
+                order[j + 1] = order[j];
+                distances[j + 1] = distances[j];
+            }
+            order[j + 1] = child;
+            distances[j + 1] = distance;
+        }
+        for (int i = 0; i < 8; i++) {
+            if (order[i].count > 0 && !(neighbours.isFull() && distances[i] > neighbours.worst())) {
+                this.nearest(order[i], x, y, z, neighbours);
+            }
+        }
+    }
+
+    private static int octant(final Node node, final Coordinate3d p) {
+        return (p.getX() >= node.midX ? 1 : 0) | (p.getY() >= node.midY ? 2 : 0) | (p.getZ() >= node.midZ ? 4 : 0);
+    }
+
+    private static boolean contains(final Node node, final Coordinate3d p) {
+        return p.getX() >= node.minX && p.getX() <= node.maxX &&
+                p.getY() >= node.minY && p.getY() <= node.maxY &&
+                p.getZ() >= node.minZ && p.getZ() <= node.maxZ;
+    }
+
+    private static double distanceSq(final Node node, final double x, final double y, final double z) {
+        final double dx = Math.max(Math.max(node.minX - x, 0), x - node.maxX);
+        final double dy = Math.max(Math.max(node.minY - y, 0), y - node.maxY);
+        final double dz = Math.max(Math.max(node.minZ - z, 0), z - node.maxZ);
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static double distanceSq(final Coordinate3d p, final double x, final double y, final double z) {
+        final double dx = p.getX() - x;
+        final double dy = p.getY() - y;
+        final double dz = p.getZ() - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static final class Node {
+
+        final int depth;
+        final double minX;
+        final double minY;
+        final double minZ;
+        final double maxX;
+        final double maxY;
+        final double maxZ;
+        final double midX;
+        final double midY;
+        final double midZ;
+        Node[] children;
+        Coordinate3d[] points;
+        int count;
+
+        Node(final int depth, final double minX, final double minY, final double minZ, final double maxX, final double maxY, final double maxZ) {
+            this.depth = depth;
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.maxZ = maxZ;
+            this.midX = (minX + maxX) * 0.5;
+            this.midY = (minY + maxY) * 0.5;
+            this.midZ = (minZ + maxZ) * 0.5;
+        }
+
+    }
+
+    /**
+     * A bounded max-heap of the nearest points found so far.
+     */
+    private static final class Neighbours {
+
+        private final Coordinate3d[] points;
+        private final double[] distances;
+        private int size;
+
+        Neighbours(final int k) {
+            this.points = new Coordinate3d[k];
+            this.distances = new double[k];
+        }
+
+        boolean isFull() {
+            return this.size == this.points.length;
+        }
+
+        double worst() {
+            return this.distances[0];
+        }
+
+        void offer(final Coordinate3d p, final double distance) {
+            if (!this.isFull()) {
+                int i = this.size++;
+                while (i > 0) {
+                    final int parent = (i - 1) >>> 1;
+                    if (this.distances[parent] >= distance) {
+                        break;
+                    }
+                    this.points[i] = this.points[parent];
+                    this.distances[i] = this.distances[parent];
+                    i = parent;
+                }
+                this.points[i] = p;
+                this.distances[i] = distance;
+            } else if (distance < this.distances[0]) {
+                int i = 0;
+                while (true) {
+                    int child = (i << 1) + 1;
+                    if (child >= this.size) {
+                        break;
+                    }
+                    if (child + 1 < this.size && this.distances[child + 1] > this.distances[child]) {
+                        child++;
+                    }
+                    if (this.distances[child] <= distance) {
+                        break;
+                    }
+                    this.points[i] = this.points[child];
+                    this.distances[i] = this.distances[child];
+                    i = child;
+                }
+                this.points[i] = p;
+                this.distances[i] = distance;
+            }
+        }
+
+        List<Coordinate3d> toSortedList() {
+            final Integer[] order = new Integer[this.size];
+            for (int i = 0; i < this.size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(this.distances[a], this.distances[b]));
+            final List<Coordinate3d> result = new ArrayList<>(this.size);
+            for (final Integer i : order) {
+                result.add(this.points[i]);
+            }
+            return result;
+        }
+
+    }
+
+}
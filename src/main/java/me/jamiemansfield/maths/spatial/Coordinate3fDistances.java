@@ -0,0 +1,313 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.spatial;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import me.jamiemansfield.maths.coord.Coordinate3f;
+import me.jamiemansfield.maths.coord.Coordinate3fBuffer;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Brute-force distance kernels over {@link Coordinate3fBuffer}s, for distance
+ * matrices, nearest-centre assignment and radius filters where building
+ * an index would not pay for itself.
+ *
+ * <p>Where the jar is run on Java 17 or above with
+ * {@code --add-modules jdk.incubator.vector}, the kernels are computed
+ * with the Vector API, and otherwise with plain loops. Both produce
+ * identical results, with ties broken in favour of the lowest index.
+ * Distance matrices and assignments of at least
+ * {@value #PARALLEL_THRESHOLD} distances are split across a
+ * {@link ForkJoinPool}.</p>
+ */
+public final class Coordinate3fDistances {
+
+    /**
+     * The number of distances below which bulk operations are not split
+     * across the pool.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * Establishes whether the kernels are computed with the Vector API on
+     * this runtime.
+     *
+     * @return {@code true} if the kernels are vectorised
+     */
+    public static boolean isVectorised() {
+        return DistanceKernels.SELECTED != ScalarDistanceKernel.INSTANCE;
+    }
+
+    /**
+     * Computes the squared distance from the given position to each
+     * coordinate in the given buffer.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @param points The coordinates
+     * @param out The array to write the distances into, at the index of
+     *            each coordinate
+     */
+    public static void squaredDistances(final float x, final float y, final float z, final Coordinate3fBuffer points, final float[] out) {
+        checkArgument(out.length >= points.size(), "out is shorter than the buffer");
+        DistanceKernels.SELECTED.squaredDistances(x, y, z, points.getXArray(), points.getYArray(), points.getZArray(), 0, points.size(), out, 0);
+    }
+
+    /**
+     * Computes the squared distance from the given coordinate to each
+     * coordinate in the given buffer.
+     *
+     * @param coord The coordinate
+     * @param points The coordinates
+     * @param out The array to write the distances into, at the index of
+     *            each coordinate
+     */
+    public static void squaredDistances(final Coordinate3f coord, final Coordinate3fBuffer points, final float[] out) {
+        squaredDistances(coord.getX(), coord.getY(), coord.getZ(), points, out);
+    }
+
+    /**
+     * Computes the squared distance between every pair of coordinates
+     * from the given buffers, using the common pool.
+     *
+     * @param rows The coordinates of the rows
+     * @param columns The coordinates of the columns
+     * @param out The array to write the distances into, in row-major
+     *            order
+     */
+    public static void distanceMatrix(final Coordinate3fBuffer rows, final Coordinate3fBuffer columns, final float[] out) {
+        distanceMatrix(rows, columns, out, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the squared distance between every pair of coordinates
+     * from the given buffers.
+     *
+     * @param rows The coordinates of the rows
+     * @param columns The coordinates of the columns
+     * @param out The array to write the distances into, in row-major
+     *            order
+     * @param pool The pool to compute within
+     */
+    public static void distanceMatrix(final Coordinate3fBuffer rows, final Coordinate3fBuffer columns, final float[] out, final ForkJoinPool pool) {
+        checkArgument(out.length >= (long) rows.size() * columns.size(), "out is shorter than the matrix");
+        final MatrixTask task = new MatrixTask(rows, columns, out, 0, rows.size());
+        if ((long) rows.size() * columns.size() < PARALLEL_THRESHOLD) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    /**
+     * Finds the coordinate in the given buffer nearest to the given
+     * position.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @param points The coordinates
+     * @return The index of the nearest coordinate, or {@code -1} if the
+     *         buffer is empty
+     */
+    public static int nearest(final float x, final float y, final float z, final Coordinate3fBuffer points) {
+        return DistanceKernels.SELECTED.nearest(x, y, z, points.getXArray(), points.getYArray(), points.getZArray(), 0, points.size());
+    }
+
+    /**
+     * Finds the coordinate in the given buffer nearest to the given
+     * coordinate.
+     *
+     * @param coord The coordinate
+     * @param points The coordinates
+     * @return The index of the nearest coordinate, or {@code -1} if the
+     *         buffer is empty
+     */
+    public static int nearest(final Coordinate3f coord, final Coordinate3fBuffer points) {
+        return nearest(coord.getX(), coord.getY(), coord.getZ(), points);
+    }
+
+    /**
+     * Assigns each coordinate in the given buffer the index of its
+     * nearest centre, using the common pool.
+     *
+     * @param points The coordinates
+     * @param centres The centres
+     * @param labels The array to write the index of each coordinate's
+     *               centre into, at the index of the coordinate
+     */
+    public static void assign(final Coordinate3fBuffer points, final Coordinate3fBuffer centres, final int[] labels) {
+        assign(points, centres, labels, null, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Assigns each coordinate in the given buffer the index of its
+     * nearest centre.
+     *
+     * <p>Where there are no centres, every coordinate is labelled
+     * {@code -1}.</p>
+     *
+     * @param points The coordinates
+     * @param centres The centres
+     * @param labels The array to write the index of each coordinate's
+     *               centre into, at the index of the coordinate
+     * @param distances The array to write the squared distance of each
+     *                  coordinate from its centre into, or {@code null}
+     * @param pool The pool to compute within
+     */
+    public static void assign(final Coordinate3fBuffer points, final Coordinate3fBuffer centres, final int[] labels, final float[] distances, final ForkJoinPool pool) {
+        final int n = points.size();
+        checkArgument(labels.length >= n, "labels is shorter than the buffer");
+        checkArgument(distances == null || distances.length >= n, "distances is shorter than the buffer");
+        final AssignTask task = new AssignTask(points, centres, labels, distances, 0, n);
+        if ((long) n * centres.size() < PARALLEL_THRESHOLD) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    /**
+     * Finds every coordinate in the given buffer within the given
+     * distance of the given position, replacing the previous contents of
+     * the given list.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @param radius The radius
+     * @param points The coordinates
+     * @param result The list to write the indices into, in ascending
+     *               order
+     */
+    public static void withinRadius(final float x, final float y, final float z, final float radius, final Coordinate3fBuffer points, final IndexList result) {
+        checkArgument(radius >= 0, "radius cannot be negative");
+        result.clear();
+        DistanceKernels.SELECTED.withinRadius(x, y, z, radius * radius, points.getXArray(), points.getYArray(), points.getZArray(), 0, points.size(), result);
+    }
+
+    /**
+     * Finds every coordinate in the given buffer within the given
+     * distance of the given coordinate, replacing the previous contents
+     * of the given list.
+     *
+     * @param coord The coordinate
+     * @param radius The radius
+     * @param points The coordinates
+     * @param result The list to write the indices into, in ascending
+     *               order
+     */
+    public static void withinRadius(final Coordinate3f coord, final float radius, final Coordinate3fBuffer points, final IndexList result) {
+        withinRadius(coord.getX(), coord.getY(), coord.getZ(), radius, points, result);
+    }
+
+    private Coordinate3fDistances() {
+    }
+
+    private static final class MatrixTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Coordinate3fBuffer rows;
+        private final Coordinate3fBuffer columns;
+        private final float[] out;
+        private final int from;
+        private final int to;
+
+        MatrixTask(final Coordinate3fBuffer rows, final Coordinate3fBuffer columns, final float[] out, final int from, final int to) {
+            this.rows = rows;
+            this.columns = columns;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            final int n = this.columns.size();
+            if (this.to - this.from > 1 && (long) (this.to - this.from) * n >= PARALLEL_THRESHOLD) {
+                final int mid = (this.from + this.to) >>> 1;
+                invokeAll(
+                        new MatrixTask(this.rows, this.columns, this.out, this.from, mid),
+                        new MatrixTask(this.rows, this.columns, this.out, mid, this.to)
+                );
+                return;
+            }
+            final float[] rxs = this.rows.getXArray();
+            final float[] rys = this.rows.getYArray();
+            final float[] rzs = this.rows.getZArray();
+            final float[] cxs = this.columns.getXArray();
+            final float[] cys = this.columns.getYArray();
+            final float[] czs = this.columns.getZArray();
+            for (int row = this.from; row < this.to; row++) {
+                DistanceKernels.SELECTED.squaredDistances(rxs[row], rys[row], rzs[row], cxs, cys, czs, 0, n, this.out, row * n);
+            }
+        }
+
+    }
+
+    private static final class AssignTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Coordinate3fBuffer points;
+        private final Coordinate3fBuffer centres;
+        private final int[] labels;
+        private final float[] distances;
+        private final int from;
+        private final int to;
+
+        AssignTask(final Coordinate3fBuffer points, final Coordinate3fBuffer centres, final int[] labels, final float[] distances, final int from, final int to) {
+            this.points = points;
+            this.centres = centres;
+            this.labels = labels;
+            this.distances = distances;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            final int k = this.centres.size();
+            if (this.to - this.from > 1 && (long) (this.to - this.from) * k >= PARALLEL_THRESHOLD) {
+                final int mid = (this.from + this.to) >>> 1;
+                invokeAll(
+                        new AssignTask(this.points, this.centres, this.labels, this.distances, this.from, mid),
+                        new AssignTask(this.points, this.centres, this.labels, this.distances, mid, this.to)
+                );
+                return;
+            }
+            DistanceKernels.SELECTED.assign(this.points.getXArray(), this.points.getYArray(), this.points.getZArray(), this.from, this.to,
+                    this.centres.getXArray(), this.centres.getYArray(), this.centres.getZArray(), k, this.labels, this.distances);
+        }
+
+    }
+
+}
@@ -0,0 +1,388 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.spatial;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.MoreObjects;
+import me.jamiemansfield.maths.coord.Coordinate3f;
+import me.jamiemansfield.maths.coord.Coordinate3fBuffer;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * An immutable, balanced KD-tree of {@link Coordinate3f}s.
+ *
+ * <p>The tree has no node objects: the points are permuted in place
+ * so that the median of every range sits at its centre, with the axis
+ * it splits stored alongside it. Building partitions each range with
+ * quickselect, and large ranges are built in parallel on a
+ * {@link ForkJoinPool}.</p>
+ *
+ * <p>Queries report the index of each point within the buffer or
+ * collection the tree was built from, and write into reusable result
+ * holders, so do not allocate. Queries may be performed concurrently.</p>
+ */
+public final class Coordinate3fKdTree {
+
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    /**
+     * Builds a tree of the coordinates in the given buffer, using the
+     * common pool.
+     *
+     * @param buffer The buffer
+     * @return The tree
+     */
+    public static Coordinate3fKdTree build(final Coordinate3fBuffer buffer) {
+        return build(buffer, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Builds a tree of the coordinates in the given buffer.
+     *
+     * @param buffer The buffer
+     * @param pool The pool to build the tree on
+     * @return The tree
+     */
+    public static Coordinate3fKdTree build(final Coordinate3fBuffer buffer, final ForkJoinPool pool) {
+        final int n = buffer.size();
+        final float[] xs = Arrays.copyOf(buffer.getXArray(), n);
+        final float[] ys = Arrays.copyOf(buffer.getYArray(), n);
+        final float[] zs = Arrays.copyOf(buffer.getZArray(), n);
+        return build(xs, ys, zs, n, pool);
+    }
+
+    /**
+     * Builds a tree of the given coordinates, using the common pool.
+     *
+     * @param coords The coordinates
+     * @return The tree
+     */
+    public static Coordinate3fKdTree build(final Collection<? extends Coordinate3f> coords) {
+        return build(coords, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Builds a tree of the given coordinates.
+     *
+     * @param coords The coordinates
+     * @param pool The pool to build the tree on
+     * @return The tree
+     */
+    public static Coordinate3fKdTree build(final Collection<? extends Coordinate3f> coords, final ForkJoinPool pool) {
+        final int n = coords.size();
+        final float[] xs = new float[n];
+        final float[] ys = new float[n];
+        final float[] zs = new float[n];
+        int i = 0;
+        for (final Coordinate3f p : coords) {
+            xs[i] = p.getX();
+            ys[i] = p.getY();
+            zs[i] = p.getZ();
+            i++;
+        }
+        return build(xs, ys, zs, n, pool);
+    }
+
+    private static Coordinate3fKdTree build(final float[] xs, final float[] ys, final float[] zs, final int n, final ForkJoinPool pool) {
+        final int[] indices = new int[n];
+        for (int i = 0; i < n; i++) {
+            indices[i] = i;
+        }
+        final Coordinate3fKdTree tree = new Coordinate3fKdTree(xs, ys, zs, indices);
+        if (n >= PARALLEL_THRESHOLD) {
+            pool.invoke(tree.new BuildTask(0, n));
+        } else {
+            tree.build(0, n);
+        }
+        return tree;
+    }
+
+    private final float[] xs;
+    private final float[] ys;
+    private final float[] zs;
+    private final int[] indices;
+    private final byte[] axes;
+
+    private Coordinate3fKdTree(final float[] xs, final float[] ys, final float[] zs, final int[] indices) {
+        this.xs = xs;
+        this.ys = ys;
+        this.zs = zs;
+        this.indices = indices;
+        this.axes = new byte[indices.length];
+    }
+
+    /**
+     * Gets the number of points in the tree.
+     *
+     * @return The size
+     */
+    public int size() {
+        return this.indices.length;
+    }
+
+    /**
+     * Finds the point nearest to the given position.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @return The index of the nearest point, or {@code -1} if the tree
+     *         is empty
+     * @see #nearest(float, float, float, NearestNeighbours) to reuse a result holder
+     */
+    public int nearest(final float x, final float y, final float z) {
+        if (this.indices.length == 0) {
+            return -1;
+        }
+        final NearestNeighbours result = new NearestNeighbours(1);
+        this.nearest(x, y, z, result);
+        return result.getIndex(0);
+    }
+
+    /**
+     * Finds the points nearest to the given position, up to the
+     * capacity of the given holder, replacing its previous contents.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @param result The holder to write the results into
+     */
+    public void nearest(final float x, final float y, final float z, final NearestNeighbours result) {
+        result.clear();
+        this.nearest(0, this.indices.length, x, y, z, result);
+        result.sort();
+    }
+
+    /**
+     * Finds every point within the given distance of the given position,
+     * replacing the previous contents of the given list.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @param radius The radius
+     * @param result The list to write the indices into
+     */
+    public void withinRadius(final float x, final float y, final float z, final double radius, final IndexList result) {
+        checkArgument(radius >= 0, "radius cannot be negative");
+        result.clear();
+        this.withinRadius(0, this.indices.length, x, y, z, radius * radius, result);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("size", this.indices.length)
+                .toString();
+    }
+
+    private void nearest(final int start, final int end, final float x, final float y, final float z, final NearestNeighbours result) {
+        int from = start;
+        int to = end;
+        while (from < to) {
+            final int mid = (from + to) >>> 1;
+            final double dx = this.xs[mid] - x;
+            final double dy = this.ys[mid] - y;
+            final double dz = this.zs[mid] - z;
+            result.offer(this.indices[mid], dx * dx + dy * dy + dz * dz);
+
+            final int axis = this.axes[mid];
+            final double delta = axis == 0 ? -dx : axis == 1 ? -dy : -dz;
+            if (delta < 0) {
+                this.nearest(from, mid, x, y, z, result);
+                if (delta * delta > result.bound()) {
+                    return;
+                }
+                from = mid + 1;
+            } else {
+                this.nearest(mid + 1, to, x, y, z, result);
+                if (delta * delta > result.bound()) {
+                    return;
+                }
+                to = mid;
+            }
+        }
+    }
+
+    private void withinRadius(final int start, final int end, final float x, final float y, final float z, final double radiusSq, final IndexList result) {
+        int from = start;
+        int to = end;
+        while (from < to) {
+            final int mid = (from + to) >>> 1;
+            final double dx = this.xs[mid] - x;
+            final double dy = this.ys[mid] - y;
+            final double dz = this.zs[mid] - z;
+            if (dx * dx + dy * dy + dz * dz <= radiusSq) {
+                result.add(this.indices[mid]);
+            }
+
+            final int axis = this.axes[mid];
+            final double delta = axis == 0 ? -dx : axis == 1 ? -dy : -dz;
+            final boolean far = delta * delta > radiusSq;
+            if (delta < 0) {
+                this.withinRadius(from, mid, x, y, z, radiusSq, result);
+                if (far) {
+                    return;
+                }
+                from = mid + 1;
+            } else {
+                this.withinRadius(mid + 1, to, x, y, z, radiusSq, result);
+                if (far) {
+                    return;
+                }
+                to = mid;
+            }
+        }
+    }
+
+    private void build(final int from, final int to) {
+        if (to - from <= 1) {
+            return;
+        }
+        final int mid = this.partition(from, to);
+        this.build(from, mid);
+        this.build(mid + 1, to);
+    }
+
+    /**
+     * Places the median of the given range, on its widest axis, at the
+     * centre of the range.
+     *
+     * @param from The start of the range, inclusive
+     * @param to The end of the range, exclusive
+     * @return The centre of the range
+     */
+    private int partition(final int from, final int to) {
+        final int mid = (from + to) >>> 1;
+        final int axis = this.widestAxis(from, to);
+        this.axes[mid] = (byte) axis;
+        final float[] keys = axis == 0 ? this.xs : axis == 1 ? this.ys : this.zs;
+
+        int lo = from;
+        int hi = to - 1;
+        while (hi > lo) {
+            final int m = (lo + hi) >>> 1;
+            if (keys[m] < keys[lo]) {
+                this.swap(m, lo);
+            }
+            if (keys[hi] < keys[lo]) {
+                this.swap(hi, lo);
+            }
+            if (keys[hi] < keys[m]) {
+                this.swap(hi, m);
+            }
+            final float pivot = keys[m];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (keys[i] < pivot) {
+                    i++;
+                }
+                while (keys[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    this.swap(i++, j--);
+                }
+            }
+            if (mid <= j) {
+                hi = j;
+            } else if (mid >= i) {
+                lo = i;
+            } else {
+                break;
+            }
+        }
+        return mid;
+    }
+
+    private int widestAxis(final int from, final int to) {
+        float minX = this.xs[from], maxX = minX;
+        float minY = this.ys[from], maxY = minY;
+        float minZ = this.zs[from], maxZ = minZ;
+        for (int i = from + 1; i < to; i++) {
+            minX = Math.min(minX, this.xs[i]);
+            maxX = Math.max(maxX, this.xs[i]);
+            minY = Math.min(minY, this.ys[i]);
+            maxY = Math.max(maxY, this.ys[i]);
+            minZ = Math.min(minZ, this.zs[i]);
+            maxZ = Math.max(maxZ, this.zs[i]);
+        }
+        final float spreadX = maxX - minX;
+        final float spreadY = maxY - minY;
+        final float spreadZ = maxZ - minZ;
+        if (spreadX >= spreadY && spreadX >= spreadZ) {
+            return 0;
+        }
+        return spreadY >= spreadZ ? 1 : 2;
+    }
+
+    private void swap(final int i, final int j) {
+        final float x = this.xs[i];
+        this.xs[i] = this.xs[j];
+        this.xs[j] = x;
+        final float y = this.ys[i];
+        this.ys[i] = this.ys[j];
+        this.ys[j] = y;
+        final float z = this.zs[i];
+        this.zs[i] = this.zs[j];
+        this.zs[j] = z;
+        final int index = this.indices[i];
+        this.indices[i] = this.indices[j];
+        this.indices[j] = index;
+    }
+
+    private final class BuildTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        BuildTask(final int from, final int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from < PARALLEL_THRESHOLD) {
+                Coordinate3fKdTree.this.build(this.from, this.to);
+                return;
+            }
+            final int mid = Coordinate3fKdTree.this.partition(this.from, this.to);
+            invokeAll(new BuildTask(this.from, mid), new BuildTask(mid + 1, this.to));
+        }
+
+    }
+
+}
@@ -0,0 +1,186 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.spatial;
+
+/**
+ * The brute-force distance computations behind {@link Coordinate3fDistances}
+ * and {@link Coordinate3dDistances}, over ranges of coordinates held as
+ * separate component arrays.
+ *
+ * <p>Every implementation computes a squared distance as
+ * {@code dx * dx + dy * dy + dz * dz}, evaluated left to right without
+ * fused multiply-adds, so that all of them produce identical results.
+ * Ties are broken in favour of the lowest index.</p>
+ *
+ * <p>Ranges are not checked, that is left to the callers.</p>
+ */
+interface DistanceKernel {
+
+    /**
+     * Computes the squared distance from the given position to each
+     * coordinate in the given range.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param zs The z positions
+     * @param from The index of the first coordinate, inclusive
+     * @param to The index of the last coordinate, exclusive
+     * @param out The array to write the distances into
+     * @param offset The index to write the first distance to
+     */
+    void squaredDistances(float x, float y, float z, float[] xs, float[] ys, float[] zs, int from, int to, float[] out, int offset);
+
+    /**
+     * Computes the squared distance from the given position to each
+     * coordinate in the given range.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param zs The z positions
+     * @param from The index of the first coordinate, inclusive
+     * @param to The index of the last coordinate, exclusive
+     * @param out The array to write the distances into
+     * @param offset The index to write the first distance to
+     */
+    void squaredDistances(double x, double y, double z, double[] xs, double[] ys, double[] zs, int from, int to, double[] out, int offset);
+
+    /**
+     * Finds the coordinate in the given range nearest to the given
+     * position.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param zs The z positions
+     * @param from The index of the first coordinate, inclusive
+     * @param to The index of the last coordinate, exclusive
+     * @return The index of the nearest coordinate, or {@code -1} if none
+     *         is a finite distance away
+     */
+    int nearest(float x, float y, float z, float[] xs, float[] ys, float[] zs, int from, int to);
+
+    /**
+     * Finds the coordinate in the given range nearest to the given
+     * position.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param zs The z positions
+     * @param from The index of the first coordinate, inclusive
+     * @param to The index of the last coordinate, exclusive
+     * @return The index of the nearest coordinate, or {@code -1} if none
+     *         is a finite distance away
+     */
+    int nearest(double x, double y, double z, double[] xs, double[] ys, double[] zs, int from, int to);
+
+    /**
+     * Assigns each coordinate in the given range the index of its nearest
+     * centre.
+     *
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param zs The z positions
+     * @param from The index of the first coordinate, inclusive
+     * @param to The index of the last coordinate, exclusive
+     * @param cxs The x positions of the centres
+     * @param cys The y positions of the centres
+     * @param czs The z positions of the centres
+     * @param k The number of centres
+     * @param labels The array to write the index of each coordinate's
+     *               centre into, at the coordinate's own index
+     * @param distances The array to write the squared distance of each
+     *                  coordinate from its centre into, at the
+     *                  coordinate's own index, or {@code null}
+     */
+    void assign(float[] xs, float[] ys, float[] zs, int from, int to, float[] cxs, float[] cys, float[] czs, int k, int[] labels, float[] distances);
+
+    /**
+     * Assigns each coordinate in the given range the index of its nearest
+     * centre.
+     *
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param zs The z positions
+     * @param from The index of the first coordinate, inclusive
+     * @param to The index of the last coordinate, exclusive
+     * @param cxs The x positions of the centres
+     * @param cys The y positions of the centres
+     * @param czs The z positions of the centres
+     * @param k The number of centres
+     * @param labels The array to write the index of each coordinate's
+     *               centre into, at the coordinate's own index
+     * @param distances The array to write the squared distance of each
+     *                  coordinate from its centre into, at the
+     *                  coordinate's own index, or {@code null}
+     */
+    void assign(double[] xs, double[] ys, double[] zs, int from, int to, double[] cxs, double[] cys, double[] czs, int k, int[] labels, double[] distances);
+
+    /**
+     * Appends the index of every coordinate in the given range within the
+     * given squared distance of the given position to the given list.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @param radiusSq The squared radius
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param zs The z positions
+     * @param from The index of the first coordinate, inclusive
+     * @param to The index of the last coordinate, exclusive
+     * @param result The list to append the indices to
+     */
+    void withinRadius(float x, float y, float z, float radiusSq, float[] xs, float[] ys, float[] zs, int from, int to, IndexList result);
+
+    /**
+     * Appends the index of every coordinate in the given range within the
+     * given squared distance of the given position to the given list.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @param radiusSq The squared radius
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param zs The z positions
+     * @param from The index of the first coordinate, inclusive
+     * @param to The index of the last coordinate, exclusive
+     * @param result The list to append the indices to
+     */
+    void withinRadius(double x, double y, double z, double radiusSq, double[] xs, double[] ys, double[] zs, int from, int to, IndexList result);
+
+}
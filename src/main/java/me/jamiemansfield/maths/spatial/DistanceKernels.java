@@ -0,0 +1,80 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.spatial;
+
+/**
+ * Selects the {@link DistanceKernel} to use at runtime.
+ *
+ * <p>The Vector API kernel is only present in the versioned section of the
+ * multi-release jar for Java 17 and above, and only usable where the
+ * {@code jdk.incubator.vector} module has been added with
+ * {@code --add-modules}. Elsewhere, or where the
+ * {@value #VECTOR_PROPERTY} system property is {@code false}, the scalar
+ * kernel is used.</p>
+ */
+final class DistanceKernels {
+
+    /**
+     * The system property that may be set to {@code false} to disable the
+     * Vector API kernel.
+     */
+    static final String VECTOR_PROPERTY = "me.jamiemansfield.maths.vector";
+
+    private static final String VECTOR_KERNEL = "me.jamiemansfield.maths.spatial.VectorDistanceKernel";
+
+    /**
+     * The kernel selected for this runtime.
+     */
+    static final DistanceKernel SELECTED = select();
+
+    private static DistanceKernel select() {
+        if (Boolean.parseBoolean(System.getProperty(VECTOR_PROPERTY, "true"))) {
+            final DistanceKernel vector = vector();
+            if (vector != null) {
+                return vector;
+            }
+        }
+        return ScalarDistanceKernel.INSTANCE;
+    }
+
+    /**
+     * Loads the Vector API kernel, regardless of the system property.
+     *
+     * @return The kernel, or {@code null} if it is unavailable on this
+     *         runtime
+     */
+    static DistanceKernel vector() {
+        try {
+            return (DistanceKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+        } catch (final ReflectiveOperationException | LinkageError ex) {
+            return null;
+        }
+    }
+
+    private DistanceKernels() {
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.spatial;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+import com.google.common.base.MoreObjects;
+
+import java.util.Arrays;
+
+/**
+ * A reusable, growable list of point indices, used to collect the
+ * results of spatial queries without boxing.
+ *
+ * <p>The list retains its capacity when cleared, so a single list
+ * reused across queries stops allocating once it has grown to the
+ * largest result.</p>
+ */
+public final class IndexList {
+
+    private int[] indices;
+    private int size;
+
+    /**
+     * Creates an empty list.
+     */
+    public IndexList() {
+        this(16);
+    }
+
+    /**
+     * Creates an empty list, with the given initial capacity.
+     *
+     * @param initialCapacity The initial capacity
+     */
+    public IndexList(final int initialCapacity) {
+        this.indices = new int[Math.max(1, initialCapacity)];
+    }
+
+    /**
+     * Gets the number of indices in the list.
+     *
+     * @return The size
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Establishes whether the list contains no indices.
+     *
+     * @return {@code true} if the list is empty
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Gets the index at the given position in the list.
+     *
+     * @param i The position
+     * @return The index
+     */
+    public int get(final int i) {
+        checkElementIndex(i, this.size);
+        return this.indices[i];
+    }
+
+    /**
+     * Copies the indices into a new array.
+     *
+     * @return The indices
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(this.indices, this.size);
+    }
+
+    /**
+     * Removes all of the indices from the list, retaining its capacity.
+     */
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Appends the given index to the list.
+     *
+     * @param index The index
+     */
+    public void add(final int index) {
+        if (this.size == this.indices.length) {
+            this.indices = Arrays.copyOf(this.indices, this.size << 1);
+        }
+        this.indices[this.size++] = index;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("size", this.size)
+                .toString();
+    }
+
+}
@@ -0,0 +1,184 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.spatial;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * A reusable holder for the results of a k-nearest-neighbour query,
+ * recording the index of each point found and its squared distance
+ * from the query position.
+ *
+ * <p>Once a query completes, the results are ordered by increasing
+ * distance. A single holder may be reused for any number of queries,
+ * without allocating.</p>
+ */
+public final class NearestNeighbours {
+
+    private final int[] indices;
+    private final double[] distances;
+    private int size;
+
+    /**
+     * Creates a holder for up to the given number of neighbours.
+     *
+     * @param k The maximum number of neighbours
+     */
+    public NearestNeighbours(final int k) {
+        checkArgument(k > 0, "k must be positive");
+        this.indices = new int[k];
+        this.distances = new double[k];
+    }
+
+    /**
+     * Gets the maximum number of neighbours that can be held.
+     *
+     * @return The capacity
+     */
+    public int capacity() {
+        return this.indices.length;
+    }
+
+    /**
+     * Gets the number of neighbours found.
+     *
+     * @return The size
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Gets the index of the given neighbour, within the points the
+     * index was built from.
+     *
+     * @param i The neighbour, where 0 is the nearest
+     * @return The index of the point
+     */
+    public int getIndex(final int i) {
+        checkElementIndex(i, this.size);
+        return this.indices[i];
+    }
+
+    /**
+     * Gets the squared distance of the given neighbour from the query
+     * position.
+     *
+     * @param i The neighbour, where 0 is the nearest
+     * @return The squared distance
+     */
+    public double getDistanceSq(final int i) {
+        checkElementIndex(i, this.size);
+        return this.distances[i];
+    }
+
+    void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Gets the squared distance a point must be within to be accepted,
+     * which is infinite until the holder is full.
+     *
+     * @return The squared distance
+     */
+    double bound() {
+        return this.size < this.indices.length ? Double.POSITIVE_INFINITY : this.distances[0];
+    }
+
+    /**
+     * Offers the given point, which is retained if it is nearer than
+     * the furthest point currently held. Until {@link #sort()} is
+     * called, the points are held as a max-heap on distance.
+     *
+     * @param index The index of the point
+     * @param distance The squared distance of the point
+     */
+    void offer(final int index, final double distance) {
+        if (this.size < this.indices.length) {
+            int i = this.size++;
+            while (i > 0) {
+                final int parent = (i - 1) >>> 1;
+                if (this.distances[parent] >= distance) {
+                    break;
+                }
+                this.indices[i] = this.indices[parent];
+                this.distances[i] = this.distances[parent];
+                i = parent;
+            }
+            this.indices[i] = index;
+            this.distances[i] = distance;
+        } else if (distance < this.distances[0]) {
+            this.siftDown(index, distance, this.size);
+        }
+    }
+
+    /**
+     * Sorts the held points by increasing distance, in place.
+     */
+    void sort() {
+        for (int end = this.size - 1; end > 0; end--) {
+            final int index = this.indices[end];
+            final double distance = this.distances[end];
+            this.indices[end] = this.indices[0];
+            this.distances[end] = this.distances[0];
+            this.siftDown(index, distance, end);
+        }
+    }
+
+    private void siftDown(final int index, final double distance, final int size) {
+        int i = 0;
+        while (true) {
+            int child = (i << 1) + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && this.distances[child + 1] > this.distances[child]) {
+                child++;
+            }
+            if (this.distances[child] <= distance) {
+                break;
+            }
+            this.indices[i] = this.indices[child];
+            this.distances[i] = this.distances[child];
+            i = child;
+        }
+        this.indices[i] = index;
+        this.distances[i] = distance;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("size", this.size)
+                .add("capacity", this.indices.length)
+                .toString();
+    }
+
+}
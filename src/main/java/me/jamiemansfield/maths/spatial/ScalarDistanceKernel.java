@@ -0,0 +1,173 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.spatial;
+
+/**
+ * The portable {@link DistanceKernel}, written as plain loops for any
+ * Java 8 runtime.
+ */
+final class ScalarDistanceKernel implements DistanceKernel {
+
+    static final ScalarDistanceKernel INSTANCE = new ScalarDistanceKernel();
+
+    private ScalarDistanceKernel() {
+    }
+
+    @Override
+    public void squaredDistances(final float x, final float y, final float z, final float[] xs, final float[] ys, final float[] zs, final int from, final int to,
+            final float[] out, final int offset) {
+        for (int i = from, j = offset; i < to; i++, j++) {
+            final float dx = xs[i] - x;
+            final float dy = ys[i] - y;
+            final float dz = zs[i] - z;
+            out[j] = dx * dx + dy * dy + dz * dz;
+        }
+    }
+
+    @Override
+    public void squaredDistances(final double x, final double y, final double z, final double[] xs, final double[] ys, final double[] zs, final int from, final int to,
+            final double[] out, final int offset) {
+        for (int i = from, j = offset; i < to; i++, j++) {
+            final double dx = xs[i] - x;
+            final double dy = ys[i] - y;
+            final double dz = zs[i] - z;
+            out[j] = dx * dx + dy * dy + dz * dz;
+        }
+    }
+
+    @Override
+    public int nearest(final float x, final float y, final float z, final float[] xs, final float[] ys, final float[] zs, final int from, final int to) {
+        float best = Float.POSITIVE_INFINITY;
+        int index = -1;
+        for (int i = from; i < to; i++) {
+            final float dx = xs[i] - x;
+            final float dy = ys[i] - y;
+            final float dz = zs[i] - z;
+            final float d = dx * dx + dy * dy + dz * dz;
+            if (d < best) {
+                best = d;
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    @Override
+    public int nearest(final double x, final double y, final double z, final double[] xs, final double[] ys, final double[] zs, final int from, final int to) {
+        double best = Double.POSITIVE_INFINITY;
+        int index = -1;
+        for (int i = from; i < to; i++) {
+            final double dx = xs[i] - x;
+            final double dy = ys[i] - y;
+            final double dz = zs[i] - z;
+            final double d = dx * dx + dy * dy + dz * dz;
+            if (d < best) {
+                best = d;
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    @Override
+    public void assign(final float[] xs, final float[] ys, final float[] zs, final int from, final int to,
+            final float[] cxs, final float[] cys, final float[] czs, final int k, final int[] labels, final float[] distances) {
+        for (int i = from; i < to; i++) {
+            final float x = xs[i];
+            final float y = ys[i];
+            final float z = zs[i];
+            float best = Float.POSITIVE_INFINITY;
+            int label = -1;
+            for (int c = 0; c < k; c++) {
+                final float dx = x - cxs[c];
+                final float dy = y - cys[c];
+                final float dz = z - czs[c];
+                final float d = dx * dx + dy * dy + dz * dz;
+                if (d < best) {
+                    best = d;
+                    label = c;
+                }
+            }
+            labels[i] = label;
+            if (distances != null) {
+                distances[i] = best;
+            }
+        }
+    }
+
+    @Override
+    public void assign(final double[] xs, final double[] ys, final double[] zs, final int from, final int to,
+            final double[] cxs, final double[] cys, final double[] czs, final int k, final int[] labels, final double[] distances) {
+        for (int i = from; i < to; i++) {
+            final double x = xs[i];
+            final double y = ys[i];
+            final double z = zs[i];
+            double best = Double.POSITIVE_INFINITY;
+            int label = -1;
+            for (int c = 0; c < k; c++) {
+                final double dx = x - cxs[c];
+                final double dy = y - cys[c];
+                final double dz = z - czs[c];
+                final double d = dx * dx + dy * dy + dz * dz;
+                if (d < best) {
+                    best = d;
+                    label = c;
+                }
+            }
+            labels[i] = label;
+            if (distances != null) {
+                distances[i] = best;
+            }
+        }
+    }
+
+    @Override
+    public void withinRadius(final float x, final float y, final float z, final float radiusSq, final float[] xs, final float[] ys, final float[] zs,
+            final int from, final int to, final IndexList result) {
+        for (int i = from; i < to; i++) {
+            final float dx = xs[i] - x;
+            final float dy = ys[i] - y;
+            final float dz = zs[i] - z;
+            if (dx * dx + dy * dy + dz * dz <= radiusSq) {
+                result.add(i);
+            }
+        }
+    }
+
+    @Override
+    public void withinRadius(final double x, final double y, final double z, final double radiusSq, final double[] xs, final double[] ys, final double[] zs,
+            final int from, final int to, final IndexList result) {
+        for (int i = from; i < to; i++) {
+            final double dx = xs[i] - x;
+            final double dy = ys[i] - y;
+            final double dz = zs[i] - z;
+            if (dx * dx + dy * dy + dz * dz <= radiusSq) {
+                result.add(i);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,228 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.stats;
+
+import com.flowpowered.math.matrix.Matrix2d;
+import com.flowpowered.math.vector.Vector2d;
+import com.google.common.base.MoreObjects;
+import me.jamiemansfield.maths.bounds.Bounds2f;
+import me.jamiemansfield.maths.coord.Coordinate2d;
+import me.jamiemansfield.maths.coord.Coordinate2f;
+
+import java.util.function.Consumer;
+
+/**
+ * A mutable accumulator of the count, sum, centroid, bounds, variance and
+ * covariance of {@link Coordinate2f}s, in the style of
+ * {@link java.util.DoubleSummaryStatistics}.
+ *
+ * <p>Sums are compensated with Kahan summation, and the variance and
+ * covariance are accumulated as co-moments about the running mean, with
+ * Welford's algorithm. Statistics filled separately are combined with
+ * the pairwise update of Chan et al, so a parallel reduction stays
+ * numerically stable however the stream is split.</p>
+ *
+ * <p>Positions are accumulated into primitive fields, without creating
+ * any objects. Statistics are not thread-safe, but those filled on
+ * separate threads can be combined, as the collectors of
+ * {@link CoordinateCollectors} do.</p>
+ */
+public final class Coordinate2fSummaryStatistics implements Consumer<Coordinate2f> {
+
+    private long count;
+    private final KahanSum sumX = new KahanSum();
+    private final KahanSum sumY = new KahanSum();
+    private double meanX;
+    private double meanY;
+    private double mXX;
+    private double mXY;
+    private double mYY;
+    private final Bounds2f.Builder bounds = new Bounds2f.Builder();
+
+    /**
+     * Records the given position.
+     *
+     * @param x The x position
+     * @param y The y position
+     */
+    public void accept(final float x, final float y) {
+        final double inv = 1.0 / ++this.count;
+        final double dx = x - this.meanX;
+        final double dy = y - this.meanY;
+        this.meanX += dx * inv;
+        this.meanY += dy * inv;
+        final double ex = x - this.meanX;
+        final double ey = y - this.meanY;
+        this.mXX += dx * ex;
+        this.mXY += dx * ey;
+        this.mYY += dy * ey;
+        this.sumX.add(x);
+        this.sumY.add(y);
+        this.bounds.include(x, y);
+    }
+
+    /**
+     * Records the given coordinate.
+     *
+     * @param coord The coordinate
+     */
+    @Override
+    public void accept(final Coordinate2f coord) {
+        this.accept(coord.getX(), coord.getY());
+    }
+
+    /**
+     * Combines the statistics of another accumulator into this one.
+     *
+     * @param other The other statistics
+     */
+    public void combine(final Coordinate2fSummaryStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+        final long count = this.count + other.count;
+        if (this.count == 0) {
+            // an empty side has no mean to measure the other against,
+            // and doing so at the limits of the type gives NaN
+            this.meanX = other.meanX;
+            this.meanY = other.meanY;
+            this.mXX = other.mXX;
+            this.mXY = other.mXY;
+            this.mYY = other.mYY;
+        } else {
+            final double weight = (double) other.count / count;
+            final double factor = (double) this.count * weight;
+            final double dx = other.meanX - this.meanX;
+            final double dy = other.meanY - this.meanY;
+            this.mXX += other.mXX + dx * dx * factor;
+            this.mXY += other.mXY + dx * dy * factor;
+            this.mYY += other.mYY + dy * dy * factor;
+            this.meanX += dx * weight;
+            this.meanY += dy * weight;
+        }
+        this.sumX.add(other.sumX);
+        this.sumY.add(other.sumY);
+        this.bounds.include(other.bounds);
+        this.count = count;
+    }
+
+    /**
+     * Gets the number of positions recorded.
+     *
+     * @return The count
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Gets the sum of the positions recorded, or the origin if none
+     * have been.
+     *
+     * @return The sum
+     */
+    public Coordinate2d getSum() {
+        return new Coordinate2d(this.sumX.get(), this.sumY.get());
+    }
+
+    /**
+     * Gets the mean of the positions recorded.
+     *
+     * @return The centroid, or {@code null} if no position has been
+     *         recorded
+     */
+    public Coordinate2d getCentroid() {
+        if (this.count == 0) {
+            return null;
+        }
+        return new Coordinate2d(this.sumX.get() / this.count, this.sumY.get() / this.count);
+    }
+
+    /**
+     * Gets the smallest box containing the positions recorded.
+     *
+     * @return The box, or {@code null} if no position has been recorded
+     */
+    public Bounds2f getBounds() {
+        return this.bounds.isEmpty() ? null : this.bounds.build();
+    }
+
+    /**
+     * Gets the population variance of the positions recorded, along each
+     * axis.
+     *
+     * @return The variance, or {@code null} if no position has been
+     *         recorded
+     */
+    public Vector2d getVariance() {
+        if (this.count == 0) {
+            return null;
+        }
+        return new Vector2d(this.mXX / this.count, this.mYY / this.count);
+    }
+
+    /**
+     * Gets the population covariance matrix of the positions recorded.
+     *
+     * @return The covariance, or {@code null} if no position has been
+     *         recorded
+     */
+    public Matrix2d getCovariance() {
+        return this.count == 0 ? null : this.covariance(this.count);
+    }
+
+    /**
+     * Gets the sample covariance matrix of the positions recorded, with
+     * Bessel's correction.
+     *
+     * @return The covariance, or {@code null} if fewer than two
+     *         positions have been recorded
+     */
+    public Matrix2d getSampleCovariance() {
+        return this.count < 2 ? null : this.covariance(this.count - 1);
+    }
+
+    private Matrix2d covariance(final long divisor) {
+        final double inv = 1.0 / divisor;
+        final double xx = this.mXX * inv;
+        final double xy = this.mXY * inv;
+        final double yy = this.mYY * inv;
+        return new Matrix2d(
+                xx, xy,
+                xy, yy
+        );
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("count", this.count)
+                .add("centroid", this.getCentroid())
+                .add("bounds", this.getBounds())
+                .toString();
+    }
+
+}
@@ -0,0 +1,256 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.stats;
+
+import com.flowpowered.math.matrix.Matrix3d;
+import com.flowpowered.math.vector.Vector3d;
+import com.google.common.base.MoreObjects;
+import me.jamiemansfield.maths.bounds.Bounds3i;
+import me.jamiemansfield.maths.coord.Coordinate3d;
+import me.jamiemansfield.maths.coord.Coordinate3i;
+import me.jamiemansfield.maths.coord.Coordinate3l;
+
+import java.util.function.Consumer;
+
+/**
+ * A mutable accumulator of the count, sum, centroid, bounds, variance and
+ * covariance of {@link Coordinate3i}s, in the style of
+ * {@link java.util.IntSummaryStatistics}.
+ *
+ * <p>Sums are accumulated exactly in longs. The variance and
+ * covariance are accumulated as co-moments about the running mean, with
+ * Welford's algorithm. Statistics filled separately are combined with
+ * the pairwise update of Chan et al, so a parallel reduction stays
+ * numerically stable however the stream is split.</p>
+ *
+ * <p>Positions are accumulated into primitive fields, without creating
+ * any objects. Statistics are not thread-safe, but those filled on
+ * separate threads can be combined, as the collectors of
+ * {@link CoordinateCollectors} do.</p>
+ */
+public final class Coordinate3iSummaryStatistics implements Consumer<Coordinate3i> {
+
+    private long count;
+    private long sumX;
+    private long sumY;
+    private long sumZ;
+    private double meanX;
+    private double meanY;
+    private double meanZ;
+    private double mXX;
+    private double mXY;
+    private double mXZ;
+    private double mYY;
+    private double mYZ;
+    private double mZZ;
+    private final Bounds3i.Builder bounds = new Bounds3i.Builder();
+
+    /**
+     * Records the given position.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     */
+    public void accept(final int x, final int y, final int z) {
+        final double inv = 1.0 / ++this.count;
+        final double dx = x - this.meanX;
+        final double dy = y - this.meanY;
+        final double dz = z - this.meanZ;
+        this.meanX += dx * inv;
+        this.meanY += dy * inv;
+        this.meanZ += dz * inv;
+        final double ex = x - this.meanX;
+        final double ey = y - this.meanY;
+        final double ez = z - this.meanZ;
+        this.mXX += dx * ex;
+        this.mXY += dx * ey;
+        this.mXZ += dx * ez;
+        this.mYY += dy * ey;
+        this.mYZ += dy * ez;
+        this.mZZ += dz * ez;
+        this.sumX += x;
+        this.sumY += y;
+        this.sumZ += z;
+        this.bounds.include(x, y, z);
+    }
+
+    /**
+     * Records the given coordinate.
+     *
+     * @param coord The coordinate
+     */
+    @Override
+    public void accept(final Coordinate3i coord) {
+        this.accept(coord.getX(), coord.getY(), coord.getZ());
+    }
+
+    /**
+     * Combines the statistics of another accumulator into this one.
+     *
+     * @param other The other statistics
+     */
+    public void combine(final Coordinate3iSummaryStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+        final long count = this.count + other.count;
+        if (this.count == 0) {
+            // an empty side has no mean to measure the other against,
+            // and doing so at the limits of the type gives NaN
+            this.meanX = other.meanX;
+            this.meanY = other.meanY;
+            this.meanZ = other.meanZ;
+            this.mXX = other.mXX;
+            this.mXY = other.mXY;
+            this.mXZ = other.mXZ;
+            this.mYY = other.mYY;
+            this.mYZ = other.mYZ;
+            this.mZZ = other.mZZ;
+        } else {
+            final double weight = (double) other.count / count;
+            final double factor = (double) this.count * weight;
+            final double dx = other.meanX - this.meanX;
+            final double dy = other.meanY - this.meanY;
+            final double dz = other.meanZ - this.meanZ;
+            this.mXX += other.mXX + dx * dx * factor;
+            this.mXY += other.mXY + dx * dy * factor;
+            this.mXZ += other.mXZ + dx * dz * factor;
+            this.mYY += other.mYY + dy * dy * factor;
+            this.mYZ += other.mYZ + dy * dz * factor;
+            this.mZZ += other.mZZ + dz * dz * factor;
+            this.meanX += dx * weight;
+            this.meanY += dy * weight;
+            this.meanZ += dz * weight;
+        }
+        this.sumX += other.sumX;
+        this.sumY += other.sumY;
+        this.sumZ += other.sumZ;
+        this.bounds.include(other.bounds);
+        this.count = count;
+    }
+
+    /**
+     * Gets the number of positions recorded.
+     *
+     * @return The count
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Gets the sum of the positions recorded, or the origin if none
+     * have been.
+     *
+     * @return The sum
+     */
+    public Coordinate3l getSum() {
+        return new Coordinate3l(this.sumX, this.sumY, this.sumZ);
+    }
+
+    /**
+     * Gets the mean of the positions recorded.
+     *
+     * @return The centroid, or {@code null} if no position has been
+     *         recorded
+     */
+    public Coordinate3d getCentroid() {
+        if (this.count == 0) {
+            return null;
+        }
+        return new Coordinate3d((double) this.sumX / this.count, (double) this.sumY / this.count, (double) this.sumZ / this.count);
+    }
+
+    /**
+     * Gets the smallest box containing the positions recorded.
+     *
+     * @return The box, or {@code null} if no position has been recorded
+     */
+    public Bounds3i getBounds() {
+        return this.bounds.isEmpty() ? null : this.bounds.build();
+    }
+
+    /**
+     * Gets the population variance of the positions recorded, along each
+     * axis.
+     *
+     * @return The variance, or {@code null} if no position has been
+     *         recorded
+     */
+    public Vector3d getVariance() {
+        if (this.count == 0) {
+            return null;
+        }
+        return new Vector3d(this.mXX / this.count, this.mYY / this.count, this.mZZ / this.count);
+    }
+
+    /**
+     * Gets the population covariance matrix of the positions recorded.
+     *
+     * @return The covariance, or {@code null} if no position has been
+     *         recorded
+     */
+    public Matrix3d getCovariance() {
+        return this.count == 0 ? null : this.covariance(this.count);
+    }
+
+    /**
+     * Gets the sample covariance matrix of the positions recorded, with
+     * Bessel's correction.
+     *
+     * @return The covariance, or {@code null} if fewer than two
+     *         positions have been recorded
+     */
+    public Matrix3d getSampleCovariance() {
+        return this.count < 2 ? null : this.covariance(this.count - 1);
+    }
+
+    private Matrix3d covariance(final long divisor) {
+        final double inv = 1.0 / divisor;
+        final double xx = this.mXX * inv;
+        final double xy = this.mXY * inv;
+        final double xz = this.mXZ * inv;
+        final double yy = this.mYY * inv;
+        final double yz = this.mYZ * inv;
+        final double zz = this.mZZ * inv;
+        return new Matrix3d(
+                xx, xy, xz,
+                xy, yy, yz,
+                xz, yz, zz
+        );
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("count", this.count)
+                .add("centroid", this.getCentroid())
+                .add("bounds", this.getBounds())
+                .toString();
+    }
+
+}
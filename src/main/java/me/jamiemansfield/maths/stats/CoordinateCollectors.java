@@ -0,0 +1,364 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.stats;
+
+import me.jamiemansfield.maths.bounds.Bounds2d;
+import me.jamiemansfield.maths.bounds.Bounds2f;
+import me.jamiemansfield.maths.bounds.Bounds2i;
+import me.jamiemansfield.maths.bounds.Bounds2l;
+import me.jamiemansfield.maths.bounds.Bounds3d;
+import me.jamiemansfield.maths.bounds.Bounds3f;
+import me.jamiemansfield.maths.bounds.Bounds3i;
+import me.jamiemansfield.maths.bounds.Bounds3l;
+import me.jamiemansfield.maths.coord.Coordinate2d;
+import me.jamiemansfield.maths.coord.Coordinate2f;
+import me.jamiemansfield.maths.coord.Coordinate2i;
+import me.jamiemansfield.maths.coord.Coordinate2l;
+import me.jamiemansfield.maths.coord.Coordinate3d;
+import me.jamiemansfield.maths.coord.Coordinate3f;
+import me.jamiemansfield.maths.coord.Coordinate3i;
+import me.jamiemansfield.maths.coord.Coordinate3l;
+
+import java.util.stream.Collector;
+
+/**
+ * {@link Collector}s of statistics of streams of coordinates, for every
+ * coordinate type.
+ *
+ * <p>Each collector accumulates into mutable primitive state, so creates
+ * no object per element, and combines correctly when the stream is
+ * parallel.</p>
+ */
+public final class CoordinateCollectors {
+
+    /**
+     * Creates a collector of the {@link Coordinate2iSummaryStatistics summary statistics}
+     * of {@link Coordinate2i}s.
+     *
+     * @return The collector
+     */
+    public static Collector<Coordinate2i, ?, Coordinate2iSummaryStatistics> summarizing2i() {
+        return Collector.of(Coordinate2iSummaryStatistics::new, Coordinate2iSummaryStatistics::accept, (a, b) -> {
+            a.combine(b);
+            return a;
+        });
+    }
+
+    /**
+     * Creates a collector of the centroid of {@link Coordinate2i}s, which
+     * collects {@code null} from an empty stream.
+     *
+     * @return The collector
+     */
+    public static Collector<Coordinate2i, ?, Coordinate2d> averaging2i() {
+        return Collector.of(Coordinate2iSummaryStatistics::new, Coordinate2iSummaryStatistics::accept, (a, b) -> {
+            a.combine(b);
+            return a;
+        }, Coordinate2iSummaryStatistics::getCentroid);
+    }
+
+    /**
+     * Creates a collector of the smallest box containing
+     * {@link Coordinate2i}s, which collects {@code null} from an empty
+     * stream.
+     *
+     * @return The collector
+     */
+    public static Collector<Coordinate2i, ?, Bounds2i> bounding2i() {
+        return Collector.of(Bounds2i.Builder::new, Bounds2i.Builder::include, Bounds2i.Builder::include,
+                builder -> builder.isEmpty() ? null : builder.build());
+    }
+
+    /**
+     * Creates a collector of the {@link Coordinate2lSummaryStatistics summary statistics}
+     * of {@link Coordinate2l}s.
+     *
+     * @return The collector
+     */
+    public static Collector<Coordinate2l, ?, Coordinate2lSummaryStatistics> summarizing2l() {
+        return Collector.of(Coordinate2lSummaryStatistics::new, Coordinate2lSummaryStatistics::accept, (a, b) -> {
+            a.combine(b);
+            return a;
+        });
+    }
+
+    /**
+     * Creates a collector of the centroid of {@link Coordinate2l}s, which
+     * collects {@code null} from an empty stream.
+     *
+     * @return The collector
+     */
+    public static Collector<Coordinate2l, ?, Coordinate2d> averaging2l() {
+        return Collector.of(Coordinate2lSummaryStatistics::new, Coordinate2lSummaryStatistics::accept, (a, b) -> {
+            a.combine(b);
+            return a;
+        }, Coordinate2lSummaryStatistics::getCentroid);
+    }
+
+    /**
+     * Creates a collector of the smallest box containing
+     * {@link Coordinate2l}s, which collects {@code null} from an empty
+     * stream.
+     *
+     * @return The collector
+     */
+    public static Collector<Coordinate2l, ?, Bounds2l> bounding2l() {
+        return Collector.of(Bounds2l.Builder::new, Bounds2l.Builder::include, Bounds2l.Builder::include,
+                builder -> builder.isEmpty() ? null : builder.build());
+    }
+
+    /**
+     * Creates a collector of the {@link Coordinate2fSummaryStatistics summary statistics}
+     * of {@link Coordinate2f}s.
+     *
+     * @return The collector
+     */
+    public static Collector<Coordinate2f, ?, Coordinate2fSummaryStatistics> summarizing2f() {
+        return Collector.of(Coordinate2fSummaryStatistics::new, Coordinate2fSummaryStatistics::accept, (a, b) -> {
+            a.combine(b);
+            return a;
+        });
+    }
+
+    /**
+     * Creates a collector of the centroid of {@link Coordinate2f}s, which
+     * collects {@code null} from an empty stream.
+     *
+     * @return The collector
+     */
+    public static Collector<Coordinate2f, ?, Coordinate2d> averaging2f() {
+        return Collector.of(Coordinate2fSummaryStatistics::new, Coordinate2fSummaryStatistics::accept, (a, b) -> {
+            a.combine(b);
+            return a;
+        }, Coordinate2fSummaryStatistics::getCentroid);
+    }
+
+    /**
+     * Creates a collector of the smallest box containing
+     * {@link Coordinate2f}s, which collects {@code null} from an empty
+     * stream.
+     *
+     * @return The collector
+     */
+    public static Collector<Coordinate2f, ?, Bounds2f> bounding2f() {
+        return Collector.of(Bounds2f.Builder::new, Bounds2f.Builder::include, Bounds2f.Builder::include,
+                builder -> builder.isEmpty() ? null : builder.build());
+    }
+
+    /**
+     * Creates a collector of the {@link Coordinate2dSummaryStatistics summary statistics}
+     * of {@link Coordinate2d}s.
+     *
+     * @return The collector
+     */
+    public static Collector<Coordinate2d, ?, Coordinate2dSummaryStatistics> summarizing2d() {
+        return Collector.of(Coordinate2dSummaryStatistics::new, Coordinate2dSummaryStatistics::accept, (a, b) -> {
+            a.combine(b);
+            return a;
+        });
+    }
+
+    /**
+     * Creates a collector of the centroid of {@link Coordinate2d}s, which
+     * collects {@code null} from an empty stream.
+     *
+     * @return The collector
+     */
+    public static Collector<Coordinate2d, ?, Coordinate2d> averaging2d() {
+        return Collector.of(Coordinate2dSummaryStatistics::new, Coordinate2dSummaryStatistics::accept, (a, b) -> {
+            a.combine(b);
+            return a;
+        }, Coordinate2dSummaryStatistics::getCentroid);
+    }
+
+    /**
+     * Creates a collector of the smallest box containing
+     * {@link Coordinate2d}s, which collects {@code null} from an empty
+     * stream.
+     *
+     * @return The collector
+     */
+    public static Collector<Coordinate2d, ?, Bounds2d> bounding2d() {
+        return Collector.of(Bounds2d.Builder::new, Bounds2d.Builder::include, Bounds2d.Builder::include,
+                builder -> builder.isEmpty() ? null : builder.build());
+    }
+
+    /**
+     * Creates a collector of the {@link Coordinate3iSummaryStatistics summary statistics}
+     * of {@link Coordinate3i}s.
+     *
+     * @return The collector
+     */
+    public static Collector<Coordinate3i, ?, Coordinate3iSummaryStatistics> summarizing3i() {
+        return Collector.of(Coordinate3iSummaryStatistics::new, Coordinate3iSummaryStatistics::accept, (a, b) -> {
+            a.combine(b);
+            return a;
+        });
+    }
+
+    /**
+     * Creates a collector of the centroid of {@link Coordinate3i}s, which
+     * collects {@code null} from an empty stream.
+     *
+     * @return The collector
+     */
+    public static Collector<Coordinate3i, ?, Coordinate3d> averaging3i() {
+        return Collector.of(Coordinate3iSummaryStatistics::new, Coordinate3iSummaryStatistics::accept, (a, b) -> {
+            a.combine(b);
+            return a;
+        }, Coordinate3iSummaryStatistics::getCentroid);
+    }
+
+    /**
+     * Creates a collector of the smallest box containing
+     * {@link Coordinate3i}s, which collects {@code null} from an empty
+     * stream.
+     *
+     * @return The collector
+     */
+    public static Collector<Coordinate3i, ?, Bounds3i> bounding3i() {
+        return Collector.of(Bounds3i.Builder::new, Bounds3i.Builder::include, Bounds3i.Builder::include,
+                builder -> builder.isEmpty() ? null : builder.build());
+    }
+
+    /**
+     * Creates a collector of the {@link Coordinate3lSummaryStatistics summary statistics}
+     * of {@link Coordinate3l}s.
+     *
+     * @return The collector
+     */
+    public static Collector<Coordinate3l, ?, Coordinate3lSummaryStatistics> summarizing3l() {
+        return Collector.of(Coordinate3lSummaryStatistics::new, Coordinate3lSummaryStatistics::accept, (a, b) -> {
+            a.combine(b);
+            return a;
+        });
+    }
+
+    /**
+     * Creates a collector of the centroid of {@link Coordinate3l}s, which
+     * collects {@code null} from an empty stream.
+     *
+     * @return The collector
+     */
+    public static Collector<Coordinate3l, ?, Coordinate3d> averaging3l() {
+        return Collector.of(Coordinate3lSummaryStatistics::new, Coordinate3lSummaryStatistics::accept, (a, b) -> {
+            a.combine(b);
+            return a;
+        }, Coordinate3lSummaryStatistics::getCentroid);
+    }
+
+    /**
+     * Creates a collector of the smallest box containing
+     * {@link Coordinate3l}s, which collects {@code null} from an empty
+     * stream.
+     *
+     * @return The collector
+     */
+    public static Collector<Coordinate3l, ?, Bounds3l> bounding3l() {
+        return Collector.of(Bounds3l.Builder::new, Bounds3l.Builder::include, Bounds3l.Builder::include,
+                builder -> builder.isEmpty() ? null : builder.build());
+    }
+
+    /**
+     * Creates a collector of the {@link Coordinate3fSummaryStatistics summary statistics}
+     * of {@link Coordinate3f}s.
+     *
+     * @return The collector
+     */
+    public static Collector<Coordinate3f, ?, Coordinate3fSummaryStatistics> summarizing3f() {
+        return Collector.of(Coordinate3fSummaryStatistics::new, Coordinate3fSummaryStatistics::accept, (a, b) -> {
+            a.combine(b);
+            return a;
+        });
+    }
+
+    /**
+     * Creates a collector of the centroid of {@link Coordinate3f}s, which
+     * collects {@code null} from an empty stream.
+     *
+     * @return The collector
+     */
+    public static Collector<Coordinate3f, ?, Coordinate3d> averaging3f() {
+        return Collector.of(Coordinate3fSummaryStatistics::new, Coordinate3fSummaryStatistics::accept, (a, b) -> {
+            a.combine(b);
+            return a;
+        }, Coordinate3fSummaryStatistics::getCentroid);
+    }
+
+    /**
+     * Creates a collector of the smallest box containing
+     * {@link Coordinate3f}s, which collects {@code null} from an empty
+     * stream.
+     *
+     * @return The collector
+     */
+    public static Collector<Coordinate3f, ?, Bounds3f> bounding3f() {
+        return Collector.of(Bounds3f.Builder::new, Bounds3f.Builder::include, Bounds3f.Builder::include,
+                builder -> builder.isEmpty() ? null : builder.build());
+    }
+
+    /**
+     * Creates a collector of the {@link Coordinate3dSummaryStatistics summary statistics}
+     * of {@link Coordinate3d}s.
+     *
+     * @return The collector
+     */
+    public static Collector<Coordinate3d, ?, Coordinate3dSummaryStatistics> summarizing3d() {
+        return Collector.of(Coordinate3dSummaryStatistics::new, Coordinate3dSummaryStatistics::accept, (a, b) -> {
+            a.combine(b);
+            return a;
+        });
+    }
+
+    /**
+     * Creates a collector of the centroid of {@link Coordinate3d}s, which
+     * collects {@code null} from an empty stream.
+     *
+     * @return The collector
+     */
+    public static Collector<Coordinate3d, ?, Coordinate3d> averaging3d() {
+        return Collector.of(Coordinate3dSummaryStatistics::new, Coordinate3dSummaryStatistics::accept, (a, b) -> {
+            a.combine(b);
+            return a;
+        }, Coordinate3dSummaryStatistics::getCentroid);
+    }
+
+    /**
+     * Creates a collector of the smallest box containing
+     * {@link Coordinate3d}s, which collects {@code null} from an empty
+     * stream.
+     *
+     * @return The collector
+     */
+    public static Collector<Coordinate3d, ?, Bounds3d> bounding3d() {
+        return Collector.of(Bounds3d.Builder::new, Bounds3d.Builder::include, Bounds3d.Builder::include,
+                builder -> builder.isEmpty() ? null : builder.build());
+    }
+
+    private CoordinateCollectors() {
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.stats;
+
+/**
+ * A running sum of doubles, with Kahan compensation for the low-order
+ * bits lost to rounding, as kept by
+ * {@link java.util.DoubleSummaryStatistics}.
+ */
+final class KahanSum {
+
+    private double sum;
+    private double compensation;
+    private double simple;
+
+    /**
+     * Adds the given value to the sum.
+     *
+     * @param value The value
+     */
+    void add(final double value) {
+        this.compensate(value);
+        this.simple += value;
+    }
+
+    /**
+     * Adds the given sum to this one, along with its compensation.
+     *
+     * @param other The other sum
+     */
+    void add(final KahanSum other) {
+        this.compensate(other.sum);
+        this.compensate(-other.compensation);
+        this.simple += other.simple;
+    }
+
+    /**
+     * Gets the compensated sum.
+     *
+     * @return The sum
+     */
+    double get() {
+        final double total = this.sum - this.compensation;
+        // Compensating a sum that overflowed gives NaN, where the
+        // uncompensated sum has the correct infinity
+        if (Double.isNaN(total) && Double.isInfinite(this.simple)) {
+            return this.simple;
+        }
+        return total;
+    }
+
+    private void compensate(final double value) {
+        final double y = value - this.compensation;
+        final double t = this.sum + y;
+        this.compensation = (t - this.sum) - y;
+        this.sum = t;
+    }
+
+}
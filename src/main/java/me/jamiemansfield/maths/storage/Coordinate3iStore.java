@@ -0,0 +1,350 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.storage;
+
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.base.MoreObjects;
+import me.jamiemansfield.maths.coord.Coordinate3i;
+import me.jamiemansfield.maths.coord.Coordinate3iBuffer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * A fixed-capacity store of {@link Coordinate3i}s held outside of the Java
+ * heap, either in direct memory or in a memory-mapped file.
+ *
+ * <p>Each coordinate is stored as a 12 byte record, of its x, y and
+ * z positions in little-endian order. A file-backed store may be
+ * reopened with {@link #open(Path)}, which maps the file directly and
+ * performs no deserialisation.</p>
+ *
+ * <p>This store is not thread-safe.</p>
+ */
+public final class Coordinate3iStore implements Closeable {
+
+    /**
+     * The size of a single record, in bytes.
+     */
+    public static final int RECORD_SIZE = 12;
+
+    private static final int TYPE = 3;
+
+    /**
+     * Creates a store backed by direct memory.
+     *
+     * @param capacity The maximum number of coordinates
+     * @return The store
+     */
+    public static Coordinate3iStore allocate(final long capacity) {
+        return new Coordinate3iStore(StoreMapping.allocate(TYPE, RECORD_SIZE, capacity));
+    }
+
+    /**
+     * Creates a store backed by a new memory-mapped file, replacing any
+     * existing file at the given path.
+     *
+     * @param path The path of the file
+     * @param capacity The maximum number of coordinates
+     * @return The store
+     * @throws IOException If the file could not be created
+     */
+    public static Coordinate3iStore create(final Path path, final long capacity) throws IOException {
+        return new Coordinate3iStore(StoreMapping.create(path, TYPE, RECORD_SIZE, capacity));
+    }
+
+    /**
+     * Opens an existing file-backed store for reading and writing.
+     *
+     * @param path The path of the file
+     * @return The store
+     * @throws IOException If the file could not be opened, or is not a
+     *                     store of {@link Coordinate3i}s
+     */
+    public static Coordinate3iStore open(final Path path) throws IOException {
+        return new Coordinate3iStore(StoreMapping.open(path, TYPE, RECORD_SIZE, false));
+    }
+
+    /**
+     * Opens an existing file-backed store for reading only.
+     *
+     * @param path The path of the file
+     * @return The store
+     * @throws IOException If the file could not be opened, or is not a
+     *                     store of {@link Coordinate3i}s
+     */
+    public static Coordinate3iStore openReadOnly(final Path path) throws IOException {
+        return new Coordinate3iStore(StoreMapping.open(path, TYPE, RECORD_SIZE, true));
+    }
+
+    private final StoreMapping mapping;
+    private long size;
+
+    private Coordinate3iStore(final StoreMapping mapping) {
+        this.mapping = mapping;
+        this.size = mapping.size();
+    }
+
+    /**
+     * Gets the number of coordinates in the store.
+     *
+     * @return The size
+     */
+    public long size() {
+        return this.size;
+    }
+
+    /**
+     * Gets the maximum number of coordinates the store can hold.
+     *
+     * @return The capacity
+     */
+    public long capacity() {
+        return this.mapping.capacity();
+    }
+
+    /**
+     * Appends the given coordinate to the store.
+     *
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @return The index of the coordinate
+     */
+    public long add(final int x, final int y, final int z) {
+        checkState(this.size < this.capacity(), "Store is full");
+        final long index = this.size;
+        this.put(index, x, y, z);
+        this.mapping.setSize(this.size = index + 1);
+        return index;
+    }
+
+    /**
+     * Appends the given coordinate to the store.
+     *
+     * @param coord The coordinate
+     * @return The index of the coordinate
+     */
+    public long add(final Coordinate3i coord) {
+        return this.add(coord.getX(), coord.getY(), coord.getZ());
+    }
+
+    /**
+     * Replaces the coordinate at the given index.
+     *
+     * @param index The index
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     */
+    public void set(final long index, final int x, final int y, final int z) {
+        this.checkIndex(index);
+        this.put(index, x, y, z);
+    }
+
+    /**
+     * Gets the coordinate at the given index, as a new {@link Coordinate3i}.
+     *
+     * @param index The index
+     * @return The coordinate
+     */
+    public Coordinate3i get(final long index) {
+        return new Coordinate3i(this.getX(index), this.getY(index), this.getZ(index));
+    }
+
+    /**
+     * Gets the x position of the coordinate at the given index.
+     *
+     * @param index The index
+     * @return The x pos
+     */
+    public int getX(final long index) {
+        this.checkIndex(index);
+        return this.mapping.segment(index).getInt(this.mapping.offset(index));
+    }
+
+    /**
+     * Gets the y position of the coordinate at the given index.
+     *
+     * @param index The index
+     * @return The y pos
+     */
+    public int getY(final long index) {
+        this.checkIndex(index);
+        return this.mapping.segment(index).getInt(this.mapping.offset(index) + 4);
+    }
+
+    /**
+     * Gets the z position of the coordinate at the given index.
+     *
+     * @param index The index
+     * @return The z pos
+     */
+    public int getZ(final long index) {
+        this.checkIndex(index);
+        return this.mapping.segment(index).getInt(this.mapping.offset(index) + 8);
+    }
+
+    /**
+     * Reads the given range of coordinates into the given arrays.
+     *
+     * @param from The index of the first coordinate
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param zs The z positions
+     * @param arrayOffset The offset into the arrays
+     * @param count The number of coordinates
+     */
+    public void read(final long from, final int[] xs, final int[] ys, final int[] zs, final int arrayOffset, final int count) {
+        this.checkRange(from, count);
+        checkPositionIndexes(arrayOffset, arrayOffset + count, Math.min(xs.length, Math.min(ys.length, zs.length)));
+        for (int i = 0; i < count; i++) {
+            final long index = from + i;
+            final ByteBuffer segment = this.mapping.segment(index);
+            final int offset = this.mapping.offset(index);
+            xs[arrayOffset + i] = segment.getInt(offset);
+            ys[arrayOffset + i] = segment.getInt(offset + 4);
+            zs[arrayOffset + i] = segment.getInt(offset + 8);
+        }
+    }
+
+    /**
+     * Writes coordinates from the given arrays into the store, starting
+     * at the given index. The range written must begin within, or
+     * directly after, the coordinates already in the store.
+     *
+     * @param to The index of the first coordinate
+     * @param xs The x positions
+     * @param ys The y positions
+     * @param zs The z positions
+     * @param arrayOffset The offset into the arrays
+     * @param count The number of coordinates
+     */
+    public void write(final long to, final int[] xs, final int[] ys, final int[] zs, final int arrayOffset, final int count) {
+        checkPositionIndexes(arrayOffset, arrayOffset + count, Math.min(xs.length, Math.min(ys.length, zs.length)));
+        checkState(to >= 0 && to <= this.size && to + count <= this.capacity(), "Cannot write %s coordinates at %s", count, to);
+        for (int i = 0; i < count; i++) {
+            this.put(to + i, xs[arrayOffset + i], ys[arrayOffset + i], zs[arrayOffset + i]);
+        }
+        if (to + count > this.size) {
+            this.mapping.setSize(this.size = to + count);
+        }
+    }
+
+    /**
+     * Appends every coordinate of the given buffer to the store.
+     *
+     * @param buffer The buffer
+     * @return The index of the first appended coordinate
+     */
+    public long addAll(final Coordinate3iBuffer buffer) {
+        final long index = this.size;
+        checkState(index + buffer.size() <= this.capacity(), "Store is full");
+        this.write(index, buffer.getXArray(), buffer.getYArray(), buffer.getZArray(), 0, buffer.size());
+        this.mapping.setSize(this.size = index + buffer.size());
+        return index;
+    }
+
+    /**
+     * Appends the given range of coordinates in the store to the given
+     * buffer.
+     *
+     * @param from The index of the first coordinate
+     * @param count The number of coordinates
+     * @param buffer The buffer
+     */
+    public void readInto(final long from, final int count, final Coordinate3iBuffer buffer) {
+        this.checkRange(from, count);
+        buffer.ensureCapacity(buffer.size() + count);
+        for (int i = 0; i < count; i++) {
+            final long index = from + i;
+            final ByteBuffer segment = this.mapping.segment(index);
+            final int offset = this.mapping.offset(index);
+            buffer.add(segment.getInt(offset), segment.getInt(offset + 4), segment.getInt(offset + 8));
+        }
+    }
+
+    /**
+     * Establishes whether the store is backed by a file.
+     *
+     * @return {@code true} if the store is backed by a file
+     */
+    public boolean isPersistent() {
+        return this.mapping.isPersistent();
+    }
+
+    /**
+     * Forces any changes to a file-backed store to be written to disk.
+     */
+    public void flush() {
+        this.mapping.flush();
+    }
+
+    /**
+     * Flushes and closes a file-backed store. The mapped memory is
+     * released once the store is garbage collected.
+     *
+     * @throws IOException If the file could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.mapping.close();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("size", this.size)
+                .add("capacity", this.capacity())
+                .add("persistent", this.isPersistent())
+                .toString();
+    }
+
+    private void put(final long index, final int x, final int y, final int z) {
+        final ByteBuffer segment = this.mapping.segment(index);
+        final int offset = this.mapping.offset(index);
+        segment.putInt(offset, x);
+        segment.putInt(offset + 4, y);
+        segment.putInt(offset + 8, z);
+    }
+
+    private void checkIndex(final long index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("index (" + index + ") must be within [0, " + this.size + ")");
+        }
+    }
+
+    private void checkRange(final long from, final int count) {
+        if (from < 0 || count < 0 || from + count > this.size) {
+            throw new IndexOutOfBoundsException("range [" + from + ", " + (from + count) + ") must be within [0, " + this.size + "]");
+        }
+    }
+
+}
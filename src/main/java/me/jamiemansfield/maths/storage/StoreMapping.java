@@ -0,0 +1,265 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.storage;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The memory backing a coordinate store, either direct buffers or
+ * memory-mapped regions of a file.
+ *
+ * <p>A store consists of a 16 byte header - holding a magic number,
+ * the type of record, and the number of records - followed by the
+ * fixed-size records themselves. All values are little-endian.</p>
+ *
+ * <p>As a single {@link ByteBuffer} cannot exceed 2GB, the records are
+ * split across segments of {@code 2^SEGMENT_SHIFT} records each.</p>
+ */
+final class StoreMapping implements Closeable {
+
+    static final int MAGIC = 0x4D435244; // MCRD
+    static final int HEADER_SIZE = 16;
+
+    private static final int TYPE_OFFSET = 4;
+    private static final int SIZE_OFFSET = 8;
+    private static final int SEGMENT_SHIFT = 26;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    /**
+     * Allocates an off-heap mapping, backed by direct buffers.
+     *
+     * @param type The record type
+     * @param recordSize The size of a record, in bytes
+     * @param capacity The maximum number of records
+     * @return The mapping
+     */
+    static StoreMapping allocate(final int type, final int recordSize, final long capacity) {
+        checkArgument(capacity >= 0, "capacity cannot be negative");
+        final ByteBuffer header = ByteBuffer.allocateDirect(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        final ByteBuffer[] segments = new ByteBuffer[segmentCount(capacity)];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = ByteBuffer.allocateDirect(segmentBytes(i, recordSize, capacity)).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        final StoreMapping mapping = new StoreMapping(null, header, segments, recordSize, capacity);
+        mapping.writeHeader(type);
+        return mapping;
+    }
+
+    /**
+     * Creates a new file of the given capacity, replacing any existing
+     * file, and maps it.
+     *
+     * @param path The path of the file
+     * @param type The record type
+     * @param recordSize The size of a record, in bytes
+     * @param capacity The maximum number of records
+     * @return The mapping
+     * @throws IOException If the file could not be created
+     */
+    static StoreMapping create(final Path path, final int type, final int recordSize, final long capacity) throws IOException {
+        checkArgument(capacity >= 0, "capacity cannot be negative");
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            final StoreMapping mapping = map(channel, FileChannel.MapMode.READ_WRITE, recordSize, capacity);
+            mapping.writeHeader(type);
+            return mapping;
+        } catch (final IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Maps an existing file, without reading any of its records.
+     *
+     * @param path The path of the file
+     * @param type The expected record type
+     * @param recordSize The size of a record, in bytes
+     * @param readOnly Whether the file should be mapped read-only
+     * @return The mapping
+     * @throws IOException If the file could not be read, or is not a
+     *                     store of the expected type
+     */
+    static StoreMapping open(final Path path, final int type, final int recordSize, final boolean readOnly) throws IOException {
+        final FileChannel channel = readOnly ?
+                FileChannel.open(path, StandardOpenOption.READ) :
+                FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            final long length = channel.size();
+            if (length < HEADER_SIZE) {
+                throw new IOException(path + " is too short to be a coordinate store");
+            }
+            final StoreMapping mapping = map(channel, readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE,
+                    recordSize, (length - HEADER_SIZE) / recordSize);
+            if (mapping.header.getInt(0) != MAGIC) {
+                throw new IOException(path + " is not a coordinate store");
+            }
+            if (mapping.header.getInt(TYPE_OFFSET) != type) {
+                throw new IOException(path + " holds records of type " + mapping.header.getInt(TYPE_OFFSET) + ", not " + type);
+            }
+            if (mapping.size() < 0 || mapping.size() > mapping.capacity) {
+                throw new IOException(path + " has a corrupt record count");
+            }
+            return mapping;
+        } catch (final IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    private static StoreMapping map(final FileChannel channel, final FileChannel.MapMode mode, final int recordSize,
+            final long capacity) throws IOException {
+        final MappedByteBuffer header = channel.map(mode, 0, HEADER_SIZE);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        final ByteBuffer[] segments = new ByteBuffer[segmentCount(capacity)];
+        for (int i = 0; i < segments.length; i++) {
+            final long position = HEADER_SIZE + ((long) i << SEGMENT_SHIFT) * recordSize;
+            segments[i] = channel.map(mode, position, segmentBytes(i, recordSize, capacity)).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return new StoreMapping(channel, header, segments, recordSize, capacity);
+    }
+
+    private static int segmentCount(final long capacity) {
+        return (int) ((capacity + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+    }
+
+    private static int segmentBytes(final int segment, final int recordSize, final long capacity) {
+        final long records = Math.min(1L << SEGMENT_SHIFT, capacity - ((long) segment << SEGMENT_SHIFT));
+        return (int) (records * recordSize);
+    }
+
+    private final FileChannel channel;
+    private final ByteBuffer header;
+    private final ByteBuffer[] segments;
+    private final int recordSize;
+    private final long capacity;
+
+    private StoreMapping(final FileChannel channel, final ByteBuffer header, final ByteBuffer[] segments, final int recordSize,
+            final long capacity) {
+        this.channel = channel;
+        this.header = header;
+        this.segments = segments;
+        this.recordSize = recordSize;
+        this.capacity = capacity;
+    }
+
+    private void writeHeader(final int type) {
+        this.header.putInt(0, MAGIC);
+        this.header.putInt(TYPE_OFFSET, type);
+        this.header.putLong(SIZE_OFFSET, 0);
+    }
+
+    /**
+     * Gets the maximum number of records in the mapping.
+     *
+     * @return The capacity
+     */
+    long capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Gets the number of records in the mapping, as recorded in the header.
+     *
+     * @return The size
+     */
+    long size() {
+        return this.header.getLong(SIZE_OFFSET);
+    }
+
+    /**
+     * Sets the number of records in the mapping.
+     *
+     * @param size The size
+     */
+    void setSize(final long size) {
+        this.header.putLong(SIZE_OFFSET, size);
+    }
+
+    /**
+     * Gets the segment holding the record at the given index.
+     *
+     * @param index The index of the record
+     * @return The segment
+     */
+    ByteBuffer segment(final long index) {
+        return this.segments[(int) (index >>> SEGMENT_SHIFT)];
+    }
+
+    /**
+     * Gets the offset of the record at the given index, within its
+     * segment.
+     *
+     * @param index The index of the record
+     * @return The offset
+     */
+    int offset(final long index) {
+        return (int) (index & SEGMENT_MASK) * this.recordSize;
+    }
+
+    /**
+     * Establishes whether the mapping is backed by a file.
+     *
+     * @return {@code true} if the mapping is backed by a file
+     */
+    boolean isPersistent() {
+        return this.channel != null;
+    }
+
+    /**
+     * Forces any changes to a file-backed mapping to be written to disk.
+     */
+    void flush() {
+        // Memory-only mappings are direct buffers, which force rejects on
+        // Java 8 rather than ignoring
+        if (!this.isPersistent() || this.header.isReadOnly()) {
+            return;
+        }
+        ((MappedByteBuffer) this.header).force();
+        for (final ByteBuffer segment : this.segments) {
+            ((MappedByteBuffer) segment).force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.channel != null) {
+            this.flush();
+            this.channel.close();
+        }
+    }
+
+}
@@ -0,0 +1,328 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.bounds;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import me.jamiemansfield.maths.coord.Coordinate2d;
+import me.jamiemansfield.maths.coord.Coordinate2f;
+import me.jamiemansfield.maths.coord.Coordinate2i;
+import me.jamiemansfield.maths.coord.Coordinate2l;
+import me.jamiemansfield.maths.coord.Coordinate3d;
+import me.jamiemansfield.maths.coord.Coordinate3f;
+import me.jamiemansfield.maths.coord.Coordinate3i;
+import me.jamiemansfield.maths.coord.Coordinate3iBuffer;
+import me.jamiemansfield.maths.coord.Coordinate3l;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public final class BoundsTest {
+
+    // large enough for the range to be split across the pool
+    private static final int LARGE = 100_000;
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterClass
+    public static void shutdown() {
+        POOL.shutdown();
+    }
+
+    @Test
+    public void bounds3iBoundingMatchesNaive() {
+        final Random random = new Random(1);
+        final int[] xs = random.ints(LARGE).toArray();
+        final int[] ys = random.ints(LARGE).toArray();
+        final int[] zs = random.ints(LARGE).toArray();
+        final Bounds3i expected = new Bounds3i(min(xs, 5, LARGE - 5), min(ys, 5, LARGE - 5), min(zs, 5, LARGE - 5),
+                max(xs, 5, LARGE - 5), max(ys, 5, LARGE - 5), max(zs, 5, LARGE - 5));
+        assertEquals(expected, Bounds3i.bounding(xs, ys, zs, 5, LARGE - 5, POOL));
+        assertEquals(expected, Bounds3i.bounding(IntStream.range(5, LARGE - 5)
+                .mapToObj(i -> new Coordinate3i(xs[i], ys[i], zs[i]))
+                .parallel()));
+
+        final Coordinate3iBuffer buffer = new Coordinate3iBuffer();
+        buffer.add(3, -4, 5);
+        buffer.add(-3, 4, 0);
+        assertEquals(new Bounds3i(-3, -4, 0, 3, 4, 5), Bounds3i.bounding(buffer, POOL));
+    }
+
+    @Test
+    public void bounds3iBoundingOfNothingIsNull() {
+        final int[] xs = new int[4];
+        assertNull(Bounds3i.bounding(xs, xs, xs, 2, 2, POOL));
+        assertNull(Bounds3i.bounding(new Coordinate3iBuffer(), POOL));
+        assertNull(Bounds3i.bounding(Stream.empty()));
+        assertTrue(new Bounds3i.Builder().isEmpty());
+        assertThrows(IllegalStateException.class, () -> new Bounds3i.Builder().build());
+        assertThrows(IndexOutOfBoundsException.class, () -> Bounds3i.bounding(xs, xs, xs, 3, 2, POOL));
+        assertThrows(IndexOutOfBoundsException.class, () -> Bounds3i.bounding(xs, xs, xs, 0, 5, POOL));
+        assertThrows(IllegalArgumentException.class, () -> Bounds3i.bounding(xs, xs, new int[2], 0, 4, POOL));
+    }
+
+    @Test
+    public void bounds3iSpansEveryInt() {
+        final Bounds3i all = Bounds3i.of(new Coordinate3i(Integer.MIN_VALUE, Integer.MIN_VALUE, 0),
+                new Coordinate3i(Integer.MAX_VALUE, Integer.MAX_VALUE, 0));
+        assertEquals(1L << 32, all.getSizeX());
+        assertEquals(1L << 32, all.getSizeY());
+        assertEquals(1, all.getSizeZ());
+        assertTrue(all.contains(Integer.MIN_VALUE, Integer.MAX_VALUE, 0));
+        assertFalse(all.contains(0, 0, 1));
+        assertThrows(ArithmeticException.class, () -> all.expand(1));
+        assertThrows(ArithmeticException.class, () -> all.expand(0, 0, Integer.MIN_VALUE));
+        assertEquals(new Bounds3i(Integer.MIN_VALUE + 1, Integer.MIN_VALUE, 0, Integer.MAX_VALUE - 1, Integer.MAX_VALUE, 0),
+                all.expand(-1, 0, 0));
+    }
+
+    @Test
+    public void bounds3iCombinesBoxes() {
+        final Bounds3i box = new Bounds3i(0, 0, 0, 4, 4, 4);
+        final Bounds3i touching = new Bounds3i(4, 4, 4, 8, 8, 8);
+        final Bounds3i apart = new Bounds3i(5, 0, 0, 8, 4, 4);
+        assertTrue(box.intersects(touching));
+        assertEquals(new Bounds3i(4, 4, 4, 4, 4, 4), box.intersection(touching));
+        assertFalse(box.intersects(apart));
+        assertNull(box.intersection(apart));
+        assertEquals(new Bounds3i(0, 0, 0, 8, 8, 8), box.union(touching));
+        assertEquals(new Bounds3i(-1, 0, 0, 4, 4, 9), box.include(-1, 2, 9));
+        assertTrue(box.contains(new Bounds3i(1, 1, 1, 4, 4, 4)));
+        assertFalse(box.contains(touching));
+
+        // a box already containing the other is returned as it is
+        assertSame(box, box.union(new Bounds3i(1, 1, 1, 2, 2, 2)));
+        assertSame(box, box.include(4, 0, 2));
+        assertThrows(IllegalArgumentException.class, () -> box.expand(-3));
+        assertThrows(IllegalArgumentException.class, () -> new Bounds3i(0, 0, 1, 0, 0, 0));
+    }
+
+    @Test
+    public void bounds2iSpansEveryInt() {
+        final Bounds2i all = Bounds2i.of(new Coordinate2i(Integer.MAX_VALUE, Integer.MIN_VALUE),
+                new Coordinate2i(Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertEquals(new Bounds2i(Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE), all);
+        assertEquals(1L << 32, all.getSizeX());
+        assertEquals(1L << 32, all.getSizeY());
+        assertThrows(ArithmeticException.class, () -> all.expand(1, 0));
+        assertThrows(ArithmeticException.class, () -> all.expand(0, 1));
+        assertSame(all, all.union(new Bounds2i(0, 0, 1, 1)));
+    }
+
+    @Test
+    public void bounds2iBoundingMatchesNaive() {
+        final Random random = new Random(2);
+        final int[] xs = random.ints(LARGE).toArray();
+        final int[] ys = random.ints(LARGE).toArray();
+        final Bounds2i expected = new Bounds2i(min(xs, 0, LARGE), min(ys, 0, LARGE), max(xs, 0, LARGE), max(ys, 0, LARGE));
+        assertEquals(expected, Bounds2i.bounding(xs, ys, 0, LARGE, POOL));
+        assertEquals(expected, Bounds2i.bounding(IntStream.range(0, LARGE)
+                .mapToObj(i -> new Coordinate2i(xs[i], ys[i]))
+                .parallel()));
+        assertNull(Bounds2i.bounding(xs, ys, LARGE, LARGE, POOL));
+    }
+
+    @Test
+    public void bounds3lSpansEveryLong() {
+        final Bounds3l all = new Bounds3l(Long.MIN_VALUE, 0, -1, Long.MAX_VALUE, 0, 1);
+        // the size of a box spanning every long overflows, as documented
+        assertEquals(0, all.getSizeX());
+        assertEquals(1, all.getSizeY());
+        assertEquals(3, all.getSizeZ());
+        assertTrue(all.contains(Long.MAX_VALUE, 0, 1));
+        assertThrows(ArithmeticException.class, () -> all.expand(1));
+        assertThrows(ArithmeticException.class, () -> all.expand(0, Long.MIN_VALUE, 0));
+        assertEquals(new Bounds3l(Long.MIN_VALUE, -1, -3, Long.MAX_VALUE, 1, 3), all.expand(0, 1, 2));
+    }
+
+    @Test
+    public void bounds3lBoundingMatchesNaive() {
+        final Random random = new Random(3);
+        final long[] xs = random.longs(LARGE).toArray();
+        final long[] ys = random.longs(LARGE).toArray();
+        final long[] zs = random.longs(LARGE).toArray();
+        final Bounds3l expected = new Bounds3l(min(xs), min(ys), min(zs), max(xs), max(ys), max(zs));
+        assertEquals(expected, Bounds3l.bounding(xs, ys, zs, 0, LARGE, POOL));
+        assertEquals(expected, Bounds3l.bounding(IntStream.range(0, LARGE)
+                .mapToObj(i -> new Coordinate3l(xs[i], ys[i], zs[i]))
+                .parallel()));
+        assertNull(Bounds3l.bounding(Stream.empty()));
+    }
+
+    @Test
+    public void bounds2lSpansEveryLong() {
+        final Bounds2l all = Bounds2l.of(new Coordinate2l(Long.MIN_VALUE, Long.MAX_VALUE), new Coordinate2l(Long.MAX_VALUE, Long.MAX_VALUE));
+        assertEquals(0, all.getSizeX());
+        assertEquals(1, all.getSizeY());
+        assertThrows(ArithmeticException.class, () -> all.expand(0, 1));
+        assertEquals(new Bounds2l(Long.MIN_VALUE + 1, Long.MAX_VALUE, Long.MAX_VALUE - 1, Long.MAX_VALUE), all.expand(-1, 0));
+        assertSame(all, all.include(0, Long.MAX_VALUE));
+        assertEquals(new Bounds2l(Long.MIN_VALUE, 0, Long.MAX_VALUE, Long.MAX_VALUE), all.include(0, 0));
+    }
+
+    @Test
+    public void bounds3dBoundingMatchesNaive() {
+        final Random random = new Random(4);
+        final double[] xs = random.doubles(LARGE, -1e300, 1e300).toArray();
+        final double[] ys = random.doubles(LARGE).toArray();
+        final double[] zs = random.doubles(LARGE, -1, 0).toArray();
+        final Bounds3d expected = new Bounds3d(min(xs), min(ys), min(zs), max(xs), max(ys), max(zs));
+        assertEquals(expected, Bounds3d.bounding(xs, ys, zs, 0, LARGE, POOL));
+        assertEquals(expected, Bounds3d.bounding(IntStream.range(0, LARGE)
+                .mapToObj(i -> new Coordinate3d(xs[i], ys[i], zs[i]))
+                .parallel()));
+    }
+
+    @Test
+    public void bounds3dMeasuresHugeBoxes() {
+        final Bounds3d box = new Bounds3d(Double.MAX_VALUE / 2, 0, -1, Double.MAX_VALUE, 0, 1);
+        // halving the extent keeps the centre finite, where halving the sum would not
+        assertEquals(new Coordinate3d(Double.MAX_VALUE * 0.75, 0, 0), box.getCenter());
+        assertEquals(Double.MAX_VALUE / 2, box.getSizeX(), 0);
+        assertEquals(0, box.getVolume(), 0);
+        assertEquals(Double.POSITIVE_INFINITY, box.expand(Double.MAX_VALUE).getMaxX(), 0);
+    }
+
+    @Test
+    public void bounds3dRejectsInvalidBoxes() {
+        assertThrows(IllegalArgumentException.class, () -> new Bounds3d(Double.NaN, 0, 0, 1, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new Bounds3d(0, 0, 0, 1, 1, -0.5));
+        final Bounds3d box = new Bounds3d(0, 0, 0, 1, 1, 1);
+        assertEquals(new Bounds3d(0.5, 0.5, 0.5, 0.5, 0.5, 0.5), box.expand(-0.5));
+        assertThrows(IllegalArgumentException.class, () -> box.expand(-0.75));
+        assertNull(box.intersection(new Bounds3d(1.5, 0, 0, 2, 1, 1)));
+    }
+
+    @Test
+    public void bounds3fMeasuresInDouble() {
+        final Bounds3f box = new Bounds3f(-0x1p65f, -0x1p65f, -0x1p65f, 0x1p65f, 0x1p65f, 0x1p65f);
+        // the volume overflows a float, but not the double it is computed in
+        assertEquals(0x1p198, box.getVolume(), 0);
+        assertEquals(new Coordinate3f(0, 0, 0), box.getCenter());
+        assertEquals(new Bounds3f(-1, -2, -3, 1, 2, 3), Bounds3f.of(new Coordinate3f(1, -2, 3), new Coordinate3f(-1, 2, -3)));
+        assertNull(Bounds3f.bounding(Stream.empty()));
+    }
+
+    @Test
+    public void bounds2dMeasuresBoxes() {
+        final Bounds2d box = Bounds2d.of(new Coordinate2d(-2, 3), new Coordinate2d(2, -1));
+        assertEquals(16, box.getArea(), 0);
+        assertEquals(new Coordinate2d(0, 1), box.getCenter());
+        assertSame(box, box.union(box.expand(-1)));
+        assertTrue(box.contains(-2, 3));
+        assertFalse(box.contains(-2, Double.NaN));
+    }
+
+    @Test
+    public void bounds2fMeasuresInDouble() {
+        final Random random = new Random(5);
+        final float[] xs = new float[LARGE];
+        final float[] ys = new float[LARGE];
+        for (int i = 0; i < LARGE; i++) {
+            xs[i] = random.nextFloat() * 3e38f;
+            ys[i] = -random.nextFloat();
+        }
+        final Bounds2f bounds = Bounds2f.bounding(xs, ys, 0, LARGE, POOL);
+        assertEquals(new Bounds2f(min(xs), min(ys), max(xs), max(ys)), bounds);
+        assertEquals(0x1p201, new Bounds2f(-0x1p100f, 0, 0x1p100f, 0x1p100f).getArea(), 0);
+        assertEquals(bounds, Bounds2f.bounding(IntStream.range(0, LARGE)
+                .mapToObj(i -> new Coordinate2f(xs[i], ys[i]))
+                .parallel()));
+    }
+
+    private static int min(final int[] values, final int from, final int to) {
+        int min = Integer.MAX_VALUE;
+        for (int i = from; i < to; i++) {
+            min = Math.min(min, values[i]);
+        }
+        return min;
+    }
+
+    private static int max(final int[] values, final int from, final int to) {
+        int max = Integer.MIN_VALUE;
+        for (int i = from; i < to; i++) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+
+    private static long min(final long[] values) {
+        long min = Long.MAX_VALUE;
+        for (final long value : values) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    private static long max(final long[] values) {
+        long max = Long.MIN_VALUE;
+        for (final long value : values) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    private static double min(final double[] values) {
+        double min = Double.POSITIVE_INFINITY;
+        for (final double value : values) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    private static double max(final double[] values) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (final double value : values) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    private static float min(final float[] values) {
+        float min = Float.POSITIVE_INFINITY;
+        for (final float value : values) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    private static float max(final float[] values) {
+        float max = Float.NEGATIVE_INFINITY;
+        for (final float value : values) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+}
@@ -0,0 +1,358 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.bounds;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import me.jamiemansfield.maths.coord.Coordinate2i;
+import me.jamiemansfield.maths.coord.Coordinate2l;
+import me.jamiemansfield.maths.coord.Coordinate3i;
+import me.jamiemansfield.maths.coord.Coordinate3l;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+public final class RegionSpliteratorTest {
+
+    @Test
+    public void coversBounds3iInEveryOrder() {
+        final Random random = new Random(1);
+        for (int trial = 0; trial < 20; trial++) {
+            final int minX = random.nextInt(100) - 50;
+            final int minY = random.nextInt(100) - 50;
+            final int minZ = random.nextInt(100) - 50;
+            final Bounds3i bounds = new Bounds3i(minX, minY, minZ,
+                    minX + random.nextInt(40), minY + random.nextInt(40), minZ + random.nextInt(40));
+            assertCovers(region(bounds), random);
+        }
+    }
+
+    @Test
+    public void coversBounds3lInEveryOrder() {
+        final Random random = new Random(2);
+        for (int trial = 0; trial < 20; trial++) {
+            final long minX = random.nextLong() >> 2;
+            final long minY = random.nextLong() >> 2;
+            final long minZ = random.nextLong() >> 2;
+            final Bounds3l bounds = new Bounds3l(minX, minY, minZ,
+                    minX + random.nextInt(40), minY + random.nextInt(40), minZ + random.nextInt(40));
+            assertCovers(region(bounds), random);
+        }
+    }
+
+    @Test
+    public void coversBounds2iInEveryOrder() {
+        final Random random = new Random(3);
+        for (int trial = 0; trial < 20; trial++) {
+            final int minX = random.nextInt(100) - 50;
+            final int minY = random.nextInt(100) - 50;
+            final Bounds2i bounds = new Bounds2i(minX, minY, minX + random.nextInt(200), minY + random.nextInt(200));
+            assertCovers(region(bounds), random);
+        }
+    }
+
+    @Test
+    public void coversBounds2lInEveryOrder() {
+        final Random random = new Random(4);
+        for (int trial = 0; trial < 20; trial++) {
+            final long minX = random.nextLong() >> 2;
+            final long minY = random.nextLong() >> 2;
+            final Bounds2l bounds = new Bounds2l(minX, minY, minX + random.nextInt(200), minY + random.nextInt(200));
+            assertCovers(region(bounds), random);
+        }
+    }
+
+    @Test
+    public void coversBoundsAtEdgesOfRange() {
+        final Random random = new Random(5);
+        assertCovers(region(new Bounds3i(Integer.MAX_VALUE - 20, Integer.MIN_VALUE, -10, Integer.MAX_VALUE, Integer.MIN_VALUE + 20, 10)), random);
+        assertCovers(region(new Bounds3l(Long.MAX_VALUE - 20, Long.MIN_VALUE, -10, Long.MAX_VALUE, Long.MIN_VALUE + 20, 10)), random);
+        assertCovers(region(new Bounds2i(Integer.MIN_VALUE, Integer.MAX_VALUE - 50, Integer.MIN_VALUE + 50, Integer.MAX_VALUE)), random);
+        assertCovers(region(new Bounds2l(Long.MIN_VALUE, Long.MAX_VALUE - 50, Long.MIN_VALUE + 50, Long.MAX_VALUE)), random);
+    }
+
+    @Test
+    public void coversSingleCellsAtEdgesOfRange() {
+        final Random random = new Random(6);
+        for (final int x : new int[] {Integer.MIN_VALUE, 0, Integer.MAX_VALUE}) {
+            assertCovers(region(new Bounds3i(x, Integer.MAX_VALUE, x, x, Integer.MAX_VALUE, x)), random);
+            assertCovers(region(new Bounds2i(x, Integer.MIN_VALUE, x, Integer.MIN_VALUE)), random);
+        }
+        for (final long x : new long[] {Long.MIN_VALUE, 0, Long.MAX_VALUE}) {
+            assertCovers(region(new Bounds3l(x, Long.MIN_VALUE, x, x, Long.MIN_VALUE, x)), random);
+            assertCovers(region(new Bounds2l(x, Long.MAX_VALUE, x, Long.MAX_VALUE)), random);
+        }
+
+        // a single cell can't be split
+        for (final RegionOrder order : RegionOrder.values()) {
+            final Spliterator<Coordinate3i> spliterator = new Bounds3i(1, 2, 3, 1, 2, 3).spliterator(order);
+            assertNull(spliterator.trySplit());
+            assertEquals(1, spliterator.estimateSize());
+        }
+    }
+
+    @Test
+    public void parallelStreamVisitsEveryCell() {
+        final Bounds3i bounds = new Bounds3i(-30, -20, -10, 33, 43, 53);
+        for (final RegionOrder order : RegionOrder.values()) {
+            final long count = StreamSupport.stream(bounds.spliterator(order), true)
+                    .collect(Collectors.toSet())
+                    .size();
+            assertEquals(order.name(), 64 * 64 * 64, count);
+        }
+    }
+
+    @Test
+    public void rejectsRegionsTooLargeToIndex() {
+        final Bounds3l bounds = new Bounds3l(Long.MIN_VALUE, Long.MIN_VALUE, Long.MIN_VALUE,
+                Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE);
+        for (final RegionOrder order : RegionOrder.values()) {
+            assertThrows(order.name(), IllegalStateException.class, () -> bounds.spliterator(order));
+        }
+    }
+
+    private static <T> void assertCovers(final Region<T> region, final Random random) {
+        for (final RegionOrder order : RegionOrder.values()) {
+            final List<T> expected = new ArrayList<>();
+            for (final long[] offset : reference(order, region)) {
+                expected.add(region.cell(offset[0], offset[1], offset[2]));
+            }
+            final List<T> actual = new ArrayList<>();
+            region.forEach(order, actual::add);
+            assertEquals(region + " in " + order, expected, actual);
+            assertSpliterator(() -> region.spliterator(order), expected, random);
+        }
+    }
+
+    // the offsets of the cells of the region, in the order as documented
+    private static List<long[]> reference(final RegionOrder order, final Region<?> region) {
+        final List<long[]> offsets = new ArrayList<>();
+        switch (order) {
+            case SLAB:
+                slab(0, 0, 0, region.sizeX, region.sizeY, region.sizeZ, offsets);
+                return offsets;
+            case CHUNK: {
+                final long size = RegionOrder.CHUNK_SIZE;
+                final long chunkZ = region.dimensions == 3 ? size : 1;
+                for (long z = 0; z < region.sizeZ; z += chunkZ) {
+                    for (long y = 0; y < region.sizeY; y += size) {
+                        for (long x = 0; x < region.sizeX; x += size) {
+                            slab(x, y, z, Math.min(x + size, region.sizeX), Math.min(y + size, region.sizeY),
+                                    Math.min(z + chunkZ, region.sizeZ), offsets);
+                        }
+                    }
+                }
+                return offsets;
+            }
+            default:
+                slab(0, 0, 0, region.sizeX, region.sizeY, region.sizeZ, offsets);
+                offsets.sort(Comparator.comparingLong(offset -> morton(region.dimensions, offset)));
+                return offsets;
+        }
+    }
+
+    private static void slab(final long minX, final long minY, final long minZ, final long maxX, final long maxY, final long maxZ, final List<long[]> out) {
+        for (long z = minZ; z < maxZ; z++) {
+            for (long y = minY; y < maxY; y++) {
+                for (long x = minX; x < maxX; x++) {
+                    out.add(new long[] {x, y, z});
+                }
+            }
+        }
+    }
+
+    // interleaves the bits of the offsets, x lowest
+    private static long morton(final int dimensions, final long[] offset) {
+        long key = 0;
+        for (int bit = 0; bit * dimensions < 64; bit++) {
+            for (int axis = 0; axis < dimensions && bit * dimensions + axis < 64; axis++) {
+                key |= (offset[axis] >>> bit & 1) << (bit * dimensions + axis);
+            }
+        }
+        return key;
+    }
+
+    // traverses fresh spliterators whole, a cell at a time, and split at
+    // random - all of which must give the cells in the same order
+    private static <T> void assertSpliterator(final Supplier<Spliterator<T>> spliterators, final List<T> expected, final Random random) {
+        final Spliterator<T> whole = spliterators.get();
+        assertTrue(whole.hasCharacteristics(Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SIZED | Spliterator.SUBSIZED));
+        assertEquals(expected.size(), whole.getExactSizeIfKnown());
+        final List<T> actual = new ArrayList<>();
+        whole.forEachRemaining(actual::add);
+        assertEquals(expected, actual);
+        assertEquals(0, whole.estimateSize());
+
+        final Spliterator<T> stepped = spliterators.get();
+        actual.clear();
+        while (stepped.tryAdvance(actual::add)) {
+            assertEquals(expected.size() - actual.size(), stepped.estimateSize());
+        }
+        assertEquals(expected, actual);
+
+        actual.clear();
+        split(spliterators.get(), actual, random);
+        assertEquals(expected, actual);
+    }
+
+    private static <T> void split(final Spliterator<T> spliterator, final List<T> out, final Random random) {
+        // sometimes advance before splitting, so splits start part way
+        // through a chunk
+        if (random.nextInt(4) == 0) {
+            spliterator.tryAdvance(out::add);
+        }
+        final long size = spliterator.estimateSize();
+        final Spliterator<T> prefix = random.nextInt(8) == 0 ? null : spliterator.trySplit();
+        if (prefix == null) {
+            final int before = out.size();
+            spliterator.forEachRemaining(out::add);
+            assertEquals(size, out.size() - before);
+            return;
+        }
+        assertEquals(size, prefix.estimateSize() + spliterator.estimateSize());
+        split(prefix, out, random);
+        split(spliterator, out, random);
+    }
+
+    private static Region<Coordinate3i> region(final Bounds3i bounds) {
+        return new Region<Coordinate3i>(bounds, 3, bounds.getSizeX(), bounds.getSizeY(), bounds.getSizeZ()) {
+            @Override
+            Coordinate3i cell(final long x, final long y, final long z) {
+                return new Coordinate3i((int) (bounds.getMinX() + x), (int) (bounds.getMinY() + y), (int) (bounds.getMinZ() + z));
+            }
+
+            @Override
+            void forEach(final RegionOrder order, final Consumer<Coordinate3i> consumer) {
+                bounds.forEach(order, (x, y, z) -> consumer.accept(new Coordinate3i(x, y, z)));
+            }
+
+            @Override
+            Spliterator<Coordinate3i> spliterator(final RegionOrder order) {
+                return bounds.spliterator(order);
+            }
+        };
+    }
+
+    private static Region<Coordinate3l> region(final Bounds3l bounds) {
+        return new Region<Coordinate3l>(bounds, 3, bounds.getSizeX(), bounds.getSizeY(), bounds.getSizeZ()) {
+            @Override
+            Coordinate3l cell(final long x, final long y, final long z) {
+                return new Coordinate3l(bounds.getMinX() + x, bounds.getMinY() + y, bounds.getMinZ() + z);
+            }
+
+            @Override
+            void forEach(final RegionOrder order, final Consumer<Coordinate3l> consumer) {
+                bounds.forEach(order, (x, y, z) -> consumer.accept(new Coordinate3l(x, y, z)));
+            }
+
+            @Override
+            Spliterator<Coordinate3l> spliterator(final RegionOrder order) {
+                return bounds.spliterator(order);
+            }
+        };
+    }
+
+    private static Region<Coordinate2i> region(final Bounds2i bounds) {
+        return new Region<Coordinate2i>(bounds, 2, bounds.getSizeX(), bounds.getSizeY(), 1) {
+            @Override
+            Coordinate2i cell(final long x, final long y, final long z) {
+                return new Coordinate2i((int) (bounds.getMinX() + x), (int) (bounds.getMinY() + y));
+            }
+
+            @Override
+            void forEach(final RegionOrder order, final Consumer<Coordinate2i> consumer) {
+                bounds.forEach(order, (x, y) -> consumer.accept(new Coordinate2i(x, y)));
+            }
+
+            @Override
+            Spliterator<Coordinate2i> spliterator(final RegionOrder order) {
+                return bounds.spliterator(order);
+            }
+        };
+    }
+
+    private static Region<Coordinate2l> region(final Bounds2l bounds) {
+        return new Region<Coordinate2l>(bounds, 2, bounds.getSizeX(), bounds.getSizeY(), 1) {
+            @Override
+            Coordinate2l cell(final long x, final long y, final long z) {
+                return new Coordinate2l(bounds.getMinX() + x, bounds.getMinY() + y);
+            }
+
+            @Override
+            void forEach(final RegionOrder order, final Consumer<Coordinate2l> consumer) {
+                bounds.forEach(order, (x, y) -> consumer.accept(new Coordinate2l(x, y)));
+            }
+
+            @Override
+            Spliterator<Coordinate2l> spliterator(final RegionOrder order) {
+                return bounds.spliterator(order);
+            }
+        };
+    }
+
+    // a region of any of the bounds types, and its cells by offset from
+    // the minimum - with z size 1 in two dimensions
+    private abstract static class Region<T> {
+
+        private final Object bounds;
+        final int dimensions;
+        final long sizeX;
+        final long sizeY;
+        final long sizeZ;
+
+        Region(final Object bounds, final int dimensions, final long sizeX, final long sizeY, final long sizeZ) {
+            this.bounds = bounds;
+            this.dimensions = dimensions;
+            this.sizeX = sizeX;
+            this.sizeY = sizeY;
+            this.sizeZ = sizeZ;
+        }
+
+        abstract T cell(final long x, final long y, final long z);
+
+        abstract void forEach(final RegionOrder order, final Consumer<T> consumer);
+
+        abstract Spliterator<T> spliterator(final RegionOrder order);
+
+        @Override
+        public String toString() {
+            return this.bounds.toString();
+        }
+
+    }
+
+}
@@ -0,0 +1,450 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import me.jamiemansfield.maths.coord.Coordinate3d;
+import me.jamiemansfield.maths.coord.Coordinate3dBuffer;
+import me.jamiemansfield.maths.coord.Coordinate3f;
+import me.jamiemansfield.maths.coord.Coordinate3fBuffer;
+import me.jamiemansfield.maths.coord.Coordinate3i;
+import me.jamiemansfield.maths.coord.Coordinate3iBuffer;
+import me.jamiemansfield.maths.coord.Coordinate3l;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Random;
+
+/**
+ * Round-trips each of the binary codecs, comparing the bits of each
+ * component - so NaNs, and negative zeroes, must survive exactly.
+ */
+public final class CoordinateCodecTest {
+
+    // enough coordinates to fill several blocks
+    private static final int COUNT = 100_000;
+
+    private static final double[] DOUBLES = {Double.NaN, Double.longBitsToDouble(0x7FF0_0000_0000_0001L), Double.longBitsToDouble(0xFFF8_0000_0000_0042L),
+            Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, -0.0, 0.0, Double.MIN_VALUE, -Double.MAX_VALUE, Double.MAX_VALUE};
+    private static final float[] FLOATS = {Float.NaN, Float.intBitsToFloat(0x7F80_0001), Float.intBitsToFloat(0xFFC0_0042),
+            Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY, -0.0f, 0.0f, Float.MIN_VALUE, -Float.MAX_VALUE, Float.MAX_VALUE};
+    private static final int[] INTS = {Integer.MIN_VALUE, Integer.MAX_VALUE, -1, 0, 1};
+    private static final long[] LONGS = {Long.MIN_VALUE, Long.MAX_VALUE, -1, 0, 1};
+
+    @Test
+    public void coordinate3dRoundTripsEveryBitPattern() throws IOException {
+        final double[][] coords = doubles(new Random(1));
+        final ByteBuffer buffer = ByteBuffer.allocate(COUNT * 32);
+        try (final Coordinate3dEncoder encoder = new Coordinate3dEncoder(buffer)) {
+            for (int i = 0; i < COUNT; i++) {
+                if (i % 2 == 0) {
+                    encoder.write(coords[i][0], coords[i][1], coords[i][2]);
+                } else {
+                    encoder.write(new Coordinate3d(coords[i][0], coords[i][1], coords[i][2]));
+                }
+                if (i % 10_000 == 0) {
+                    // the stream continues across flushes
+                    encoder.flush();
+                }
+            }
+            assertEquals(COUNT, encoder.getCount());
+        }
+        buffer.flip();
+
+        try (final Coordinate3dDecoder decoder = new Coordinate3dDecoder(buffer)) {
+            for (int i = 0; i < COUNT; i++) {
+                assertTrue(decoder.next());
+                if (i % 3 == 0) {
+                    final Coordinate3d coord = decoder.getCoordinate();
+                    assertBits(i, coords[i], coord.getX(), coord.getY(), coord.getZ());
+                } else {
+                    assertBits(i, coords[i], decoder.getX(), decoder.getY(), decoder.getZ());
+                }
+            }
+            assertFalse(decoder.next());
+            assertEquals(COUNT, decoder.getCount());
+        }
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void coordinate3dRoundTripsInBulk() throws IOException {
+        final double[][] coords = doubles(new Random(2));
+        final Coordinate3dBuffer written = new Coordinate3dBuffer(COUNT);
+        for (final double[] coord : coords) {
+            written.add(coord[0], coord[1], coord[2]);
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final Coordinate3dEncoder encoder = new Coordinate3dEncoder(Channels.newChannel(bytes))) {
+            encoder.writeAll(written);
+            assertEquals(COUNT, encoder.getCount());
+        }
+
+        final Coordinate3dBuffer read = new Coordinate3dBuffer();
+        try (final Coordinate3dDecoder decoder = new Coordinate3dDecoder(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())))) {
+            assertEquals(COUNT, decoder.readAll(read));
+            assertEquals(0, decoder.readAll(read));
+        }
+        assertEquals(COUNT, read.size());
+        for (int i = 0; i < COUNT; i++) {
+            assertBits(i, coords[i], read.getX(i), read.getY(i), read.getZ(i));
+        }
+    }
+
+    @Test
+    public void coordinate3fRoundTripsEveryBitPattern() throws IOException {
+        final float[][] coords = floats(new Random(3));
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final Coordinate3fEncoder encoder = new Coordinate3fEncoder((DataOutput) new DataOutputStream(bytes))) {
+            for (int i = 0; i < COUNT; i++) {
+                if (i % 2 == 0) {
+                    encoder.write(coords[i][0], coords[i][1], coords[i][2]);
+                } else {
+                    encoder.write(new Coordinate3f(coords[i][0], coords[i][1], coords[i][2]));
+                }
+                if (i % 10_000 == 0) {
+                    encoder.flush();
+                }
+            }
+            assertEquals(COUNT, encoder.getCount());
+        }
+
+        final DataInput in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        try (final Coordinate3fDecoder decoder = new Coordinate3fDecoder(in)) {
+            for (int i = 0; i < COUNT; i++) {
+                assertTrue(decoder.next());
+                if (i % 3 == 0) {
+                    final Coordinate3f coord = decoder.getCoordinate();
+                    assertBits(i, coords[i], coord.getX(), coord.getY(), coord.getZ());
+                } else {
+                    assertBits(i, coords[i], decoder.getX(), decoder.getY(), decoder.getZ());
+                }
+            }
+            assertFalse(decoder.next());
+            assertEquals(COUNT, decoder.getCount());
+        }
+    }
+
+    @Test
+    public void coordinate3fRoundTripsInBulk() throws IOException {
+        final float[][] coords = floats(new Random(4));
+        final Coordinate3fBuffer written = new Coordinate3fBuffer(COUNT);
+        for (final float[] coord : coords) {
+            written.add(coord[0], coord[1], coord[2]);
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(COUNT * 16);
+        try (final Coordinate3fEncoder encoder = new Coordinate3fEncoder(buffer)) {
+            encoder.writeAll(written);
+        }
+        buffer.flip();
+
+        final Coordinate3fBuffer read = new Coordinate3fBuffer();
+        try (final Coordinate3fDecoder decoder = new Coordinate3fDecoder(buffer)) {
+            assertEquals(COUNT, decoder.readAll(read));
+            assertEquals(COUNT, decoder.getCount());
+        }
+        assertEquals(COUNT, read.size());
+        for (int i = 0; i < COUNT; i++) {
+            assertBits(i, coords[i], read.getX(i), read.getY(i), read.getZ(i));
+        }
+    }
+
+    @Test
+    public void coordinate3iRoundTripsOverflowingDeltas() throws IOException {
+        final int[][] coords = ints(new Random(5));
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final Coordinate3iEncoder encoder = new Coordinate3iEncoder(Channels.newChannel(bytes))) {
+            for (int i = 0; i < COUNT; i++) {
+                if (i % 2 == 0) {
+                    encoder.write(coords[i][0], coords[i][1], coords[i][2]);
+                } else {
+                    encoder.write(new Coordinate3i(coords[i][0], coords[i][1], coords[i][2]));
+                }
+                if (i % 10_000 == 0) {
+                    encoder.flush();
+                }
+            }
+        }
+
+        try (final Coordinate3iDecoder decoder = new Coordinate3iDecoder(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())))) {
+            for (int i = 0; i < COUNT; i++) {
+                assertTrue(decoder.next());
+                final String message = "coordinate " + i;
+                if (i % 3 == 0) {
+                    assertEquals(message, new Coordinate3i(coords[i][0], coords[i][1], coords[i][2]), decoder.getCoordinate());
+                } else {
+                    assertEquals(message, coords[i][0], decoder.getX());
+                    assertEquals(message, coords[i][1], decoder.getY());
+                    assertEquals(message, coords[i][2], decoder.getZ());
+                }
+            }
+            assertFalse(decoder.next());
+            assertEquals(COUNT, decoder.getCount());
+        }
+    }
+
+    @Test
+    public void coordinate3iRoundTripsInBulk() throws IOException {
+        final int[][] coords = ints(new Random(6));
+        final Coordinate3iBuffer written = new Coordinate3iBuffer(COUNT);
+        for (final int[] coord : coords) {
+            written.add(coord[0], coord[1], coord[2]);
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(COUNT * 16);
+        try (final Coordinate3iEncoder encoder = new Coordinate3iEncoder(buffer)) {
+            encoder.writeAll(written);
+        }
+        buffer.flip();
+
+        final Coordinate3iBuffer read = new Coordinate3iBuffer();
+        try (final Coordinate3iDecoder decoder = new Coordinate3iDecoder(buffer)) {
+            assertEquals(COUNT, decoder.readAll(read));
+        }
+        assertEquals(COUNT, read.size());
+        for (int i = 0; i < COUNT; i++) {
+            assertEquals(new Coordinate3i(coords[i][0], coords[i][1], coords[i][2]), read.get(i));
+        }
+    }
+
+    @Test
+    public void coordinate3lRoundTripsOverflowingDeltas() throws IOException {
+        final long[][] coords = longs(new Random(7));
+        final ByteBuffer buffer = ByteBuffer.allocate(COUNT * 32);
+        try (final Coordinate3lEncoder encoder = new Coordinate3lEncoder(buffer)) {
+            for (int i = 0; i < COUNT; i++) {
+                if (i % 2 == 0) {
+                    encoder.write(coords[i][0], coords[i][1], coords[i][2]);
+                } else {
+                    encoder.write(new Coordinate3l(coords[i][0], coords[i][1], coords[i][2]));
+                }
+                if (i % 10_000 == 0) {
+                    encoder.flush();
+                }
+            }
+            assertEquals(COUNT, encoder.getCount());
+        }
+        buffer.flip();
+
+        try (final Coordinate3lDecoder decoder = new Coordinate3lDecoder(buffer)) {
+            for (int i = 0; i < COUNT; i++) {
+                assertTrue(decoder.next());
+                final String message = "coordinate " + i;
+                if (i % 3 == 0) {
+                    assertEquals(message, new Coordinate3l(coords[i][0], coords[i][1], coords[i][2]), decoder.getCoordinate());
+                } else {
+                    assertEquals(message, coords[i][0], decoder.getX());
+                    assertEquals(message, coords[i][1], decoder.getY());
+                    assertEquals(message, coords[i][2], decoder.getZ());
+                }
+            }
+            assertFalse(decoder.next());
+            assertEquals(COUNT, decoder.getCount());
+        }
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void emptyStreamsHoldNoCoordinates() throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+        new Coordinate3dEncoder(buffer).close();
+        buffer.flip();
+        try (final Coordinate3dDecoder decoder = new Coordinate3dDecoder(buffer)) {
+            assertFalse(decoder.next());
+            assertEquals(0, decoder.readAll(new Coordinate3dBuffer()));
+            assertEquals(0, decoder.getCount());
+        }
+
+        buffer.clear();
+        new Coordinate3fEncoder(buffer).close();
+        buffer.flip();
+        try (final Coordinate3fDecoder decoder = new Coordinate3fDecoder(buffer)) {
+            assertFalse(decoder.next());
+        }
+
+        buffer.clear();
+        new Coordinate3iEncoder(buffer).close();
+        buffer.flip();
+        try (final Coordinate3iDecoder decoder = new Coordinate3iDecoder(buffer)) {
+            assertFalse(decoder.next());
+        }
+
+        buffer.clear();
+        new Coordinate3lEncoder(buffer).close();
+        buffer.flip();
+        try (final Coordinate3lDecoder decoder = new Coordinate3lDecoder(buffer)) {
+            assertFalse(decoder.next());
+            assertEquals(0, decoder.getCount());
+        }
+    }
+
+    @Test
+    public void decodersRejectStreamsOfOtherTypes() throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+        new Coordinate3iEncoder(buffer).close();
+        buffer.flip();
+        assertThrows(IOException.class, () -> new Coordinate3dDecoder(buffer.duplicate()));
+        assertThrows(IOException.class, () -> new Coordinate3lDecoder(buffer.duplicate()));
+
+        buffer.clear();
+        new Coordinate3dEncoder(buffer).close();
+        buffer.flip();
+        assertThrows(IOException.class, () -> new Coordinate3fDecoder(buffer.duplicate()));
+        assertThrows(IOException.class, () -> new Coordinate3iDecoder(buffer.duplicate()));
+
+        // nor anything that is not a coordinate stream at all
+        final ByteBuffer garbage = ByteBuffer.wrap(new byte[] {'n', 'o', 'p', 'e', 0, 0, 0, 0});
+        assertThrows(IOException.class, () -> new Coordinate3dDecoder(garbage));
+    }
+
+    // a mix of random walks, repeats, large jumps and special values, to
+    // exercise every width of the encoding
+
+    private static double[][] doubles(final Random random) {
+        final double[][] coords = new double[COUNT][3];
+        for (int axis = 0; axis < 3; axis++) {
+            double previous = 0;
+            for (int i = 0; i < COUNT; i++) {
+                switch (random.nextInt(6)) {
+                    case 0:
+                        break;
+                    case 1:
+                        previous = DOUBLES[random.nextInt(DOUBLES.length)];
+                        break;
+                    case 2:
+                        previous = random.nextGaussian() * 1e6;
+                        break;
+                    case 3:
+                        previous = Double.longBitsToDouble(random.nextLong());
+                        break;
+                    default:
+                        previous += random.nextGaussian();
+                }
+                coords[i][axis] = previous;
+            }
+        }
+        return coords;
+    }
+
+    private static float[][] floats(final Random random) {
+        final float[][] coords = new float[COUNT][3];
+        for (int axis = 0; axis < 3; axis++) {
+            float previous = 0;
+            for (int i = 0; i < COUNT; i++) {
+                switch (random.nextInt(6)) {
+                    case 0:
+                        break;
+                    case 1:
+                        previous = FLOATS[random.nextInt(FLOATS.length)];
+                        break;
+                    case 2:
+                        previous = (float) random.nextGaussian() * 1e6f;
+                        break;
+                    case 3:
+                        previous = Float.intBitsToFloat(random.nextInt());
+                        break;
+                    default:
+                        previous += (float) random.nextGaussian();
+                }
+                coords[i][axis] = previous;
+            }
+        }
+        return coords;
+    }
+
+    private static int[][] ints(final Random random) {
+        final int[][] coords = new int[COUNT][3];
+        for (int axis = 0; axis < 3; axis++) {
+            int previous = 0;
+            for (int i = 0; i < COUNT; i++) {
+                switch (random.nextInt(6)) {
+                    case 0:
+                        break;
+                    case 1:
+                        // jumps between the limits overflow the deltas
+                        previous = INTS[random.nextInt(INTS.length)];
+                        break;
+                    case 2:
+                        previous = random.nextInt();
+                        break;
+                    default:
+                        previous += random.nextInt(201) - 100;
+                }
+                coords[i][axis] = previous;
+            }
+        }
+        return coords;
+    }
+
+    private static long[][] longs(final Random random) {
+        final long[][] coords = new long[COUNT][3];
+        for (int axis = 0; axis < 3; axis++) {
+            long previous = 0;
+            for (int i = 0; i < COUNT; i++) {
+                switch (random.nextInt(6)) {
+                    case 0:
+                        break;
+                    case 1:
+                        previous = LONGS[random.nextInt(LONGS.length)];
+                        break;
+                    case 2:
+                        previous = random.nextLong();
+                        break;
+                    default:
+                        previous += random.nextInt(201) - 100;
+                }
+                coords[i][axis] = previous;
+            }
+        }
+        return coords;
+    }
+
+    private static void assertBits(final int index, final double[] expected, final double x, final double y, final double z) {
+        final String message = "coordinate " + index;
+        assertEquals(message, Double.doubleToRawLongBits(expected[0]), Double.doubleToRawLongBits(x));
+        assertEquals(message, Double.doubleToRawLongBits(expected[1]), Double.doubleToRawLongBits(y));
+        assertEquals(message, Double.doubleToRawLongBits(expected[2]), Double.doubleToRawLongBits(z));
+    }
+
+    private static void assertBits(final int index, final float[] expected, final float x, final float y, final float z) {
+        final String message = "coordinate " + index;
+        assertEquals(message, Float.floatToRawIntBits(expected[0]), Float.floatToRawIntBits(x));
+        assertEquals(message, Float.floatToRawIntBits(expected[1]), Float.floatToRawIntBits(y));
+        assertEquals(message, Float.floatToRawIntBits(expected[2]), Float.floatToRawIntBits(z));
+    }
+
+}
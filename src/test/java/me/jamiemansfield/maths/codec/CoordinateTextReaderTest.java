@@ -0,0 +1,271 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import me.jamiemansfield.maths.coord.Coordinate2fBuffer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+public final class CoordinateTextReaderTest {
+
+    private static final int COUNT = 50_000;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void roundTripsDoubles() throws IOException {
+        final Random random = new Random(1);
+        final double[] values = new double[COUNT * 3];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = randomDouble(random);
+        }
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final CoordinateTextWriter writer = new CoordinateTextWriter(bytes)) {
+            for (int i = 0; i < values.length; i += 3) {
+                writer.write(values[i], values[i + 1], values[i + 2]);
+            }
+            assertEquals(COUNT, writer.getCount());
+        }
+
+        try (final CoordinateTextReader reader = new CoordinateTextReader(new ByteArrayInputStream(bytes.toByteArray()), 3)) {
+            for (int i = 0; i < values.length; i += 3) {
+                assertTrue(reader.next());
+                // compared by their bits, so -0.0 and NaN round trip too
+                for (int axis = 0; axis < 3; axis++) {
+                    assertEquals("line " + i / 3, Double.doubleToLongBits(values[i + axis]),
+                            Double.doubleToLongBits(reader.getDouble(axis)));
+                }
+            }
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    public void roundTripsFloats() throws IOException {
+        final Random random = new Random(2);
+        final Coordinate2fBuffer buffer = new Coordinate2fBuffer(COUNT);
+        for (int i = 0; i < COUNT; i++) {
+            buffer.add((float) randomDouble(random), Float.intBitsToFloat(random.nextInt()));
+        }
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final CoordinateTextWriter writer = new CoordinateTextWriter(bytes, '\t')) {
+            writer.writeAll(buffer);
+        }
+
+        final Coordinate2fBuffer read = new Coordinate2fBuffer();
+        try (final CoordinateTextReader reader = new CoordinateTextReader(new ByteArrayInputStream(bytes.toByteArray()), 2)) {
+            assertEquals(COUNT, reader.readAll(read));
+        }
+        for (int i = 0; i < COUNT; i++) {
+            assertEquals("line " + i, Float.floatToIntBits(buffer.getX(i)), Float.floatToIntBits(read.getX(i)));
+            assertEquals("line " + i, Float.floatToIntBits(buffer.getY(i)), Float.floatToIntBits(read.getY(i)));
+        }
+    }
+
+    @Test
+    public void roundTripsIntegers() throws IOException {
+        final Random random = new Random(3);
+        final long[] values = new long[COUNT * 3];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(4) == 0 ? random.nextLong() : random.nextInt();
+        }
+        values[0] = Long.MIN_VALUE;
+        values[1] = Long.MAX_VALUE;
+
+        final ByteBuffer buffer = ByteBuffer.allocate(values.length * TextNumbers.MAX_LENGTH);
+        try (final CoordinateTextWriter writer = new CoordinateTextWriter(buffer, ' ')) {
+            for (int i = 0; i < values.length; i += 3) {
+                writer.write(values[i], values[i + 1], values[i + 2]);
+            }
+        }
+        buffer.flip();
+
+        try (final CoordinateTextReader reader = new CoordinateTextReader(buffer, 3)) {
+            for (int i = 0; i < values.length; i += 3) {
+                assertTrue(reader.next());
+                for (int axis = 0; axis < 3; axis++) {
+                    final long value = values[i + axis];
+                    assertEquals("line " + i / 3, value, reader.getLong(axis));
+                    if (value == (int) value) {
+                        assertEquals("line " + i / 3, (int) value, reader.getInt(axis));
+                    } else {
+                        final int line = i / 3;
+                        final int component = axis;
+                        assertThrows("line " + line, NumberFormatException.class, () -> reader.getInt(component));
+                    }
+                }
+            }
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    public void skipsBlankLinesAndComments() throws IOException {
+        final String text = "# x, y\n\n1,2\r\n  3 ; 4 \n#5,6\n\t\n7\t, 8";
+        try (final CoordinateTextReader reader = reader(text, 2)) {
+            for (int i = 1; i < 8; i += 2) {
+                if (i == 5) {
+                    continue;
+                }
+                assertTrue(reader.next());
+                assertEquals(i, reader.getInt(0));
+                assertEquals(i + 1, reader.getInt(1));
+            }
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    public void skipsHeaderLine() throws IOException {
+        try (final CoordinateTextReader reader = reader("x,y,z\n1,2,3\n", 3)) {
+            assertTrue(reader.skipLine());
+            assertTrue(reader.next());
+            assertEquals(3, reader.getInt(2));
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    public void splitReadsEveryLineOnce() throws IOException {
+        final Path path = this.folder.newFile("coordinates.csv").toPath();
+        try (final OutputStream out = Files.newOutputStream(path);
+             final CoordinateTextWriter writer = new CoordinateTextWriter(out)) {
+            for (int i = 0; i < COUNT; i++) {
+                writer.write(i, -i);
+            }
+        }
+
+        for (int parts = 1; parts <= 7; parts++) {
+            final List<CoordinateTextReader> readers = CoordinateTextReader.split(path, 2, parts);
+            assertEquals(parts, readers.size());
+            int expected = 0;
+            for (final CoordinateTextReader reader : readers) {
+                try (final CoordinateTextReader open = reader) {
+                    while (open.next()) {
+                        assertEquals(parts + " parts", expected, open.getInt(0));
+                        assertEquals(parts + " parts", -expected, open.getInt(1));
+                        expected++;
+                    }
+                }
+            }
+            assertEquals(parts + " parts", COUNT, expected);
+        }
+    }
+
+    @Test
+    public void roundTripsEverySeparator() throws IOException {
+        for (final char separator : new char[] {',', ';', ' ', '\t', '\r'}) {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (final CoordinateTextWriter writer = new CoordinateTextWriter(bytes, separator)) {
+                writer.write(1.5, -2.5, 0.0);
+                writer.write(Long.MIN_VALUE, 0, Long.MAX_VALUE);
+            }
+
+            try (final CoordinateTextReader reader = new CoordinateTextReader(new ByteArrayInputStream(bytes.toByteArray()), 3)) {
+                final String message = "separator " + (int) separator;
+                assertTrue(message, reader.next());
+                assertEquals(message, 1.5, reader.getDouble(0), 0);
+                assertEquals(message, -2.5, reader.getDouble(1), 0);
+                assertEquals(message, 0.0, reader.getDouble(2), 0);
+                assertTrue(message, reader.next());
+                assertEquals(message, Long.MIN_VALUE, reader.getLong(0));
+                assertEquals(message, Long.MAX_VALUE, reader.getLong(2));
+                assertFalse(message, reader.next());
+            }
+        }
+    }
+
+    @Test
+    public void rejectsSeparatorsTheReaderDoesNotSplitOn() {
+        for (final char separator : new char[] {'|', ':', '+', '/', '\n', '#', '-', '.', 'x', '0'}) {
+            assertThrows(IllegalArgumentException.class, () -> new CoordinateTextWriter(new ByteArrayOutputStream(), separator));
+        }
+    }
+
+    @Test
+    public void rejectsLineWithTooFewComponents() throws IOException {
+        try (final CoordinateTextReader reader = reader("1,2,3\n4,5\n", 3)) {
+            assertTrue(reader.next());
+            assertThrows(IOException.class, reader::next);
+        }
+    }
+
+    @Test
+    public void rejectsLineWithTooManyComponents() throws IOException {
+        try (final CoordinateTextReader reader = reader("1,2,3\n", 2)) {
+            assertThrows(IOException.class, reader::next);
+        }
+    }
+
+    @Test
+    public void rejectsComponentThatIsNotNumber() throws IOException {
+        try (final CoordinateTextReader reader = reader("1,two\n", 2)) {
+            assertTrue(reader.next());
+            assertEquals(1, reader.getDouble(0), 0);
+            assertThrows(NumberFormatException.class, () -> reader.getDouble(1));
+        }
+    }
+
+    private static CoordinateTextReader reader(final String text, final int dimensions) {
+        return new CoordinateTextReader(ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII)), dimensions);
+    }
+
+    // measured-looking decimals, which take the fast paths, mixed with
+    // arbitrary bits and special values, which don't
+    private static double randomDouble(final Random random) {
+        switch (random.nextInt(5)) {
+            case 0:
+                return Double.longBitsToDouble(random.nextLong());
+            case 1:
+                final double[] specials = {Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, -0.0, 0.0, Double.MIN_VALUE,
+                        Double.MAX_VALUE};
+                return specials[random.nextInt(specials.length)];
+            default:
+                return Math.round(random.nextGaussian() * 1e6) / Math.pow(10, random.nextInt(8));
+        }
+    }
+
+}
@@ -0,0 +1,197 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.coord;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class ConcurrentCoordinate3lMapTest {
+
+    private static final long[] EXTREMES = {Long.MIN_VALUE, Long.MIN_VALUE + 1, -1, 0, 1, Long.MAX_VALUE - 1, Long.MAX_VALUE};
+
+    @Test
+    public void matchesHashMap() {
+        final Random random = new Random(1);
+        for (final int concurrencyLevel : new int[] {1, 3, 64}) {
+            final ConcurrentCoordinate3lMap<Integer> map = new ConcurrentCoordinate3lMap<>(0, concurrencyLevel);
+            final Map<Coordinate3l, Integer> expected = new HashMap<>();
+            for (int step = 0; step < 200_000; step++) {
+                final Coordinate3l key = key(random);
+                final long x = key.getX();
+                final long y = key.getY();
+                final long z = key.getZ();
+                final Integer value = random.nextInt(100);
+                switch (random.nextInt(10)) {
+                    case 0:
+                        assertEquals(expected.put(key, value), map.put(x, y, z, value));
+                        break;
+                    case 1:
+                        assertEquals(expected.putIfAbsent(key, value), map.putIfAbsent(x, y, z, value));
+                        break;
+                    case 2:
+                        assertEquals(expected.remove(key), map.remove(key));
+                        break;
+                    case 3:
+                        // returning null removes the entry
+                        assertEquals(expected.compute(key, (k, v) -> v == null || v % 3 != 0 ? value : null),
+                                map.compute(x, y, z, (kx, ky, kz, v) -> v == null || v % 3 != 0 ? value : null));
+                        break;
+                    case 4:
+                        assertEquals(expected.computeIfAbsent(key, k -> value), map.computeIfAbsent(key, (kx, ky, kz) -> value));
+                        break;
+                    case 5:
+                        assertEquals(expected.computeIfPresent(key, (k, v) -> v % 2 == 0 ? null : v + value),
+                                map.computeIfPresent(x, y, z, (kx, ky, kz, v) -> v % 2 == 0 ? null : v + value));
+                        break;
+                    case 6:
+                        assertEquals(expected.merge(key, value, (a, b) -> a > 150 ? null : a + b), map.merge(key, value, (a, b) -> a > 150 ? null : a + b));
+                        break;
+                    case 7:
+                        assertEquals(expected.getOrDefault(key, -1), map.getOrDefault(x, y, z, -1));
+                        break;
+                    case 8:
+                        assertEquals(expected.containsKey(key), map.containsKey(key));
+                        break;
+                    default:
+                        assertEquals(expected.get(key), map.get(key));
+                        break;
+                }
+
+                if (step % 10_000 == 0) {
+                    assertMatches(expected, map);
+                }
+            }
+            assertMatches(expected, map);
+
+            map.clear();
+            expected.clear();
+            assertMatches(expected, map);
+            assertTrue(map.isEmpty());
+        }
+    }
+
+    @Test
+    public void updatesAtomicallyAcrossThreads() throws InterruptedException {
+        final int threads = 8;
+        final int keys = 1_000;
+        final int rounds = 50;
+        final ConcurrentCoordinate3lMap<Integer> map = new ConcurrentCoordinate3lMap<>(0, 2);
+        final Map<Coordinate3l, AtomicInteger> computed = new ConcurrentHashMap<>();
+        final List<Thread> workers = new ArrayList<>();
+        final List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final Random random = new Random(t);
+            final Thread worker = new Thread(() -> {
+                for (int round = 0; round < rounds; round++) {
+                    for (int i = 0; i < keys; i++) {
+                        final long k = (i * 7919L + round) % keys;
+                        map.merge(k, -k, k * 31 + 1, 1, Integer::sum);
+                        map.computeIfAbsent(k, k, k, (x, y, z) -> {
+                            computed.computeIfAbsent(new Coordinate3l(x, y, z), c -> new AtomicInteger()).incrementAndGet();
+                            return random.nextInt();
+                        });
+                        map.get(k, -k, k * 31 + 1);
+                    }
+                }
+            });
+            worker.setUncaughtExceptionHandler((thread, ex) -> {
+                synchronized (failures) {
+                    failures.add(ex);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (final Thread worker : workers) {
+            worker.join();
+        }
+        assertTrue(failures.toString(), failures.isEmpty());
+
+        assertEquals(keys * 2, map.size());
+        for (long k = 0; k < keys; k++) {
+            assertEquals(Integer.valueOf(threads * rounds), map.get(k, -k, k * 31 + 1));
+            assertEquals(1, computed.get(new Coordinate3l(k, k, k)).get());
+        }
+    }
+
+    @Test
+    public void stripesForHugeConcurrencyLevels() {
+        assertEquals(1, new ConcurrentCoordinate3lMap<Integer>(0, 1).getSegmentCount());
+        assertEquals(4, new ConcurrentCoordinate3lMap<Integer>(0, 3).getSegmentCount());
+        assertEquals(1 << 16, new ConcurrentCoordinate3lMap<Integer>(0, 1 << 16).getSegmentCount());
+        // levels whose power of two overflows still get every segment
+        for (final int level : new int[] {(1 << 30) + 1, Integer.MAX_VALUE}) {
+            final ConcurrentCoordinate3lMap<Integer> map = new ConcurrentCoordinate3lMap<>(0, level);
+            assertEquals(1 << 16, map.getSegmentCount());
+            map.put(Long.MIN_VALUE, 0, Long.MAX_VALUE, 1);
+            assertEquals(Integer.valueOf(1), map.get(Long.MIN_VALUE, 0, Long.MAX_VALUE));
+        }
+    }
+
+    @Test
+    public void rejectsNulls() {
+        final ConcurrentCoordinate3lMap<Integer> map = new ConcurrentCoordinate3lMap<>();
+        assertThrows(NullPointerException.class, () -> map.put(0, 0, 0, null));
+        assertThrows(NullPointerException.class, () -> map.putIfAbsent(0, 0, 0, null));
+        assertThrows(NullPointerException.class, () -> map.merge(0, 0, 0, null, Integer::sum));
+        assertNull(map.computeIfAbsent(0, 0, 0, (x, y, z) -> null));
+        assertTrue(map.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentCoordinate3lMap<>(-1));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentCoordinate3lMap<>(0, 0));
+    }
+
+    private static void assertMatches(final Map<Coordinate3l, Integer> expected, final ConcurrentCoordinate3lMap<Integer> map) {
+        assertEquals(expected.size(), map.size());
+        final Map<Coordinate3l, Integer> actual = new HashMap<>();
+        map.forEach((x, y, z, value) -> assertNull(actual.put(new Coordinate3l(x, y, z), value)));
+        assertEquals(expected, actual);
+        final List<Coordinate3l> keys = new ArrayList<>();
+        map.forEachKey((x, y, z) -> keys.add(new Coordinate3l(x, y, z)));
+        assertEquals(expected.keySet(), new HashSet<>(keys));
+    }
+
+    private static Coordinate3l key(final Random random) {
+        // a small space of keys, so that entries are often replaced
+        if (random.nextInt(20) == 0) {
+            return new Coordinate3l(EXTREMES[random.nextInt(EXTREMES.length)], EXTREMES[random.nextInt(EXTREMES.length)], random.nextInt(3));
+        }
+        return new Coordinate3l(random.nextInt(40) - 20, random.nextInt(40) - 20, random.nextInt(4));
+    }
+
+}
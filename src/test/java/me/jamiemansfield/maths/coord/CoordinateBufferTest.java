@@ -0,0 +1,890 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.coord;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.flowpowered.math.vector.Vector2d;
+import com.flowpowered.math.vector.Vector2f;
+import com.flowpowered.math.vector.Vector2i;
+import com.flowpowered.math.vector.Vector3d;
+import com.flowpowered.math.vector.Vector3f;
+import com.flowpowered.math.vector.Vector3i;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Checks each of the coordinate buffers against a list of coordinates,
+ * seen through doubles - which hold every int and float exactly.
+ */
+@RunWith(Parameterized.class)
+public final class CoordinateBufferTest {
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> buffers() {
+        return Arrays.asList(new Object[][] {
+                {"Coordinate3dBuffer", (Supplier<Adapter>) Coordinate3dBufferAdapter::new},
+                {"Coordinate3fBuffer", (Supplier<Adapter>) Coordinate3fBufferAdapter::new},
+                {"Coordinate3iBuffer", (Supplier<Adapter>) Coordinate3iBufferAdapter::new},
+                {"Coordinate2dBuffer", (Supplier<Adapter>) Coordinate2dBufferAdapter::new},
+                {"Coordinate2fBuffer", (Supplier<Adapter>) Coordinate2fBufferAdapter::new},
+                {"Coordinate2iBuffer", (Supplier<Adapter>) Coordinate2iBufferAdapter::new},
+        });
+    }
+
+    @Parameter(0)
+    public String name;
+
+    @Parameter(1)
+    public Supplier<Adapter> buffers;
+
+    @Test
+    public void matchesList() {
+        final Random random = new Random(1);
+        final Adapter buffer = this.buffers.get();
+        final List<double[]> expected = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            final int op = random.nextInt(100);
+            if (op == 0) {
+                buffer.clear();
+                expected.clear();
+            } else if (op < 30 && !expected.isEmpty()) {
+                final int index = random.nextInt(expected.size());
+                final double[] coord = random(buffer, random);
+                buffer.set(index, coord, random.nextBoolean());
+                expected.set(index, coord);
+            } else {
+                final double[] coord = random(buffer, random);
+                assertEquals(expected.size(), buffer.add(coord, random.nextBoolean()));
+                expected.add(coord);
+            }
+            assertEquals(expected.size(), buffer.size());
+            assertEquals(expected.isEmpty(), buffer.isEmpty());
+            assertTrue(buffer.capacity() >= buffer.size());
+        }
+        assertContents(expected, buffer);
+    }
+
+    @Test
+    public void translatesAndScalesEachCoordinate() {
+        final Random random = new Random(2);
+        final Adapter buffer = this.buffers.get();
+        final List<double[]> expected = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            final double[] coord = random(buffer, random);
+            buffer.add(coord, false);
+            expected.add(coord);
+        }
+
+        for (int i = 0; i < 20; i++) {
+            final double[] by = random(buffer, random);
+            final int op = random.nextInt(3);
+            if (op == 0) {
+                buffer.translate(by, random.nextBoolean());
+            } else if (op == 1) {
+                buffer.scale(by, random.nextBoolean());
+            } else {
+                Arrays.fill(by, by[0]);
+                buffer.scale(by[0]);
+            }
+            for (final double[] coord : expected) {
+                for (int axis = 0; axis < coord.length; axis++) {
+                    coord[axis] = op == 0 ? buffer.add(coord[axis], by[axis]) : buffer.mul(coord[axis], by[axis]);
+                }
+            }
+            assertContents(expected, buffer);
+        }
+    }
+
+    @Test
+    public void growsOnlyWhenNeeded() {
+        final Adapter buffer = this.buffers.get();
+        assertEquals(0, buffer.capacity());
+        buffer.ensureCapacity(100);
+        assertEquals(100, buffer.capacity());
+        buffer.ensureCapacity(50);
+        assertEquals(100, buffer.capacity());
+        buffer.ensureCapacity(101);
+        assertTrue(buffer.capacity() >= 150);
+
+        // beyond the largest array, rather than allocating a smaller one
+        assertThrows(IllegalArgumentException.class, () -> buffer.ensureCapacity(Integer.MAX_VALUE - 7));
+        assertThrows(IllegalArgumentException.class, () -> buffer.ensureCapacity(Integer.MAX_VALUE));
+        assertTrue(buffer.capacity() < 1_000);
+    }
+
+    @Test
+    public void rejectsIndicesOutOfRange() {
+        final Adapter buffer = this.buffers.get();
+        final double[] coord = new double[buffer.dimensions()];
+        buffer.ensureCapacity(10);
+        buffer.add(coord, false);
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.set(1, coord, false));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.set(1, coord, true));
+        buffer.clear();
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.get(0));
+    }
+
+    private static double[] random(final Adapter buffer, final Random random) {
+        final double[] coord = new double[buffer.dimensions()];
+        for (int axis = 0; axis < coord.length; axis++) {
+            coord[axis] = buffer.random(random);
+        }
+        return coord;
+    }
+
+    private static void assertContents(final List<double[]> expected, final Adapter buffer) {
+        assertEquals(expected.size(), buffer.size());
+        for (int i = 0; i < expected.size(); i++) {
+            final double[] actual = buffer.get(i);
+            for (int axis = 0; axis < actual.length; axis++) {
+                assertEquals("coordinate " + i, bits(expected.get(i)[axis]), bits(actual[axis]));
+            }
+        }
+    }
+
+    private static long bits(final double value) {
+        return Double.doubleToLongBits(value);
+    }
+
+    private interface Adapter {
+
+        int dimensions();
+
+        /**
+         * Chooses a component value of the buffer's type.
+         */
+        double random(Random random);
+
+        /**
+         * Adds two component values in the buffer's arithmetic.
+         */
+        double add(double a, double b);
+
+        /**
+         * Multiplies two component values in the buffer's arithmetic.
+         */
+        double mul(double a, double b);
+
+        int add(double[] coord, boolean boxed);
+
+        void set(int index, double[] coord, boolean view);
+
+        double[] get(int index);
+
+        int size();
+
+        boolean isEmpty();
+
+        void clear();
+
+        int capacity();
+
+        void ensureCapacity(int capacity);
+
+        void translate(double[] by, boolean vector);
+
+        void scale(double[] by, boolean vector);
+
+        void scale(double factor);
+
+    }
+
+    private static final class Coordinate3dBufferAdapter implements Adapter {
+
+        private final Coordinate3dBuffer buffer = new Coordinate3dBuffer(0);
+
+        @Override
+        public int dimensions() {
+            return 3;
+        }
+
+        @Override
+        public double random(final Random random) {
+            return random.nextGaussian() * 1e3;
+        }
+
+        @Override
+        public double add(final double a, final double b) {
+            return a + b;
+        }
+
+        @Override
+        public double mul(final double a, final double b) {
+            return a * b;
+        }
+
+        @Override
+        public int add(final double[] c, final boolean boxed) {
+            if (boxed) {
+                return this.buffer.add(new Coordinate3d(c[0], c[1], c[2]));
+            }
+            return this.buffer.add(c[0], c[1], c[2]);
+        }
+
+        @Override
+        public void set(final int index, final double[] c, final boolean view) {
+            if (view) {
+                this.buffer.view().at(index).set(c[0], c[1], c[2]);
+            } else {
+                this.buffer.set(index, c[0], c[1], c[2]);
+            }
+        }
+
+        @Override
+        public double[] get(final int index) {
+            final Coordinate3d coord = this.buffer.get(index);
+            final Coordinate3dBuffer.View view = this.buffer.view().at(index);
+            assertEquals(index, view.getIndex());
+            assertEquals(coord, view.toCoordinate());
+            assertEquals(bits(coord.getX()), bits(this.buffer.getX(index)));
+            assertEquals(bits(coord.getX()), bits(view.getX()));
+            assertEquals(bits(coord.getX()), bits(this.buffer.getXArray()[index]));
+            assertEquals(bits(coord.getY()), bits(this.buffer.getY(index)));
+            assertEquals(bits(coord.getY()), bits(view.getY()));
+            assertEquals(bits(coord.getY()), bits(this.buffer.getYArray()[index]));
+            assertEquals(bits(coord.getZ()), bits(this.buffer.getZ(index)));
+            assertEquals(bits(coord.getZ()), bits(view.getZ()));
+            assertEquals(bits(coord.getZ()), bits(this.buffer.getZArray()[index]));
+            return new double[] {coord.getX(), coord.getY(), coord.getZ()};
+        }
+
+        @Override
+        public int size() {
+            return this.buffer.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.buffer.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            this.buffer.clear();
+        }
+
+        @Override
+        public int capacity() {
+            final int capacity = this.buffer.getXArray().length;
+            assertEquals(capacity, this.buffer.getYArray().length);
+            assertEquals(capacity, this.buffer.getZArray().length);
+            return capacity;
+        }
+
+        @Override
+        public void ensureCapacity(final int capacity) {
+            this.buffer.ensureCapacity(capacity);
+        }
+
+        @Override
+        public void translate(final double[] c, final boolean vector) {
+            if (vector) {
+                this.buffer.translate(new Vector3d(c[0], c[1], c[2]));
+            } else {
+                this.buffer.translate(c[0], c[1], c[2]);
+            }
+        }
+
+        @Override
+        public void scale(final double[] c, final boolean vector) {
+            if (vector) {
+                this.buffer.scale(new Vector3d(c[0], c[1], c[2]));
+            } else {
+                this.buffer.scale(c[0], c[1], c[2]);
+            }
+        }
+
+        @Override
+        public void scale(final double factor) {
+            this.buffer.scale(factor);
+        }
+
+    }
+
+    private static final class Coordinate3fBufferAdapter implements Adapter {
+
+        private final Coordinate3fBuffer buffer = new Coordinate3fBuffer(0);
+
+        @Override
+        public int dimensions() {
+            return 3;
+        }
+
+        @Override
+        public double random(final Random random) {
+            return (float) (random.nextGaussian() * 1e3);
+        }
+
+        @Override
+        public double add(final double a, final double b) {
+            return (float) a + (float) b;
+        }
+
+        @Override
+        public double mul(final double a, final double b) {
+            return (float) a * (float) b;
+        }
+
+        @Override
+        public int add(final double[] c, final boolean boxed) {
+            if (boxed) {
+                return this.buffer.add(new Coordinate3f((float) c[0], (float) c[1], (float) c[2]));
+            }
+            return this.buffer.add((float) c[0], (float) c[1], (float) c[2]);
+        }
+
+        @Override
+        public void set(final int index, final double[] c, final boolean view) {
+            if (view) {
+                this.buffer.view().at(index).set((float) c[0], (float) c[1], (float) c[2]);
+            } else {
+                this.buffer.set(index, (float) c[0], (float) c[1], (float) c[2]);
+            }
+        }
+
+        @Override
+        public double[] get(final int index) {
+            final Coordinate3f coord = this.buffer.get(index);
+            final Coordinate3fBuffer.View view = this.buffer.view().at(index);
+            assertEquals(index, view.getIndex());
+            assertEquals(coord, view.toCoordinate());
+            assertEquals(bits(coord.getX()), bits(this.buffer.getX(index)));
+            assertEquals(bits(coord.getX()), bits(view.getX()));
+            assertEquals(bits(coord.getX()), bits(this.buffer.getXArray()[index]));
+            assertEquals(bits(coord.getY()), bits(this.buffer.getY(index)));
+            assertEquals(bits(coord.getY()), bits(view.getY()));
+            assertEquals(bits(coord.getY()), bits(this.buffer.getYArray()[index]));
+            assertEquals(bits(coord.getZ()), bits(this.buffer.getZ(index)));
+            assertEquals(bits(coord.getZ()), bits(view.getZ()));
+            assertEquals(bits(coord.getZ()), bits(this.buffer.getZArray()[index]));
+            return new double[] {coord.getX(), coord.getY(), coord.getZ()};
+        }
+
+        @Override
+        public int size() {
+            return this.buffer.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.buffer.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            this.buffer.clear();
+        }
+
+        @Override
+        public int capacity() {
+            final int capacity = this.buffer.getXArray().length;
+            assertEquals(capacity, this.buffer.getYArray().length);
+            assertEquals(capacity, this.buffer.getZArray().length);
+            return capacity;
+        }
+
+        @Override
+        public void ensureCapacity(final int capacity) {
+            this.buffer.ensureCapacity(capacity);
+        }
+
+        @Override
+        public void translate(final double[] c, final boolean vector) {
+            if (vector) {
+                this.buffer.translate(new Vector3f((float) c[0], (float) c[1], (float) c[2]));
+            } else {
+                this.buffer.translate((float) c[0], (float) c[1], (float) c[2]);
+            }
+        }
+
+        @Override
+        public void scale(final double[] c, final boolean vector) {
+            if (vector) {
+                this.buffer.scale(new Vector3f((float) c[0], (float) c[1], (float) c[2]));
+            } else {
+                this.buffer.scale((float) c[0], (float) c[1], (float) c[2]);
+            }
+        }
+
+        @Override
+        public void scale(final double factor) {
+            this.buffer.scale((float) factor);
+        }
+
+    }
+
+    private static final class Coordinate3iBufferAdapter implements Adapter {
+
+        private final Coordinate3iBuffer buffer = new Coordinate3iBuffer(0);
+
+        @Override
+        public int dimensions() {
+            return 3;
+        }
+
+        @Override
+        public double random(final Random random) {
+            return random.nextInt();
+        }
+
+        @Override
+        public double add(final double a, final double b) {
+            return (int) a + (int) b;
+        }
+
+        @Override
+        public double mul(final double a, final double b) {
+            return (int) a * (int) b;
+        }
+
+        @Override
+        public int add(final double[] c, final boolean boxed) {
+            if (boxed) {
+                return this.buffer.add(new Coordinate3i((int) c[0], (int) c[1], (int) c[2]));
+            }
+            return this.buffer.add((int) c[0], (int) c[1], (int) c[2]);
+        }
+
+        @Override
+        public void set(final int index, final double[] c, final boolean view) {
+            if (view) {
+                this.buffer.view().at(index).set((int) c[0], (int) c[1], (int) c[2]);
+            } else {
+                this.buffer.set(index, (int) c[0], (int) c[1], (int) c[2]);
+            }
+        }
+
+        @Override
+        public double[] get(final int index) {
+            final Coordinate3i coord = this.buffer.get(index);
+            final Coordinate3iBuffer.View view = this.buffer.view().at(index);
+            assertEquals(index, view.getIndex());
+            assertEquals(coord, view.toCoordinate());
+            assertEquals(bits(coord.getX()), bits(this.buffer.getX(index)));
+            assertEquals(bits(coord.getX()), bits(view.getX()));
+            assertEquals(bits(coord.getX()), bits(this.buffer.getXArray()[index]));
+            assertEquals(bits(coord.getY()), bits(this.buffer.getY(index)));
+            assertEquals(bits(coord.getY()), bits(view.getY()));
+            assertEquals(bits(coord.getY()), bits(this.buffer.getYArray()[index]));
+            assertEquals(bits(coord.getZ()), bits(this.buffer.getZ(index)));
+            assertEquals(bits(coord.getZ()), bits(view.getZ()));
+            assertEquals(bits(coord.getZ()), bits(this.buffer.getZArray()[index]));
+            return new double[] {coord.getX(), coord.getY(), coord.getZ()};
+        }
+
+        @Override
+        public int size() {
+            return this.buffer.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.buffer.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            this.buffer.clear();
+        }
+
+        @Override
+        public int capacity() {
+            final int capacity = this.buffer.getXArray().length;
+            assertEquals(capacity, this.buffer.getYArray().length);
+            assertEquals(capacity, this.buffer.getZArray().length);
+            return capacity;
+        }
+
+        @Override
+        public void ensureCapacity(final int capacity) {
+            this.buffer.ensureCapacity(capacity);
+        }
+
+        @Override
+        public void translate(final double[] c, final boolean vector) {
+            if (vector) {
+                this.buffer.translate(new Vector3i((int) c[0], (int) c[1], (int) c[2]));
+            } else {
+                this.buffer.translate((int) c[0], (int) c[1], (int) c[2]);
+            }
+        }
+
+        @Override
+        public void scale(final double[] c, final boolean vector) {
+            if (vector) {
+                this.buffer.scale(new Vector3i((int) c[0], (int) c[1], (int) c[2]));
+            } else {
+                this.buffer.scale((int) c[0], (int) c[1], (int) c[2]);
+            }
+        }
+
+        @Override
+        public void scale(final double factor) {
+            this.buffer.scale((int) factor);
+        }
+
+    }
+
+    private static final class Coordinate2dBufferAdapter implements Adapter {
+
+        private final Coordinate2dBuffer buffer = new Coordinate2dBuffer(0);
+
+        @Override
+        public int dimensions() {
+            return 2;
+        }
+
+        @Override
+        public double random(final Random random) {
+            return random.nextGaussian() * 1e3;
+        }
+
+        @Override
+        public double add(final double a, final double b) {
+            return a + b;
+        }
+
+        @Override
+        public double mul(final double a, final double b) {
+            return a * b;
+        }
+
+        @Override
+        public int add(final double[] c, final boolean boxed) {
+            if (boxed) {
+                return this.buffer.add(new Coordinate2d(c[0], c[1]));
+            }
+            return this.buffer.add(c[0], c[1]);
+        }
+
+        @Override
+        public void set(final int index, final double[] c, final boolean view) {
+            if (view) {
+                this.buffer.view().at(index).set(c[0], c[1]);
+            } else {
+                this.buffer.set(index, c[0], c[1]);
+            }
+        }
+
+        @Override
+        public double[] get(final int index) {
+            final Coordinate2d coord = this.buffer.get(index);
+            final Coordinate2dBuffer.View view = this.buffer.view().at(index);
+            assertEquals(index, view.getIndex());
+            assertEquals(coord, view.toCoordinate());
+            assertEquals(bits(coord.getX()), bits(this.buffer.getX(index)));
+            assertEquals(bits(coord.getX()), bits(view.getX()));
+            assertEquals(bits(coord.getX()), bits(this.buffer.getXArray()[index]));
+            assertEquals(bits(coord.getY()), bits(this.buffer.getY(index)));
+            assertEquals(bits(coord.getY()), bits(view.getY()));
+            assertEquals(bits(coord.getY()), bits(this.buffer.getYArray()[index]));
+            return new double[] {coord.getX(), coord.getY()};
+        }
+
+        @Override
+        public int size() {
+            return this.buffer.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.buffer.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            this.buffer.clear();
+        }
+
+        @Override
+        public int capacity() {
+            final int capacity = this.buffer.getXArray().length;
+            assertEquals(capacity, this.buffer.getYArray().length);
+            return capacity;
+        }
+
+        @Override
+        public void ensureCapacity(final int capacity) {
+            this.buffer.ensureCapacity(capacity);
+        }
+
+        @Override
+        public void translate(final double[] c, final boolean vector) {
+            if (vector) {
+                this.buffer.translate(new Vector2d(c[0], c[1]));
+            } else {
+                this.buffer.translate(c[0], c[1]);
+            }
+        }
+
+        @Override
+        public void scale(final double[] c, final boolean vector) {
+            if (vector) {
+                this.buffer.scale(new Vector2d(c[0], c[1]));
+            } else {
+                this.buffer.scale(c[0], c[1]);
+            }
+        }
+
+        @Override
+        public void scale(final double factor) {
+            this.buffer.scale(factor);
+        }
+
+    }
+
+    private static final class Coordinate2fBufferAdapter implements Adapter {
+
+        private final Coordinate2fBuffer buffer = new Coordinate2fBuffer(0);
+
+        @Override
+        public int dimensions() {
+            return 2;
+        }
+
+        @Override
+        public double random(final Random random) {
+            return (float) (random.nextGaussian() * 1e3);
+        }
+
+        @Override
+        public double add(final double a, final double b) {
+            return (float) a + (float) b;
+        }
+
+        @Override
+        public double mul(final double a, final double b) {
+            return (float) a * (float) b;
+        }
+
+        @Override
+        public int add(final double[] c, final boolean boxed) {
+            if (boxed) {
+                return this.buffer.add(new Coordinate2f((float) c[0], (float) c[1]));
+            }
+            return this.buffer.add((float) c[0], (float) c[1]);
+        }
+
+        @Override
+        public void set(final int index, final double[] c, final boolean view) {
+            if (view) {
+                this.buffer.view().at(index).set((float) c[0], (float) c[1]);
+            } else {
+                this.buffer.set(index, (float) c[0], (float) c[1]);
+            }
+        }
+
+        @Override
+        public double[] get(final int index) {
+            final Coordinate2f coord = this.buffer.get(index);
+            final Coordinate2fBuffer.View view = this.buffer.view().at(index);
+            assertEquals(index, view.getIndex());
+            assertEquals(coord, view.toCoordinate());
+            assertEquals(bits(coord.getX()), bits(this.buffer.getX(index)));
+            assertEquals(bits(coord.getX()), bits(view.getX()));
+            assertEquals(bits(coord.getX()), bits(this.buffer.getXArray()[index]));
+            assertEquals(bits(coord.getY()), bits(this.buffer.getY(index)));
+            assertEquals(bits(coord.getY()), bits(view.getY()));
+            assertEquals(bits(coord.getY()), bits(this.buffer.getYArray()[index]));
+            return new double[] {coord.getX(), coord.getY()};
+        }
+
+        @Override
+        public int size() {
+            return this.buffer.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.buffer.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            this.buffer.clear();
+        }
+
+        @Override
+        public int capacity() {
+            final int capacity = this.buffer.getXArray().length;
+            assertEquals(capacity, this.buffer.getYArray().length);
+            return capacity;
+        }
+
+        @Override
+        public void ensureCapacity(final int capacity) {
+            this.buffer.ensureCapacity(capacity);
+        }
+
+        @Override
+        public void translate(final double[] c, final boolean vector) {
+            if (vector) {
+                this.buffer.translate(new Vector2f((float) c[0], (float) c[1]));
+            } else {
+                this.buffer.translate((float) c[0], (float) c[1]);
+            }
+        }
+
+        @Override
+        public void scale(final double[] c, final boolean vector) {
+            if (vector) {
+                this.buffer.scale(new Vector2f((float) c[0], (float) c[1]));
+            } else {
+                this.buffer.scale((float) c[0], (float) c[1]);
+            }
+        }
+
+        @Override
+        public void scale(final double factor) {
+            this.buffer.scale((float) factor);
+        }
+
+    }
+
+    private static final class Coordinate2iBufferAdapter implements Adapter {
+
+        private final Coordinate2iBuffer buffer = new Coordinate2iBuffer(0);
+
+        @Override
+        public int dimensions() {
+            return 2;
+        }
+
+        @Override
+        public double random(final Random random) {
+            return random.nextInt();
+        }
+
+        @Override
+        public double add(final double a, final double b) {
+            return (int) a + (int) b;
+        }
+
+        @Override
+        public double mul(final double a, final double b) {
+            return (int) a * (int) b;
+        }
+
+        @Override
+        public int add(final double[] c, final boolean boxed) {
+            if (boxed) {
+                return this.buffer.add(new Coordinate2i((int) c[0], (int) c[1]));
+            }
+            return this.buffer.add((int) c[0], (int) c[1]);
+        }
+
+        @Override
+        public void set(final int index, final double[] c, final boolean view) {
+            if (view) {
+                this.buffer.view().at(index).set((int) c[0], (int) c[1]);
+            } else {
+                this.buffer.set(index, (int) c[0], (int) c[1]);
+            }
+        }
+
+        @Override
+        public double[] get(final int index) {
+            final Coordinate2i coord = this.buffer.get(index);
+            final Coordinate2iBuffer.View view = this.buffer.view().at(index);
+            assertEquals(index, view.getIndex());
+            assertEquals(coord, view.toCoordinate());
+            assertEquals(bits(coord.getX()), bits(this.buffer.getX(index)));
+            assertEquals(bits(coord.getX()), bits(view.getX()));
+            assertEquals(bits(coord.getX()), bits(this.buffer.getXArray()[index]));
+            assertEquals(bits(coord.getY()), bits(this.buffer.getY(index)));
+            assertEquals(bits(coord.getY()), bits(view.getY()));
+            assertEquals(bits(coord.getY()), bits(this.buffer.getYArray()[index]));
+            return new double[] {coord.getX(), coord.getY()};
+        }
+
+        @Override
+        public int size() {
+            return this.buffer.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.buffer.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            this.buffer.clear();
+        }
+
+        @Override
+        public int capacity() {
+            final int capacity = this.buffer.getXArray().length;
+            assertEquals(capacity, this.buffer.getYArray().length);
+            return capacity;
+        }
+
+        @Override
+        public void ensureCapacity(final int capacity) {
+            this.buffer.ensureCapacity(capacity);
+        }
+
+        @Override
+        public void translate(final double[] c, final boolean vector) {
+            if (vector) {
+                this.buffer.translate(new Vector2i((int) c[0], (int) c[1]));
+            } else {
+                this.buffer.translate((int) c[0], (int) c[1]);
+            }
+        }
+
+        @Override
+        public void scale(final double[] c, final boolean vector) {
+            if (vector) {
+                this.buffer.scale(new Vector2i((int) c[0], (int) c[1]));
+            } else {
+                this.buffer.scale((int) c[0], (int) c[1]);
+            }
+        }
+
+        @Override
+        public void scale(final double factor) {
+            this.buffer.scale((int) factor);
+        }
+
+    }
+
+}
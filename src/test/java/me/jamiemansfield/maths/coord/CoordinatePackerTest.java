@@ -0,0 +1,195 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.coord;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.flowpowered.math.vector.Vector2i;
+import com.flowpowered.math.vector.Vector3i;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public final class CoordinatePackerTest {
+
+    @Test
+    public void packs2iLosslessly() {
+        final Random random = new Random(1);
+        final int[] values = {Integer.MIN_VALUE, Integer.MAX_VALUE, -1, 0, 1};
+        for (int i = 0; i < 100_000; i++) {
+            final int x = i < 25 ? values[i % 5] : random.nextInt();
+            final int y = i < 25 ? values[i / 5] : random.nextInt();
+            final long packed = Coordinate2iPacker.pack(x, y);
+            assertEquals(packed, Coordinate2iPacker.pack(new Coordinate2i(x, y)));
+            assertEquals(new Coordinate2i(x, y), Coordinate2iPacker.unpack(packed));
+            assertEquals(x, Coordinate2iPacker.getX(packed));
+            assertEquals(y, Coordinate2iPacker.getY(packed));
+
+            final int dx = random.nextInt();
+            final int dy = random.nextInt();
+            final long offset = Coordinate2iPacker.offset(packed, dx, dy);
+            assertEquals(new Coordinate2i(x + dx, y + dy), Coordinate2iPacker.unpack(offset));
+            assertEquals(offset, Coordinate2iPacker.move(packed, new Vector2i(dx, dy)));
+        }
+    }
+
+    @Test
+    public void lists2iNeighbours() {
+        final long packed = Coordinate2iPacker.pack(Integer.MAX_VALUE, -7);
+        assertArrayEquals(new long[] {
+                Coordinate2iPacker.pack(Integer.MAX_VALUE - 1, -7),
+                Coordinate2iPacker.pack(Integer.MIN_VALUE, -7),
+                Coordinate2iPacker.pack(Integer.MAX_VALUE, -8),
+                Coordinate2iPacker.pack(Integer.MAX_VALUE, -6),
+        }, Coordinate2iPacker.neighbours(packed, new long[4]));
+    }
+
+    @Test
+    public void packs3iLosslesslyWithinRange() {
+        final Random random = new Random(2);
+        for (int trial = 0; trial < 200; trial++) {
+            final Coordinate3iPacker packer = randomPacker(random);
+            for (int i = 0; i < 1_000; i++) {
+                final int x = inRange(random, packer.getXBits());
+                final int y = inRange(random, packer.getYBits());
+                final int z = inRange(random, packer.getZBits());
+                assertTrue(packer.fits(x, y, z));
+
+                final long packed = packer.pack(x, y, z);
+                assertEquals(packed, packer.pack(new Coordinate3i(x, y, z)));
+                assertEquals(new Coordinate3i(x, y, z), packer.unpack(packed));
+                assertEquals(x, packer.getX(packed));
+                assertEquals(y, packer.getY(packed));
+                assertEquals(z, packer.getZ(packed));
+            }
+        }
+    }
+
+    @Test
+    public void wraps3iComponentsOutOfRange() {
+        final Random random = new Random(3);
+        for (int trial = 0; trial < 200; trial++) {
+            final Coordinate3iPacker packer = randomPacker(random);
+            for (int i = 0; i < 1_000; i++) {
+                final int x = random.nextInt();
+                final int y = random.nextInt();
+                final int z = random.nextInt();
+                assertEquals(packer.toString(), fits(x, packer.getXBits()) && fits(y, packer.getYBits()) && fits(z, packer.getZBits()),
+                        packer.fits(x, y, z));
+
+                final long packed = packer.pack(x, y, z);
+                assertEquals(wrap(x, packer.getXBits()), packer.getX(packed));
+                assertEquals(wrap(y, packer.getYBits()), packer.getY(packed));
+                assertEquals(wrap(z, packer.getZBits()), packer.getZ(packed));
+
+                final int dx = random.nextInt(33) - 16;
+                final int dy = random.nextInt(33) - 16;
+                final int dz = random.nextInt(33) - 16;
+                final long offset = packer.offset(packed, dx, dy, dz);
+                assertEquals(packer.pack(packer.getX(packed) + dx, packer.getY(packed) + dy, packer.getZ(packed) + dz), offset);
+                assertEquals(offset, packer.move(packed, new Vector3i(dx, dy, dz)));
+            }
+        }
+    }
+
+    @Test
+    public void packs3iDistinctly() {
+        for (final Coordinate3iPacker packer : new Coordinate3iPacker[] {
+                new Coordinate3iPacker(3, 2, 4), new Coordinate3iPacker(1, 1, 1), new Coordinate3iPacker(5, 1, 3)}) {
+            final Set<Long> seen = new HashSet<>();
+            for (int x = -(1 << packer.getXBits() - 1); x < 1 << packer.getXBits() - 1; x++) {
+                for (int y = -(1 << packer.getYBits() - 1); y < 1 << packer.getYBits() - 1; y++) {
+                    for (int z = -(1 << packer.getZBits() - 1); z < 1 << packer.getZBits() - 1; z++) {
+                        assertTrue(packer.toString(), seen.add(packer.pack(x, y, z)));
+                    }
+                }
+            }
+            assertEquals(1 << packer.getXBits() + packer.getYBits() + packer.getZBits(), seen.size());
+        }
+    }
+
+    @Test
+    public void packs3iInBulk() {
+        final Random random = new Random(4);
+        final Coordinate3iPacker packer = Coordinate3iPacker.BLOCK_POS;
+        final int[] xs = random.ints(1_000).toArray();
+        final int[] ys = random.ints(1_000).toArray();
+        final int[] zs = random.ints(1_000).toArray();
+        final long[] packed = new long[1_001];
+        packer.packAll(xs, ys, zs, packed, 1_000);
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(packer.pack(xs[i], ys[i], zs[i]), packed[i]);
+        }
+        assertEquals(0, packed[1_000]);
+    }
+
+    @Test
+    public void lists3iNeighbours() {
+        final Coordinate3iPacker packer = Coordinate3iPacker.UNIFORM;
+        final long packed = packer.pack(5, -6, 7);
+        final long[] neighbours = packer.neighbours(packed, new long[6]);
+        final int[][] offsets = {{-1, 0, 0}, {1, 0, 0}, {0, -1, 0}, {0, 1, 0}, {0, 0, -1}, {0, 0, 1}};
+        for (int i = 0; i < 6; i++) {
+            assertEquals(new Coordinate3i(5 + offsets[i][0], -6 + offsets[i][1], 7 + offsets[i][2]), packer.unpack(neighbours[i]));
+        }
+    }
+
+    @Test
+    public void rejectsInvalidLayouts() {
+        assertThrows(IllegalArgumentException.class, () -> new Coordinate3iPacker(0, 21, 21));
+        assertThrows(IllegalArgumentException.class, () -> new Coordinate3iPacker(21, 33, 10));
+        assertThrows(IllegalArgumentException.class, () -> new Coordinate3iPacker(32, 32, 1));
+        assertThrows(IllegalArgumentException.class, () -> Coordinate3iPacker.UNIFORM.pack(new Coordinate3i(1 << 20, 0, 0)));
+    }
+
+    private static Coordinate3iPacker randomPacker(final Random random) {
+        final int xBits = 1 + random.nextInt(32);
+        final int yBits = 1 + random.nextInt(Math.min(32, 63 - xBits));
+        final int zBits = 1 + random.nextInt(Math.min(32, 64 - xBits - yBits));
+        return new Coordinate3iPacker(xBits, yBits, zBits);
+    }
+
+    private static int inRange(final Random random, final int bits) {
+        return (int) (random.nextLong() >> (64 - bits));
+    }
+
+    private static boolean fits(final int value, final int bits) {
+        return value >= -(1L << bits - 1) && value < 1L << bits - 1;
+    }
+
+    // the two's complement value of the low bits of the given value
+    private static int wrap(final int value, final int bits) {
+        final long range = 1L << bits;
+        final long min = -(range / 2);
+        return (int) (Math.floorMod(value - min, range) + min);
+    }
+
+}
@@ -0,0 +1,642 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.coord;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * Compares each of the open-addressing maps and sets with a
+ * {@link HashMap}, through a common view in which a set maps each of its
+ * members to {@link #PRESENT}.
+ */
+@RunWith(Parameterized.class)
+public final class CoordinateTableTest {
+
+    private static final Integer PRESENT = -1;
+    private static final long[] INT_EXTREMES = {Integer.MIN_VALUE, Integer.MAX_VALUE, 0, -1};
+    private static final long[] LONG_EXTREMES = {Long.MIN_VALUE, Long.MAX_VALUE, 0, -1};
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> tables() {
+        return Arrays.asList(new Object[][] {
+                {"Coordinate2iMap", 2, false, (IntFunction<Table>) Map2i::new},
+                {"Coordinate2lMap", 2, true, (IntFunction<Table>) Map2l::new},
+                {"Coordinate3iMap", 3, false, (IntFunction<Table>) Map3i::new},
+                {"Coordinate3lMap", 3, true, (IntFunction<Table>) Map3l::new},
+                {"Coordinate2iSet", 2, false, (IntFunction<Table>) Set2i::new},
+                {"Coordinate2lSet", 2, true, (IntFunction<Table>) Set2l::new},
+                {"Coordinate3iSet", 3, false, (IntFunction<Table>) Set3i::new},
+                {"Coordinate3lSet", 3, true, (IntFunction<Table>) Set3l::new}
+        });
+    }
+
+    @Parameter(0)
+    public String name;
+
+    @Parameter(1)
+    public int dimensions;
+
+    @Parameter(2)
+    public boolean wide;
+
+    @Parameter(3)
+    public IntFunction<Table> tables;
+
+    @Test
+    public void matchesHashMap() {
+        final Random random = new Random(1);
+        for (int trial = 0; trial < 20; trial++) {
+            // few enough distinct keys that most operations find one, and
+            // removals have to shift runs of colliding keys back
+            final int range = 1 + random.nextInt(trial < 10 ? 8 : 64);
+            final Table actual = this.tables.apply(random.nextInt(16));
+            final Map<List<Long>, Integer> expected = new HashMap<>();
+            for (int op = 0; op < 20_000; op++) {
+                final long[] key = this.key(random, range);
+                final List<Long> coord = asList(key);
+                // alternately fill and drain, to delete at every load
+                final int addPercent = (op / 2_000) % 2 == 0 ? 70 : 30;
+                final int choice = random.nextInt(100);
+                if (choice < addPercent) {
+                    final Integer value = actual.value(op);
+                    assertEquals("put " + coord, expected.put(coord, value), actual.put(key, value));
+                } else if (choice < 90) {
+                    assertEquals("remove " + coord, expected.remove(coord), actual.remove(key, choice % 2 == 0));
+                } else {
+                    assertEquals("get " + coord, expected.get(coord), actual.get(key, choice % 2 == 0));
+                }
+                assertEquals(expected.size(), actual.size());
+                if (op % 1_000 == 0) {
+                    assertEquals(expected, actual.contents());
+                }
+            }
+            assertEquals(expected, actual.contents());
+
+            for (final List<Long> coord : new ArrayList<>(expected.keySet())) {
+                assertEquals(expected.remove(coord), actual.remove(toArray(coord), false));
+                if (expected.size() % 100 == 0) {
+                    assertEquals(expected, actual.contents());
+                }
+            }
+            assertTrue(actual.isEmpty());
+        }
+    }
+
+    @Test
+    public void clearRemovesEverything() {
+        final Table actual = this.tables.apply(0);
+        for (int i = 0; i < 1_000; i++) {
+            actual.put(new long[] {i, -i, i * 31L}, PRESENT);
+        }
+        actual.clear();
+
+        assertTrue(actual.isEmpty());
+        assertNull(actual.get(new long[] {1, -1, 31}, false));
+        assertNull(actual.put(new long[] {1, -1, 31}, PRESENT));
+        assertEquals(1, actual.size());
+    }
+
+    private long[] key(final Random random, final int range) {
+        final long[] key = new long[this.dimensions];
+        for (int axis = 0; axis < key.length; axis++) {
+            if (random.nextInt(16) == 0) {
+                final long[] extremes = this.wide ? LONG_EXTREMES : INT_EXTREMES;
+                key[axis] = extremes[random.nextInt(extremes.length)];
+            } else {
+                key[axis] = random.nextInt(range) - range / 2;
+            }
+        }
+        return key;
+    }
+
+    private static List<Long> asList(final long[] key) {
+        final List<Long> list = new ArrayList<>(key.length);
+        for (final long component : key) {
+            list.add(component);
+        }
+        return list;
+    }
+
+    private static long[] toArray(final List<Long> coord) {
+        final long[] key = new long[coord.size()];
+        for (int axis = 0; axis < key.length; axis++) {
+            key[axis] = coord.get(axis);
+        }
+        return key;
+    }
+
+    private interface Table {
+
+        default Integer value(final int op) {
+            return op;
+        }
+
+        Integer put(long[] k, int value);
+
+        Integer remove(long[] k, boolean boxed);
+
+        Integer get(long[] k, boolean boxed);
+
+        int size();
+
+        boolean isEmpty();
+
+        void clear();
+
+        Map<List<Long>, Integer> contents();
+
+    }
+
+    private static final class Map2i implements Table {
+
+        private final Coordinate2iMap<Integer> map;
+
+        Map2i(final int expectedSize) {
+            this.map = new Coordinate2iMap<>(expectedSize);
+        }
+
+        @Override
+        public Integer put(final long[] k, final int value) {
+            return this.map.put((int) k[0], (int) k[1], value);
+        }
+
+        @Override
+        public Integer remove(final long[] k, final boolean boxed) {
+            if (boxed) {
+                return this.map.remove(new Coordinate2i((int) k[0], (int) k[1]));
+            }
+            return this.map.remove((int) k[0], (int) k[1]);
+        }
+
+        @Override
+        public Integer get(final long[] k, final boolean boxed) {
+            final boolean contains = this.map.containsKey((int) k[0], (int) k[1]);
+            assertEquals(contains, this.map.containsKey(new Coordinate2i((int) k[0], (int) k[1])));
+            if (boxed) {
+                return this.map.get(new Coordinate2i((int) k[0], (int) k[1]));
+            }
+            return this.map.get((int) k[0], (int) k[1]);
+        }
+
+        @Override
+        public int size() {
+            return this.map.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.map.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            this.map.clear();
+        }
+
+        @Override
+        public Map<List<Long>, Integer> contents() {
+            final Map<List<Long>, Integer> contents = new HashMap<>();
+            this.map.forEach((x, y, value) -> assertNull(contents.put(Arrays.asList((long) x, (long) y), value)));
+            return contents;
+        }
+
+    }
+
+    private static final class Map2l implements Table {
+
+        private final Coordinate2lMap<Integer> map;
+
+        Map2l(final int expectedSize) {
+            this.map = new Coordinate2lMap<>(expectedSize);
+        }
+
+        @Override
+        public Integer put(final long[] k, final int value) {
+            return this.map.put(k[0], k[1], value);
+        }
+
+        @Override
+        public Integer remove(final long[] k, final boolean boxed) {
+            if (boxed) {
+                return this.map.remove(new Coordinate2l(k[0], k[1]));
+            }
+            return this.map.remove(k[0], k[1]);
+        }
+
+        @Override
+        public Integer get(final long[] k, final boolean boxed) {
+            final boolean contains = this.map.containsKey(k[0], k[1]);
+            assertEquals(contains, this.map.containsKey(new Coordinate2l(k[0], k[1])));
+            if (boxed) {
+                return this.map.get(new Coordinate2l(k[0], k[1]));
+            }
+            return this.map.get(k[0], k[1]);
+        }
+
+        @Override
+        public int size() {
+            return this.map.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.map.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            this.map.clear();
+        }
+
+        @Override
+        public Map<List<Long>, Integer> contents() {
+            final Map<List<Long>, Integer> contents = new HashMap<>();
+            this.map.forEach((x, y, value) -> assertNull(contents.put(Arrays.asList(x, y), value)));
+            return contents;
+        }
+
+    }
+
+    private static final class Map3i implements Table {
+
+        private final Coordinate3iMap<Integer> map;
+
+        Map3i(final int expectedSize) {
+            this.map = new Coordinate3iMap<>(expectedSize);
+        }
+
+        @Override
+        public Integer put(final long[] k, final int value) {
+            return this.map.put((int) k[0], (int) k[1], (int) k[2], value);
+        }
+
+        @Override
+        public Integer remove(final long[] k, final boolean boxed) {
+            if (boxed) {
+                return this.map.remove(new Coordinate3i((int) k[0], (int) k[1], (int) k[2]));
+            }
+            return this.map.remove((int) k[0], (int) k[1], (int) k[2]);
+        }
+
+        @Override
+        public Integer get(final long[] k, final boolean boxed) {
+            final boolean contains = this.map.containsKey((int) k[0], (int) k[1], (int) k[2]);
+            assertEquals(contains, this.map.containsKey(new Coordinate3i((int) k[0], (int) k[1], (int) k[2])));
+            if (boxed) {
+                return this.map.get(new Coordinate3i((int) k[0], (int) k[1], (int) k[2]));
+            }
+            return this.map.get((int) k[0], (int) k[1], (int) k[2]);
+        }
+
+        @Override
+        public int size() {
+            return this.map.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.map.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            this.map.clear();
+        }
+
+        @Override
+        public Map<List<Long>, Integer> contents() {
+            final Map<List<Long>, Integer> contents = new HashMap<>();
+            this.map.forEach((x, y, z, value) -> assertNull(contents.put(Arrays.asList((long) x, (long) y, (long) z), value)));
+            return contents;
+        }
+
+    }
+
+    private static final class Map3l implements Table {
+
+        private final Coordinate3lMap<Integer> map;
+
+        Map3l(final int expectedSize) {
+            this.map = new Coordinate3lMap<>(expectedSize);
+        }
+
+        @Override
+        public Integer put(final long[] k, final int value) {
+            return this.map.put(k[0], k[1], k[2], value);
+        }
+
+        @Override
+        public Integer remove(final long[] k, final boolean boxed) {
+            if (boxed) {
+                return this.map.remove(new Coordinate3l(k[0], k[1], k[2]));
+            }
+            return this.map.remove(k[0], k[1], k[2]);
+        }
+
+        @Override
+        public Integer get(final long[] k, final boolean boxed) {
+            final boolean contains = this.map.containsKey(k[0], k[1], k[2]);
+            assertEquals(contains, this.map.containsKey(new Coordinate3l(k[0], k[1], k[2])));
+            if (boxed) {
+                return this.map.get(new Coordinate3l(k[0], k[1], k[2]));
+            }
+            return this.map.get(k[0], k[1], k[2]);
+        }
+
+        @Override
+        public int size() {
+            return this.map.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.map.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            this.map.clear();
+        }
+
+        @Override
+        public Map<List<Long>, Integer> contents() {
+            final Map<List<Long>, Integer> contents = new HashMap<>();
+            this.map.forEach((x, y, z, value) -> assertNull(contents.put(Arrays.asList(x, y, z), value)));
+            return contents;
+        }
+
+    }
+
+    private static final class Set2i implements Table {
+
+        private final Coordinate2iSet set;
+
+        Set2i(final int expectedSize) {
+            this.set = new Coordinate2iSet(expectedSize);
+        }
+
+        @Override
+        public Integer value(final int op) {
+            return PRESENT;
+        }
+
+        @Override
+        public Integer put(final long[] k, final int value) {
+            return this.set.add((int) k[0], (int) k[1]) ? null : PRESENT;
+        }
+
+        @Override
+        public Integer remove(final long[] k, final boolean boxed) {
+            if (boxed) {
+                return this.set.remove(new Coordinate2i((int) k[0], (int) k[1])) ? PRESENT : null;
+            }
+            return this.set.remove((int) k[0], (int) k[1]) ? PRESENT : null;
+        }
+
+        @Override
+        public Integer get(final long[] k, final boolean boxed) {
+            if (boxed) {
+                return this.set.contains(new Coordinate2i((int) k[0], (int) k[1])) ? PRESENT : null;
+            }
+            return this.set.contains((int) k[0], (int) k[1]) ? PRESENT : null;
+        }
+
+        @Override
+        public int size() {
+            return this.set.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.set.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            this.set.clear();
+        }
+
+        @Override
+        public Map<List<Long>, Integer> contents() {
+            final Map<List<Long>, Integer> contents = new HashMap<>();
+            this.set.forEach((x, y) -> assertNull(contents.put(Arrays.asList((long) x, (long) y), PRESENT)));
+            return contents;
+        }
+
+    }
+
+    private static final class Set2l implements Table {
+
+        private final Coordinate2lSet set;
+
+        Set2l(final int expectedSize) {
+            this.set = new Coordinate2lSet(expectedSize);
+        }
+
+        @Override
+        public Integer value(final int op) {
+            return PRESENT;
+        }
+
+        @Override
+        public Integer put(final long[] k, final int value) {
+            return this.set.add(k[0], k[1]) ? null : PRESENT;
+        }
+
+        @Override
+        public Integer remove(final long[] k, final boolean boxed) {
+            if (boxed) {
+                return this.set.remove(new Coordinate2l(k[0], k[1])) ? PRESENT : null;
+            }
+            return this.set.remove(k[0], k[1]) ? PRESENT : null;
+        }
+
+        @Override
+        public Integer get(final long[] k, final boolean boxed) {
+            if (boxed) {
+                return this.set.contains(new Coordinate2l(k[0], k[1])) ? PRESENT : null;
+            }
+            return this.set.contains(k[0], k[1]) ? PRESENT : null;
+        }
+
+        @Override
+        public int size() {
+            return this.set.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.set.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            this.set.clear();
+        }
+
+        @Override
+        public Map<List<Long>, Integer> contents() {
+            final Map<List<Long>, Integer> contents = new HashMap<>();
+            this.set.forEach((x, y) -> assertNull(contents.put(Arrays.asList(x, y), PRESENT)));
+            return contents;
+        }
+
+    }
+
+    private static final class Set3i implements Table {
+
+        private final Coordinate3iSet set;
+
+        Set3i(final int expectedSize) {
+            this.set = new Coordinate3iSet(expectedSize);
+        }
+
+        @Override
+        public Integer value(final int op) {
+            return PRESENT;
+        }
+
+        @Override
+        public Integer put(final long[] k, final int value) {
+            return this.set.add((int) k[0], (int) k[1], (int) k[2]) ? null : PRESENT;
+        }
+
+        @Override
+        public Integer remove(final long[] k, final boolean boxed) {
+            if (boxed) {
+                return this.set.remove(new Coordinate3i((int) k[0], (int) k[1], (int) k[2])) ? PRESENT : null;
+            }
+            return this.set.remove((int) k[0], (int) k[1], (int) k[2]) ? PRESENT : null;
+        }
+
+        @Override
+        public Integer get(final long[] k, final boolean boxed) {
+            if (boxed) {
+                return this.set.contains(new Coordinate3i((int) k[0], (int) k[1], (int) k[2])) ? PRESENT : null;
+            }
+            return this.set.contains((int) k[0], (int) k[1], (int) k[2]) ? PRESENT : null;
+        }
+
+        @Override
+        public int size() {
+            return this.set.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.set.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            this.set.clear();
+        }
+
+        @Override
+        public Map<List<Long>, Integer> contents() {
+            final Map<List<Long>, Integer> contents = new HashMap<>();
+            this.set.forEach((x, y, z) -> assertNull(contents.put(Arrays.asList((long) x, (long) y, (long) z), PRESENT)));
+            return contents;
+        }
+
+    }
+
+    private static final class Set3l implements Table {
+
+        private final Coordinate3lSet set;
+
+        Set3l(final int expectedSize) {
+            this.set = new Coordinate3lSet(expectedSize);
+        }
+
+        @Override
+        public Integer value(final int op) {
+            return PRESENT;
+        }
+
+        @Override
+        public Integer put(final long[] k, final int value) {
+            return this.set.add(k[0], k[1], k[2]) ? null : PRESENT;
+        }
+
+        @Override
+        public Integer remove(final long[] k, final boolean boxed) {
+            if (boxed) {
+                return this.set.remove(new Coordinate3l(k[0], k[1], k[2])) ? PRESENT : null;
+            }
+            return this.set.remove(k[0], k[1], k[2]) ? PRESENT : null;
+        }
+
+        @Override
+        public Integer get(final long[] k, final boolean boxed) {
+            if (boxed) {
+                return this.set.contains(new Coordinate3l(k[0], k[1], k[2])) ? PRESENT : null;
+            }
+            return this.set.contains(k[0], k[1], k[2]) ? PRESENT : null;
+        }
+
+        @Override
+        public int size() {
+            return this.set.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.set.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            this.set.clear();
+        }
+
+        @Override
+        public Map<List<Long>, Integer> contents() {
+            final Map<List<Long>, Integer> contents = new HashMap<>();
+            this.set.forEach((x, y, z) -> assertNull(contents.put(Arrays.asList(x, y, z), PRESENT)));
+            return contents;
+        }
+
+    }
+
+}
@@ -0,0 +1,722 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.coord;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.flowpowered.math.imaginary.Complexd;
+import com.flowpowered.math.imaginary.Complexf;
+import com.flowpowered.math.imaginary.Quaterniond;
+import com.flowpowered.math.imaginary.Quaternionf;
+import com.flowpowered.math.matrix.Matrix2d;
+import com.flowpowered.math.matrix.Matrix2f;
+import com.flowpowered.math.matrix.Matrix3d;
+import com.flowpowered.math.matrix.Matrix3f;
+import com.flowpowered.math.matrix.Matrix4d;
+import com.flowpowered.math.matrix.Matrix4f;
+import com.flowpowered.math.vector.Vector2d;
+import com.flowpowered.math.vector.Vector2f;
+import com.flowpowered.math.vector.Vector3d;
+import com.flowpowered.math.vector.Vector3f;
+import com.flowpowered.math.vector.Vector4d;
+import com.flowpowered.math.vector.Vector4f;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Checks each of the transforms against transforming coordinates through
+ * flow-math, one at a time.
+ */
+public final class CoordinateTransformTest {
+
+    private static final double DOUBLE_TOLERANCE = 1e-9;
+    private static final double FLOAT_TOLERANCE = 1e-2;
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterClass
+    public static void shutdown() {
+        POOL.shutdown();
+    }
+
+    @Test
+    public void coordinate3dMatchesFlowMath() {
+        final Random random = new Random(1);
+        for (int trial = 0; trial < 20; trial++) {
+            final double[] m = matrix(random, 4, trial % 2 == 1);
+            final Matrix4d matrix = matrix4d(m);
+            final Matrix3d linear = new Matrix3d(m[0], m[1], m[2], m[4], m[5], m[6], m[8], m[9], m[10]);
+            final Quaterniond rotation = new Quaterniond(m[0], m[1], m[2], m[3]);
+            final Coordinate3dTransform transform = Coordinate3dTransform.of(matrix);
+            assertEquals(trial % 2 == 0, transform.isAffine());
+            assertTrue(Coordinate3dTransform.of(linear).isAffine());
+            assertTrue(Coordinate3dTransform.of(rotation).isAffine());
+
+            for (int i = 0; i < 100; i++) {
+                final Coordinate3d coord = new Coordinate3d(coordinate(random), coordinate(random), coordinate(random));
+                final Vector4d v = matrix.transform(coord.getX(), coord.getY(), coord.getZ(), 1);
+                assertClose(new Vector3d(v.getX() / v.getW(), v.getY() / v.getW(), v.getZ() / v.getW()), transform.apply(coord));
+                assertClose(linear.transform(coord.getX(), coord.getY(), coord.getZ()), Coordinate3dTransform.of(linear).apply(coord));
+                assertClose(rotation.rotate(coord.getX(), coord.getY(), coord.getZ()), Coordinate3dTransform.of(rotation).apply(coord));
+            }
+        }
+    }
+
+    @Test
+    public void coordinate3dTransformsRangesInPlace() {
+        final Random random = new Random(2);
+        final Coordinate3dTransform transform = Coordinate3dTransform.of(matrix4d(matrix(random, 4, true)));
+        // large enough for the whole range to be split across the pool
+        final int n = 2 * Coordinate3dTransform.PARALLEL_THRESHOLD + 7;
+        for (final int[] range : new int[][] {{0, n}, {3, n - 2}, {n / 2, n / 2 + 10}, {n, n}}) {
+            for (final ForkJoinPool pool : new ForkJoinPool[] {POOL, null}) {
+                final double[] xs = coordinates(random, n);
+                final double[] ys = coordinates(random, n);
+                final double[] zs = coordinates(random, n);
+                final double[] oxs = xs.clone();
+                final double[] oys = ys.clone();
+                final double[] ozs = zs.clone();
+                if (pool == null) {
+                    transform.apply(xs, ys, zs, range[0], range[1]);
+                } else {
+                    transform.apply(xs, ys, zs, range[0], range[1], pool);
+                }
+
+                for (int i = 0; i < n; i++) {
+                    if (i >= range[0] && i < range[1]) {
+                        assertClose(transform.apply(new Coordinate3d(oxs[i], oys[i], ozs[i])), new Coordinate3d(xs[i], ys[i], zs[i]));
+                    } else {
+                        assertEquals(new Coordinate3d(oxs[i], oys[i], ozs[i]), new Coordinate3d(xs[i], ys[i], zs[i]));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void coordinate3dTransformsRangesIntoOtherArrays() {
+        final Random random = new Random(3);
+        final Coordinate3dTransform transform = Coordinate3dTransform.of(matrix4d(matrix(random, 4, false)));
+        final int n = 2 * Coordinate3dTransform.PARALLEL_THRESHOLD + 7;
+        final int from = 5;
+        final int to = n - 3;
+        final int offset = 11;
+        for (final ForkJoinPool pool : new ForkJoinPool[] {POOL, null}) {
+            final double[] xs = coordinates(random, n);
+            final double[] ys = coordinates(random, n);
+            final double[] zs = coordinates(random, n);
+            final double[] dxs = coordinates(random, offset + to - from + 4);
+            final double[] dys = coordinates(random, dxs.length);
+            final double[] dzs = coordinates(random, dxs.length);
+            final double[] odxs = dxs.clone();
+            if (pool == null) {
+                transform.apply(xs, ys, zs, from, to, dxs, dys, dzs, offset);
+            } else {
+                transform.apply(xs, ys, zs, from, to, dxs, dys, dzs, offset, pool);
+            }
+
+            for (int i = 0; i < dxs.length; i++) {
+                if (i >= offset && i < offset + to - from) {
+                    final int j = i - offset + from;
+                    assertClose(transform.apply(new Coordinate3d(xs[j], ys[j], zs[j])), new Coordinate3d(dxs[i], dys[i], dzs[i]));
+                } else {
+                    assertEquals(odxs[i], dxs[i], 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void coordinate3dTransformsBuffers() {
+        final Random random = new Random(4);
+        final Coordinate3dTransform transform = Coordinate3dTransform.of(matrix4d(matrix(random, 4, true)));
+        final int n = 2 * Coordinate3dTransform.PARALLEL_THRESHOLD + 7;
+        final Coordinate3dBuffer source = new Coordinate3dBuffer();
+        final Coordinate3d[] expected = new Coordinate3d[n];
+        for (int i = 0; i < n; i++) {
+            source.add(coordinate(random), coordinate(random), coordinate(random));
+            expected[i] = transform.apply(source.get(i));
+        }
+
+        // into smaller and larger buffers, which take the size of the source
+        for (final int size : new int[] {0, n + 10}) {
+            final Coordinate3dBuffer destination = new Coordinate3dBuffer();
+            for (int i = 0; i < size; i++) {
+                destination.add(coordinate(random), coordinate(random), coordinate(random));
+            }
+            assertSame(destination, transform.apply(source, destination, POOL));
+            assertEquals(n, destination.size());
+            for (int i = 0; i < n; i++) {
+                assertClose(expected[i], destination.get(i));
+            }
+        }
+
+        // into the source itself, then in place
+        assertSame(source, transform.apply(source, source));
+        assertEquals(n, source.size());
+        for (int i = 0; i < n; i++) {
+            assertClose(expected[i], source.get(i));
+            expected[i] = transform.apply(expected[i]);
+        }
+        assertSame(source, transform.apply(source));
+        for (int i = 0; i < n; i++) {
+            assertClose(expected[i], source.get(i));
+        }
+    }
+
+    @Test
+    public void coordinate3dRejectsRangesOutOfBounds() {
+        final Coordinate3dTransform transform = Coordinate3dTransform.of(new Matrix3d(2, 0, 0, 0, 2, 0, 0, 0, 2));
+        final double[] xs = new double[10];
+        final double[] ys = new double[10];
+        final double[] zs = new double[10];
+        assertThrows(IndexOutOfBoundsException.class, () -> transform.apply(xs, ys, zs, 5, 11, POOL));
+        assertThrows(IndexOutOfBoundsException.class, () -> transform.apply(xs, ys, zs, 6, 5, POOL));
+        assertThrows(IllegalArgumentException.class, () -> transform.apply(xs, ys, new double[9], 0, 10, POOL));
+        assertThrows(IllegalArgumentException.class, () -> transform.apply(xs, ys, zs, 0, 10, new double[10], new double[10], new double[10], 1, POOL));
+        assertThrows(IllegalArgumentException.class, () -> transform.apply(xs, ys, zs, 0, 10, new double[10], new double[10], new double[10], -1, POOL));
+        assertThrows(IllegalArgumentException.class, () -> transform.apply(xs, ys, zs, 0, 10, new double[10], new double[10], new double[9], 0, POOL));
+        // an offset so large that the end of the range would overflow
+        assertThrows(IllegalArgumentException.class, () -> transform.apply(xs, ys, zs, 9, 10, new double[10], new double[10], new double[10], Integer.MAX_VALUE, POOL));
+
+        // empty ranges may sit at the very end
+        transform.apply(xs, ys, zs, 10, 10, new double[0], new double[0], new double[0], 0, POOL);
+    }
+
+    @Test
+    public void coordinate3fMatchesFlowMath() {
+        final Random random = new Random(5);
+        for (int trial = 0; trial < 20; trial++) {
+            final double[] m = matrix(random, 4, trial % 2 == 1);
+            final Matrix4f matrix = matrix4f(m);
+            final Matrix3f linear = new Matrix3f((float) m[0], (float) m[1], (float) m[2], (float) m[4], (float) m[5], (float) m[6], (float) m[8], (float) m[9], (float) m[10]);
+            final Quaternionf rotation = new Quaternionf((float) m[0], (float) m[1], (float) m[2], (float) m[3]);
+            final Coordinate3fTransform transform = Coordinate3fTransform.of(matrix);
+            assertEquals(trial % 2 == 0, transform.isAffine());
+            assertTrue(Coordinate3fTransform.of(linear).isAffine());
+            assertTrue(Coordinate3fTransform.of(rotation).isAffine());
+
+            for (int i = 0; i < 100; i++) {
+                final Coordinate3f coord = new Coordinate3f(floatCoordinate(random), floatCoordinate(random), floatCoordinate(random));
+                final Vector4f v = matrix.transform(coord.getX(), coord.getY(), coord.getZ(), 1);
+                assertClose(new Vector3f(v.getX() / v.getW(), v.getY() / v.getW(), v.getZ() / v.getW()), transform.apply(coord));
+                assertClose(linear.transform(coord.getX(), coord.getY(), coord.getZ()), Coordinate3fTransform.of(linear).apply(coord));
+                assertClose(rotation.rotate(coord.getX(), coord.getY(), coord.getZ()), Coordinate3fTransform.of(rotation).apply(coord));
+            }
+        }
+    }
+
+    @Test
+    public void coordinate3fTransformsRangesInPlace() {
+        final Random random = new Random(6);
+        final Coordinate3fTransform transform = Coordinate3fTransform.of(matrix4f(matrix(random, 4, true)));
+        // large enough for the whole range to be split across the pool
+        final int n = 2 * Coordinate3fTransform.PARALLEL_THRESHOLD + 7;
+        for (final int[] range : new int[][] {{0, n}, {3, n - 2}, {n / 2, n / 2 + 10}, {n, n}}) {
+            for (final ForkJoinPool pool : new ForkJoinPool[] {POOL, null}) {
+                final float[] xs = floatCoordinates(random, n);
+                final float[] ys = floatCoordinates(random, n);
+                final float[] zs = floatCoordinates(random, n);
+                final float[] oxs = xs.clone();
+                final float[] oys = ys.clone();
+                final float[] ozs = zs.clone();
+                if (pool == null) {
+                    transform.apply(xs, ys, zs, range[0], range[1]);
+                } else {
+                    transform.apply(xs, ys, zs, range[0], range[1], pool);
+                }
+
+                for (int i = 0; i < n; i++) {
+                    if (i >= range[0] && i < range[1]) {
+                        assertClose(transform.apply(new Coordinate3f(oxs[i], oys[i], ozs[i])), new Coordinate3f(xs[i], ys[i], zs[i]));
+                    } else {
+                        assertEquals(new Coordinate3f(oxs[i], oys[i], ozs[i]), new Coordinate3f(xs[i], ys[i], zs[i]));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void coordinate3fTransformsRangesIntoOtherArrays() {
+        final Random random = new Random(7);
+        final Coordinate3fTransform transform = Coordinate3fTransform.of(matrix4f(matrix(random, 4, false)));
+        final int n = 2 * Coordinate3fTransform.PARALLEL_THRESHOLD + 7;
+        final int from = 5;
+        final int to = n - 3;
+        final int offset = 11;
+        for (final ForkJoinPool pool : new ForkJoinPool[] {POOL, null}) {
+            final float[] xs = floatCoordinates(random, n);
+            final float[] ys = floatCoordinates(random, n);
+            final float[] zs = floatCoordinates(random, n);
+            final float[] dxs = floatCoordinates(random, offset + to - from + 4);
+            final float[] dys = floatCoordinates(random, dxs.length);
+            final float[] dzs = floatCoordinates(random, dxs.length);
+            final float[] odxs = dxs.clone();
+            if (pool == null) {
+                transform.apply(xs, ys, zs, from, to, dxs, dys, dzs, offset);
+            } else {
+                transform.apply(xs, ys, zs, from, to, dxs, dys, dzs, offset, pool);
+            }
+
+            for (int i = 0; i < dxs.length; i++) {
+                if (i >= offset && i < offset + to - from) {
+                    final int j = i - offset + from;
+                    assertClose(transform.apply(new Coordinate3f(xs[j], ys[j], zs[j])), new Coordinate3f(dxs[i], dys[i], dzs[i]));
+                } else {
+                    assertEquals(odxs[i], dxs[i], 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void coordinate3fTransformsBuffers() {
+        final Random random = new Random(8);
+        final Coordinate3fTransform transform = Coordinate3fTransform.of(matrix4f(matrix(random, 4, true)));
+        final int n = 2 * Coordinate3fTransform.PARALLEL_THRESHOLD + 7;
+        final Coordinate3fBuffer source = new Coordinate3fBuffer();
+        final Coordinate3f[] expected = new Coordinate3f[n];
+        for (int i = 0; i < n; i++) {
+            source.add(floatCoordinate(random), floatCoordinate(random), floatCoordinate(random));
+            expected[i] = transform.apply(source.get(i));
+        }
+
+        // into smaller and larger buffers, which take the size of the source
+        for (final int size : new int[] {0, n + 10}) {
+            final Coordinate3fBuffer destination = new Coordinate3fBuffer();
+            for (int i = 0; i < size; i++) {
+                destination.add(floatCoordinate(random), floatCoordinate(random), floatCoordinate(random));
+            }
+            assertSame(destination, transform.apply(source, destination, POOL));
+            assertEquals(n, destination.size());
+            for (int i = 0; i < n; i++) {
+                assertClose(expected[i], destination.get(i));
+            }
+        }
+
+        // into the source itself, then in place
+        assertSame(source, transform.apply(source, source));
+        assertEquals(n, source.size());
+        for (int i = 0; i < n; i++) {
+            assertClose(expected[i], source.get(i));
+            expected[i] = transform.apply(expected[i]);
+        }
+        assertSame(source, transform.apply(source));
+        for (int i = 0; i < n; i++) {
+            assertClose(expected[i], source.get(i));
+        }
+    }
+
+    @Test
+    public void coordinate3fRejectsRangesOutOfBounds() {
+        final Coordinate3fTransform transform = Coordinate3fTransform.of(new Matrix3f(2, 0, 0, 0, 2, 0, 0, 0, 2));
+        final float[] xs = new float[10];
+        final float[] ys = new float[10];
+        final float[] zs = new float[10];
+        assertThrows(IndexOutOfBoundsException.class, () -> transform.apply(xs, ys, zs, 5, 11, POOL));
+        assertThrows(IndexOutOfBoundsException.class, () -> transform.apply(xs, ys, zs, 6, 5, POOL));
+        assertThrows(IllegalArgumentException.class, () -> transform.apply(xs, ys, new float[9], 0, 10, POOL));
+        assertThrows(IllegalArgumentException.class, () -> transform.apply(xs, ys, zs, 0, 10, new float[10], new float[10], new float[10], 1, POOL));
+        assertThrows(IllegalArgumentException.class, () -> transform.apply(xs, ys, zs, 0, 10, new float[10], new float[10], new float[10], -1, POOL));
+        assertThrows(IllegalArgumentException.class, () -> transform.apply(xs, ys, zs, 0, 10, new float[10], new float[10], new float[9], 0, POOL));
+        // an offset so large that the end of the range would overflow
+        assertThrows(IllegalArgumentException.class, () -> transform.apply(xs, ys, zs, 9, 10, new float[10], new float[10], new float[10], Integer.MAX_VALUE, POOL));
+
+        // empty ranges may sit at the very end
+        transform.apply(xs, ys, zs, 10, 10, new float[0], new float[0], new float[0], 0, POOL);
+    }
+
+    @Test
+    public void coordinate2dMatchesFlowMath() {
+        final Random random = new Random(9);
+        for (int trial = 0; trial < 20; trial++) {
+            final double[] m = matrix(random, 3, trial % 2 == 1);
+            final Matrix3d matrix = matrix3d(m);
+            final Matrix2d linear = new Matrix2d(m[0], m[1], m[3], m[4]);
+            final Complexd rotation = new Complexd(m[0], m[1]);
+            final Coordinate2dTransform transform = Coordinate2dTransform.of(matrix);
+            assertEquals(trial % 2 == 0, transform.isAffine());
+            assertTrue(Coordinate2dTransform.of(linear).isAffine());
+            assertTrue(Coordinate2dTransform.of(rotation).isAffine());
+
+            for (int i = 0; i < 100; i++) {
+                final Coordinate2d coord = new Coordinate2d(coordinate(random), coordinate(random));
+                final Vector3d v = matrix.transform(coord.getX(), coord.getY(), 1);
+                assertClose(new Vector2d(v.getX() / v.getZ(), v.getY() / v.getZ()), transform.apply(coord));
+                assertClose(linear.transform(coord.getX(), coord.getY()), Coordinate2dTransform.of(linear).apply(coord));
+                assertClose(rotation.rotate(coord.getX(), coord.getY()), Coordinate2dTransform.of(rotation).apply(coord));
+            }
+        }
+    }
+
+    @Test
+    public void coordinate2dTransformsRangesInPlace() {
+        final Random random = new Random(10);
+        final Coordinate2dTransform transform = Coordinate2dTransform.of(matrix3d(matrix(random, 3, true)));
+        final int n = 2 * Coordinate2dTransform.PARALLEL_THRESHOLD + 7;
+        for (final int[] range : new int[][] {{0, n}, {3, n - 2}, {n / 2, n / 2 + 10}, {n, n}}) {
+            for (final ForkJoinPool pool : new ForkJoinPool[] {POOL, null}) {
+                final double[] xs = coordinates(random, n);
+                final double[] ys = coordinates(random, n);
+                final double[] oxs = xs.clone();
+                final double[] oys = ys.clone();
+                if (pool == null) {
+                    transform.apply(xs, ys, range[0], range[1]);
+                } else {
+                    transform.apply(xs, ys, range[0], range[1], pool);
+                }
+
+                for (int i = 0; i < n; i++) {
+                    if (i >= range[0] && i < range[1]) {
+                        assertClose(transform.apply(new Coordinate2d(oxs[i], oys[i])), new Coordinate2d(xs[i], ys[i]));
+                    } else {
+                        assertEquals(new Coordinate2d(oxs[i], oys[i]), new Coordinate2d(xs[i], ys[i]));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void coordinate2dTransformsRangesIntoOtherArrays() {
+        final Random random = new Random(11);
+        final Coordinate2dTransform transform = Coordinate2dTransform.of(matrix3d(matrix(random, 3, false)));
+        final int n = 2 * Coordinate2dTransform.PARALLEL_THRESHOLD + 7;
+        final int from = 5;
+        final int to = n - 3;
+        final int offset = 11;
+        for (final ForkJoinPool pool : new ForkJoinPool[] {POOL, null}) {
+            final double[] xs = coordinates(random, n);
+            final double[] ys = coordinates(random, n);
+            final double[] dxs = coordinates(random, offset + to - from + 4);
+            final double[] dys = coordinates(random, dxs.length);
+            final double[] odys = dys.clone();
+            if (pool == null) {
+                transform.apply(xs, ys, from, to, dxs, dys, offset);
+            } else {
+                transform.apply(xs, ys, from, to, dxs, dys, offset, pool);
+            }
+
+            for (int i = 0; i < dxs.length; i++) {
+                if (i >= offset && i < offset + to - from) {
+                    final int j = i - offset + from;
+                    assertClose(transform.apply(new Coordinate2d(xs[j], ys[j])), new Coordinate2d(dxs[i], dys[i]));
+                } else {
+                    assertEquals(odys[i], dys[i], 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void coordinate2dTransformsBuffers() {
+        final Random random = new Random(12);
+        final Coordinate2dTransform transform = Coordinate2dTransform.of(matrix3d(matrix(random, 3, true)));
+        final int n = 2 * Coordinate2dTransform.PARALLEL_THRESHOLD + 7;
+        final Coordinate2dBuffer source = new Coordinate2dBuffer();
+        final Coordinate2d[] expected = new Coordinate2d[n];
+        for (int i = 0; i < n; i++) {
+            source.add(coordinate(random), coordinate(random));
+            expected[i] = transform.apply(source.get(i));
+        }
+
+        for (final int size : new int[] {0, n + 10}) {
+            final Coordinate2dBuffer destination = new Coordinate2dBuffer();
+            for (int i = 0; i < size; i++) {
+                destination.add(coordinate(random), coordinate(random));
+            }
+            assertSame(destination, transform.apply(source, destination, POOL));
+            assertEquals(n, destination.size());
+            for (int i = 0; i < n; i++) {
+                assertClose(expected[i], destination.get(i));
+            }
+        }
+
+        assertSame(source, transform.apply(source, source));
+        assertEquals(n, source.size());
+        for (int i = 0; i < n; i++) {
+            assertClose(expected[i], source.get(i));
+            expected[i] = transform.apply(expected[i]);
+        }
+        assertSame(source, transform.apply(source));
+        for (int i = 0; i < n; i++) {
+            assertClose(expected[i], source.get(i));
+        }
+    }
+
+    @Test
+    public void coordinate2dRejectsRangesOutOfBounds() {
+        final Coordinate2dTransform transform = Coordinate2dTransform.of(new Matrix2d(2, 0, 0, 2));
+        final double[] xs = new double[10];
+        final double[] ys = new double[10];
+        assertThrows(IndexOutOfBoundsException.class, () -> transform.apply(xs, ys, 5, 11, POOL));
+        assertThrows(IndexOutOfBoundsException.class, () -> transform.apply(xs, ys, 6, 5, POOL));
+        assertThrows(IllegalArgumentException.class, () -> transform.apply(xs, new double[9], 0, 10, POOL));
+        assertThrows(IllegalArgumentException.class, () -> transform.apply(xs, ys, 0, 10, new double[10], new double[10], 1, POOL));
+        assertThrows(IllegalArgumentException.class, () -> transform.apply(xs, ys, 0, 10, new double[10], new double[10], -1, POOL));
+        assertThrows(IllegalArgumentException.class, () -> transform.apply(xs, ys, 9, 10, new double[10], new double[10], Integer.MAX_VALUE, POOL));
+
+        transform.apply(xs, ys, 10, 10, new double[0], new double[0], 0, POOL);
+    }
+
+    @Test
+    public void coordinate2fMatchesFlowMath() {
+        final Random random = new Random(13);
+        for (int trial = 0; trial < 20; trial++) {
+            final double[] m = matrix(random, 3, trial % 2 == 1);
+            final Matrix3f matrix = matrix3f(m);
+            final Matrix2f linear = new Matrix2f((float) m[0], (float) m[1], (float) m[3], (float) m[4]);
+            final Complexf rotation = new Complexf((float) m[0], (float) m[1]);
+            final Coordinate2fTransform transform = Coordinate2fTransform.of(matrix);
+            assertEquals(trial % 2 == 0, transform.isAffine());
+            assertTrue(Coordinate2fTransform.of(linear).isAffine());
+            assertTrue(Coordinate2fTransform.of(rotation).isAffine());
+
+            for (int i = 0; i < 100; i++) {
+                final Coordinate2f coord = new Coordinate2f(floatCoordinate(random), floatCoordinate(random));
+                final Vector3f v = matrix.transform(coord.getX(), coord.getY(), 1);
+                assertClose(new Vector2f(v.getX() / v.getZ(), v.getY() / v.getZ()), transform.apply(coord));
+                assertClose(linear.transform(coord.getX(), coord.getY()), Coordinate2fTransform.of(linear).apply(coord));
+                assertClose(rotation.rotate(coord.getX(), coord.getY()), Coordinate2fTransform.of(rotation).apply(coord));
+            }
+        }
+    }
+
+    @Test
+    public void coordinate2fTransformsRangesInPlace() {
+        final Random random = new Random(14);
+        final Coordinate2fTransform transform = Coordinate2fTransform.of(matrix3f(matrix(random, 3, true)));
+        final int n = 2 * Coordinate2fTransform.PARALLEL_THRESHOLD + 7;
+        for (final int[] range : new int[][] {{0, n}, {3, n - 2}, {n / 2, n / 2 + 10}, {n, n}}) {
+            for (final ForkJoinPool pool : new ForkJoinPool[] {POOL, null}) {
+                final float[] xs = floatCoordinates(random, n);
+                final float[] ys = floatCoordinates(random, n);
+                final float[] oxs = xs.clone();
+                final float[] oys = ys.clone();
+                if (pool == null) {
+                    transform.apply(xs, ys, range[0], range[1]);
+                } else {
+                    transform.apply(xs, ys, range[0], range[1], pool);
+                }
+
+                for (int i = 0; i < n; i++) {
+                    if (i >= range[0] && i < range[1]) {
+                        assertClose(transform.apply(new Coordinate2f(oxs[i], oys[i])), new Coordinate2f(xs[i], ys[i]));
+                    } else {
+                        assertEquals(new Coordinate2f(oxs[i], oys[i]), new Coordinate2f(xs[i], ys[i]));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void coordinate2fTransformsRangesIntoOtherArrays() {
+        final Random random = new Random(15);
+        final Coordinate2fTransform transform = Coordinate2fTransform.of(matrix3f(matrix(random, 3, false)));
+        final int n = 2 * Coordinate2fTransform.PARALLEL_THRESHOLD + 7;
+        final int from = 5;
+        final int to = n - 3;
+        final int offset = 11;
+        for (final ForkJoinPool pool : new ForkJoinPool[] {POOL, null}) {
+            final float[] xs = floatCoordinates(random, n);
+            final float[] ys = floatCoordinates(random, n);
+            final float[] dxs = floatCoordinates(random, offset + to - from + 4);
+            final float[] dys = floatCoordinates(random, dxs.length);
+            final float[] odys = dys.clone();
+            if (pool == null) {
+                transform.apply(xs, ys, from, to, dxs, dys, offset);
+            } else {
+                transform.apply(xs, ys, from, to, dxs, dys, offset, pool);
+            }
+
+            for (int i = 0; i < dxs.length; i++) {
+                if (i >= offset && i < offset + to - from) {
+                    final int j = i - offset + from;
+                    assertClose(transform.apply(new Coordinate2f(xs[j], ys[j])), new Coordinate2f(dxs[i], dys[i]));
+                } else {
+                    assertEquals(odys[i], dys[i], 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void coordinate2fTransformsBuffers() {
+        final Random random = new Random(16);
+        final Coordinate2fTransform transform = Coordinate2fTransform.of(matrix3f(matrix(random, 3, true)));
+        final int n = 2 * Coordinate2fTransform.PARALLEL_THRESHOLD + 7;
+        final Coordinate2fBuffer source = new Coordinate2fBuffer();
+        final Coordinate2f[] expected = new Coordinate2f[n];
+        for (int i = 0; i < n; i++) {
+            source.add(floatCoordinate(random), floatCoordinate(random));
+            expected[i] = transform.apply(source.get(i));
+        }
+
+        for (final int size : new int[] {0, n + 10}) {
+            final Coordinate2fBuffer destination = new Coordinate2fBuffer();
+            for (int i = 0; i < size; i++) {
+                destination.add(floatCoordinate(random), floatCoordinate(random));
+            }
+            assertSame(destination, transform.apply(source, destination, POOL));
+            assertEquals(n, destination.size());
+            for (int i = 0; i < n; i++) {
+                assertClose(expected[i], destination.get(i));
+            }
+        }
+
+        assertSame(source, transform.apply(source, source));
+        assertEquals(n, source.size());
+        for (int i = 0; i < n; i++) {
+            assertClose(expected[i], source.get(i));
+            expected[i] = transform.apply(expected[i]);
+        }
+        assertSame(source, transform.apply(source));
+        for (int i = 0; i < n; i++) {
+            assertClose(expected[i], source.get(i));
+        }
+    }
+
+    @Test
+    public void coordinate2fRejectsRangesOutOfBounds() {
+        final Coordinate2fTransform transform = Coordinate2fTransform.of(new Matrix2f(2, 0, 0, 2));
+        final float[] xs = new float[10];
+        final float[] ys = new float[10];
+        assertThrows(IndexOutOfBoundsException.class, () -> transform.apply(xs, ys, 5, 11, POOL));
+        assertThrows(IndexOutOfBoundsException.class, () -> transform.apply(xs, ys, 6, 5, POOL));
+        assertThrows(IllegalArgumentException.class, () -> transform.apply(xs, new float[9], 0, 10, POOL));
+        assertThrows(IllegalArgumentException.class, () -> transform.apply(xs, ys, 0, 10, new float[10], new float[10], 1, POOL));
+        assertThrows(IllegalArgumentException.class, () -> transform.apply(xs, ys, 0, 10, new float[10], new float[10], -1, POOL));
+        assertThrows(IllegalArgumentException.class, () -> transform.apply(xs, ys, 9, 10, new float[10], new float[10], Integer.MAX_VALUE, POOL));
+
+        transform.apply(xs, ys, 10, 10, new float[0], new float[0], 0, POOL);
+    }
+
+    /**
+     * Creates the entries of a random square matrix of the given size, in
+     * row-major order. Projective matrices keep the w component of the
+     * coordinates above a half.
+     */
+    private static double[] matrix(final Random random, final int size, final boolean projective) {
+        final double[] m = new double[size * size];
+        for (int i = 0; i < m.length; i++) {
+            m[i] = random.nextDouble() * 4 - 2;
+        }
+        final int last = size * (size - 1);
+        for (int col = 0; col < size - 1; col++) {
+            m[last + col] = projective ? random.nextDouble() * 0.002 - 0.001 : 0;
+        }
+        m[m.length - 1] = projective ? 1 + random.nextDouble() : 1;
+        return m;
+    }
+
+    private static Matrix4d matrix4d(final double[] m) {
+        return new Matrix4d(m[0], m[1], m[2], m[3], m[4], m[5], m[6], m[7], m[8], m[9], m[10], m[11], m[12], m[13], m[14], m[15]);
+    }
+
+    private static Matrix4f matrix4f(final double[] m) {
+        return new Matrix4f((float) m[0], (float) m[1], (float) m[2], (float) m[3], (float) m[4], (float) m[5], (float) m[6], (float) m[7],
+                (float) m[8], (float) m[9], (float) m[10], (float) m[11], (float) m[12], (float) m[13], (float) m[14], (float) m[15]);
+    }
+
+    private static Matrix3d matrix3d(final double[] m) {
+        return new Matrix3d(m[0], m[1], m[2], m[3], m[4], m[5], m[6], m[7], m[8]);
+    }
+
+    private static Matrix3f matrix3f(final double[] m) {
+        return new Matrix3f((float) m[0], (float) m[1], (float) m[2], (float) m[3], (float) m[4], (float) m[5], (float) m[6], (float) m[7], (float) m[8]);
+    }
+
+    // exact in float, so the float transforms see the same coordinates
+    private static double coordinate(final Random random) {
+        return floatCoordinate(random);
+    }
+
+    private static float floatCoordinate(final Random random) {
+        return random.nextFloat() * 200 - 100;
+    }
+
+    private static double[] coordinates(final Random random, final int n) {
+        final double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = coordinate(random);
+        }
+        return values;
+    }
+
+    private static float[] floatCoordinates(final Random random, final int n) {
+        final float[] values = new float[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = floatCoordinate(random);
+        }
+        return values;
+    }
+
+    private static void assertClose(final Vector3d expected, final Coordinate3d actual) {
+        assertClose(new Coordinate3d(expected.getX(), expected.getY(), expected.getZ()), actual);
+    }
+
+    private static void assertClose(final Coordinate3d expected, final Coordinate3d actual) {
+        assertEquals(expected.getX(), actual.getX(), DOUBLE_TOLERANCE);
+        assertEquals(expected.getY(), actual.getY(), DOUBLE_TOLERANCE);
+        assertEquals(expected.getZ(), actual.getZ(), DOUBLE_TOLERANCE);
+    }
+
+    private static void assertClose(final Vector3f expected, final Coordinate3f actual) {
+        assertClose(new Coordinate3f(expected.getX(), expected.getY(), expected.getZ()), actual);
+    }
+
+    private static void assertClose(final Coordinate3f expected, final Coordinate3f actual) {
+        assertEquals(expected.getX(), actual.getX(), FLOAT_TOLERANCE);
+        assertEquals(expected.getY(), actual.getY(), FLOAT_TOLERANCE);
+        assertEquals(expected.getZ(), actual.getZ(), FLOAT_TOLERANCE);
+    }
+
+    private static void assertClose(final Vector2d expected, final Coordinate2d actual) {
+        assertClose(new Coordinate2d(expected.getX(), expected.getY()), actual);
+    }
+
+    private static void assertClose(final Coordinate2d expected, final Coordinate2d actual) {
+        assertEquals(expected.getX(), actual.getX(), DOUBLE_TOLERANCE);
+        assertEquals(expected.getY(), actual.getY(), DOUBLE_TOLERANCE);
+    }
+
+    private static void assertClose(final Vector2f expected, final Coordinate2f actual) {
+        assertClose(new Coordinate2f(expected.getX(), expected.getY()), actual);
+    }
+
+    private static void assertClose(final Coordinate2f expected, final Coordinate2f actual) {
+        assertEquals(expected.getX(), actual.getX(), FLOAT_TOLERANCE);
+        assertEquals(expected.getY(), actual.getY(), FLOAT_TOLERANCE);
+    }
+
+}
@@ -0,0 +1,1345 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.coord;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+import com.flowpowered.math.vector.Vector2d;
+import com.flowpowered.math.vector.Vector2f;
+import com.flowpowered.math.vector.Vector2i;
+import com.flowpowered.math.vector.Vector2l;
+import com.flowpowered.math.vector.Vector3d;
+import com.flowpowered.math.vector.Vector3f;
+import com.flowpowered.math.vector.Vector3i;
+import com.flowpowered.math.vector.Vector3l;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Checks each mutable coordinate against the same arithmetic on plain
+ * locals of its type, and against its immutable counterpart. Integral
+ * positions range over the whole type, and so wrap around; floating
+ * point positions are kept to small integers, so every step is exact.
+ */
+public final class MutableCoordinateTest {
+
+    @Test
+    public void mutableCoordinate3dMatchesPlainArithmetic() {
+        final Random random = new Random(1);
+        final MutableCoordinate3d coord = new MutableCoordinate3d(1, 2, 3);
+        final MutableCoordinate3d other = new MutableCoordinate3d();
+        double x = 1;
+        double y = 2;
+        double z = 3;
+        for (int i = 0; i < 100_000; i++) {
+            final double ax = random.nextInt(2_001) - 1_000;
+            final double ay = random.nextInt(2_001) - 1_000;
+            final double az = random.nextInt(2_001) - 1_000;
+            final double sx = random.nextInt(7) - 3;
+            final double sy = random.nextInt(7) - 3;
+            final double sz = random.nextInt(7) - 3;
+            final MutableCoordinate3d result;
+            switch (random.nextInt(11)) {
+                case 0:
+                    result = coord.set(ax, ay, az);
+                    x = ax;
+                    y = ay;
+                    z = az;
+                    break;
+                case 1:
+                    result = coord.set(new Coordinate3d(ax, ay, az));
+                    x = ax;
+                    y = ay;
+                    z = az;
+                    break;
+                case 2:
+                    other.set(ax, ay, az);
+                    result = coord.set(other);
+                    x = ax;
+                    y = ay;
+                    z = az;
+                    break;
+                case 3:
+                    result = coord.move(ax, ay, az);
+                    x += ax;
+                    y += ay;
+                    z += az;
+                    break;
+                case 4: {
+                    // the immutable coordinate follows the same moves
+                    final Coordinate3d moved = coord.toImmutable().move(new Vector3d(ax, ay, az));
+                    result = coord.move(new Vector3d(ax, ay, az));
+                    x += ax;
+                    y += ay;
+                    z += az;
+                    assertEquals(moved, coord.toImmutable());
+                    break;
+                }
+                case 5: {
+                    final double factor = random.nextInt(7) - 3;
+                    result = coord.move(new Vector3d(ax, ay, az), factor);
+                    x += ax * factor;
+                    y += ay * factor;
+                    z += az * factor;
+                    break;
+                }
+                case 6:
+                    other.set(ax, ay, az);
+                    result = coord.move(other);
+                    x += ax;
+                    y += ay;
+                    z += az;
+                    break;
+                case 7:
+                    result = coord.scale(sx, sy, sz);
+                    x *= sx;
+                    y *= sy;
+                    z *= sz;
+                    break;
+                case 8:
+                    result = coord.scale(new Vector3d(sx, sy, sz));
+                    x *= sx;
+                    y *= sy;
+                    z *= sz;
+                    break;
+                case 9: {
+                    final double factor = random.nextInt(7) - 3;
+                    result = coord.scale(factor);
+                    x *= factor;
+                    y *= factor;
+                    z *= factor;
+                    break;
+                }
+                default:
+                    result = coord.negate();
+                    x = -x;
+                    y = -y;
+                    z = -z;
+                    break;
+            }
+            assertSame(coord, result);
+            assertEquals(new Coordinate3d(x, y, z), coord.toImmutable());
+            assertEquals(coord.toImmutable(), MutableCoordinate3d.from(coord.toImmutable()).toImmutable());
+            // keep the position small enough for every step to be exact
+            if (Math.abs(x) > 1_000_000 || Math.abs(y) > 1_000_000 || Math.abs(z) > 1_000_000) {
+                coord.set(0, 0, 0);
+                x = 0;
+                y = 0;
+                z = 0;
+            }
+        }
+    }
+
+    @Test
+    public void mutableCoordinate3dMovesPastTheLimits() {
+        // as Coordinate3d does, overflowing to infinity
+        final Coordinate3d limits = new Coordinate3d(Double.MAX_VALUE, -Double.MAX_VALUE, 0);
+        final Vector3d step = new Vector3d(Double.MAX_VALUE, -Double.MAX_VALUE, 0);
+        final MutableCoordinate3d coord = MutableCoordinate3d.from(limits).move(step);
+        assertEquals(limits.move(step), coord.toImmutable());
+        assertEquals(new Coordinate3d(Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0), coord.toImmutable());
+        assertEquals(new Coordinate3d(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 0), coord.negate().toImmutable());
+    }
+
+    @Test
+    public void mutableCoordinate3dMovesAndSetsItself() {
+        final MutableCoordinate3d coord = new MutableCoordinate3d(1, -2, 3);
+        assertSame(coord, coord.set(coord));
+        assertEquals(new Coordinate3d(1, -2, 3), coord.toImmutable());
+        assertSame(coord, coord.move(coord));
+        assertEquals(new Coordinate3d(2, -4, 6), coord.toImmutable());
+    }
+
+    @Test
+    public void mutableCoordinate3dHasIdentityEquality() {
+        final MutableCoordinate3d a = new MutableCoordinate3d(5, 5, 5);
+        final MutableCoordinate3d b = new MutableCoordinate3d(5, 5, 5);
+        assertNotEquals(a, b);
+        assertEquals(a.toImmutable(), b.toImmutable());
+        assertNotSame(a.toImmutable(), a.toImmutable());
+    }
+
+    @Test
+    public void mutableCoordinate3dReusesScratchCoordinatesInStackOrder() throws Exception {
+        final MutableCoordinate3d first = MutableCoordinate3d.acquire();
+        final MutableCoordinate3d second = MutableCoordinate3d.acquire();
+        assertNotSame(first, second);
+        first.set(7, 7, 7);
+        second.set(9, 9, 9);
+
+        assertThrows(IllegalStateException.class, first::release);
+        assertThrows(IllegalStateException.class, new MutableCoordinate3d()::release);
+        second.release();
+        first.release();
+        assertThrows(IllegalStateException.class, first::release);
+
+        // the same coordinates come back, at the origin
+        final MutableCoordinate3d again = MutableCoordinate3d.acquire();
+        assertSame(first, again);
+        assertEquals(new Coordinate3d(0, 0, 0), again.toImmutable());
+        final MutableCoordinate3d deeper = MutableCoordinate3d.acquire();
+        assertSame(second, deeper);
+        assertEquals(new Coordinate3d(0, 0, 0), deeper.toImmutable());
+
+        // another thread has its own pool, and can't release this thread's coordinates
+        final MutableCoordinate3d elsewhere = CompletableFuture.supplyAsync(() -> {
+            assertThrows(IllegalStateException.class, deeper::release);
+            final MutableCoordinate3d coord = MutableCoordinate3d.acquire();
+            coord.release();
+            return coord;
+        }).get();
+        assertNotSame(first, elsewhere);
+        assertNotSame(second, elsewhere);
+
+        deeper.release();
+        again.release();
+    }
+
+    @Test
+    public void mutableCoordinate3fMatchesPlainArithmetic() {
+        final Random random = new Random(2);
+        final MutableCoordinate3f coord = new MutableCoordinate3f(1, 2, 3);
+        final MutableCoordinate3f other = new MutableCoordinate3f();
+        float x = 1;
+        float y = 2;
+        float z = 3;
+        for (int i = 0; i < 100_000; i++) {
+            final float ax = random.nextInt(2_001) - 1_000;
+            final float ay = random.nextInt(2_001) - 1_000;
+            final float az = random.nextInt(2_001) - 1_000;
+            final float sx = random.nextInt(7) - 3;
+            final float sy = random.nextInt(7) - 3;
+            final float sz = random.nextInt(7) - 3;
+            final MutableCoordinate3f result;
+            switch (random.nextInt(11)) {
+                case 0:
+                    result = coord.set(ax, ay, az);
+                    x = ax;
+                    y = ay;
+                    z = az;
+                    break;
+                case 1:
+                    result = coord.set(new Coordinate3f(ax, ay, az));
+                    x = ax;
+                    y = ay;
+                    z = az;
+                    break;
+                case 2:
+                    other.set(ax, ay, az);
+                    result = coord.set(other);
+                    x = ax;
+                    y = ay;
+                    z = az;
+                    break;
+                case 3:
+                    result = coord.move(ax, ay, az);
+                    x += ax;
+                    y += ay;
+                    z += az;
+                    break;
+                case 4: {
+                    // the immutable coordinate follows the same moves
+                    final Coordinate3f moved = coord.toImmutable().move(new Vector3f(ax, ay, az));
+                    result = coord.move(new Vector3f(ax, ay, az));
+                    x += ax;
+                    y += ay;
+                    z += az;
+                    assertEquals(moved, coord.toImmutable());
+                    break;
+                }
+                case 5: {
+                    final float factor = random.nextInt(7) - 3;
+                    result = coord.move(new Vector3f(ax, ay, az), factor);
+                    x += ax * factor;
+                    y += ay * factor;
+                    z += az * factor;
+                    break;
+                }
+                case 6:
+                    other.set(ax, ay, az);
+                    result = coord.move(other);
+                    x += ax;
+                    y += ay;
+                    z += az;
+                    break;
+                case 7:
+                    result = coord.scale(sx, sy, sz);
+                    x *= sx;
+                    y *= sy;
+                    z *= sz;
+                    break;
+                case 8:
+                    result = coord.scale(new Vector3f(sx, sy, sz));
+                    x *= sx;
+                    y *= sy;
+                    z *= sz;
+                    break;
+                case 9: {
+                    final float factor = random.nextInt(7) - 3;
+                    result = coord.scale(factor);
+                    x *= factor;
+                    y *= factor;
+                    z *= factor;
+                    break;
+                }
+                default:
+                    result = coord.negate();
+                    x = -x;
+                    y = -y;
+                    z = -z;
+                    break;
+            }
+            assertSame(coord, result);
+            assertEquals(new Coordinate3f(x, y, z), coord.toImmutable());
+            assertEquals(coord.toImmutable(), MutableCoordinate3f.from(coord.toImmutable()).toImmutable());
+            // keep the position small enough for every step to be exact
+            if (Math.abs(x) > 1_000_000 || Math.abs(y) > 1_000_000 || Math.abs(z) > 1_000_000) {
+                coord.set(0, 0, 0);
+                x = 0;
+                y = 0;
+                z = 0;
+            }
+        }
+    }
+
+    @Test
+    public void mutableCoordinate3fMovesPastTheLimits() {
+        // as Coordinate3f does, overflowing to infinity
+        final Coordinate3f limits = new Coordinate3f(Float.MAX_VALUE, -Float.MAX_VALUE, 0);
+        final Vector3f step = new Vector3f(Float.MAX_VALUE, -Float.MAX_VALUE, 0);
+        final MutableCoordinate3f coord = MutableCoordinate3f.from(limits).move(step);
+        assertEquals(limits.move(step), coord.toImmutable());
+        assertEquals(new Coordinate3f(Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY, 0), coord.toImmutable());
+        assertEquals(new Coordinate3f(Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY, 0), coord.negate().toImmutable());
+    }
+
+    @Test
+    public void mutableCoordinate3fMovesAndSetsItself() {
+        final MutableCoordinate3f coord = new MutableCoordinate3f(1, -2, 3);
+        assertSame(coord, coord.set(coord));
+        assertEquals(new Coordinate3f(1, -2, 3), coord.toImmutable());
+        assertSame(coord, coord.move(coord));
+        assertEquals(new Coordinate3f(2, -4, 6), coord.toImmutable());
+    }
+
+    @Test
+    public void mutableCoordinate3fHasIdentityEquality() {
+        final MutableCoordinate3f a = new MutableCoordinate3f(5, 5, 5);
+        final MutableCoordinate3f b = new MutableCoordinate3f(5, 5, 5);
+        assertNotEquals(a, b);
+        assertEquals(a.toImmutable(), b.toImmutable());
+        assertNotSame(a.toImmutable(), a.toImmutable());
+    }
+
+    @Test
+    public void mutableCoordinate3fReusesScratchCoordinatesInStackOrder() throws Exception {
+        final MutableCoordinate3f first = MutableCoordinate3f.acquire();
+        final MutableCoordinate3f second = MutableCoordinate3f.acquire();
+        assertNotSame(first, second);
+        first.set(7, 7, 7);
+        second.set(9, 9, 9);
+
+        assertThrows(IllegalStateException.class, first::release);
+        assertThrows(IllegalStateException.class, new MutableCoordinate3f()::release);
+        second.release();
+        first.release();
+        assertThrows(IllegalStateException.class, first::release);
+
+        // the same coordinates come back, at the origin
+        final MutableCoordinate3f again = MutableCoordinate3f.acquire();
+        assertSame(first, again);
+        assertEquals(new Coordinate3f(0, 0, 0), again.toImmutable());
+        final MutableCoordinate3f deeper = MutableCoordinate3f.acquire();
+        assertSame(second, deeper);
+        assertEquals(new Coordinate3f(0, 0, 0), deeper.toImmutable());
+
+        // another thread has its own pool, and can't release this thread's coordinates
+        final MutableCoordinate3f elsewhere = CompletableFuture.supplyAsync(() -> {
+            assertThrows(IllegalStateException.class, deeper::release);
+            final MutableCoordinate3f coord = MutableCoordinate3f.acquire();
+            coord.release();
+            return coord;
+        }).get();
+        assertNotSame(first, elsewhere);
+        assertNotSame(second, elsewhere);
+
+        deeper.release();
+        again.release();
+    }
+
+    @Test
+    public void mutableCoordinate3iMatchesPlainArithmetic() {
+        final Random random = new Random(3);
+        final MutableCoordinate3i coord = new MutableCoordinate3i(1, 2, 3);
+        final MutableCoordinate3i other = new MutableCoordinate3i();
+        int x = 1;
+        int y = 2;
+        int z = 3;
+        for (int i = 0; i < 100_000; i++) {
+            final int ax = random.nextInt();
+            final int ay = random.nextInt();
+            final int az = random.nextInt();
+            final int sx = random.nextInt(7) - 3;
+            final int sy = random.nextInt(7) - 3;
+            final int sz = random.nextInt(7) - 3;
+            final MutableCoordinate3i result;
+            switch (random.nextInt(11)) {
+                case 0:
+                    result = coord.set(ax, ay, az);
+                    x = ax;
+                    y = ay;
+                    z = az;
+                    break;
+                case 1:
+                    result = coord.set(new Coordinate3i(ax, ay, az));
+                    x = ax;
+                    y = ay;
+                    z = az;
+                    break;
+                case 2:
+                    other.set(ax, ay, az);
+                    result = coord.set(other);
+                    x = ax;
+                    y = ay;
+                    z = az;
+                    break;
+                case 3:
+                    result = coord.move(ax, ay, az);
+                    x += ax;
+                    y += ay;
+                    z += az;
+                    break;
+                case 4: {
+                    // the immutable coordinate follows the same moves
+                    final Coordinate3i moved = coord.toImmutable().move(new Vector3i(ax, ay, az));
+                    result = coord.move(new Vector3i(ax, ay, az));
+                    x += ax;
+                    y += ay;
+                    z += az;
+                    assertEquals(moved, coord.toImmutable());
+                    break;
+                }
+                case 5: {
+                    final int factor = random.nextInt(7) - 3;
+                    result = coord.move(new Vector3i(ax, ay, az), factor);
+                    x += ax * factor;
+                    y += ay * factor;
+                    z += az * factor;
+                    break;
+                }
+                case 6:
+                    other.set(ax, ay, az);
+                    result = coord.move(other);
+                    x += ax;
+                    y += ay;
+                    z += az;
+                    break;
+                case 7:
+                    result = coord.scale(sx, sy, sz);
+                    x *= sx;
+                    y *= sy;
+                    z *= sz;
+                    break;
+                case 8:
+                    result = coord.scale(new Vector3i(sx, sy, sz));
+                    x *= sx;
+                    y *= sy;
+                    z *= sz;
+                    break;
+                case 9: {
+                    final int factor = random.nextInt(7) - 3;
+                    result = coord.scale(factor);
+                    x *= factor;
+                    y *= factor;
+                    z *= factor;
+                    break;
+                }
+                default:
+                    result = coord.negate();
+                    x = -x;
+                    y = -y;
+                    z = -z;
+                    break;
+            }
+            assertSame(coord, result);
+            assertEquals(new Coordinate3i(x, y, z), coord.toImmutable());
+            assertEquals(coord.toImmutable(), MutableCoordinate3i.from(coord.toImmutable()).toImmutable());
+        }
+    }
+
+    @Test
+    public void mutableCoordinate3iMovesPastTheLimits() {
+        // as Coordinate3i does, wrapping around
+        final Coordinate3i limits = new Coordinate3i(Integer.MAX_VALUE, Integer.MIN_VALUE, 0);
+        final Vector3i step = new Vector3i(1, -1, 0);
+        final MutableCoordinate3i coord = MutableCoordinate3i.from(limits).move(step);
+        assertEquals(limits.move(step), coord.toImmutable());
+        assertEquals(new Coordinate3i(Integer.MIN_VALUE, Integer.MAX_VALUE, 0), coord.toImmutable());
+        assertEquals(new Coordinate3i(Integer.MIN_VALUE, -Integer.MAX_VALUE, 0), coord.negate().toImmutable());
+    }
+
+    @Test
+    public void mutableCoordinate3iMovesAndSetsItself() {
+        final MutableCoordinate3i coord = new MutableCoordinate3i(1, -2, 3);
+        assertSame(coord, coord.set(coord));
+        assertEquals(new Coordinate3i(1, -2, 3), coord.toImmutable());
+        assertSame(coord, coord.move(coord));
+        assertEquals(new Coordinate3i(2, -4, 6), coord.toImmutable());
+    }
+
+    @Test
+    public void mutableCoordinate3iHasIdentityEquality() {
+        final MutableCoordinate3i a = new MutableCoordinate3i(5, 5, 5);
+        final MutableCoordinate3i b = new MutableCoordinate3i(5, 5, 5);
+        assertNotEquals(a, b);
+        assertEquals(a.toImmutable(), b.toImmutable());
+        assertNotSame(a.toImmutable(), a.toImmutable());
+    }
+
+    @Test
+    public void mutableCoordinate3iReusesScratchCoordinatesInStackOrder() throws Exception {
+        final MutableCoordinate3i first = MutableCoordinate3i.acquire();
+        final MutableCoordinate3i second = MutableCoordinate3i.acquire();
+        assertNotSame(first, second);
+        first.set(7, 7, 7);
+        second.set(9, 9, 9);
+
+        assertThrows(IllegalStateException.class, first::release);
+        assertThrows(IllegalStateException.class, new MutableCoordinate3i()::release);
+        second.release();
+        first.release();
+        assertThrows(IllegalStateException.class, first::release);
+
+        // the same coordinates come back, at the origin
+        final MutableCoordinate3i again = MutableCoordinate3i.acquire();
+        assertSame(first, again);
+        assertEquals(new Coordinate3i(0, 0, 0), again.toImmutable());
+        final MutableCoordinate3i deeper = MutableCoordinate3i.acquire();
+        assertSame(second, deeper);
+        assertEquals(new Coordinate3i(0, 0, 0), deeper.toImmutable());
+
+        // another thread has its own pool, and can't release this thread's coordinates
+        final MutableCoordinate3i elsewhere = CompletableFuture.supplyAsync(() -> {
+            assertThrows(IllegalStateException.class, deeper::release);
+            final MutableCoordinate3i coord = MutableCoordinate3i.acquire();
+            coord.release();
+            return coord;
+        }).get();
+        assertNotSame(first, elsewhere);
+        assertNotSame(second, elsewhere);
+
+        deeper.release();
+        again.release();
+    }
+
+    @Test
+    public void mutableCoordinate3lMatchesPlainArithmetic() {
+        final Random random = new Random(4);
+        final MutableCoordinate3l coord = new MutableCoordinate3l(1, 2, 3);
+        final MutableCoordinate3l other = new MutableCoordinate3l();
+        long x = 1;
+        long y = 2;
+        long z = 3;
+        for (int i = 0; i < 100_000; i++) {
+            final long ax = random.nextLong();
+            final long ay = random.nextLong();
+            final long az = random.nextLong();
+            final long sx = random.nextInt(7) - 3;
+            final long sy = random.nextInt(7) - 3;
+            final long sz = random.nextInt(7) - 3;
+            final MutableCoordinate3l result;
+            switch (random.nextInt(11)) {
+                case 0:
+                    result = coord.set(ax, ay, az);
+                    x = ax;
+                    y = ay;
+                    z = az;
+                    break;
+                case 1:
+                    result = coord.set(new Coordinate3l(ax, ay, az));
+                    x = ax;
+                    y = ay;
+                    z = az;
+                    break;
+                case 2:
+                    other.set(ax, ay, az);
+                    result = coord.set(other);
+                    x = ax;
+                    y = ay;
+                    z = az;
+                    break;
+                case 3:
+                    result = coord.move(ax, ay, az);
+                    x += ax;
+                    y += ay;
+                    z += az;
+                    break;
+                case 4: {
+                    // the immutable coordinate follows the same moves
+                    final Coordinate3l moved = coord.toImmutable().move(new Vector3l(ax, ay, az));
+                    result = coord.move(new Vector3l(ax, ay, az));
+                    x += ax;
+                    y += ay;
+                    z += az;
+                    assertEquals(moved, coord.toImmutable());
+                    break;
+                }
+                case 5: {
+                    final long factor = random.nextInt(7) - 3;
+                    result = coord.move(new Vector3l(ax, ay, az), factor);
+                    x += ax * factor;
+                    y += ay * factor;
+                    z += az * factor;
+                    break;
+                }
+                case 6:
+                    other.set(ax, ay, az);
+                    result = coord.move(other);
+                    x += ax;
+                    y += ay;
+                    z += az;
+                    break;
+                case 7:
+                    result = coord.scale(sx, sy, sz);
+                    x *= sx;
+                    y *= sy;
+                    z *= sz;
+                    break;
+                case 8:
+                    result = coord.scale(new Vector3l(sx, sy, sz));
+                    x *= sx;
+                    y *= sy;
+                    z *= sz;
+                    break;
+                case 9: {
+                    final long factor = random.nextInt(7) - 3;
+                    result = coord.scale(factor);
+                    x *= factor;
+                    y *= factor;
+                    z *= factor;
+                    break;
+                }
+                default:
+                    result = coord.negate();
+                    x = -x;
+                    y = -y;
+                    z = -z;
+                    break;
+            }
+            assertSame(coord, result);
+            assertEquals(new Coordinate3l(x, y, z), coord.toImmutable());
+            assertEquals(coord.toImmutable(), MutableCoordinate3l.from(coord.toImmutable()).toImmutable());
+        }
+    }
+
+    @Test
+    public void mutableCoordinate3lMovesPastTheLimits() {
+        // as Coordinate3l does, wrapping around
+        final Coordinate3l limits = new Coordinate3l(Long.MAX_VALUE, Long.MIN_VALUE, 0);
+        final Vector3l step = new Vector3l(1, -1, 0);
+        final MutableCoordinate3l coord = MutableCoordinate3l.from(limits).move(step);
+        assertEquals(limits.move(step), coord.toImmutable());
+        assertEquals(new Coordinate3l(Long.MIN_VALUE, Long.MAX_VALUE, 0), coord.toImmutable());
+        assertEquals(new Coordinate3l(Long.MIN_VALUE, -Long.MAX_VALUE, 0), coord.negate().toImmutable());
+    }
+
+    @Test
+    public void mutableCoordinate3lMovesAndSetsItself() {
+        final MutableCoordinate3l coord = new MutableCoordinate3l(1, -2, 3);
+        assertSame(coord, coord.set(coord));
+        assertEquals(new Coordinate3l(1, -2, 3), coord.toImmutable());
+        assertSame(coord, coord.move(coord));
+        assertEquals(new Coordinate3l(2, -4, 6), coord.toImmutable());
+    }
+
+    @Test
+    public void mutableCoordinate3lHasIdentityEquality() {
+        final MutableCoordinate3l a = new MutableCoordinate3l(5, 5, 5);
+        final MutableCoordinate3l b = new MutableCoordinate3l(5, 5, 5);
+        assertNotEquals(a, b);
+        assertEquals(a.toImmutable(), b.toImmutable());
+        assertNotSame(a.toImmutable(), a.toImmutable());
+    }
+
+    @Test
+    public void mutableCoordinate3lReusesScratchCoordinatesInStackOrder() throws Exception {
+        final MutableCoordinate3l first = MutableCoordinate3l.acquire();
+        final MutableCoordinate3l second = MutableCoordinate3l.acquire();
+        assertNotSame(first, second);
+        first.set(7, 7, 7);
+        second.set(9, 9, 9);
+
+        assertThrows(IllegalStateException.class, first::release);
+        assertThrows(IllegalStateException.class, new MutableCoordinate3l()::release);
+        second.release();
+        first.release();
+        assertThrows(IllegalStateException.class, first::release);
+
+        // the same coordinates come back, at the origin
+        final MutableCoordinate3l again = MutableCoordinate3l.acquire();
+        assertSame(first, again);
+        assertEquals(new Coordinate3l(0, 0, 0), again.toImmutable());
+        final MutableCoordinate3l deeper = MutableCoordinate3l.acquire();
+        assertSame(second, deeper);
+        assertEquals(new Coordinate3l(0, 0, 0), deeper.toImmutable());
+
+        // another thread has its own pool, and can't release this thread's coordinates
+        final MutableCoordinate3l elsewhere = CompletableFuture.supplyAsync(() -> {
+            assertThrows(IllegalStateException.class, deeper::release);
+            final MutableCoordinate3l coord = MutableCoordinate3l.acquire();
+            coord.release();
+            return coord;
+        }).get();
+        assertNotSame(first, elsewhere);
+        assertNotSame(second, elsewhere);
+
+        deeper.release();
+        again.release();
+    }
+
+    @Test
+    public void mutableCoordinate2dMatchesPlainArithmetic() {
+        final Random random = new Random(5);
+        final MutableCoordinate2d coord = new MutableCoordinate2d(1, 2);
+        final MutableCoordinate2d other = new MutableCoordinate2d();
+        double x = 1;
+        double y = 2;
+        for (int i = 0; i < 100_000; i++) {
+            final double ax = random.nextInt(2_001) - 1_000;
+            final double ay = random.nextInt(2_001) - 1_000;
+            final double sx = random.nextInt(7) - 3;
+            final double sy = random.nextInt(7) - 3;
+            final MutableCoordinate2d result;
+            switch (random.nextInt(11)) {
+                case 0:
+                    result = coord.set(ax, ay);
+                    x = ax;
+                    y = ay;
+                    break;
+                case 1:
+                    result = coord.set(new Coordinate2d(ax, ay));
+                    x = ax;
+                    y = ay;
+                    break;
+                case 2:
+                    other.set(ax, ay);
+                    result = coord.set(other);
+                    x = ax;
+                    y = ay;
+                    break;
+                case 3:
+                    result = coord.move(ax, ay);
+                    x += ax;
+                    y += ay;
+                    break;
+                case 4: {
+                    // the immutable coordinate follows the same moves
+                    final Coordinate2d moved = coord.toImmutable().move(new Vector2d(ax, ay));
+                    result = coord.move(new Vector2d(ax, ay));
+                    x += ax;
+                    y += ay;
+                    assertEquals(moved, coord.toImmutable());
+                    break;
+                }
+                case 5: {
+                    final double factor = random.nextInt(7) - 3;
+                    result = coord.move(new Vector2d(ax, ay), factor);
+                    x += ax * factor;
+                    y += ay * factor;
+                    break;
+                }
+                case 6:
+                    other.set(ax, ay);
+                    result = coord.move(other);
+                    x += ax;
+                    y += ay;
+                    break;
+                case 7:
+                    result = coord.scale(sx, sy);
+                    x *= sx;
+                    y *= sy;
+                    break;
+                case 8:
+                    result = coord.scale(new Vector2d(sx, sy));
+                    x *= sx;
+                    y *= sy;
+                    break;
+                case 9: {
+                    final double factor = random.nextInt(7) - 3;
+                    result = coord.scale(factor);
+                    x *= factor;
+                    y *= factor;
+                    break;
+                }
+                default:
+                    result = coord.negate();
+                    x = -x;
+                    y = -y;
+                    break;
+            }
+            assertSame(coord, result);
+            assertEquals(new Coordinate2d(x, y), coord.toImmutable());
+            assertEquals(coord.toImmutable(), MutableCoordinate2d.from(coord.toImmutable()).toImmutable());
+            // keep the position small enough for every step to be exact
+            if (Math.abs(x) > 1_000_000 || Math.abs(y) > 1_000_000) {
+                coord.set(0, 0);
+                x = 0;
+                y = 0;
+            }
+        }
+    }
+
+    @Test
+    public void mutableCoordinate2dMovesPastTheLimits() {
+        // as Coordinate2d does, overflowing to infinity
+        final Coordinate2d limits = new Coordinate2d(Double.MAX_VALUE, -Double.MAX_VALUE);
+        final Vector2d step = new Vector2d(Double.MAX_VALUE, -Double.MAX_VALUE);
+        final MutableCoordinate2d coord = MutableCoordinate2d.from(limits).move(step);
+        assertEquals(limits.move(step), coord.toImmutable());
+        assertEquals(new Coordinate2d(Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY), coord.toImmutable());
+        assertEquals(new Coordinate2d(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY), coord.negate().toImmutable());
+    }
+
+    @Test
+    public void mutableCoordinate2dMovesAndSetsItself() {
+        final MutableCoordinate2d coord = new MutableCoordinate2d(1, -2);
+        assertSame(coord, coord.set(coord));
+        assertEquals(new Coordinate2d(1, -2), coord.toImmutable());
+        assertSame(coord, coord.move(coord));
+        assertEquals(new Coordinate2d(2, -4), coord.toImmutable());
+    }
+
+    @Test
+    public void mutableCoordinate2dHasIdentityEquality() {
+        final MutableCoordinate2d a = new MutableCoordinate2d(5, 5);
+        final MutableCoordinate2d b = new MutableCoordinate2d(5, 5);
+        assertNotEquals(a, b);
+        assertEquals(a.toImmutable(), b.toImmutable());
+        assertNotSame(a.toImmutable(), a.toImmutable());
+    }
+
+    @Test
+    public void mutableCoordinate2dReusesScratchCoordinatesInStackOrder() throws Exception {
+        final MutableCoordinate2d first = MutableCoordinate2d.acquire();
+        final MutableCoordinate2d second = MutableCoordinate2d.acquire();
+        assertNotSame(first, second);
+        first.set(7, 7);
+        second.set(9, 9);
+
+        assertThrows(IllegalStateException.class, first::release);
+        assertThrows(IllegalStateException.class, new MutableCoordinate2d()::release);
+        second.release();
+        first.release();
+        assertThrows(IllegalStateException.class, first::release);
+
+        // the same coordinates come back, at the origin
+        final MutableCoordinate2d again = MutableCoordinate2d.acquire();
+        assertSame(first, again);
+        assertEquals(new Coordinate2d(0, 0), again.toImmutable());
+        final MutableCoordinate2d deeper = MutableCoordinate2d.acquire();
+        assertSame(second, deeper);
+        assertEquals(new Coordinate2d(0, 0), deeper.toImmutable());
+
+        // another thread has its own pool, and can't release this thread's coordinates
+        final MutableCoordinate2d elsewhere = CompletableFuture.supplyAsync(() -> {
+            assertThrows(IllegalStateException.class, deeper::release);
+            final MutableCoordinate2d coord = MutableCoordinate2d.acquire();
+            coord.release();
+            return coord;
+        }).get();
+        assertNotSame(first, elsewhere);
+        assertNotSame(second, elsewhere);
+
+        deeper.release();
+        again.release();
+    }
+
+    @Test
+    public void mutableCoordinate2fMatchesPlainArithmetic() {
+        final Random random = new Random(6);
+        final MutableCoordinate2f coord = new MutableCoordinate2f(1, 2);
+        final MutableCoordinate2f other = new MutableCoordinate2f();
+        float x = 1;
+        float y = 2;
+        for (int i = 0; i < 100_000; i++) {
+            final float ax = random.nextInt(2_001) - 1_000;
+            final float ay = random.nextInt(2_001) - 1_000;
+            final float sx = random.nextInt(7) - 3;
+            final float sy = random.nextInt(7) - 3;
+            final MutableCoordinate2f result;
+            switch (random.nextInt(11)) {
+                case 0:
+                    result = coord.set(ax, ay);
+                    x = ax;
+                    y = ay;
+                    break;
+                case 1:
+                    result = coord.set(new Coordinate2f(ax, ay));
+                    x = ax;
+                    y = ay;
+                    break;
+                case 2:
+                    other.set(ax, ay);
+                    result = coord.set(other);
+                    x = ax;
+                    y = ay;
+                    break;
+                case 3:
+                    result = coord.move(ax, ay);
+                    x += ax;
+                    y += ay;
+                    break;
+                case 4: {
+                    // the immutable coordinate follows the same moves
+                    final Coordinate2f moved = coord.toImmutable().move(new Vector2f(ax, ay));
+                    result = coord.move(new Vector2f(ax, ay));
+                    x += ax;
+                    y += ay;
+                    assertEquals(moved, coord.toImmutable());
+                    break;
+                }
+                case 5: {
+                    final float factor = random.nextInt(7) - 3;
+                    result = coord.move(new Vector2f(ax, ay), factor);
+                    x += ax * factor;
+                    y += ay * factor;
+                    break;
+                }
+                case 6:
+                    other.set(ax, ay);
+                    result = coord.move(other);
+                    x += ax;
+                    y += ay;
+                    break;
+                case 7:
+                    result = coord.scale(sx, sy);
+                    x *= sx;
+                    y *= sy;
+                    break;
+                case 8:
+                    result = coord.scale(new Vector2f(sx, sy));
+                    x *= sx;
+                    y *= sy;
+                    break;
+                case 9: {
+                    final float factor = random.nextInt(7) - 3;
+                    result = coord.scale(factor);
+                    x *= factor;
+                    y *= factor;
+                    break;
+                }
+                default:
+                    result = coord.negate();
+                    x = -x;
+                    y = -y;
+                    break;
+            }
+            assertSame(coord, result);
+            assertEquals(new Coordinate2f(x, y), coord.toImmutable());
+            assertEquals(coord.toImmutable(), MutableCoordinate2f.from(coord.toImmutable()).toImmutable());
+            // keep the position small enough for every step to be exact
+            if (Math.abs(x) > 1_000_000 || Math.abs(y) > 1_000_000) {
+                coord.set(0, 0);
+                x = 0;
+                y = 0;
+            }
+        }
+    }
+
+    @Test
+    public void mutableCoordinate2fMovesPastTheLimits() {
+        // as Coordinate2f does, overflowing to infinity
+        final Coordinate2f limits = new Coordinate2f(Float.MAX_VALUE, -Float.MAX_VALUE);
+        final Vector2f step = new Vector2f(Float.MAX_VALUE, -Float.MAX_VALUE);
+        final MutableCoordinate2f coord = MutableCoordinate2f.from(limits).move(step);
+        assertEquals(limits.move(step), coord.toImmutable());
+        assertEquals(new Coordinate2f(Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY), coord.toImmutable());
+        assertEquals(new Coordinate2f(Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY), coord.negate().toImmutable());
+    }
+
+    @Test
+    public void mutableCoordinate2fMovesAndSetsItself() {
+        final MutableCoordinate2f coord = new MutableCoordinate2f(1, -2);
+        assertSame(coord, coord.set(coord));
+        assertEquals(new Coordinate2f(1, -2), coord.toImmutable());
+        assertSame(coord, coord.move(coord));
+        assertEquals(new Coordinate2f(2, -4), coord.toImmutable());
+    }
+
+    @Test
+    public void mutableCoordinate2fHasIdentityEquality() {
+        final MutableCoordinate2f a = new MutableCoordinate2f(5, 5);
+        final MutableCoordinate2f b = new MutableCoordinate2f(5, 5);
+        assertNotEquals(a, b);
+        assertEquals(a.toImmutable(), b.toImmutable());
+        assertNotSame(a.toImmutable(), a.toImmutable());
+    }
+
+    @Test
+    public void mutableCoordinate2fReusesScratchCoordinatesInStackOrder() throws Exception {
+        final MutableCoordinate2f first = MutableCoordinate2f.acquire();
+        final MutableCoordinate2f second = MutableCoordinate2f.acquire();
+        assertNotSame(first, second);
+        first.set(7, 7);
+        second.set(9, 9);
+
+        assertThrows(IllegalStateException.class, first::release);
+        assertThrows(IllegalStateException.class, new MutableCoordinate2f()::release);
+        second.release();
+        first.release();
+        assertThrows(IllegalStateException.class, first::release);
+
+        // the same coordinates come back, at the origin
+        final MutableCoordinate2f again = MutableCoordinate2f.acquire();
+        assertSame(first, again);
+        assertEquals(new Coordinate2f(0, 0), again.toImmutable());
+        final MutableCoordinate2f deeper = MutableCoordinate2f.acquire();
+        assertSame(second, deeper);
+        assertEquals(new Coordinate2f(0, 0), deeper.toImmutable());
+
+        // another thread has its own pool, and can't release this thread's coordinates
+        final MutableCoordinate2f elsewhere = CompletableFuture.supplyAsync(() -> {
+            assertThrows(IllegalStateException.class, deeper::release);
+            final MutableCoordinate2f coord = MutableCoordinate2f.acquire();
+            coord.release();
+            return coord;
+        }).get();
+        assertNotSame(first, elsewhere);
+        assertNotSame(second, elsewhere);
+
+        deeper.release();
+        again.release();
+    }
+
+    @Test
+    public void mutableCoordinate2iMatchesPlainArithmetic() {
+        final Random random = new Random(7);
+        final MutableCoordinate2i coord = new MutableCoordinate2i(1, 2);
+        final MutableCoordinate2i other = new MutableCoordinate2i();
+        int x = 1;
+        int y = 2;
+        for (int i = 0; i < 100_000; i++) {
+            final int ax = random.nextInt();
+            final int ay = random.nextInt();
+            final int sx = random.nextInt(7) - 3;
+            final int sy = random.nextInt(7) - 3;
+            final MutableCoordinate2i result;
+            switch (random.nextInt(11)) {
+                case 0:
+                    result = coord.set(ax, ay);
+                    x = ax;
+                    y = ay;
+                    break;
+                case 1:
+                    result = coord.set(new Coordinate2i(ax, ay));
+                    x = ax;
+                    y = ay;
+                    break;
+                case 2:
+                    other.set(ax, ay);
+                    result = coord.set(other);
+                    x = ax;
+                    y = ay;
+                    break;
+                case 3:
+                    result = coord.move(ax, ay);
+                    x += ax;
+                    y += ay;
+                    break;
+                case 4: {
+                    // the immutable coordinate follows the same moves
+                    final Coordinate2i moved = coord.toImmutable().move(new Vector2i(ax, ay));
+                    result = coord.move(new Vector2i(ax, ay));
+                    x += ax;
+                    y += ay;
+                    assertEquals(moved, coord.toImmutable());
+                    break;
+                }
+                case 5: {
+                    final int factor = random.nextInt(7) - 3;
+                    result = coord.move(new Vector2i(ax, ay), factor);
+                    x += ax * factor;
+                    y += ay * factor;
+                    break;
+                }
+                case 6:
+                    other.set(ax, ay);
+                    result = coord.move(other);
+                    x += ax;
+                    y += ay;
+                    break;
+                case 7:
+                    result = coord.scale(sx, sy);
+                    x *= sx;
+                    y *= sy;
+                    break;
+                case 8:
+                    result = coord.scale(new Vector2i(sx, sy));
+                    x *= sx;
+                    y *= sy;
+                    break;
+                case 9: {
+                    final int factor = random.nextInt(7) - 3;
+                    result = coord.scale(factor);
+                    x *= factor;
+                    y *= factor;
+                    break;
+                }
+                default:
+                    result = coord.negate();
+                    x = -x;
+                    y = -y;
+                    break;
+            }
+            assertSame(coord, result);
+            assertEquals(new Coordinate2i(x, y), coord.toImmutable());
+            assertEquals(coord.toImmutable(), MutableCoordinate2i.from(coord.toImmutable()).toImmutable());
+        }
+    }
+
+    @Test
+    public void mutableCoordinate2iMovesPastTheLimits() {
+        // as Coordinate2i does, wrapping around
+        final Coordinate2i limits = new Coordinate2i(Integer.MAX_VALUE, Integer.MIN_VALUE);
+        final Vector2i step = new Vector2i(1, -1);
+        final MutableCoordinate2i coord = MutableCoordinate2i.from(limits).move(step);
+        assertEquals(limits.move(step), coord.toImmutable());
+        assertEquals(new Coordinate2i(Integer.MIN_VALUE, Integer.MAX_VALUE), coord.toImmutable());
+        assertEquals(new Coordinate2i(Integer.MIN_VALUE, -Integer.MAX_VALUE), coord.negate().toImmutable());
+    }
+
+    @Test
+    public void mutableCoordinate2iMovesAndSetsItself() {
+        final MutableCoordinate2i coord = new MutableCoordinate2i(1, -2);
+        assertSame(coord, coord.set(coord));
+        assertEquals(new Coordinate2i(1, -2), coord.toImmutable());
+        assertSame(coord, coord.move(coord));
+        assertEquals(new Coordinate2i(2, -4), coord.toImmutable());
+    }
+
+    @Test
+    public void mutableCoordinate2iHasIdentityEquality() {
+        final MutableCoordinate2i a = new MutableCoordinate2i(5, 5);
+        final MutableCoordinate2i b = new MutableCoordinate2i(5, 5);
+        assertNotEquals(a, b);
+        assertEquals(a.toImmutable(), b.toImmutable());
+        assertNotSame(a.toImmutable(), a.toImmutable());
+    }
+
+    @Test
+    public void mutableCoordinate2iReusesScratchCoordinatesInStackOrder() throws Exception {
+        final MutableCoordinate2i first = MutableCoordinate2i.acquire();
+        final MutableCoordinate2i second = MutableCoordinate2i.acquire();
+        assertNotSame(first, second);
+        first.set(7, 7);
+        second.set(9, 9);
+
+        assertThrows(IllegalStateException.class, first::release);
+        assertThrows(IllegalStateException.class, new MutableCoordinate2i()::release);
+        second.release();
+        first.release();
+        assertThrows(IllegalStateException.class, first::release);
+
+        // the same coordinates come back, at the origin
+        final MutableCoordinate2i again = MutableCoordinate2i.acquire();
+        assertSame(first, again);
+        assertEquals(new Coordinate2i(0, 0), again.toImmutable());
+        final MutableCoordinate2i deeper = MutableCoordinate2i.acquire();
+        assertSame(second, deeper);
+        assertEquals(new Coordinate2i(0, 0), deeper.toImmutable());
+
+        // another thread has its own pool, and can't release this thread's coordinates
+        final MutableCoordinate2i elsewhere = CompletableFuture.supplyAsync(() -> {
+            assertThrows(IllegalStateException.class, deeper::release);
+            final MutableCoordinate2i coord = MutableCoordinate2i.acquire();
+            coord.release();
+            return coord;
+        }).get();
+        assertNotSame(first, elsewhere);
+        assertNotSame(second, elsewhere);
+
+        deeper.release();
+        again.release();
+    }
+
+    @Test
+    public void mutableCoordinate2lMatchesPlainArithmetic() {
+        final Random random = new Random(8);
+        final MutableCoordinate2l coord = new MutableCoordinate2l(1, 2);
+        final MutableCoordinate2l other = new MutableCoordinate2l();
+        long x = 1;
+        long y = 2;
+        for (int i = 0; i < 100_000; i++) {
+            final long ax = random.nextLong();
+            final long ay = random.nextLong();
+            final long sx = random.nextInt(7) - 3;
+            final long sy = random.nextInt(7) - 3;
+            final MutableCoordinate2l result;
+            switch (random.nextInt(11)) {
+                case 0:
+                    result = coord.set(ax, ay);
+                    x = ax;
+                    y = ay;
+                    break;
+                case 1:
+                    result = coord.set(new Coordinate2l(ax, ay));
+                    x = ax;
+                    y = ay;
+                    break;
+                case 2:
+                    other.set(ax, ay);
+                    result = coord.set(other);
+                    x = ax;
+                    y = ay;
+                    break;
+                case 3:
+                    result = coord.move(ax, ay);
+                    x += ax;
+                    y += ay;
+                    break;
+                case 4: {
+                    // the immutable coordinate follows the same moves
+                    final Coordinate2l moved = coord.toImmutable().move(new Vector2l(ax, ay));
+                    result = coord.move(new Vector2l(ax, ay));
+                    x += ax;
+                    y += ay;
+                    assertEquals(moved, coord.toImmutable());
+                    break;
+                }
+                case 5: {
+                    final long factor = random.nextInt(7) - 3;
+                    result = coord.move(new Vector2l(ax, ay), factor);
+                    x += ax * factor;
+                    y += ay * factor;
+                    break;
+                }
+                case 6:
+                    other.set(ax, ay);
+                    result = coord.move(other);
+                    x += ax;
+                    y += ay;
+                    break;
+                case 7:
+                    result = coord.scale(sx, sy);
+                    x *= sx;
+                    y *= sy;
+                    break;
+                case 8:
+                    result = coord.scale(new Vector2l(sx, sy));
+                    x *= sx;
+                    y *= sy;
+                    break;
+                case 9: {
+                    final long factor = random.nextInt(7) - 3;
+                    result = coord.scale(factor);
+                    x *= factor;
+                    y *= factor;
+                    break;
+                }
+                default:
+                    result = coord.negate();
+                    x = -x;
+                    y = -y;
+                    break;
+            }
+            assertSame(coord, result);
+            assertEquals(new Coordinate2l(x, y), coord.toImmutable());
+            assertEquals(coord.toImmutable(), MutableCoordinate2l.from(coord.toImmutable()).toImmutable());
+        }
+    }
+
+    @Test
+    public void mutableCoordinate2lMovesPastTheLimits() {
+        // as Coordinate2l does, wrapping around
+        final Coordinate2l limits = new Coordinate2l(Long.MAX_VALUE, Long.MIN_VALUE);
+        final Vector2l step = new Vector2l(1, -1);
+        final MutableCoordinate2l coord = MutableCoordinate2l.from(limits).move(step);
+        assertEquals(limits.move(step), coord.toImmutable());
+        assertEquals(new Coordinate2l(Long.MIN_VALUE, Long.MAX_VALUE), coord.toImmutable());
+        assertEquals(new Coordinate2l(Long.MIN_VALUE, -Long.MAX_VALUE), coord.negate().toImmutable());
+    }
+
+    @Test
+    public void mutableCoordinate2lMovesAndSetsItself() {
+        final MutableCoordinate2l coord = new MutableCoordinate2l(1, -2);
+        assertSame(coord, coord.set(coord));
+        assertEquals(new Coordinate2l(1, -2), coord.toImmutable());
+        assertSame(coord, coord.move(coord));
+        assertEquals(new Coordinate2l(2, -4), coord.toImmutable());
+    }
+
+    @Test
+    public void mutableCoordinate2lHasIdentityEquality() {
+        final MutableCoordinate2l a = new MutableCoordinate2l(5, 5);
+        final MutableCoordinate2l b = new MutableCoordinate2l(5, 5);
+        assertNotEquals(a, b);
+        assertEquals(a.toImmutable(), b.toImmutable());
+        assertNotSame(a.toImmutable(), a.toImmutable());
+    }
+
+    @Test
+    public void mutableCoordinate2lReusesScratchCoordinatesInStackOrder() throws Exception {
+        final MutableCoordinate2l first = MutableCoordinate2l.acquire();
+        final MutableCoordinate2l second = MutableCoordinate2l.acquire();
+        assertNotSame(first, second);
+        first.set(7, 7);
+        second.set(9, 9);
+
+        assertThrows(IllegalStateException.class, first::release);
+        assertThrows(IllegalStateException.class, new MutableCoordinate2l()::release);
+        second.release();
+        first.release();
+        assertThrows(IllegalStateException.class, first::release);
+
+        // the same coordinates come back, at the origin
+        final MutableCoordinate2l again = MutableCoordinate2l.acquire();
+        assertSame(first, again);
+        assertEquals(new Coordinate2l(0, 0), again.toImmutable());
+        final MutableCoordinate2l deeper = MutableCoordinate2l.acquire();
+        assertSame(second, deeper);
+        assertEquals(new Coordinate2l(0, 0), deeper.toImmutable());
+
+        // another thread has its own pool, and can't release this thread's coordinates
+        final MutableCoordinate2l elsewhere = CompletableFuture.supplyAsync(() -> {
+            assertThrows(IllegalStateException.class, deeper::release);
+            final MutableCoordinate2l coord = MutableCoordinate2l.acquire();
+            coord.release();
+            return coord;
+        }).get();
+        assertNotSame(first, elsewhere);
+        assertNotSame(second, elsewhere);
+
+        deeper.release();
+        again.release();
+    }
+
+}
@@ -0,0 +1,283 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.curve;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import me.jamiemansfield.maths.coord.Coordinate2i;
+import me.jamiemansfield.maths.coord.Coordinate2iBuffer;
+import me.jamiemansfield.maths.coord.Coordinate3i;
+import me.jamiemansfield.maths.coord.Coordinate3iBuffer;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public final class CurveTest {
+
+    @Test
+    public void mortonInterleavesBits() {
+        final Random random = new Random(1);
+        for (int i = 0; i < 10_000; i++) {
+            final int x = random.nextInt();
+            final int y = random.nextInt();
+            long key2 = 0;
+            for (int bit = 0; bit < 32; bit++) {
+                key2 |= (long) ((x ^ Integer.MIN_VALUE) >>> bit & 1) << 2 * bit;
+                key2 |= (long) ((y ^ Integer.MIN_VALUE) >>> bit & 1) << 2 * bit + 1;
+            }
+            assertEquals(key2, Curve2i.MORTON.encode(x, y));
+
+            final int z = random.nextInt();
+            long key3 = 0;
+            for (int bit = 0; bit < Curve3i.BITS; bit++) {
+                key3 |= (long) ((x + (1 << 20)) >>> bit & 1) << 3 * bit;
+                key3 |= (long) ((y + (1 << 20)) >>> bit & 1) << 3 * bit + 1;
+                key3 |= (long) ((z + (1 << 20)) >>> bit & 1) << 3 * bit + 2;
+            }
+            assertEquals(key3, Curve3i.MORTON.encode(x, y, z));
+        }
+    }
+
+    @Test
+    public void decodesWhatWasEncoded() {
+        final Random random = new Random(2);
+        final int[] extremes = {Integer.MIN_VALUE, Integer.MAX_VALUE, -1, 0, 1};
+        for (int i = 0; i < 100_000; i++) {
+            final int x = i < 25 ? extremes[i % 5] : random.nextInt();
+            final int y = i < 25 ? extremes[i / 5] : random.nextInt();
+            final int z = random.nextInt(1 << Curve3i.BITS) + Curve3i.MIN_VALUE;
+            for (final Curve2i curve : Curve2i.values()) {
+                final long key = curve.encode(x, y);
+                assertEquals(key, curve.encode(new Coordinate2i(x, y)));
+                assertEquals(curve.name(), new Coordinate2i(x, y), curve.decode(key));
+                assertEquals(x, curve.decodeX(key));
+                assertEquals(y, curve.decodeY(key));
+            }
+            final int x3 = wrap21(x);
+            final int y3 = wrap21(y);
+            for (final Curve3i curve : Curve3i.values()) {
+                final long key = curve.encode(x3, y3, z);
+                assertTrue(key >= 0);
+                assertEquals(key, curve.encode(new Coordinate3i(x3, y3, z)));
+                assertEquals(curve.name(), new Coordinate3i(x3, y3, z), curve.decode(key));
+                assertEquals(x3, curve.decodeX(key));
+                assertEquals(y3, curve.decodeY(key));
+                assertEquals(z, curve.decodeZ(key));
+
+                // components out of range wrap around
+                assertEquals(key, curve.encode(x3 + (1 << Curve3i.BITS), y3 - (1 << Curve3i.BITS), z));
+            }
+        }
+    }
+
+    @Test
+    public void hilbertStepsToAdjacentCoordinates() {
+        final Random random = new Random(3);
+        for (int i = 0; i < 100_000; i++) {
+            final long key2 = i < 1_000 ? i : random.nextLong();
+            if (key2 != -1L) {
+                final Coordinate2i a = Curve2i.HILBERT.decode(key2);
+                final Coordinate2i b = Curve2i.HILBERT.decode(key2 + 1);
+                assertEquals(Long.toUnsignedString(key2), 1, Math.abs((long) a.getX() - b.getX()) + Math.abs((long) a.getY() - b.getY()));
+            }
+
+            final long key3 = i < 1_000 ? i : random.nextLong() >>> 1;
+            if (key3 != Long.MAX_VALUE) {
+                final Coordinate3i a = Curve3i.HILBERT.decode(key3);
+                final Coordinate3i b = Curve3i.HILBERT.decode(key3 + 1);
+                assertEquals(Long.toString(key3), 1,
+                        Math.abs(a.getX() - b.getX()) + Math.abs(a.getY() - b.getY()) + Math.abs(a.getZ() - b.getZ()));
+            }
+        }
+    }
+
+    @Test
+    public void radixSortIsStableAndUnsigned() {
+        final Random random = new Random(4);
+        for (int trial = 0; trial < 200; trial++) {
+            final int n = random.nextInt(2_000);
+            final long[] keys = new long[n + 1];
+            final int[] values = new int[n + 1];
+            final long[] pool = random.longs(1 + random.nextInt(n + 1)).toArray();
+            for (int i = 0; i < n; i++) {
+                // many duplicates, and keys sharing all but a few bytes
+                keys[i] = random.nextBoolean() ? pool[random.nextInt(pool.length)] : pool[0] ^ random.nextInt(1 << random.nextInt(24));
+                values[i] = i;
+            }
+            keys[n] = 42;
+            values[n] = -1;
+
+            final Integer[] expected = IntStream.range(0, n).boxed().toArray(Integer[]::new);
+            final long[] original = keys.clone();
+            Arrays.sort(expected, Comparator.<Integer, Long>comparing(i -> original[i], Long::compareUnsigned).thenComparing(i -> i));
+
+            RadixSort.sort(keys, values, n);
+            for (int i = 0; i < n; i++) {
+                assertEquals(original[expected[i]], keys[i]);
+                assertEquals(expected[i].intValue(), values[i]);
+            }
+            assertEquals(42, keys[n]);
+            assertEquals(-1, values[n]);
+        }
+    }
+
+    @Test
+    public void sortsAlongCurve() {
+        final Random random = new Random(5);
+        for (final Curve2i curve : Curve2i.values()) {
+            final Coordinate2i[] coords = new Coordinate2i[5_000];
+            final Coordinate2iBuffer buffer = new Coordinate2iBuffer();
+            for (int i = 0; i < coords.length; i++) {
+                coords[i] = new Coordinate2i(random.nextInt(200) - 100, random.nextBoolean() ? random.nextInt() : random.nextInt(200));
+                buffer.add(coords[i]);
+            }
+            final Coordinate2i[] expected = coords.clone();
+            Arrays.sort(expected, Comparator.comparing(curve::encode, Long::compareUnsigned));
+
+            curve.sort(coords);
+            assertArrayEquals(curve.name(), expected, coords);
+            curve.sort(buffer);
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(curve.name(), expected[i], buffer.get(i));
+            }
+        }
+
+        for (final Curve3i curve : Curve3i.values()) {
+            final Coordinate3i[] coords = new Coordinate3i[5_000];
+            final Coordinate3iBuffer buffer = new Coordinate3iBuffer();
+            for (int i = 0; i < coords.length; i++) {
+                coords[i] = new Coordinate3i(random.nextInt(200) - 100, random.nextInt(20), wrap21(random.nextInt()));
+                buffer.add(coords[i]);
+            }
+            final Coordinate3i[] expected = coords.clone();
+            Arrays.sort(expected, Comparator.comparingLong(curve::encode));
+
+            curve.sort(coords);
+            assertArrayEquals(curve.name(), expected, coords);
+            curve.sort(buffer);
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(curve.name(), expected[i], buffer.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void decomposesBoxes2i() {
+        final Random random = new Random(6);
+        final KeyRanges ranges = new KeyRanges();
+        for (final Curve2i curve : Curve2i.values()) {
+            for (int trial = 0; trial < 300; trial++) {
+                final int minX = trial % 10 == 0 ? Integer.MIN_VALUE : random.nextInt();
+                final int minY = trial % 10 == 1 ? Integer.MAX_VALUE - random.nextInt(30) : random.nextInt(1000) - 500;
+                final int maxX = (int) Math.min(Integer.MAX_VALUE, (long) minX + random.nextInt(30));
+                final int maxY = (int) Math.min(Integer.MAX_VALUE, (long) minY + random.nextInt(30));
+                final int maxRanges = random.nextBoolean() ? 1 + random.nextInt(8) : Integer.MAX_VALUE;
+                curve.decompose(minX, minY, maxX, maxY, maxRanges, ranges);
+                assertNormalised(ranges);
+                assertTrue(ranges.size() <= maxRanges);
+
+                // every coordinate of the box is covered, and without a
+                // limit on the ranges, nothing more
+                long covered = 0;
+                for (int x = minX; x <= maxX && x >= minX; x++) {
+                    for (int y = minY; y <= maxY && y >= minY; y++) {
+                        assertTrue(curve + " " + x + ", " + y, ranges.contains(curve.encode(x, y)));
+                        covered++;
+                    }
+                }
+                if (maxRanges == Integer.MAX_VALUE) {
+                    assertEquals(covered, keys(ranges));
+                }
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> Curve2i.MORTON.decompose(1, 0, 0, 0, 1, ranges));
+        assertThrows(IllegalArgumentException.class, () -> Curve2i.MORTON.decompose(0, 0, 0, 0, 0, ranges));
+    }
+
+    @Test
+    public void decomposesBoxes3i() {
+        final Random random = new Random(7);
+        final KeyRanges ranges = new KeyRanges();
+        for (final Curve3i curve : Curve3i.values()) {
+            for (int trial = 0; trial < 300; trial++) {
+                final int minX = trial % 10 == 0 ? Curve3i.MIN_VALUE : random.nextInt(1 << Curve3i.BITS) + Curve3i.MIN_VALUE;
+                final int minY = trial % 10 == 1 ? Curve3i.MAX_VALUE - random.nextInt(12) : random.nextInt(100) - 50;
+                final int minZ = random.nextInt(100) - 50;
+                final int maxX = Math.min(Curve3i.MAX_VALUE, minX + random.nextInt(12));
+                final int maxY = Math.min(Curve3i.MAX_VALUE, minY + random.nextInt(12));
+                final int maxZ = minZ + random.nextInt(12);
+                final int maxRanges = random.nextBoolean() ? 1 + random.nextInt(8) : Integer.MAX_VALUE;
+                curve.decompose(minX, minY, minZ, maxX, maxY, maxZ, maxRanges, ranges);
+                assertNormalised(ranges);
+                assertTrue(ranges.size() <= maxRanges);
+
+                long covered = 0;
+                for (int x = minX; x <= maxX; x++) {
+                    for (int y = minY; y <= maxY; y++) {
+                        for (int z = minZ; z <= maxZ; z++) {
+                            assertTrue(curve + " " + x + ", " + y + ", " + z, ranges.contains(curve.encode(x, y, z)));
+                            covered++;
+                        }
+                    }
+                }
+                if (maxRanges == Integer.MAX_VALUE) {
+                    assertEquals(covered, keys(ranges));
+                }
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> Curve3i.MORTON.decompose(0, 0, 0, Curve3i.MAX_VALUE + 1, 0, 0, 1, ranges));
+    }
+
+    // ranges must be ascending, and neither overlap nor abut
+    private static void assertNormalised(final KeyRanges ranges) {
+        assertTrue(ranges.size() > 0);
+        for (int i = 0; i < ranges.size(); i++) {
+            assertTrue(Long.compareUnsigned(ranges.getStart(i), ranges.getEnd(i)) <= 0);
+            if (i > 0) {
+                assertTrue(Long.compareUnsigned(ranges.getEnd(i - 1) + 1, ranges.getStart(i)) < 0);
+            }
+        }
+    }
+
+    private static long keys(final KeyRanges ranges) {
+        long keys = 0;
+        for (int i = 0; i < ranges.size(); i++) {
+            keys += ranges.getEnd(i) - ranges.getStart(i) + 1;
+        }
+        return keys;
+    }
+
+    private static int wrap21(final int value) {
+        return value << (32 - Curve3i.BITS) >> (32 - Curve3i.BITS);
+    }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.grid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import me.jamiemansfield.maths.coord.Coordinate3i;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Checks the chunks of each storage against an array of their values,
+ * as they change representation.
+ */
+@RunWith(Parameterized.class)
+public final class ChunkStorageTest {
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> storages() {
+        return Arrays.asList(new Object[][] {
+                {ChunkStorage.DENSE},
+                {ChunkStorage.PALETTE},
+        });
+    }
+
+    @Parameter
+    public ChunkStorage storage;
+
+    @Test
+    public void chunksMatchArray() {
+        final Random random = new Random(1);
+        for (final int volume : new int[] {8, 64, 512, 4096}) {
+            // from uniform, through each index width, to more values than a palette holds
+            for (final int distinct : new int[] {1, 2, 3, 5, 16, 17, 200, 256, 300, 5_000}) {
+                VoxelChunk chunk = this.storage.create(volume);
+                assertEquals(volume, chunk.volume());
+                final int[] expected = new int[volume];
+                final int[] values = values(random, distinct);
+                for (int step = 0; step < 2 * volume; step++) {
+                    final int op = random.nextInt(100);
+                    if (op < 90) {
+                        final int index = random.nextInt(volume);
+                        final int value = values[random.nextInt(values.length)];
+                        chunk = chunk.set(index, value, this.storage);
+                        expected[index] = value;
+                    } else if (op < 92) {
+                        final int value = values[random.nextInt(values.length)];
+                        chunk = chunk.fill(value, this.storage);
+                        Arrays.fill(expected, value);
+                    } else if (op < 94) {
+                        final VoxelChunk compacted = chunk.compact();
+                        assertTrue(compacted.bytes() <= chunk.bytes());
+                        chunk = compacted;
+                    } else {
+                        final int index = random.nextInt(volume);
+                        assertEquals(expected[index], chunk.get(index));
+                    }
+                }
+                assertMatches(expected, chunk);
+                assertMatches(expected, chunk.compact());
+            }
+        }
+    }
+
+    @Test
+    public void compactsUniformChunks() {
+        VoxelChunk chunk = this.storage.create(4096);
+        for (int i = 0; i < 4096; i++) {
+            chunk = chunk.set(i, 7, this.storage);
+        }
+        final VoxelChunk compacted = chunk.compact();
+        assertTrue(compacted.bytes() < 64);
+        assertMatches(filled(4096, 7), compacted);
+        assertSame(compacted, compacted.compact());
+    }
+
+    @Test
+    public void gridMatchesHashMapAcrossCompaction() {
+        final Random random = new Random(2);
+        final VoxelGrid grid = new VoxelGrid(3, this.storage);
+        assertEquals(this.storage, grid.getStorage());
+        final Map<Coordinate3i, Integer> expected = new HashMap<>();
+
+        // layered terrain, with a few scattered blocks of other materials
+        grid.fill(-20, -20, -20, 19, -1, 19, 1);
+        grid.fill(-20, -20, -20, 19, -15, 19, 2);
+        for (int x = -20; x < 20; x++) {
+            for (int z = -20; z < 20; z++) {
+                for (int y = -20; y < 0; y++) {
+                    expected.put(new Coordinate3i(x, y, z), y < -14 ? 2 : 1);
+                }
+            }
+        }
+        for (int round = 0; round < 4; round++) {
+            for (int i = 0; i < 1_000; i++) {
+                final Coordinate3i coord = new Coordinate3i(random.nextInt(40) - 20, random.nextInt(40) - 20, random.nextInt(40) - 20);
+                final int value = random.nextInt(4) == 0 ? 0 : random.nextInt(round == 3 ? 1_000 : 6);
+                grid.set(coord, value);
+                if (value == 0) {
+                    expected.remove(coord);
+                } else {
+                    expected.put(coord, value);
+                }
+            }
+            grid.compact();
+            assertEquals(expected.size(), grid.size());
+            for (int x = -21; x <= 20; x++) {
+                for (int y = -21; y <= 20; y++) {
+                    for (int z = -21; z <= 20; z++) {
+                        assertEquals(expected.getOrDefault(new Coordinate3i(x, y, z), 0).intValue(), grid.get(x, y, z));
+                    }
+                }
+            }
+        }
+    }
+
+    private static void assertMatches(final int[] expected, final VoxelChunk chunk) {
+        assertEquals(expected.length, chunk.volume());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], chunk.get(i));
+        }
+    }
+
+    private static int[] values(final Random random, final int distinct) {
+        final int[] values = new int[distinct];
+        for (int i = 1; i < distinct; i++) {
+            values[i] = random.nextInt();
+        }
+        return values;
+    }
+
+    private static int[] filled(final int volume, final int value) {
+        final int[] values = new int[volume];
+        Arrays.fill(values, value);
+        return values;
+    }
+
+}
@@ -0,0 +1,274 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.grid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import me.jamiemansfield.maths.bounds.Bounds3i;
+import me.jamiemansfield.maths.coord.Coordinate3i;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public final class Coordinate3iBitSetTest {
+
+    private static final int[][] NEIGHBOURS = {{1, 0, 0}, {-1, 0, 0}, {0, 1, 0}, {0, -1, 0}, {0, 0, 1}, {0, 0, -1}};
+
+    @Test
+    public void matchesHashSet() {
+        final Random random = new Random(1);
+        for (int trial = 0; trial < 100; trial++) {
+            final Bounds3i bounds = bounds(random);
+            final Coordinate3iBitSet set = new Coordinate3iBitSet(bounds);
+            final Set<Coordinate3i> expected = new HashSet<>();
+            assertTrue(set.isEmpty());
+            for (int i = 0; i < 500; i++) {
+                final Coordinate3i coord = coordinate(random, bounds);
+                if (random.nextInt(3) == 0) {
+                    assertEquals(expected.remove(coord), set.remove(coord));
+                } else {
+                    assertEquals(expected.add(coord), set.add(coord));
+                }
+                final Coordinate3i probe = coordinate(random, bounds);
+                assertEquals(expected.contains(probe), set.contains(probe));
+            }
+            assertMatches(expected, set);
+            assertFalse(set.contains(bounds.getMinX(), bounds.getMinY() - 1, bounds.getMinZ()));
+
+            final Coordinate3iBitSet copy = set.copy();
+            set.clear();
+            assertMatches(new HashSet<>(), set);
+            assertMatches(expected, copy);
+        }
+    }
+
+    @Test
+    public void combinesLikeHashSets() {
+        final Random random = new Random(2);
+        for (int trial = 0; trial < 100; trial++) {
+            final Bounds3i bounds = bounds(random);
+            final Set<Coordinate3i> a = random(random, bounds);
+            final Set<Coordinate3i> b = random(random, bounds);
+
+            final Set<Coordinate3i> union = new HashSet<>(a);
+            union.addAll(b);
+            assertMatches(union, of(bounds, a).union(of(bounds, b)));
+            final Set<Coordinate3i> intersection = new HashSet<>(a);
+            intersection.retainAll(b);
+            assertMatches(intersection, of(bounds, a).intersection(of(bounds, b)));
+            final Set<Coordinate3i> difference = new HashSet<>(a);
+            difference.removeAll(b);
+            assertMatches(difference, of(bounds, a).difference(of(bounds, b)));
+            final Set<Coordinate3i> complement = new HashSet<>();
+            for (final Coordinate3i coord : all(bounds)) {
+                if (!a.contains(coord)) {
+                    complement.add(coord);
+                }
+            }
+            assertMatches(complement, of(bounds, a).complement());
+        }
+    }
+
+    @Test
+    public void morphsLikeHashSets() {
+        final Random random = new Random(3);
+        for (int trial = 0; trial < 100; trial++) {
+            final Bounds3i bounds = bounds(random);
+            final Set<Coordinate3i> set = random(random, bounds);
+
+            final Set<Coordinate3i> dilated = new HashSet<>();
+            final Set<Coordinate3i> eroded = new HashSet<>();
+            for (final Coordinate3i coord : all(bounds)) {
+                boolean anyPresent = set.contains(coord);
+                boolean allPresent = set.contains(coord);
+                for (final int[] n : NEIGHBOURS) {
+                    // the edges of the region count as absent
+                    final Coordinate3i neighbour = neighbour(coord, n);
+                    final boolean present = neighbour != null && set.contains(neighbour);
+                    anyPresent |= present;
+                    allPresent &= present;
+                }
+                if (anyPresent) {
+                    dilated.add(coord);
+                }
+                if (allPresent) {
+                    eroded.add(coord);
+                }
+            }
+            assertMatches(dilated, of(bounds, set).dilate());
+            assertMatches(eroded, of(bounds, set).erode());
+        }
+    }
+
+    @Test
+    public void floodFillsLikeBreadthFirstSearch() {
+        final Random random = new Random(4);
+        for (int trial = 0; trial < 200; trial++) {
+            final Bounds3i bounds = bounds(random);
+            final Set<Coordinate3i> set = random(random, bounds);
+            final Coordinate3iBitSet bits = of(bounds, set);
+            for (int i = 0; i < 5; i++) {
+                final Coordinate3i seed = coordinate(random, bounds);
+                final Set<Coordinate3i> filled = new HashSet<>();
+                final Deque<Coordinate3i> queue = new ArrayDeque<>();
+                if (set.contains(seed)) {
+                    filled.add(seed);
+                    queue.add(seed);
+                }
+                while (!queue.isEmpty()) {
+                    final Coordinate3i coord = queue.poll();
+                    for (final int[] n : NEIGHBOURS) {
+                        final Coordinate3i neighbour = neighbour(coord, n);
+                        if (neighbour != null && set.contains(neighbour) && filled.add(neighbour)) {
+                            queue.add(neighbour);
+                        }
+                    }
+                }
+                assertMatches(filled, bits.floodFill(seed.getX(), seed.getY(), seed.getZ()));
+            }
+            assertMatches(set, bits);
+        }
+    }
+
+    @Test
+    public void rejectsInvalidArguments() {
+        final Bounds3i bounds = new Bounds3i(0, 0, 0, 3, 3, 3);
+        final Coordinate3iBitSet set = new Coordinate3iBitSet(bounds);
+        assertThrows(IllegalArgumentException.class, () -> set.add(4, 0, 0));
+        assertFalse(set.remove(-1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> set.union(new Coordinate3iBitSet(new Bounds3i(0, 0, 0, 3, 3, 4))));
+        assertThrows(IllegalArgumentException.class,
+                () -> new Coordinate3iBitSet(new Bounds3i(Integer.MIN_VALUE, Integer.MIN_VALUE, 0, Integer.MAX_VALUE, Integer.MAX_VALUE, 0)));
+    }
+
+    @Test
+    public void rejectsBoundsWhoseRowsOverflow() {
+        // 2^32 rows of 2^32 cells each, which overflows a long
+        final IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+                () -> new Coordinate3iBitSet(new Bounds3i(0, Integer.MIN_VALUE, Integer.MIN_VALUE, 0, Integer.MAX_VALUE, Integer.MAX_VALUE)));
+        assertTrue(thrown.getMessage().startsWith("bounds are too large"));
+        assertThrows(IllegalArgumentException.class,
+                () -> new Coordinate3iBitSet(new Bounds3i(Integer.MIN_VALUE, Integer.MIN_VALUE, 0, Integer.MAX_VALUE, 0, Integer.MAX_VALUE)));
+    }
+
+    private static void assertMatches(final Set<Coordinate3i> expected, final Coordinate3iBitSet set) {
+        assertEquals(expected.size(), set.cardinality());
+        assertEquals(expected.isEmpty(), set.isEmpty());
+        final List<Coordinate3i> actual = new ArrayList<>();
+        set.forEach((x, y, z) -> actual.add(new Coordinate3i(x, y, z)));
+        assertEquals(expected, new HashSet<>(actual));
+        assertEquals(expected.size(), actual.size());
+        for (int i = 1; i < actual.size(); i++) {
+            final Coordinate3i a = actual.get(i - 1);
+            final Coordinate3i b = actual.get(i);
+            // in order of z, then y, then x
+            assertTrue(a.getZ() < b.getZ() || a.getZ() == b.getZ() && (a.getY() < b.getY() || a.getY() == b.getY() && a.getX() < b.getX()));
+        }
+        for (final Coordinate3i coord : expected) {
+            assertTrue(set.contains(coord));
+        }
+    }
+
+    private static Bounds3i bounds(final Random random) {
+        // rows that are a word wide, narrower and wider, near each extreme
+        final int sizeX = random.nextBoolean() ? 64 * (1 + random.nextInt(3)) : 1 + random.nextInt(200);
+        final int sizeY = 1 + random.nextInt(10);
+        final int sizeZ = 1 + random.nextInt(10);
+        final int minX;
+        switch (random.nextInt(3)) {
+            case 0:
+                minX = Integer.MIN_VALUE;
+                break;
+            case 1:
+                minX = Integer.MAX_VALUE - sizeX + 1;
+                break;
+            default:
+                minX = random.nextInt(200) - 100;
+                break;
+        }
+        final int minY = random.nextInt(20) - 10;
+        final int minZ = random.nextBoolean() ? Integer.MAX_VALUE - sizeZ + 1 : random.nextInt(20) - 10;
+        return new Bounds3i(minX, minY, minZ, minX + sizeX - 1, minY + sizeY - 1, minZ + sizeZ - 1);
+    }
+
+    private static Coordinate3i coordinate(final Random random, final Bounds3i bounds) {
+        return new Coordinate3i(bounds.getMinX() + random.nextInt((int) bounds.getSizeX()),
+                bounds.getMinY() + random.nextInt((int) bounds.getSizeY()),
+                bounds.getMinZ() + random.nextInt((int) bounds.getSizeZ()));
+    }
+
+    private static Set<Coordinate3i> random(final Random random, final Bounds3i bounds) {
+        // densities from sparse to nearly full
+        final double density = random.nextDouble();
+        final Set<Coordinate3i> set = new HashSet<>();
+        for (final Coordinate3i coord : all(bounds)) {
+            if (random.nextDouble() < density) {
+                set.add(coord);
+            }
+        }
+        return set;
+    }
+
+    private static List<Coordinate3i> all(final Bounds3i bounds) {
+        final List<Coordinate3i> all = new ArrayList<>();
+        for (long z = bounds.getMinZ(); z <= bounds.getMaxZ(); z++) {
+            for (long y = bounds.getMinY(); y <= bounds.getMaxY(); y++) {
+                for (long x = bounds.getMinX(); x <= bounds.getMaxX(); x++) {
+                    all.add(new Coordinate3i((int) x, (int) y, (int) z));
+                }
+            }
+        }
+        return all;
+    }
+
+    private static Coordinate3iBitSet of(final Bounds3i bounds, final Set<Coordinate3i> coords) {
+        final Coordinate3iBitSet set = new Coordinate3iBitSet(bounds);
+        for (final Coordinate3i coord : coords) {
+            set.add(coord);
+        }
+        return set;
+    }
+
+    private static Coordinate3i neighbour(final Coordinate3i coord, final int[] offset) {
+        final long x = (long) coord.getX() + offset[0];
+        final long y = (long) coord.getY() + offset[1];
+        final long z = (long) coord.getZ() + offset[2];
+        if (x != (int) x || y != (int) y || z != (int) z) {
+            return null;
+        }
+        return new Coordinate3i((int) x, (int) y, (int) z);
+    }
+
+}
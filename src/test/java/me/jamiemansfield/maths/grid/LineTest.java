@@ -0,0 +1,223 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.grid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import me.jamiemansfield.maths.coord.Coordinate2i;
+import me.jamiemansfield.maths.coord.Coordinate3d;
+import me.jamiemansfield.maths.coord.Coordinate3i;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks the line cursors against the properties that define them:
+ * the number of cells visited, the size of each step, and how far the
+ * cells stray from the ideal line.
+ */
+public final class LineTest {
+
+    @Test
+    public void line2iFollowsIdealLine() {
+        final Random random = new Random(1);
+        final Line2i line = new Line2i();
+        for (int trial = 0; trial < 20_000; trial++) {
+            final int base = trial % 3 == 0 ? 0 : trial % 3 == 1 ? Integer.MIN_VALUE + 100 : Integer.MAX_VALUE - 100;
+            final int x0 = base + random.nextInt(201) - 100;
+            final int y0 = base + random.nextInt(201) - 100;
+            final int x1 = base + random.nextInt(201) - 100;
+            final int y1 = base + random.nextInt(201) - 100;
+            line.reset(x0, y0, x1, y1);
+            final List<long[]> cells = new ArrayList<>();
+            while (line.next()) {
+                cells.add(new long[] {line.getX(), line.getY()});
+            }
+            assertFalse(line.next());
+            assertLine(new long[] {x0, y0}, new long[] {x1, y1}, cells, 2);
+        }
+    }
+
+    @Test
+    public void line3iFollowsIdealLine() {
+        final Random random = new Random(2);
+        final Line3i line = new Line3i();
+        for (int trial = 0; trial < 20_000; trial++) {
+            final int base = trial % 3 == 0 ? 0 : trial % 3 == 1 ? Integer.MIN_VALUE + 100 : Integer.MAX_VALUE - 100;
+            final int x0 = base + random.nextInt(201) - 100;
+            final int y0 = base + random.nextInt(201) - 100;
+            final int z0 = base + random.nextInt(201) - 100;
+            final int x1 = base + random.nextInt(201) - 100;
+            final int y1 = base + random.nextInt(201) - 100;
+            final int z1 = base + random.nextInt(201) - 100;
+            line.reset(x0, y0, z0, x1, y1, z1);
+            final List<long[]> cells = new ArrayList<>();
+            while (line.next()) {
+                cells.add(new long[] {line.getX(), line.getY(), line.getZ()});
+            }
+            assertFalse(line.next());
+            assertLine(new long[] {x0, y0, z0}, new long[] {x1, y1, z1}, cells, 3);
+        }
+    }
+
+    @Test
+    public void linesStopAtFirstHit() {
+        final Coordinate2i hit2 = Line2i.firstHit(new Coordinate2i(0, 0), new Coordinate2i(10, 3), (x, y) -> x >= 4);
+        assertEquals(new Coordinate2i(4, 1), hit2);
+        assertNull(Line2i.firstHit(new Coordinate2i(0, 0), new Coordinate2i(10, 3), (x, y) -> y > 3));
+
+        final Coordinate3i hit3 = Line3i.firstHit(new Coordinate3i(0, 0, 0), new Coordinate3i(-2, 10, 5), (x, y, z) -> y == 6);
+        assertEquals(new Coordinate3i(-1, 6, 3), hit3);
+        assertNull(Line3i.firstHit(new Coordinate3i(0, 0, 0), new Coordinate3i(-2, 10, 5), (x, y, z) -> x > 0));
+
+        // the cursor may carry on from a hit
+        final Line3i line = new Line3i();
+        line.reset(0, 0, 0, 6, 0, 0);
+        assertTrue(line.advanceUntil((x, y, z) -> x % 2 == 1));
+        assertEquals(1, line.getX());
+        assertTrue(line.advanceUntil((x, y, z) -> x % 2 == 1));
+        assertEquals(3, line.getX());
+    }
+
+    @Test
+    public void traversalVisitsVoxelsCrossed() {
+        final Random random = new Random(3);
+        final VoxelTraversal traversal = new VoxelTraversal();
+        for (int trial = 0; trial < 20_000; trial++) {
+            final double scale = trial % 2 == 0 ? 5 : 50;
+            final double[] from = {random.nextGaussian() * scale, random.nextGaussian() * scale, random.nextGaussian() * scale};
+            final double[] to = {random.nextGaussian() * scale, random.nextGaussian() * scale, random.nextGaussian() * scale};
+            if (trial % 5 == 0) {
+                // axis-aligned, and so parallel to voxel faces
+                to[trial % 3] = from[trial % 3];
+            }
+            traversal.reset(from[0], from[1], from[2], to[0], to[1], to[2]);
+
+            final int[] end = {(int) Math.floor(to[0]), (int) Math.floor(to[1]), (int) Math.floor(to[2])};
+            int[] previous = null;
+            double previousT = 0;
+            int steps = 0;
+            while (traversal.next()) {
+                final int[] voxel = {traversal.getX(), traversal.getY(), traversal.getZ()};
+                if (previous == null) {
+                    for (int axis = 0; axis < 3; axis++) {
+                        assertEquals((int) Math.floor(from[axis]), voxel[axis]);
+                    }
+                    assertEquals(0, traversal.getT(), 0);
+                } else {
+                    // one face at a time, towards the end voxel
+                    int moved = 0;
+                    for (int axis = 0; axis < 3; axis++) {
+                        final int delta = voxel[axis] - previous[axis];
+                        assertTrue(Math.abs(delta) <= 1);
+                        moved += Math.abs(delta);
+                        assertTrue(delta == 0 || Integer.signum(delta) == Integer.signum(end[axis] - previous[axis]));
+                    }
+                    assertEquals(1, moved);
+                    assertTrue(traversal.getT() >= previousT && traversal.getT() <= 1 + 1e-9);
+                    steps++;
+                }
+                assertTrue(crosses(from, to, voxel));
+                previous = voxel;
+                previousT = traversal.getT();
+            }
+            assertFalse(traversal.next());
+            for (int axis = 0; axis < 3; axis++) {
+                assertEquals(end[axis], previous[axis]);
+                steps -= Math.abs(end[axis] - (int) Math.floor(from[axis]));
+            }
+            assertEquals(0, steps);
+        }
+    }
+
+    @Test
+    public void traversalStopsAtFirstHit() {
+        final Coordinate3i hit = VoxelTraversal.firstHit(new Coordinate3d(0.5, 0.5, 0.5), new Coordinate3d(8.5, 2.5, 0.5),
+                (x, y, z) -> x == 4);
+        assertEquals(new Coordinate3i(4, 1, 0), hit);
+        assertNull(VoxelTraversal.firstHit(new Coordinate3d(0.5, 0.5, 0.5), new Coordinate3d(8.5, 2.5, 0.5), (x, y, z) -> z != 0));
+    }
+
+    // a line visits one cell per step along its dominant axis, moving by
+    // at most one along every axis, and the cells lie within half a cell
+    // of the ideal line
+    private static void assertLine(final long[] from, final long[] to, final List<long[]> cells, final int dimensions) {
+        int dominant = 0;
+        for (int axis = 1; axis < dimensions; axis++) {
+            if (Math.abs(to[axis] - from[axis]) > Math.abs(to[dominant] - from[dominant])) {
+                dominant = axis;
+            }
+        }
+        final long length = Math.abs(to[dominant] - from[dominant]);
+        assertEquals(length + 1, cells.size());
+        for (int i = 0; i < cells.size(); i++) {
+            final long[] cell = cells.get(i);
+            assertEquals(from[dominant] + i * Long.signum(to[dominant] - from[dominant]), cell[dominant]);
+            for (int axis = 0; axis < dimensions; axis++) {
+                if (i > 0) {
+                    assertTrue(Math.abs(cell[axis] - cells.get(i - 1)[axis]) <= 1);
+                }
+                if (length > 0) {
+                    final double ideal = from[axis] + (double) (to[axis] - from[axis]) * i / length;
+                    assertTrue(Math.abs(cell[axis] - ideal) <= 0.5 + 1e-9);
+                }
+            }
+        }
+        for (int axis = 0; axis < dimensions; axis++) {
+            assertEquals(from[axis], cells.get(0)[axis]);
+            assertEquals(to[axis], cells.get(cells.size() - 1)[axis]);
+        }
+    }
+
+    // whether the segment passes within a small tolerance of the voxel,
+    // by clipping it against each pair of faces in turn
+    private static boolean crosses(final double[] from, final double[] to, final int[] voxel) {
+        double enter = 0;
+        double exit = 1;
+        for (int axis = 0; axis < 3; axis++) {
+            final double min = voxel[axis] - 1e-9;
+            final double max = voxel[axis] + 1 + 1e-9;
+            final double d = to[axis] - from[axis];
+            if (d == 0) {
+                if (from[axis] < min || from[axis] > max) {
+                    return false;
+                }
+            } else {
+                final double t0 = (min - from[axis]) / d;
+                final double t1 = (max - from[axis]) / d;
+                enter = Math.max(enter, Math.min(t0, t1));
+                exit = Math.min(exit, Math.max(t0, t1));
+            }
+        }
+        return enter <= exit;
+    }
+
+}
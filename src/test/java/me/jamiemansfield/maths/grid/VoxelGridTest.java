@@ -0,0 +1,186 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.grid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import me.jamiemansfield.maths.coord.Coordinate3i;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+public final class VoxelGridTest {
+
+    @Test
+    public void matchesHashMap() {
+        final Random random = new Random(1);
+        for (int trial = 0; trial < 30; trial++) {
+            final int chunkBits = 1 + random.nextInt(5);
+            // near the origin, and near either end of the range
+            final int base = trial % 3 == 0 ? -20 : trial % 3 == 1 ? Integer.MIN_VALUE : Integer.MAX_VALUE - 1_000;
+            final VoxelGrid grid = new VoxelGrid(chunkBits);
+            assertEquals(1 << chunkBits, grid.getChunkSize());
+            final Map<Coordinate3i, Integer> expected = new HashMap<>();
+            for (int i = 0; i < 2_000; i++) {
+                final int op = random.nextInt(100);
+                if (op < 70) {
+                    final Coordinate3i coord = randomCoord(random, base);
+                    final int value = random.nextInt(3) == 0 ? 0 : random.nextInt();
+                    final Integer previous = value == 0 ? expected.remove(coord) : expected.put(coord, value);
+                    final int replaced = random.nextBoolean() ?
+                            grid.set(coord, value) : grid.set(coord.getX(), coord.getY(), coord.getZ(), value);
+                    assertEquals(previous == null ? 0 : previous, replaced);
+                } else if (op < 85) {
+                    final Coordinate3i a = randomCoord(random, base);
+                    final Coordinate3i b = randomCoord(random, base);
+                    final int value = random.nextBoolean() ? 0 : random.nextInt();
+                    final int minX = Math.min(a.getX(), b.getX());
+                    final int minY = Math.min(a.getY(), b.getY());
+                    final int minZ = Math.min(a.getZ(), b.getZ());
+                    final int maxX = Math.max(a.getX(), b.getX());
+                    final int maxY = Math.max(a.getY(), b.getY());
+                    final int maxZ = Math.max(a.getZ(), b.getZ());
+                    grid.fill(minX, minY, minZ, maxX, maxY, maxZ, value);
+                    for (int x = minX; x <= maxX; x++) {
+                        for (int y = minY; y <= maxY; y++) {
+                            for (int z = minZ; z <= maxZ; z++) {
+                                put(expected, new Coordinate3i(x, y, z), value);
+                            }
+                        }
+                    }
+                } else if (op < 95) {
+                    final Coordinate3i coord = randomCoord(random, base);
+                    final int cx = coord.getX() >> chunkBits;
+                    final int cy = coord.getY() >> chunkBits;
+                    final int cz = coord.getZ() >> chunkBits;
+                    final int value = random.nextBoolean() ? 0 : random.nextInt();
+                    grid.fillChunk(cx, cy, cz, value);
+                    for (int x = 0; x < 1 << chunkBits; x++) {
+                        for (int y = 0; y < 1 << chunkBits; y++) {
+                            for (int z = 0; z < 1 << chunkBits; z++) {
+                                put(expected, new Coordinate3i((cx << chunkBits) + x, (cy << chunkBits) + y, (cz << chunkBits) + z), value);
+                            }
+                        }
+                    }
+                } else if (op == 95 && random.nextInt(10) == 0) {
+                    grid.clear();
+                    expected.clear();
+                } else {
+                    final Coordinate3i coord = randomCoord(random, base);
+                    assertEquals(expected.getOrDefault(coord, 0).intValue(), grid.get(coord));
+                    assertEquals(expected.getOrDefault(coord, 0).intValue(), grid.get(coord.getX(), coord.getY(), coord.getZ()));
+                }
+                assertEquals(expected.size(), grid.size());
+            }
+            assertContents(expected, grid);
+        }
+    }
+
+    @Test(timeout = 60_000)
+    public void fillsBoxesAtTheEndsOfTheRange() {
+        final Random random = new Random(2);
+        for (final ChunkStorage storage : ChunkStorage.values()) {
+            for (int trial = 0; trial < 20; trial++) {
+                final int chunkBits = 1 + random.nextInt(4);
+                final VoxelGrid grid = new VoxelGrid(chunkBits, storage);
+                final Map<Coordinate3i, Integer> expected = new HashMap<>();
+                for (int i = 0; i < 10; i++) {
+                    // boxes that end at Integer.MAX_VALUE or start at Integer.MIN_VALUE
+                    final long[] min = new long[3];
+                    final long[] max = new long[3];
+                    for (int axis = 0; axis < 3; axis++) {
+                        final int extent = random.nextInt(20);
+                        min[axis] = random.nextBoolean() ? Integer.MAX_VALUE - extent : Integer.MIN_VALUE;
+                        max[axis] = min[axis] + extent;
+                    }
+                    final int value = random.nextInt(4) == 0 ? 0 : random.nextInt();
+                    grid.fill((int) min[0], (int) min[1], (int) min[2], (int) max[0], (int) max[1], (int) max[2], value);
+                    for (long x = min[0]; x <= max[0]; x++) {
+                        for (long y = min[1]; y <= max[1]; y++) {
+                            for (long z = min[2]; z <= max[2]; z++) {
+                                put(expected, new Coordinate3i((int) x, (int) y, (int) z), value);
+                            }
+                        }
+                    }
+                    assertEquals(expected.size(), grid.size());
+                }
+                assertContents(expected, grid);
+            }
+        }
+    }
+
+    @Test
+    public void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new VoxelGrid(0));
+        assertThrows(IllegalArgumentException.class, () -> new VoxelGrid(9));
+        assertThrows(IllegalArgumentException.class, () -> new VoxelGrid().fill(1, 0, 0, 0, 0, 0, 1));
+    }
+
+    // coordinates within a region a few chunks across
+    private static Coordinate3i randomCoord(final Random random, final int base) {
+        return new Coordinate3i(base + random.nextInt(40), base + random.nextInt(40), base + random.nextInt(40));
+    }
+
+    private static void put(final Map<Coordinate3i, Integer> map, final Coordinate3i coord, final int value) {
+        if (value == 0) {
+            map.remove(coord);
+        } else {
+            map.put(coord, value);
+        }
+    }
+
+    private static void assertContents(final Map<Coordinate3i, Integer> expected, final VoxelGrid grid) {
+        assertEquals(expected.size(), grid.size());
+        for (final Map.Entry<Coordinate3i, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue().intValue(), grid.get(entry.getKey()));
+        }
+
+        final Map<Coordinate3i, Integer> visited = new HashMap<>();
+        grid.forEachVoxel((x, y, z, value) -> {
+            assertTrue(value != 0);
+            assertEquals(null, visited.put(new Coordinate3i(x, y, z), value));
+        });
+        assertEquals(expected, visited);
+
+        // exactly the chunks holding voxels are allocated
+        final int chunkBits = Integer.numberOfTrailingZeros(grid.getChunkSize());
+        final Set<Coordinate3i> chunks = new HashSet<>();
+        for (final Coordinate3i coord : expected.keySet()) {
+            chunks.add(new Coordinate3i(coord.getX() >> chunkBits, coord.getY() >> chunkBits, coord.getZ() >> chunkBits));
+        }
+        final Set<Coordinate3i> allocated = new HashSet<>();
+        grid.forEachChunk((cx, cy, cz) -> assertTrue(allocated.add(new Coordinate3i(cx, cy, cz))));
+        assertEquals(chunks, allocated);
+        assertEquals(chunks.size(), grid.chunkCount());
+    }
+
+}
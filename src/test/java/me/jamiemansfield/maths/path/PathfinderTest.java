@@ -0,0 +1,278 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import me.jamiemansfield.maths.coord.Coordinate2i;
+import me.jamiemansfield.maths.coord.Coordinate3i;
+import me.jamiemansfield.maths.coord.Coordinate3iPacker;
+import me.jamiemansfield.maths.function.IntBiPredicate;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Checks the pathfinders against Dijkstra's algorithm, over random
+ * bounded grids.
+ */
+public final class PathfinderTest {
+
+    @Test
+    public void aStarMatchesDijkstraIn2d() {
+        final Random random = new Random(1);
+        for (final Connectivity connectivity : new Connectivity[] {Connectivity.FOUR, Connectivity.EIGHT}) {
+            for (int trial = 0; trial < 300; trial++) {
+                final Grid grid = new Grid(random, 24, 24, 1, 0.1 + random.nextDouble() * 0.3);
+                final StepCost cost = trial % 2 == 0 ? null : grid::weightedCost;
+                final GridPathfinder pathfinder = new GridPathfinder(connectivity, (x, y) -> grid.open(x, y, 0), cost,
+                        GridPathfinder.DEFAULT_MAX_EXPANSIONS);
+                final int[] start = grid.randomOpen(random);
+                final int[] goal = grid.randomOpen(random);
+                final Path path = new Path();
+                final boolean found = pathfinder.findPath(start[0], start[1], goal[0], goal[1], path);
+                assertPath(grid, connectivity, cost, start, goal, found, path);
+
+                final List<Coordinate2i> coords = pathfinder.findPath(new Coordinate2i(start[0], start[1]), new Coordinate2i(goal[0], goal[1]));
+                assertEquals(found ? path.toCoordinates2i() : null, coords);
+            }
+        }
+    }
+
+    @Test
+    public void aStarMatchesDijkstraIn3d() {
+        final Random random = new Random(2);
+        for (final Connectivity connectivity : new Connectivity[] {Connectivity.SIX, Connectivity.TWENTY_SIX}) {
+            for (int trial = 0; trial < 200; trial++) {
+                final Grid grid = new Grid(random, 9, 9, 9, 0.1 + random.nextDouble() * 0.4);
+                final StepCost cost = trial % 2 == 0 ? null : grid::weightedCost;
+                final GridPathfinder pathfinder = new GridPathfinder(connectivity, grid::open, cost);
+                final int[] start = grid.randomOpen(random);
+                final int[] goal = grid.randomOpen(random);
+                final Path path = new Path();
+                final boolean found = pathfinder.findPath(start[0], start[1], start[2], goal[0], goal[1], goal[2], path, new SearchContext());
+                assertPath(grid, connectivity, cost, start, goal, found, path);
+
+                final List<Coordinate3i> coords = pathfinder.findPath(new Coordinate3i(start[0], start[1], start[2]),
+                        new Coordinate3i(goal[0], goal[1], goal[2]));
+                assertEquals(found ? path.toCoordinates3i() : null, coords);
+            }
+        }
+    }
+
+    @Test
+    public void jumpPointSearchMatchesDijkstra() {
+        final Random random = new Random(3);
+        final SearchContext context = new SearchContext();
+        for (int trial = 0; trial < 1_000; trial++) {
+            final Grid grid = new Grid(random, 8 + random.nextInt(40), 8 + random.nextInt(40), 1, random.nextDouble() * 0.4);
+            final JumpPointSearch search = new JumpPointSearch((x, y) -> grid.open(x, y, 0));
+            final int[] start = grid.randomOpen(random);
+            final int[] goal = grid.randomOpen(random);
+            final Path path = new Path();
+            final boolean found = search.findPath(start[0], start[1], goal[0], goal[1], path, context);
+            assertPath(grid, Connectivity.EIGHT, null, start, goal, found, path);
+
+            final List<Coordinate2i> coords = search.findPath(new Coordinate2i(start[0], start[1]), new Coordinate2i(goal[0], goal[1]));
+            assertEquals(found ? path.toCoordinates2i() : null, coords);
+        }
+    }
+
+    @Test
+    public void jumpPointSearchExpandsOnlyForcedNeighbours() {
+        // the top row is the largest y
+        final String[] map = {
+                "....#....#...",
+                "##.........#.",
+                ".#...#...####",
+                "#...........#",
+                "#..##.....#..",
+                "....G#.......",
+                ".##.#...#S.##",
+        };
+        final IntBiPredicate open = (x, y) -> y >= 0 && y < map.length && x >= 0 && x < map[0].length()
+                && map[map.length - 1 - y].charAt(x) != '#';
+        final Path expected = new Path();
+        assertTrue(new GridPathfinder(Connectivity.EIGHT, open).findPath(9, 0, 4, 1, expected));
+
+        final SearchContext context = new SearchContext();
+        final Path path = new Path();
+        assertTrue(new JumpPointSearch(open).findPath(9, 0, 4, 1, path, context));
+        assertEquals(expected.getCost(), path.getCost(), 1e-9);
+        // expanding the unforced sides of straight moves discovered 29
+        assertEquals(22, context.getNodeCount());
+    }
+
+    @Test
+    public void givesUpAfterMaxExpansions() {
+        final Grid grid = new Grid(new Random(4), 64, 64, 1, 0);
+        final Path path = new Path();
+        final GridPathfinder pathfinder = new GridPathfinder(Connectivity.FOUR, (x, y) -> grid.open(x, y, 0), null, 10);
+        assertFalse(pathfinder.findPath(0, 0, 63, 63, path));
+        assertTrue(path.isEmpty());
+        assertTrue(pathfinder.findPath(0, 0, 3, 0, path));
+        assertEquals(4, path.size());
+
+        assertNull(new GridPathfinder(Connectivity.SIX, (x, y, z) -> true, null, Coordinate3iPacker.UNIFORM, 5)
+                .findPath(new Coordinate3i(0, 0, 0), new Coordinate3i(10, 0, 0)));
+    }
+
+    private static void assertPath(final Grid grid, final Connectivity connectivity, final StepCost cost, final int[] start, final int[] goal,
+            final boolean found, final Path path) {
+        final double expected = grid.dijkstra(connectivity, cost, start, goal);
+        assertEquals(expected != Double.POSITIVE_INFINITY, found);
+        if (!found) {
+            assertTrue(path.isEmpty());
+            return;
+        }
+        assertEquals(expected, path.getCost(), 1e-9);
+
+        // the path must be made of permitted moves, costing what it claims
+        assertEquals(start[0], path.getX(0));
+        assertEquals(start[1], path.getY(0));
+        assertEquals(start[2], path.getZ(0));
+        double total = 0;
+        for (int i = 1; i < path.size(); i++) {
+            final int[] from = {path.getX(i - 1), path.getY(i - 1), path.getZ(i - 1)};
+            final int[] to = {path.getX(i), path.getY(i), path.getZ(i)};
+            final double step = grid.step(connectivity, cost, from, to);
+            assertTrue(Arrays.toString(from) + " to " + Arrays.toString(to), step != Double.POSITIVE_INFINITY);
+            total += step;
+        }
+        assertEquals(goal[0], path.getX(path.size() - 1));
+        assertEquals(goal[1], path.getY(path.size() - 1));
+        assertEquals(goal[2], path.getZ(path.size() - 1));
+        assertEquals(total, path.getCost(), 1e-9);
+    }
+
+    private static final class Grid {
+
+        private final int sizeX;
+        private final int sizeY;
+        private final int sizeZ;
+        private final boolean[] blocked;
+        private final int[] weights;
+
+        Grid(final Random random, final int sizeX, final int sizeY, final int sizeZ, final double density) {
+            this.sizeX = sizeX;
+            this.sizeY = sizeY;
+            this.sizeZ = sizeZ;
+            this.blocked = new boolean[sizeX * sizeY * sizeZ];
+            this.weights = new int[this.blocked.length];
+            for (int i = 0; i < this.blocked.length; i++) {
+                this.blocked[i] = random.nextDouble() < density;
+                this.weights[i] = 1 + random.nextInt(3);
+            }
+        }
+
+        boolean open(final int x, final int y, final int z) {
+            return x >= 0 && x < this.sizeX && y >= 0 && y < this.sizeY && z >= 0 && z < this.sizeZ && !this.blocked[this.index(x, y, z)];
+        }
+
+        // a cost never less than the length of the move
+        double weightedCost(final int fromX, final int fromY, final int fromZ, final int toX, final int toY, final int toZ) {
+            final int axes = Math.abs(toX - fromX) + Math.abs(toY - fromY) + Math.abs(toZ - fromZ);
+            return Math.sqrt(axes) * this.weights[this.index(toX, toY, toZ)];
+        }
+
+        int[] randomOpen(final Random random) {
+            while (true) {
+                final int[] cell = {random.nextInt(this.sizeX), random.nextInt(this.sizeY), random.nextInt(this.sizeZ)};
+                if (this.open(cell[0], cell[1], cell[2])) {
+                    return cell;
+                }
+            }
+        }
+
+        /**
+         * Gets the cost of moving between the given cells, or infinity
+         * if the move is not permitted.
+         */
+        double step(final Connectivity connectivity, final StepCost cost, final int[] from, final int[] to) {
+            final int dx = to[0] - from[0];
+            final int dy = to[1] - from[1];
+            final int dz = to[2] - from[2];
+            final int axes = Math.abs(dx) + Math.abs(dy) + Math.abs(dz);
+            final int maxAxes = connectivity == Connectivity.FOUR || connectivity == Connectivity.SIX ? 1 :
+                    connectivity == Connectivity.EIGHT ? 2 : 3;
+            if (Math.abs(dx) > 1 || Math.abs(dy) > 1 || Math.abs(dz) > 1 || axes == 0 || axes > maxAxes ||
+                    !this.open(to[0], to[1], to[2])) {
+                return Double.POSITIVE_INFINITY;
+            }
+            // no corner may be cut - every cell stepped between is open
+            for (int mask = 1; mask < 7; mask++) {
+                if (!this.open(from[0] + ((mask & 1) != 0 ? dx : 0), from[1] + ((mask & 2) != 0 ? dy : 0), from[2] + ((mask & 4) != 0 ? dz : 0))) {
+                    return Double.POSITIVE_INFINITY;
+                }
+            }
+            return cost == null ? Math.sqrt(axes) : cost.cost(from[0], from[1], from[2], to[0], to[1], to[2]);
+        }
+
+        double dijkstra(final Connectivity connectivity, final StepCost cost, final int[] start, final int[] goal) {
+            final double[] distances = new double[this.blocked.length];
+            Arrays.fill(distances, Double.POSITIVE_INFINITY);
+            final PriorityQueue<double[]> queue = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+            distances[this.index(start[0], start[1], start[2])] = 0;
+            queue.add(new double[] {0, start[0], start[1], start[2]});
+            while (!queue.isEmpty()) {
+                final double[] entry = queue.poll();
+                final int[] cell = {(int) entry[1], (int) entry[2], (int) entry[3]};
+                if (entry[0] > distances[this.index(cell[0], cell[1], cell[2])]) {
+                    continue;
+                }
+                for (int dz = -1; dz <= 1; dz++) {
+                    for (int dy = -1; dy <= 1; dy++) {
+                        for (int dx = -1; dx <= 1; dx++) {
+                            final int[] next = {cell[0] + dx, cell[1] + dy, cell[2] + dz};
+                            final double step = this.step(connectivity, cost, cell, next);
+                            if (step == Double.POSITIVE_INFINITY) {
+                                continue;
+                            }
+                            final int index = this.index(next[0], next[1], next[2]);
+                            if (entry[0] + step < distances[index]) {
+                                distances[index] = entry[0] + step;
+                                queue.add(new double[] {distances[index], next[0], next[1], next[2]});
+                            }
+                        }
+                    }
+                }
+            }
+            return distances[this.index(goal[0], goal[1], goal[2])];
+        }
+
+        private int index(final int x, final int y, final int z) {
+            return (z * this.sizeY + y) * this.sizeX + x;
+        }
+
+    }
+
+}
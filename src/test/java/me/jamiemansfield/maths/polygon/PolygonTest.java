@@ -0,0 +1,428 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.polygon;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+
+import me.jamiemansfield.maths.coord.Coordinate2d;
+import me.jamiemansfield.maths.coord.Coordinate2dBuffer;
+import me.jamiemansfield.maths.coord.Coordinate2f;
+import me.jamiemansfield.maths.coord.Coordinate2fBuffer;
+import org.junit.AfterClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Checks the hulls against a monotone chain in exact arithmetic, and the
+ * polygons against an even-odd test of every edge, for each precision.
+ * Points lie on an integer lattice, so are exact in either.
+ */
+@RunWith(Parameterized.class)
+public final class PolygonTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> types() {
+        return Arrays.asList(new Object[][] {
+                {"Coordinate2d", new Coordinate2dAdapter()},
+                {"Coordinate2f", new Coordinate2fAdapter()},
+        });
+    }
+
+    @AfterClass
+    public static void shutdown() {
+        POOL.shutdown();
+    }
+
+    @Parameter(0)
+    public String name;
+
+    @Parameter(1)
+    public Type type;
+
+    @Test
+    public void hullMatchesExactChain() {
+        final Random random = new Random(1);
+        for (int trial = 0; trial < 60; trial++) {
+            // large enough for some sets to be split across the pool
+            final int n = trial % 6 == 0 ? 20_000 + random.nextInt(50_000) : random.nextInt(200);
+            final double[][] points = new double[2][n];
+            for (int i = 0; i < n; i++) {
+                switch (trial % 3) {
+                    case 0:
+                        // few distinct positions, so many duplicates
+                        points[0][i] = random.nextInt(8);
+                        points[1][i] = random.nextInt(8);
+                        break;
+                    case 1:
+                        // all collinear
+                        final int t = random.nextInt(1_000);
+                        points[0][i] = 3 * t - 100;
+                        points[1][i] = 2 * t + 7;
+                        break;
+                    default:
+                        points[0][i] = Math.round(random.nextGaussian() * 1_000);
+                        points[1][i] = Math.round(random.nextGaussian() * 1_000);
+                        break;
+                }
+            }
+            final double[][] hull = this.type.hull(points, random.nextBoolean() ? POOL : null);
+            final double[][] expected = exactHull(points);
+            assertArrayEquals(expected[0], hull[0], 0);
+            assertArrayEquals(expected[1], hull[1], 0);
+        }
+        assertEquals(0, this.type.hull(new double[2][0], null)[0].length);
+    }
+
+    @Test
+    public void polygonMatchesEveryEdge() {
+        final Random random = new Random(2);
+        for (int trial = 0; trial < 200; trial++) {
+            final double[][] vertices = polygon(random, trial % 4);
+            final Polygon polygon = this.type.polygon(vertices);
+            final int n = trial % 20 == 0 ? 20_000 + random.nextInt(10_000) : random.nextInt(500);
+            final double[][] points = new double[2][n];
+            for (int i = 0; i < n; i++) {
+                if (random.nextInt(4) == 0) {
+                    // on the vertices, and so on the edges
+                    final int v = random.nextInt(vertices[0].length);
+                    points[0][i] = vertices[0][v];
+                    points[1][i] = vertices[1][v];
+                } else {
+                    // halves, which often fall on edges, and a margin about the polygon
+                    points[0][i] = (random.nextInt(260) - 130) / 2.0;
+                    points[1][i] = (random.nextInt(260) - 130) / 2.0;
+                }
+            }
+            final boolean[] expected = new boolean[n];
+            int count = 0;
+            for (int i = 0; i < n; i++) {
+                expected[i] = this.type.naiveContains(vertices, points[0][i], points[1][i]);
+                count += expected[i] ? 1 : 0;
+                if (i < 500) {
+                    assertEquals(expected[i], polygon.contains(points[0][i], points[1][i]));
+                }
+            }
+            final boolean[] inside = new boolean[n + 1];
+            assertEquals(count, polygon.classify(points, inside, random.nextBoolean() ? POOL : null));
+            assertArrayEquals(expected, Arrays.copyOf(inside, n));
+        }
+    }
+
+    @Test
+    public void sharedEdgesBelongToOnePolygon() {
+        final Polygon left = this.type.polygon(new double[][] {{0, 5, 5, 0}, {0, 0, 10, 10}});
+        final Polygon right = this.type.polygon(new double[][] {{5, 10, 10, 5}, {10, 10, 0, 0}});
+        for (double y = 0; y < 10; y += 0.25) {
+            assertNotEquals(left.contains(5, y), right.contains(5, y));
+            assertEquals(true, left.contains(2.5, y));
+            assertEquals(false, right.contains(2.5, y));
+        }
+        final Polygon empty = this.type.polygon(new double[2][0]);
+        assertEquals(false, empty.contains(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> left.classify(new double[][] {{1, 2}, {1, 2}}, new boolean[1], null));
+    }
+
+    /**
+     * Creates the vertices of a random polygon on the integer lattice
+     * within 60 of the origin, of the given shape: star-shaped, random
+     * and so self-intersecting, rectilinear, or a comb of tall teeth.
+     */
+    private static double[][] polygon(final Random random, final int shape) {
+        final int n = 3 + random.nextInt(shape == 1 ? 20 : 300);
+        final List<double[]> vertices = new ArrayList<>();
+        switch (shape) {
+            case 0: {
+                final double[] angles = new double[n];
+                for (int i = 0; i < n; i++) {
+                    angles[i] = random.nextDouble() * 2 * Math.PI;
+                }
+                Arrays.sort(angles);
+                for (final double angle : angles) {
+                    final double radius = 5 + random.nextInt(55);
+                    vertices.add(new double[] {Math.round(Math.cos(angle) * radius), Math.round(Math.sin(angle) * radius)});
+                }
+                break;
+            }
+            case 1:
+                for (int i = 0; i < n; i++) {
+                    vertices.add(new double[] {random.nextInt(121) - 60, random.nextInt(121) - 60});
+                }
+                break;
+            case 2: {
+                double x = 0;
+                double y = 0;
+                for (int i = 0; i < n; i++) {
+                    if (i % 2 == 0) {
+                        x = random.nextInt(121) - 60;
+                    } else {
+                        y = random.nextInt(121) - 60;
+                    }
+                    vertices.add(new double[] {x, y});
+                }
+                vertices.add(new double[] {x, 0});
+                break;
+            }
+            default: {
+                final int teeth = 1 + random.nextInt(40);
+                for (int i = 0; i < teeth; i++) {
+                    vertices.add(new double[] {-60 + 3 * i, -60});
+                    vertices.add(new double[] {-60 + 3 * i + 1, 60});
+                }
+                vertices.add(new double[] {-60 + 3 * teeth, -61});
+                break;
+            }
+        }
+        final double[][] axes = new double[2][vertices.size()];
+        for (int i = 0; i < vertices.size(); i++) {
+            axes[0][i] = vertices.get(i)[0];
+            axes[1][i] = vertices.get(i)[1];
+        }
+        return axes;
+    }
+
+    /**
+     * Computes the hull of the given lattice points with a monotone chain
+     * over boxed points, in exact integer arithmetic.
+     */
+    private static double[][] exactHull(final double[][] points) {
+        final TreeSet<long[]> sorted = new TreeSet<>(Comparator.<long[]>comparingLong(p -> p[0]).thenComparingLong(p -> p[1]));
+        for (int i = 0; i < points[0].length; i++) {
+            sorted.add(new long[] {(long) points[0][i], (long) points[1][i]});
+        }
+        final List<long[]> distinct = new ArrayList<>(sorted);
+        final List<long[]> hull = new ArrayList<>();
+        for (int pass = 0; pass < 2; pass++) {
+            final int start = hull.size();
+            for (final long[] p : distinct) {
+                while (hull.size() >= start + 2 && cross(hull.get(hull.size() - 2), hull.get(hull.size() - 1), p) <= 0) {
+                    hull.remove(hull.size() - 1);
+                }
+                hull.add(p);
+            }
+            // each chain ends where the other begins
+            hull.remove(hull.size() - 1);
+            Collections.reverse(distinct);
+        }
+        if (distinct.size() == 1) {
+            hull.add(distinct.get(0));
+        }
+        final double[][] axes = new double[2][hull.size()];
+        for (int i = 0; i < hull.size(); i++) {
+            axes[0][i] = hull.get(i)[0];
+            axes[1][i] = hull.get(i)[1];
+        }
+        return axes;
+    }
+
+    private static long cross(final long[] o, final long[] a, final long[] b) {
+        return (a[0] - o[0]) * (b[1] - o[1]) - (a[1] - o[1]) * (b[0] - o[0]);
+    }
+
+    private static double[] doubles(final double[] values) {
+        return values;
+    }
+
+    private static float[] floats(final double[] values) {
+        final float[] floats = new float[values.length];
+        for (int i = 0; i < values.length; i++) {
+            floats[i] = (float) values[i];
+        }
+        return floats;
+    }
+
+    private interface Polygon {
+
+        boolean contains(double x, double y);
+
+        int classify(double[][] points, boolean[] inside, ForkJoinPool pool);
+
+    }
+
+    private interface Type {
+
+        double[][] hull(double[][] points, ForkJoinPool pool);
+
+        Polygon polygon(double[][] vertices);
+
+        /**
+         * Tests the given position against every edge of the given
+         * polygon in turn, with the even-odd rule.
+         */
+        boolean naiveContains(double[][] vertices, double x, double y);
+
+    }
+
+    private static final class Coordinate2dAdapter implements Type {
+
+        @Override
+        public double[][] hull(final double[][] points, final ForkJoinPool pool) {
+            final Coordinate2dBuffer hull = pool == null ? Coordinate2dHull.compute(buffer(points)) : Coordinate2dHull.compute(buffer(points), pool);
+            final double[][] vertices = new double[2][hull.size()];
+            for (int i = 0; i < hull.size(); i++) {
+                vertices[0][i] = hull.getX(i);
+                vertices[1][i] = hull.getY(i);
+            }
+            return vertices;
+        }
+
+        @Override
+        public Polygon polygon(final double[][] vertices) {
+            final Coordinate2dPolygon polygon = Coordinate2dPolygon.of(buffer(vertices));
+            assertEquals(vertices[0].length, polygon.getVertexCount());
+            return new Polygon() {
+
+                @Override
+                public boolean contains(final double x, final double y) {
+                    final boolean inside = polygon.contains(x, y);
+                    assertEquals(inside, polygon.contains(new Coordinate2d(x, y)));
+                    return inside;
+                }
+
+                @Override
+                public int classify(final double[][] points, final boolean[] inside, final ForkJoinPool pool) {
+                    return pool == null ? polygon.classify(buffer(points), inside) : polygon.classify(buffer(points), inside, pool);
+                }
+
+            };
+        }
+
+        @Override
+        public boolean naiveContains(final double[][] vertices, final double px, final double py) {
+            // every edge, with the same arithmetic as the polygon
+            final double[] xs = doubles(vertices[0]);
+            final double[] ys = doubles(vertices[1]);
+            final double x = px;
+            final double y = py;
+            boolean inside = false;
+            for (int i = 0, j = xs.length - 1; i < xs.length; j = i++) {
+                if (ys[i] == ys[j]) {
+                    continue;
+                }
+                final int low = ys[i] < ys[j] ? i : j;
+                final int high = low == i ? j : i;
+                final double slope = (xs[high] - xs[low]) / (ys[high] - ys[low]);
+                if (y >= ys[low] && y < ys[high] && x < xs[low] + (y - ys[low]) * slope) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+
+        private static Coordinate2dBuffer buffer(final double[][] points) {
+            final Coordinate2dBuffer buffer = new Coordinate2dBuffer();
+            for (int i = 0; i < points[0].length; i++) {
+                buffer.add(points[0][i], points[1][i]);
+            }
+            return buffer;
+        }
+
+    }
+
+    private static final class Coordinate2fAdapter implements Type {
+
+        @Override
+        public double[][] hull(final double[][] points, final ForkJoinPool pool) {
+            final Coordinate2fBuffer hull = pool == null ? Coordinate2fHull.compute(buffer(points)) : Coordinate2fHull.compute(buffer(points), pool);
+            final double[][] vertices = new double[2][hull.size()];
+            for (int i = 0; i < hull.size(); i++) {
+                vertices[0][i] = hull.getX(i);
+                vertices[1][i] = hull.getY(i);
+            }
+            return vertices;
+        }
+
+        @Override
+        public Polygon polygon(final double[][] vertices) {
+            final Coordinate2fPolygon polygon = Coordinate2fPolygon.of(buffer(vertices));
+            assertEquals(vertices[0].length, polygon.getVertexCount());
+            return new Polygon() {
+
+                @Override
+                public boolean contains(final double x, final double y) {
+                    final boolean inside = polygon.contains((float) x, (float) y);
+                    assertEquals(inside, polygon.contains(new Coordinate2f((float) x, (float) y)));
+                    return inside;
+                }
+
+                @Override
+                public int classify(final double[][] points, final boolean[] inside, final ForkJoinPool pool) {
+                    return pool == null ? polygon.classify(buffer(points), inside) : polygon.classify(buffer(points), inside, pool);
+                }
+
+            };
+        }
+
+        @Override
+        public boolean naiveContains(final double[][] vertices, final double px, final double py) {
+            // every edge, with the same arithmetic as the polygon
+            final float[] xs = floats(vertices[0]);
+            final float[] ys = floats(vertices[1]);
+            final float x = (float) px;
+            final float y = (float) py;
+            boolean inside = false;
+            for (int i = 0, j = xs.length - 1; i < xs.length; j = i++) {
+                if (ys[i] == ys[j]) {
+                    continue;
+                }
+                final int low = ys[i] < ys[j] ? i : j;
+                final int high = low == i ? j : i;
+                final float slope = (xs[high] - xs[low]) / (ys[high] - ys[low]);
+                if (y >= ys[low] && y < ys[high] && x < xs[low] + (y - ys[low]) * slope) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+
+        private static Coordinate2fBuffer buffer(final double[][] points) {
+            final Coordinate2fBuffer buffer = new Coordinate2fBuffer();
+            for (int i = 0; i < points[0].length; i++) {
+                buffer.add((float) points[0][i], (float) points[1][i]);
+            }
+            return buffer;
+        }
+
+    }
+
+}
@@ -0,0 +1,202 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.spatial;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import me.jamiemansfield.maths.coord.Coordinate2dBuffer;
+import org.junit.Test;
+
+import java.util.Random;
+
+public final class Coordinate2dKMeansTest {
+
+    @Test
+    public void matchesNaiveClustering() {
+        final Random random = new Random(3);
+        for (int trial = 0; trial < 150; trial++) {
+            final int n = 1 + random.nextInt(500);
+            final int k = 1 + random.nextInt(Math.min(n, 20));
+            final int maxIterations = random.nextInt(50);
+            final Coordinate2dBuffer points = points(random, n);
+
+            final Coordinate2dKMeans kMeans = Coordinate2dKMeans.fit(points, k, maxIterations, trial);
+            final Naive naive = new Naive(points, k, maxIterations, trial);
+
+            final String message = "trial " + trial + ", n = " + n + ", k = " + k;
+            assertArrayEquals(message, naive.labels, kMeans.getLabels());
+            assertEquals(message, naive.iterations, kMeans.getIterations());
+            assertEquals(message, naive.converged, kMeans.hasConverged());
+            assertEquals(message, naive.inertia, kMeans.getInertia(), 1e-9 * naive.inertia);
+        }
+    }
+
+    @Test
+    public void assignsLargeBuffersToNearestCentroids() {
+        // enough points for the passes to be split across the pool
+        final Random random = new Random(5);
+        final Coordinate2dBuffer points = points(random, 50_000);
+        final Coordinate2dKMeans kMeans = Coordinate2dKMeans.fit(points, 16, 100, 1);
+
+        final int[] labels = kMeans.getLabels();
+        final Coordinate2dBuffer centroids = kMeans.getCentroids();
+        double inertia = 0;
+        for (int i = 0; i < points.size(); i++) {
+            final double distanceSq = distanceSq(points, i, centroids, labels[i]);
+            for (int c = 0; c < centroids.size(); c++) {
+                assertTrue("point " + i, distanceSq <= distanceSq(points, i, centroids, c));
+            }
+            inertia += distanceSq;
+        }
+        assertEquals(inertia, kMeans.getInertia(), 1e-9 * inertia);
+    }
+
+    @Test
+    public void rejectsMoreClustersThanPoints() {
+        final Coordinate2dBuffer points = new Coordinate2dBuffer();
+        points.add(0, 0);
+        assertThrows(IllegalArgumentException.class, () -> Coordinate2dKMeans.fit(points, 2, 10, 0));
+    }
+
+    private static Coordinate2dBuffer points(final Random random, final int n) {
+        final Coordinate2dBuffer points = new Coordinate2dBuffer(n);
+        for (int i = 0; i < n; i++) {
+            // a quarter of the points coincide, so seeding meets zero distances
+            final double x = random.nextInt(4) == 0 ? 1 : random.nextGaussian() * 5 + random.nextInt(4) * 10;
+            points.add(x, random.nextGaussian());
+        }
+        return points;
+    }
+
+    private static double distanceSq(final Coordinate2dBuffer points, final int i, final Coordinate2dBuffer centroids, final int c) {
+        final double dx = points.getX(i) - centroids.getX(c);
+        final double dy = points.getY(i) - centroids.getY(c);
+        return dx * dx + dy * dy;
+    }
+
+    // k-means++ seeding then Lloyd's algorithm, one point at a time, drawing
+    // from the random numbers in the same order
+    private static final class Naive {
+
+        final int[] labels;
+        int iterations;
+        boolean converged;
+        double inertia;
+
+        Naive(final Coordinate2dBuffer points, final int k, final int maxIterations, final long seed) {
+            final int n = points.size();
+            final Random random = new Random(seed);
+            final Coordinate2dBuffer centroids = new Coordinate2dBuffer(k);
+
+            final double[] nearest = new double[n];
+            final int first = random.nextInt(n);
+            centroids.add(points.getX(first), points.getY(first));
+            for (int i = 0; i < n; i++) {
+                nearest[i] = distanceSq(points, i, centroids, 0);
+            }
+            for (int c = 1; c < k; c++) {
+                double total = 0;
+                for (int i = 0; i < n; i++) {
+                    total += nearest[i];
+                }
+                int chosen;
+                if (total > 0) {
+                    final double target = random.nextDouble() * total;
+                    double sum = 0;
+                    chosen = n - 1;
+                    for (int i = 0; i < n; i++) {
+                        sum += nearest[i];
+                        if (sum > target) {
+                            chosen = i;
+                            break;
+                        }
+                    }
+                    while (nearest[chosen] == 0) {
+                        chosen--;
+                    }
+                } else {
+                    chosen = random.nextInt(n);
+                }
+                centroids.add(points.getX(chosen), points.getY(chosen));
+                for (int i = 0; i < n; i++) {
+                    nearest[i] = Math.min(nearest[i], distanceSq(points, i, centroids, c));
+                }
+            }
+
+            this.labels = new int[n];
+            assign(points, centroids, this.labels);
+            while (this.iterations < maxIterations) {
+                final double[] sumX = new double[k];
+                final double[] sumY = new double[k];
+                final long[] counts = new long[k];
+                for (int i = 0; i < n; i++) {
+                    sumX[this.labels[i]] += points.getX(i);
+                    sumY[this.labels[i]] += points.getY(i);
+                    counts[this.labels[i]]++;
+                }
+                for (int c = 0; c < k; c++) {
+                    if (counts[c] > 0) {
+                        centroids.set(c, sumX[c] / counts[c], sumY[c] / counts[c]);
+                    }
+                }
+                this.iterations++;
+                if (assign(points, centroids, this.labels) == 0) {
+                    this.converged = true;
+                    break;
+                }
+            }
+
+            for (int i = 0; i < n; i++) {
+                this.inertia += distanceSq(points, i, centroids, this.labels[i]);
+            }
+        }
+
+        private static int assign(final Coordinate2dBuffer points, final Coordinate2dBuffer centroids, final int[] labels) {
+            int changed = 0;
+            for (int i = 0; i < points.size(); i++) {
+                int best = 0;
+                double bestDistanceSq = distanceSq(points, i, centroids, 0);
+                for (int c = 1; c < centroids.size(); c++) {
+                    final double distanceSq = distanceSq(points, i, centroids, c);
+                    if (distanceSq < bestDistanceSq) {
+                        bestDistanceSq = distanceSq;
+                        best = c;
+                    }
+                }
+                if (best != labels[i]) {
+                    changed++;
+                    labels[i] = best;
+                }
+            }
+            return changed;
+        }
+
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.spatial;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import me.jamiemansfield.maths.coord.Coordinate3dBuffer;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Random;
+
+public final class Coordinate3dDbscanTest {
+
+    @Test
+    public void matchesNaiveClustering() {
+        final Random random = new Random(1);
+        for (int trial = 0; trial < 200; trial++) {
+            // the larger trials are split across the pool
+            final int n = 1 + random.nextInt(trial < 180 ? 400 : 6000);
+            final double eps = 0.05 + random.nextDouble();
+            final int minPoints = 1 + random.nextInt(8);
+            final int blobs = 1 + random.nextInt(5);
+
+            final Coordinate3dBuffer points = new Coordinate3dBuffer();
+            for (int i = 0; i < n; i++) {
+                final int blob = random.nextInt(blobs);
+                // some points share z positions, so fall on cell boundaries
+                final double z = random.nextInt(3) == 0 ? Math.floor(random.nextDouble() * 4) * 0.5 : random.nextGaussian() * 2;
+                points.add(blob * 3 + random.nextGaussian(), blob + random.nextGaussian(), z);
+            }
+
+            assertArrayEquals("trial " + trial + ", n = " + n + ", eps = " + eps + ", minPoints = " + minPoints,
+                    naive(points, eps, minPoints), Coordinate3dDbscan.cluster(points, eps, minPoints));
+        }
+    }
+
+    @Test
+    public void labelsIsolatedPointsAsNoise() {
+        final Coordinate3dBuffer points = new Coordinate3dBuffer();
+        points.add(0, 0, 0);
+        points.add(0.5, 0, 0);
+        points.add(0, 0.5, 0);
+        points.add(10, 10, 10);
+
+        assertArrayEquals(new int[] {0, 0, 0, Coordinate3dDbscan.NOISE}, Coordinate3dDbscan.cluster(points, 1, 3));
+    }
+
+    @Test
+    public void clustersEmptyBuffer() {
+        assertEquals(0, Coordinate3dDbscan.cluster(new Coordinate3dBuffer(), 1, 1).length);
+    }
+
+    @Test
+    public void rejectsNonPositiveEps() {
+        assertThrows(IllegalArgumentException.class, () -> Coordinate3dDbscan.cluster(new Coordinate3dBuffer(), 0, 1));
+    }
+
+    // DBSCAN by comparing every pair of points, numbering clusters in the
+    // order of their first core points
+    private static int[] naive(final Coordinate3dBuffer points, final double eps, final int minPoints) {
+        final int n = points.size();
+        final double epsSq = eps * eps;
+
+        final boolean[] core = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            int neighbours = 0;
+            for (int j = 0; j < n; j++) {
+                if (distanceSq(points, i, j) <= epsSq) {
+                    neighbours++;
+                }
+            }
+            core[i] = neighbours >= minPoints;
+        }
+
+        final int[] clusters = new int[n];
+        Arrays.fill(clusters, Coordinate3dDbscan.NOISE);
+        int next = 0;
+        for (int i = 0; i < n; i++) {
+            if (!core[i] || clusters[i] != Coordinate3dDbscan.NOISE) {
+                continue;
+            }
+            final Deque<Integer> queue = new ArrayDeque<>();
+            queue.add(i);
+            clusters[i] = next;
+            while (!queue.isEmpty()) {
+                final int point = queue.poll();
+                for (int j = 0; j < n; j++) {
+                    if (core[j] && clusters[j] == Coordinate3dDbscan.NOISE && distanceSq(points, point, j) <= epsSq) {
+                        clusters[j] = next;
+                        queue.add(j);
+                    }
+                }
+            }
+            next++;
+        }
+
+        final int[] labels = new int[n];
+        for (int i = 0; i < n; i++) {
+            if (core[i]) {
+                labels[i] = clusters[i];
+                continue;
+            }
+            double nearest = Double.POSITIVE_INFINITY;
+            labels[i] = Coordinate3dDbscan.NOISE;
+            for (int j = 0; j < n; j++) {
+                final double distanceSq = distanceSq(points, i, j);
+                if (core[j] && distanceSq <= epsSq && distanceSq < nearest) {
+                    nearest = distanceSq;
+                    labels[i] = clusters[j];
+                }
+            }
+        }
+        return labels;
+    }
+
+    private static double distanceSq(final Coordinate3dBuffer points, final int i, final int j) {
+        final double dx = points.getX(i) - points.getX(j);
+        final double dy = points.getY(i) - points.getY(j);
+        final double dz = points.getZ(i) - points.getZ(j);
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+}
@@ -0,0 +1,322 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.spatial;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import me.jamiemansfield.maths.coord.Coordinate3d;
+import me.jamiemansfield.maths.coord.Coordinate3dBuffer;
+import me.jamiemansfield.maths.coord.Coordinate3f;
+import me.jamiemansfield.maths.coord.Coordinate3fBuffer;
+import org.junit.AfterClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Checks each of the distance kernels available on this runtime against
+ * naive loops, which should give identical results, and the public
+ * distance methods against the kernels.
+ */
+@RunWith(Parameterized.class)
+public final class DistanceKernelTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> kernels() {
+        final List<Object[]> kernels = new ArrayList<>();
+        kernels.add(new Object[] {"scalar", ScalarDistanceKernel.INSTANCE});
+        final DistanceKernel vector = DistanceKernels.vector();
+        if (vector != null) {
+            kernels.add(new Object[] {"vector", vector});
+        }
+        return kernels;
+    }
+
+    @AfterClass
+    public static void shutdown() {
+        POOL.shutdown();
+    }
+
+    @Parameter(0)
+    public String name;
+
+    @Parameter(1)
+    public DistanceKernel kernel;
+
+    @Test
+    public void floatKernelMatchesNaive() {
+        final Random random = new Random(1);
+        for (int trial = 0; trial < 500; trial++) {
+            // odd ranges exercise the tails of vectorised loops
+            final int n = random.nextInt(300);
+            final float[][] axes = floats(random, n);
+            final int from = n == 0 ? 0 : random.nextInt(n);
+            final int to = from + random.nextInt(n - from + 1);
+            final float[] p = point(floats(random, 1));
+
+            final int offset = random.nextInt(5);
+            final float[] out = new float[offset + to - from];
+            this.kernel.squaredDistances(p[0], p[1], p[2], axes[0], axes[1], axes[2], from, to, out, offset);
+            final float[] expected = new float[out.length];
+            for (int i = from; i < to; i++) {
+                expected[offset + i - from] = distanceSq(axes, i, p[0], p[1], p[2]);
+            }
+            assertArrayEquals(expected, out, 0);
+
+            int nearest = -1;
+            for (int i = from; i < to; i++) {
+                if (nearest < 0 || distanceSq(axes, i, p[0], p[1], p[2]) < distanceSq(axes, nearest, p[0], p[1], p[2])) {
+                    nearest = i;
+                }
+            }
+            assertEquals(nearest, this.kernel.nearest(p[0], p[1], p[2], axes[0], axes[1], axes[2], from, to));
+
+            final float radiusSq = random.nextFloat() * 400;
+            final IndexList found = new IndexList();
+            found.add(-1);
+            this.kernel.withinRadius(p[0], p[1], p[2], radiusSq, axes[0], axes[1], axes[2], from, to, found);
+            final int[] within = IntStream.range(from, to).filter(i -> distanceSq(axes, i, p[0], p[1], p[2]) <= radiusSq).toArray();
+            assertArrayEquals(IntStream.concat(IntStream.of(-1), Arrays.stream(within)).toArray(), found.toArray());
+
+            final float[][] centres = floats(random, random.nextInt(20));
+            final int k = centres[0].length;
+            final int[] labels = new int[n];
+            final float[] distances = new float[n];
+            this.kernel.assign(axes[0], axes[1], axes[2], from, to, centres[0], centres[1], centres[2], k, labels, distances);
+            for (int i = from; i < to; i++) {
+                int label = -1;
+                float best = Float.POSITIVE_INFINITY;
+                for (int c = 0; c < k; c++) {
+                    final float d = distanceSq(centres, c, axes[0][i], axes[1][i], axes[2][i]);
+                    if (d < best) {
+                        best = d;
+                        label = c;
+                    }
+                }
+                assertEquals(label, labels[i]);
+                assertEquals(best, distances[i], 0);
+            }
+        }
+    }
+
+    @Test
+    public void doubleKernelMatchesNaive() {
+        final Random random = new Random(2);
+        for (int trial = 0; trial < 500; trial++) {
+            final int n = random.nextInt(300);
+            final double[][] axes = doubles(random, n);
+            final int from = n == 0 ? 0 : random.nextInt(n);
+            final int to = from + random.nextInt(n - from + 1);
+            final double[] p = point(doubles(random, 1));
+
+            final int offset = random.nextInt(5);
+            final double[] out = new double[offset + to - from];
+            this.kernel.squaredDistances(p[0], p[1], p[2], axes[0], axes[1], axes[2], from, to, out, offset);
+            final double[] expected = new double[out.length];
+            for (int i = from; i < to; i++) {
+                expected[offset + i - from] = distanceSq(axes, i, p[0], p[1], p[2]);
+            }
+            assertArrayEquals(expected, out, 0);
+
+            int nearest = -1;
+            for (int i = from; i < to; i++) {
+                if (nearest < 0 || distanceSq(axes, i, p[0], p[1], p[2]) < distanceSq(axes, nearest, p[0], p[1], p[2])) {
+                    nearest = i;
+                }
+            }
+            assertEquals(nearest, this.kernel.nearest(p[0], p[1], p[2], axes[0], axes[1], axes[2], from, to));
+
+            final double radiusSq = random.nextDouble() * 400;
+            final IndexList found = new IndexList();
+            found.add(-1);
+            this.kernel.withinRadius(p[0], p[1], p[2], radiusSq, axes[0], axes[1], axes[2], from, to, found);
+            final int[] within = IntStream.range(from, to).filter(i -> distanceSq(axes, i, p[0], p[1], p[2]) <= radiusSq).toArray();
+            assertArrayEquals(IntStream.concat(IntStream.of(-1), Arrays.stream(within)).toArray(), found.toArray());
+
+            final double[][] centres = doubles(random, random.nextInt(20));
+            final int k = centres[0].length;
+            final int[] labels = new int[n];
+            final double[] distances = new double[n];
+            this.kernel.assign(axes[0], axes[1], axes[2], from, to, centres[0], centres[1], centres[2], k, labels, distances);
+            for (int i = from; i < to; i++) {
+                int label = -1;
+                double best = Double.POSITIVE_INFINITY;
+                for (int c = 0; c < k; c++) {
+                    final double d = distanceSq(centres, c, axes[0][i], axes[1][i], axes[2][i]);
+                    if (d < best) {
+                        best = d;
+                        label = c;
+                    }
+                }
+                assertEquals(label, labels[i]);
+                assertEquals(best, distances[i], 0);
+            }
+        }
+    }
+
+    @Test
+    public void distancesMatchKernel() {
+        final Random random = new Random(3);
+        for (int trial = 0; trial < 10; trial++) {
+            // large enough for the matrix and assignment to be split across the pool
+            final float[][] floats = floats(random, 1 + random.nextInt(2_000));
+            final float[][] floatCentres = floats(random, 1 + random.nextInt(100));
+            final Coordinate3fBuffer floatPoints = floatBuffer(floats);
+            final Coordinate3fBuffer floatCentreBuffer = floatBuffer(floatCentres);
+            final int n = floats[0].length;
+            final int k = floatCentres[0].length;
+
+            final float[] matrix = new float[n * k];
+            Coordinate3fDistances.distanceMatrix(floatPoints, floatCentreBuffer, matrix, POOL);
+            final float[] row = new float[k];
+            for (int i = 0; i < n; i += 97) {
+                this.kernel.squaredDistances(floats[0][i], floats[1][i], floats[2][i], floatCentres[0], floatCentres[1], floatCentres[2], 0, k, row, 0);
+                assertArrayEquals(row, Arrays.copyOfRange(matrix, i * k, (i + 1) * k), 0);
+            }
+            final int[] labels = new int[n];
+            final float[] distances = new float[n];
+            Coordinate3fDistances.assign(floatPoints, floatCentreBuffer, labels, distances, POOL);
+            final int[] expectedLabels = new int[n];
+            final float[] expectedDistances = new float[n];
+            this.kernel.assign(floats[0], floats[1], floats[2], 0, n, floatCentres[0], floatCentres[1], floatCentres[2], k, expectedLabels, expectedDistances);
+            assertArrayEquals(expectedLabels, labels);
+            assertArrayEquals(expectedDistances, distances, 0);
+            final Coordinate3f floatCentre = floatCentreBuffer.get(0);
+            assertEquals(this.kernel.nearest(floatCentre.getX(), floatCentre.getY(), floatCentre.getZ(), floats[0], floats[1], floats[2], 0, n),
+                    Coordinate3fDistances.nearest(floatCentre, floatPoints));
+
+            final double[][] doubles = doubles(random, 1 + random.nextInt(2_000));
+            final double[][] doubleCentres = doubles(random, 1 + random.nextInt(100));
+            final Coordinate3dBuffer doublePoints = doubleBuffer(doubles);
+            final Coordinate3dBuffer doubleCentreBuffer = doubleBuffer(doubleCentres);
+            final int m = doubles[0].length;
+            final int j = doubleCentres[0].length;
+            final double[] doubleMatrix = new double[m * j];
+            Coordinate3dDistances.distanceMatrix(doublePoints, doubleCentreBuffer, doubleMatrix, POOL);
+            final double[] doubleRow = new double[j];
+            for (int i = 0; i < m; i += 97) {
+                this.kernel.squaredDistances(doubles[0][i], doubles[1][i], doubles[2][i], doubleCentres[0], doubleCentres[1], doubleCentres[2], 0, j, doubleRow, 0);
+                assertArrayEquals(doubleRow, Arrays.copyOfRange(doubleMatrix, i * j, (i + 1) * j), 0);
+            }
+            final int[] doubleLabels = new int[m];
+            Coordinate3dDistances.assign(doublePoints, doubleCentreBuffer, doubleLabels, null, POOL);
+            final int[] expectedDoubleLabels = new int[m];
+            this.kernel.assign(doubles[0], doubles[1], doubles[2], 0, m, doubleCentres[0], doubleCentres[1], doubleCentres[2], j, expectedDoubleLabels, null);
+            assertArrayEquals(expectedDoubleLabels, doubleLabels);
+            final Coordinate3d doubleCentre = doubleCentreBuffer.get(0);
+            final IndexList found = new IndexList();
+            final IndexList expected = new IndexList();
+            Coordinate3dDistances.withinRadius(doubleCentre, 5, doublePoints, found);
+            this.kernel.withinRadius(doubleCentre.getX(), doubleCentre.getY(), doubleCentre.getZ(), 25, doubles[0], doubles[1], doubles[2], 0, m, expected);
+            assertArrayEquals(expected.toArray(), found.toArray());
+        }
+    }
+
+    @Test
+    public void rejectsShortArrays() {
+        final Coordinate3fBuffer points = floatBuffer(floats(new Random(4), 10));
+        assertThrows(IllegalArgumentException.class, () -> Coordinate3fDistances.squaredDistances(0, 0, 0, points, new float[9]));
+        assertThrows(IllegalArgumentException.class, () -> Coordinate3fDistances.distanceMatrix(points, points, new float[99]));
+        assertThrows(IllegalArgumentException.class, () -> Coordinate3fDistances.assign(points, points, new int[9]));
+        assertThrows(IllegalArgumentException.class, () -> Coordinate3fDistances.withinRadius(0, 0, 0, -1, points, new IndexList()));
+    }
+
+    // coarse lattices, so that distances often tie
+    private static float[][] floats(final Random random, final int n) {
+        final float[][] axes = new float[3][n];
+        final float scale = random.nextBoolean() ? 1 : 0.1f;
+        for (final float[] axis : axes) {
+            for (int i = 0; i < n; i++) {
+                axis[i] = (random.nextInt(40) - 20) * scale;
+            }
+        }
+        return axes;
+    }
+
+    private static double[][] doubles(final Random random, final int n) {
+        final double[][] axes = new double[3][n];
+        final double scale = random.nextBoolean() ? 1 : 0.1;
+        for (final double[] axis : axes) {
+            for (int i = 0; i < n; i++) {
+                axis[i] = (random.nextInt(40) - 20) * scale;
+            }
+        }
+        return axes;
+    }
+
+    private static float[] point(final float[][] axes) {
+        return new float[] {axes[0][0], axes[1][0], axes[2][0]};
+    }
+
+    private static double[] point(final double[][] axes) {
+        return new double[] {axes[0][0], axes[1][0], axes[2][0]};
+    }
+
+    private static float distanceSq(final float[][] axes, final int i, final float x, final float y, final float z) {
+        final float dx = axes[0][i] - x;
+        final float dy = axes[1][i] - y;
+        final float dz = axes[2][i] - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static double distanceSq(final double[][] axes, final int i, final double x, final double y, final double z) {
+        final double dx = axes[0][i] - x;
+        final double dy = axes[1][i] - y;
+        final double dz = axes[2][i] - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static Coordinate3fBuffer floatBuffer(final float[][] axes) {
+        final Coordinate3fBuffer buffer = new Coordinate3fBuffer();
+        for (int i = 0; i < axes[0].length; i++) {
+            buffer.add(axes[0][i], axes[1][i], axes[2][i]);
+        }
+        return buffer;
+    }
+
+    private static Coordinate3dBuffer doubleBuffer(final double[][] axes) {
+        final Coordinate3dBuffer buffer = new Coordinate3dBuffer();
+        for (int i = 0; i < axes[0].length; i++) {
+            buffer.add(axes[0][i], axes[1][i], axes[2][i]);
+        }
+        return buffer;
+    }
+
+}
@@ -0,0 +1,402 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.spatial;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Checks the hash grids against a brute force search of a map of their
+ * entities, as they are added, moved and removed.
+ */
+public final class HashGridTest {
+
+    // positions 2^21 cells apart alias one another in the packed cells
+    private static final float ALIASED = 1 << 21;
+    private static final float[] SCALES = {20, ALIASED, 1e7f, 1e30f, Float.MAX_VALUE};
+    private static final double[] RADII = {0, 1, ALIASED, 1e7, 1e30, Float.MAX_VALUE, Double.MAX_VALUE, Double.POSITIVE_INFINITY};
+
+    @Test
+    public void grid3fMatchesBruteForce() {
+        final Random random = new Random(1);
+        for (int trial = 0; trial < 20; trial++) {
+            final float cellSize = 0.5f + random.nextInt(8) * 0.5f;
+            final Coordinate3fHashGrid grid = new Coordinate3fHashGrid(cellSize);
+            final Map<Integer, float[]> entities = new HashMap<>();
+            for (int step = 0; step < 2_000; step++) {
+                final int op = random.nextInt(10);
+                if (op < 4 || entities.isEmpty()) {
+                    final float[] p = position(random, 3);
+                    assertTrue(entities.put(grid.add(p[0], p[1], p[2]), p) == null);
+                } else if (op < 8) {
+                    final int id = pick(random, entities);
+                    // mostly small moves, which often stay within the cell
+                    final float[] p = random.nextBoolean() ? position(random, 3) : nudge(random, entities.get(id));
+                    grid.move(id, p[0], p[1], p[2]);
+                    entities.put(id, p);
+                } else {
+                    final int id = random.nextBoolean() ? pick(random, entities) : random.nextInt(entities.size() + 5) - 2;
+                    assertEquals(entities.remove(id) != null, grid.remove(id));
+                }
+                if (step % 100 == 0) {
+                    assertMatches(grid, entities, random);
+                }
+            }
+            assertMatches(grid, entities, random);
+
+            grid.clear();
+            entities.clear();
+            assertMatches(grid, entities, random);
+        }
+    }
+
+    @Test
+    public void grid2fMatchesBruteForce() {
+        final Random random = new Random(2);
+        for (int trial = 0; trial < 20; trial++) {
+            final float cellSize = 0.5f + random.nextInt(8) * 0.5f;
+            final Coordinate2fHashGrid grid = new Coordinate2fHashGrid(cellSize);
+            final Map<Integer, float[]> entities = new HashMap<>();
+            for (int step = 0; step < 2_000; step++) {
+                final int op = random.nextInt(10);
+                if (op < 4 || entities.isEmpty()) {
+                    final float[] p = position(random, 2);
+                    assertTrue(entities.put(grid.add(p[0], p[1]), p) == null);
+                } else if (op < 8) {
+                    final int id = pick(random, entities);
+                    final float[] p = random.nextBoolean() ? position(random, 2) : nudge(random, entities.get(id));
+                    grid.move(id, p[0], p[1]);
+                    entities.put(id, p);
+                } else {
+                    final int id = random.nextBoolean() ? pick(random, entities) : random.nextInt(entities.size() + 5) - 2;
+                    assertEquals(entities.remove(id) != null, grid.remove(id));
+                }
+                if (step % 100 == 0) {
+                    assertMatches(grid, entities, random);
+                }
+            }
+            assertMatches(grid, entities, random);
+
+            grid.clear();
+            entities.clear();
+            assertMatches(grid, entities, random);
+        }
+    }
+
+    @Test(timeout = 60_000)
+    public void grid3fAnswersHugeRadii() {
+        final Random random = new Random(3);
+        final Coordinate3fHashGrid grid = new Coordinate3fHashGrid(1);
+        final Map<Integer, float[]> entities = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            final float[] p = {huge(random), huge(random), huge(random)};
+            entities.put(grid.add(p[0], p[1], p[2]), p);
+        }
+        final IndexList found = new IndexList();
+        for (final float[] centre : new float[][] {{0, 0, 0}, entities.get(0), {Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE},
+                {-Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE}}) {
+            for (final double radius : RADII) {
+                grid.withinRadius(centre[0], centre[1], centre[2], radius, found);
+                assertEquals(filter(entities, p -> distanceSq(p, centre) <= radius * radius), sorted(found));
+            }
+        }
+    }
+
+    @Test(timeout = 60_000)
+    public void grid2fAnswersHugeRadii() {
+        final Random random = new Random(4);
+        final Coordinate2fHashGrid grid = new Coordinate2fHashGrid(1);
+        final Map<Integer, float[]> entities = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            final float[] p = {huge(random), huge(random)};
+            entities.put(grid.add(p[0], p[1]), p);
+        }
+        final IndexList found = new IndexList();
+        for (final float[] centre : new float[][] {{0, 0}, entities.get(0), {Float.MAX_VALUE, Float.MAX_VALUE},
+                {-Float.MAX_VALUE, -Float.MAX_VALUE}}) {
+            for (final double radius : RADII) {
+                grid.withinRadius(centre[0], centre[1], radius, found);
+                assertEquals(filter(entities, p -> distanceSq(p, centre) <= radius * radius), sorted(found));
+            }
+        }
+    }
+
+    @Test
+    public void grid3fKeepsAliasedCellsApart() {
+        final Coordinate3fHashGrid grid = new Coordinate3fHashGrid(1);
+        final int near = grid.add(0.5f, 0.5f, 0.5f);
+        final int aliased = grid.add(ALIASED + 0.5f, 0.5f, 0.5f);
+        // the two cells share a packed key, but not a distance
+        assertEquals(1, grid.cellCount());
+
+        final IndexList found = new IndexList();
+        grid.withinRadius(0, 0, 0, 2, found);
+        assertArrayEquals(new int[] {near}, found.toArray());
+        grid.withinRadius(ALIASED, 0, 0, 2, found);
+        assertArrayEquals(new int[] {aliased}, found.toArray());
+        grid.forEachPairWithin(2, (a, b) -> {
+            throw new AssertionError("aliased entities " + a + " and " + b + " are not within 2");
+        });
+    }
+
+    @Test
+    public void grid2fKeepsDistantCellsApart() {
+        final Coordinate2fHashGrid grid = new Coordinate2fHashGrid(1);
+        final int near = grid.add(-0.5f, 0.5f);
+        final int distant = grid.add(-0.5f, 0.5f - ALIASED);
+        // cells are packed in full along both axes, so never alias
+        assertEquals(2, grid.cellCount());
+
+        final IndexList found = new IndexList();
+        grid.withinRadius(0, 0, 2, found);
+        assertArrayEquals(new int[] {near}, found.toArray());
+        grid.withinRadius(0, -ALIASED, 2, found);
+        assertArrayEquals(new int[] {distant}, found.toArray());
+        grid.forEachPairWithin(2, (a, b) -> {
+            throw new AssertionError("distant entities " + a + " and " + b + " are not within 2");
+        });
+    }
+
+    @Test
+    public void grid3fReusesRemovedIds() {
+        final Coordinate3fHashGrid grid = new Coordinate3fHashGrid(2, 0);
+        final int a = grid.add(1, 1, 1);
+        final int b = grid.add(1.5f, 1, 1);
+        final int c = grid.add(-1, 1, 1);
+        assertEquals(2, grid.cellCount());
+
+        assertTrue(grid.remove(b));
+        assertFalse(grid.remove(b));
+        assertFalse(grid.contains(b));
+        assertEquals(b, grid.add(5, 5, 5));
+        assertEquals(5, grid.getX(b), 0);
+        assertEquals(3, grid.size());
+        assertEquals(3, grid.cellCount());
+
+        // moving within a cell keeps it, and moving out of one empties it
+        grid.move(c, -1.5f, 0.5f, 1);
+        assertEquals(3, grid.cellCount());
+        grid.move(c, 1, 0, 0);
+        assertEquals(2, grid.cellCount());
+        assertEquals(c + 1, grid.add(0, 0, 0));
+        assertTrue(grid.contains(a));
+        grid.clear();
+        assertTrue(grid.isEmpty());
+        assertEquals(0, grid.cellCount());
+    }
+
+    @Test
+    public void grid3fRejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new Coordinate3fHashGrid(0));
+        assertThrows(IllegalArgumentException.class, () -> new Coordinate3fHashGrid(Float.NaN));
+        assertThrows(IllegalArgumentException.class, () -> new Coordinate3fHashGrid(Float.POSITIVE_INFINITY));
+        assertThrows(IllegalArgumentException.class, () -> new Coordinate3fHashGrid(1, -1));
+        final Coordinate3fHashGrid grid = new Coordinate3fHashGrid(1);
+        final int id = grid.add(0, 0, 0);
+        assertTrue(grid.remove(id));
+        assertThrows(IllegalArgumentException.class, () -> grid.move(id, 0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> grid.getX(id));
+        assertThrows(IllegalArgumentException.class, () -> grid.withinRadius(0, 0, 0, -1, new IndexList()));
+        assertThrows(IllegalArgumentException.class, () -> grid.forEachPairWithin(-1, (a, b) -> { }));
+    }
+
+    @Test
+    public void grid2fRejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new Coordinate2fHashGrid(-1));
+        assertThrows(IllegalArgumentException.class, () -> new Coordinate2fHashGrid(Float.POSITIVE_INFINITY));
+        final Coordinate2fHashGrid grid = new Coordinate2fHashGrid(1);
+        assertFalse(grid.remove(0));
+        assertThrows(IllegalArgumentException.class, () -> grid.move(0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> grid.getY(0));
+        assertThrows(IllegalArgumentException.class, () -> grid.withinRadius(0, 0, Double.NaN, new IndexList()));
+        assertThrows(IllegalArgumentException.class, () -> grid.forEachPairWithin(-1, (a, b) -> { }));
+    }
+
+    private static void assertMatches(final Coordinate3fHashGrid grid, final Map<Integer, float[]> entities, final Random random) {
+        final float cellSize = grid.getCellSize();
+        assertEquals(entities.size(), grid.size());
+        final Set<List<Integer>> cells = new HashSet<>();
+        for (final Map.Entry<Integer, float[]> entry : entities.entrySet()) {
+            final int id = entry.getKey();
+            assertTrue(grid.contains(id));
+            assertArrayEquals(entry.getValue(), new float[] {grid.getX(id), grid.getY(id), grid.getZ(id)}, 0);
+            cells.add(cell(entry.getValue(), cellSize));
+        }
+        assertEquals(cells.size(), grid.cellCount());
+
+        final IndexList found = new IndexList();
+        for (int i = 0; i < 20; i++) {
+            final float[] centre = position(random, 3);
+            final List<Integer> cell = cell(centre, cellSize);
+            grid.neighbours(centre[0], centre[1], centre[2], found);
+            assertEquals(filter(entities, p -> adjacent(cell, cell(p, cellSize))), sorted(found));
+
+            // some radii cover more cells than are occupied
+            final double radius = random.nextInt(4) == 0 ? random.nextDouble() * 200 : random.nextDouble() * 3 * cellSize;
+            found.add(-1);
+            grid.withinRadius(centre[0], centre[1], centre[2], radius, found);
+            assertEquals(filter(entities, p -> distanceSq(p, centre) <= radius * radius), sorted(found));
+        }
+
+        final double distance = random.nextDouble() * 2 * cellSize;
+        final Set<List<Integer>> pairs = new HashSet<>();
+        grid.forEachPairWithin(distance, (a, b) -> assertTrue(pairs.add(Arrays.asList(Math.min(a, b), Math.max(a, b)))));
+        assertEquals(pairsWithin(entities, distance), pairs);
+    }
+
+    private static void assertMatches(final Coordinate2fHashGrid grid, final Map<Integer, float[]> entities, final Random random) {
+        final float cellSize = grid.getCellSize();
+        assertEquals(entities.size(), grid.size());
+        final Set<List<Integer>> cells = new HashSet<>();
+        for (final Map.Entry<Integer, float[]> entry : entities.entrySet()) {
+            final int id = entry.getKey();
+            assertTrue(grid.contains(id));
+            assertArrayEquals(entry.getValue(), new float[] {grid.getX(id), grid.getY(id)}, 0);
+            cells.add(cell(entry.getValue(), cellSize));
+        }
+        assertEquals(cells.size(), grid.cellCount());
+
+        final IndexList found = new IndexList();
+        for (int i = 0; i < 20; i++) {
+            final float[] centre = position(random, 2);
+            final List<Integer> cell = cell(centre, cellSize);
+            grid.neighbours(centre[0], centre[1], found);
+            assertEquals(filter(entities, p -> adjacent(cell, cell(p, cellSize))), sorted(found));
+
+            final double radius = random.nextInt(4) == 0 ? random.nextDouble() * 200 : random.nextDouble() * 3 * cellSize;
+            found.add(-1);
+            grid.withinRadius(centre[0], centre[1], radius, found);
+            assertEquals(filter(entities, p -> distanceSq(p, centre) <= radius * radius), sorted(found));
+        }
+
+        final double distance = random.nextDouble() * 2 * cellSize;
+        final Set<List<Integer>> pairs = new HashSet<>();
+        grid.forEachPairWithin(distance, (a, b) -> assertTrue(pairs.add(Arrays.asList(Math.min(a, b), Math.max(a, b)))));
+        assertEquals(pairsWithin(entities, distance), pairs);
+    }
+
+    private static float[] position(final Random random, final int dimensions) {
+        final float[] p = new float[dimensions];
+        for (int axis = 0; axis < p.length; axis++) {
+            p[axis] = random.nextFloat() * 40 - 20;
+        }
+        return p;
+    }
+
+    private static float huge(final Random random) {
+        return (random.nextFloat() * 2 - 1) * SCALES[random.nextInt(SCALES.length)];
+    }
+
+    private static float[] nudge(final Random random, final float[] p) {
+        final float[] nudged = p.clone();
+        for (int axis = 0; axis < nudged.length; axis++) {
+            nudged[axis] += random.nextFloat() - 0.5f;
+        }
+        return nudged;
+    }
+
+    private static int pick(final Random random, final Map<Integer, float[]> entities) {
+        final List<Integer> ids = new ArrayList<>(entities.keySet());
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private static List<Integer> cell(final float[] p, final float cellSize) {
+        final float inverseCellSize = 1 / cellSize;
+        final List<Integer> cell = new ArrayList<>(p.length);
+        for (final float position : p) {
+            cell.add((int) Math.floor(position * inverseCellSize));
+        }
+        return cell;
+    }
+
+    private static boolean adjacent(final List<Integer> a, final List<Integer> b) {
+        for (int axis = 0; axis < a.size(); axis++) {
+            if (Math.abs(a.get(axis) - b.get(axis)) > 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double distanceSq(final float[] a, final float[] b) {
+        double distanceSq = 0;
+        for (int axis = 0; axis < a.length; axis++) {
+            // the difference is taken in float, as the grids do
+            final double d = a[axis] - b[axis];
+            distanceSq += d * d;
+        }
+        return distanceSq;
+    }
+
+    private static Set<List<Integer>> pairsWithin(final Map<Integer, float[]> entities, final double distance) {
+        final Set<List<Integer>> pairs = new HashSet<>();
+        for (final Map.Entry<Integer, float[]> a : entities.entrySet()) {
+            for (final Map.Entry<Integer, float[]> b : entities.entrySet()) {
+                if (a.getKey() < b.getKey() && distanceSq(a.getValue(), b.getValue()) <= distance * distance) {
+                    pairs.add(Arrays.asList(a.getKey(), b.getKey()));
+                }
+            }
+        }
+        return pairs;
+    }
+
+    private static List<Integer> filter(final Map<Integer, float[]> entities, final Predicate<float[]> predicate) {
+        final List<Integer> ids = new ArrayList<>();
+        for (final Map.Entry<Integer, float[]> entry : entities.entrySet()) {
+            if (predicate.test(entry.getValue())) {
+                ids.add(entry.getKey());
+            }
+        }
+        Collections.sort(ids);
+        return ids;
+    }
+
+    private static List<Integer> sorted(final IndexList list) {
+        final List<Integer> ids = new ArrayList<>(list.size());
+        for (final int id : list.toArray()) {
+            ids.add(id);
+        }
+        Collections.sort(ids);
+        return ids;
+    }
+
+}
@@ -0,0 +1,374 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.spatial;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import me.jamiemansfield.maths.coord.Coordinate2d;
+import me.jamiemansfield.maths.coord.Coordinate2dBuffer;
+import me.jamiemansfield.maths.coord.Coordinate3d;
+import me.jamiemansfield.maths.coord.Coordinate3dBuffer;
+import me.jamiemansfield.maths.coord.Coordinate3f;
+import me.jamiemansfield.maths.coord.Coordinate3fBuffer;
+import org.junit.AfterClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Checks each of the KD-trees against a brute force search of the
+ * points they were built from.
+ */
+@RunWith(Parameterized.class)
+public final class KdTreeTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> trees() {
+        return Arrays.asList(new Object[][] {
+                {"Coordinate3dKdTree", 3, (Builder) Coordinate3dKdTreeAdapter::build},
+                {"Coordinate3fKdTree", 3, (Builder) Coordinate3fKdTreeAdapter::build},
+                {"Coordinate2dKdTree", 2, (Builder) Coordinate2dKdTreeAdapter::build},
+        });
+    }
+
+    @AfterClass
+    public static void shutdown() {
+        POOL.shutdown();
+    }
+
+    @Parameter(0)
+    public String name;
+
+    @Parameter(1)
+    public int dimensions;
+
+    @Parameter(2)
+    public Builder builder;
+
+    @Test
+    public void matchesBruteForce() {
+        final Random random = new Random(1);
+        for (int trial = 0; trial < 40; trial++) {
+            // coarse lattices have many duplicate and collinear points
+            final int n = random.nextInt(2_000);
+            final double scale = random.nextBoolean() ? 0.25 : random.nextDouble();
+            final List<double[]> points = this.points(random, n, scale);
+            final Tree tree = this.builder.build(points, random.nextBoolean(), random.nextBoolean() ? POOL : null);
+            assertEquals(n, tree.size());
+            for (int i = 0; i < 100; i++) {
+                this.assertQueries(tree, points, random, scale);
+            }
+        }
+    }
+
+    @Test
+    public void matchesBruteForceWhenBuiltInParallel() {
+        final Random random = new Random(2);
+        final List<double[]> points = this.points(random, 100_000, 1);
+        final Tree tree = this.builder.build(points, true, POOL);
+        assertEquals(points.size(), tree.size());
+        for (int i = 0; i < 50; i++) {
+            this.assertQueries(tree, points, random, 1);
+        }
+    }
+
+    @Test
+    public void answersEmptyTree() {
+        final Tree tree = this.builder.build(new ArrayList<>(), false, null);
+        final double[] p = new double[this.dimensions];
+        assertEquals(-1, tree.nearest(p));
+        final NearestNeighbours neighbours = new NearestNeighbours(3);
+        tree.nearest(p, neighbours);
+        assertEquals(0, neighbours.size());
+        final IndexList found = new IndexList();
+        found.add(7);
+        tree.withinRadius(p, 1, found);
+        assertTrue(found.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> tree.withinRadius(p, -1, found));
+    }
+
+    private List<double[]> points(final Random random, final int n, final double scale) {
+        final List<double[]> points = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            final double[] p = new double[this.dimensions];
+            for (int axis = 0; axis < p.length; axis++) {
+                p[axis] = Math.floor(random.nextDouble() * 100 / scale) * scale;
+            }
+            points.add(p);
+        }
+        return points;
+    }
+
+    private void assertQueries(final Tree tree, final List<double[]> points, final Random random, final double scale) {
+        final double[] centre = new double[this.dimensions];
+        for (int axis = 0; axis < centre.length; axis++) {
+            centre[axis] = random.nextBoolean() ? Math.floor(random.nextDouble() * 100 / scale) * scale : random.nextDouble() * 120 - 10;
+        }
+        final double[] distances = points.stream().mapToDouble(p -> tree.distanceSq(p, centre)).toArray();
+        final int[] byDistance = IntStream.range(0, distances.length)
+                .boxed()
+                .sorted((a, b) -> Double.compare(distances[a], distances[b]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        // ties may be broken either way, so compare the distances
+        final int nearest = tree.nearest(centre);
+        if (points.isEmpty()) {
+            assertEquals(-1, nearest);
+        } else {
+            assertEquals(distances[byDistance[0]], distances[nearest], 0);
+        }
+
+        final NearestNeighbours neighbours = new NearestNeighbours(1 + random.nextInt(30));
+        tree.nearest(centre, neighbours);
+        assertEquals(Math.min(neighbours.capacity(), points.size()), neighbours.size());
+        for (int i = 0; i < neighbours.size(); i++) {
+            assertEquals(distances[byDistance[i]], neighbours.getDistanceSq(i), 0);
+            assertEquals(distances[neighbours.getIndex(i)], neighbours.getDistanceSq(i), 0);
+        }
+        assertEquals(neighbours.size(), Arrays.stream(neighbours(neighbours)).distinct().count());
+
+        final double radius = random.nextDouble() * 20;
+        final IndexList found = new IndexList();
+        tree.withinRadius(centre, radius, found);
+        final int[] actual = found.toArray();
+        Arrays.sort(actual);
+        assertArrayEquals(IntStream.range(0, distances.length).filter(i -> distances[i] <= radius * radius).toArray(), actual);
+    }
+
+    private static int[] neighbours(final NearestNeighbours neighbours) {
+        final int[] indices = new int[neighbours.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = neighbours.getIndex(i);
+        }
+        return indices;
+    }
+
+    private interface Builder {
+
+        Tree build(List<double[]> points, boolean fromBuffer, ForkJoinPool pool);
+
+    }
+
+    private interface Tree {
+
+        /**
+         * Computes the squared distance between the given points in the
+         * tree's arithmetic.
+         */
+        double distanceSq(double[] a, double[] b);
+
+        int size();
+
+        int nearest(double[] p);
+
+        void nearest(double[] p, NearestNeighbours result);
+
+        void withinRadius(double[] p, double radius, IndexList result);
+
+    }
+
+    private static final class Coordinate3dKdTreeAdapter implements Tree {
+
+        private final Coordinate3dKdTree tree;
+
+        Coordinate3dKdTreeAdapter(final Coordinate3dKdTree tree) {
+            this.tree = tree;
+        }
+
+        static Tree build(final List<double[]> points, final boolean fromBuffer, final ForkJoinPool pool) {
+            if (fromBuffer) {
+                final Coordinate3dBuffer buffer = new Coordinate3dBuffer();
+                for (final double[] p : points) {
+                    buffer.add(p[0], p[1], p[2]);
+                }
+                return new Coordinate3dKdTreeAdapter(pool == null ? Coordinate3dKdTree.build(buffer) : Coordinate3dKdTree.build(buffer, pool));
+            }
+            final List<Coordinate3d> coords = new ArrayList<>();
+            for (final double[] p : points) {
+                coords.add(new Coordinate3d(p[0], p[1], p[2]));
+            }
+            return new Coordinate3dKdTreeAdapter(pool == null ? Coordinate3dKdTree.build(coords) : Coordinate3dKdTree.build(coords, pool));
+        }
+
+        @Override
+        public double distanceSq(final double[] a, final double[] b) {
+            double distanceSq = 0;
+            for (int axis = 0; axis < a.length; axis++) {
+                final double d = a[axis] - b[axis];
+                distanceSq += d * d;
+            }
+            return distanceSq;
+        }
+
+        @Override
+        public int size() {
+            return this.tree.size();
+        }
+
+        @Override
+        public int nearest(final double[] p) {
+            return this.tree.nearest(p[0], p[1], p[2]);
+        }
+
+        @Override
+        public void nearest(final double[] p, final NearestNeighbours result) {
+            this.tree.nearest(p[0], p[1], p[2], result);
+        }
+
+        @Override
+        public void withinRadius(final double[] p, final double radius, final IndexList result) {
+            this.tree.withinRadius(p[0], p[1], p[2], radius, result);
+        }
+
+    }
+
+    private static final class Coordinate3fKdTreeAdapter implements Tree {
+
+        private final Coordinate3fKdTree tree;
+
+        Coordinate3fKdTreeAdapter(final Coordinate3fKdTree tree) {
+            this.tree = tree;
+        }
+
+        static Tree build(final List<double[]> points, final boolean fromBuffer, final ForkJoinPool pool) {
+            if (fromBuffer) {
+                final Coordinate3fBuffer buffer = new Coordinate3fBuffer();
+                for (final double[] p : points) {
+                    buffer.add((float) p[0], (float) p[1], (float) p[2]);
+                }
+                return new Coordinate3fKdTreeAdapter(pool == null ? Coordinate3fKdTree.build(buffer) : Coordinate3fKdTree.build(buffer, pool));
+            }
+            final List<Coordinate3f> coords = new ArrayList<>();
+            for (final double[] p : points) {
+                coords.add(new Coordinate3f((float) p[0], (float) p[1], (float) p[2]));
+            }
+            return new Coordinate3fKdTreeAdapter(pool == null ? Coordinate3fKdTree.build(coords) : Coordinate3fKdTree.build(coords, pool));
+        }
+
+        @Override
+        public double distanceSq(final double[] a, final double[] b) {
+            double distanceSq = 0;
+            for (int axis = 0; axis < a.length; axis++) {
+                final double d = (float) a[axis] - (float) b[axis];
+                distanceSq += d * d;
+            }
+            return distanceSq;
+        }
+
+        @Override
+        public int size() {
+            return this.tree.size();
+        }
+
+        @Override
+        public int nearest(final double[] p) {
+            return this.tree.nearest((float) p[0], (float) p[1], (float) p[2]);
+        }
+
+        @Override
+        public void nearest(final double[] p, final NearestNeighbours result) {
+            this.tree.nearest((float) p[0], (float) p[1], (float) p[2], result);
+        }
+
+        @Override
+        public void withinRadius(final double[] p, final double radius, final IndexList result) {
+            this.tree.withinRadius((float) p[0], (float) p[1], (float) p[2], radius, result);
+        }
+
+    }
+
+    private static final class Coordinate2dKdTreeAdapter implements Tree {
+
+        private final Coordinate2dKdTree tree;
+
+        Coordinate2dKdTreeAdapter(final Coordinate2dKdTree tree) {
+            this.tree = tree;
+        }
+
+        static Tree build(final List<double[]> points, final boolean fromBuffer, final ForkJoinPool pool) {
+            if (fromBuffer) {
+                final Coordinate2dBuffer buffer = new Coordinate2dBuffer();
+                for (final double[] p : points) {
+                    buffer.add(p[0], p[1]);
+                }
+                return new Coordinate2dKdTreeAdapter(pool == null ? Coordinate2dKdTree.build(buffer) : Coordinate2dKdTree.build(buffer, pool));
+            }
+            final List<Coordinate2d> coords = new ArrayList<>();
+            for (final double[] p : points) {
+                coords.add(new Coordinate2d(p[0], p[1]));
+            }
+            return new Coordinate2dKdTreeAdapter(pool == null ? Coordinate2dKdTree.build(coords) : Coordinate2dKdTree.build(coords, pool));
+        }
+
+        @Override
+        public double distanceSq(final double[] a, final double[] b) {
+            double distanceSq = 0;
+            for (int axis = 0; axis < a.length; axis++) {
+                final double d = a[axis] - b[axis];
+                distanceSq += d * d;
+            }
+            return distanceSq;
+        }
+
+        @Override
+        public int size() {
+            return this.tree.size();
+        }
+
+        @Override
+        public int nearest(final double[] p) {
+            return this.tree.nearest(p[0], p[1]);
+        }
+
+        @Override
+        public void nearest(final double[] p, final NearestNeighbours result) {
+            this.tree.nearest(p[0], p[1], result);
+        }
+
+        @Override
+        public void withinRadius(final double[] p, final double radius, final IndexList result) {
+            this.tree.withinRadius(p[0], p[1], radius, result);
+        }
+
+    }
+
+}
@@ -0,0 +1,697 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.spatial;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import me.jamiemansfield.maths.coord.Coordinate2d;
+import me.jamiemansfield.maths.coord.Coordinate2f;
+import me.jamiemansfield.maths.coord.Coordinate3d;
+import me.jamiemansfield.maths.coord.Coordinate3f;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Checks each of the octrees and quadtrees against a brute force search
+ * of a list of points. The points lie on a coarse lattice, so that
+ * duplicates and points on the boundaries of nodes are common.
+ */
+@RunWith(Parameterized.class)
+public final class PointTreeTest {
+
+    private static final int SIZE = 32;
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> trees() {
+        return Arrays.asList(new Object[][] {
+                {"Coordinate3dOctree", (Factory) Coordinate3dOctreeAdapter::create},
+                {"Coordinate3fOctree", (Factory) Coordinate3fOctreeAdapter::create},
+                {"Coordinate2dQuadtree", (Factory) Coordinate2dQuadtreeAdapter::create},
+                {"Coordinate2fQuadtree", (Factory) Coordinate2fQuadtreeAdapter::create},
+        });
+    }
+
+    @Parameter(0)
+    public String name;
+
+    @Parameter(1)
+    public Factory factory;
+
+    @Test
+    public void matchesBruteForce() {
+        final Random random = new Random(1);
+        for (int trial = 0; trial < 20; trial++) {
+            final Tree tree = this.factory.create(1 + random.nextInt(8), random.nextInt(10));
+            final List<double[]> expected = new ArrayList<>();
+            for (int i = 0; i < 3_000; i++) {
+                final int op = random.nextInt(10);
+                if (op < 3 && !expected.isEmpty()) {
+                    final double[] p = random.nextBoolean() ? expected.get(random.nextInt(expected.size())) : randomPoint(tree, random);
+                    assertEquals(indexOf(expected, p) >= 0, tree.remove(p));
+                    final int index = indexOf(expected, p);
+                    if (index >= 0) {
+                        expected.remove(index);
+                    }
+                } else if (op == 3 && random.nextInt(50) == 0) {
+                    tree.clear();
+                    expected.clear();
+                } else {
+                    final double[] p = randomPoint(tree, random);
+                    tree.insert(p);
+                    expected.add(p);
+                }
+                assertEquals(expected.size(), tree.size());
+                assertEquals(expected.isEmpty(), tree.isEmpty());
+
+                if (i % 10 == 0) {
+                    assertQueries(tree, expected, random);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void bulkLoadMatchesBruteForce() {
+        final Random random = new Random(2);
+        for (int trial = 0; trial < 50; trial++) {
+            final List<double[]> expected = new ArrayList<>();
+            final Tree empty = this.factory.create(1, 0);
+            for (int i = random.nextInt(2_000); i > 0; i--) {
+                expected.add(randomPoint(empty, random));
+            }
+            final Tree tree = empty.bulkLoad(expected, 1 + random.nextInt(8), random.nextInt(10));
+            assertEquals(expected.size(), tree.size());
+            for (int i = 0; i < 20; i++) {
+                assertQueries(tree, expected, random);
+            }
+
+            // a loaded tree must remain editable
+            for (final double[] p : expected) {
+                assertTrue(tree.remove(p));
+            }
+            assertTrue(tree.isEmpty());
+        }
+    }
+
+    @Test
+    public void rejectsPointsOutOfBounds() {
+        final Tree tree = this.factory.create(4, 4);
+        final double[] p = new double[tree.dimensions()];
+        p[p.length - 1] = SIZE + 1;
+        assertThrows(IllegalArgumentException.class, () -> tree.insert(p));
+        assertThrows(IllegalArgumentException.class, () -> tree.bulkLoad(Arrays.asList(new double[tree.dimensions()], p), 4, 4));
+        assertFalse(tree.contains(p));
+        assertFalse(tree.remove(p));
+        assertThrows(IllegalArgumentException.class, () -> tree.nearest(p, -1));
+        assertThrows(IllegalArgumentException.class, () -> this.factory.create(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> this.factory.create(4, -1));
+    }
+
+    @Test
+    public void rejectsNegativeRadius() {
+        final Tree tree = this.factory.create(4, 4);
+        final double[] centre = new double[tree.dimensions()];
+        tree.insert(centre);
+        assertThrows(IllegalArgumentException.class, () -> tree.queryRadius(centre, -2));
+        assertEquals(1, tree.queryRadius(centre, 0).size());
+    }
+
+    private static void assertQueries(final Tree tree, final List<double[]> expected, final Random random) {
+        final double[] p = randomPoint(tree, random);
+        assertEquals(indexOf(expected, p) >= 0, tree.contains(p));
+
+        final double[] min = new double[tree.dimensions()];
+        final double[] max = new double[tree.dimensions()];
+        for (int axis = 0; axis < min.length; axis++) {
+            final double a = random.nextInt(4 * SIZE + 17) / 4.0 - 2;
+            final double b = random.nextInt(4 * SIZE + 17) / 4.0 - 2;
+            min[axis] = Math.min(a, b);
+            max[axis] = Math.max(a, b);
+        }
+        assertSameElements(expected.stream()
+                .filter(q -> inBox(q, min, max))
+                .collect(Collectors.toList()), tree.queryBox(min, max));
+
+        final double[] centre = randomQuery(tree, random);
+        final double radius = tree.round(random.nextDouble() * SIZE / 2);
+        final double radiusSq = tree.round(radius * radius);
+        assertSameElements(expected.stream()
+                .filter(q -> tree.distanceSq(q, centre) <= radiusSq)
+                .collect(Collectors.toList()), tree.queryRadius(centre, radius));
+
+        // ties may be broken either way, so compare the distances, and
+        // that the points found are present
+        final int k = random.nextInt(20);
+        final List<double[]> nearest = tree.nearest(centre, k);
+        final double[] distances = expected.stream()
+                .mapToDouble(q -> tree.distanceSq(q, centre))
+                .sorted()
+                .limit(k)
+                .toArray();
+        assertEquals(distances.length, nearest.size());
+        final List<double[]> remaining = new ArrayList<>(expected);
+        for (int i = 0; i < nearest.size(); i++) {
+            assertEquals(Double.doubleToLongBits(distances[i]), Double.doubleToLongBits(tree.distanceSq(nearest.get(i), centre)));
+            final int index = indexOf(remaining, nearest.get(i));
+            assertTrue(index >= 0);
+            remaining.remove(index);
+        }
+    }
+
+    private static double[] randomPoint(final Tree tree, final Random random) {
+        final double[] p = new double[tree.dimensions()];
+        for (int axis = 0; axis < p.length; axis++) {
+            p[axis] = random.nextInt(2 * SIZE + 1) / 2.0;
+        }
+        return p;
+    }
+
+    private static double[] randomQuery(final Tree tree, final Random random) {
+        final double[] p = new double[tree.dimensions()];
+        for (int axis = 0; axis < p.length; axis++) {
+            p[axis] = tree.round(random.nextDouble() * (SIZE + 8) - 4);
+        }
+        return p;
+    }
+
+    private static boolean inBox(final double[] p, final double[] min, final double[] max) {
+        for (int axis = 0; axis < p.length; axis++) {
+            if (p[axis] < min[axis] || p[axis] > max[axis]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(final List<double[]> points, final double[] p) {
+        for (int i = 0; i < points.size(); i++) {
+            if (Arrays.equals(points.get(i), p)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void assertSameElements(final List<double[]> expected, final List<double[]> actual) {
+        final Comparator<double[]> order = (a, b) -> {
+            for (int axis = 0; axis < a.length; axis++) {
+                final int result = Double.compare(a[axis], b[axis]);
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return 0;
+        };
+        expected.sort(order);
+        actual.sort(order);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertTrue(Arrays.equals(expected.get(i), actual.get(i)));
+        }
+    }
+
+    private interface Factory {
+
+        Tree create(int leafCapacity, int maxDepth);
+
+    }
+
+    private interface Tree {
+
+        /**
+         * Builds a tree of the same type, and bounds, from the given
+         * points.
+         */
+        Tree bulkLoad(List<double[]> points, int leafCapacity, int maxDepth);
+
+        int dimensions();
+
+        /**
+         * Computes the squared distance between the given points in the
+         * tree's arithmetic.
+         */
+        double distanceSq(double[] a, double[] b);
+
+        /**
+         * Rounds the given value to the tree's type.
+         */
+        double round(double value);
+
+        void insert(double[] p);
+
+        boolean remove(double[] p);
+
+        boolean contains(double[] p);
+
+        int size();
+
+        boolean isEmpty();
+
+        void clear();
+
+        List<double[]> queryBox(double[] min, double[] max);
+
+        List<double[]> queryRadius(double[] centre, double radius);
+
+        List<double[]> nearest(double[] centre, int k);
+
+    }
+
+    private static final class Coordinate3dOctreeAdapter implements Tree {
+
+        private final Coordinate3dOctree tree;
+
+        Coordinate3dOctreeAdapter(final Coordinate3dOctree tree) {
+            this.tree = tree;
+        }
+
+        static Tree create(final int leafCapacity, final int maxDepth) {
+            return new Coordinate3dOctreeAdapter(new Coordinate3dOctree(0, 0, 0, SIZE, SIZE, SIZE, leafCapacity, maxDepth));
+        }
+
+        @Override
+        public Tree bulkLoad(final List<double[]> points, final int leafCapacity, final int maxDepth) {
+            final List<Coordinate3d> coords = new ArrayList<>();
+            for (final double[] p : points) {
+                coords.add(new Coordinate3d(p[0], p[1], p[2]));
+            }
+            return new Coordinate3dOctreeAdapter(Coordinate3dOctree.bulkLoad(0, 0, 0, SIZE, SIZE, SIZE, leafCapacity, maxDepth, coords));
+        }
+
+        @Override
+        public int dimensions() {
+            return 3;
+        }
+
+        @Override
+        public double distanceSq(final double[] a, final double[] b) {
+            double distanceSq = 0;
+            for (int axis = 0; axis < 3; axis++) {
+                final double d = a[axis] - b[axis];
+                distanceSq += d * d;
+            }
+            return distanceSq;
+        }
+
+        @Override
+        public double round(final double value) {
+            return value;
+        }
+
+        @Override
+        public void insert(final double[] p) {
+            this.tree.insert(new Coordinate3d(p[0], p[1], p[2]));
+        }
+
+        @Override
+        public boolean remove(final double[] p) {
+            return this.tree.remove(new Coordinate3d(p[0], p[1], p[2]));
+        }
+
+        @Override
+        public boolean contains(final double[] p) {
+            return this.tree.contains(new Coordinate3d(p[0], p[1], p[2]));
+        }
+
+        @Override
+        public int size() {
+            return this.tree.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.tree.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            this.tree.clear();
+        }
+
+        @Override
+        public List<double[]> queryBox(final double[] min, final double[] max) {
+            final List<double[]> found = new ArrayList<>();
+            this.tree.queryBox(min[0], min[1], min[2], max[0], max[1], max[2], p -> found.add(unwrap(p)));
+            return found;
+        }
+
+        @Override
+        public List<double[]> queryRadius(final double[] centre, final double radius) {
+            final List<double[]> found = new ArrayList<>();
+            this.tree.queryRadius(centre[0], centre[1], centre[2], radius, p -> found.add(unwrap(p)));
+            return found;
+        }
+
+        @Override
+        public List<double[]> nearest(final double[] centre, final int k) {
+            final List<double[]> found = new ArrayList<>();
+            for (final Coordinate3d p : this.tree.nearest(centre[0], centre[1], centre[2], k)) {
+                found.add(unwrap(p));
+            }
+            return found;
+        }
+
+        private static double[] unwrap(final Coordinate3d p) {
+            return new double[] {p.getX(), p.getY(), p.getZ()};
+        }
+
+    }
+
+    private static final class Coordinate3fOctreeAdapter implements Tree {
+
+        private final Coordinate3fOctree tree;
+
+        Coordinate3fOctreeAdapter(final Coordinate3fOctree tree) {
+            this.tree = tree;
+        }
+
+        static Tree create(final int leafCapacity, final int maxDepth) {
+            return new Coordinate3fOctreeAdapter(new Coordinate3fOctree(0, 0, 0, SIZE, SIZE, SIZE, leafCapacity, maxDepth));
+        }
+
+        @Override
+        public Tree bulkLoad(final List<double[]> points, final int leafCapacity, final int maxDepth) {
+            final List<Coordinate3f> coords = new ArrayList<>();
+            for (final double[] p : points) {
+                coords.add(new Coordinate3f((float) p[0], (float) p[1], (float) p[2]));
+            }
+            return new Coordinate3fOctreeAdapter(Coordinate3fOctree.bulkLoad(0, 0, 0, SIZE, SIZE, SIZE, leafCapacity, maxDepth, coords));
+        }
+
+        @Override
+        public int dimensions() {
+            return 3;
+        }
+
+        @Override
+        public double distanceSq(final double[] a, final double[] b) {
+            float distanceSq = 0;
+            for (int axis = 0; axis < 3; axis++) {
+                final float d = (float) a[axis] - (float) b[axis];
+                distanceSq += d * d;
+            }
+            return distanceSq;
+        }
+
+        @Override
+        public double round(final double value) {
+            return (float) value;
+        }
+
+        @Override
+        public void insert(final double[] p) {
+            this.tree.insert(new Coordinate3f((float) p[0], (float) p[1], (float) p[2]));
+        }
+
+        @Override
+        public boolean remove(final double[] p) {
+            return this.tree.remove(new Coordinate3f((float) p[0], (float) p[1], (float) p[2]));
+        }
+
+        @Override
+        public boolean contains(final double[] p) {
+            return this.tree.contains(new Coordinate3f((float) p[0], (float) p[1], (float) p[2]));
+        }
+
+        @Override
+        public int size() {
+            return this.tree.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.tree.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            this.tree.clear();
+        }
+
+        @Override
+        public List<double[]> queryBox(final double[] min, final double[] max) {
+            final List<double[]> found = new ArrayList<>();
+            this.tree.queryBox((float) min[0], (float) min[1], (float) min[2], (float) max[0], (float) max[1], (float) max[2], p -> found.add(unwrap(p)));
+            return found;
+        }
+
+        @Override
+        public List<double[]> queryRadius(final double[] centre, final double radius) {
+            final List<double[]> found = new ArrayList<>();
+            this.tree.queryRadius((float) centre[0], (float) centre[1], (float) centre[2], (float) radius, p -> found.add(unwrap(p)));
+            return found;
+        }
+
+        @Override
+        public List<double[]> nearest(final double[] centre, final int k) {
+            final List<double[]> found = new ArrayList<>();
+            for (final Coordinate3f p : this.tree.nearest((float) centre[0], (float) centre[1], (float) centre[2], k)) {
+                found.add(unwrap(p));
+            }
+            return found;
+        }
+
+        private static double[] unwrap(final Coordinate3f p) {
+            return new double[] {p.getX(), p.getY(), p.getZ()};
+        }
+
+    }
+
+    private static final class Coordinate2dQuadtreeAdapter implements Tree {
+
+        private final Coordinate2dQuadtree tree;
+
+        Coordinate2dQuadtreeAdapter(final Coordinate2dQuadtree tree) {
+            this.tree = tree;
+        }
+
+        static Tree create(final int leafCapacity, final int maxDepth) {
+            return new Coordinate2dQuadtreeAdapter(new Coordinate2dQuadtree(0, 0, SIZE, SIZE, leafCapacity, maxDepth));
+        }
+
+        @Override
+        public Tree bulkLoad(final List<double[]> points, final int leafCapacity, final int maxDepth) {
+            final List<Coordinate2d> coords = new ArrayList<>();
+            for (final double[] p : points) {
+                coords.add(new Coordinate2d(p[0], p[1]));
+            }
+            return new Coordinate2dQuadtreeAdapter(Coordinate2dQuadtree.bulkLoad(0, 0, SIZE, SIZE, leafCapacity, maxDepth, coords));
+        }
+
+        @Override
+        public int dimensions() {
+            return 2;
+        }
+
+        @Override
+        public double distanceSq(final double[] a, final double[] b) {
+            double distanceSq = 0;
+            for (int axis = 0; axis < 2; axis++) {
+                final double d = a[axis] - b[axis];
+                distanceSq += d * d;
+            }
+            return distanceSq;
+        }
+
+        @Override
+        public double round(final double value) {
+            return value;
+        }
+
+        @Override
+        public void insert(final double[] p) {
+            this.tree.insert(new Coordinate2d(p[0], p[1]));
+        }
+
+        @Override
+        public boolean remove(final double[] p) {
+            return this.tree.remove(new Coordinate2d(p[0], p[1]));
+        }
+
+        @Override
+        public boolean contains(final double[] p) {
+            return this.tree.contains(new Coordinate2d(p[0], p[1]));
+        }
+
+        @Override
+        public int size() {
+            return this.tree.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.tree.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            this.tree.clear();
+        }
+
+        @Override
+        public List<double[]> queryBox(final double[] min, final double[] max) {
+            final List<double[]> found = new ArrayList<>();
+            this.tree.queryBox(min[0], min[1], max[0], max[1], p -> found.add(unwrap(p)));
+            return found;
+        }
+
+        @Override
+        public List<double[]> queryRadius(final double[] centre, final double radius) {
+            final List<double[]> found = new ArrayList<>();
+            this.tree.queryRadius(centre[0], centre[1], radius, p -> found.add(unwrap(p)));
+            return found;
+        }
+
+        @Override
+        public List<double[]> nearest(final double[] centre, final int k) {
+            final List<double[]> found = new ArrayList<>();
+            for (final Coordinate2d p : this.tree.nearest(centre[0], centre[1], k)) {
+                found.add(unwrap(p));
+            }
+            return found;
+        }
+
+        private static double[] unwrap(final Coordinate2d p) {
+            return new double[] {p.getX(), p.getY()};
+        }
+
+    }
+
+    private static final class Coordinate2fQuadtreeAdapter implements Tree {
+
+        private final Coordinate2fQuadtree tree;
+
+        Coordinate2fQuadtreeAdapter(final Coordinate2fQuadtree tree) {
+            this.tree = tree;
+        }
+
+        static Tree create(final int leafCapacity, final int maxDepth) {
+            return new Coordinate2fQuadtreeAdapter(new Coordinate2fQuadtree(0, 0, SIZE, SIZE, leafCapacity, maxDepth));
+        }
+
+        @Override
+        public Tree bulkLoad(final List<double[]> points, final int leafCapacity, final int maxDepth) {
+            final List<Coordinate2f> coords = new ArrayList<>();
+            for (final double[] p : points) {
+                coords.add(new Coordinate2f((float) p[0], (float) p[1]));
+            }
+            return new Coordinate2fQuadtreeAdapter(Coordinate2fQuadtree.bulkLoad(0, 0, SIZE, SIZE, leafCapacity, maxDepth, coords));
+        }
+
+        @Override
+        public int dimensions() {
+            return 2;
+        }
+
+        @Override
+        public double distanceSq(final double[] a, final double[] b) {
+            float distanceSq = 0;
+            for (int axis = 0; axis < 2; axis++) {
+                final float d = (float) a[axis] - (float) b[axis];
+                distanceSq += d * d;
+            }
+            return distanceSq;
+        }
+
+        @Override
+        public double round(final double value) {
+            return (float) value;
+        }
+
+        @Override
+        public void insert(final double[] p) {
+            this.tree.insert(new Coordinate2f((float) p[0], (float) p[1]));
+        }
+
+        @Override
+        public boolean remove(final double[] p) {
+            return this.tree.remove(new Coordinate2f((float) p[0], (float) p[1]));
+        }
+
+        @Override
+        public boolean contains(final double[] p) {
+            return this.tree.contains(new Coordinate2f((float) p[0], (float) p[1]));
+        }
+
+        @Override
+        public int size() {
+            return this.tree.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.tree.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            this.tree.clear();
+        }
+
+        @Override
+        public List<double[]> queryBox(final double[] min, final double[] max) {
+            final List<double[]> found = new ArrayList<>();
+            this.tree.queryBox((float) min[0], (float) min[1], (float) max[0], (float) max[1], p -> found.add(unwrap(p)));
+            return found;
+        }
+
+        @Override
+        public List<double[]> queryRadius(final double[] centre, final double radius) {
+            final List<double[]> found = new ArrayList<>();
+            this.tree.queryRadius((float) centre[0], (float) centre[1], (float) radius, p -> found.add(unwrap(p)));
+            return found;
+        }
+
+        @Override
+        public List<double[]> nearest(final double[] centre, final int k) {
+            final List<double[]> found = new ArrayList<>();
+            for (final Coordinate2f p : this.tree.nearest((float) centre[0], (float) centre[1], k)) {
+                found.add(unwrap(p));
+            }
+            return found;
+        }
+
+        private static double[] unwrap(final Coordinate2f p) {
+            return new double[] {p.getX(), p.getY()};
+        }
+
+    }
+
+}
@@ -0,0 +1,904 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.stats;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.flowpowered.math.matrix.Matrix2d;
+import com.flowpowered.math.matrix.Matrix3d;
+import com.flowpowered.math.vector.Vector2d;
+import com.flowpowered.math.vector.Vector3d;
+import me.jamiemansfield.maths.bounds.Bounds2d;
+import me.jamiemansfield.maths.bounds.Bounds2f;
+import me.jamiemansfield.maths.bounds.Bounds2i;
+import me.jamiemansfield.maths.bounds.Bounds2l;
+import me.jamiemansfield.maths.bounds.Bounds3d;
+import me.jamiemansfield.maths.bounds.Bounds3f;
+import me.jamiemansfield.maths.bounds.Bounds3i;
+import me.jamiemansfield.maths.bounds.Bounds3l;
+import me.jamiemansfield.maths.coord.Coordinate2d;
+import me.jamiemansfield.maths.coord.Coordinate2f;
+import me.jamiemansfield.maths.coord.Coordinate2i;
+import me.jamiemansfield.maths.coord.Coordinate2l;
+import me.jamiemansfield.maths.coord.Coordinate3d;
+import me.jamiemansfield.maths.coord.Coordinate3f;
+import me.jamiemansfield.maths.coord.Coordinate3i;
+import me.jamiemansfield.maths.coord.Coordinate3l;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Checks the statistics of each coordinate type, collected sequentially,
+ * in parallel and by combining accumulators, against a two-pass
+ * reference: an exact sum, then the co-moments about the exact mean.
+ * Positions sit far from the origin with a small spread, where a one-pass
+ * sum of squares would lose every digit of the variance.
+ */
+public final class CoordinateCollectorsTest {
+
+    private static final double TOLERANCE = 1e-9;
+
+    @Test
+    public void coordinate3dMatchesTwoPassReference() {
+        final Random random = new Random(1);
+        for (int trial = 0; trial < 20; trial++) {
+            final int n = trial % 4 == 0 ? 100_000 + random.nextInt(100_000) : 2 + random.nextInt(1_000);
+            final List<Coordinate3d> points = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                points.add(new Coordinate3d(1e9 + random.nextGaussian(), 1e9 + random.nextGaussian(), 1e9 + random.nextGaussian()));
+            }
+            final Stats expected = reference(points.stream().map(p -> new double[] {p.getX(), p.getY(), p.getZ()}).collect(Collectors.toList()));
+            assertMatches(expected, stats(points.stream().collect(CoordinateCollectors.summarizing3d())), false);
+            assertMatches(expected, stats(points.parallelStream().collect(CoordinateCollectors.summarizing3d())), false);
+
+            // accumulators split anywhere, filled with primitives and coordinates
+            final int split = random.nextInt(n + 1);
+            final Coordinate3dSummaryStatistics first = new Coordinate3dSummaryStatistics();
+            points.subList(0, split).forEach(p -> first.accept(p.getX(), p.getY(), p.getZ()));
+            final Coordinate3dSummaryStatistics second = new Coordinate3dSummaryStatistics();
+            points.subList(split, n).forEach(second);
+            first.combine(second);
+            assertMatches(expected, stats(first), false);
+
+            assertClose(expected.centroid, components(points.parallelStream().collect(CoordinateCollectors.averaging3d())));
+            assertArrayEquals(expected.bounds, bounds(points.parallelStream().collect(CoordinateCollectors.bounding3d())), 0);
+        }
+    }
+
+    @Test
+    public void coordinate3dAveragesPositionsAtTheLimit() {
+        final Coordinate3d largest = new Coordinate3d(Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE);
+        final Coordinate3d centroid = new Coordinate3d(Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE);
+        // the centroid is the sum over the count, as the average of
+        // DoubleSummaryStatistics is, so overflows with it
+        final Coordinate3d overflowed = new Coordinate3d(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+        for (int n = 1; n <= 4; n++) {
+            final List<Coordinate3d> points = Collections.nCopies(n, largest);
+            final Coordinate3dSummaryStatistics statistics = points.stream().collect(CoordinateCollectors.summarizing3d());
+            assertEquals(n == 1 ? centroid : overflowed, statistics.getCentroid());
+            assertEquals(n == 1 ? centroid : overflowed, points.parallelStream().collect(CoordinateCollectors.averaging3d()));
+
+            final Coordinate3dSummaryStatistics first = new Coordinate3dSummaryStatistics();
+            points.subList(0, n / 2).forEach(first);
+            final Coordinate3dSummaryStatistics second = new Coordinate3dSummaryStatistics();
+            points.subList(n / 2, n).forEach(second);
+            first.combine(second);
+            assertEquals(n == 1 ? centroid : overflowed, first.getCentroid());
+            assertArrayEquals(new double[3], components(first.getVariance()), 0);
+        }
+
+        // sums overflow to infinity, as those of DoubleSummaryStatistics do
+        final Coordinate3dSummaryStatistics two = Collections.nCopies(2, largest).stream().collect(CoordinateCollectors.summarizing3d());
+        assertEquals(overflowed, two.getSum());
+    }
+
+    @Test
+    public void coordinate3dCollectsNothingFromEmptyStreams() {
+        final Coordinate3dSummaryStatistics empty = Stream.<Coordinate3d>empty().collect(CoordinateCollectors.summarizing3d());
+        assertEquals(0, empty.getCount());
+        assertEquals(new Coordinate3d(0, 0, 0), empty.getSum());
+        assertNull(empty.getCentroid());
+        assertNull(empty.getBounds());
+        assertNull(empty.getVariance());
+        assertNull(empty.getCovariance());
+        assertNull(empty.getSampleCovariance());
+        assertNull(Stream.<Coordinate3d>empty().parallel().collect(CoordinateCollectors.averaging3d()));
+        assertNull(Stream.<Coordinate3d>empty().parallel().collect(CoordinateCollectors.bounding3d()));
+
+        // one position has a variance, but no sample covariance - whichever
+        // side of a combination it is on
+        final Coordinate3dSummaryStatistics one = new Coordinate3dSummaryStatistics();
+        one.accept(new Coordinate3d(1, 2, 3));
+        one.combine(new Coordinate3dSummaryStatistics());
+        empty.combine(one);
+        for (final Coordinate3dSummaryStatistics statistics : Arrays.asList(one, empty)) {
+            assertEquals(1, statistics.getCount());
+            assertEquals(new Coordinate3d(1, 2, 3), statistics.getCentroid());
+            assertArrayEquals(new double[3], components(statistics.getVariance()), 0);
+            assertNull(statistics.getSampleCovariance());
+        }
+    }
+
+    @Test
+    public void coordinate3fMatchesTwoPassReference() {
+        final Random random = new Random(2);
+        for (int trial = 0; trial < 20; trial++) {
+            final int n = trial % 4 == 0 ? 100_000 + random.nextInt(100_000) : 2 + random.nextInt(1_000);
+            final List<Coordinate3f> points = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                points.add(new Coordinate3f(1e4f + (float) Math.floor(random.nextGaussian() * 8) / 8, 1e4f + (float) Math.floor(random.nextGaussian() * 8) / 8, 1e4f + (float) Math.floor(random.nextGaussian() * 8) / 8));
+            }
+            final Stats expected = reference(points.stream().map(p -> new double[] {p.getX(), p.getY(), p.getZ()}).collect(Collectors.toList()));
+            assertMatches(expected, stats(points.stream().collect(CoordinateCollectors.summarizing3f())), false);
+            assertMatches(expected, stats(points.parallelStream().collect(CoordinateCollectors.summarizing3f())), false);
+
+            // accumulators split anywhere, filled with primitives and coordinates
+            final int split = random.nextInt(n + 1);
+            final Coordinate3fSummaryStatistics first = new Coordinate3fSummaryStatistics();
+            points.subList(0, split).forEach(p -> first.accept(p.getX(), p.getY(), p.getZ()));
+            final Coordinate3fSummaryStatistics second = new Coordinate3fSummaryStatistics();
+            points.subList(split, n).forEach(second);
+            first.combine(second);
+            assertMatches(expected, stats(first), false);
+
+            assertClose(expected.centroid, components(points.parallelStream().collect(CoordinateCollectors.averaging3f())));
+            assertArrayEquals(expected.bounds, bounds(points.parallelStream().collect(CoordinateCollectors.bounding3f())), 0);
+        }
+    }
+
+    @Test
+    public void coordinate3fAveragesPositionsAtTheLimit() {
+        final Coordinate3f largest = new Coordinate3f(Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE);
+        final Coordinate3d centroid = new Coordinate3d(Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE);
+        for (int n = 1; n <= 4; n++) {
+            final List<Coordinate3f> points = Collections.nCopies(n, largest);
+            final Coordinate3fSummaryStatistics statistics = points.stream().collect(CoordinateCollectors.summarizing3f());
+            assertEquals(centroid, statistics.getCentroid());
+            assertEquals(centroid, points.parallelStream().collect(CoordinateCollectors.averaging3f()));
+
+            final Coordinate3fSummaryStatistics first = new Coordinate3fSummaryStatistics();
+            points.subList(0, n / 2).forEach(first);
+            final Coordinate3fSummaryStatistics second = new Coordinate3fSummaryStatistics();
+            points.subList(n / 2, n).forEach(second);
+            first.combine(second);
+            assertEquals(centroid, first.getCentroid());
+            assertArrayEquals(new double[3], components(first.getVariance()), 0);
+        }
+
+        // sums are kept in double, so do not overflow
+        final Coordinate3fSummaryStatistics two = Collections.nCopies(2, largest).stream().collect(CoordinateCollectors.summarizing3f());
+        assertEquals(new Coordinate3d(2.0 * Float.MAX_VALUE, 2.0 * Float.MAX_VALUE, 2.0 * Float.MAX_VALUE), two.getSum());
+    }
+
+    @Test
+    public void coordinate3fCollectsNothingFromEmptyStreams() {
+        final Coordinate3fSummaryStatistics empty = Stream.<Coordinate3f>empty().collect(CoordinateCollectors.summarizing3f());
+        assertEquals(0, empty.getCount());
+        assertEquals(new Coordinate3d(0, 0, 0), empty.getSum());
+        assertNull(empty.getCentroid());
+        assertNull(empty.getBounds());
+        assertNull(empty.getVariance());
+        assertNull(empty.getCovariance());
+        assertNull(empty.getSampleCovariance());
+        assertNull(Stream.<Coordinate3f>empty().parallel().collect(CoordinateCollectors.averaging3f()));
+        assertNull(Stream.<Coordinate3f>empty().parallel().collect(CoordinateCollectors.bounding3f()));
+
+        // one position has a variance, but no sample covariance - whichever
+        // side of a combination it is on
+        final Coordinate3fSummaryStatistics one = new Coordinate3fSummaryStatistics();
+        one.accept(new Coordinate3f(1, 2, 3));
+        one.combine(new Coordinate3fSummaryStatistics());
+        empty.combine(one);
+        for (final Coordinate3fSummaryStatistics statistics : Arrays.asList(one, empty)) {
+            assertEquals(1, statistics.getCount());
+            assertEquals(new Coordinate3d(1, 2, 3), statistics.getCentroid());
+            assertArrayEquals(new double[3], components(statistics.getVariance()), 0);
+            assertNull(statistics.getSampleCovariance());
+        }
+    }
+
+    @Test
+    public void coordinate3iMatchesTwoPassReference() {
+        final Random random = new Random(3);
+        for (int trial = 0; trial < 20; trial++) {
+            final int n = trial % 4 == 0 ? 100_000 + random.nextInt(100_000) : 2 + random.nextInt(1_000);
+            final List<Coordinate3i> points = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                points.add(new Coordinate3i(1_000_000 + random.nextInt(2_001) - 1_000, 1_000_000 + random.nextInt(2_001) - 1_000, 1_000_000 + random.nextInt(2_001) - 1_000));
+            }
+            final Stats expected = reference(points.stream().map(p -> new double[] {p.getX(), p.getY(), p.getZ()}).collect(Collectors.toList()));
+            assertMatches(expected, stats(points.stream().collect(CoordinateCollectors.summarizing3i())), true);
+            assertMatches(expected, stats(points.parallelStream().collect(CoordinateCollectors.summarizing3i())), true);
+
+            // accumulators split anywhere, filled with primitives and coordinates
+            final int split = random.nextInt(n + 1);
+            final Coordinate3iSummaryStatistics first = new Coordinate3iSummaryStatistics();
+            points.subList(0, split).forEach(p -> first.accept(p.getX(), p.getY(), p.getZ()));
+            final Coordinate3iSummaryStatistics second = new Coordinate3iSummaryStatistics();
+            points.subList(split, n).forEach(second);
+            first.combine(second);
+            assertMatches(expected, stats(first), true);
+
+            assertClose(expected.centroid, components(points.parallelStream().collect(CoordinateCollectors.averaging3i())));
+            assertArrayEquals(expected.bounds, bounds(points.parallelStream().collect(CoordinateCollectors.bounding3i())), 0);
+        }
+    }
+
+    @Test
+    public void coordinate3iAveragesPositionsAtTheLimit() {
+        final Coordinate3i largest = new Coordinate3i(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        final Coordinate3d centroid = new Coordinate3d(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        for (int n = 1; n <= 4; n++) {
+            final List<Coordinate3i> points = Collections.nCopies(n, largest);
+            final Coordinate3iSummaryStatistics statistics = points.stream().collect(CoordinateCollectors.summarizing3i());
+            assertEquals(centroid, statistics.getCentroid());
+            assertEquals(centroid, points.parallelStream().collect(CoordinateCollectors.averaging3i()));
+
+            final Coordinate3iSummaryStatistics first = new Coordinate3iSummaryStatistics();
+            points.subList(0, n / 2).forEach(first);
+            final Coordinate3iSummaryStatistics second = new Coordinate3iSummaryStatistics();
+            points.subList(n / 2, n).forEach(second);
+            first.combine(second);
+            assertEquals(centroid, first.getCentroid());
+            assertArrayEquals(new double[3], components(first.getVariance()), 0);
+        }
+
+        // sums are kept in long, so do not overflow
+        final Coordinate3iSummaryStatistics two = Collections.nCopies(2, largest).stream().collect(CoordinateCollectors.summarizing3i());
+        assertEquals(new Coordinate3l(2L * Integer.MAX_VALUE, 2L * Integer.MAX_VALUE, 2L * Integer.MAX_VALUE), two.getSum());
+    }
+
+    @Test
+    public void coordinate3iCollectsNothingFromEmptyStreams() {
+        final Coordinate3iSummaryStatistics empty = Stream.<Coordinate3i>empty().collect(CoordinateCollectors.summarizing3i());
+        assertEquals(0, empty.getCount());
+        assertEquals(new Coordinate3l(0, 0, 0), empty.getSum());
+        assertNull(empty.getCentroid());
+        assertNull(empty.getBounds());
+        assertNull(empty.getVariance());
+        assertNull(empty.getCovariance());
+        assertNull(empty.getSampleCovariance());
+        assertNull(Stream.<Coordinate3i>empty().parallel().collect(CoordinateCollectors.averaging3i()));
+        assertNull(Stream.<Coordinate3i>empty().parallel().collect(CoordinateCollectors.bounding3i()));
+
+        // one position has a variance, but no sample covariance - whichever
+        // side of a combination it is on
+        final Coordinate3iSummaryStatistics one = new Coordinate3iSummaryStatistics();
+        one.accept(new Coordinate3i(1, 2, 3));
+        one.combine(new Coordinate3iSummaryStatistics());
+        empty.combine(one);
+        for (final Coordinate3iSummaryStatistics statistics : Arrays.asList(one, empty)) {
+            assertEquals(1, statistics.getCount());
+            assertEquals(new Coordinate3d(1, 2, 3), statistics.getCentroid());
+            assertArrayEquals(new double[3], components(statistics.getVariance()), 0);
+            assertNull(statistics.getSampleCovariance());
+        }
+    }
+
+    @Test
+    public void coordinate3lMatchesTwoPassReference() {
+        final Random random = new Random(4);
+        for (int trial = 0; trial < 20; trial++) {
+            final int n = trial % 4 == 0 ? 100_000 + random.nextInt(100_000) : 2 + random.nextInt(1_000);
+            final List<Coordinate3l> points = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                points.add(new Coordinate3l(1_000_000_000L + random.nextInt(2_001) - 1_000, 1_000_000_000L + random.nextInt(2_001) - 1_000, 1_000_000_000L + random.nextInt(2_001) - 1_000));
+            }
+            final Stats expected = reference(points.stream().map(p -> new double[] {p.getX(), p.getY(), p.getZ()}).collect(Collectors.toList()));
+            assertMatches(expected, stats(points.stream().collect(CoordinateCollectors.summarizing3l())), true);
+            assertMatches(expected, stats(points.parallelStream().collect(CoordinateCollectors.summarizing3l())), true);
+
+            // accumulators split anywhere, filled with primitives and coordinates
+            final int split = random.nextInt(n + 1);
+            final Coordinate3lSummaryStatistics first = new Coordinate3lSummaryStatistics();
+            points.subList(0, split).forEach(p -> first.accept(p.getX(), p.getY(), p.getZ()));
+            final Coordinate3lSummaryStatistics second = new Coordinate3lSummaryStatistics();
+            points.subList(split, n).forEach(second);
+            first.combine(second);
+            assertMatches(expected, stats(first), true);
+
+            assertClose(expected.centroid, components(points.parallelStream().collect(CoordinateCollectors.averaging3l())));
+            assertArrayEquals(expected.bounds, bounds(points.parallelStream().collect(CoordinateCollectors.bounding3l())), 0);
+        }
+    }
+
+    @Test
+    public void coordinate3lAveragesPositionsAtTheLimit() {
+        final Coordinate3l largest = new Coordinate3l(Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE);
+        final Coordinate3d centroid = new Coordinate3d(Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE);
+        for (int n = 1; n <= 4; n++) {
+            final List<Coordinate3l> points = Collections.nCopies(n, largest);
+            final Coordinate3lSummaryStatistics statistics = points.stream().collect(CoordinateCollectors.summarizing3l());
+            assertEquals(centroid, statistics.getCentroid());
+            assertEquals(centroid, points.parallelStream().collect(CoordinateCollectors.averaging3l()));
+
+            final Coordinate3lSummaryStatistics first = new Coordinate3lSummaryStatistics();
+            points.subList(0, n / 2).forEach(first);
+            final Coordinate3lSummaryStatistics second = new Coordinate3lSummaryStatistics();
+            points.subList(n / 2, n).forEach(second);
+            first.combine(second);
+            assertEquals(centroid, first.getCentroid());
+            assertArrayEquals(new double[3], components(first.getVariance()), 0);
+        }
+
+        // sums wrap around, as those of LongSummaryStatistics do, but the
+            // centroid is a running mean
+        final Coordinate3lSummaryStatistics two = Collections.nCopies(2, largest).stream().collect(CoordinateCollectors.summarizing3l());
+        assertEquals(new Coordinate3l(Long.MAX_VALUE + Long.MAX_VALUE, Long.MAX_VALUE + Long.MAX_VALUE, Long.MAX_VALUE + Long.MAX_VALUE), two.getSum());
+    }
+
+    @Test
+    public void coordinate3lCollectsNothingFromEmptyStreams() {
+        final Coordinate3lSummaryStatistics empty = Stream.<Coordinate3l>empty().collect(CoordinateCollectors.summarizing3l());
+        assertEquals(0, empty.getCount());
+        assertEquals(new Coordinate3l(0, 0, 0), empty.getSum());
+        assertNull(empty.getCentroid());
+        assertNull(empty.getBounds());
+        assertNull(empty.getVariance());
+        assertNull(empty.getCovariance());
+        assertNull(empty.getSampleCovariance());
+        assertNull(Stream.<Coordinate3l>empty().parallel().collect(CoordinateCollectors.averaging3l()));
+        assertNull(Stream.<Coordinate3l>empty().parallel().collect(CoordinateCollectors.bounding3l()));
+
+        // one position has a variance, but no sample covariance - whichever
+        // side of a combination it is on
+        final Coordinate3lSummaryStatistics one = new Coordinate3lSummaryStatistics();
+        one.accept(new Coordinate3l(1, 2, 3));
+        one.combine(new Coordinate3lSummaryStatistics());
+        empty.combine(one);
+        for (final Coordinate3lSummaryStatistics statistics : Arrays.asList(one, empty)) {
+            assertEquals(1, statistics.getCount());
+            assertEquals(new Coordinate3d(1, 2, 3), statistics.getCentroid());
+            assertArrayEquals(new double[3], components(statistics.getVariance()), 0);
+            assertNull(statistics.getSampleCovariance());
+        }
+    }
+
+    @Test
+    public void coordinate2dMatchesTwoPassReference() {
+        final Random random = new Random(5);
+        for (int trial = 0; trial < 20; trial++) {
+            final int n = trial % 4 == 0 ? 100_000 + random.nextInt(100_000) : 2 + random.nextInt(1_000);
+            final List<Coordinate2d> points = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                points.add(new Coordinate2d(1e9 + random.nextGaussian(), 1e9 + random.nextGaussian()));
+            }
+            final Stats expected = reference(points.stream().map(p -> new double[] {p.getX(), p.getY()}).collect(Collectors.toList()));
+            assertMatches(expected, stats(points.stream().collect(CoordinateCollectors.summarizing2d())), false);
+            assertMatches(expected, stats(points.parallelStream().collect(CoordinateCollectors.summarizing2d())), false);
+
+            final int split = random.nextInt(n + 1);
+            final Coordinate2dSummaryStatistics first = new Coordinate2dSummaryStatistics();
+            points.subList(0, split).forEach(p -> first.accept(p.getX(), p.getY()));
+            final Coordinate2dSummaryStatistics second = new Coordinate2dSummaryStatistics();
+            points.subList(split, n).forEach(second);
+            first.combine(second);
+            assertMatches(expected, stats(first), false);
+
+            assertClose(expected.centroid, components(points.parallelStream().collect(CoordinateCollectors.averaging2d())));
+            assertArrayEquals(expected.bounds, bounds(points.parallelStream().collect(CoordinateCollectors.bounding2d())), 0);
+        }
+    }
+
+    @Test
+    public void coordinate2dAveragesPositionsAtTheLimit() {
+        final Coordinate2d largest = new Coordinate2d(Double.MAX_VALUE, Double.MAX_VALUE);
+        final Coordinate2d centroid = new Coordinate2d(Double.MAX_VALUE, Double.MAX_VALUE);
+        // the centroid is the sum over the count, as the average of
+        // DoubleSummaryStatistics is, so overflows with it
+        final Coordinate2d overflowed = new Coordinate2d(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+        for (int n = 1; n <= 4; n++) {
+            final List<Coordinate2d> points = Collections.nCopies(n, largest);
+            final Coordinate2dSummaryStatistics statistics = points.stream().collect(CoordinateCollectors.summarizing2d());
+            assertEquals(n == 1 ? centroid : overflowed, statistics.getCentroid());
+            assertEquals(n == 1 ? centroid : overflowed, points.parallelStream().collect(CoordinateCollectors.averaging2d()));
+
+            final Coordinate2dSummaryStatistics first = new Coordinate2dSummaryStatistics();
+            points.subList(0, n / 2).forEach(first);
+            final Coordinate2dSummaryStatistics second = new Coordinate2dSummaryStatistics();
+            points.subList(n / 2, n).forEach(second);
+            first.combine(second);
+            assertEquals(n == 1 ? centroid : overflowed, first.getCentroid());
+            assertArrayEquals(new double[2], components(first.getVariance()), 0);
+        }
+
+        // sums overflow to infinity, as those of DoubleSummaryStatistics do
+        final Coordinate2dSummaryStatistics two = Collections.nCopies(2, largest).stream().collect(CoordinateCollectors.summarizing2d());
+        assertEquals(overflowed, two.getSum());
+    }
+
+    @Test
+    public void coordinate2dCollectsNothingFromEmptyStreams() {
+        final Coordinate2dSummaryStatistics empty = Stream.<Coordinate2d>empty().collect(CoordinateCollectors.summarizing2d());
+        assertEquals(0, empty.getCount());
+        assertEquals(new Coordinate2d(0, 0), empty.getSum());
+        assertNull(empty.getCentroid());
+        assertNull(empty.getBounds());
+        assertNull(empty.getVariance());
+        assertNull(empty.getCovariance());
+        assertNull(empty.getSampleCovariance());
+        assertNull(Stream.<Coordinate2d>empty().parallel().collect(CoordinateCollectors.averaging2d()));
+        assertNull(Stream.<Coordinate2d>empty().parallel().collect(CoordinateCollectors.bounding2d()));
+
+        final Coordinate2dSummaryStatistics one = new Coordinate2dSummaryStatistics();
+        one.accept(new Coordinate2d(1, 2));
+        one.combine(new Coordinate2dSummaryStatistics());
+        empty.combine(one);
+        for (final Coordinate2dSummaryStatistics statistics : Arrays.asList(one, empty)) {
+            assertEquals(1, statistics.getCount());
+            assertEquals(new Coordinate2d(1, 2), statistics.getCentroid());
+            assertArrayEquals(new double[2], components(statistics.getVariance()), 0);
+            assertNull(statistics.getSampleCovariance());
+        }
+    }
+
+    @Test
+    public void coordinate2fMatchesTwoPassReference() {
+        final Random random = new Random(6);
+        for (int trial = 0; trial < 20; trial++) {
+            final int n = trial % 4 == 0 ? 100_000 + random.nextInt(100_000) : 2 + random.nextInt(1_000);
+            final List<Coordinate2f> points = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                points.add(new Coordinate2f(1e4f + (float) Math.floor(random.nextGaussian() * 8) / 8, 1e4f + (float) Math.floor(random.nextGaussian() * 8) / 8));
+            }
+            final Stats expected = reference(points.stream().map(p -> new double[] {p.getX(), p.getY()}).collect(Collectors.toList()));
+            assertMatches(expected, stats(points.stream().collect(CoordinateCollectors.summarizing2f())), false);
+            assertMatches(expected, stats(points.parallelStream().collect(CoordinateCollectors.summarizing2f())), false);
+
+            final int split = random.nextInt(n + 1);
+            final Coordinate2fSummaryStatistics first = new Coordinate2fSummaryStatistics();
+            points.subList(0, split).forEach(p -> first.accept(p.getX(), p.getY()));
+            final Coordinate2fSummaryStatistics second = new Coordinate2fSummaryStatistics();
+            points.subList(split, n).forEach(second);
+            first.combine(second);
+            assertMatches(expected, stats(first), false);
+
+            assertClose(expected.centroid, components(points.parallelStream().collect(CoordinateCollectors.averaging2f())));
+            assertArrayEquals(expected.bounds, bounds(points.parallelStream().collect(CoordinateCollectors.bounding2f())), 0);
+        }
+    }
+
+    @Test
+    public void coordinate2fAveragesPositionsAtTheLimit() {
+        final Coordinate2f largest = new Coordinate2f(Float.MAX_VALUE, Float.MAX_VALUE);
+        final Coordinate2d centroid = new Coordinate2d(Float.MAX_VALUE, Float.MAX_VALUE);
+        for (int n = 1; n <= 4; n++) {
+            final List<Coordinate2f> points = Collections.nCopies(n, largest);
+            final Coordinate2fSummaryStatistics statistics = points.stream().collect(CoordinateCollectors.summarizing2f());
+            assertEquals(centroid, statistics.getCentroid());
+            assertEquals(centroid, points.parallelStream().collect(CoordinateCollectors.averaging2f()));
+
+            final Coordinate2fSummaryStatistics first = new Coordinate2fSummaryStatistics();
+            points.subList(0, n / 2).forEach(first);
+            final Coordinate2fSummaryStatistics second = new Coordinate2fSummaryStatistics();
+            points.subList(n / 2, n).forEach(second);
+            first.combine(second);
+            assertEquals(centroid, first.getCentroid());
+            assertArrayEquals(new double[2], components(first.getVariance()), 0);
+        }
+
+        // sums are kept in double, so do not overflow
+        final Coordinate2fSummaryStatistics two = Collections.nCopies(2, largest).stream().collect(CoordinateCollectors.summarizing2f());
+        assertEquals(new Coordinate2d(2.0 * Float.MAX_VALUE, 2.0 * Float.MAX_VALUE), two.getSum());
+    }
+
+    @Test
+    public void coordinate2fCollectsNothingFromEmptyStreams() {
+        final Coordinate2fSummaryStatistics empty = Stream.<Coordinate2f>empty().collect(CoordinateCollectors.summarizing2f());
+        assertEquals(0, empty.getCount());
+        assertEquals(new Coordinate2d(0, 0), empty.getSum());
+        assertNull(empty.getCentroid());
+        assertNull(empty.getBounds());
+        assertNull(empty.getVariance());
+        assertNull(empty.getCovariance());
+        assertNull(empty.getSampleCovariance());
+        assertNull(Stream.<Coordinate2f>empty().parallel().collect(CoordinateCollectors.averaging2f()));
+        assertNull(Stream.<Coordinate2f>empty().parallel().collect(CoordinateCollectors.bounding2f()));
+
+        final Coordinate2fSummaryStatistics one = new Coordinate2fSummaryStatistics();
+        one.accept(new Coordinate2f(1, 2));
+        one.combine(new Coordinate2fSummaryStatistics());
+        empty.combine(one);
+        for (final Coordinate2fSummaryStatistics statistics : Arrays.asList(one, empty)) {
+            assertEquals(1, statistics.getCount());
+            assertEquals(new Coordinate2d(1, 2), statistics.getCentroid());
+            assertArrayEquals(new double[2], components(statistics.getVariance()), 0);
+            assertNull(statistics.getSampleCovariance());
+        }
+    }
+
+    @Test
+    public void coordinate2iMatchesTwoPassReference() {
+        final Random random = new Random(7);
+        for (int trial = 0; trial < 20; trial++) {
+            final int n = trial % 4 == 0 ? 100_000 + random.nextInt(100_000) : 2 + random.nextInt(1_000);
+            final List<Coordinate2i> points = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                points.add(new Coordinate2i(1_000_000 + random.nextInt(2_001) - 1_000, 1_000_000 + random.nextInt(2_001) - 1_000));
+            }
+            final Stats expected = reference(points.stream().map(p -> new double[] {p.getX(), p.getY()}).collect(Collectors.toList()));
+            assertMatches(expected, stats(points.stream().collect(CoordinateCollectors.summarizing2i())), true);
+            assertMatches(expected, stats(points.parallelStream().collect(CoordinateCollectors.summarizing2i())), true);
+
+            final int split = random.nextInt(n + 1);
+            final Coordinate2iSummaryStatistics first = new Coordinate2iSummaryStatistics();
+            points.subList(0, split).forEach(p -> first.accept(p.getX(), p.getY()));
+            final Coordinate2iSummaryStatistics second = new Coordinate2iSummaryStatistics();
+            points.subList(split, n).forEach(second);
+            first.combine(second);
+            assertMatches(expected, stats(first), true);
+
+            assertClose(expected.centroid, components(points.parallelStream().collect(CoordinateCollectors.averaging2i())));
+            assertArrayEquals(expected.bounds, bounds(points.parallelStream().collect(CoordinateCollectors.bounding2i())), 0);
+        }
+    }
+
+    @Test
+    public void coordinate2iAveragesPositionsAtTheLimit() {
+        final Coordinate2i largest = new Coordinate2i(Integer.MAX_VALUE, Integer.MAX_VALUE);
+        final Coordinate2d centroid = new Coordinate2d(Integer.MAX_VALUE, Integer.MAX_VALUE);
+        for (int n = 1; n <= 4; n++) {
+            final List<Coordinate2i> points = Collections.nCopies(n, largest);
+            final Coordinate2iSummaryStatistics statistics = points.stream().collect(CoordinateCollectors.summarizing2i());
+            assertEquals(centroid, statistics.getCentroid());
+            assertEquals(centroid, points.parallelStream().collect(CoordinateCollectors.averaging2i()));
+
+            final Coordinate2iSummaryStatistics first = new Coordinate2iSummaryStatistics();
+            points.subList(0, n / 2).forEach(first);
+            final Coordinate2iSummaryStatistics second = new Coordinate2iSummaryStatistics();
+            points.subList(n / 2, n).forEach(second);
+            first.combine(second);
+            assertEquals(centroid, first.getCentroid());
+            assertArrayEquals(new double[2], components(first.getVariance()), 0);
+        }
+
+        // sums are kept in long, so do not overflow
+        final Coordinate2iSummaryStatistics two = Collections.nCopies(2, largest).stream().collect(CoordinateCollectors.summarizing2i());
+        assertEquals(new Coordinate2l(2L * Integer.MAX_VALUE, 2L * Integer.MAX_VALUE), two.getSum());
+    }
+
+    @Test
+    public void coordinate2iCollectsNothingFromEmptyStreams() {
+        final Coordinate2iSummaryStatistics empty = Stream.<Coordinate2i>empty().collect(CoordinateCollectors.summarizing2i());
+        assertEquals(0, empty.getCount());
+        assertEquals(new Coordinate2l(0, 0), empty.getSum());
+        assertNull(empty.getCentroid());
+        assertNull(empty.getBounds());
+        assertNull(empty.getVariance());
+        assertNull(empty.getCovariance());
+        assertNull(empty.getSampleCovariance());
+        assertNull(Stream.<Coordinate2i>empty().parallel().collect(CoordinateCollectors.averaging2i()));
+        assertNull(Stream.<Coordinate2i>empty().parallel().collect(CoordinateCollectors.bounding2i()));
+
+        final Coordinate2iSummaryStatistics one = new Coordinate2iSummaryStatistics();
+        one.accept(new Coordinate2i(1, 2));
+        one.combine(new Coordinate2iSummaryStatistics());
+        empty.combine(one);
+        for (final Coordinate2iSummaryStatistics statistics : Arrays.asList(one, empty)) {
+            assertEquals(1, statistics.getCount());
+            assertEquals(new Coordinate2d(1, 2), statistics.getCentroid());
+            assertArrayEquals(new double[2], components(statistics.getVariance()), 0);
+            assertNull(statistics.getSampleCovariance());
+        }
+    }
+
+    @Test
+    public void coordinate2lMatchesTwoPassReference() {
+        final Random random = new Random(8);
+        for (int trial = 0; trial < 20; trial++) {
+            final int n = trial % 4 == 0 ? 100_000 + random.nextInt(100_000) : 2 + random.nextInt(1_000);
+            final List<Coordinate2l> points = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                points.add(new Coordinate2l(1_000_000_000L + random.nextInt(2_001) - 1_000, 1_000_000_000L + random.nextInt(2_001) - 1_000));
+            }
+            final Stats expected = reference(points.stream().map(p -> new double[] {p.getX(), p.getY()}).collect(Collectors.toList()));
+            assertMatches(expected, stats(points.stream().collect(CoordinateCollectors.summarizing2l())), true);
+            assertMatches(expected, stats(points.parallelStream().collect(CoordinateCollectors.summarizing2l())), true);
+
+            final int split = random.nextInt(n + 1);
+            final Coordinate2lSummaryStatistics first = new Coordinate2lSummaryStatistics();
+            points.subList(0, split).forEach(p -> first.accept(p.getX(), p.getY()));
+            final Coordinate2lSummaryStatistics second = new Coordinate2lSummaryStatistics();
+            points.subList(split, n).forEach(second);
+            first.combine(second);
+            assertMatches(expected, stats(first), true);
+
+            assertClose(expected.centroid, components(points.parallelStream().collect(CoordinateCollectors.averaging2l())));
+            assertArrayEquals(expected.bounds, bounds(points.parallelStream().collect(CoordinateCollectors.bounding2l())), 0);
+        }
+    }
+
+    @Test
+    public void coordinate2lAveragesPositionsAtTheLimit() {
+        final Coordinate2l largest = new Coordinate2l(Long.MAX_VALUE, Long.MAX_VALUE);
+        final Coordinate2d centroid = new Coordinate2d(Long.MAX_VALUE, Long.MAX_VALUE);
+        for (int n = 1; n <= 4; n++) {
+            final List<Coordinate2l> points = Collections.nCopies(n, largest);
+            final Coordinate2lSummaryStatistics statistics = points.stream().collect(CoordinateCollectors.summarizing2l());
+            assertEquals(centroid, statistics.getCentroid());
+            assertEquals(centroid, points.parallelStream().collect(CoordinateCollectors.averaging2l()));
+
+            final Coordinate2lSummaryStatistics first = new Coordinate2lSummaryStatistics();
+            points.subList(0, n / 2).forEach(first);
+            final Coordinate2lSummaryStatistics second = new Coordinate2lSummaryStatistics();
+            points.subList(n / 2, n).forEach(second);
+            first.combine(second);
+            assertEquals(centroid, first.getCentroid());
+            assertArrayEquals(new double[2], components(first.getVariance()), 0);
+        }
+
+        // sums wrap around, as those of LongSummaryStatistics do, but the
+            // centroid is a running mean
+        final Coordinate2lSummaryStatistics two = Collections.nCopies(2, largest).stream().collect(CoordinateCollectors.summarizing2l());
+        assertEquals(new Coordinate2l(Long.MAX_VALUE + Long.MAX_VALUE, Long.MAX_VALUE + Long.MAX_VALUE), two.getSum());
+    }
+
+    @Test
+    public void coordinate2lCollectsNothingFromEmptyStreams() {
+        final Coordinate2lSummaryStatistics empty = Stream.<Coordinate2l>empty().collect(CoordinateCollectors.summarizing2l());
+        assertEquals(0, empty.getCount());
+        assertEquals(new Coordinate2l(0, 0), empty.getSum());
+        assertNull(empty.getCentroid());
+        assertNull(empty.getBounds());
+        assertNull(empty.getVariance());
+        assertNull(empty.getCovariance());
+        assertNull(empty.getSampleCovariance());
+        assertNull(Stream.<Coordinate2l>empty().parallel().collect(CoordinateCollectors.averaging2l()));
+        assertNull(Stream.<Coordinate2l>empty().parallel().collect(CoordinateCollectors.bounding2l()));
+
+        final Coordinate2lSummaryStatistics one = new Coordinate2lSummaryStatistics();
+        one.accept(new Coordinate2l(1, 2));
+        one.combine(new Coordinate2lSummaryStatistics());
+        empty.combine(one);
+        for (final Coordinate2lSummaryStatistics statistics : Arrays.asList(one, empty)) {
+            assertEquals(1, statistics.getCount());
+            assertEquals(new Coordinate2d(1, 2), statistics.getCentroid());
+            assertArrayEquals(new double[2], components(statistics.getVariance()), 0);
+            assertNull(statistics.getSampleCovariance());
+        }
+    }
+
+    private static Stats reference(final List<double[]> points) {
+        final int n = points.size();
+        final int dimensions = points.get(0).length;
+        final double[] sum = new double[dimensions];
+        final double[] mean = new double[dimensions];
+        final double[] bounds = new double[dimensions * 2];
+        for (int axis = 0; axis < dimensions; axis++) {
+            BigDecimal exact = BigDecimal.ZERO;
+            bounds[axis] = Double.POSITIVE_INFINITY;
+            bounds[axis + dimensions] = Double.NEGATIVE_INFINITY;
+            for (final double[] p : points) {
+                exact = exact.add(new BigDecimal(p[axis]));
+                bounds[axis] = Math.min(bounds[axis], p[axis]);
+                bounds[axis + dimensions] = Math.max(bounds[axis + dimensions], p[axis]);
+            }
+            sum[axis] = exact.doubleValue();
+            mean[axis] = exact.divide(BigDecimal.valueOf(n), MathContext.DECIMAL128).doubleValue();
+        }
+        final double[][] comoments = new double[dimensions][dimensions];
+        for (final double[] p : points) {
+            for (int a = 0; a < dimensions; a++) {
+                for (int b = 0; b < dimensions; b++) {
+                    comoments[a][b] += (p[a] - mean[a]) * (p[b] - mean[b]);
+                }
+            }
+        }
+        final double[] variance = new double[dimensions];
+        final double[][] covariance = new double[dimensions][dimensions];
+        final double[][] sampleCovariance = new double[dimensions][dimensions];
+        for (int a = 0; a < dimensions; a++) {
+            variance[a] = comoments[a][a] / n;
+            for (int b = 0; b < dimensions; b++) {
+                covariance[a][b] = comoments[a][b] / n;
+                sampleCovariance[a][b] = comoments[a][b] / (n - 1);
+            }
+        }
+        return new Stats(n, sum, mean, bounds, variance, covariance, sampleCovariance);
+    }
+
+    private static void assertMatches(final Stats expected, final Stats actual, final boolean integral) {
+        assertEquals(expected.count, actual.count);
+        if (integral) {
+            // integral sums are exact
+            assertArrayEquals(expected.sum, actual.sum, 0);
+        } else {
+            assertClose(expected.sum, actual.sum);
+        }
+        assertClose(expected.centroid, actual.centroid);
+        assertArrayEquals(expected.bounds, actual.bounds, 0);
+        // covariances between independent axes are near zero, so scale by the variances
+        final double delta = Arrays.stream(expected.variance).max().getAsDouble() * TOLERANCE + 1e-6;
+        assertArrayEquals(expected.variance, actual.variance, delta);
+        for (int a = 0; a < expected.covariance.length; a++) {
+            assertArrayEquals(expected.covariance[a], actual.covariance[a], delta);
+            assertArrayEquals(expected.sampleCovariance[a], actual.sampleCovariance[a], delta);
+        }
+    }
+
+    private static void assertClose(final double[] expected, final double[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int axis = 0; axis < expected.length; axis++) {
+            assertEquals(expected[axis], actual[axis], Math.abs(expected[axis]) * TOLERANCE);
+        }
+    }
+
+    private static double[] components(final Coordinate2l coord) {
+        return new double[] {coord.getX(), coord.getY()};
+    }
+
+    private static double[] components(final Coordinate3l coord) {
+        return new double[] {coord.getX(), coord.getY(), coord.getZ()};
+    }
+
+    private static double[] components(final Coordinate2d coord) {
+        return coord == null ? null : new double[] {coord.getX(), coord.getY()};
+    }
+
+    private static double[] components(final Coordinate3d coord) {
+        return coord == null ? null : new double[] {coord.getX(), coord.getY(), coord.getZ()};
+    }
+
+    private static double[] components(final Vector2d vector) {
+        return vector == null ? null : vector.toArray();
+    }
+
+    private static double[] components(final Vector3d vector) {
+        return vector == null ? null : vector.toArray();
+    }
+
+    private static double[][] components(final Matrix2d matrix) {
+        return matrix == null ? null : new double[][] {{matrix.get(0, 0), matrix.get(0, 1)}, {matrix.get(1, 0), matrix.get(1, 1)}};
+    }
+
+    private static double[][] components(final Matrix3d matrix) {
+        if (matrix == null) {
+            return null;
+        }
+        final double[][] components = new double[3][3];
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 3; col++) {
+                components[row][col] = matrix.get(row, col);
+            }
+        }
+        return components;
+    }
+
+    private static Stats stats(final Coordinate3dSummaryStatistics statistics) {
+        return new Stats(statistics.getCount(), components(statistics.getSum()), components(statistics.getCentroid()),
+                bounds(statistics.getBounds()), components(statistics.getVariance()),
+                components(statistics.getCovariance()), components(statistics.getSampleCovariance()));
+    }
+
+    private static Stats stats(final Coordinate3fSummaryStatistics statistics) {
+        return new Stats(statistics.getCount(), components(statistics.getSum()), components(statistics.getCentroid()),
+                bounds(statistics.getBounds()), components(statistics.getVariance()),
+                components(statistics.getCovariance()), components(statistics.getSampleCovariance()));
+    }
+
+    private static Stats stats(final Coordinate3iSummaryStatistics statistics) {
+        return new Stats(statistics.getCount(), components(statistics.getSum()), components(statistics.getCentroid()),
+                bounds(statistics.getBounds()), components(statistics.getVariance()),
+                components(statistics.getCovariance()), components(statistics.getSampleCovariance()));
+    }
+
+    private static Stats stats(final Coordinate3lSummaryStatistics statistics) {
+        return new Stats(statistics.getCount(), components(statistics.getSum()), components(statistics.getCentroid()),
+                bounds(statistics.getBounds()), components(statistics.getVariance()),
+                components(statistics.getCovariance()), components(statistics.getSampleCovariance()));
+    }
+
+    private static Stats stats(final Coordinate2dSummaryStatistics statistics) {
+        return new Stats(statistics.getCount(), components(statistics.getSum()), components(statistics.getCentroid()),
+                bounds(statistics.getBounds()), components(statistics.getVariance()),
+                components(statistics.getCovariance()), components(statistics.getSampleCovariance()));
+    }
+
+    private static Stats stats(final Coordinate2fSummaryStatistics statistics) {
+        return new Stats(statistics.getCount(), components(statistics.getSum()), components(statistics.getCentroid()),
+                bounds(statistics.getBounds()), components(statistics.getVariance()),
+                components(statistics.getCovariance()), components(statistics.getSampleCovariance()));
+    }
+
+    private static Stats stats(final Coordinate2iSummaryStatistics statistics) {
+        return new Stats(statistics.getCount(), components(statistics.getSum()), components(statistics.getCentroid()),
+                bounds(statistics.getBounds()), components(statistics.getVariance()),
+                components(statistics.getCovariance()), components(statistics.getSampleCovariance()));
+    }
+
+    private static Stats stats(final Coordinate2lSummaryStatistics statistics) {
+        return new Stats(statistics.getCount(), components(statistics.getSum()), components(statistics.getCentroid()),
+                bounds(statistics.getBounds()), components(statistics.getVariance()),
+                components(statistics.getCovariance()), components(statistics.getSampleCovariance()));
+    }
+
+    private static double[] bounds(final Bounds3d bounds) {
+        return bounds == null ? null : new double[] {bounds.getMinX(), bounds.getMinY(), bounds.getMinZ(), bounds.getMaxX(), bounds.getMaxY(), bounds.getMaxZ()};
+    }
+
+    private static double[] bounds(final Bounds3f bounds) {
+        return bounds == null ? null : new double[] {bounds.getMinX(), bounds.getMinY(), bounds.getMinZ(), bounds.getMaxX(), bounds.getMaxY(), bounds.getMaxZ()};
+    }
+
+    private static double[] bounds(final Bounds3i bounds) {
+        return bounds == null ? null : new double[] {bounds.getMinX(), bounds.getMinY(), bounds.getMinZ(), bounds.getMaxX(), bounds.getMaxY(), bounds.getMaxZ()};
+    }
+
+    private static double[] bounds(final Bounds3l bounds) {
+        return bounds == null ? null : new double[] {bounds.getMinX(), bounds.getMinY(), bounds.getMinZ(), bounds.getMaxX(), bounds.getMaxY(), bounds.getMaxZ()};
+    }
+
+    private static double[] bounds(final Bounds2d bounds) {
+        return bounds == null ? null : new double[] {bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY()};
+    }
+
+    private static double[] bounds(final Bounds2f bounds) {
+        return bounds == null ? null : new double[] {bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY()};
+    }
+
+    private static double[] bounds(final Bounds2i bounds) {
+        return bounds == null ? null : new double[] {bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY()};
+    }
+
+    private static double[] bounds(final Bounds2l bounds) {
+        return bounds == null ? null : new double[] {bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY()};
+    }
+
+    private static final class Stats {
+
+        final long count;
+        final double[] sum;
+        final double[] centroid;
+        final double[] bounds;
+        final double[] variance;
+        final double[][] covariance;
+        final double[][] sampleCovariance;
+
+        Stats(final long count, final double[] sum, final double[] centroid, final double[] bounds, final double[] variance,
+                final double[][] covariance, final double[][] sampleCovariance) {
+            this.count = count;
+            this.sum = sum;
+            this.centroid = centroid;
+            this.bounds = bounds;
+            this.variance = variance;
+            this.covariance = covariance;
+            this.sampleCovariance = sampleCovariance;
+        }
+
+    }
+
+}
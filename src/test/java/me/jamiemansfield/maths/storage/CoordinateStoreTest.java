@@ -0,0 +1,698 @@
+/*
+ * This file is part of maths, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) Jamie Mansfield <https://www.jamierocks.uk/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package me.jamiemansfield.maths.storage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import me.jamiemansfield.maths.coord.Coordinate3d;
+import me.jamiemansfield.maths.coord.Coordinate3dBuffer;
+import me.jamiemansfield.maths.coord.Coordinate3f;
+import me.jamiemansfield.maths.coord.Coordinate3fBuffer;
+import me.jamiemansfield.maths.coord.Coordinate3i;
+import me.jamiemansfield.maths.coord.Coordinate3iBuffer;
+import me.jamiemansfield.maths.coord.Coordinate3l;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Checks each of the coordinate stores against a list of coordinates,
+ * seen through the bits of each component, including across reopening
+ * the file behind the store.
+ */
+@RunWith(Parameterized.class)
+public final class CoordinateStoreTest {
+
+    private static final int CAPACITY = 10_000;
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> stores() {
+        return Arrays.asList(new Object[][] {
+                {"Coordinate3dStore", (Factory) path -> new Coordinate3dStoreView(Coordinate3dStore.create(path, CAPACITY)),
+                        (Opener) (path, readOnly) -> new Coordinate3dStoreView(readOnly ?
+                                Coordinate3dStore.openReadOnly(path) : Coordinate3dStore.open(path)),
+                        (Supplier<Store>) () -> new Coordinate3dStoreView(Coordinate3dStore.allocate(CAPACITY)), "i",
+                        Coordinate3dStore.RECORD_SIZE},
+                {"Coordinate3fStore", (Factory) path -> new Coordinate3fStoreView(Coordinate3fStore.create(path, CAPACITY)),
+                        (Opener) (path, readOnly) -> new Coordinate3fStoreView(readOnly ?
+                                Coordinate3fStore.openReadOnly(path) : Coordinate3fStore.open(path)),
+                        (Supplier<Store>) () -> new Coordinate3fStoreView(Coordinate3fStore.allocate(CAPACITY)), "d",
+                        Coordinate3fStore.RECORD_SIZE},
+                {"Coordinate3iStore", (Factory) path -> new Coordinate3iStoreView(Coordinate3iStore.create(path, CAPACITY)),
+                        (Opener) (path, readOnly) -> new Coordinate3iStoreView(readOnly ?
+                                Coordinate3iStore.openReadOnly(path) : Coordinate3iStore.open(path)),
+                        (Supplier<Store>) () -> new Coordinate3iStoreView(Coordinate3iStore.allocate(CAPACITY)), "l",
+                        Coordinate3iStore.RECORD_SIZE},
+                {"Coordinate3lStore", (Factory) path -> new Coordinate3lStoreView(Coordinate3lStore.create(path, CAPACITY)),
+                        (Opener) (path, readOnly) -> new Coordinate3lStoreView(readOnly ?
+                                Coordinate3lStore.openReadOnly(path) : Coordinate3lStore.open(path)),
+                        (Supplier<Store>) () -> new Coordinate3lStoreView(Coordinate3lStore.allocate(CAPACITY)), "f",
+                        Coordinate3lStore.RECORD_SIZE},
+        });
+    }
+
+    @Parameter(0)
+    public String name;
+
+    @Parameter(1)
+    public Factory factory;
+
+    @Parameter(2)
+    public Opener opener;
+
+    @Parameter(3)
+    public Supplier<Store> allocator;
+
+    // the name of a store of another type
+    @Parameter(4)
+    public String other;
+
+    @Parameter(5)
+    public int recordSize;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void matchesListInMemory() {
+        final Store store = this.allocator.get();
+        assertFalse(store.isPersistent());
+        assertEquals(CAPACITY, store.capacity());
+        assertMatchesList(store, new ArrayList<>(), new Random(1));
+        store.flush();
+    }
+
+    @Test
+    public void matchesListAcrossReopening() throws IOException {
+        final Path path = this.folder.newFile().toPath();
+        final Random random = new Random(2);
+        final List<long[]> expected = new ArrayList<>();
+        try (final Store store = this.factory.create(path)) {
+            assertTrue(store.isPersistent());
+            assertMatchesList(store, expected, random);
+            store.flush();
+        }
+        assertEquals(StoreMapping.HEADER_SIZE + (long) CAPACITY * this.recordSize, Files.size(path));
+
+        try (final Store store = this.opener.open(path, true)) {
+            assertContents(expected, store);
+            assertEquals(CAPACITY, store.capacity());
+        }
+        try (final Store store = this.opener.open(path, false)) {
+            assertContents(expected, store);
+            assertMatchesList(store, expected, random);
+        }
+        try (final Store store = this.opener.open(path, true)) {
+            assertContents(expected, store);
+        }
+    }
+
+    @Test
+    public void rejectsOtherFiles() throws IOException {
+        final Path empty = this.folder.newFile().toPath();
+        assertThrows(IOException.class, () -> this.opener.open(empty, false));
+
+        final Path other = this.folder.newFile().toPath();
+        Files.write(other, new byte[64]);
+        assertThrows(IOException.class, () -> this.opener.open(other, true));
+
+        final Path store = this.folder.newFile().toPath();
+        for (final Object[] parameters : stores()) {
+            if (parameters[0].equals("Coordinate3" + this.other + "Store")) {
+                ((Factory) parameters[1]).create(store).close();
+            }
+        }
+        assertThrows(IOException.class, () -> this.opener.open(store, false));
+    }
+
+    @Test
+    public void rejectsAccessOutOfRange() {
+        final Store store = this.allocator.get();
+        final long[] coord = new long[3];
+        store.add(coord, false);
+        assertThrows(IndexOutOfBoundsException.class, () -> store.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.set(1, coord));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.read(0, 2));
+        assertThrows(IllegalStateException.class, () -> store.write(2, new long[][] {coord}));
+        assertThrows(IllegalStateException.class, () -> store.addAll(new long[CAPACITY][3]));
+
+        for (int i = 1; i < CAPACITY; i++) {
+            store.add(coord, false);
+        }
+        assertThrows(IllegalStateException.class, () -> store.add(coord, false));
+        assertEquals(CAPACITY, store.size());
+    }
+
+    // applies random single and bulk writes to both the store and the
+    // list, checking every way of reading the store back as it goes
+    private static void assertMatchesList(final Store store, final List<long[]> expected, final Random random) {
+        while (expected.size() < CAPACITY) {
+            final int op = random.nextInt(10);
+            if (op < 3 && !expected.isEmpty()) {
+                final int index = random.nextInt(expected.size());
+                final long[] coord = randomCoord(random);
+                store.set(index, coord);
+                expected.set(index, coord);
+            } else if (op < 5) {
+                final int from = random.nextInt(expected.size() + 1);
+                final long[][] coords = new long[Math.min(random.nextInt(100), CAPACITY - from)][];
+                for (int i = 0; i < coords.length; i++) {
+                    coords[i] = randomCoord(random);
+                    if (from + i < expected.size()) {
+                        expected.set(from + i, coords[i]);
+                    } else {
+                        expected.add(coords[i]);
+                    }
+                }
+                store.write(from, coords);
+            } else if (op < 6) {
+                final long[][] coords = new long[Math.min(random.nextInt(100), CAPACITY - expected.size())][];
+                for (int i = 0; i < coords.length; i++) {
+                    coords[i] = randomCoord(random);
+                }
+                assertEquals(expected.size(), store.addAll(coords));
+                expected.addAll(Arrays.asList(coords));
+            } else {
+                final long[] coord = randomCoord(random);
+                assertEquals(expected.size(), store.add(coord, random.nextBoolean()));
+                expected.add(coord);
+            }
+            assertEquals(expected.size(), store.size());
+
+            if (!expected.isEmpty()) {
+                final int from = random.nextInt(expected.size());
+                final int count = random.nextInt(Math.min(50, expected.size() - from) + 1);
+                final long[][] read = random.nextBoolean() ? store.read(from, count) : store.readInto(from, count);
+                for (int i = 0; i < count; i++) {
+                    assertArrayEquals("coordinate " + (from + i), expected.get(from + i), read[i]);
+                }
+            }
+        }
+        assertContents(expected, store);
+    }
+
+    private static void assertContents(final List<long[]> expected, final Store store) {
+        assertEquals(expected.size(), store.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals("coordinate " + i, expected.get(i), store.get(i));
+        }
+    }
+
+    // the raw bits of every type fit within an int, but for longs
+    private static long[] randomCoord(final Random random) {
+        return new long[] {random.nextInt(), random.nextInt(), random.nextInt()};
+    }
+
+    private interface Factory {
+
+        Store create(Path path) throws IOException;
+
+    }
+
+    private interface Opener {
+
+        Store open(Path path, boolean readOnly) throws IOException;
+
+    }
+
+    private interface Store extends Closeable {
+
+        long add(long[] coord, boolean boxed);
+
+        void set(long index, long[] coord);
+
+        long[] get(long index);
+
+        long[][] read(long from, int count);
+
+        void write(long to, long[][] coords);
+
+        long addAll(long[][] coords);
+
+        long[][] readInto(long from, int count);
+
+        long size();
+
+        long capacity();
+
+        boolean isPersistent();
+
+        void flush();
+
+    }
+
+    private static final class Coordinate3dStoreView implements Store {
+
+        private final Coordinate3dStore store;
+
+        Coordinate3dStoreView(final Coordinate3dStore store) {
+            this.store = store;
+        }
+
+        @Override
+        public long add(final long[] coord, final boolean boxed) {
+            if (boxed) {
+                return this.store.add(new Coordinate3d(Double.longBitsToDouble(coord[0]), Double.longBitsToDouble(coord[1]), Double.longBitsToDouble(coord[2])));
+            }
+            return this.store.add(Double.longBitsToDouble(coord[0]), Double.longBitsToDouble(coord[1]), Double.longBitsToDouble(coord[2]));
+        }
+
+        @Override
+        public void set(final long index, final long[] coord) {
+            this.store.set(index, Double.longBitsToDouble(coord[0]), Double.longBitsToDouble(coord[1]), Double.longBitsToDouble(coord[2]));
+        }
+
+        @Override
+        public long[] get(final long index) {
+            final Coordinate3d coord = this.store.get(index);
+            assertEquals(Double.doubleToRawLongBits(coord.getX()), Double.doubleToRawLongBits(this.store.getX(index)));
+            assertEquals(Double.doubleToRawLongBits(coord.getY()), Double.doubleToRawLongBits(this.store.getY(index)));
+            assertEquals(Double.doubleToRawLongBits(coord.getZ()), Double.doubleToRawLongBits(this.store.getZ(index)));
+            return new long[] {Double.doubleToRawLongBits(coord.getX()), Double.doubleToRawLongBits(coord.getY()), Double.doubleToRawLongBits(coord.getZ())};
+        }
+
+        @Override
+        public long[][] read(final long from, final int count) {
+            final double[] xs = new double[count + 2];
+            final double[] ys = new double[count + 2];
+            final double[] zs = new double[count + 2];
+            this.store.read(from, xs, ys, zs, 1, count);
+            final long[][] coords = new long[count][];
+            for (int i = 0; i < count; i++) {
+                coords[i] = new long[] {Double.doubleToRawLongBits(xs[i + 1]), Double.doubleToRawLongBits(ys[i + 1]), Double.doubleToRawLongBits(zs[i + 1])};
+            }
+            return coords;
+        }
+
+        @Override
+        public void write(final long to, final long[][] coords) {
+            final double[] xs = new double[coords.length + 1];
+            final double[] ys = new double[coords.length + 1];
+            final double[] zs = new double[coords.length + 1];
+            for (int i = 0; i < coords.length; i++) {
+                xs[i + 1] = Double.longBitsToDouble(coords[i][0]);
+                ys[i + 1] = Double.longBitsToDouble(coords[i][1]);
+                zs[i + 1] = Double.longBitsToDouble(coords[i][2]);
+            }
+            this.store.write(to, xs, ys, zs, 1, coords.length);
+        }
+
+        @Override
+        public long addAll(final long[][] coords) {
+            final Coordinate3dBuffer buffer = new Coordinate3dBuffer(coords.length);
+            for (final long[] coord : coords) {
+                buffer.add(Double.longBitsToDouble(coord[0]), Double.longBitsToDouble(coord[1]), Double.longBitsToDouble(coord[2]));
+            }
+            return this.store.addAll(buffer);
+        }
+
+        @Override
+        public long[][] readInto(final long from, final int count) {
+            final Coordinate3dBuffer buffer = new Coordinate3dBuffer();
+            buffer.add(0, 0, 0);
+            this.store.readInto(from, count, buffer);
+            assertEquals(count + 1, buffer.size());
+            final long[][] coords = new long[count][];
+            for (int i = 0; i < count; i++) {
+                coords[i] = new long[] {Double.doubleToRawLongBits(buffer.getX(i + 1)), Double.doubleToRawLongBits(buffer.getY(i + 1)), Double.doubleToRawLongBits(buffer.getZ(i + 1))};
+            }
+            return coords;
+        }
+
+        @Override
+        public long size() {
+            return this.store.size();
+        }
+
+        @Override
+        public long capacity() {
+            return this.store.capacity();
+        }
+
+        @Override
+        public boolean isPersistent() {
+            return this.store.isPersistent();
+        }
+
+        @Override
+        public void flush() {
+            this.store.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.store.close();
+        }
+
+    }
+
+    private static final class Coordinate3fStoreView implements Store {
+
+        private final Coordinate3fStore store;
+
+        Coordinate3fStoreView(final Coordinate3fStore store) {
+            this.store = store;
+        }
+
+        @Override
+        public long add(final long[] coord, final boolean boxed) {
+            if (boxed) {
+                return this.store.add(new Coordinate3f(Float.intBitsToFloat((int) coord[0]), Float.intBitsToFloat((int) coord[1]), Float.intBitsToFloat((int) coord[2])));
+            }
+            return this.store.add(Float.intBitsToFloat((int) coord[0]), Float.intBitsToFloat((int) coord[1]), Float.intBitsToFloat((int) coord[2]));
+        }
+
+        @Override
+        public void set(final long index, final long[] coord) {
+            this.store.set(index, Float.intBitsToFloat((int) coord[0]), Float.intBitsToFloat((int) coord[1]), Float.intBitsToFloat((int) coord[2]));
+        }
+
+        @Override
+        public long[] get(final long index) {
+            final Coordinate3f coord = this.store.get(index);
+            assertEquals(Float.floatToRawIntBits(coord.getX()), Float.floatToRawIntBits(this.store.getX(index)));
+            assertEquals(Float.floatToRawIntBits(coord.getY()), Float.floatToRawIntBits(this.store.getY(index)));
+            assertEquals(Float.floatToRawIntBits(coord.getZ()), Float.floatToRawIntBits(this.store.getZ(index)));
+            return new long[] {Float.floatToRawIntBits(coord.getX()), Float.floatToRawIntBits(coord.getY()), Float.floatToRawIntBits(coord.getZ())};
+        }
+
+        @Override
+        public long[][] read(final long from, final int count) {
+            final float[] xs = new float[count + 2];
+            final float[] ys = new float[count + 2];
+            final float[] zs = new float[count + 2];
+            this.store.read(from, xs, ys, zs, 1, count);
+            final long[][] coords = new long[count][];
+            for (int i = 0; i < count; i++) {
+                coords[i] = new long[] {Float.floatToRawIntBits(xs[i + 1]), Float.floatToRawIntBits(ys[i + 1]), Float.floatToRawIntBits(zs[i + 1])};
+            }
+            return coords;
+        }
+
+        @Override
+        public void write(final long to, final long[][] coords) {
+            final float[] xs = new float[coords.length + 1];
+            final float[] ys = new float[coords.length + 1];
+            final float[] zs = new float[coords.length + 1];
+            for (int i = 0; i < coords.length; i++) {
+                xs[i + 1] = Float.intBitsToFloat((int) coords[i][0]);
+                ys[i + 1] = Float.intBitsToFloat((int) coords[i][1]);
+                zs[i + 1] = Float.intBitsToFloat((int) coords[i][2]);
+            }
+            this.store.write(to, xs, ys, zs, 1, coords.length);
+        }
+
+        @Override
+        public long addAll(final long[][] coords) {
+            final Coordinate3fBuffer buffer = new Coordinate3fBuffer(coords.length);
+            for (final long[] coord : coords) {
+                buffer.add(Float.intBitsToFloat((int) coord[0]), Float.intBitsToFloat((int) coord[1]), Float.intBitsToFloat((int) coord[2]));
+            }
+            return this.store.addAll(buffer);
+        }
+
+        @Override
+        public long[][] readInto(final long from, final int count) {
+            final Coordinate3fBuffer buffer = new Coordinate3fBuffer();
+            buffer.add(0, 0, 0);
+            this.store.readInto(from, count, buffer);
+            assertEquals(count + 1, buffer.size());
+            final long[][] coords = new long[count][];
+            for (int i = 0; i < count; i++) {
+                coords[i] = new long[] {Float.floatToRawIntBits(buffer.getX(i + 1)), Float.floatToRawIntBits(buffer.getY(i + 1)), Float.floatToRawIntBits(buffer.getZ(i + 1))};
+            }
+            return coords;
+        }
+
+        @Override
+        public long size() {
+            return this.store.size();
+        }
+
+        @Override
+        public long capacity() {
+            return this.store.capacity();
+        }
+
+        @Override
+        public boolean isPersistent() {
+            return this.store.isPersistent();
+        }
+
+        @Override
+        public void flush() {
+            this.store.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.store.close();
+        }
+
+    }
+
+    private static final class Coordinate3iStoreView implements Store {
+
+        private final Coordinate3iStore store;
+
+        Coordinate3iStoreView(final Coordinate3iStore store) {
+            this.store = store;
+        }
+
+        @Override
+        public long add(final long[] coord, final boolean boxed) {
+            if (boxed) {
+                return this.store.add(new Coordinate3i((int) coord[0], (int) coord[1], (int) coord[2]));
+            }
+            return this.store.add((int) coord[0], (int) coord[1], (int) coord[2]);
+        }
+
+        @Override
+        public void set(final long index, final long[] coord) {
+            this.store.set(index, (int) coord[0], (int) coord[1], (int) coord[2]);
+        }
+
+        @Override
+        public long[] get(final long index) {
+            final Coordinate3i coord = this.store.get(index);
+            assertEquals(coord.getX(), this.store.getX(index));
+            assertEquals(coord.getY(), this.store.getY(index));
+            assertEquals(coord.getZ(), this.store.getZ(index));
+            return new long[] {coord.getX(), coord.getY(), coord.getZ()};
+        }
+
+        @Override
+        public long[][] read(final long from, final int count) {
+            final int[] xs = new int[count + 2];
+            final int[] ys = new int[count + 2];
+            final int[] zs = new int[count + 2];
+            this.store.read(from, xs, ys, zs, 1, count);
+            final long[][] coords = new long[count][];
+            for (int i = 0; i < count; i++) {
+                coords[i] = new long[] {xs[i + 1], ys[i + 1], zs[i + 1]};
+            }
+            return coords;
+        }
+
+        @Override
+        public void write(final long to, final long[][] coords) {
+            final int[] xs = new int[coords.length + 1];
+            final int[] ys = new int[coords.length + 1];
+            final int[] zs = new int[coords.length + 1];
+            for (int i = 0; i < coords.length; i++) {
+                xs[i + 1] = (int) coords[i][0];
+                ys[i + 1] = (int) coords[i][1];
+                zs[i + 1] = (int) coords[i][2];
+            }
+            this.store.write(to, xs, ys, zs, 1, coords.length);
+        }
+
+        @Override
+        public long addAll(final long[][] coords) {
+            final Coordinate3iBuffer buffer = new Coordinate3iBuffer(coords.length);
+            for (final long[] coord : coords) {
+                buffer.add((int) coord[0], (int) coord[1], (int) coord[2]);
+            }
+            return this.store.addAll(buffer);
+        }
+
+        @Override
+        public long[][] readInto(final long from, final int count) {
+            final Coordinate3iBuffer buffer = new Coordinate3iBuffer();
+            buffer.add(0, 0, 0);
+            this.store.readInto(from, count, buffer);
+            assertEquals(count + 1, buffer.size());
+            final long[][] coords = new long[count][];
+            for (int i = 0; i < count; i++) {
+                coords[i] = new long[] {buffer.getX(i + 1), buffer.getY(i + 1), buffer.getZ(i + 1)};
+            }
+            return coords;
+        }
+
+        @Override
+        public long size() {
+            return this.store.size();
+        }
+
+        @Override
+        public long capacity() {
+            return this.store.capacity();
+        }
+
+        @Override
+        public boolean isPersistent() {
+            return this.store.isPersistent();
+        }
+
+        @Override
+        public void flush() {
+            this.store.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.store.close();
+        }
+
+    }
+
+    private static final class Coordinate3lStoreView implements Store {
+
+        private final Coordinate3lStore store;
+
+        Coordinate3lStoreView(final Coordinate3lStore store) {
+            this.store = store;
+        }
+
+        @Override
+        public long add(final long[] coord, final boolean boxed) {
+            if (boxed) {
+                return this.store.add(new Coordinate3l(coord[0], coord[1], coord[2]));
+            }
+            return this.store.add(coord[0], coord[1], coord[2]);
+        }
+
+        @Override
+        public void set(final long index, final long[] coord) {
+            this.store.set(index, coord[0], coord[1], coord[2]);
+        }
+
+        @Override
+        public long[] get(final long index) {
+            final Coordinate3l coord = this.store.get(index);
+            assertEquals(coord.getX(), this.store.getX(index));
+            assertEquals(coord.getY(), this.store.getY(index));
+            assertEquals(coord.getZ(), this.store.getZ(index));
+            return new long[] {coord.getX(), coord.getY(), coord.getZ()};
+        }
+
+        @Override
+        public long[][] read(final long from, final int count) {
+            final long[] xs = new long[count + 2];
+            final long[] ys = new long[count + 2];
+            final long[] zs = new long[count + 2];
+            this.store.read(from, xs, ys, zs, 1, count);
+            final long[][] coords = new long[count][];
+            for (int i = 0; i < count; i++) {
+                coords[i] = new long[] {xs[i + 1], ys[i + 1], zs[i + 1]};
+            }
+            return coords;
+        }
+
+        @Override
+        public void write(final long to, final long[][] coords) {
+            final long[] xs = new long[coords.length + 1];
+            final long[] ys = new long[coords.length + 1];
+            final long[] zs = new long[coords.length + 1];
+            for (int i = 0; i < coords.length; i++) {
+                xs[i + 1] = coords[i][0];
+                ys[i + 1] = coords[i][1];
+                zs[i + 1] = coords[i][2];
+            }
+            this.store.write(to, xs, ys, zs, 1, coords.length);
+        }
+
+        @Override
+        public long addAll(final long[][] coords) {
+            // there is no buffer of longs to add from
+            final long index = this.store.size();
+            this.write(index, coords);
+            return index;
+        }
+
+        @Override
+        public long[][] readInto(final long from, final int count) {
+            return this.read(from, count);
+        }
+
+        @Override
+        public long size() {
+            return this.store.size();
+        }
+
+        @Override
+        public long capacity() {
+            return this.store.capacity();
+        }
+
+        @Override
+        public boolean isPersistent() {
+            return this.store.isPersistent();
+        }
+
+        @Override
+        public void flush() {
+            this.store.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.store.close();
+        }
+
+    }
+
+}